@@ -22,14 +22,18 @@ import com.google.common.collect.ImmutableSet;
 import io.airlift.log.Logger;
 import io.airlift.units.Duration;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.FixedSplitSource;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.TableStatistics;
 import io.prestosql.spi.type.CharType;
@@ -43,6 +47,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
@@ -105,6 +110,11 @@ public class BaseJdbcClient
 {
     private static final Logger log = Logger.get(BaseJdbcClient.class);
 
+    private static final JdbcTypeHandle BIGINT_TYPE_HANDLE = new JdbcTypeHandle(Types.BIGINT, Optional.of("bigint"), 0, 0, Optional.empty());
+    private static final JdbcTypeHandle DOUBLE_TYPE_HANDLE = new JdbcTypeHandle(Types.DOUBLE, Optional.of("double"), 0, 0, Optional.empty());
+    private static final Set<Type> INTEGRAL_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT);
+    private static final Set<Type> ORDERABLE_TYPES = ImmutableSet.of(BIGINT, INTEGER, SMALLINT, TINYINT, DOUBLE, REAL, DATE);
+
     private static final Map<Type, WriteMapping> WRITE_MAPPINGS = ImmutableMap.<Type, WriteMapping>builder()
             .put(BOOLEAN, WriteMapping.booleanMapping("boolean", booleanWriteFunction()))
             .put(BIGINT, WriteMapping.longMapping("bigint", bigintWriteFunction()))
@@ -336,9 +346,7 @@ public class BaseJdbcClient
                 this,
                 session,
                 connection,
-                table.getCatalogName(),
-                table.getSchemaName(),
-                table.getTableName(),
+                table,
                 columns,
                 table.getConstraint(),
                 split.getAdditionalPredicate(),
@@ -840,6 +848,104 @@ public class BaseJdbcClient
         throw new PrestoException(JDBC_ERROR, "limitFunction() is implemented without isLimitGuaranteed()");
     }
 
+    @Override
+    public Optional<JdbcExpression> implementAggregation(ConnectorSession session, AggregateFunction aggregate, Map<String, ColumnHandle> assignments)
+    {
+        String functionName = aggregate.getFunctionName();
+        Type outputType = aggregate.getOutputType();
+
+        if (aggregate.getInputs().isEmpty()) {
+            if (functionName.equals("count") && !aggregate.isDistinct()) {
+                return Optional.of(new JdbcExpression(countExpression("*"), BIGINT_TYPE_HANDLE));
+            }
+            return Optional.empty();
+        }
+        if (aggregate.getInputs().size() != 1 || !(aggregate.getInputs().get(0) instanceof Variable)) {
+            return Optional.empty();
+        }
+
+        JdbcColumnHandle column = (JdbcColumnHandle) assignments.get(((Variable) aggregate.getInputs().get(0)).getName());
+        if (column.getExpression().isPresent()) {
+            return Optional.empty();
+        }
+        Type inputType = column.getColumnType();
+        String distinct = aggregate.isDistinct() ? "DISTINCT " : "";
+        String argument = distinct + quoted(column.getColumnName());
+
+        switch (functionName) {
+            case "count":
+                return Optional.of(new JdbcExpression(countExpression(argument), BIGINT_TYPE_HANDLE));
+            case "min":
+            case "max":
+                // ordering of character types depends on the collation of the remote database
+                if (!outputType.equals(inputType) || !ORDERABLE_TYPES.contains(inputType)) {
+                    return Optional.empty();
+                }
+                return Optional.of(new JdbcExpression(format("%s(%s)", functionName, argument), column.getJdbcTypeHandle()));
+            case "sum":
+                if (outputType.equals(BIGINT) && INTEGRAL_TYPES.contains(inputType)) {
+                    return Optional.of(new JdbcExpression(format("sum(%s%s)", distinct, bigintCast(quoted(column.getColumnName()))), BIGINT_TYPE_HANDLE));
+                }
+                if (outputType.equals(DOUBLE) && inputType.equals(DOUBLE)) {
+                    return Optional.of(new JdbcExpression(format("sum(%s)", argument), DOUBLE_TYPE_HANDLE));
+                }
+                return Optional.empty();
+            case "avg":
+                // the average of integral values may be truncated to an integer by the remote database
+                if (outputType.equals(DOUBLE) && inputType.equals(DOUBLE)) {
+                    return Optional.of(new JdbcExpression(format("avg(%s)", argument), DOUBLE_TYPE_HANDLE));
+                }
+                return Optional.empty();
+            default:
+                return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns the remote expression counting {@code argument}, which is either {@code *} or
+     * an optionally DISTINCT column. The result must not overflow before reaching 2^63 - 1.
+     */
+    protected String countExpression(String argument)
+    {
+        return format("count(%s)", argument);
+    }
+
+    /**
+     * Returns the remote expression converting an integral column to a 64-bit integer, so
+     * that its sum is not computed in the narrower type of the column.
+     */
+    protected String bigintCast(String expression)
+    {
+        return format("CAST(%s AS bigint)", expression);
+    }
+
+    @Override
+    public boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder)
+    {
+        // the ordering of character types depends on the collation of the remote database
+        return supportsLimit() && sortOrder.stream()
+                .allMatch(sortItem -> ORDERABLE_TYPES.contains(sortItem.getColumn().getColumnType()));
+    }
+
+    @Override
+    public boolean supportsJoin(ConnectorSession session, JoinType joinType, List<JdbcJoinCondition> conditions)
+    {
+        // FULL JOIN is not supported by all databases, e.g. MySQL and H2
+        if (joinType == JoinType.FULL_OUTER) {
+            return false;
+        }
+        // comparison of character types depends on the collation of the remote database
+        return conditions.stream().allMatch(condition ->
+                condition.getOperator() != JoinCondition.Operator.IS_DISTINCT_FROM &&
+                        isJoinKeyType(condition.getLeftColumn().getColumnType()) &&
+                        isJoinKeyType(condition.getRightColumn().getColumnType()));
+    }
+
+    private static boolean isJoinKeyType(Type type)
+    {
+        return INTEGRAL_TYPES.contains(type) || type.equals(DATE);
+    }
+
     protected String quoted(String name)
     {
         name = name.replace(identifierQuote, identifierQuote + identifierQuote);
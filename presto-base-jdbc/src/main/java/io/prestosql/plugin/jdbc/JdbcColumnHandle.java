@@ -33,11 +33,12 @@ public final class JdbcColumnHandle
     private final Type columnType;
     private final boolean nullable;
     private final Optional<String> comment;
+    private final Optional<String> expression;
 
     // All and only required fields
     public JdbcColumnHandle(String columnName, JdbcTypeHandle jdbcTypeHandle, Type columnType)
     {
-        this(columnName, jdbcTypeHandle, columnType, true, Optional.empty());
+        this(columnName, jdbcTypeHandle, columnType, true, Optional.empty(), Optional.empty());
     }
 
     /**
@@ -46,7 +47,7 @@ public final class JdbcColumnHandle
     @Deprecated
     public JdbcColumnHandle(String columnName, JdbcTypeHandle jdbcTypeHandle, Type columnType, boolean nullable)
     {
-        this(columnName, jdbcTypeHandle, columnType, nullable, Optional.empty());
+        this(columnName, jdbcTypeHandle, columnType, nullable, Optional.empty(), Optional.empty());
     }
 
     /**
@@ -59,13 +60,15 @@ public final class JdbcColumnHandle
             @JsonProperty("jdbcTypeHandle") JdbcTypeHandle jdbcTypeHandle,
             @JsonProperty("columnType") Type columnType,
             @JsonProperty("nullable") boolean nullable,
-            @JsonProperty("comment") Optional<String> comment)
+            @JsonProperty("comment") Optional<String> comment,
+            @JsonProperty("expression") Optional<String> expression)
     {
         this.columnName = requireNonNull(columnName, "columnName is null");
         this.jdbcTypeHandle = requireNonNull(jdbcTypeHandle, "jdbcTypeHandle is null");
         this.columnType = requireNonNull(columnType, "columnType is null");
         this.nullable = nullable;
         this.comment = requireNonNull(comment, "comment is null");
+        this.expression = requireNonNull(expression, "expression is null");
     }
 
     @JsonProperty
@@ -98,6 +101,16 @@ public final class JdbcColumnHandle
         return comment;
     }
 
+    /**
+     * SQL expression computing the column in the remote database, for synthetic columns
+     * such as the results of pushed down aggregations.
+     */
+    @JsonProperty
+    public Optional<String> getExpression()
+    {
+        return expression;
+    }
+
     public ColumnMetadata getColumnMetadata()
     {
         return ColumnMetadata.builder()
@@ -153,6 +166,7 @@ public final class JdbcColumnHandle
         private Type columnType;
         private boolean nullable = true;
         private Optional<String> comment = Optional.empty();
+        private Optional<String> expression = Optional.empty();
 
         public Builder() {}
 
@@ -163,6 +177,7 @@ public final class JdbcColumnHandle
             this.columnType = handle.getColumnType();
             this.nullable = handle.isNullable();
             this.comment = handle.getComment();
+            this.expression = handle.getExpression();
         }
 
         public Builder setColumnName(String columnName)
@@ -195,6 +210,12 @@ public final class JdbcColumnHandle
             return this;
         }
 
+        public Builder setExpression(Optional<String> expression)
+        {
+            this.expression = expression;
+            return this;
+        }
+
         public JdbcColumnHandle build()
         {
             return new JdbcColumnHandle(
@@ -202,7 +223,8 @@ public final class JdbcColumnHandle
                     jdbcTypeHandle,
                     columnType,
                     nullable,
-                    comment);
+                    comment,
+                    expression);
         }
     }
 }
@@ -0,0 +1,135 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.jdbc;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.connector.JoinType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Join of two tables computed by the remote database. The joined relation exposes the
+ * projected columns of both sides under new names, to avoid clashes between the sides.
+ */
+public final class JdbcJoin
+{
+    private final JoinType joinType;
+    private final JdbcTableHandle left;
+    private final JdbcTableHandle right;
+    private final List<JdbcJoinCondition> conditions;
+    private final Map<String, JdbcColumnHandle> leftProjections;
+    private final Map<String, JdbcColumnHandle> rightProjections;
+
+    @JsonCreator
+    public JdbcJoin(
+            @JsonProperty("joinType") JoinType joinType,
+            @JsonProperty("left") JdbcTableHandle left,
+            @JsonProperty("right") JdbcTableHandle right,
+            @JsonProperty("conditions") List<JdbcJoinCondition> conditions,
+            @JsonProperty("leftProjections") Map<String, JdbcColumnHandle> leftProjections,
+            @JsonProperty("rightProjections") Map<String, JdbcColumnHandle> rightProjections)
+    {
+        this.joinType = requireNonNull(joinType, "joinType is null");
+        this.left = requireNonNull(left, "left is null");
+        this.right = requireNonNull(right, "right is null");
+        this.conditions = ImmutableList.copyOf(requireNonNull(conditions, "conditions is null"));
+        this.leftProjections = ImmutableMap.copyOf(requireNonNull(leftProjections, "leftProjections is null"));
+        this.rightProjections = ImmutableMap.copyOf(requireNonNull(rightProjections, "rightProjections is null"));
+    }
+
+    @JsonProperty
+    public JoinType getJoinType()
+    {
+        return joinType;
+    }
+
+    @JsonProperty
+    public JdbcTableHandle getLeft()
+    {
+        return left;
+    }
+
+    @JsonProperty
+    public JdbcTableHandle getRight()
+    {
+        return right;
+    }
+
+    @JsonProperty
+    public List<JdbcJoinCondition> getConditions()
+    {
+        return conditions;
+    }
+
+    /**
+     * Columns of the left table exposed by the join, keyed by their name in the joined relation.
+     */
+    @JsonProperty
+    public Map<String, JdbcColumnHandle> getLeftProjections()
+    {
+        return leftProjections;
+    }
+
+    /**
+     * Columns of the right table exposed by the join, keyed by their name in the joined relation.
+     */
+    @JsonProperty
+    public Map<String, JdbcColumnHandle> getRightProjections()
+    {
+        return rightProjections;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        JdbcJoin that = (JdbcJoin) o;
+        return joinType == that.joinType &&
+                left.equals(that.left) &&
+                right.equals(that.right) &&
+                conditions.equals(that.conditions) &&
+                leftProjections.equals(that.leftProjections) &&
+                rightProjections.equals(that.rightProjections);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(joinType, left, right, conditions, leftProjections, rightProjections);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("joinType", joinType)
+                .add("left", left)
+                .add("right", right)
+                .add("conditions", conditions)
+                .toString();
+    }
+}
@@ -17,6 +17,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorInsertTableHandle;
@@ -30,15 +32,25 @@ import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinStatistics;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.connector.LimitApplicationResult;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.statistics.ComputedStatistics;
 import io.prestosql.spi.statistics.TableStatistics;
 
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -46,21 +58,30 @@ import java.util.OptionalLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.prestosql.spi.StandardErrorCode.PERMISSION_DENIED;
 import static java.util.Objects.requireNonNull;
 
 public class JdbcMetadata
         implements ConnectorMetadata
 {
+    private static final String SYNTHETIC_COLUMN_NAME_PREFIX = "_presto_aggregate_";
+    private static final String JOIN_COLUMN_NAME_PREFIX = "_presto_join_";
+
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
+    private final boolean joinPushdownEnabled;
+    private final double maxJoinToTablesRatio;
 
     private final AtomicReference<Runnable> rollbackAction = new AtomicReference<>();
 
-    public JdbcMetadata(JdbcClient jdbcClient, boolean allowDropTable)
+    public JdbcMetadata(JdbcClient jdbcClient, boolean allowDropTable, boolean joinPushdownEnabled, double maxJoinToTablesRatio)
     {
         this.jdbcClient = requireNonNull(jdbcClient, "client is null");
         this.allowDropTable = allowDropTable;
+        this.joinPushdownEnabled = joinPushdownEnabled;
+        this.maxJoinToTablesRatio = maxJoinToTablesRatio;
     }
 
     @Override
@@ -87,6 +108,11 @@ public class JdbcMetadata
     {
         JdbcTableHandle handle = (JdbcTableHandle) table;
 
+        if (handle.getGroupingSets().isPresent() || handle.getLimit().isPresent()) {
+            // the constraint is applied before the aggregation and the limit in the remote query
+            return Optional.empty();
+        }
+
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
         TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
         if (oldDomain.equals(newDomain)) {
@@ -99,7 +125,10 @@ public class JdbcMetadata
                 handle.getSchemaName(),
                 handle.getTableName(),
                 newDomain,
-                handle.getLimit());
+                handle.getLimit(),
+                handle.getSortOrder(),
+                handle.getGroupingSets(),
+                handle.getJoin());
 
         return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
     }
@@ -123,11 +152,216 @@ public class JdbcMetadata
                 handle.getSchemaName(),
                 handle.getTableName(),
                 handle.getConstraint(),
-                OptionalLong.of(limit));
+                OptionalLong.of(limit),
+                handle.getSortOrder(),
+                handle.getGroupingSets(),
+                handle.getJoin());
 
         return Optional.of(new LimitApplicationResult<>(handle, jdbcClient.isLimitGuaranteed()));
     }
 
+    @Override
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        JdbcTableHandle handle = (JdbcTableHandle) table;
+
+        List<JdbcSortItem> sortOrder = sortItems.stream()
+                .map(sortItem -> new JdbcSortItem((JdbcColumnHandle) assignments.get(sortItem.getName()), sortItem.getSortOrder()))
+                .collect(toImmutableList());
+        if (!jdbcClient.supportsTopN(session, sortOrder)) {
+            return Optional.empty();
+        }
+
+        if (handle.getSortOrder().isPresent()) {
+            // only a smaller TopN in the same order can be applied to the first rows of the table
+            if (!handle.getSortOrder().get().equals(sortOrder) || handle.getLimit().getAsLong() <= topNCount) {
+                return Optional.empty();
+            }
+        }
+        else if (handle.getLimit().isPresent()) {
+            // the TopN would be computed over the limited rows otherwise
+            return Optional.empty();
+        }
+
+        handle = new JdbcTableHandle(
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                OptionalLong.of(topNCount),
+                Optional.of(sortOrder),
+                handle.getGroupingSets(),
+                handle.getJoin());
+
+        return Optional.of(new TopNApplicationResult<>(handle, jdbcClient.isLimitGuaranteed()));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<List<ColumnHandle>> groupingSets)
+    {
+        JdbcTableHandle handle = (JdbcTableHandle) table;
+
+        // the aggregation would be computed over the limited rows otherwise
+        if (handle.getGroupingSets().isPresent() || handle.getLimit().isPresent() || groupingSets.size() != 1) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<JdbcColumnHandle> newColumns = ImmutableList.builder();
+        ImmutableList.Builder<ConnectorExpression> projections = ImmutableList.builder();
+        ImmutableList.Builder<Assignment> resultAssignments = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            AggregateFunction aggregate = aggregates.get(i);
+            Optional<JdbcExpression> expression = jdbcClient.implementAggregation(session, aggregate, assignments);
+            if (!expression.isPresent()) {
+                return Optional.empty();
+            }
+
+            String columnName = SYNTHETIC_COLUMN_NAME_PREFIX + i;
+            JdbcColumnHandle newColumn = JdbcColumnHandle.builder()
+                    .setColumnName(columnName)
+                    .setJdbcTypeHandle(expression.get().getJdbcTypeHandle())
+                    .setColumnType(aggregate.getOutputType())
+                    .setExpression(Optional.of(expression.get().getExpression()))
+                    .build();
+
+            newColumns.add(newColumn);
+            projections.add(new Variable(columnName, aggregate.getOutputType()));
+            resultAssignments.add(new Assignment(columnName, newColumn, aggregate.getOutputType()));
+        }
+
+        List<JdbcColumnHandle> groupingColumns = groupingSets.get(0).stream()
+                .map(JdbcColumnHandle.class::cast)
+                .collect(toImmutableList());
+
+        handle = new JdbcTableHandle(
+                handle.getSchemaTableName(),
+                handle.getCatalogName(),
+                handle.getSchemaName(),
+                handle.getTableName(),
+                handle.getConstraint(),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.of(ImmutableList.of(groupingColumns)),
+                handle.getJoin());
+
+        // grouping columns are exposed unchanged by the aggregated table
+        Map<ColumnHandle, ColumnHandle> groupingColumnMapping = groupingColumns.stream()
+                .collect(toImmutableMap(column -> column, column -> column));
+
+        return Optional.of(new AggregationApplicationResult<>(handle, projections.build(), resultAssignments.build(), groupingColumnMapping));
+    }
+
+    @Override
+    public Optional<JoinApplicationResult<ConnectorTableHandle>> applyJoin(
+            ConnectorSession session,
+            JoinType joinType,
+            ConnectorTableHandle left,
+            ConnectorTableHandle right,
+            List<JoinCondition> joinConditions,
+            Map<String, ColumnHandle> leftAssignments,
+            Map<String, ColumnHandle> rightAssignments,
+            JoinStatistics statistics)
+    {
+        if (!joinPushdownEnabled) {
+            return Optional.empty();
+        }
+
+        JdbcTableHandle leftHandle = (JdbcTableHandle) left;
+        JdbcTableHandle rightHandle = (JdbcTableHandle) right;
+        if (!isPlainTable(leftHandle) || !isPlainTable(rightHandle)) {
+            return Optional.empty();
+        }
+
+        if (!isJoinCheaperThanTables(statistics)) {
+            return Optional.empty();
+        }
+
+        ImmutableList.Builder<JdbcJoinCondition> conditions = ImmutableList.builder();
+        for (JoinCondition condition : joinConditions) {
+            if (!(condition.getLeftExpression() instanceof Variable) || !(condition.getRightExpression() instanceof Variable)) {
+                return Optional.empty();
+            }
+            conditions.add(new JdbcJoinCondition(
+                    (JdbcColumnHandle) leftAssignments.get(((Variable) condition.getLeftExpression()).getName()),
+                    condition.getOperator(),
+                    (JdbcColumnHandle) rightAssignments.get(((Variable) condition.getRightExpression()).getName())));
+        }
+        if (!jdbcClient.supportsJoin(session, joinType, conditions.build())) {
+            return Optional.empty();
+        }
+
+        // columns of both sides are renamed, as the tables may have columns with the same name
+        int nextColumnId = 0;
+        Map<ColumnHandle, ColumnHandle> leftColumns = new LinkedHashMap<>();
+        Map<String, JdbcColumnHandle> leftProjections = new LinkedHashMap<>();
+        for (ColumnHandle column : leftAssignments.values()) {
+            if (!leftColumns.containsKey(column)) {
+                JdbcColumnHandle newColumn = toJoinColumn((JdbcColumnHandle) column, JOIN_COLUMN_NAME_PREFIX + nextColumnId++);
+                leftColumns.put(column, newColumn);
+                leftProjections.put(newColumn.getColumnName(), (JdbcColumnHandle) column);
+            }
+        }
+        Map<ColumnHandle, ColumnHandle> rightColumns = new LinkedHashMap<>();
+        Map<String, JdbcColumnHandle> rightProjections = new LinkedHashMap<>();
+        for (ColumnHandle column : rightAssignments.values()) {
+            if (!rightColumns.containsKey(column)) {
+                JdbcColumnHandle newColumn = toJoinColumn((JdbcColumnHandle) column, JOIN_COLUMN_NAME_PREFIX + nextColumnId++);
+                rightColumns.put(column, newColumn);
+                rightProjections.put(newColumn.getColumnName(), (JdbcColumnHandle) column);
+            }
+        }
+
+        JdbcJoin join = new JdbcJoin(joinType, leftHandle, rightHandle, conditions.build(), leftProjections, rightProjections);
+        JdbcTableHandle handle = new JdbcTableHandle(
+                leftHandle.getSchemaTableName(),
+                leftHandle.getCatalogName(),
+                leftHandle.getSchemaName(),
+                leftHandle.getTableName(),
+                TupleDomain.all(),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(join));
+
+        return Optional.of(new JoinApplicationResult<>(handle, leftColumns, rightColumns));
+    }
+
+    private static boolean isPlainTable(JdbcTableHandle handle)
+    {
+        // a limited or aggregated table cannot be used as a side of the join, and joins are not nested
+        return !handle.getLimit().isPresent() && !handle.getGroupingSets().isPresent() && !handle.getJoin().isPresent();
+    }
+
+    private boolean isJoinCheaperThanTables(JoinStatistics statistics)
+    {
+        if (!statistics.getLeftStatistics().isPresent() || !statistics.getRightStatistics().isPresent() || !statistics.getJoinStatistics().isPresent()) {
+            // join pushdown is disabled by default, so a catalog enabling it opts into pushing down joins it cannot estimate
+            return true;
+        }
+        double tablesDataSize = statistics.getLeftStatistics().get().getDataSize() + statistics.getRightStatistics().get().getDataSize();
+        return statistics.getJoinStatistics().get().getDataSize() <= maxJoinToTablesRatio * tablesDataSize;
+    }
+
+    private static JdbcColumnHandle toJoinColumn(JdbcColumnHandle column, String columnName)
+    {
+        // outer joins can produce nulls on either side
+        return JdbcColumnHandle.builderFrom(column)
+                .setColumnName(columnName)
+                .setNullable(true)
+                .build();
+    }
+
     @Override
     public boolean usesLegacyTableLayouts()
     {
@@ -16,9 +16,13 @@ package io.prestosql.plugin.jdbc;
 import io.airlift.configuration.Config;
 import io.airlift.configuration.ConfigDescription;
 
+import javax.validation.constraints.DecimalMin;
+
 public class JdbcMetadataConfig
 {
     private boolean allowDropTable;
+    private boolean joinPushdownEnabled;
+    private double maxJoinToTablesRatio = 1.25;
 
     public boolean isAllowDropTable()
     {
@@ -32,4 +36,31 @@ public class JdbcMetadataConfig
         this.allowDropTable = allowDropTable;
         return this;
     }
+
+    public boolean isJoinPushdownEnabled()
+    {
+        return joinPushdownEnabled;
+    }
+
+    @Config("join-pushdown.enabled")
+    @ConfigDescription("Enable join pushdown")
+    public JdbcMetadataConfig setJoinPushdownEnabled(boolean joinPushdownEnabled)
+    {
+        this.joinPushdownEnabled = joinPushdownEnabled;
+        return this;
+    }
+
+    @DecimalMin("0.0")
+    public double getMaxJoinToTablesRatio()
+    {
+        return maxJoinToTablesRatio;
+    }
+
+    @Config("join-pushdown.max-join-to-tables-ratio")
+    @ConfigDescription("Maximum ratio of the estimated join result size to the combined size of the joined tables for the join to be pushed down")
+    public JdbcMetadataConfig setMaxJoinToTablesRatio(double maxJoinToTablesRatio)
+    {
+        this.maxJoinToTablesRatio = maxJoinToTablesRatio;
+        return this;
+    }
 }
@@ -21,6 +21,8 @@ public class JdbcMetadataFactory
 {
     private final JdbcClient jdbcClient;
     private final boolean allowDropTable;
+    private final boolean joinPushdownEnabled;
+    private final double maxJoinToTablesRatio;
 
     @Inject
     public JdbcMetadataFactory(@InternalBaseJdbc JdbcClient jdbcClient, JdbcMetadataConfig config)
@@ -28,10 +30,12 @@ public class JdbcMetadataFactory
         this.jdbcClient = requireNonNull(jdbcClient, "jdbcClient is null");
         requireNonNull(config, "config is null");
         this.allowDropTable = config.isAllowDropTable();
+        this.joinPushdownEnabled = config.isJoinPushdownEnabled();
+        this.maxJoinToTablesRatio = config.getMaxJoinToTablesRatio();
     }
 
     public JdbcMetadata create()
     {
-        return new JdbcMetadata(new TransactionScopeCachingJdbcClient(jdbcClient), allowDropTable);
+        return new JdbcMetadata(new TransactionScopeCachingJdbcClient(jdbcClient), allowDropTable, joinPushdownEnabled, maxJoinToTablesRatio);
     }
 }
@@ -16,6 +16,7 @@ package io.prestosql.plugin.jdbc;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.SchemaTableName;
@@ -23,9 +24,12 @@ import io.prestosql.spi.predicate.TupleDomain;
 
 import javax.annotation.Nullable;
 
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public final class JdbcTableHandle
@@ -39,12 +43,26 @@ public final class JdbcTableHandle
     private final String tableName;
     private final TupleDomain<ColumnHandle> constraint;
     private final OptionalLong limit;
+    private final Optional<List<JdbcSortItem>> sortOrder;
+    private final Optional<List<List<JdbcColumnHandle>>> groupingSets;
+    private final Optional<JdbcJoin> join;
 
     public JdbcTableHandle(SchemaTableName schemaTableName, @Nullable String catalogName, @Nullable String schemaName, String tableName)
     {
         this(schemaTableName, catalogName, schemaName, tableName, TupleDomain.all(), OptionalLong.empty());
     }
 
+    public JdbcTableHandle(
+            SchemaTableName schemaTableName,
+            @Nullable String catalogName,
+            @Nullable String schemaName,
+            String tableName,
+            TupleDomain<ColumnHandle> constraint,
+            OptionalLong limit)
+    {
+        this(schemaTableName, catalogName, schemaName, tableName, constraint, limit, Optional.empty(), Optional.empty(), Optional.empty());
+    }
+
     @JsonCreator
     public JdbcTableHandle(
             @JsonProperty("schemaTableName") SchemaTableName schemaTableName,
@@ -52,7 +70,10 @@ public final class JdbcTableHandle
             @JsonProperty("schemaName") @Nullable String schemaName,
             @JsonProperty("tableName") String tableName,
             @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
-            @JsonProperty("limit") OptionalLong limit)
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("sortOrder") Optional<List<JdbcSortItem>> sortOrder,
+            @JsonProperty("groupingSets") Optional<List<List<JdbcColumnHandle>>> groupingSets,
+            @JsonProperty("join") Optional<JdbcJoin> join)
     {
         this.schemaTableName = requireNonNull(schemaTableName, "schemaTableName is null");
         this.catalogName = catalogName;
@@ -60,6 +81,11 @@ public final class JdbcTableHandle
         this.tableName = requireNonNull(tableName, "tableName is null");
         this.constraint = requireNonNull(constraint, "constraint is null");
         this.limit = requireNonNull(limit, "limit is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
+        this.groupingSets = requireNonNull(groupingSets, "groupingSets is null").map(sets -> sets.stream()
+                .map(ImmutableList::copyOf)
+                .collect(toImmutableList()));
+        this.join = requireNonNull(join, "join is null");
     }
 
     @JsonProperty
@@ -100,6 +126,36 @@ public final class JdbcTableHandle
         return limit;
     }
 
+    /**
+     * Sort order of the TopN pushed down into the table, if any. When present, the table produces
+     * the first {@link #getLimit()} rows in this order.
+     */
+    @JsonProperty
+    public Optional<List<JdbcSortItem>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    /**
+     * Grouping sets of the aggregation pushed down into the table, if any. When present, the table
+     * produces one row per group and its synthetic columns carry the aggregate expressions.
+     */
+    @JsonProperty
+    public Optional<List<List<JdbcColumnHandle>>> getGroupingSets()
+    {
+        return groupingSets;
+    }
+
+    /**
+     * Join pushed down into the table, if any. When present, the table is the relation
+     * produced by the join rather than the table named by this handle.
+     */
+    @JsonProperty
+    public Optional<JdbcJoin> getJoin()
+    {
+        return join;
+    }
+
     @Override
     public boolean equals(Object obj)
     {
@@ -110,13 +166,16 @@ public final class JdbcTableHandle
             return false;
         }
         JdbcTableHandle o = (JdbcTableHandle) obj;
-        return Objects.equals(this.schemaTableName, o.schemaTableName);
+        return Objects.equals(this.schemaTableName, o.schemaTableName) &&
+                Objects.equals(this.sortOrder, o.sortOrder) &&
+                Objects.equals(this.groupingSets, o.groupingSets) &&
+                Objects.equals(this.join, o.join);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(schemaTableName);
+        return Objects.hash(schemaTableName, sortOrder, groupingSets, join);
     }
 
     @Override
@@ -125,6 +184,9 @@ public final class JdbcTableHandle
         StringBuilder builder = new StringBuilder();
         builder.append(schemaTableName).append(" ");
         Joiner.on(".").skipNulls().appendTo(builder, catalogName, schemaName, tableName);
+        join.ifPresent(value -> builder.append(" join=").append(value));
+        groupingSets.ifPresent(sets -> builder.append(" groupingSets=").append(sets));
+        sortOrder.ifPresent(value -> builder.append(" sortOrder=").append(value));
         limit.ifPresent(value -> builder.append(" limit=").append(value));
         return builder.toString();
     }
@@ -19,8 +19,10 @@ import com.google.common.collect.ImmutableList;
 import io.airlift.log.Logger;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
+import io.prestosql.spi.connector.JoinType;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.TupleDomain;
@@ -33,9 +35,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Strings.isNullOrEmpty;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static java.lang.String.format;
 import static java.util.Collections.nCopies;
@@ -98,12 +102,50 @@ public class QueryBuilder
             Optional<String> additionalPredicate,
             Function<String, String> sqlFunction)
             throws SQLException
+    {
+        return buildSql(client, session, connection, getRelation(catalog, schema, table), new ArrayList<>(), Optional.empty(), Optional.empty(), columns, tupleDomain, additionalPredicate, sqlFunction);
+    }
+
+    public PreparedStatement buildSql(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            JdbcTableHandle table,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<String> additionalPredicate,
+            Function<String, String> sqlFunction)
+            throws SQLException
+    {
+        List<TypeAndValue> accumulator = new ArrayList<>();
+        String relation;
+        if (table.getJoin().isPresent()) {
+            relation = getJoinRelation(client, session, connection, table.getJoin().get(), accumulator);
+        }
+        else {
+            relation = getRelation(table.getCatalogName(), table.getSchemaName(), table.getTableName());
+        }
+        return buildSql(client, session, connection, relation, accumulator, table.getGroupingSets(), table.getSortOrder(), columns, tupleDomain, additionalPredicate, sqlFunction);
+    }
+
+    private PreparedStatement buildSql(
+            JdbcClient client,
+            ConnectorSession session,
+            Connection connection,
+            String relation,
+            List<TypeAndValue> accumulator,
+            Optional<List<List<JdbcColumnHandle>>> groupingSets,
+            Optional<List<JdbcSortItem>> sortOrder,
+            List<JdbcColumnHandle> columns,
+            TupleDomain<ColumnHandle> tupleDomain,
+            Optional<String> additionalPredicate,
+            Function<String, String> sqlFunction)
+            throws SQLException
     {
         StringBuilder sql = new StringBuilder();
 
         String columnNames = columns.stream()
-                .map(JdbcColumnHandle::getColumnName)
-                .map(this::quote)
+                .map(this::toSelectExpression)
                 .collect(joining(", "));
 
         sql.append("SELECT ");
@@ -113,17 +155,11 @@ public class QueryBuilder
         }
 
         sql.append(" FROM ");
-        if (!isNullOrEmpty(catalog)) {
-            sql.append(quote(catalog)).append('.');
-        }
-        if (!isNullOrEmpty(schema)) {
-            sql.append(quote(schema)).append('.');
-        }
-        sql.append(quote(table));
-
-        List<TypeAndValue> accumulator = new ArrayList<>();
+        sql.append(relation);
 
-        List<String> clauses = toConjuncts(client, session, connection, columns, tupleDomain, accumulator);
+        // the constraint is applied before the aggregation, so it may refer to columns not produced by the query
+        List<JdbcColumnHandle> constrainedColumns = groupingSets.isPresent() ? getConstrainedColumns(tupleDomain) : columns;
+        List<String> clauses = toConjuncts(client, session, connection, constrainedColumns, tupleDomain, accumulator);
         if (additionalPredicate.isPresent()) {
             clauses = ImmutableList.<String>builder()
                     .addAll(clauses)
@@ -135,6 +171,24 @@ public class QueryBuilder
                     .append(Joiner.on(" AND ").join(clauses));
         }
 
+        if (groupingSets.isPresent()) {
+            List<JdbcColumnHandle> groupingColumns = getOnlyElement(groupingSets.get());
+            if (!groupingColumns.isEmpty()) {
+                sql.append(" GROUP BY ")
+                        .append(groupingColumns.stream()
+                                .map(JdbcColumnHandle::getColumnName)
+                                .map(this::quote)
+                                .collect(joining(", ")));
+            }
+        }
+
+        if (sortOrder.isPresent()) {
+            sql.append(" ORDER BY ")
+                    .append(sortOrder.get().stream()
+                            .map(this::toOrderByItem)
+                            .collect(joining(", ")));
+        }
+
         String query = sqlFunction.apply(sql.toString());
         log.debug("Preparing query: %s", query);
         PreparedStatement statement = client.getPreparedStatement(connection, query);
@@ -171,6 +225,97 @@ public class QueryBuilder
         return statement;
     }
 
+    private String getRelation(String catalog, String schema, String table)
+    {
+        StringBuilder sql = new StringBuilder();
+        if (!isNullOrEmpty(catalog)) {
+            sql.append(quote(catalog)).append('.');
+        }
+        if (!isNullOrEmpty(schema)) {
+            sql.append(quote(schema)).append('.');
+        }
+        sql.append(quote(table));
+        return sql.toString();
+    }
+
+    private String getJoinRelation(JdbcClient client, ConnectorSession session, Connection connection, JdbcJoin join, List<TypeAndValue> accumulator)
+    {
+        String projections = Stream.concat(
+                join.getLeftProjections().entrySet().stream()
+                        .map(entry -> format("l.%s AS %s", quote(entry.getValue().getColumnName()), quote(entry.getKey()))),
+                join.getRightProjections().entrySet().stream()
+                        .map(entry -> format("r.%s AS %s", quote(entry.getValue().getColumnName()), quote(entry.getKey()))))
+                .collect(joining(", "));
+        String conditions = join.getConditions().stream()
+                .map(condition -> format(
+                        "l.%s %s r.%s",
+                        quote(condition.getLeftColumn().getColumnName()),
+                        condition.getOperator().getValue(),
+                        quote(condition.getRightColumn().getColumnName())))
+                .collect(joining(" AND "));
+
+        // the sides are constrained before the join, as constraining an outer join changes its result
+        return format(
+                "(SELECT %s FROM %s l %s %s r ON %s) o",
+                projections,
+                getJoinSide(client, session, connection, join.getLeft(), accumulator),
+                getJoinKeyword(join.getJoinType()),
+                getJoinSide(client, session, connection, join.getRight(), accumulator),
+                conditions);
+    }
+
+    private String getJoinSide(JdbcClient client, ConnectorSession session, Connection connection, JdbcTableHandle table, List<TypeAndValue> accumulator)
+    {
+        String relation = getRelation(table.getCatalogName(), table.getSchemaName(), table.getTableName());
+        TupleDomain<ColumnHandle> constraint = table.getConstraint();
+        if (constraint.isAll()) {
+            return relation;
+        }
+        List<String> clauses = toConjuncts(client, session, connection, getConstrainedColumns(constraint), constraint, accumulator);
+        return format("(SELECT * FROM %s WHERE %s)", relation, Joiner.on(" AND ").join(clauses));
+    }
+
+    private static String getJoinKeyword(JoinType joinType)
+    {
+        switch (joinType) {
+            case INNER:
+                return "INNER JOIN";
+            case LEFT_OUTER:
+                return "LEFT JOIN";
+            case RIGHT_OUTER:
+                return "RIGHT JOIN";
+            case FULL_OUTER:
+                return "FULL JOIN";
+        }
+        throw new IllegalArgumentException("Unsupported join type: " + joinType);
+    }
+
+    private String toOrderByItem(JdbcSortItem sortItem)
+    {
+        SortOrder sortOrder = sortItem.getSortOrder();
+        return format(
+                "%s %s NULLS %s",
+                quote(sortItem.getColumn().getColumnName()),
+                sortOrder.isAscending() ? "ASC" : "DESC",
+                sortOrder.isNullsFirst() ? "FIRST" : "LAST");
+    }
+
+    private String toSelectExpression(JdbcColumnHandle column)
+    {
+        return column.getExpression()
+                .map(expression -> expression + " AS " + quote(column.getColumnName()))
+                .orElseGet(() -> quote(column.getColumnName()));
+    }
+
+    private static List<JdbcColumnHandle> getConstrainedColumns(TupleDomain<ColumnHandle> tupleDomain)
+    {
+        return tupleDomain.getDomains()
+                .map(domains -> domains.keySet().stream()
+                        .map(JdbcColumnHandle.class::cast)
+                        .collect(toImmutableList()))
+                .orElseGet(ImmutableList::of);
+    }
+
     private static Domain pushDownDomain(JdbcClient client, ConnectorSession session, Connection connection, JdbcColumnHandle column, Domain domain)
     {
         return client.toPrestoType(session, connection, column.getJdbcTypeHandle())
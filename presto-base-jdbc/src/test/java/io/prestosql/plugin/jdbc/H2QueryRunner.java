@@ -14,6 +14,7 @@
 package io.prestosql.plugin.jdbc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.tpch.TpchTable;
 import io.prestosql.Session;
 import io.prestosql.plugin.tpch.TpchPlugin;
@@ -56,7 +57,10 @@ public final class H2QueryRunner
             createSchema(properties, "tpch");
 
             queryRunner.installPlugin(new JdbcPlugin("base-jdbc", new TestingH2JdbcModule()));
-            queryRunner.createCatalog("jdbc", "base-jdbc", properties);
+            queryRunner.createCatalog("jdbc", "base-jdbc", ImmutableMap.<String, String>builder()
+                    .putAll(properties)
+                    .put("join-pushdown.enabled", "true")
+                    .build());
 
             copyTpchTables(queryRunner, "tpch", TINY_SCHEMA_NAME, createSession(), tables);
 
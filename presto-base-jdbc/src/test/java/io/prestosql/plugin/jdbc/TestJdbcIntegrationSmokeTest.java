@@ -13,16 +13,68 @@
  */
 package io.prestosql.plugin.jdbc;
 
+import io.prestosql.sql.planner.Plan;
+import io.prestosql.sql.planner.plan.AggregationNode;
+import io.prestosql.sql.planner.plan.JoinNode;
+import io.prestosql.sql.planner.plan.PlanNode;
 import io.prestosql.tests.AbstractTestIntegrationSmokeTest;
+import org.testng.annotations.Test;
 
+import static io.airlift.tpch.TpchTable.NATION;
 import static io.airlift.tpch.TpchTable.ORDERS;
+import static io.airlift.tpch.TpchTable.REGION;
 import static io.prestosql.plugin.jdbc.H2QueryRunner.createH2QueryRunner;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static org.testng.Assert.assertEquals;
 
 public class TestJdbcIntegrationSmokeTest
         extends AbstractTestIntegrationSmokeTest
 {
     public TestJdbcIntegrationSmokeTest()
     {
-        super(() -> createH2QueryRunner(ORDERS));
+        super(() -> createH2QueryRunner(NATION, ORDERS, REGION));
+    }
+
+    @Test
+    public void testAggregationPushdown()
+    {
+        assertAggregationPushedDown("SELECT count(*) FROM orders", true);
+        assertAggregationPushedDown("SELECT orderstatus, count(*), count(clerk), min(totalprice), max(orderkey), sum(custkey) FROM orders GROUP BY orderstatus", true);
+        assertAggregationPushedDown("SELECT orderpriority, avg(totalprice), sum(totalprice) FROM orders GROUP BY orderpriority", true);
+
+        // the ordering of character types depends on the collation of the remote database
+        assertAggregationPushedDown("SELECT min(clerk) FROM orders", false);
+        // the aggregation must not be applied to the rows of a limited table
+        assertAggregationPushedDown("SELECT count(*) FROM (SELECT * FROM orders LIMIT 10)", false);
+    }
+
+    @Test
+    public void testJoinPushdown()
+    {
+        assertJoinPushedDown("SELECT o1.orderkey, o2.totalprice FROM orders o1 JOIN orders o2 ON o1.orderkey = o2.custkey", true);
+        assertJoinPushedDown("SELECT n.name, r.name FROM nation n LEFT JOIN region r ON n.regionkey = r.regionkey", true);
+        assertJoinPushedDown("SELECT n.name, r.name FROM nation n RIGHT JOIN region r ON n.regionkey = r.regionkey", true);
+
+        // the comparison of character types depends on the collation of the remote database
+        assertJoinPushedDown("SELECT n.name FROM nation n JOIN region r ON n.name = r.name", false);
+        // only equi-join criteria are pushed down
+        assertJoinPushedDown("SELECT n.name, r.name FROM nation n RIGHT JOIN region r ON n.regionkey = r.regionkey AND r.regionkey > 2", false);
+    }
+
+    private void assertAggregationPushedDown(String sql, boolean pushedDown)
+    {
+        assertQuery(getSession(), sql, sql, plan -> assertEquals(!hasNode(plan, AggregationNode.class), pushedDown, "aggregation pushed down"));
+    }
+
+    private void assertJoinPushedDown(String sql, boolean pushedDown)
+    {
+        assertQuery(getSession(), sql, sql, plan -> assertEquals(!hasNode(plan, JoinNode.class), pushedDown, "join pushed down"));
+    }
+
+    private static boolean hasNode(Plan plan, Class<? extends PlanNode> nodeClass)
+    {
+        return searchFrom(plan.getRoot())
+                .where(nodeClass::isInstance)
+                .matches();
     }
 }
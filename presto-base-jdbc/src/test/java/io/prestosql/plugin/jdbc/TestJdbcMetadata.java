@@ -53,7 +53,7 @@ public class TestJdbcMetadata
             throws Exception
     {
         database = new TestingDatabase();
-        metadata = new JdbcMetadata(database.getJdbcClient(), false);
+        metadata = new JdbcMetadata(database.getJdbcClient(), false, true, 1.25);
         tableHandle = metadata.getTableHandle(SESSION, new SchemaTableName("example", "numbers"));
     }
 
@@ -221,7 +221,7 @@ public class TestJdbcMetadata
             assertEquals(e.getErrorCode(), PERMISSION_DENIED.toErrorCode());
         }
 
-        metadata = new JdbcMetadata(database.getJdbcClient(), true);
+        metadata = new JdbcMetadata(database.getJdbcClient(), true, true, 1.25);
         metadata.dropTable(SESSION, tableHandle);
 
         try {
@@ -28,7 +28,9 @@ public class TestJdbcMetadataConfig
     public void testDefaults()
     {
         assertRecordedDefaults(recordDefaults(JdbcMetadataConfig.class)
-                .setAllowDropTable(false));
+                .setAllowDropTable(false)
+                .setJoinPushdownEnabled(false)
+                .setMaxJoinToTablesRatio(1.25));
     }
 
     @Test
@@ -36,10 +38,14 @@ public class TestJdbcMetadataConfig
     {
         Map<String, String> properties = new ImmutableMap.Builder<String, String>()
                 .put("allow-drop-table", "true")
+                .put("join-pushdown.enabled", "true")
+                .put("join-pushdown.max-join-to-tables-ratio", "2.5")
                 .build();
 
         JdbcMetadataConfig expected = new JdbcMetadataConfig()
-                .setAllowDropTable(true);
+                .setAllowDropTable(true)
+                .setJoinPushdownEnabled(true)
+                .setMaxJoinToTablesRatio(2.5);
 
         assertFullMapping(properties, expected);
     }
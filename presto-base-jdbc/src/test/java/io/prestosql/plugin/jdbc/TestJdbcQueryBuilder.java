@@ -16,7 +16,11 @@ package io.prestosql.plugin.jdbc;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.Range;
 import io.prestosql.spi.predicate.SortedRangeSet;
@@ -40,8 +44,11 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Function;
+import java.util.stream.LongStream;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.airlift.slice.Slices.utf8Slice;
 import static io.airlift.testing.Assertions.assertContains;
 import static io.prestosql.plugin.jdbc.TestingJdbcTypeHandle.JDBC_BIGINT;
@@ -381,6 +388,130 @@ public class TestJdbcQueryBuilder
         }
     }
 
+    @Test
+    public void testBuildSqlWithAggregation()
+            throws SQLException
+    {
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get(0), Domain.create(SortedRangeSet.copyOf(BIGINT, ImmutableList.of(Range.lessThan(BIGINT, 100L))), false)));
+        JdbcColumnHandle groupingColumn = columns.get(2);
+        List<JdbcColumnHandle> projections = ImmutableList.of(
+                groupingColumn,
+                JdbcColumnHandle.builder()
+                        .setColumnName("row_count")
+                        .setJdbcTypeHandle(JDBC_BIGINT)
+                        .setColumnType(BIGINT)
+                        .setExpression(Optional.of("count(*)"))
+                        .build(),
+                JdbcColumnHandle.builder()
+                        .setColumnName("col_0_sum")
+                        .setJdbcTypeHandle(JDBC_BIGINT)
+                        .setColumnType(BIGINT)
+                        .setExpression(Optional.of("sum(\"col_0\")"))
+                        .build());
+
+        Connection connection = database.getConnection();
+        JdbcTableHandle table = new JdbcTableHandle(
+                new SchemaTableName("test_schema", "test_table"),
+                "",
+                "",
+                "test_table",
+                tupleDomain,
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.of(ImmutableList.of(ImmutableList.of(groupingColumn))),
+                Optional.empty());
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, table, projections, tupleDomain, Optional.empty(), identity());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableMap.Builder<Boolean, List<Long>> groups = ImmutableMap.builder();
+            while (resultSet.next()) {
+                groups.put(resultSet.getBoolean("col_2"), ImmutableList.of(resultSet.getLong("row_count"), resultSet.getLong("col_0_sum")));
+            }
+            assertEquals(groups.build(), ImmutableMap.of(true, ImmutableList.of(50L, 2450L), false, ImmutableList.of(50L, 2500L)));
+        }
+    }
+
+    @Test
+    public void testBuildSqlWithTopN()
+            throws SQLException
+    {
+        TupleDomain<ColumnHandle> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(
+                columns.get(0), Domain.create(SortedRangeSet.copyOf(BIGINT, ImmutableList.of(Range.lessThan(BIGINT, 100L))), false)));
+        JdbcTableHandle table = new JdbcTableHandle(
+                new SchemaTableName("test_schema", "test_table"),
+                "",
+                "",
+                "test_table",
+                tupleDomain,
+                OptionalLong.of(5),
+                Optional.of(ImmutableList.of(
+                        new JdbcSortItem(columns.get(1), SortOrder.DESC_NULLS_LAST),
+                        new JdbcSortItem(columns.get(0), SortOrder.ASC_NULLS_FIRST))),
+                Optional.empty(),
+                Optional.empty());
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, table, ImmutableList.of(columns.get(0)), tupleDomain, Optional.empty(), sql -> sql + " LIMIT 5");
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableList.Builder<Long> values = ImmutableList.builder();
+            while (resultSet.next()) {
+                values.add(resultSet.getLong("col_0"));
+            }
+            assertEquals(values.build(), ImmutableList.of(99L, 98L, 97L, 96L, 95L));
+        }
+    }
+
+    @Test
+    public void testBuildSqlWithJoin()
+            throws SQLException
+    {
+        JdbcTableHandle left = new JdbcTableHandle(
+                new SchemaTableName("test_schema", "test_table"),
+                "",
+                "",
+                "test_table",
+                TupleDomain.withColumnDomains(ImmutableMap.of(
+                        columns.get(0), Domain.create(SortedRangeSet.copyOf(BIGINT, ImmutableList.of(Range.lessThan(BIGINT, 10L))), false))),
+                OptionalLong.empty());
+        JdbcTableHandle right = new JdbcTableHandle(new SchemaTableName("test_schema", "test_table"), "", "", "test_table");
+        JdbcColumnHandle leftColumn = JdbcColumnHandle.builderFrom(columns.get(0)).setColumnName("_presto_join_0").build();
+        JdbcColumnHandle rightColumn = JdbcColumnHandle.builderFrom(columns.get(0)).setColumnName("_presto_join_1").build();
+        JdbcJoin join = new JdbcJoin(
+                JoinType.LEFT_OUTER,
+                left,
+                right,
+                ImmutableList.of(new JdbcJoinCondition(columns.get(0), JoinCondition.Operator.EQUAL, columns.get(8))),
+                ImmutableMap.of(leftColumn.getColumnName(), columns.get(0)),
+                ImmutableMap.of(rightColumn.getColumnName(), columns.get(0)));
+        JdbcTableHandle table = new JdbcTableHandle(
+                new SchemaTableName("test_schema", "test_table"),
+                "",
+                "",
+                "test_table",
+                TupleDomain.all(),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.empty(),
+                Optional.of(join));
+
+        Connection connection = database.getConnection();
+        try (PreparedStatement preparedStatement = new QueryBuilder("\"").buildSql(jdbcClient, SESSION, connection, table, ImmutableList.of(leftColumn, rightColumn), TupleDomain.all(), Optional.empty(), identity());
+                ResultSet resultSet = preparedStatement.executeQuery()) {
+            ImmutableSet.Builder<Long> leftValues = ImmutableSet.builder();
+            ImmutableSet.Builder<Long> rightValues = ImmutableSet.builder();
+            while (resultSet.next()) {
+                leftValues.add(resultSet.getLong("_presto_join_0"));
+                long rightValue = resultSet.getLong("_presto_join_1");
+                if (!resultSet.wasNull()) {
+                    rightValues.add(rightValue);
+                }
+            }
+            // only the row with col_0 = 0 has a matching row with col_8 = -col_0
+            assertEquals(leftValues.build(), LongStream.range(0, 10).boxed().collect(toImmutableSet()));
+            assertEquals(rightValues.build(), ImmutableSet.of(0L));
+        }
+    }
+
     @Test
     public void testEmptyBuildSql()
             throws SQLException
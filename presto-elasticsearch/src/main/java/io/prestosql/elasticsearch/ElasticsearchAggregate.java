@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.Objects;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+public final class ElasticsearchAggregate
+{
+    public enum Function
+    {
+        COUNT,
+        MIN,
+        MAX,
+        SUM,
+        AVG
+    }
+
+    private final Function function;
+    private final Optional<ElasticsearchColumnHandle> input;
+    private final ElasticsearchColumnHandle output;
+
+    @JsonCreator
+    public ElasticsearchAggregate(
+            @JsonProperty("function") Function function,
+            @JsonProperty("input") Optional<ElasticsearchColumnHandle> input,
+            @JsonProperty("output") ElasticsearchColumnHandle output)
+    {
+        this.function = requireNonNull(function, "function is null");
+        this.input = requireNonNull(input, "input is null");
+        this.output = requireNonNull(output, "output is null");
+        checkArgument(input.isPresent() || function == Function.COUNT, "%s requires an input", function);
+    }
+
+    @JsonProperty
+    public Function getFunction()
+    {
+        return function;
+    }
+
+    /**
+     * Column the function is applied to. When empty, the function counts the documents.
+     */
+    @JsonProperty
+    public Optional<ElasticsearchColumnHandle> getInput()
+    {
+        return input;
+    }
+
+    /**
+     * Column exposing the result of the function in the aggregated table.
+     */
+    @JsonProperty
+    public ElasticsearchColumnHandle getOutput()
+    {
+        return output;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ElasticsearchAggregate that = (ElasticsearchAggregate) o;
+        return function == that.function &&
+                input.equals(that.input) &&
+                output.equals(that.output);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(function, input, output);
+    }
+
+    @Override
+    public String toString()
+    {
+        return output.getName() + " := " + function + "(" + input.map(ElasticsearchColumnHandle::getName).orElse("*") + ")";
+    }
+}
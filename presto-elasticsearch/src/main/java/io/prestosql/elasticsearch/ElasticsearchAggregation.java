@@ -0,0 +1,98 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+
+import java.util.List;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+public final class ElasticsearchAggregation
+{
+    private final List<ElasticsearchColumnHandle> groupingColumns;
+    private final List<ElasticsearchAggregate> aggregates;
+    private final int partitionCount;
+
+    @JsonCreator
+    public ElasticsearchAggregation(
+            @JsonProperty("groupingColumns") List<ElasticsearchColumnHandle> groupingColumns,
+            @JsonProperty("aggregates") List<ElasticsearchAggregate> aggregates,
+            @JsonProperty("partitionCount") int partitionCount)
+    {
+        this.groupingColumns = ImmutableList.copyOf(requireNonNull(groupingColumns, "groupingColumns is null"));
+        this.aggregates = ImmutableList.copyOf(requireNonNull(aggregates, "aggregates is null"));
+        checkArgument(partitionCount >= 1, "partitionCount must be at least one");
+        checkArgument(partitionCount == 1 || !groupingColumns.isEmpty(), "aggregation without grouping columns cannot be partitioned");
+        this.partitionCount = partitionCount;
+    }
+
+    @JsonProperty
+    public List<ElasticsearchColumnHandle> getGroupingColumns()
+    {
+        return groupingColumns;
+    }
+
+    @JsonProperty
+    public List<ElasticsearchAggregate> getAggregates()
+    {
+        return aggregates;
+    }
+
+    /**
+     * Number of partitions of the values of the first grouping column. Each partition is
+     * aggregated by a separate split.
+     */
+    @JsonProperty
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ElasticsearchAggregation that = (ElasticsearchAggregation) o;
+        return partitionCount == that.partitionCount &&
+                groupingColumns.equals(that.groupingColumns) &&
+                aggregates.equals(that.aggregates);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(groupingColumns, aggregates, partitionCount);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("groupingColumns", groupingColumns)
+                .add("aggregates", aggregates)
+                .add("partitionCount", partitionCount)
+                .toString();
+    }
+}
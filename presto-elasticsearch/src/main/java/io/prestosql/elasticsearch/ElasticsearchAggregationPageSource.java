@@ -0,0 +1,347 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.elasticsearch;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.elasticsearch.client.ElasticsearchClient;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.aggregations.Aggregation;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.missing.Missing;
+import org.elasticsearch.search.aggregations.bucket.terms.Terms;
+import org.elasticsearch.search.aggregations.metrics.NumericMetricsAggregation;
+import org.elasticsearch.search.aggregations.metrics.valuecount.ValueCount;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.elasticsearch.ElasticsearchErrorCode.ELASTICSEARCH_QUERY_FAILURE;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildAggregations;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildSearchQuery;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Float.floatToRawIntBits;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the groups of an aggregation computed by Elasticsearch.
+ * <p>
+ * The values of each grouping column are hash partitioned, and the groups of each combination of partitions
+ * are computed with a separate search, so that the terms aggregations never need to truncate their buckets.
+ * When a terms aggregation still has more buckets than fit in a search, the partition of its column is split
+ * in two and both halves are searched again.
+ */
+public class ElasticsearchAggregationPageSource
+        implements ConnectorPageSource
+{
+    // doubles represent every integer in this range exactly
+    private static final int MAX_PARTITION_COUNT = 1 << 20;
+
+    private final ElasticsearchClient client;
+    private final String index;
+    private final ElasticsearchAggregation aggregation;
+    private final QueryBuilder query;
+    private final int partitionSize;
+    private final List<ElasticsearchColumnHandle> columns;
+    private final int[] groupingChannels;
+    private final int[] aggregateChannels;
+    private final PageBuilder pageBuilder;
+
+    // combinations of partitions of the grouping columns that remain to be searched
+    private final Deque<Cell> cells = new ArrayDeque<>();
+
+    private long readTimeNanos;
+
+    public ElasticsearchAggregationPageSource(
+            ElasticsearchClient client,
+            ElasticsearchTableHandle table,
+            ElasticsearchSplit split,
+            List<ElasticsearchColumnHandle> columns,
+            int partitionSize)
+    {
+        this.client = requireNonNull(client, "client is null");
+        requireNonNull(table, "table is null");
+        requireNonNull(split, "split is null");
+        this.index = table.getIndex();
+        this.aggregation = table.getAggregation().orElseThrow(() -> new IllegalArgumentException("table is not aggregated"));
+        this.query = buildSearchQuery(table.getConstraint(), table.getQuery());
+        this.partitionSize = partitionSize;
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+
+        List<ElasticsearchColumnHandle> groupingColumns = aggregation.getGroupingColumns();
+        List<ElasticsearchAggregate> aggregates = aggregation.getAggregates();
+        groupingChannels = new int[this.columns.size()];
+        aggregateChannels = new int[this.columns.size()];
+        for (int channel = 0; channel < this.columns.size(); channel++) {
+            ElasticsearchColumnHandle column = this.columns.get(channel);
+            groupingChannels[channel] = groupingColumns.indexOf(column);
+            aggregateChannels[channel] = -1;
+            for (int i = 0; i < aggregates.size(); i++) {
+                if (aggregates.get(i).getOutput().equals(column)) {
+                    aggregateChannels[channel] = i;
+                }
+            }
+            if (groupingChannels[channel] < 0 && aggregateChannels[channel] < 0) {
+                throw new IllegalArgumentException("Column is not produced by the aggregation: " + column);
+            }
+        }
+
+        pageBuilder = new PageBuilder(this.columns.stream()
+                .map(ElasticsearchColumnHandle::getType)
+                .collect(toImmutableList()));
+
+        int levels = groupingColumns.size();
+        int[] partitions = new int[levels];
+        int[] partitionCounts = new int[levels];
+        for (int level = 0; level < levels; level++) {
+            partitionCounts[level] = 1;
+        }
+        if (levels > 0) {
+            partitions[0] = split.getPartition();
+            partitionCounts[0] = split.getPartitionCount();
+        }
+        cells.add(new Cell(partitions, partitionCounts));
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return cells.isEmpty() && pageBuilder.isEmpty();
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        if (!cells.isEmpty()) {
+            Cell cell = cells.poll();
+
+            long start = System.nanoTime();
+            SearchResponse response = client.searchAggregations(index, query, buildAggregations(aggregation, cell.partitions, cell.partitionCounts, partitionSize));
+            readTimeNanos += System.nanoTime() - start;
+
+            int overflowLevel = findOverflowLevel(response.getAggregations(), 0, Integer.MAX_VALUE);
+            if (overflowLevel != Integer.MAX_VALUE) {
+                // split the partition of the column with too many terms, the other partitions are unchanged
+                int partition = cell.partitions[overflowLevel];
+                int partitionCount = cell.partitionCounts[overflowLevel];
+                if (partitionCount * 2 > MAX_PARTITION_COUNT) {
+                    throw new PrestoException(ELASTICSEARCH_QUERY_FAILURE, format("Too many groups for column %s in aggregation pushed down to Elasticsearch", aggregation.getGroupingColumns().get(overflowLevel).getName()));
+                }
+                cells.addFirst(cell.withPartition(overflowLevel, partition + partitionCount, partitionCount * 2));
+                cells.addFirst(cell.withPartition(overflowLevel, partition, partitionCount * 2));
+                return null;
+            }
+
+            appendGroups(response.getAggregations(), 0, new Object[aggregation.getGroupingColumns().size()], response.getHits().getTotalHits());
+
+            if (!cells.isEmpty() && !pageBuilder.isFull()) {
+                return null;
+            }
+        }
+
+        if (pageBuilder.isEmpty()) {
+            return null;
+        }
+        Page page = pageBuilder.build();
+        pageBuilder.reset();
+        return page;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return pageBuilder.getRetainedSizeInBytes();
+    }
+
+    @Override
+    public void close() {}
+
+    private int findOverflowLevel(Aggregations aggregations, int level, int overflowLevel)
+    {
+        if (level == aggregation.getGroupingColumns().size()) {
+            return overflowLevel;
+        }
+
+        Terms terms = aggregations.get("group_" + level);
+        if (terms.getSumOfOtherDocCounts() > 0) {
+            // the deeper levels are searched again after the partition of this level is split
+            return Math.min(overflowLevel, level);
+        }
+        for (Terms.Bucket bucket : terms.getBuckets()) {
+            overflowLevel = findOverflowLevel(bucket.getAggregations(), level + 1, overflowLevel);
+        }
+        Missing missing = aggregations.get("missing_" + level);
+        if (missing != null) {
+            overflowLevel = findOverflowLevel(missing.getAggregations(), level + 1, overflowLevel);
+        }
+        return overflowLevel;
+    }
+
+    private void appendGroups(Aggregations aggregations, int level, Object[] keys, long documentCount)
+    {
+        if (level == keys.length) {
+            appendRow(aggregations, keys, documentCount);
+            return;
+        }
+
+        Terms terms = aggregations.get("group_" + level);
+        for (Terms.Bucket bucket : terms.getBuckets()) {
+            keys[level] = bucket.getKey();
+            appendGroups(bucket.getAggregations(), level + 1, keys, bucket.getDocCount());
+        }
+
+        Missing missing = aggregations.get("missing_" + level);
+        if (missing != null && missing.getDocCount() > 0) {
+            keys[level] = null;
+            appendGroups(missing.getAggregations(), level + 1, keys, missing.getDocCount());
+        }
+    }
+
+    private void appendRow(Aggregations aggregations, Object[] keys, long documentCount)
+    {
+        pageBuilder.declarePosition();
+        for (int channel = 0; channel < columns.size(); channel++) {
+            Type type = columns.get(channel).getType();
+            BlockBuilder output = pageBuilder.getBlockBuilder(channel);
+
+            if (groupingChannels[channel] >= 0) {
+                appendKey(type, keys[groupingChannels[channel]], output);
+                continue;
+            }
+
+            int aggregate = aggregateChannels[channel];
+            ElasticsearchAggregate.Function function = aggregation.getAggregates().get(aggregate).getFunction();
+            if (function == ElasticsearchAggregate.Function.COUNT) {
+                if (aggregation.getAggregates().get(aggregate).getInput().isPresent()) {
+                    ValueCount count = getAggregation(aggregations, "aggregate_" + aggregate);
+                    BIGINT.writeLong(output, count.getValue());
+                }
+                else {
+                    BIGINT.writeLong(output, documentCount);
+                }
+                continue;
+            }
+
+            ValueCount count = getAggregation(aggregations, "count_" + aggregate);
+            if (count.getValue() == 0) {
+                output.appendNull();
+                continue;
+            }
+            NumericMetricsAggregation.SingleValue metric = getAggregation(aggregations, "aggregate_" + aggregate);
+            appendNumber(type, metric.value(), output);
+        }
+    }
+
+    private static <T extends Aggregation> T getAggregation(Aggregations aggregations, String name)
+    {
+        T result = aggregations.get(name);
+        if (result == null) {
+            throw new PrestoException(ELASTICSEARCH_QUERY_FAILURE, "Aggregation missing from Elasticsearch response: " + name);
+        }
+        return result;
+    }
+
+    private static void appendKey(Type type, Object key, BlockBuilder output)
+    {
+        if (key == null) {
+            output.appendNull();
+        }
+        else if (type.equals(VARCHAR)) {
+            VARCHAR.writeSlice(output, utf8Slice(key.toString()));
+        }
+        else if (type.equals(BOOLEAN)) {
+            // boolean terms are keyed by 0 and 1
+            BOOLEAN.writeBoolean(output, key instanceof Boolean ? (Boolean) key : ((Number) key).longValue() != 0);
+        }
+        else if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT)) {
+            type.writeLong(output, ((Number) key).longValue());
+        }
+        else if (type.equals(DOUBLE)) {
+            DOUBLE.writeDouble(output, ((Number) key).doubleValue());
+        }
+        else if (type.equals(REAL)) {
+            REAL.writeLong(output, floatToRawIntBits(((Number) key).floatValue()));
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported grouping type: " + type);
+        }
+    }
+
+    private static void appendNumber(Type type, double value, BlockBuilder output)
+    {
+        if (type.equals(DOUBLE)) {
+            DOUBLE.writeDouble(output, value);
+        }
+        else if (type.equals(REAL)) {
+            REAL.writeLong(output, floatToRawIntBits((float) value));
+        }
+        else if (type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT)) {
+            // only the extremes of these types are pushed down, which are represented exactly by doubles
+            type.writeLong(output, (long) value);
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported aggregate type: " + type);
+        }
+    }
+
+    private static class Cell
+    {
+        private final int[] partitions;
+        private final int[] partitionCounts;
+
+        public Cell(int[] partitions, int[] partitionCounts)
+        {
+            this.partitions = partitions;
+            this.partitionCounts = partitionCounts;
+        }
+
+        public Cell withPartition(int level, int partition, int partitionCount)
+        {
+            int[] newPartitions = partitions.clone();
+            int[] newPartitionCounts = partitionCounts.clone();
+            newPartitions[level] = partition;
+            newPartitionCounts[level] = partitionCount;
+            return new Cell(newPartitions, newPartitionCounts);
+        }
+    }
+}
@@ -60,6 +60,10 @@ public class ElasticsearchConfig
     private Duration connectTimeout = new Duration(1, SECONDS);
     private Duration maxRetryTime = new Duration(30, SECONDS);
     private Duration nodeRefreshInterval = new Duration(1, MINUTES);
+    private long maxSplitDocuments = 10_000_000;
+    private boolean aggregationPushdownEnabled = true;
+    private int aggregationPushdownMaxGroups = 100_000;
+    private int aggregationPushdownPartitionSize = 10_000;
 
     private boolean tlsEnabled;
     private File keystorePath;
@@ -195,6 +199,61 @@ public class ElasticsearchConfig
         return this;
     }
 
+    @Min(1)
+    public long getMaxSplitDocuments()
+    {
+        return maxSplitDocuments;
+    }
+
+    @Config("elasticsearch.max-split-documents")
+    @ConfigDescription("Maximum number of documents of a shard read by one split, larger shards are read with sliced scrolls")
+    public ElasticsearchConfig setMaxSplitDocuments(long maxSplitDocuments)
+    {
+        this.maxSplitDocuments = maxSplitDocuments;
+        return this;
+    }
+
+    public boolean isAggregationPushdownEnabled()
+    {
+        return aggregationPushdownEnabled;
+    }
+
+    @Config("elasticsearch.aggregation-pushdown.enabled")
+    @ConfigDescription("Compute simple grouped aggregations with Elasticsearch aggregations")
+    public ElasticsearchConfig setAggregationPushdownEnabled(boolean aggregationPushdownEnabled)
+    {
+        this.aggregationPushdownEnabled = aggregationPushdownEnabled;
+        return this;
+    }
+
+    @Min(1)
+    public int getAggregationPushdownMaxGroups()
+    {
+        return aggregationPushdownMaxGroups;
+    }
+
+    @Config("elasticsearch.aggregation-pushdown.max-groups")
+    @ConfigDescription("Maximum estimated number of groups of an aggregation computed by Elasticsearch")
+    public ElasticsearchConfig setAggregationPushdownMaxGroups(int aggregationPushdownMaxGroups)
+    {
+        this.aggregationPushdownMaxGroups = aggregationPushdownMaxGroups;
+        return this;
+    }
+
+    @Min(1)
+    public int getAggregationPushdownPartitionSize()
+    {
+        return aggregationPushdownPartitionSize;
+    }
+
+    @Config("elasticsearch.aggregation-pushdown.partition-size")
+    @ConfigDescription("Maximum number of groups returned by one Elasticsearch aggregation request")
+    public ElasticsearchConfig setAggregationPushdownPartitionSize(int aggregationPushdownPartitionSize)
+    {
+        this.aggregationPushdownPartitionSize = aggregationPushdownPartitionSize;
+        return this;
+    }
+
     public boolean isTlsEnabled()
     {
         return tlsEnabled;
@@ -13,13 +13,18 @@
  */
 package io.prestosql.elasticsearch;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.prestosql.elasticsearch.client.ElasticsearchClient;
 import io.prestosql.elasticsearch.client.IndexMetadata;
 import io.prestosql.elasticsearch.client.IndexMetadata.DateTimeType;
 import io.prestosql.elasticsearch.client.IndexMetadata.ObjectType;
 import io.prestosql.elasticsearch.client.IndexMetadata.PrimitiveType;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.connector.ConnectorMetadata;
@@ -29,20 +34,38 @@ import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
 import io.prestosql.spi.connector.Constraint;
 import io.prestosql.spi.connector.ConstraintApplicationResult;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
+import io.prestosql.spi.connector.SortItem;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.RowType;
 import io.prestosql.spi.type.Type;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.metrics.cardinality.Cardinality;
 
 import javax.inject.Inject;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.math.LongMath.divide;
+import static com.google.common.math.LongMath.saturatedMultiply;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildSearchQuery;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
@@ -53,15 +76,35 @@ import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
 import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Math.toIntExact;
+import static java.math.RoundingMode.CEILING;
+import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MINUTES;
 
 public class ElasticsearchMetadata
         implements ConnectorMetadata
 {
     private static final String ORIGINAL_NAME = "original-name";
+    private static final Set<Type> SORTABLE_TYPES = ImmutableSet.of(BOOLEAN, TINYINT, SMALLINT, INTEGER, BIGINT, REAL, DOUBLE, TIMESTAMP);
+    // types of the values of the fields that are indexed as is, so that term queries and terms aggregations match them exactly
+    private static final Set<String> EXACT_FIELD_TYPES = ImmutableSet.of("keyword", "boolean", "byte", "short", "integer", "long", "float", "double");
+    private static final Set<Type> FILTERABLE_TYPES = ImmutableSet.of(BOOLEAN, TINYINT, SMALLINT, INTEGER, BIGINT, REAL, DOUBLE, VARCHAR);
+    // metrics are computed by Elasticsearch with doubles, which represent every value of these types exactly
+    private static final Set<Type> EXACT_METRIC_TYPES = ImmutableSet.of(TINYINT, SMALLINT, INTEGER, REAL, DOUBLE);
+    private static final String AGGREGATE_COLUMN_NAME_PREFIX = "_aggregate_";
+    private static final int MAX_CARDINALITY_PRECISION_THRESHOLD = 40_000;
 
     private final ElasticsearchClient client;
     private final String schemaName;
+    private final boolean aggregationPushdownEnabled;
+    private final int aggregationPushdownMaxGroups;
+    private final int aggregationPushdownPartitionSize;
+    // the optimizer applies the aggregation repeatedly while planning, so the estimates are not searched for every attempt
+    private final Cache<CardinalityKey, List<Long>> cardinalities = CacheBuilder.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(1, MINUTES)
+            .build();
 
     @Inject
     public ElasticsearchMetadata(ElasticsearchClient client, ElasticsearchConfig config)
@@ -70,6 +113,9 @@ public class ElasticsearchMetadata
 
         this.client = requireNonNull(client, "client is null");
         this.schemaName = config.getDefaultSchema();
+        this.aggregationPushdownEnabled = config.isAggregationPushdownEnabled();
+        this.aggregationPushdownMaxGroups = config.getAggregationPushdownMaxGroups();
+        this.aggregationPushdownPartitionSize = config.getAggregationPushdownPartitionSize();
     }
 
     @Override
@@ -248,19 +294,242 @@ public class ElasticsearchMetadata
     {
         ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
 
+        if (handle.getLimit().isPresent() || handle.getAggregation().isPresent()) {
+            // the constraint is applied before the limit in the search of each shard
+            return Optional.empty();
+        }
+
+        Map<ColumnHandle, Domain> domains = constraint.getSummary().getDomains().orElse(null);
+        if (domains == null) {
+            return Optional.empty();
+        }
+
+        // only the predicates on exact fields are enforced by the search, the engine evaluates the other ones
+        Set<String> exactFields = getExactFields(handle.getIndex());
+        Map<ColumnHandle, Domain> supported = new HashMap<>();
+        Map<ColumnHandle, Domain> unsupported = new HashMap<>();
+        domains.forEach((column, domain) -> {
+            ElasticsearchColumnHandle columnHandle = (ElasticsearchColumnHandle) column;
+            if (exactFields.contains(columnHandle.getName()) && FILTERABLE_TYPES.contains(columnHandle.getType())) {
+                supported.put(column, domain);
+            }
+            else {
+                unsupported.put(column, domain);
+            }
+        });
+
         TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
-        TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary());
+        TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(TupleDomain.withColumnDomains(supported));
         if (oldDomain.equals(newDomain)) {
             return Optional.empty();
         }
 
+        handle = new ElasticsearchTableHandle(
+                handle.getSchema(),
+                handle.getIndex(),
+                newDomain,
+                handle.getQuery(),
+                handle.getLimit(),
+                handle.getSortOrder(),
+                handle.getAggregation());
+
+        return Optional.of(new ConstraintApplicationResult<>(handle, TupleDomain.withColumnDomains(unsupported)));
+    }
+
+    @Override
+    public Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(ConnectorSession session, ConnectorTableHandle table, long topNCount, List<SortItem> sortItems, Map<String, ColumnHandle> assignments)
+    {
+        ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
+
+        ImmutableList.Builder<ElasticsearchSortItem> sortOrder = ImmutableList.builder();
+        for (SortItem sortItem : sortItems) {
+            ElasticsearchColumnHandle column = (ElasticsearchColumnHandle) assignments.get(sortItem.getName());
+            // text fields are not sortable without fielddata, and builtin columns are not stored as doc values
+            if (!SORTABLE_TYPES.contains(column.getType()) || BuiltinColumns.NAMES.contains(column.getName())) {
+                return Optional.empty();
+            }
+            sortOrder.add(new ElasticsearchSortItem(column.getName(), sortItem.getSortOrder()));
+        }
+        List<ElasticsearchSortItem> newSortOrder = sortOrder.build();
+
+        if (handle.getSortOrder().isPresent()) {
+            if (!handle.getSortOrder().get().equals(newSortOrder) || handle.getLimit().getAsLong() <= topNCount) {
+                return Optional.empty();
+            }
+        }
+        else if (handle.getLimit().isPresent()) {
+            return Optional.empty();
+        }
+
+        handle = new ElasticsearchTableHandle(
+                handle.getSchema(),
+                handle.getIndex(),
+                handle.getConstraint(),
+                handle.getQuery(),
+                OptionalLong.of(topNCount),
+                Optional.of(newSortOrder),
+                handle.getAggregation());
+
+        // every shard is searched independently, so the engine still needs to merge the partial results
+        return Optional.of(new TopNApplicationResult<>(handle, false));
+    }
+
+    @Override
+    public Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<List<ColumnHandle>> groupingSets)
+    {
+        ElasticsearchTableHandle handle = (ElasticsearchTableHandle) table;
+
+        // the aggregation would be computed over the limited rows otherwise
+        if (!aggregationPushdownEnabled || handle.getLimit().isPresent() || handle.getAggregation().isPresent() || groupingSets.size() != 1) {
+            return Optional.empty();
+        }
+
+        Set<String> exactFields = getExactFields(handle.getIndex());
+
+        List<ElasticsearchColumnHandle> groupingColumns = groupingSets.get(0).stream()
+                .map(ElasticsearchColumnHandle.class::cast)
+                .collect(toImmutableList());
+        for (ElasticsearchColumnHandle column : groupingColumns) {
+            if (!exactFields.contains(column.getName()) || !FILTERABLE_TYPES.contains(column.getType())) {
+                return Optional.empty();
+            }
+        }
+
+        ImmutableList.Builder<ElasticsearchAggregate> newAggregates = ImmutableList.builder();
+        ImmutableList.Builder<ConnectorExpression> projections = ImmutableList.builder();
+        ImmutableList.Builder<Assignment> resultAssignments = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            AggregateFunction aggregate = aggregates.get(i);
+            ElasticsearchColumnHandle output = new ElasticsearchColumnHandle(AGGREGATE_COLUMN_NAME_PREFIX + i, aggregate.getOutputType());
+            Optional<ElasticsearchAggregate> translated = translateAggregate(aggregate, output, assignments, exactFields);
+            if (!translated.isPresent()) {
+                return Optional.empty();
+            }
+
+            newAggregates.add(translated.get());
+            projections.add(new Variable(output.getName(), output.getType()));
+            resultAssignments.add(new Assignment(output.getName(), output, output.getType()));
+        }
+
+        int partitionCount = 1;
+        if (!groupingColumns.isEmpty()) {
+            // the groups are collected in memory by Elasticsearch, so only aggregations with few groups are pushed down
+            List<Long> cardinalities = estimateCardinalities(handle, groupingColumns);
+            long groups = 1;
+            for (long cardinality : cardinalities) {
+                // one more group for the documents without a value
+                groups = saturatedMultiply(groups, cardinality + 1);
+            }
+            if (groups > aggregationPushdownMaxGroups) {
+                return Optional.empty();
+            }
+
+            // terms are not evenly distributed across partitions, leave room for the imbalance
+            partitionCount = toIntExact(Math.max(1, divide(cardinalities.get(0) * 2, aggregationPushdownPartitionSize, CEILING)));
+        }
+
         handle = new ElasticsearchTableHandle(
                 handle.getSchema(),
                 handle.getIndex(),
                 handle.getConstraint(),
-                handle.getQuery());
+                handle.getQuery(),
+                OptionalLong.empty(),
+                Optional.empty(),
+                Optional.of(new ElasticsearchAggregation(groupingColumns, newAggregates.build(), partitionCount)));
+
+        // grouping columns are exposed unchanged by the aggregated table
+        Map<ColumnHandle, ColumnHandle> groupingColumnMapping = groupingColumns.stream()
+                .collect(toImmutableMap(column -> column, column -> column));
+
+        return Optional.of(new AggregationApplicationResult<>(handle, projections.build(), resultAssignments.build(), groupingColumnMapping));
+    }
+
+    private static Optional<ElasticsearchAggregate> translateAggregate(AggregateFunction aggregate, ElasticsearchColumnHandle output, Map<String, ColumnHandle> assignments, Set<String> exactFields)
+    {
+        if (aggregate.isDistinct() || aggregate.getInputs().size() > 1) {
+            return Optional.empty();
+        }
+
+        Optional<ElasticsearchColumnHandle> input = Optional.empty();
+        if (!aggregate.getInputs().isEmpty()) {
+            ConnectorExpression expression = aggregate.getInputs().get(0);
+            if (!(expression instanceof Variable)) {
+                return Optional.empty();
+            }
+            ElasticsearchColumnHandle column = (ElasticsearchColumnHandle) assignments.get(((Variable) expression).getName());
+            if (!exactFields.contains(column.getName())) {
+                return Optional.empty();
+            }
+            input = Optional.of(column);
+        }
+
+        switch (aggregate.getFunctionName()) {
+            case "count":
+                if (!output.getType().equals(BIGINT)) {
+                    return Optional.empty();
+                }
+                return Optional.of(new ElasticsearchAggregate(ElasticsearchAggregate.Function.COUNT, input, output));
+            case "min":
+            case "max":
+            case "sum":
+            case "avg":
+                // metrics aggregations of Elasticsearch only compute numeric values as doubles, so neither BIGINT
+                // inputs, such as the operand of an average, nor BIGINT results, such as the sums of integers, are exact
+                if (!input.isPresent() || !EXACT_METRIC_TYPES.contains(input.get().getType()) || !EXACT_METRIC_TYPES.contains(output.getType())) {
+                    return Optional.empty();
+                }
+                ElasticsearchAggregate.Function function = ElasticsearchAggregate.Function.valueOf(aggregate.getFunctionName().toUpperCase(ENGLISH));
+                return Optional.of(new ElasticsearchAggregate(function, input, output));
+            default:
+                return Optional.empty();
+        }
+    }
 
-        return Optional.of(new ConstraintApplicationResult<>(handle, constraint.getSummary()));
+    private List<Long> estimateCardinalities(ElasticsearchTableHandle handle, List<ElasticsearchColumnHandle> columns)
+    {
+        CardinalityKey key = new CardinalityKey(handle.getIndex(), handle.getConstraint(), handle.getQuery(), columns);
+        List<Long> cached = cardinalities.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        List<Long> estimates = searchCardinalities(handle, columns);
+        cardinalities.put(key, estimates);
+        return estimates;
+    }
+
+    private List<Long> searchCardinalities(ElasticsearchTableHandle handle, List<ElasticsearchColumnHandle> columns)
+    {
+        int precisionThreshold = Math.min(aggregationPushdownMaxGroups, MAX_CARDINALITY_PRECISION_THRESHOLD);
+
+        ImmutableList.Builder<AggregationBuilder> aggregations = ImmutableList.builder();
+        for (int i = 0; i < columns.size(); i++) {
+            aggregations.add(AggregationBuilders.cardinality("cardinality_" + i)
+                    .field(columns.get(i).getName())
+                    .precisionThreshold(precisionThreshold));
+        }
+
+        SearchResponse response = client.searchAggregations(handle.getIndex(), buildSearchQuery(handle.getConstraint(), handle.getQuery()), aggregations.build());
+
+        ImmutableList.Builder<Long> cardinalities = ImmutableList.builder();
+        for (int i = 0; i < columns.size(); i++) {
+            Cardinality cardinality = response.getAggregations().get("cardinality_" + i);
+            cardinalities.add(cardinality.getValue());
+        }
+        return cardinalities.build();
+    }
+
+    private Set<String> getExactFields(String index)
+    {
+        return client.getIndexMetadata(index).getSchema().getFields().stream()
+                .filter(field -> field.getType() instanceof PrimitiveType)
+                .filter(field -> EXACT_FIELD_TYPES.contains(((PrimitiveType) field.getType()).getName()))
+                .map(IndexMetadata.Field::getName)
+                .collect(toImmutableSet());
     }
 
     private static ColumnMetadata makeColumnMetadata(String name, Type type)
@@ -271,4 +540,42 @@ public class ElasticsearchMetadata
                 .setProperties(ImmutableMap.of(ORIGINAL_NAME, name))
                 .build();
     }
+
+    private static final class CardinalityKey
+    {
+        private final String index;
+        private final TupleDomain<ColumnHandle> constraint;
+        private final Optional<String> query;
+        private final List<ElasticsearchColumnHandle> columns;
+
+        public CardinalityKey(String index, TupleDomain<ColumnHandle> constraint, Optional<String> query, List<ElasticsearchColumnHandle> columns)
+        {
+            this.index = requireNonNull(index, "index is null");
+            this.constraint = requireNonNull(constraint, "constraint is null");
+            this.query = requireNonNull(query, "query is null");
+            this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CardinalityKey other = (CardinalityKey) o;
+            return index.equals(other.index) &&
+                    constraint.equals(other.constraint) &&
+                    query.equals(other.query) &&
+                    columns.equals(other.columns);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(index, constraint, query, columns);
+        }
+    }
 }
@@ -49,6 +49,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.function.Supplier;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
@@ -56,6 +57,7 @@ import static io.prestosql.elasticsearch.BuiltinColumns.ID;
 import static io.prestosql.elasticsearch.BuiltinColumns.SCORE;
 import static io.prestosql.elasticsearch.BuiltinColumns.SOURCE;
 import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildSearchQuery;
+import static io.prestosql.elasticsearch.ElasticsearchQueryBuilder.buildSort;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
@@ -125,11 +127,15 @@ public class ElasticsearchPageSource
         SearchResponse searchResponse = client.beginSearch(
                 table.getIndex(),
                 split.getShard(),
-                buildSearchQuery(table.getConstraint(), columns, table.getQuery()),
+                split.getPartition(),
+                split.getPartitionCount(),
+                buildSearchQuery(table.getConstraint(), table.getQuery()),
                 needAllFields ? Optional.empty() : Optional.of(requiredFields),
-                documentFields);
+                documentFields,
+                buildSort(table.getSortOrder().orElse(ImmutableList.of())),
+                table.getLimit());
         readTimeNanos += System.nanoTime() - start;
-        this.iterator = new SearchHitIterator(client, () -> searchResponse);
+        this.iterator = new SearchHitIterator(client, () -> searchResponse, table.getLimit());
     }
 
     @Override
@@ -334,17 +340,20 @@ public class ElasticsearchPageSource
     {
         private final ElasticsearchClient client;
         private final Supplier<SearchResponse> first;
+        private final OptionalLong limit;
 
         private SearchHits searchHits;
         private String scrollId;
         private int currentPosition;
+        private long returnedHits;
 
         private long readTimeNanos;
 
-        public SearchHitIterator(ElasticsearchClient client, Supplier<SearchResponse> first)
+        public SearchHitIterator(ElasticsearchClient client, Supplier<SearchResponse> first, OptionalLong limit)
         {
             this.client = client;
             this.first = first;
+            this.limit = limit;
         }
 
         public long getReadTimeNanos()
@@ -355,6 +364,10 @@ public class ElasticsearchPageSource
         @Override
         protected SearchHit computeNext()
         {
+            if (limit.isPresent() && returnedHits == limit.getAsLong()) {
+                return endOfData();
+            }
+
             if (scrollId == null) {
                 long start = System.nanoTime();
                 SearchResponse response = first.get();
@@ -374,6 +387,7 @@ public class ElasticsearchPageSource
 
             SearchHit hit = searchHits.getAt(currentPosition);
             currentPosition++;
+            returnedHits++;
 
             return hit;
         }
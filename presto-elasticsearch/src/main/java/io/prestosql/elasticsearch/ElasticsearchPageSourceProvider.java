@@ -33,11 +33,13 @@ public class ElasticsearchPageSourceProvider
         implements ConnectorPageSourceProvider
 {
     private final ElasticsearchClient client;
+    private final int aggregationPartitionSize;
 
     @Inject
-    public ElasticsearchPageSourceProvider(ElasticsearchClient client)
+    public ElasticsearchPageSourceProvider(ElasticsearchClient client, ElasticsearchConfig config)
     {
         this.client = requireNonNull(client, "client is null");
+        this.aggregationPartitionSize = requireNonNull(config, "config is null").getAggregationPushdownPartitionSize();
     }
 
     @Override
@@ -46,12 +48,24 @@ public class ElasticsearchPageSourceProvider
         requireNonNull(split, "split is null");
         requireNonNull(table, "table is null");
 
+        ElasticsearchTableHandle elasticsearchTable = (ElasticsearchTableHandle) table;
+        List<ElasticsearchColumnHandle> elasticsearchColumns = columns.stream()
+                .map(ElasticsearchColumnHandle.class::cast)
+                .collect(toImmutableList());
+
+        if (elasticsearchTable.getAggregation().isPresent()) {
+            return new ElasticsearchAggregationPageSource(
+                    client,
+                    elasticsearchTable,
+                    (ElasticsearchSplit) split,
+                    elasticsearchColumns,
+                    aggregationPartitionSize);
+        }
+
         return new ElasticsearchPageSource(
                 client,
                 session,
-                (ElasticsearchTableHandle) table, (ElasticsearchSplit) split,
-                columns.stream()
-                        .map(ElasticsearchColumnHandle.class::cast)
-                        .collect(toImmutableList()));
+                elasticsearchTable, (ElasticsearchSplit) split,
+                elasticsearchColumns);
     }
 }
@@ -13,6 +13,7 @@
  */
 package io.prestosql.elasticsearch;
 
+import com.google.common.collect.ImmutableList;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.predicate.Domain;
@@ -26,6 +27,13 @@ import org.elasticsearch.index.query.QueryBuilder;
 import org.elasticsearch.index.query.QueryStringQueryBuilder;
 import org.elasticsearch.index.query.RangeQueryBuilder;
 import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.bucket.missing.MissingAggregationBuilder;
+import org.elasticsearch.search.aggregations.bucket.terms.IncludeExclude;
+import org.elasticsearch.search.aggregations.bucket.terms.TermsAggregationBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
 
 import java.util.HashSet;
 import java.util.List;
@@ -34,31 +42,39 @@ import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.DoubleType.DOUBLE;
 import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.lang.Float.intBitsToFloat;
+import static java.lang.Math.toIntExact;
 
 public class ElasticsearchQueryBuilder
 {
     private ElasticsearchQueryBuilder() {}
 
-    public static QueryBuilder buildSearchQuery(TupleDomain<ColumnHandle> constraint, List<ElasticsearchColumnHandle> columns, Optional<String> query)
+    public static List<FieldSortBuilder> buildSort(List<ElasticsearchSortItem> sortOrder)
+    {
+        return sortOrder.stream()
+                .map(item -> new FieldSortBuilder(item.getField())
+                        .order(item.getSortOrder().isAscending() ? SortOrder.ASC : SortOrder.DESC)
+                        .missing(item.getSortOrder().isNullsFirst() ? "_first" : "_last"))
+                .collect(toImmutableList());
+    }
+
+    public static QueryBuilder buildSearchQuery(TupleDomain<ColumnHandle> constraint, Optional<String> query)
     {
         BoolQueryBuilder boolQueryBuilder = new BoolQueryBuilder();
-        for (ElasticsearchColumnHandle column : columns) {
-            BoolQueryBuilder columnQueryBuilder = new BoolQueryBuilder();
-            Type type = column.getType();
-            if (constraint.getDomains().isPresent()) {
-                Domain domain = constraint.getDomains().get().get(column);
-                if (domain != null) {
-                    columnQueryBuilder.should(buildPredicate(column.getName(), domain, type));
-                }
-            }
-            boolQueryBuilder.must(columnQueryBuilder);
-        }
+        constraint.getDomains().ifPresent(domains -> domains.forEach((column, domain) -> {
+            ElasticsearchColumnHandle handle = (ElasticsearchColumnHandle) column;
+            boolQueryBuilder.must(buildPredicate(handle.getName(), domain, handle.getType()));
+        }));
 
         query.map(QueryStringQueryBuilder::new)
                 .ifPresent(boolQueryBuilder::must);
@@ -69,6 +85,87 @@ public class ElasticsearchQueryBuilder
         return new MatchAllQueryBuilder();
     }
 
+    /**
+     * Builds the aggregations that compute the groups of the given partitions of the values of each grouping column.
+     * Each grouping column is aggregated with a terms aggregation named {@code group_<level>}, nested in the buckets
+     * of the previous grouping column, and the documents without a value are aggregated in the first partition
+     * with a missing aggregation named {@code missing_<level>}. The aggregate {@code i} is computed by the metrics
+     * aggregation named {@code aggregate_<i>}, along with the number of values it is computed over, named {@code count_<i>}.
+     */
+    public static List<AggregationBuilder> buildAggregations(ElasticsearchAggregation aggregation, int[] partitions, int[] partitionCounts, int partitionSize)
+    {
+        return buildAggregations(aggregation, partitions, partitionCounts, partitionSize, 0);
+    }
+
+    private static List<AggregationBuilder> buildAggregations(ElasticsearchAggregation aggregation, int[] partitions, int[] partitionCounts, int partitionSize, int level)
+    {
+        List<ElasticsearchColumnHandle> groupingColumns = aggregation.getGroupingColumns();
+        if (level == groupingColumns.size()) {
+            return buildMetricAggregations(aggregation.getAggregates());
+        }
+
+        List<AggregationBuilder> subAggregations = buildAggregations(aggregation, partitions, partitionCounts, partitionSize, level + 1);
+        String field = groupingColumns.get(level).getName();
+
+        ImmutableList.Builder<AggregationBuilder> result = ImmutableList.builder();
+
+        TermsAggregationBuilder terms = AggregationBuilders.terms("group_" + level)
+                .field(field)
+                .size(partitionSize)
+                .shardSize(partitionSize);
+        if (partitionCounts[level] > 1) {
+            terms.includeExclude(new IncludeExclude(partitions[level], partitionCounts[level]));
+        }
+        subAggregations.forEach(terms::subAggregation);
+        result.add(terms);
+
+        if (partitions[level] == 0) {
+            MissingAggregationBuilder missing = AggregationBuilders.missing("missing_" + level)
+                    .field(field);
+            subAggregations.forEach(missing::subAggregation);
+            result.add(missing);
+        }
+
+        return result.build();
+    }
+
+    private static List<AggregationBuilder> buildMetricAggregations(List<ElasticsearchAggregate> aggregates)
+    {
+        ImmutableList.Builder<AggregationBuilder> result = ImmutableList.builder();
+        for (int i = 0; i < aggregates.size(); i++) {
+            ElasticsearchAggregate aggregate = aggregates.get(i);
+            if (!aggregate.getInput().isPresent()) {
+                // the number of documents is the count of the bucket
+                continue;
+            }
+
+            String field = aggregate.getInput().get().getName();
+            String name = "aggregate_" + i;
+            switch (aggregate.getFunction()) {
+                case COUNT:
+                    result.add(AggregationBuilders.count(name).field(field));
+                    continue;
+                case MIN:
+                    result.add(AggregationBuilders.min(name).field(field));
+                    break;
+                case MAX:
+                    result.add(AggregationBuilders.max(name).field(field));
+                    break;
+                case SUM:
+                    result.add(AggregationBuilders.sum(name).field(field));
+                    break;
+                case AVG:
+                    result.add(AggregationBuilders.avg(name).field(field));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported function: " + aggregate.getFunction());
+            }
+            // the metrics of a group without values are not null, so they are told apart with the number of values
+            result.add(AggregationBuilders.count("count_" + i).field(field));
+        }
+        return result.build();
+    }
+
     private static QueryBuilder buildPredicate(String columnName, Domain domain, Type type)
     {
         checkArgument(domain.getType().isOrderable(), "Domain type must be orderable");
@@ -84,6 +181,9 @@ public class ElasticsearchQueryBuilder
             return boolQueryBuilder;
         }
 
+        if (domain.isNullAllowed()) {
+            boolQueryBuilder.should(new BoolQueryBuilder().mustNot(new ExistsQueryBuilder(columnName)));
+        }
         return buildTermQuery(boolQueryBuilder, columnName, domain, type);
     }
 
@@ -137,9 +237,12 @@ public class ElasticsearchQueryBuilder
 
     private static Object getValue(Type type, Object value)
     {
-        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(DOUBLE) || type.equals(BOOLEAN)) {
+        if (type.equals(BIGINT) || type.equals(INTEGER) || type.equals(SMALLINT) || type.equals(TINYINT) || type.equals(DOUBLE) || type.equals(BOOLEAN)) {
             return value;
         }
+        if (type.equals(REAL)) {
+            return intBitsToFloat(toIntExact((long) value));
+        }
         if (type.equals(VARCHAR)) {
             return ((Slice) value).toStringUtf8();
         }
@@ -21,27 +21,39 @@ import io.prestosql.spi.connector.ConnectorSplit;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static java.util.Objects.requireNonNull;
 
 public class ElasticsearchSplit
         implements ConnectorSplit
 {
-    private final int shard;
+    private final OptionalInt shard;
     private final Optional<String> address;
+    private final int partition;
+    private final int partitionCount;
 
     @JsonCreator
     public ElasticsearchSplit(
-            @JsonProperty("shard") int shard,
-            @JsonProperty("address") Optional<String> address)
+            @JsonProperty("shard") OptionalInt shard,
+            @JsonProperty("address") Optional<String> address,
+            @JsonProperty("partition") int partition,
+            @JsonProperty("partitionCount") int partitionCount)
     {
-        this.shard = shard;
+        checkArgument(partition >= 0 && partition < partitionCount, "invalid partition %s of %s", partition, partitionCount);
+        this.shard = requireNonNull(shard, "shard is null");
         this.address = requireNonNull(address, "address is null");
+        this.partition = partition;
+        this.partitionCount = partitionCount;
     }
 
+    /**
+     * Shard searched by the split. When empty, the split searches the whole index.
+     */
     @JsonProperty
-    public int getShard()
+    public OptionalInt getShard()
     {
         return shard;
     }
@@ -52,6 +64,22 @@ public class ElasticsearchSplit
         return address;
     }
 
+    /**
+     * Partition of the documents of the shard read with a sliced scroll, or partition of the
+     * groups of an aggregation.
+     */
+    @JsonProperty
+    public int getPartition()
+    {
+        return partition;
+    }
+
+    @JsonProperty
+    public int getPartitionCount()
+    {
+        return partitionCount;
+    }
+
     @Override
     public boolean isRemotelyAccessible()
     {
@@ -75,7 +103,9 @@ public class ElasticsearchSplit
     public String toString()
     {
         return toStringHelper(this)
-                .addValue(shard)
+                .omitNullValues()
+                .addValue(shard.isPresent() ? shard.getAsInt() : null)
+                .addValue(partitionCount > 1 ? partition + "/" + partitionCount : null)
                 .toString();
     }
 }
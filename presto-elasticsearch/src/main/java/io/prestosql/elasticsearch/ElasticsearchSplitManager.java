@@ -13,7 +13,9 @@
  */
 package io.prestosql.elasticsearch;
 
+import com.google.common.collect.ImmutableList;
 import io.prestosql.elasticsearch.client.ElasticsearchClient;
+import io.prestosql.elasticsearch.client.Shard;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplitManager;
 import io.prestosql.spi.connector.ConnectorSplitSource;
@@ -24,19 +26,28 @@ import io.prestosql.spi.connector.FixedSplitSource;
 import javax.inject.Inject;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.math.LongMath.divide;
+import static java.lang.Math.toIntExact;
+import static java.math.RoundingMode.CEILING;
 import static java.util.Objects.requireNonNull;
 
 public class ElasticsearchSplitManager
         implements ConnectorSplitManager
 {
     private final ElasticsearchClient client;
+    private final long maxSplitDocuments;
 
     @Inject
-    public ElasticsearchSplitManager(ElasticsearchClient client)
+    public ElasticsearchSplitManager(ElasticsearchClient client, ElasticsearchConfig config)
     {
         this.client = requireNonNull(client, "client is null");
+        this.maxSplitDocuments = requireNonNull(config, "config is null").getMaxSplitDocuments();
     }
 
     @Override
@@ -44,10 +55,27 @@ public class ElasticsearchSplitManager
     {
         ElasticsearchTableHandle tableHandle = (ElasticsearchTableHandle) table;
 
-        List<ElasticsearchSplit> splits = client.getSearchShards(tableHandle.getIndex()).stream()
-                .map(shard -> new ElasticsearchSplit(shard.getId(), shard.getAddress()))
-                .collect(toImmutableList());
+        if (tableHandle.getAggregation().isPresent()) {
+            // each split aggregates a partition of the groups over the whole index
+            int partitionCount = tableHandle.getAggregation().get().getPartitionCount();
+            return new FixedSplitSource(IntStream.range(0, partitionCount)
+                    .mapToObj(partition -> new ElasticsearchSplit(OptionalInt.empty(), Optional.empty(), partition, partitionCount))
+                    .collect(toImmutableList()));
+        }
 
-        return new FixedSplitSource(splits);
+        List<Shard> shards = client.getSearchShards(tableHandle.getIndex());
+        Map<Integer, Long> documentCounts = client.getShardDocumentCounts(tableHandle.getIndex());
+
+        ImmutableList.Builder<ElasticsearchSplit> splits = ImmutableList.builder();
+        for (Shard shard : shards) {
+            // large shards are read with several slices of a scroll, in parallel
+            long documents = documentCounts.getOrDefault(shard.getId(), 0L);
+            int sliceCount = toIntExact(Math.max(1, divide(documents, maxSplitDocuments, CEILING)));
+            for (int slice = 0; slice < sliceCount; slice++) {
+                splits.add(new ElasticsearchSplit(OptionalInt.of(shard.getId()), shard.getAddress(), slice, sliceCount));
+            }
+        }
+
+        return new FixedSplitSource(splits.build());
     }
 }
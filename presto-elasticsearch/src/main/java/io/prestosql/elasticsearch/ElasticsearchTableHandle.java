@@ -15,12 +15,15 @@ package io.prestosql.elasticsearch;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
 import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.predicate.TupleDomain;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static java.util.Objects.requireNonNull;
 
@@ -31,14 +34,13 @@ public final class ElasticsearchTableHandle
     private final String index;
     private final TupleDomain<ColumnHandle> constraint;
     private final Optional<String> query;
+    private final OptionalLong limit;
+    private final Optional<List<ElasticsearchSortItem>> sortOrder;
+    private final Optional<ElasticsearchAggregation> aggregation;
 
     public ElasticsearchTableHandle(String schema, String index, Optional<String> query)
     {
-        this.schema = requireNonNull(schema, "schema is null");
-        this.index = requireNonNull(index, "index is null");
-        this.query = requireNonNull(query, "query is null");
-
-        constraint = TupleDomain.all();
+        this(schema, index, TupleDomain.all(), query, OptionalLong.empty(), Optional.empty(), Optional.empty());
     }
 
     @JsonCreator
@@ -46,12 +48,18 @@ public final class ElasticsearchTableHandle
             @JsonProperty("schema") String schema,
             @JsonProperty("index") String index,
             @JsonProperty("constraint") TupleDomain<ColumnHandle> constraint,
-            @JsonProperty("query") Optional<String> query)
+            @JsonProperty("query") Optional<String> query,
+            @JsonProperty("limit") OptionalLong limit,
+            @JsonProperty("sortOrder") Optional<List<ElasticsearchSortItem>> sortOrder,
+            @JsonProperty("aggregation") Optional<ElasticsearchAggregation> aggregation)
     {
         this.schema = requireNonNull(schema, "schema is null");
         this.index = requireNonNull(index, "index is null");
         this.constraint = requireNonNull(constraint, "constraint is null");
         this.query = requireNonNull(query, "query is null");
+        this.limit = requireNonNull(limit, "limit is null");
+        this.sortOrder = requireNonNull(sortOrder, "sortOrder is null").map(ImmutableList::copyOf);
+        this.aggregation = requireNonNull(aggregation, "aggregation is null");
     }
 
     @JsonProperty
@@ -78,6 +86,34 @@ public final class ElasticsearchTableHandle
         return query;
     }
 
+    /**
+     * Maximum number of hits returned by the search of each shard, if any.
+     */
+    @JsonProperty
+    public OptionalLong getLimit()
+    {
+        return limit;
+    }
+
+    /**
+     * Sort order of the search. When present, each shard returns its first {@link #getLimit()} hits in this order.
+     */
+    @JsonProperty
+    public Optional<List<ElasticsearchSortItem>> getSortOrder()
+    {
+        return sortOrder;
+    }
+
+    /**
+     * Aggregation computed by Elasticsearch, if any. When present, the table has one row per group,
+     * with the grouping columns and the output columns of the aggregates.
+     */
+    @JsonProperty
+    public Optional<ElasticsearchAggregation> getAggregation()
+    {
+        return aggregation;
+    }
+
     @Override
     public boolean equals(Object o)
     {
@@ -91,12 +127,15 @@ public final class ElasticsearchTableHandle
         return schema.equals(that.schema) &&
                 index.equals(that.index) &&
                 constraint.equals(that.constraint) &&
-                query.equals(that.query);
+                query.equals(that.query) &&
+                limit.equals(that.limit) &&
+                sortOrder.equals(that.sortOrder) &&
+                aggregation.equals(that.aggregation);
     }
 
     @Override
     public int hashCode()
     {
-        return Objects.hash(schema, index, constraint, query);
+        return Objects.hash(schema, index, constraint, query, limit, sortOrder, aggregation);
     }
 }
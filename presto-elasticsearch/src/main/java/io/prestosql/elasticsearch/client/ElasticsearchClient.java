@@ -21,6 +21,7 @@ import com.amazonaws.auth.InstanceProfileCredentialsProvider;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.json.JsonCodec;
 import io.airlift.json.ObjectMapperProvider;
@@ -46,7 +47,10 @@ import org.elasticsearch.client.RestClientBuilder;
 import org.elasticsearch.client.RestHighLevelClient;
 import org.elasticsearch.common.unit.TimeValue;
 import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
 import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.slice.SliceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
@@ -70,10 +74,13 @@ import java.security.cert.CertificateExpiredException;
 import java.security.cert.CertificateNotYetValidException;
 import java.security.cert.X509Certificate;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.Set;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -384,6 +391,35 @@ public class ElasticsearchClient
         return shards.build();
     }
 
+    /**
+     * Returns the number of documents in the primary copy of each shard of the index, keyed by shard id.
+     * When the name resolves to several indexes, the counts of the shards with the same id are added up.
+     */
+    public Map<Integer, Long> getShardDocumentCounts(String index)
+    {
+        return doRequest(format("/%s/_stats/docs?level=shards", index), body -> {
+            try {
+                Map<Integer, Long> result = new HashMap<>();
+                JsonNode indices = OBJECT_MAPPER.readTree(body).path("indices");
+                for (JsonNode indexStats : indices) {
+                    Iterator<Map.Entry<String, JsonNode>> shards = indexStats.path("shards").fields();
+                    while (shards.hasNext()) {
+                        Map.Entry<String, JsonNode> shard = shards.next();
+                        for (JsonNode copy : shard.getValue()) {
+                            if (copy.path("routing").path("primary").asBoolean()) {
+                                result.merge(Integer.parseInt(shard.getKey()), copy.path("docs").path("count").asLong(), Long::sum);
+                            }
+                        }
+                    }
+                }
+                return ImmutableMap.copyOf(result);
+            }
+            catch (IOException | NumberFormatException e) {
+                throw new PrestoException(ELASTICSEARCH_INVALID_RESPONSE, e);
+            }
+        });
+    }
+
     private int shardPreference(SearchShardsResponse.Shard left, SearchShardsResponse.Shard right)
     {
         // Favor non-primary shards
@@ -468,11 +504,21 @@ public class ElasticsearchClient
         return new IndexMetadata.ObjectType(result.build());
     }
 
-    public SearchResponse beginSearch(String index, int shard, QueryBuilder query, Optional<List<String>> fields, List<String> documentFields)
+    public SearchResponse beginSearch(
+            String index,
+            OptionalInt shard,
+            int slice,
+            int sliceCount,
+            QueryBuilder query,
+            Optional<List<String>> fields,
+            List<String> documentFields,
+            List<FieldSortBuilder> sort,
+            OptionalLong limit)
     {
         SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource()
                 .query(query)
-                .size(scrollSize);
+                .size(toIntExact(Math.min(limit.orElse(scrollSize), scrollSize)));
+        sort.forEach(sourceBuilder::sort);
 
         fields.ifPresent(values -> {
             if (values.isEmpty()) {
@@ -484,12 +530,37 @@ public class ElasticsearchClient
         });
         documentFields.forEach(sourceBuilder::docValueField);
 
+        if (sliceCount > 1) {
+            // the slices partition the documents of the shards selected by the preference
+            sourceBuilder.slice(new SliceBuilder(slice, sliceCount));
+        }
+
         SearchRequest request = new SearchRequest(index)
                 .searchType(QUERY_THEN_FETCH)
-                .preference("_shards:" + shard)
                 .scroll(new TimeValue(scrollTimeout.toMillis()))
                 .source(sourceBuilder);
+        shard.ifPresent(value -> request.preference("_shards:" + value));
+
+        return search(request);
+    }
 
+    /**
+     * Runs a search that only computes the given aggregations, without returning any documents.
+     */
+    public SearchResponse searchAggregations(String index, QueryBuilder query, List<AggregationBuilder> aggregations)
+    {
+        SearchSourceBuilder sourceBuilder = SearchSourceBuilder.searchSource()
+                .query(query)
+                .size(0);
+        aggregations.forEach(sourceBuilder::aggregation);
+
+        return search(new SearchRequest(index)
+                .searchType(QUERY_THEN_FETCH)
+                .source(sourceBuilder));
+    }
+
+    private SearchResponse search(SearchRequest request)
+    {
         try {
             return client.search(request);
         }
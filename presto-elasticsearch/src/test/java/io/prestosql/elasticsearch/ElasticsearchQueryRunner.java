@@ -88,6 +88,9 @@ public final class ElasticsearchQueryRunner
                 .put("elasticsearch.scroll-size", "1000")
                 .put("elasticsearch.scroll-timeout", "1m")
                 .put("elasticsearch.request-timeout", "2m")
+                // exercise the slicing of shards and the partitioning of aggregations
+                .put("elasticsearch.max-split-documents", "1000")
+                .put("elasticsearch.aggregation-pushdown.partition-size", "100")
                 .build();
 
         queryRunner.createCatalog("elasticsearch", "elasticsearch", config);
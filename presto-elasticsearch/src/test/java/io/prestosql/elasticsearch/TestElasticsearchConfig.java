@@ -42,6 +42,10 @@ public class TestElasticsearchConfig
                 .setConnectTimeout(new Duration(1, SECONDS))
                 .setMaxRetryTime(new Duration(30, SECONDS))
                 .setNodeRefreshInterval(new Duration(1, MINUTES))
+                .setMaxSplitDocuments(10_000_000)
+                .setAggregationPushdownEnabled(true)
+                .setAggregationPushdownMaxGroups(100_000)
+                .setAggregationPushdownPartitionSize(10_000)
                 .setTlsEnabled(false)
                 .setKeystorePath(null)
                 .setKeystorePassword(null)
@@ -64,6 +68,10 @@ public class TestElasticsearchConfig
                 .put("elasticsearch.connect-timeout", "10s")
                 .put("elasticsearch.max-retry-time", "10s")
                 .put("elasticsearch.node-refresh-interval", "10m")
+                .put("elasticsearch.max-split-documents", "1000")
+                .put("elasticsearch.aggregation-pushdown.enabled", "false")
+                .put("elasticsearch.aggregation-pushdown.max-groups", "500")
+                .put("elasticsearch.aggregation-pushdown.partition-size", "100")
                 .put("elasticsearch.tls.enabled", "true")
                 .put("elasticsearch.tls.keystore-path", "/tmp/keystore")
                 .put("elasticsearch.tls.keystore-password", "keystore-password")
@@ -83,6 +91,10 @@ public class TestElasticsearchConfig
                 .setConnectTimeout(new Duration(10, SECONDS))
                 .setMaxRetryTime(new Duration(10, SECONDS))
                 .setNodeRefreshInterval(new Duration(10, MINUTES))
+                .setMaxSplitDocuments(1000)
+                .setAggregationPushdownEnabled(false)
+                .setAggregationPushdownMaxGroups(500)
+                .setAggregationPushdownPartitionSize(100)
                 .setTlsEnabled(true)
                 .setKeystorePath(new File("/tmp/keystore"))
                 .setKeystorePassword("keystore-password")
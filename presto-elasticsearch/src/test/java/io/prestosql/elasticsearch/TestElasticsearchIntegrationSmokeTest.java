@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Closer;
 import io.airlift.tpch.TpchTable;
+import io.prestosql.sql.planner.plan.AggregationNode;
 import io.prestosql.testing.MaterializedResult;
 import io.prestosql.testing.MaterializedRow;
 import io.prestosql.testing.QueryRunner;
@@ -34,6 +35,7 @@ import static io.prestosql.elasticsearch.ElasticsearchQueryRunner.createElastics
 import static io.prestosql.elasticsearch.EmbeddedElasticsearchNode.createEmbeddedElasticsearchNode;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static io.prestosql.testing.MaterializedResult.resultBuilder;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
 import static java.lang.String.format;
@@ -328,12 +330,63 @@ public class TestElasticsearchIntegrationSmokeTest
                 "VALUES ('john', 32)");
     }
 
+    @Test
+    public void testTopN()
+    {
+        assertQueryOrdered("SELECT orderkey, totalprice FROM orders ORDER BY totalprice DESC, orderkey LIMIT 10");
+        assertQueryOrdered("SELECT orderkey, orderdate FROM orders ORDER BY orderdate, orderkey DESC LIMIT 10");
+        assertQueryOrdered("SELECT orderkey, totalprice FROM orders WHERE custkey < 100 ORDER BY totalprice, orderkey LIMIT 5");
+
+        // character columns are not sorted by Elasticsearch
+        assertQueryOrdered("SELECT orderkey, clerk FROM orders ORDER BY clerk, orderkey LIMIT 10");
+    }
+
+    @Test
+    public void testFilterPushdown()
+    {
+        assertQuery("SELECT orderkey, custkey FROM orders WHERE custkey BETWEEN 10 AND 20 AND shippriority = 0");
+        assertQuery("SELECT count(*) FROM orders WHERE orderkey IN (1, 2, 3, 7, 32) OR totalprice > 500000");
+
+        // text fields are analyzed, so the predicates on them are evaluated by the engine
+        assertQuery("SELECT orderkey FROM orders WHERE orderstatus = 'F' AND custkey < 50");
+    }
+
+    @Test
+    public void testAggregationPushdown()
+    {
+        assertAggregationPushedDown("SELECT count(*) FROM orders", true);
+        assertAggregationPushedDown("SELECT count(*), max(totalprice) FROM orders WHERE custkey < 100", true);
+        assertAggregationPushedDown("SELECT shippriority, count(*), min(totalprice), sum(totalprice), avg(shippriority) FROM orders GROUP BY shippriority", true);
+        // more groups than fit in one search of a partition
+        assertAggregationPushedDown("SELECT custkey, count(*), count(orderkey), max(shippriority), avg(totalprice) FROM orders GROUP BY custkey", true);
+        assertAggregationPushedDown("SELECT custkey, shippriority, min(totalprice) FROM orders GROUP BY custkey, shippriority", true);
+
+        // the BIGINT values are not exact in the doubles computed by Elasticsearch
+        assertAggregationPushedDown("SELECT max(orderkey) FROM orders", false);
+        assertAggregationPushedDown("SELECT shippriority, sum(custkey) FROM orders GROUP BY shippriority", false);
+        assertAggregationPushedDown("SELECT shippriority, avg(custkey) FROM orders GROUP BY shippriority", false);
+
+        // text fields are analyzed, so they are grouped by the engine
+        assertAggregationPushedDown("SELECT orderstatus, count(*) FROM orders GROUP BY orderstatus", false);
+        assertAggregationPushedDown("SELECT min(clerk) FROM orders", false);
+        // the aggregation must not be applied to the rows of a limited table
+        assertAggregationPushedDown("SELECT count(*) FROM (SELECT * FROM orders LIMIT 10)", false);
+    }
+
     @Test
     public void testQueryStringError()
     {
         assertQueryFails("SELECT count(*) FROM \"orders: ++foo AND\"", "\\QFailed to parse query [ ++foo and]\\E");
     }
 
+    private void assertAggregationPushedDown(String sql, boolean pushedDown)
+    {
+        assertQuery(getSession(), sql, sql, plan -> assertEquals(
+                !searchFrom(plan.getRoot()).where(AggregationNode.class::isInstance).matches(),
+                pushedDown,
+                "aggregation pushed down"));
+    }
+
     private void index(String indexName, Map<String, Object> document)
     {
         embeddedElasticsearchNode.getClient()
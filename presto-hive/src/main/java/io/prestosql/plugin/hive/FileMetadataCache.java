@@ -0,0 +1,289 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.Weigher;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.OrcFileTail;
+import io.prestosql.orc.OrcMetadataCache;
+import io.prestosql.orc.OrcMetadataCache.MetadataLoader;
+import io.prestosql.orc.metadata.StripeFooter;
+import io.prestosql.orc.metadata.StripeInformation;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Throwables.throwIfInstanceOf;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.primitives.Ints.saturatedCast;
+import static io.airlift.slice.SizeOf.sizeOfByteArray;
+import static io.airlift.slice.SizeOf.sizeOfCharArray;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker-local cache of the footers of ORC and Parquet files, so that the splits of a file,
+ * and queries reading the same files, do not all fetch and decode them from storage. Entries are
+ * keyed by the path, size and modification time of the file, so a rewritten file is never served
+ * stale metadata, and weighted by the estimated heap size of the decoded metadata, which is several
+ * times larger than its size in the file.
+ */
+public class FileMetadataCache
+{
+    // rough heap size of the decoded metadata of a column chunk (chunk metadata, encodings and statistics
+    // objects) or of a schema column (descriptor, path and type), excluding the statistics values
+    private static final int PARQUET_COLUMN_CHUNK_RETAINED_SIZE = 512;
+    private static final int PARQUET_SCHEMA_COLUMN_RETAINED_SIZE = 256;
+
+    private final boolean enabled;
+    private final Cache<CacheKey, CacheEntry> cache;
+
+    @Inject
+    public FileMetadataCache(HiveConfig hiveConfig)
+    {
+        this(hiveConfig.getFileMetadataCacheSize());
+    }
+
+    public FileMetadataCache(DataSize maxSize)
+    {
+        requireNonNull(maxSize, "maxSize is null");
+        this.enabled = maxSize.toBytes() > 0;
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Weigher<CacheKey, CacheEntry>) (key, entry) -> entry.getWeight())
+                .recordStats()
+                .build();
+    }
+
+    public OrcMetadataCache getOrcMetadataCache(Path path, long fileSize, long modificationTime)
+    {
+        if (!enabled) {
+            return OrcMetadataCache.NONE;
+        }
+        return new OrcMetadataCache()
+        {
+            @Override
+            public OrcFileTail getFileTail(MetadataLoader<OrcFileTail> loader)
+                    throws IOException
+            {
+                CacheKey key = new CacheKey(path, fileSize, modificationTime, MetadataKind.ORC_FILE_TAIL, 0);
+                return get(key, loader, OrcFileTail::getRetainedSizeInBytes);
+            }
+
+            @Override
+            public StripeFooter getStripeFooter(StripeInformation stripe, MetadataLoader<StripeFooter> loader)
+                    throws IOException
+            {
+                CacheKey key = new CacheKey(path, fileSize, modificationTime, MetadataKind.ORC_STRIPE_FOOTER, stripe.getOffset());
+                return get(key, loader, StripeFooter::getRetainedSizeInBytes);
+            }
+        };
+    }
+
+    public ParquetMetadata getParquetMetadata(Path path, long fileSize, long modificationTime, MetadataLoader<ParquetMetadata> loader)
+            throws IOException
+    {
+        if (!enabled) {
+            return loader.load();
+        }
+        CacheKey key = new CacheKey(path, fileSize, modificationTime, MetadataKind.PARQUET_FOOTER, 0);
+        return get(key, loader, FileMetadataCache::getParquetMetadataRetainedSize);
+    }
+
+    private static long getParquetMetadataRetainedSize(ParquetMetadata metadata)
+    {
+        long size = (long) metadata.getFileMetaData().getSchema().getColumns().size() * PARQUET_SCHEMA_COLUMN_RETAINED_SIZE;
+        for (Map.Entry<String, String> entry : metadata.getFileMetaData().getKeyValueMetaData().entrySet()) {
+            size += sizeOfCharArray(entry.getKey().length()) + sizeOfCharArray(entry.getValue().length());
+        }
+        for (BlockMetaData block : metadata.getBlocks()) {
+            size += sizeOfObjectArray(block.getColumns().size());
+            for (ColumnChunkMetaData column : block.getColumns()) {
+                size += PARQUET_COLUMN_CHUNK_RETAINED_SIZE;
+                Statistics<?> statistics = column.getStatistics();
+                if (statistics != null && statistics.hasNonNullValue()) {
+                    size += sizeOfByteArray(statistics.getMinBytes().length) + sizeOfByteArray(statistics.getMaxBytes().length);
+                }
+            }
+        }
+        return size;
+    }
+
+    private <T> T get(CacheKey key, MetadataLoader<T> loader, Sizer<T> sizer)
+            throws IOException
+    {
+        try {
+            @SuppressWarnings("unchecked")
+            T value = (T) cache.get(key, () -> {
+                T loaded = loader.load();
+                return new CacheEntry(loaded, saturatedCast(sizer.getSize(loaded)));
+            }).getValue();
+            return value;
+        }
+        catch (ExecutionException | UncheckedExecutionException e) {
+            throwIfInstanceOf(e.getCause(), IOException.class);
+            throwIfUnchecked(e.getCause());
+            throw new RuntimeException(e.getCause());
+        }
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getSize()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public Double getHitRate()
+    {
+        return cache.stats().hitRate();
+    }
+
+    @Managed
+    public Double getMissRate()
+    {
+        return cache.stats().missRate();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getRequestCount()
+    {
+        return cache.stats().requestCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    private interface Sizer<T>
+    {
+        long getSize(T value);
+    }
+
+    private enum MetadataKind
+    {
+        ORC_FILE_TAIL,
+        ORC_STRIPE_FOOTER,
+        PARQUET_FOOTER,
+    }
+
+    private static class CacheEntry
+    {
+        private final Object value;
+        private final int weight;
+
+        public CacheEntry(Object value, int weight)
+        {
+            this.value = requireNonNull(value, "value is null");
+            this.weight = weight;
+        }
+
+        public Object getValue()
+        {
+            return value;
+        }
+
+        public int getWeight()
+        {
+            return weight;
+        }
+    }
+
+    private static class CacheKey
+    {
+        private final String path;
+        private final long fileSize;
+        private final long modificationTime;
+        private final MetadataKind kind;
+        private final long offset;
+
+        public CacheKey(Path path, long fileSize, long modificationTime, MetadataKind kind, long offset)
+        {
+            this.path = requireNonNull(path, "path is null").toString();
+            this.fileSize = fileSize;
+            this.modificationTime = modificationTime;
+            this.kind = requireNonNull(kind, "kind is null");
+            this.offset = offset;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return fileSize == other.fileSize &&
+                    modificationTime == other.modificationTime &&
+                    offset == other.offset &&
+                    path.equals(other.path) &&
+                    kind == other.kind;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, modificationTime, kind, offset);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("fileSize", fileSize)
+                    .add("modificationTime", modificationTime)
+                    .add("kind", kind)
+                    .add("offset", offset)
+                    .toString();
+        }
+    }
+}
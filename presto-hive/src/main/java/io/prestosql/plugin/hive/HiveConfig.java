@@ -117,6 +117,9 @@ public class HiveConfig
     private long fileStatusCacheMaxSize = 1000 * 1000;
     private List<String> fileStatusCacheTables = ImmutableList.of();
 
+    private DataSize fileMetadataCacheSize = new DataSize(0, MEGABYTE);
+    private int dataVersionMaxFiles = 10_000;
+
     public int getMaxInitialSplits()
     {
         return maxInitialSplits;
@@ -584,6 +587,34 @@ public class HiveConfig
         return this;
     }
 
+    @NotNull
+    public DataSize getFileMetadataCacheSize()
+    {
+        return fileMetadataCacheSize;
+    }
+
+    @Config("hive.file-metadata-cache-size")
+    @ConfigDescription("Maximum heap size of the decoded ORC and Parquet file footers cached on each worker")
+    public HiveConfig setFileMetadataCacheSize(DataSize fileMetadataCacheSize)
+    {
+        this.fileMetadataCacheSize = fileMetadataCacheSize;
+        return this;
+    }
+
+    @Min(0)
+    public int getDataVersionMaxFiles()
+    {
+        return dataVersionMaxFiles;
+    }
+
+    @Config("hive.data-version.max-files")
+    @ConfigDescription("Maximum number of files listed to version a table for the query result cache")
+    public HiveConfig setDataVersionMaxFiles(int dataVersionMaxFiles)
+    {
+        this.dataVersionMaxFiles = dataVersionMaxFiles;
+        return this;
+    }
+
     public boolean isSkipDeletionForAlter()
     {
         return skipDeletionForAlter;
@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hasher;
+import io.prestosql.plugin.hive.HdfsEnvironment.HdfsContext;
+import io.prestosql.plugin.hive.metastore.Table;
+import io.prestosql.plugin.hive.util.HiveFileIterator;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.ConnectorSession;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.LocatedFileStatus;
+import org.apache.hadoop.fs.Path;
+
+import javax.inject.Inject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+import static com.google.common.hash.Hashing.murmur3_128;
+import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_FILE_NOT_FOUND;
+import static io.prestosql.plugin.hive.util.HiveFileIterator.NestedDirectoryPolicy.IGNORED;
+import static io.prestosql.plugin.hive.util.HiveFileIterator.NestedDirectoryPolicy.RECURSE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Derives the data version of a table or of its selected partitions from the files a query reads.
+ * Inserts by Presto and by other engines add files without altering the metastore objects, so the
+ * table and partition parameters can not be used. The files are listed like the split loader lists
+ * them, through the {@link DirectoryLister}, so tables in {@code hive.file-status-cache-tables} are
+ * not listed again for every query. Tables with more than {@code hive.data-version.max-files} files
+ * are not versioned, which bounds the time spent listing on the coordinator.
+ */
+public class HiveDataVersionProvider
+{
+    private final HdfsEnvironment hdfsEnvironment;
+    private final DirectoryLister directoryLister;
+    private final NamenodeStats namenodeStats;
+    private final boolean recursiveDirWalkerEnabled;
+    private final int maxFiles;
+
+    @Inject
+    public HiveDataVersionProvider(HiveConfig hiveConfig, HdfsEnvironment hdfsEnvironment, DirectoryLister directoryLister, NamenodeStats namenodeStats)
+    {
+        this(
+                hdfsEnvironment,
+                directoryLister,
+                namenodeStats,
+                hiveConfig.getRecursiveDirWalkerEnabled(),
+                hiveConfig.getDataVersionMaxFiles());
+    }
+
+    public HiveDataVersionProvider(
+            HdfsEnvironment hdfsEnvironment,
+            DirectoryLister directoryLister,
+            NamenodeStats namenodeStats,
+            boolean recursiveDirWalkerEnabled,
+            int maxFiles)
+    {
+        this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
+        this.directoryLister = requireNonNull(directoryLister, "directoryLister is null");
+        this.namenodeStats = requireNonNull(namenodeStats, "namenodeStats is null");
+        this.recursiveDirWalkerEnabled = recursiveDirWalkerEnabled;
+        this.maxFiles = maxFiles;
+    }
+
+    /**
+     * Returns a hash of the paths, sizes and modification times of the files under the given
+     * locations, or empty if the files can not be listed or there are too many of them.
+     */
+    public OptionalLong getDataVersion(ConnectorSession session, Table table, List<String> locations)
+    {
+        HdfsContext context = new HdfsContext(session, table.getDatabaseName(), table.getTableName());
+        return hdfsEnvironment.doAs(session.getUser(), () -> {
+            Hasher hasher = murmur3_128().newHasher();
+            int fileCount = 0;
+            for (String location : locations) {
+                Optional<List<String>> files = listFileSignatures(context, table, new Path(location), maxFiles - fileCount);
+                if (!files.isPresent()) {
+                    return OptionalLong.empty();
+                }
+                fileCount += files.get().size();
+                hasher.putString(location, UTF_8);
+                for (String file : files.get()) {
+                    hasher.putString(file, UTF_8);
+                }
+            }
+            return OptionalLong.of(hasher.hash().asLong());
+        });
+    }
+
+    private Optional<List<String>> listFileSignatures(HdfsContext context, Table table, Path location, int maxFiles)
+    {
+        List<String> files = new ArrayList<>();
+        try {
+            FileSystem fileSystem = hdfsEnvironment.getFileSystem(context, location);
+            Iterator<LocatedFileStatus> iterator = new HiveFileIterator(table, location, fileSystem, directoryLister, namenodeStats, recursiveDirWalkerEnabled ? RECURSE : IGNORED);
+            while (iterator.hasNext()) {
+                if (files.size() == maxFiles) {
+                    return Optional.empty();
+                }
+                LocatedFileStatus file = iterator.next();
+                files.add(file.getPath() + ":" + file.getLen() + ":" + file.getModificationTime());
+            }
+        }
+        catch (PrestoException e) {
+            // an empty partition may not have a directory
+            if (e.getErrorCode().equals(HIVE_FILE_NOT_FOUND.toErrorCode()) && files.isEmpty()) {
+                return Optional.of(ImmutableList.of());
+            }
+            return Optional.empty();
+        }
+        catch (IOException e) {
+            return Optional.empty();
+        }
+        // the listing order is not specified by the file system
+        Collections.sort(files);
+        return Optional.of(files);
+    }
+}
@@ -273,6 +273,7 @@ public class HiveMetadata
     private final String prestoVersion;
     private final HiveStatisticsProvider hiveStatisticsProvider;
     private final AccessControlMetadata accessControlMetadata;
+    private final HiveDataVersionProvider dataVersionProvider;
 
     public HiveMetadata(
             SemiTransactionalHiveMetastore metastore,
@@ -288,7 +289,8 @@ public class HiveMetadata
             TypeTranslator typeTranslator,
             String prestoVersion,
             HiveStatisticsProvider hiveStatisticsProvider,
-            AccessControlMetadata accessControlMetadata)
+            AccessControlMetadata accessControlMetadata,
+            HiveDataVersionProvider dataVersionProvider)
     {
         this.allowCorruptWritesForTesting = allowCorruptWritesForTesting;
 
@@ -305,6 +307,7 @@ public class HiveMetadata
         this.prestoVersion = requireNonNull(prestoVersion, "prestoVersion is null");
         this.hiveStatisticsProvider = requireNonNull(hiveStatisticsProvider, "hiveStatisticsProvider is null");
         this.accessControlMetadata = requireNonNull(accessControlMetadata, "accessControlMetadata is null");
+        this.dataVersionProvider = requireNonNull(dataVersionProvider, "dataVersionProvider is null");
     }
 
     public SemiTransactionalHiveMetastore getMetastore()
@@ -697,6 +700,43 @@ public class HiveMetadata
         return hiveStatisticsProvider.getTableStatistics(session, ((HiveTableHandle) tableHandle).getSchemaTableName(), columns, columnTypes, partitions);
     }
 
+    @Override
+    public OptionalLong getTableDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        HiveTableHandle handle = (HiveTableHandle) tableHandle;
+        HiveIdentity identity = new HiveIdentity(session);
+        Table table = metastore.getTable(identity, handle.getSchemaName(), handle.getTableName())
+                .orElseThrow(() -> new TableNotFoundException(handle.getSchemaTableName()));
+        if (isTransactionalTable(table.getParameters())) {
+            // transactional writes add delta directories without altering the partitions
+            return OptionalLong.empty();
+        }
+
+        List<String> locations;
+        if (table.getPartitionColumns().isEmpty()) {
+            locations = ImmutableList.of(table.getStorage().getLocation());
+        }
+        else {
+            // only the partitions selected by the handle are read by the query
+            List<String> partitionNames = partitionManager.getOrLoadPartitions(metastore, identity, handle).stream()
+                    .map(HivePartition::getPartitionId)
+                    .sorted()
+                    .collect(toImmutableList());
+            Map<String, Optional<Partition>> partitions = metastore.getPartitionsByNames(identity, handle.getSchemaName(), handle.getTableName(), partitionNames);
+            ImmutableList.Builder<String> partitionLocations = ImmutableList.builder();
+            for (String partitionName : partitionNames) {
+                Optional<Partition> partition = partitions.getOrDefault(partitionName, Optional.empty());
+                if (!partition.isPresent()) {
+                    return OptionalLong.empty();
+                }
+                partitionLocations.add(partition.get().getStorage().getLocation());
+            }
+            locations = partitionLocations.build();
+        }
+
+        return dataVersionProvider.getDataVersion(session, table, locations);
+    }
+
     private List<SchemaTableName> listTables(ConnectorSession session, SchemaTablePrefix prefix)
     {
         if (!prefix.getTable().isPresent()) {
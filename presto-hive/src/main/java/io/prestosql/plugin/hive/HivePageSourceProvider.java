@@ -28,6 +28,8 @@ import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedPageSource;
 import io.prestosql.spi.connector.RecordCursor;
 import io.prestosql.spi.connector.RecordPageSource;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
@@ -48,12 +50,14 @@ import java.util.Set;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.Maps.uniqueIndex;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.PARTITION_KEY;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.SYNTHESIZED;
 import static io.prestosql.plugin.hive.HivePageSourceProvider.ColumnMapping.toColumnHandles;
 import static io.prestosql.plugin.hive.util.HiveUtil.getPrefilledColumnValue;
+import static io.prestosql.plugin.hive.util.HiveUtil.parsePartitionValue;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
 
@@ -101,6 +105,12 @@ public class HivePageSourceProvider
         HiveSplit hiveSplit = (HiveSplit) split;
         Path path = new Path(hiveSplit.getPath());
 
+        // Splits enumerated before the dynamic filter became available may belong to filtered out partitions
+        TupleDomain<HiveColumnHandle> hiveDynamicFilter = dynamicFilter.transform(HiveColumnHandle.class::cast);
+        if (!partitionMatches(hiveSplit, hiveDynamicFilter)) {
+            return new FixedPageSource(ImmutableList.of());
+        }
+
         Configuration configuration = hdfsEnvironment.getConfiguration(new HdfsContext(session, hiveSplit.getDatabase(), hiveSplit.getTable()), path);
 
         Optional<ConnectorPageSource> pageSource = createHivePageSource(
@@ -115,7 +125,7 @@ public class HivePageSourceProvider
                 hiveSplit.getFileSize(),
                 hiveSplit.getFileModifiedTime(),
                 hiveSplit.getSchema(),
-                hiveTable.getCompactEffectivePredicate().intersect(dynamicFilter.transform(HiveColumnHandle.class::cast)),
+                hiveTable.getCompactEffectivePredicate().intersect(hiveDynamicFilter),
                 hiveColumns,
                 hiveSplit.getPartitionKeys(),
                 hiveStorageTimeZone,
@@ -129,6 +139,29 @@ public class HivePageSourceProvider
         throw new RuntimeException("Could not find a file reader for split " + hiveSplit);
     }
 
+    private boolean partitionMatches(HiveSplit hiveSplit, TupleDomain<HiveColumnHandle> dynamicFilter)
+    {
+        if (dynamicFilter.isNone()) {
+            return false;
+        }
+        Map<String, Domain> partitionDomains = dynamicFilter.getDomains().get().entrySet().stream()
+                .filter(entry -> entry.getKey().getColumnType() == PARTITION_KEY)
+                .collect(toImmutableMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+        if (partitionDomains.isEmpty()) {
+            return true;
+        }
+        for (HivePartitionKey partitionKey : hiveSplit.getPartitionKeys()) {
+            Domain allowedDomain = partitionDomains.get(partitionKey.getName());
+            if (allowedDomain != null) {
+                NullableValue value = parsePartitionValue(hiveSplit.getPartitionName(), partitionKey.getValue(), allowedDomain.getType(), hiveStorageTimeZone);
+                if (!allowedDomain.includesNullableValue(value.getValue())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     public static Optional<ConnectorPageSource> createHivePageSource(
             Set<HiveRecordCursorProvider> cursorProviders,
             Set<HivePageSourceFactory> pageSourceFactories,
@@ -190,6 +223,7 @@ public class HivePageSourceProvider
                     start,
                     length,
                     fileSize,
+                    fileModifiedTime,
                     schema,
                     toColumnHandles(regularAndInterimColumnMappings, true, typeManager),
                     effectivePredicate,
@@ -200,6 +200,32 @@ public class HiveSplit
         return !forceLocalScheduling;
     }
 
+    @Override
+    public Optional<String> getAffinityKey()
+    {
+        return Optional.of(path);
+    }
+
+    @Override
+    public Optional<String> getCacheIdentifier()
+    {
+        if (bucketConversion.isPresent()) {
+            // rows are filtered by the table bucket while reading
+            return Optional.empty();
+        }
+        return Optional.of(toStringHelper("")
+                .add("table", database + "." + table)
+                .add("partitionName", partitionName)
+                .add("path", path)
+                .add("start", start)
+                .add("length", length)
+                .add("fileSize", fileSize)
+                .add("fileModifiedTime", fileModifiedTime)
+                .add("bucketNumber", bucketNumber)
+                .add("columnCoercions", columnCoercions)
+                .toString());
+    }
+
     @JsonProperty
     public boolean isS3SelectPushdownEnabled()
     {
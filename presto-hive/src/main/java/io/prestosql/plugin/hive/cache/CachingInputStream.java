@@ -0,0 +1,117 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.prestosql.plugin.hive.cache.DataCache.FileKey;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+
+import java.io.IOException;
+
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Serves the positioned reads of a remote file from a {@link DataCache}. Sequential reads
+ * are not cached, and are passed through to the remote stream.
+ */
+class CachingInputStream
+        extends FSInputStream
+{
+    private final DataCache dataCache;
+    private final FileKey file;
+    private final FSDataInputStream remote;
+
+    public CachingInputStream(DataCache dataCache, FileKey file, FSDataInputStream remote)
+    {
+        this.dataCache = requireNonNull(dataCache, "dataCache is null");
+        this.file = requireNonNull(file, "file is null");
+        this.remote = requireNonNull(remote, "remote is null");
+    }
+
+    @Override
+    public int read(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (position >= file.getFileSize()) {
+            return -1;
+        }
+        int readLength = (int) min(length, file.getFileSize() - position);
+        dataCache.read(file, remote, position, buffer, offset, readLength);
+        return readLength;
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        dataCache.read(file, remote, position, buffer, offset, length);
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer)
+            throws IOException
+    {
+        readFully(position, buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void seek(long position)
+            throws IOException
+    {
+        remote.seek(position);
+    }
+
+    @Override
+    public long getPos()
+            throws IOException
+    {
+        return remote.getPos();
+    }
+
+    @Override
+    public boolean seekToNewSource(long targetPosition)
+            throws IOException
+    {
+        return remote.seekToNewSource(targetPosition);
+    }
+
+    @Override
+    public int read()
+            throws IOException
+    {
+        return remote.read();
+    }
+
+    @Override
+    public int read(byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        return remote.read(buffer, offset, length);
+    }
+
+    @Override
+    public int available()
+            throws IOException
+    {
+        return remote.available();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        remote.close();
+    }
+}
@@ -0,0 +1,505 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalNotification;
+import com.google.common.cache.Weigher;
+import io.airlift.log.Logger;
+import io.airlift.units.DataSize;
+import io.prestosql.plugin.hive.HiveCatalogName;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.Path;
+import org.weakref.jmx.Managed;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Paths;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker-local read-through cache of the data of remote files, stored on local disk.
+ * Files are cached in blocks of a fixed size, aligned to the start of the file, and the
+ * blocks are evicted in least recently used order when the cache is full. Blocks are keyed
+ * by the path, size and modification time of the file, so a rewritten file is read again
+ * from the remote file system.
+ * <p>
+ * The block index is held in memory, so each instance stores its blocks in a private
+ * directory that it creates under the configured location and removes when it is destroyed.
+ * The directory is paired with a lock file that the instance keeps locked while it is alive,
+ * so the directories left behind by processes that did not shut down cleanly are detected
+ * and removed when the next cache of the catalog starts.
+ */
+public class DataCache
+{
+    private static final Logger log = Logger.get(DataCache.class);
+
+    // upper bound of the size of a remote read that fills missing blocks
+    private static final long MAX_REMOTE_READ_SIZE = new DataSize(16, MEGABYTE).toBytes();
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+
+    private final Optional<java.nio.file.Path> directory;
+    private final Optional<FileChannel> directoryLock;
+    private final int blockSize;
+    private final Cache<BlockKey, CachedBlock> cache;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong cacheReadBytes = new AtomicLong();
+    private final AtomicLong remoteReadBytes = new AtomicLong();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final AtomicLong writeFailureCount = new AtomicLong();
+
+    @Inject
+    public DataCache(HiveCatalogName catalogName, DataCacheConfig config)
+    {
+        this(
+                config.isEnabled() ? Optional.of(Paths.get(config.getLocation())) : Optional.empty(),
+                requireNonNull(catalogName, "catalogName is null").toString(),
+                config.getMaxSize(),
+                config.getBlockSize());
+    }
+
+    public DataCache(Optional<java.nio.file.Path> location, String name, DataSize maxSize, DataSize blockSize)
+    {
+        requireNonNull(location, "location is null");
+        requireNonNull(name, "name is null");
+        requireNonNull(maxSize, "maxSize is null");
+        this.blockSize = toIntExact(requireNonNull(blockSize, "blockSize is null").toBytes());
+        checkArgument(this.blockSize > 0, "blockSize must be positive");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Weigher<BlockKey, CachedBlock>) (key, block) -> block.getLength())
+                .removalListener(this::blockRemoved)
+                .build();
+
+        if (location.isPresent()) {
+            try {
+                Files.createDirectories(location.get());
+                // caches of the catalog starting concurrently must not see each other's directories before they are locked
+                synchronized (DataCache.class) {
+                    try (FileChannel startupChannel = FileChannel.open(location.get().resolve(name + LOCK_FILE_SUFFIX), CREATE, WRITE);
+                            FileLock ignored = startupChannel.lock()) {
+                        deleteStaleDirectories(location.get(), name);
+                        // the directory is only accessible to the owner of the process and is not shared with other caches
+                        java.nio.file.Path cacheDirectory = Files.createTempDirectory(location.get(), name + "-");
+                        FileChannel lockChannel = FileChannel.open(getLockFile(cacheDirectory), CREATE_NEW, WRITE);
+                        lockChannel.lock();
+                        this.directory = Optional.of(cacheDirectory);
+                        this.directoryLock = Optional.of(lockChannel);
+                    }
+                }
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException("Failed to initialize data cache in " + location.get(), e);
+            }
+        }
+        else {
+            this.directory = Optional.empty();
+            this.directoryLock = Optional.empty();
+        }
+    }
+
+    private static void deleteStaleDirectories(java.nio.file.Path location, String name)
+            throws IOException
+    {
+        try (DirectoryStream<java.nio.file.Path> directories = Files.newDirectoryStream(location, name + "-*")) {
+            for (java.nio.file.Path directory : directories) {
+                if (!Files.isDirectory(directory)) {
+                    continue;
+                }
+                java.nio.file.Path lockFile = getLockFile(directory);
+                // the lock file is locked before the startup lock is released, so a directory without one is stale
+                if (Files.exists(lockFile) && isLocked(lockFile)) {
+                    continue;
+                }
+                log.info("Deleting stale data cache directory %s", directory);
+                deleteRecursively(directory, ALLOW_INSECURE);
+                Files.deleteIfExists(lockFile);
+            }
+        }
+    }
+
+    private static boolean isLocked(java.nio.file.Path lockFile)
+            throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(lockFile, WRITE);
+                FileLock lock = channel.tryLock()) {
+            // the lock is held by another process
+            return lock == null;
+        }
+        catch (OverlappingFileLockException e) {
+            // the lock is held by this process
+            return true;
+        }
+    }
+
+    private static java.nio.file.Path getLockFile(java.nio.file.Path directory)
+    {
+        return directory.resolveSibling(directory.getFileName() + LOCK_FILE_SUFFIX);
+    }
+
+    public static DataCache disabled()
+    {
+        return new DataCache(Optional.empty(), "disabled", new DataSize(0, BYTE), new DataSize(1, MEGABYTE));
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (directory.isPresent()) {
+            cache.invalidateAll();
+            try {
+                deleteRecursively(directory.get(), ALLOW_INSECURE);
+                // the lock is released only after the directory is removed, or the next cache removes the directory
+                directoryLock.get().close();
+                Files.deleteIfExists(getLockFile(directory.get()));
+            }
+            catch (IOException e) {
+                log.warn(e, "Failed to delete data cache directory %s", directory.get());
+            }
+        }
+    }
+
+    Optional<java.nio.file.Path> getDirectory()
+    {
+        return directory;
+    }
+
+    /**
+     * Returns a stream whose positioned reads are served from the cache, reading the missing
+     * blocks from {@code inputStream}. Other operations are passed through to {@code inputStream}.
+     */
+    public FSDataInputStream wrap(Path path, long fileSize, long modificationTime, FSDataInputStream inputStream)
+    {
+        requireNonNull(inputStream, "inputStream is null");
+        if (!directory.isPresent()) {
+            return inputStream;
+        }
+        return new FSDataInputStream(new CachingInputStream(this, new FileKey(path, fileSize, modificationTime), inputStream));
+    }
+
+    void read(FileKey file, FSDataInputStream remote, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        if (position < 0 || position + length > file.getFileSize()) {
+            throw new EOFException("Read of " + length + " bytes at position " + position + " is beyond the end of " + file);
+        }
+        long endPosition = position + length;
+        long block = position / blockSize;
+        long lastBlock = (endPosition - 1) / blockSize;
+        while (block <= lastBlock) {
+            CachedBlock cachedBlock = cache.getIfPresent(new BlockKey(file, block));
+            if (cachedBlock != null && readCachedBlock(cachedBlock, block, position, buffer, offset, length)) {
+                block++;
+                continue;
+            }
+
+            // read the run of missing blocks with a single request
+            long runEnd = block;
+            while (runEnd < lastBlock && (runEnd - block + 2) * blockSize <= MAX_REMOTE_READ_SIZE && cache.getIfPresent(new BlockKey(file, runEnd + 1)) == null) {
+                runEnd++;
+            }
+            readRemoteBlocks(file, remote, block, runEnd, position, buffer, offset, length);
+            block = runEnd + 1;
+        }
+    }
+
+    private boolean readCachedBlock(CachedBlock cachedBlock, long block, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        long blockStart = block * blockSize;
+        long readStart = max(position, blockStart);
+        int readLength = toIntExact(min(position + length, blockStart + cachedBlock.getLength()) - readStart);
+        ByteBuffer target = ByteBuffer.wrap(buffer, toIntExact(offset + readStart - position), readLength);
+        try (FileChannel channel = FileChannel.open(cachedBlock.getFile(), READ)) {
+            long filePosition = readStart - blockStart;
+            while (target.hasRemaining()) {
+                int bytes = channel.read(target, filePosition);
+                if (bytes < 0) {
+                    throw new EOFException("Cached block file is truncated: " + cachedBlock.getFile());
+                }
+                filePosition += bytes;
+            }
+        }
+        catch (NoSuchFileException e) {
+            // the block was evicted after it was looked up
+            return false;
+        }
+        hitCount.incrementAndGet();
+        cacheReadBytes.addAndGet(readLength);
+        return true;
+    }
+
+    private void readRemoteBlocks(FileKey file, FSDataInputStream remote, long firstBlock, long lastBlock, long position, byte[] buffer, int offset, int length)
+            throws IOException
+    {
+        long runStart = firstBlock * blockSize;
+        int runLength = toIntExact(min((lastBlock + 1) * blockSize, file.getFileSize()) - runStart);
+        byte[] data = new byte[runLength];
+        remote.readFully(runStart, data, 0, runLength);
+        missCount.addAndGet(lastBlock - firstBlock + 1);
+        remoteReadBytes.addAndGet(runLength);
+
+        long readStart = max(position, runStart);
+        long readEnd = min(position + length, runStart + runLength);
+        System.arraycopy(data, toIntExact(readStart - runStart), buffer, toIntExact(offset + readStart - position), toIntExact(readEnd - readStart));
+
+        for (long block = firstBlock; block <= lastBlock; block++) {
+            int blockOffset = toIntExact((block - firstBlock) * blockSize);
+            storeBlock(new BlockKey(file, block), data, blockOffset, min(blockSize, runLength - blockOffset));
+        }
+    }
+
+    private void storeBlock(BlockKey key, byte[] data, int offset, int length)
+    {
+        java.nio.file.Path blockFile = null;
+        try {
+            blockFile = Files.createTempFile(directory.get(), "block", ".data");
+            try (FileChannel channel = FileChannel.open(blockFile, WRITE)) {
+                ByteBuffer source = ByteBuffer.wrap(data, offset, length);
+                while (source.hasRemaining()) {
+                    channel.write(source);
+                }
+            }
+            cachedBytes.addAndGet(length);
+            cache.put(key, new CachedBlock(blockFile, length));
+        }
+        catch (IOException e) {
+            // the data was read, the cache is only not filled
+            writeFailureCount.incrementAndGet();
+            log.warn(e, "Failed to write block %s to the data cache", key);
+            if (blockFile != null) {
+                deleteBlockFile(blockFile);
+            }
+        }
+    }
+
+    private void blockRemoved(RemovalNotification<BlockKey, CachedBlock> notification)
+    {
+        CachedBlock block = notification.getValue();
+        if (block != null) {
+            cachedBytes.addAndGet(-block.getLength());
+            deleteBlockFile(block.getFile());
+        }
+    }
+
+    private static void deleteBlockFile(java.nio.file.Path file)
+    {
+        try {
+            Files.deleteIfExists(file);
+        }
+        catch (IOException e) {
+            log.warn(e, "Failed to delete data cache file %s", file);
+        }
+    }
+
+    @Managed
+    public void flushCache()
+    {
+        cache.invalidateAll();
+    }
+
+    @Managed
+    public long getBlockCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public long getCachedBytes()
+    {
+        return cachedBytes.get();
+    }
+
+    @Managed
+    public double getHitRate()
+    {
+        long hits = hitCount.get();
+        long requests = hits + missCount.get();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return hitCount.get();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return missCount.get();
+    }
+
+    @Managed
+    public long getCacheReadBytes()
+    {
+        return cacheReadBytes.get();
+    }
+
+    @Managed
+    public long getRemoteReadBytes()
+    {
+        return remoteReadBytes.get();
+    }
+
+    @Managed
+    public long getWriteFailureCount()
+    {
+        return writeFailureCount.get();
+    }
+
+    static class FileKey
+    {
+        private final String path;
+        private final long fileSize;
+        private final long modificationTime;
+
+        public FileKey(Path path, long fileSize, long modificationTime)
+        {
+            this.path = requireNonNull(path, "path is null").toString();
+            this.fileSize = fileSize;
+            this.modificationTime = modificationTime;
+        }
+
+        public long getFileSize()
+        {
+            return fileSize;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            FileKey other = (FileKey) o;
+            return fileSize == other.fileSize &&
+                    modificationTime == other.modificationTime &&
+                    path.equals(other.path);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(path, fileSize, modificationTime);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("path", path)
+                    .add("fileSize", fileSize)
+                    .add("modificationTime", modificationTime)
+                    .toString();
+        }
+    }
+
+    private static class BlockKey
+    {
+        private final FileKey file;
+        private final long block;
+
+        public BlockKey(FileKey file, long block)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.block = block;
+        }
+
+        @Override
+        public boolean equals(Object o)
+        {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            BlockKey other = (BlockKey) o;
+            return block == other.block &&
+                    file.equals(other.file);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(file, block);
+        }
+
+        @Override
+        public String toString()
+        {
+            return toStringHelper(this)
+                    .add("file", file)
+                    .add("block", block)
+                    .toString();
+        }
+    }
+
+    private static class CachedBlock
+    {
+        private final java.nio.file.Path file;
+        private final int length;
+
+        public CachedBlock(java.nio.file.Path file, int length)
+        {
+            this.file = requireNonNull(file, "file is null");
+            this.length = length;
+        }
+
+        public java.nio.file.Path getFile()
+        {
+            return file;
+        }
+
+        public int getLength()
+        {
+            return length;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+import io.airlift.units.DataSize;
+import io.airlift.units.MaxDataSize;
+import io.airlift.units.MinDataSize;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.NotNull;
+
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class DataCacheConfig
+{
+    private boolean enabled;
+    private String location;
+    private DataSize maxSize = new DataSize(100, GIGABYTE);
+    private DataSize blockSize = new DataSize(1, MEGABYTE);
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    @Config("hive.data-cache.enabled")
+    @ConfigDescription("Cache the data read from remote files on the local disk of the workers")
+    public DataCacheConfig setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+        return this;
+    }
+
+    public String getLocation()
+    {
+        return location;
+    }
+
+    @Config("hive.data-cache.location")
+    @ConfigDescription("Local directory in which the data cache creates its private subdirectory")
+    public DataCacheConfig setLocation(String location)
+    {
+        this.location = location;
+        return this;
+    }
+
+    @NotNull
+    public DataSize getMaxSize()
+    {
+        return maxSize;
+    }
+
+    @Config("hive.data-cache.max-size")
+    @ConfigDescription("Maximum size of the data kept in the data cache")
+    public DataCacheConfig setMaxSize(DataSize maxSize)
+    {
+        this.maxSize = maxSize;
+        return this;
+    }
+
+    @NotNull
+    @MinDataSize("4kB")
+    @MaxDataSize("1GB")
+    public DataSize getBlockSize()
+    {
+        return blockSize;
+    }
+
+    @Config("hive.data-cache.block-size")
+    @ConfigDescription("Size of the ranges of the files the data cache stores")
+    public DataCacheConfig setBlockSize(DataSize blockSize)
+    {
+        this.blockSize = blockSize;
+        return this;
+    }
+
+    @AssertTrue(message = "hive.data-cache.location must be set when the data cache is enabled")
+    public boolean isLocationConfiguredIfEnabled()
+    {
+        return !enabled || location != null;
+    }
+}
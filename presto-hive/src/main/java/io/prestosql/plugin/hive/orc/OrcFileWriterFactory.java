@@ -13,7 +13,9 @@
  */
 package io.prestosql.plugin.hive.orc;
 
+import com.google.common.base.Splitter;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.prestosql.orc.OrcDataSink;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
@@ -50,9 +52,11 @@ import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.function.Supplier;
 
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_UNSUPPORTED_FORMAT;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
 import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITE_VALIDATION_FAILED;
@@ -188,7 +192,9 @@ public class OrcFileWriterFactory
                             .withStripeMaxSize(getOrcOptimizedWriterMaxStripeSize(session))
                             .withStripeMaxRowCount(getOrcOptimizedWriterMaxStripeRows(session))
                             .withDictionaryMaxMemory(getOrcOptimizedWriterMaxDictionaryMemory(session))
-                            .withMaxStringStatisticsLimit(getOrcStringStatisticsLimit(session)),
+                            .withMaxStringStatisticsLimit(getOrcStringStatisticsLimit(session))
+                            .withBloomFilterColumns(getBloomFilterColumns(schema))
+                            .withBloomFilterFpp(getBloomFilterFpp(schema)),
                     writeLegacyVersion,
                     fileInputColumnIndexes,
                     ImmutableMap.<String, String>builder()
@@ -214,6 +220,37 @@ public class OrcFileWriterFactory
         return new OutputStreamOrcDataSink(fileSystem.create(path));
     }
 
+    private static Set<String> getBloomFilterColumns(Properties schema)
+    {
+        String bloomFilterColumns = schema.getProperty(OrcConf.BLOOM_FILTER_COLUMNS.getAttribute());
+        if (bloomFilterColumns == null) {
+            return ImmutableSet.of();
+        }
+        return Splitter.on(',').trimResults().omitEmptyStrings().splitToList(bloomFilterColumns).stream()
+                .map(column -> column.toLowerCase(ENGLISH))
+                .collect(toImmutableSet());
+    }
+
+    private double getBloomFilterFpp(Properties schema)
+    {
+        String bloomFilterFpp = schema.getProperty(OrcConf.BLOOM_FILTER_FPP.getAttribute());
+        if (bloomFilterFpp == null) {
+            return orcWriterOptions.getBloomFilterFpp();
+        }
+
+        double fpp;
+        try {
+            fpp = Double.parseDouble(bloomFilterFpp);
+        }
+        catch (NumberFormatException e) {
+            throw new PrestoException(HIVE_UNSUPPORTED_FORMAT, "Invalid ORC bloom filter false positive probability " + bloomFilterFpp, e);
+        }
+        if (fpp <= 0.0 || fpp >= 1.0) {
+            throw new PrestoException(HIVE_UNSUPPORTED_FORMAT, "Invalid ORC bloom filter false positive probability " + bloomFilterFpp);
+        }
+        return fpp;
+    }
+
     private static CompressionKind getCompression(Properties schema, JobConf configuration)
     {
         String compressionName = OrcConf.COMPRESS.getString(schema, configuration);
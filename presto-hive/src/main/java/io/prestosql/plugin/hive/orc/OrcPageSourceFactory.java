@@ -15,19 +15,25 @@ package io.prestosql.plugin.hive.orc;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
 import io.prestosql.memory.context.AggregatedMemoryContext;
+import io.prestosql.orc.ColumnFilter;
+import io.prestosql.orc.DomainColumnFilter;
 import io.prestosql.orc.OrcColumn;
 import io.prestosql.orc.OrcDataSource;
 import io.prestosql.orc.OrcDataSourceId;
+import io.prestosql.orc.OrcMetadataCache;
 import io.prestosql.orc.OrcReader;
 import io.prestosql.orc.OrcReaderOptions;
 import io.prestosql.orc.OrcRecordReader;
 import io.prestosql.orc.TupleDomainOrcPredicate;
 import io.prestosql.orc.TupleDomainOrcPredicate.TupleDomainOrcPredicateBuilder;
 import io.prestosql.plugin.hive.FileFormatDataSourceStats;
+import io.prestosql.plugin.hive.FileMetadataCache;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HiveColumnHandle;
 import io.prestosql.plugin.hive.HivePageSourceFactory;
+import io.prestosql.plugin.hive.cache.DataCache;
 import io.prestosql.plugin.hive.orc.OrcPageSource.ColumnAdaptation;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPageSource;
@@ -58,6 +64,7 @@ import java.util.regex.Pattern;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Strings.nullToEmpty;
 import static com.google.common.collect.Maps.uniqueIndex;
+import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
 import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
 import static io.prestosql.plugin.hive.HiveColumnHandle.ColumnType.REGULAR;
@@ -71,6 +78,7 @@ import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcMaxReadBlockS
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcStreamBufferSize;
 import static io.prestosql.plugin.hive.HiveSessionProperties.getOrcTinyStripeThreshold;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcBloomFiltersEnabled;
+import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcLateMaterializationEnabled;
 import static io.prestosql.plugin.hive.HiveSessionProperties.isOrcNestedLazy;
 import static io.prestosql.plugin.hive.orc.OrcPageSource.handleException;
 import static io.prestosql.plugin.hive.util.HiveUtil.isDeserializerClass;
@@ -86,11 +94,13 @@ public class OrcPageSourceFactory
     private final OrcReaderOptions orcReaderOptions;
     private final HdfsEnvironment hdfsEnvironment;
     private final FileFormatDataSourceStats stats;
+    private final FileMetadataCache fileMetadataCache;
+    private final DataCache dataCache;
 
     @Inject
-    public OrcPageSourceFactory(OrcReaderConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats)
+    public OrcPageSourceFactory(OrcReaderConfig config, HdfsEnvironment hdfsEnvironment, FileFormatDataSourceStats stats, FileMetadataCache fileMetadataCache, DataCache dataCache)
     {
-        this(requireNonNull(config, "config is null").isUseColumnNames(), config.toOrcReaderOptions(), hdfsEnvironment, stats);
+        this(requireNonNull(config, "config is null").isUseColumnNames(), config.toOrcReaderOptions(), hdfsEnvironment, stats, fileMetadataCache, dataCache);
     }
 
     public OrcPageSourceFactory(
@@ -98,11 +108,24 @@ public class OrcPageSourceFactory
             OrcReaderOptions orcReaderOptions,
             HdfsEnvironment hdfsEnvironment,
             FileFormatDataSourceStats stats)
+    {
+        this(useOrcColumnNames, orcReaderOptions, hdfsEnvironment, stats, new FileMetadataCache(new DataSize(0, BYTE)), DataCache.disabled());
+    }
+
+    public OrcPageSourceFactory(
+            boolean useOrcColumnNames,
+            OrcReaderOptions orcReaderOptions,
+            HdfsEnvironment hdfsEnvironment,
+            FileFormatDataSourceStats stats,
+            FileMetadataCache fileMetadataCache,
+            DataCache dataCache)
     {
         this.useOrcColumnNames = useOrcColumnNames;
         this.orcReaderOptions = requireNonNull(orcReaderOptions, "orcReaderOptions is null");
         this.hdfsEnvironment = requireNonNull(hdfsEnvironment, "hdfsEnvironment is null");
         this.stats = requireNonNull(stats, "stats is null");
+        this.fileMetadataCache = requireNonNull(fileMetadataCache, "fileMetadataCache is null");
+        this.dataCache = requireNonNull(dataCache, "dataCache is null");
     }
 
     @Override
@@ -113,6 +136,7 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             Properties schema,
             List<HiveColumnHandle> columns,
             TupleDomain<HiveColumnHandle> effectivePredicate,
@@ -135,8 +159,10 @@ public class OrcPageSourceFactory
                 start,
                 length,
                 fileSize,
+                fileModifiedTime,
                 columns,
                 useOrcColumnNames,
+                isOrcLateMaterializationEnabled(session),
                 effectivePredicate,
                 hiveStorageTimeZone,
                 orcReaderOptions
@@ -148,6 +174,8 @@ public class OrcPageSourceFactory
                         .withLazyReadSmallRanges(getOrcLazyReadSmallRanges(session))
                         .withNestedLazy(isOrcNestedLazy(session))
                         .withBloomFiltersEnabled(isOrcBloomFiltersEnabled(session)),
+                fileMetadataCache.getOrcMetadataCache(path, fileSize, fileModifiedTime),
+                dataCache,
                 stats));
     }
 
@@ -159,11 +187,15 @@ public class OrcPageSourceFactory
             long start,
             long length,
             long fileSize,
+            long fileModifiedTime,
             List<HiveColumnHandle> columns,
             boolean useOrcColumnNames,
+            boolean lateMaterializationEnabled,
             TupleDomain<HiveColumnHandle> effectivePredicate,
             DateTimeZone hiveStorageTimeZone,
             OrcReaderOptions options,
+            OrcMetadataCache metadataCache,
+            DataCache dataCache,
             FileFormatDataSourceStats stats)
     {
         for (HiveColumnHandle column : columns) {
@@ -174,7 +206,7 @@ public class OrcPageSourceFactory
         OrcDataSource orcDataSource;
         try {
             FileSystem fileSystem = hdfsEnvironment.getFileSystem(sessionUser, path, configuration);
-            FSDataInputStream inputStream = hdfsEnvironment.doAs(sessionUser, () -> fileSystem.open(path));
+            FSDataInputStream inputStream = dataCache.wrap(path, fileSize, fileModifiedTime, hdfsEnvironment.doAs(sessionUser, () -> fileSystem.open(path)));
             orcDataSource = new HdfsOrcDataSource(
                     new OrcDataSourceId(path.toString()),
                     fileSize,
@@ -192,7 +224,7 @@ public class OrcPageSourceFactory
 
         AggregatedMemoryContext systemMemoryUsage = newSimpleAggregatedMemoryContext();
         try {
-            OrcReader reader = new OrcReader(orcDataSource, options);
+            OrcReader reader = new OrcReader(orcDataSource, options, metadataCache);
 
             if (useOrcColumnNames) {
                 verifyFileHasColumnNames(reader.getColumnNames(), path);
@@ -212,6 +244,7 @@ public class OrcPageSourceFactory
             List<OrcColumn> fileReadColumns = new ArrayList<>(columns.size());
             List<Type> fileReadTypes = new ArrayList<>(columns.size());
             List<ColumnAdaptation> columnAdaptations = new ArrayList<>(columns.size());
+            ImmutableMap.Builder<Integer, ColumnFilter> columnFilters = ImmutableMap.builder();
             for (HiveColumnHandle column : columns) {
                 OrcColumn orcColumn = null;
                 if (useOrcColumnNames) {
@@ -231,6 +264,10 @@ public class OrcPageSourceFactory
                     Domain domain = effectivePredicateDomains.get(column);
                     if (domain != null) {
                         predicateBuilder.addColumn(orcColumn.getColumnId(), domain);
+                        if (lateMaterializationEnabled && !domain.isAll()) {
+                            // rows outside the domain can not match the query predicate, so they are dropped while reading
+                            columnFilters.put(sourceIndex, new DomainColumnFilter(readType, domain));
+                        }
                     }
                 }
                 else {
@@ -241,6 +278,7 @@ public class OrcPageSourceFactory
             OrcRecordReader recordReader = reader.createRecordReader(
                     fileReadColumns,
                     fileReadTypes,
+                    columnFilters.build(),
                     predicateBuilder.build(),
                     start,
                     length,
@@ -23,6 +23,7 @@ import javax.validation.constraints.NotNull;
 public class OrcReaderConfig
 {
     private boolean useColumnNames;
+    private boolean lateMaterializationEnabled = true;
 
     private OrcReaderOptions options = new OrcReaderOptions();
 
@@ -137,6 +138,19 @@ public class OrcReaderConfig
         return this;
     }
 
+    public boolean isLateMaterializationEnabled()
+    {
+        return lateMaterializationEnabled;
+    }
+
+    @Config("hive.orc.late-materialization.enabled")
+    @ConfigDescription("Evaluate the predicate while reading ORC files, and only read the other columns for the rows that match")
+    public OrcReaderConfig setLateMaterializationEnabled(boolean lateMaterializationEnabled)
+    {
+        this.lateMaterializationEnabled = lateMaterializationEnabled;
+        return this;
+    }
+
     @Deprecated
     public boolean isNestedLazy()
     {
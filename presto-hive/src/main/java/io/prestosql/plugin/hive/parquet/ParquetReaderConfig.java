@@ -79,6 +79,19 @@ public class ParquetReaderConfig
         return this;
     }
 
+    public boolean isUseColumnIndex()
+    {
+        return options.isUseColumnIndex();
+    }
+
+    @Config("parquet.use-column-index")
+    @ConfigDescription("Skip the pages of Parquet files that cannot match the predicate using the column indexes")
+    public ParquetReaderConfig setUseColumnIndex(boolean useColumnIndex)
+    {
+        options = options.withUseColumnIndex(useColumnIndex);
+        return this;
+    }
+
     public ParquetReaderOptions toParquetReaderOptions()
     {
         return options;
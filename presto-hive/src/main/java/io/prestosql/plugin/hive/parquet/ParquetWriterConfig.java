@@ -14,6 +14,7 @@
 package io.prestosql.plugin.hive.parquet;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.units.DataSize;
 import org.apache.parquet.hadoop.ParquetWriter;
 
@@ -23,6 +24,7 @@ public class ParquetWriterConfig
 {
     private DataSize blockSize = new DataSize(ParquetWriter.DEFAULT_BLOCK_SIZE, BYTE);
     private DataSize pageSize = new DataSize(ParquetWriter.DEFAULT_PAGE_SIZE, BYTE);
+    private boolean optimizedWriterEnabled;
 
     public DataSize getBlockSize()
     {
@@ -47,4 +49,17 @@ public class ParquetWriterConfig
         this.pageSize = pageSize;
         return this;
     }
+
+    public boolean isOptimizedWriterEnabled()
+    {
+        return optimizedWriterEnabled;
+    }
+
+    @Config("hive.parquet.optimized-writer.enabled")
+    @ConfigDescription("Write Parquet files with the native Presto writer")
+    public ParquetWriterConfig setOptimizedWriterEnabled(boolean optimizedWriterEnabled)
+    {
+        this.optimizedWriterEnabled = optimizedWriterEnabled;
+        return this;
+    }
 }
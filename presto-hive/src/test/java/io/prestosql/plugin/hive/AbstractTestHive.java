@@ -265,6 +265,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.joda.time.DateTimeZone.UTC;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
@@ -738,7 +739,8 @@ public abstract class AbstractTestHive
                 newFixedThreadPool(2),
                 new HiveTypeTranslator(),
                 TEST_SERVER_VERSION,
-                SqlStandardAccessControlMetadata::new);
+                SqlStandardAccessControlMetadata::new,
+                new HiveDataVersionProvider(hdfsEnvironment, new CachingDirectoryLister(hiveConfig), new NamenodeStats(), false, 10_000));
         transactionManager = new HiveTransactionManager();
         splitManager = new HiveSplitManager(
                 transactionHandle -> ((HiveMetadata) transactionManager.get(transactionHandle)).getMetastore(),
@@ -2363,6 +2365,48 @@ public abstract class AbstractTestHive
         }
     }
 
+    @Test
+    public void testTableDataVersion()
+            throws Exception
+    {
+        SchemaTableName tableName = temporaryTable("data_version");
+        try {
+            doCreateEmptyTable(tableName, ORC, CREATE_TABLE_COLUMNS);
+            OptionalLong emptyVersion = getTableDataVersion(tableName);
+            assertTrue(emptyVersion.isPresent());
+            assertEquals(getTableDataVersion(tableName), emptyVersion);
+
+            // an insert adds a file without altering the table parameters
+            insertData(tableName, CREATE_TABLE_DATA);
+            OptionalLong version = getTableDataVersion(tableName);
+            assertTrue(version.isPresent());
+            assertNotEquals(version, emptyVersion);
+            assertEquals(getTableDataVersion(tableName), version);
+
+            insertData(tableName, CREATE_TABLE_DATA);
+            assertNotEquals(getTableDataVersion(tableName), version);
+
+            // tables with more files than the limit are not versioned
+            try (Transaction transaction = newTransaction()) {
+                ConnectorSession session = newSession();
+                Table table = transaction.getMetastore().getTable(new HiveIdentity(session), tableName.getSchemaName(), tableName.getTableName()).get();
+                HiveDataVersionProvider dataVersionProvider = new HiveDataVersionProvider(hdfsEnvironment, new CachingDirectoryLister(new HiveConfig()), new NamenodeStats(), false, 1);
+                assertFalse(dataVersionProvider.getDataVersion(session, table, ImmutableList.of(table.getStorage().getLocation())).isPresent());
+            }
+        }
+        finally {
+            dropTable(tableName);
+        }
+    }
+
+    private OptionalLong getTableDataVersion(SchemaTableName tableName)
+    {
+        try (Transaction transaction = newTransaction()) {
+            ConnectorMetadata metadata = transaction.getMetadata();
+            return metadata.getTableDataVersion(newSession(), getTableHandle(metadata, tableName));
+        }
+    }
+
     @Test
     public void testInsertOverwriteUnpartitioned()
             throws Exception
@@ -0,0 +1,158 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.orc.OrcMetadataCache;
+import io.prestosql.orc.metadata.ColumnMetadata;
+import io.prestosql.orc.metadata.OrcColumnId;
+import io.prestosql.orc.metadata.Stream;
+import io.prestosql.orc.metadata.StripeFooter;
+import io.prestosql.orc.metadata.StripeInformation;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.orc.metadata.Stream.StreamKind.DATA;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.fail;
+
+public class TestFileMetadataCache
+{
+    private static final Path PATH = new Path("file:///tmp/file");
+
+    @Test
+    public void testParquetMetadata()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, MEGABYTE));
+        AtomicInteger loads = new AtomicInteger();
+
+        ParquetMetadata first = cache.getParquetMetadata(PATH, 100, 1, () -> createParquetMetadata(loads));
+        assertSame(cache.getParquetMetadata(PATH, 100, 1, () -> createParquetMetadata(loads)), first);
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+
+        // a rewritten file does not share the metadata of its previous version
+        cache.getParquetMetadata(PATH, 100, 2, () -> createParquetMetadata(loads));
+        cache.getParquetMetadata(PATH, 200, 1, () -> createParquetMetadata(loads));
+        assertEquals(loads.get(), 3);
+
+        cache.flushCache();
+        cache.getParquetMetadata(PATH, 100, 1, () -> createParquetMetadata(loads));
+        assertEquals(loads.get(), 4);
+    }
+
+    @Test
+    public void testOrcStripeFooter()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, MEGABYTE));
+        AtomicInteger loads = new AtomicInteger();
+        StripeInformation firstStripe = new StripeInformation(10, 3, 10, 100, 20);
+        StripeInformation secondStripe = new StripeInformation(10, 133, 10, 100, 20);
+
+        OrcMetadataCache metadataCache = cache.getOrcMetadataCache(PATH, 1000, 1);
+        StripeFooter footer = metadataCache.getStripeFooter(firstStripe, () -> createStripeFooter(loads));
+        assertSame(cache.getOrcMetadataCache(PATH, 1000, 1).getStripeFooter(firstStripe, () -> createStripeFooter(loads)), footer);
+        assertEquals(loads.get(), 1);
+
+        metadataCache.getStripeFooter(secondStripe, () -> createStripeFooter(loads));
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.getSize(), 2);
+    }
+
+    @Test
+    public void testWeighedByRetainedSize()
+            throws IOException
+    {
+        // the footer takes a few bytes in the file, but far more once decoded
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, KILOBYTE));
+        AtomicInteger loads = new AtomicInteger();
+        StripeInformation stripe = new StripeInformation(10, 3, 10, 100, 20);
+        List<Stream> streams = IntStream.range(0, 100)
+                .mapToObj(column -> new Stream(new OrcColumnId(column), DATA, 10, true))
+                .collect(toImmutableList());
+
+        cache.getOrcMetadataCache(PATH, 1000, 1).getStripeFooter(stripe, () -> {
+            loads.incrementAndGet();
+            return new StripeFooter(streams, new ColumnMetadata<>(ImmutableList.of()), Optional.empty());
+        });
+        assertEquals(loads.get(), 1);
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testDisabled()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(0, BYTE));
+        AtomicInteger loads = new AtomicInteger();
+
+        assertSame(cache.getOrcMetadataCache(PATH, 1000, 1), OrcMetadataCache.NONE);
+        cache.getParquetMetadata(PATH, 100, 1, () -> createParquetMetadata(loads));
+        cache.getParquetMetadata(PATH, 100, 1, () -> createParquetMetadata(loads));
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.getSize(), 0);
+    }
+
+    @Test
+    public void testLoadFailure()
+            throws IOException
+    {
+        FileMetadataCache cache = new FileMetadataCache(new DataSize(1, MEGABYTE));
+        try {
+            cache.getParquetMetadata(PATH, 100, 1, () -> {
+                throw new IOException("read failed");
+            });
+            fail("expected IOException");
+        }
+        catch (IOException e) {
+            assertEquals(e.getMessage(), "read failed");
+        }
+
+        // failures are not cached
+        AtomicInteger loads = new AtomicInteger();
+        cache.getParquetMetadata(PATH, 100, 1, () -> createParquetMetadata(loads));
+        assertEquals(loads.get(), 1);
+    }
+
+    private static ParquetMetadata createParquetMetadata(AtomicInteger loads)
+    {
+        loads.incrementAndGet();
+        return new ParquetMetadata(new FileMetaData(new MessageType("schema"), ImmutableMap.of(), "test"), ImmutableList.of());
+    }
+
+    private static StripeFooter createStripeFooter(AtomicInteger loads)
+    {
+        loads.incrementAndGet();
+        return new StripeFooter(ImmutableList.of(), new ColumnMetadata<>(ImmutableList.of()), Optional.empty());
+    }
+}
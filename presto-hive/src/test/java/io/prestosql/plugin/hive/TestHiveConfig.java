@@ -85,7 +85,9 @@ public class TestHiveConfig
                 .setTemporaryStagingDirectoryPath("/tmp/presto-${USER}")
                 .setFileStatusCacheExpireAfterWrite(new Duration(1, TimeUnit.MINUTES))
                 .setFileStatusCacheMaxSize(1000 * 1000)
-                .setFileStatusCacheTables(""));
+                .setFileStatusCacheTables("")
+                .setFileMetadataCacheSize(new DataSize(0, Unit.MEGABYTE))
+                .setDataVersionMaxFiles(10_000));
     }
 
     @Test
@@ -144,6 +146,8 @@ public class TestHiveConfig
                 .put("hive.file-status-cache-tables", "foo.bar1, foo.bar2")
                 .put("hive.file-status-cache-size", "1000")
                 .put("hive.file-status-cache-expire-time", "30m")
+                .put("hive.file-metadata-cache-size", "64MB")
+                .put("hive.data-version.max-files", "500")
                 .build();
 
         HiveConfig expected = new HiveConfig()
@@ -198,7 +202,9 @@ public class TestHiveConfig
                 .setTemporaryStagingDirectoryPath("updated")
                 .setFileStatusCacheTables("foo.bar1,foo.bar2")
                 .setFileStatusCacheMaxSize(1000)
-                .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES));
+                .setFileStatusCacheExpireAfterWrite(new Duration(30, TimeUnit.MINUTES))
+                .setFileMetadataCacheSize(new DataSize(64, Unit.MEGABYTE))
+                .setDataVersionMaxFiles(500);
 
         assertFullMapping(properties, expected);
     }
@@ -698,6 +698,32 @@ public class TestHiveIntegrationSmokeTest
         assertUpdate("DROP TABLE test_show_properties");
     }
 
+    @Test
+    public void testOrcBloomFilters()
+    {
+        assertUpdate("" +
+                        "CREATE TABLE test_orc_bloom_filters " +
+                        "WITH (" +
+                        "format = 'orc', " +
+                        "orc_bloom_filter_columns = ARRAY['order_key', 'order_status', 'total_price']" +
+                        ") " +
+                        "AS " +
+                        "SELECT orderkey AS order_key, orderstatus AS order_status, totalprice AS total_price, orderdate AS order_date " +
+                        "FROM tpch.tiny.orders",
+                "SELECT count(*) FROM orders");
+
+        Session session = Session.builder(getSession())
+                .setCatalogSessionProperty(catalog, "orc_bloom_filters_enabled", "true")
+                .build();
+        assertQuery(session, "SELECT order_status FROM test_orc_bloom_filters WHERE order_key = 7", "SELECT orderstatus FROM orders WHERE orderkey = 7");
+        assertQuery(session, "SELECT order_key FROM test_orc_bloom_filters WHERE order_key IN (1, 2, 3)", "SELECT orderkey FROM orders WHERE orderkey IN (1, 2, 3)");
+        assertQuery(session, "SELECT count(*) FROM test_orc_bloom_filters WHERE order_status = 'P'", "SELECT count(*) FROM orders WHERE orderstatus = 'P'");
+        assertQuery(session, "SELECT count(*) FROM test_orc_bloom_filters WHERE total_price = 172799.49", "SELECT count(*) FROM orders WHERE totalprice = 172799.49");
+        assertQuery(session, "SELECT count(*) FROM test_orc_bloom_filters WHERE order_key = 8", "SELECT 0");
+
+        assertUpdate("DROP TABLE test_orc_bloom_filters");
+    }
+
     @Test(expectedExceptions = RuntimeException.class, expectedExceptionsMessageRegExp = "Partition keys must be the last columns in the table and in the same order as the table properties.*")
     public void testCreatePartitionedTableInvalidColumnOrdering()
     {
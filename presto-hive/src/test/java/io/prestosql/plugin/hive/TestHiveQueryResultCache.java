@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive;
+
+import com.google.inject.Key;
+import io.prestosql.Session;
+import io.prestosql.execution.QueryInfo;
+import io.prestosql.execution.resultcache.QueryResultCache;
+import io.prestosql.testing.MaterializedResult;
+import io.prestosql.tests.AbstractTestQueryFramework;
+import io.prestosql.tests.DistributedQueryRunner;
+import io.prestosql.tests.ResultWithQueryId;
+import org.intellij.lang.annotations.Language;
+import org.testng.annotations.Test;
+
+import static io.airlift.tpch.TpchTable.NATION;
+import static io.prestosql.SystemSessionProperties.QUERY_RESULT_CACHE_ENABLED;
+import static io.prestosql.plugin.hive.HiveQueryRunner.createQueryRunner;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+
+@Test(singleThreaded = true)
+public class TestHiveQueryResultCache
+        extends AbstractTestQueryFramework
+{
+    public TestHiveQueryResultCache()
+    {
+        super(() -> createQueryRunner(NATION));
+    }
+
+    @Override
+    protected Session getSession()
+    {
+        return Session.builder(super.getSession())
+                .setSystemProperty(QUERY_RESULT_CACHE_ENABLED, "true")
+                .build();
+    }
+
+    @Test
+    public void testCachedResult()
+    {
+        assertUpdate("CREATE TABLE test_cached_result AS SELECT nationkey, regionkey FROM nation", 25);
+        String query = "SELECT regionkey, count(*) FROM test_cached_result GROUP BY regionkey";
+
+        assertCacheHit(query, computeActual(query));
+
+        // an insert adds a file, which changes the data version of the table
+        assertUpdate("INSERT INTO test_cached_result VALUES (25, 0)", 1);
+        assertQuery(query, "VALUES (0, 6), (1, 5), (2, 5), (3, 5), (4, 5)");
+
+        assertUpdate("DROP TABLE test_cached_result");
+    }
+
+    @Test
+    public void testCachedResultOfPartitionedTable()
+    {
+        assertUpdate("" +
+                "CREATE TABLE test_cached_partitions WITH (partitioned_by = ARRAY['regionkey']) AS " +
+                "SELECT nationkey, name, regionkey FROM nation", 25);
+        String firstPartition = "SELECT name FROM test_cached_partitions WHERE regionkey = 1";
+        String secondPartition = "SELECT name FROM test_cached_partitions WHERE regionkey = 2";
+
+        // the plans only differ in the enforced constraint of the table scan
+        MaterializedResult firstResult = computeActual(firstPartition);
+        assertQuery(secondPartition, "SELECT name FROM nation WHERE regionkey = 2");
+
+        // an insert into another partition does not change the version of the scanned partition
+        assertUpdate("INSERT INTO test_cached_partitions VALUES (25, 'name', 2)", 1);
+        assertCacheHit(firstPartition, firstResult);
+        assertQuery(secondPartition, "SELECT name FROM nation WHERE regionkey = 2 UNION ALL SELECT 'name'");
+
+        assertUpdate("DROP TABLE test_cached_partitions");
+    }
+
+    private void assertCacheHit(@Language("SQL") String query, MaterializedResult expected)
+    {
+        DistributedQueryRunner queryRunner = (DistributedQueryRunner) getQueryRunner();
+        QueryResultCache cache = queryRunner.getCoordinator().getInstance(Key.get(QueryResultCache.class));
+        long hitCount = cache.getHitCount();
+
+        ResultWithQueryId<MaterializedResult> result = queryRunner.executeWithQueryId(getSession(), query);
+        assertEquals(cache.getHitCount(), hitCount + 1);
+        assertEquals(result.getResult().getMaterializedRows(), expected.getMaterializedRows());
+
+        // the result is served by the coordinator without scheduling any stage
+        QueryInfo queryInfo = queryRunner.getCoordinator().getQueryManager().getFullQueryInfo(result.getQueryId());
+        assertFalse(queryInfo.getOutputStage().isPresent());
+    }
+}
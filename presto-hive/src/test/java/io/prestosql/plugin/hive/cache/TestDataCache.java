@@ -0,0 +1,251 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import io.airlift.units.DataSize;
+import org.apache.hadoop.fs.FSDataInputStream;
+import org.apache.hadoop.fs.FSInputStream;
+import org.apache.hadoop.fs.Path;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.google.common.io.MoreFiles.deleteRecursively;
+import static com.google.common.io.RecursiveDeleteOption.ALLOW_INSECURE;
+import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.lang.Math.toIntExact;
+import static java.nio.file.Files.createTempDirectory;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestDataCache
+{
+    private static final int BLOCK_SIZE = 1024;
+    private static final Path PATH = new Path("s3://bucket/table/file");
+
+    private final byte[] data = new byte[10 * BLOCK_SIZE + 100];
+    private java.nio.file.Path location;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        new Random(42).nextBytes(data);
+        location = createTempDirectory("data-cache");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws IOException
+    {
+        deleteRecursively(location, ALLOW_INSECURE);
+    }
+
+    @Test
+    public void testReadThrough()
+            throws IOException
+    {
+        DataCache cache = createCache(new DataSize(1, MEGABYTE));
+        TestingInputStream remote = new TestingInputStream(data);
+        FSDataInputStream input = cache.wrap(PATH, data.length, 1, new FSDataInputStream(remote));
+
+        // unaligned read over three blocks is fetched with one remote read
+        assertRead(input, 1000, 2000);
+        assertEquals(remote.getReadCount(), 1);
+        assertEquals(remote.getReadBytes(), 3 * BLOCK_SIZE);
+        assertEquals(cache.getMissCount(), 3);
+        assertEquals(cache.getBlockCount(), 3);
+
+        // ranges within the cached blocks are served from disk
+        assertRead(input, 0, 3 * BLOCK_SIZE);
+        assertRead(input, 1500, 10);
+        assertEquals(remote.getReadCount(), 1);
+        assertEquals(cache.getHitCount(), 4);
+
+        // only the missing blocks are read, including the short last block
+        assertRead(input, 2 * BLOCK_SIZE, data.length - 2 * BLOCK_SIZE);
+        assertEquals(remote.getReadCount(), 2);
+        assertEquals(remote.getReadBytes(), data.length);
+        assertEquals(cache.getBlockCount(), 11);
+        assertEquals(cache.getCachedBytes(), data.length);
+
+        // sequential reads are passed through
+        input.seek(10);
+        byte[] buffer = new byte[5];
+        input.readFully(buffer);
+        assertEquals(buffer, Arrays.copyOfRange(data, 10, 15));
+        assertEquals(remote.getReadCount(), 2);
+
+        cache.flushCache();
+        assertEquals(cache.getCachedBytes(), 0);
+        assertEquals(cache.getDirectory().get().toFile().list().length, 0);
+
+        // only the directory created by the cache is removed
+        cache.destroy();
+        assertFalse(Files.exists(cache.getDirectory().get()));
+        assertTrue(Files.isDirectory(location));
+    }
+
+    @Test
+    public void testModifiedFile()
+            throws IOException
+    {
+        DataCache cache = createCache(new DataSize(1, MEGABYTE));
+        TestingInputStream remote = new TestingInputStream(data);
+
+        assertRead(cache.wrap(PATH, data.length, 1, new FSDataInputStream(remote)), 0, 100);
+        assertRead(cache.wrap(PATH, data.length, 1, new FSDataInputStream(remote)), 0, 100);
+        assertEquals(remote.getReadCount(), 1);
+
+        assertRead(cache.wrap(PATH, data.length, 2, new FSDataInputStream(remote)), 0, 100);
+        assertEquals(remote.getReadCount(), 2);
+    }
+
+    @Test
+    public void testEviction()
+            throws IOException
+    {
+        DataCache cache = createCache(new DataSize(4 * BLOCK_SIZE, BYTE));
+        TestingInputStream remote = new TestingInputStream(data);
+        FSDataInputStream input = cache.wrap(PATH, data.length, 1, new FSDataInputStream(remote));
+
+        assertRead(input, 0, data.length);
+        assertEquals(remote.getReadBytes(), data.length);
+        assertTrue(cache.getCachedBytes() <= 4 * BLOCK_SIZE);
+        assertEquals(cache.getDirectory().get().toFile().list().length, cache.getBlockCount());
+
+        // evicted blocks are read again
+        assertRead(input, 0, data.length);
+        assertTrue(remote.getReadBytes() > data.length);
+    }
+
+    @Test
+    public void testStaleDirectories()
+            throws IOException
+    {
+        DataCache liveCache = createCache(new DataSize(1, MEGABYTE));
+        // directories of a crashed process, with and without a lock file
+        java.nio.file.Path staleDirectory = Files.createDirectory(location.resolve("test-stale"));
+        Files.write(staleDirectory.resolve("block.data"), data);
+        Files.createFile(location.resolve("test-stale.lock"));
+        java.nio.file.Path unlockedDirectory = Files.createDirectory(location.resolve("test-unlocked"));
+
+        DataCache cache = createCache(new DataSize(1, MEGABYTE));
+        assertFalse(Files.exists(staleDirectory));
+        assertFalse(Files.exists(location.resolve("test-stale.lock")));
+        assertFalse(Files.exists(unlockedDirectory));
+        assertTrue(Files.isDirectory(liveCache.getDirectory().get()));
+        assertTrue(Files.isDirectory(cache.getDirectory().get()));
+
+        // the directory of a destroyed cache is removed with its lock file
+        liveCache.destroy();
+        assertFalse(Files.exists(liveCache.getDirectory().get()));
+        assertFalse(Files.exists(location.resolve(liveCache.getDirectory().get().getFileName() + ".lock")));
+        cache.destroy();
+    }
+
+    @Test
+    public void testDisabled()
+    {
+        FSDataInputStream input = new FSDataInputStream(new TestingInputStream(data));
+        assertSame(DataCache.disabled().wrap(PATH, data.length, 1, input), input);
+    }
+
+    private DataCache createCache(DataSize maxSize)
+    {
+        return new DataCache(Optional.of(location), "test", maxSize, new DataSize(BLOCK_SIZE, BYTE));
+    }
+
+    private void assertRead(FSDataInputStream input, long position, int length)
+            throws IOException
+    {
+        byte[] buffer = new byte[length + 2];
+        input.readFully(position, buffer, 1, length);
+        assertEquals(Arrays.copyOfRange(buffer, 1, length + 1), Arrays.copyOfRange(data, toIntExact(position), toIntExact(position + length)));
+    }
+
+    private static class TestingInputStream
+            extends FSInputStream
+    {
+        private final byte[] data;
+        private long position;
+        private int readCount;
+        private long readBytes;
+
+        public TestingInputStream(byte[] data)
+        {
+            this.data = data;
+        }
+
+        public int getReadCount()
+        {
+            return readCount;
+        }
+
+        public long getReadBytes()
+        {
+            return readBytes;
+        }
+
+        @Override
+        public int read(long position, byte[] buffer, int offset, int length)
+        {
+            if (position >= data.length) {
+                return -1;
+            }
+            int readLength = toIntExact(Math.min(length, data.length - position));
+            System.arraycopy(data, toIntExact(position), buffer, offset, readLength);
+            readCount++;
+            readBytes += readLength;
+            return readLength;
+        }
+
+        @Override
+        public void seek(long position)
+        {
+            this.position = position;
+        }
+
+        @Override
+        public long getPos()
+        {
+            return position;
+        }
+
+        @Override
+        public boolean seekToNewSource(long targetPosition)
+        {
+            return false;
+        }
+
+        @Override
+        public int read()
+        {
+            if (position >= data.length) {
+                return -1;
+            }
+            return data[toIntExact(position++)] & 0xFF;
+        }
+    }
+}
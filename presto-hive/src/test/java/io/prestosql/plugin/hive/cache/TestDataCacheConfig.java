@@ -0,0 +1,72 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.hive.cache;
+
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import org.testng.annotations.Test;
+
+import javax.validation.constraints.AssertTrue;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+import static io.airlift.testing.ValidationAssertions.assertFailsValidation;
+import static io.airlift.testing.ValidationAssertions.assertValidates;
+import static io.airlift.units.DataSize.Unit.GIGABYTE;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+
+public class TestDataCacheConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(DataCacheConfig.class)
+                .setEnabled(false)
+                .setLocation(null)
+                .setMaxSize(new DataSize(100, GIGABYTE))
+                .setBlockSize(new DataSize(1, MEGABYTE)));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("hive.data-cache.enabled", "true")
+                .put("hive.data-cache.location", "/mnt/ssd/cache")
+                .put("hive.data-cache.max-size", "20GB")
+                .put("hive.data-cache.block-size", "256kB")
+                .build();
+
+        DataCacheConfig expected = new DataCacheConfig()
+                .setEnabled(true)
+                .setLocation("/mnt/ssd/cache")
+                .setMaxSize(new DataSize(20, GIGABYTE))
+                .setBlockSize(new DataSize(256, KILOBYTE));
+
+        assertFullMapping(properties, expected);
+    }
+
+    @Test
+    public void testValidations()
+    {
+        assertValidates(new DataCacheConfig()
+                .setEnabled(true)
+                .setLocation("/mnt/ssd/cache"));
+        assertFailsValidation(new DataCacheConfig().setEnabled(true), "locationConfiguredIfEnabled", "hive.data-cache.location must be set when the data cache is enabled", AssertTrue.class);
+    }
+}
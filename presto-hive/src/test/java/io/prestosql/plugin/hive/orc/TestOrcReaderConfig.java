@@ -38,7 +38,8 @@ public class TestOrcReaderConfig
                 .setTinyStripeThreshold(new DataSize(8, Unit.MEGABYTE))
                 .setMaxBlockSize(new DataSize(16, Unit.MEGABYTE))
                 .setLazyReadSmallRanges(true)
-                .setNestedLazy(true));
+                .setNestedLazy(true)
+                .setLateMaterializationEnabled(true));
     }
 
     @Test
@@ -54,6 +55,7 @@ public class TestOrcReaderConfig
                 .put("hive.orc.max-read-block-size", "66kB")
                 .put("hive.orc.lazy-read-small-ranges", "false")
                 .put("hive.orc.nested-lazy", "false")
+                .put("hive.orc.late-materialization.enabled", "false")
                 .build();
 
         OrcReaderConfig expected = new OrcReaderConfig()
@@ -65,7 +67,8 @@ public class TestOrcReaderConfig
                 .setTinyStripeThreshold(new DataSize(61, Unit.KILOBYTE))
                 .setMaxBlockSize(new DataSize(66, Unit.KILOBYTE))
                 .setLazyReadSmallRanges(false)
-                .setNestedLazy(false);
+                .setNestedLazy(false)
+                .setLateMaterializationEnabled(false);
 
         assertFullMapping(properties, expected);
     }
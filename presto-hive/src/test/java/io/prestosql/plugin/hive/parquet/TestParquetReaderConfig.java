@@ -34,7 +34,8 @@ public class TestParquetReaderConfig
                 .setFailOnCorruptedStatistics(true)
                 .setMaxReadBlockSize(new DataSize(16, MEGABYTE))
                 .setMaxMergeDistance(new DataSize(1, MEGABYTE))
-                .setMaxBufferSize(new DataSize(8, MEGABYTE)));
+                .setMaxBufferSize(new DataSize(8, MEGABYTE))
+                .setUseColumnIndex(true));
     }
 
     @Test
@@ -45,13 +46,15 @@ public class TestParquetReaderConfig
                 .put("parquet.max-read-block-size", "66kB")
                 .put("parquet.max-buffer-size", "1431kB")
                 .put("parquet.max-merge-distance", "342kB")
+                .put("parquet.use-column-index", "false")
                 .build();
 
         ParquetReaderConfig expected = new ParquetReaderConfig()
                 .setFailOnCorruptedStatistics(false)
                 .setMaxReadBlockSize(new DataSize(66, KILOBYTE))
                 .setMaxBufferSize(new DataSize(1431, KILOBYTE))
-                .setMaxMergeDistance(new DataSize(342, KILOBYTE));
+                .setMaxMergeDistance(new DataSize(342, KILOBYTE))
+                .setUseColumnIndex(false);
 
         assertFullMapping(properties, expected);
     }
@@ -59,6 +59,7 @@ import org.apache.iceberg.PartitionSpec;
 import org.apache.iceberg.PartitionSpecParser;
 import org.apache.iceberg.Schema;
 import org.apache.iceberg.SchemaParser;
+import org.apache.iceberg.Snapshot;
 import org.apache.iceberg.TableMetadata;
 import org.apache.iceberg.TableOperations;
 import org.apache.iceberg.Transaction;
@@ -183,6 +184,20 @@ public class IcebergMetadata
         return new ConnectorTableProperties();
     }
 
+    @Override
+    public OptionalLong getTableDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        IcebergTableHandle table = (IcebergTableHandle) tableHandle;
+        if (table.getSnapshotId().isPresent()) {
+            return OptionalLong.of(table.getSnapshotId().get());
+        }
+        Snapshot snapshot = getIcebergTable(metastore, hdfsEnvironment, session, table.getSchemaTableName()).currentSnapshot();
+        if (snapshot == null) {
+            return OptionalLong.empty();
+        }
+        return OptionalLong.of(snapshot.snapshotId());
+    }
+
     @Override
     public ConnectorTableMetadata getTableMetadata(ConnectorSession session, ConnectorTableHandle table)
     {
@@ -28,6 +28,8 @@ import io.prestosql.plugin.hive.HiveNodePartitioningProvider;
 import io.prestosql.plugin.hive.HiveTransactionManager;
 import io.prestosql.plugin.hive.LocationService;
 import io.prestosql.plugin.hive.NamenodeStats;
+import io.prestosql.plugin.hive.cache.DataCache;
+import io.prestosql.plugin.hive.cache.DataCacheConfig;
 import io.prestosql.plugin.hive.parquet.ParquetReaderConfig;
 import io.prestosql.plugin.hive.parquet.ParquetWriterConfig;
 import io.prestosql.spi.connector.ConnectorNodePartitioningProvider;
@@ -78,5 +80,9 @@ public class IcebergModule
 
         binder.bind(FileFormatDataSourceStats.class).in(Scopes.SINGLETON);
         newExporter(binder).export(FileFormatDataSourceStats.class).withGeneratedName();
+
+        configBinder(binder).bindConfig(DataCacheConfig.class);
+        binder.bind(DataCache.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(DataCache.class).withGeneratedName();
     }
 }
@@ -14,13 +14,18 @@
 package io.prestosql.plugin.iceberg;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.json.JsonCodec;
 import io.airlift.slice.Slice;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
 import io.prestosql.plugin.hive.HdfsEnvironment;
 import io.prestosql.plugin.hive.HdfsEnvironment.HdfsContext;
 import io.prestosql.plugin.hive.HiveFileWriter;
+import io.prestosql.plugin.hive.HiveMetadata;
 import io.prestosql.plugin.hive.HiveStorageFormat;
+import io.prestosql.plugin.hive.NodeVersion;
 import io.prestosql.plugin.hive.RecordFileWriter;
+import io.prestosql.plugin.hive.parquet.ParquetFileWriter;
 import io.prestosql.plugin.iceberg.PartitionTransforms.ColumnTransform;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.PageIndexer;
@@ -44,6 +49,7 @@ import io.prestosql.spi.type.Type;
 import io.prestosql.spi.type.TypeManager;
 import io.prestosql.spi.type.VarbinaryType;
 import io.prestosql.spi.type.VarcharType;
+import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.hive.ql.io.IOConstants;
 import org.apache.hadoop.mapred.JobConf;
@@ -56,7 +62,10 @@ import org.apache.iceberg.Schema;
 import org.apache.iceberg.hadoop.HadoopInputFile;
 import org.apache.iceberg.parquet.ParquetUtil;
 import org.apache.iceberg.transforms.Transform;
+import org.apache.parquet.hadoop.ParquetOutputFormat;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
@@ -64,17 +73,24 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.plugin.hive.HiveErrorCode.HIVE_WRITER_OPEN_ERROR;
 import static io.prestosql.plugin.hive.metastore.StorageFormat.fromHiveStorageFormat;
+import static io.prestosql.plugin.hive.parquet.ParquetFileWriterFactory.getCreatedBy;
 import static io.prestosql.plugin.hive.util.ConfigurationUtils.toJobConf;
 import static io.prestosql.plugin.hive.util.ParquetRecordWriterUtil.setParquetSchema;
 import static io.prestosql.plugin.iceberg.IcebergErrorCode.ICEBERG_TOO_MANY_OPEN_PARTITIONS;
+import static io.prestosql.plugin.iceberg.IcebergSessionProperties.getParquetWriterBlockSize;
+import static io.prestosql.plugin.iceberg.IcebergSessionProperties.getParquetWriterPageSize;
+import static io.prestosql.plugin.iceberg.IcebergSessionProperties.isParquetOptimizedWriterEnabled;
 import static io.prestosql.plugin.iceberg.PartitionTransforms.getColumnTransform;
 import static io.prestosql.plugin.iceberg.TypeConverter.toHiveType;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
@@ -107,6 +123,7 @@ public class IcebergPageSink
     private final ConnectorSession session;
     private final TypeManager typeManager;
     private final FileFormat fileFormat;
+    private final NodeVersion nodeVersion;
     private final PagePartitioner pagePartitioner;
 
     private final List<WriteContext> writers = new ArrayList<>();
@@ -126,7 +143,8 @@ public class IcebergPageSink
             TypeManager typeManager,
             JsonCodec<CommitTaskData> jsonCodec,
             ConnectorSession session,
-            FileFormat fileFormat)
+            FileFormat fileFormat,
+            NodeVersion nodeVersion)
     {
         requireNonNull(inputColumns, "inputColumns is null");
         this.outputSchema = requireNonNull(outputSchema, "outputSchema is null");
@@ -139,6 +157,7 @@ public class IcebergPageSink
         this.session = requireNonNull(session, "session is null");
         this.typeManager = requireNonNull(typeManager, "typeManager is null");
         this.fileFormat = requireNonNull(fileFormat, "fileFormat is null");
+        this.nodeVersion = requireNonNull(nodeVersion, "nodeVersion is null");
         this.inputColumns = ImmutableList.copyOf(inputColumns);
         this.pagePartitioner = new PagePartitioner(pageIndexerFactory, toPartitionColumns(inputColumns, partitionSpec));
     }
@@ -338,6 +357,10 @@ public class IcebergPageSink
 
     private HiveFileWriter createParquetWriter(Path outputPath)
     {
+        if (isParquetOptimizedWriterEnabled(session)) {
+            return createOptimizedParquetWriter(outputPath);
+        }
+
         Properties properties = new Properties();
         properties.setProperty(IOConstants.COLUMNS, inputColumns.stream()
                 .map(IcebergColumnHandle::getName)
@@ -361,6 +384,39 @@ public class IcebergPageSink
                 session);
     }
 
+    private HiveFileWriter createOptimizedParquetWriter(Path outputPath)
+    {
+        try {
+            FileSystem fileSystem = hdfsEnvironment.getFileSystem(session.getUser(), outputPath, jobConf);
+
+            Callable<Void> rollbackAction = () -> {
+                fileSystem.delete(outputPath, false);
+                return null;
+            };
+
+            return new ParquetFileWriter(
+                    fileSystem.create(outputPath),
+                    rollbackAction,
+                    inputColumns.stream()
+                            .map(IcebergColumnHandle::getType)
+                            .collect(toImmutableList()),
+                    convert(outputSchema, "table"),
+                    IntStream.range(0, inputColumns.size()).toArray(),
+                    new ParquetWriterOptions()
+                            .withMaxRowGroupSize(getParquetWriterBlockSize(session))
+                            .withMaxPageSize(getParquetWriterPageSize(session)),
+                    CompressionCodecName.fromConf(jobConf.get(ParquetOutputFormat.COMPRESSION)),
+                    getCreatedBy(nodeVersion),
+                    ImmutableMap.<String, String>builder()
+                            .put(HiveMetadata.PRESTO_VERSION_NAME, nodeVersion.toString())
+                            .put(HiveMetadata.PRESTO_QUERY_ID_NAME, session.getQueryId())
+                            .build());
+        }
+        catch (IOException e) {
+            throw new PrestoException(HIVE_WRITER_OPEN_ERROR, "Error creating Parquet file", e);
+        }
+    }
+
     @SuppressWarnings("SwitchStatementWithTooFewBranches")
     private Metrics readMetrics(Path path)
     {
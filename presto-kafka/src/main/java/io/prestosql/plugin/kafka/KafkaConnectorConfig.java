@@ -22,6 +22,7 @@ import io.airlift.units.Duration;
 import io.airlift.units.MinDuration;
 import io.prestosql.spi.HostAddress;
 
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Size;
 
@@ -50,6 +51,11 @@ public class KafkaConnectorConfig
      */
     private DataSize kafkaBufferSize = new DataSize(64, Unit.KILOBYTE);
 
+    /**
+     * Maximum number of messages of a partition read by a single split.
+     */
+    private int messagesPerSplit = 100_000;
+
     /**
      * The schema name to use in the connector.
      */
@@ -147,6 +153,19 @@ public class KafkaConnectorConfig
         return this;
     }
 
+    @Min(1)
+    public int getMessagesPerSplit()
+    {
+        return messagesPerSplit;
+    }
+
+    @Config("kafka.messages-per-split")
+    public KafkaConnectorConfig setMessagesPerSplit(int messagesPerSplit)
+    {
+        this.messagesPerSplit = messagesPerSplit;
+        return this;
+    }
+
     public boolean isHideInternalColumns()
     {
         return hideInternalColumns;
@@ -0,0 +1,65 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.kafka;
+
+import com.google.common.base.Joiner;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.NodeManager;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+
+import javax.inject.Inject;
+
+import java.util.Properties;
+import java.util.Set;
+
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.AUTO_OFFSET_RESET_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.CLIENT_ID_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG;
+import static org.apache.kafka.clients.consumer.ConsumerConfig.RECEIVE_BUFFER_CONFIG;
+
+/**
+ * Creates the consumers used for listing the partitions of the topics and for reading the splits.
+ * The consumers are assigned their partitions explicitly and never join a consumer group.
+ */
+public class KafkaConsumerFactory
+{
+    private final Set<HostAddress> nodes;
+    private final int bufferSizeBytes;
+    private final NodeManager nodeManager;
+
+    @Inject
+    public KafkaConsumerFactory(KafkaConnectorConfig kafkaConnectorConfig, NodeManager nodeManager)
+    {
+        requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
+        this.nodes = kafkaConnectorConfig.getNodes();
+        this.bufferSizeBytes = toIntExact(kafkaConnectorConfig.getKafkaBufferSize().toBytes());
+        this.nodeManager = requireNonNull(nodeManager, "nodeManager is null");
+    }
+
+    public KafkaConsumer<byte[], byte[]> create()
+    {
+        Properties properties = new Properties();
+        properties.setProperty(BOOTSTRAP_SERVERS_CONFIG, Joiner.on(',').join(nodes));
+        properties.setProperty(CLIENT_ID_CONFIG, "presto-kafka-" + nodeManager.getCurrentNode().getNodeIdentifier());
+        properties.setProperty(RECEIVE_BUFFER_CONFIG, Integer.toString(bufferSizeBytes));
+        properties.setProperty(ENABLE_AUTO_COMMIT_CONFIG, "false");
+        // messages removed by the retention while the query runs are skipped
+        properties.setProperty(AUTO_OFFSET_RESET_CONFIG, "earliest");
+        return new KafkaConsumer<>(properties, new ByteArrayDeserializer(), new ByteArrayDeserializer());
+    }
+}
@@ -16,6 +16,7 @@ package io.prestosql.plugin.kafka;
 import io.prestosql.spi.connector.ColumnMetadata;
 import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.BooleanType;
+import io.prestosql.spi.type.TimestampType;
 import io.prestosql.spi.type.Type;
 
 import java.util.Map;
@@ -33,7 +34,7 @@ import static java.util.function.Function.identity;
  * Describes an internal (managed by the connector) field which is added to each table row. The definition itself makes the row
  * show up in the tables (the columns are hidden by default, so they must be explicitly selected) but unless the field is hooked in using the
  * forBooleanValue/forLongValue/forBytesValue methods and the resulting FieldValueProvider is then passed into the appropriate row decoder, the fields
- * will be null. Most values are assigned in the {@link io.prestosql.plugin.kafka.KafkaRecordSet}.
+ * will be null. Most values are assigned in the {@link io.prestosql.plugin.kafka.KafkaPageSource}.
  */
 public enum KafkaInternalFieldDescription
 {
@@ -48,17 +49,17 @@ public enum KafkaInternalFieldDescription
     PARTITION_OFFSET_FIELD("_partition_offset", BigintType.BIGINT, "Offset for the message within the partition"),
 
     /**
-     * <tt>_segment_start</tt> - Kafka start offset for the segment which contains the current message. This is per-partition.
+     * <tt>_segment_start</tt> - Kafka start offset for the range of messages read by the split which contains the current message. This is per-partition.
      */
     SEGMENT_START_FIELD("_segment_start", BigintType.BIGINT, "Segment start offset"),
 
     /**
-     * <tt>_segment_end</tt> - Kafka end offset for the segment which contains the current message. This is per-partition. The end offset is the first offset that is *not* in the segment.
+     * <tt>_segment_end</tt> - Kafka end offset for the range of messages read by the split which contains the current message. This is per-partition. The end offset is the first offset that is *not* in the range.
      */
     SEGMENT_END_FIELD("_segment_end", BigintType.BIGINT, "Segment end offset"),
 
     /**
-     * <tt>_segment_count</tt> - Running count of messages in a segment.
+     * <tt>_segment_count</tt> - Running count of messages in the range of messages read by the split.
      */
     SEGMENT_COUNT_FIELD("_segment_count", BigintType.BIGINT, "Running message count per segment"),
 
@@ -90,7 +91,12 @@ public enum KafkaInternalFieldDescription
     /**
      * <tt>_key_length</tt> - length in bytes of the key.
      */
-    KEY_LENGTH_FIELD("_key_length", BigintType.BIGINT, "Total number of key bytes");
+    KEY_LENGTH_FIELD("_key_length", BigintType.BIGINT, "Total number of key bytes"),
+
+    /**
+     * <tt>_timestamp</tt> - Timestamp of the message, either set by the producer or by the broker when it appended the message to the log.
+     */
+    TIMESTAMP_FIELD("_timestamp", TimestampType.TIMESTAMP, "Message timestamp");
 
     private static final Map<String, KafkaInternalFieldDescription> BY_COLUMN_NAME =
             stream(KafkaInternalFieldDescription.values())
@@ -24,9 +24,12 @@ import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTableMetadata;
 import io.prestosql.spi.connector.ConnectorTableProperties;
+import io.prestosql.spi.connector.Constraint;
+import io.prestosql.spi.connector.ConstraintApplicationResult;
 import io.prestosql.spi.connector.SchemaTableName;
 import io.prestosql.spi.connector.SchemaTablePrefix;
 import io.prestosql.spi.connector.TableNotFoundException;
+import io.prestosql.spi.predicate.TupleDomain;
 
 import javax.inject.Inject;
 
@@ -88,7 +91,8 @@ public class KafkaMetadata
                 getDataFormat(table.getKey()),
                 getDataFormat(table.getMessage()),
                 table.getKey().flatMap(KafkaTopicFieldGroup::getDataSchema),
-                table.getMessage().flatMap(KafkaTopicFieldGroup::getDataSchema));
+                table.getMessage().flatMap(KafkaTopicFieldGroup::getDataSchema),
+                TupleDomain.all());
     }
 
     private static String getDataFormat(Optional<KafkaTopicFieldGroup> fieldGroup)
@@ -234,4 +238,21 @@ public class KafkaMetadata
     {
         return new ConnectorTableProperties();
     }
+
+    @Override
+    public Optional<ConstraintApplicationResult<ConnectorTableHandle>> applyFilter(ConnectorSession session, ConnectorTableHandle table, Constraint constraint)
+    {
+        KafkaTableHandle handle = convertTableHandle(table);
+
+        // only the constraint on the internal columns selecting the partitions and offsets to read is
+        // kept, and since that selection is coarse, the whole constraint remains to be evaluated
+        TupleDomain<ColumnHandle> oldDomain = handle.getConstraint();
+        TupleDomain<ColumnHandle> newDomain = oldDomain.intersect(constraint.getSummary()
+                .transform(column -> KafkaSplitManager.isPushdownColumn(convertColumnHandle(column)) ? column : null));
+        if (oldDomain.equals(newDomain)) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new ConstraintApplicationResult<>(handle.withConstraint(newDomain), constraint.getSummary()));
+    }
 }
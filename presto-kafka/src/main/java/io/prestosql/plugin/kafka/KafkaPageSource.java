@@ -0,0 +1,301 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.kafka;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.log.Logger;
+import io.prestosql.decoder.BatchRowDecoder;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.type.Type;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.plugin.kafka.KafkaErrorCode.KAFKA_SPLIT_ERROR;
+import static io.prestosql.spi.block.PageBuilderStatus.DEFAULT_MAX_PAGE_SIZE_IN_BYTES;
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static org.apache.kafka.common.record.RecordBatch.NO_TIMESTAMP;
+
+/**
+ * Reads the messages of a split with batched polls of the consumer, and decodes the keys and
+ * the messages of each batch directly into the blocks of a page.
+ */
+public class KafkaPageSource
+        implements ConnectorPageSource
+{
+    private static final Logger log = Logger.get(KafkaPageSource.class);
+
+    private static final byte[] EMPTY_BYTE_ARRAY = new byte[0];
+
+    private final KafkaSplit split;
+    private final TopicPartition topicPartition;
+    private final KafkaConsumer<byte[], byte[]> consumer;
+    private final long pollTimeoutMillis;
+
+    private final List<KafkaColumnHandle> columnHandles;
+    private final KafkaInternalFieldDescription[] internalFields;
+    private final int[] keyColumns;
+    private final int[] messageColumns;
+    private final BatchRowDecoder keyDecoder;
+    private final BatchRowDecoder messageDecoder;
+
+    private long completedBytes;
+    private long readTimeNanos;
+    private long totalMessages;
+    private boolean finished;
+
+    /**
+     * @param keyDecoder decoder of the key columns, in the order of {@code columnHandles}
+     * @param messageDecoder decoder of the message columns, in the order of {@code columnHandles}
+     */
+    public KafkaPageSource(
+            KafkaSplit split,
+            KafkaConsumer<byte[], byte[]> consumer,
+            long pollTimeoutMillis,
+            List<KafkaColumnHandle> columnHandles,
+            BatchRowDecoder keyDecoder,
+            BatchRowDecoder messageDecoder)
+    {
+        this.split = requireNonNull(split, "split is null");
+        this.topicPartition = new TopicPartition(split.getTopicName(), split.getPartitionId());
+        this.consumer = requireNonNull(consumer, "consumer is null");
+        this.pollTimeoutMillis = pollTimeoutMillis;
+
+        this.columnHandles = ImmutableList.copyOf(requireNonNull(columnHandles, "columnHandles is null"));
+        this.internalFields = columnHandles.stream()
+                .map(column -> column.isInternal() ? KafkaInternalFieldDescription.forColumnName(column.getName()) : null)
+                .toArray(KafkaInternalFieldDescription[]::new);
+        this.keyColumns = IntStream.range(0, columnHandles.size())
+                .filter(column -> !columnHandles.get(column).isInternal() && columnHandles.get(column).isKeyDecoder())
+                .toArray();
+        this.messageColumns = IntStream.range(0, columnHandles.size())
+                .filter(column -> !columnHandles.get(column).isInternal() && !columnHandles.get(column).isKeyDecoder())
+                .toArray();
+        this.keyDecoder = requireNonNull(keyDecoder, "keyDecoder is null");
+        this.messageDecoder = requireNonNull(messageDecoder, "messageDecoder is null");
+
+        consumer.assign(ImmutableList.of(topicPartition));
+        consumer.seek(topicPartition, split.getStart());
+        this.finished = split.getStart() >= split.getEnd(); // Split end is exclusive.
+    }
+
+    @Override
+    public long getCompletedBytes()
+    {
+        return completedBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return readTimeNanos;
+    }
+
+    @Override
+    public long getSystemMemoryUsage()
+    {
+        return 0;
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finished;
+    }
+
+    @Override
+    public Page getNextPage()
+    {
+        List<ConsumerRecord<byte[], byte[]>> records = new ArrayList<>();
+        long batchBytes = 0;
+        while (!finished && batchBytes < DEFAULT_MAX_PAGE_SIZE_IN_BYTES) {
+            ConsumerRecords<byte[], byte[]> polledRecords = poll();
+            for (ConsumerRecord<byte[], byte[]> record : polledRecords.records(topicPartition)) {
+                if (record.offset() >= split.getEnd()) {
+                    finished = true;
+                    break;
+                }
+                records.add(record);
+                batchBytes += getKey(record).length + getMessage(record).length;
+            }
+            // the offsets of compacted messages and of transaction markers are not returned
+            if (position() >= split.getEnd()) {
+                finished = true;
+            }
+            if (polledRecords.isEmpty()) {
+                break;
+            }
+        }
+        completedBytes += batchBytes;
+        totalMessages += records.size();
+
+        if (finished) {
+            log.debug("Found a total of %d messages with %d bytes (%d messages expected) in %s", totalMessages, completedBytes, split.getEnd() - split.getStart(), split);
+        }
+
+        if (records.isEmpty()) {
+            return null;
+        }
+        return createPage(records);
+    }
+
+    private ConsumerRecords<byte[], byte[]> poll()
+    {
+        long start = System.nanoTime();
+        try {
+            return consumer.poll(pollTimeoutMillis);
+        }
+        catch (KafkaException e) {
+            throw new PrestoException(KAFKA_SPLIT_ERROR, format("Cannot read data from topic '%s', partition '%s', startOffset %s, endOffset %s", split.getTopicName(), split.getPartitionId(), split.getStart(), split.getEnd()), e);
+        }
+        finally {
+            readTimeNanos += System.nanoTime() - start;
+        }
+    }
+
+    private long position()
+    {
+        try {
+            return consumer.position(topicPartition);
+        }
+        catch (KafkaException e) {
+            throw new PrestoException(KAFKA_SPLIT_ERROR, format("Cannot read the position in topic '%s', partition '%s'", split.getTopicName(), split.getPartitionId()), e);
+        }
+    }
+
+    private Page createPage(List<ConsumerRecord<byte[], byte[]>> records)
+    {
+        int positionCount = records.size();
+        BlockBuilder[] blockBuilders = new BlockBuilder[columnHandles.size()];
+        for (int column = 0; column < columnHandles.size(); column++) {
+            blockBuilders[column] = columnHandles.get(column).getType().createBlockBuilder(null, positionCount);
+        }
+
+        List<byte[]> keys = records.stream()
+                .map(KafkaPageSource::getKey)
+                .collect(toImmutableList());
+        boolean[] keyCorrupt = new boolean[positionCount];
+        keyDecoder.decodeRows(keys, selectBlockBuilders(blockBuilders, keyColumns), keyCorrupt);
+
+        List<byte[]> messages = records.stream()
+                .map(KafkaPageSource::getMessage)
+                .collect(toImmutableList());
+        boolean[] messageCorrupt = new boolean[positionCount];
+        messageDecoder.decodeRows(messages, selectBlockBuilders(blockBuilders, messageColumns), messageCorrupt);
+
+        for (int column = 0; column < columnHandles.size(); column++) {
+            KafkaInternalFieldDescription internalField = internalFields[column];
+            if (internalField == null) {
+                continue;
+            }
+
+            BlockBuilder output = blockBuilders[column];
+            Type type = columnHandles.get(column).getType();
+            long segmentCount = totalMessages - positionCount;
+            for (int position = 0; position < positionCount; position++) {
+                ConsumerRecord<byte[], byte[]> record = records.get(position);
+                segmentCount++;
+                switch (internalField) {
+                    case SEGMENT_COUNT_FIELD:
+                        type.writeLong(output, segmentCount);
+                        break;
+                    case PARTITION_OFFSET_FIELD:
+                        type.writeLong(output, record.offset());
+                        break;
+                    case MESSAGE_FIELD:
+                        type.writeSlice(output, wrappedBuffer(messages.get(position)));
+                        break;
+                    case MESSAGE_LENGTH_FIELD:
+                        type.writeLong(output, messages.get(position).length);
+                        break;
+                    case KEY_FIELD:
+                        type.writeSlice(output, wrappedBuffer(keys.get(position)));
+                        break;
+                    case KEY_LENGTH_FIELD:
+                        type.writeLong(output, keys.get(position).length);
+                        break;
+                    case KEY_CORRUPT_FIELD:
+                        type.writeBoolean(output, keyCorrupt[position]);
+                        break;
+                    case MESSAGE_CORRUPT_FIELD:
+                        type.writeBoolean(output, messageCorrupt[position]);
+                        break;
+                    case PARTITION_ID_FIELD:
+                        type.writeLong(output, split.getPartitionId());
+                        break;
+                    case SEGMENT_START_FIELD:
+                        type.writeLong(output, split.getStart());
+                        break;
+                    case SEGMENT_END_FIELD:
+                        type.writeLong(output, split.getEnd());
+                        break;
+                    case TIMESTAMP_FIELD:
+                        if (record.timestamp() == NO_TIMESTAMP) {
+                            output.appendNull();
+                        }
+                        else {
+                            type.writeLong(output, record.timestamp());
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("unknown internal field " + internalField);
+                }
+            }
+        }
+
+        Block[] blocks = new Block[blockBuilders.length];
+        for (int column = 0; column < blockBuilders.length; column++) {
+            blocks[column] = blockBuilders[column].build();
+        }
+        return new Page(positionCount, blocks);
+    }
+
+    private static BlockBuilder[] selectBlockBuilders(BlockBuilder[] blockBuilders, int[] columns)
+    {
+        BlockBuilder[] selected = new BlockBuilder[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            selected[i] = blockBuilders[columns[i]];
+        }
+        return selected;
+    }
+
+    private static byte[] getKey(ConsumerRecord<byte[], byte[]> record)
+    {
+        return record.key() == null ? EMPTY_BYTE_ARRAY : record.key();
+    }
+
+    private static byte[] getMessage(ConsumerRecord<byte[], byte[]> record)
+    {
+        return record.value() == null ? EMPTY_BYTE_ARRAY : record.value();
+    }
+
+    @Override
+    public void close()
+    {
+        consumer.close();
+    }
+}
@@ -13,17 +13,17 @@
  */
 package io.prestosql.plugin.kafka;
 
-import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import io.prestosql.decoder.BatchRowDecoder;
+import io.prestosql.decoder.DecoderColumnHandle;
 import io.prestosql.decoder.DispatchingRowDecoderFactory;
-import io.prestosql.decoder.RowDecoder;
 import io.prestosql.spi.connector.ColumnHandle;
-import io.prestosql.spi.connector.ConnectorRecordSetProvider;
+import io.prestosql.spi.connector.ConnectorPageSource;
+import io.prestosql.spi.connector.ConnectorPageSourceProvider;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
-import io.prestosql.spi.connector.RecordSet;
 
 import javax.inject.Inject;
 
@@ -31,52 +31,53 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
-import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static io.prestosql.plugin.kafka.KafkaHandleResolver.convertSplit;
 import static java.util.Objects.requireNonNull;
 
-/**
- * Factory for Kafka specific {@link RecordSet} instances.
- */
-public class KafkaRecordSetProvider
-        implements ConnectorRecordSetProvider
+public class KafkaPageSourceProvider
+        implements ConnectorPageSourceProvider
 {
-    private DispatchingRowDecoderFactory decoderFactory;
-    private final KafkaSimpleConsumerManager consumerManager;
+    private final DispatchingRowDecoderFactory decoderFactory;
+    private final KafkaConsumerFactory consumerFactory;
+    private final long pollTimeoutMillis;
 
     @Inject
-    public KafkaRecordSetProvider(DispatchingRowDecoderFactory decoderFactory, KafkaSimpleConsumerManager consumerManager)
+    public KafkaPageSourceProvider(DispatchingRowDecoderFactory decoderFactory, KafkaConsumerFactory consumerFactory, KafkaConnectorConfig kafkaConnectorConfig)
     {
         this.decoderFactory = requireNonNull(decoderFactory, "decoderFactory is null");
-        this.consumerManager = requireNonNull(consumerManager, "consumerManager is null");
+        this.consumerFactory = requireNonNull(consumerFactory, "consumerFactory is null");
+        this.pollTimeoutMillis = requireNonNull(kafkaConnectorConfig, "kafkaConfig is null").getKafkaConnectTimeout().toMillis();
     }
 
     @Override
-    public RecordSet getRecordSet(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<? extends ColumnHandle> columns)
+    public ConnectorPageSource createPageSource(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorSplit split, ConnectorTableHandle table, List<ColumnHandle> columns)
     {
         KafkaSplit kafkaSplit = convertSplit(split);
 
         List<KafkaColumnHandle> kafkaColumns = columns.stream()
                 .map(KafkaHandleResolver::convertColumnHandle)
-                .collect(ImmutableList.toImmutableList());
+                .collect(toImmutableList());
 
-        RowDecoder keyDecoder = decoderFactory.create(
+        List<DecoderColumnHandle> keyColumns = kafkaColumns.stream()
+                .filter(col -> !col.isInternal())
+                .filter(KafkaColumnHandle::isKeyDecoder)
+                .collect(toImmutableList());
+        BatchRowDecoder keyDecoder = decoderFactory.createBatchDecoder(
                 kafkaSplit.getKeyDataFormat(),
                 getDecoderParameters(kafkaSplit.getKeyDataSchemaContents()),
-                kafkaColumns.stream()
-                        .filter(col -> !col.isInternal())
-                        .filter(KafkaColumnHandle::isKeyDecoder)
-                        .collect(toImmutableSet()));
+                keyColumns);
 
-        RowDecoder messageDecoder = decoderFactory.create(
+        List<DecoderColumnHandle> messageColumns = kafkaColumns.stream()
+                .filter(col -> !col.isInternal())
+                .filter(col -> !col.isKeyDecoder())
+                .collect(toImmutableList());
+        BatchRowDecoder messageDecoder = decoderFactory.createBatchDecoder(
                 kafkaSplit.getMessageDataFormat(),
                 getDecoderParameters(kafkaSplit.getMessageDataSchemaContents()),
-                kafkaColumns.stream()
-                        .filter(col -> !col.isInternal())
-                        .filter(col -> !col.isKeyDecoder())
-                        .collect(toImmutableSet()));
+                messageColumns);
 
-        return new KafkaRecordSet(kafkaSplit, consumerManager, kafkaColumns, keyDecoder, messageDecoder);
+        return new KafkaPageSource(kafkaSplit, consumerFactory.create(), pollTimeoutMillis, kafkaColumns, keyDecoder, messageDecoder);
     }
 
     private Map<String, String> getDecoderParameters(Optional<String> dataSchema)
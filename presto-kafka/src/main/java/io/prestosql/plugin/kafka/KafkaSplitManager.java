@@ -14,12 +14,11 @@
 package io.prestosql.plugin.kafka;
 
 import com.google.common.collect.ImmutableList;
-import com.google.common.collect.ImmutableMap;
-import com.google.common.collect.ImmutableSet;
 import com.google.common.io.CharStreams;
 import io.airlift.log.Logger;
 import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.ConnectorSplit;
 import io.prestosql.spi.connector.ConnectorSplitManager;
@@ -27,16 +26,15 @@ import io.prestosql.spi.connector.ConnectorSplitSource;
 import io.prestosql.spi.connector.ConnectorTableHandle;
 import io.prestosql.spi.connector.ConnectorTransactionHandle;
 import io.prestosql.spi.connector.FixedSplitSource;
-import kafka.api.PartitionOffsetRequestInfo;
-import kafka.cluster.BrokerEndPoint;
-import kafka.common.TopicAndPartition;
-import kafka.javaapi.OffsetRequest;
-import kafka.javaapi.OffsetResponse;
-import kafka.javaapi.PartitionMetadata;
-import kafka.javaapi.TopicMetadata;
-import kafka.javaapi.TopicMetadataRequest;
-import kafka.javaapi.TopicMetadataResponse;
-import kafka.javaapi.consumer.SimpleConsumer;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Marker;
+import io.prestosql.spi.predicate.TupleDomain;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
 
 import javax.inject.Inject;
 
@@ -47,93 +45,178 @@ import java.io.InputStreamReader;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Set;
-import java.util.concurrent.ThreadLocalRandom;
+import java.util.Map;
+import java.util.OptionalLong;
 
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.prestosql.plugin.kafka.KafkaErrorCode.KAFKA_SPLIT_ERROR;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.PARTITION_ID_FIELD;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.PARTITION_OFFSET_FIELD;
+import static io.prestosql.plugin.kafka.KafkaInternalFieldDescription.TIMESTAMP_FIELD;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_INTERNAL_ERROR;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
 import static java.lang.String.format;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.util.Locale.ENGLISH;
 import static java.util.Objects.requireNonNull;
+import static java.util.function.Function.identity;
 
-/**
- * Kafka specific implementation of {@link ConnectorSplitManager}.
- */
 public class KafkaSplitManager
         implements ConnectorSplitManager
 {
     private static final Logger log = Logger.get(KafkaSplitManager.class);
 
-    private final KafkaSimpleConsumerManager consumerManager;
-    private final Set<HostAddress> nodes;
+    private final KafkaConsumerFactory consumerFactory;
+    private final int messagesPerSplit;
 
     @Inject
     public KafkaSplitManager(
             KafkaConnectorConfig kafkaConnectorConfig,
-            KafkaSimpleConsumerManager consumerManager)
+            KafkaConsumerFactory consumerFactory)
     {
-        this.consumerManager = requireNonNull(consumerManager, "consumerManager is null");
+        this.consumerFactory = requireNonNull(consumerFactory, "consumerFactory is null");
 
         requireNonNull(kafkaConnectorConfig, "kafkaConfig is null");
-        this.nodes = ImmutableSet.copyOf(kafkaConnectorConfig.getNodes());
+        this.messagesPerSplit = kafkaConnectorConfig.getMessagesPerSplit();
     }
 
     @Override
     public ConnectorSplitSource getSplits(ConnectorTransactionHandle transaction, ConnectorSession session, ConnectorTableHandle table, SplitSchedulingStrategy splitSchedulingStrategy)
     {
         KafkaTableHandle kafkaTableHandle = (KafkaTableHandle) table;
-        try {
-            SimpleConsumer simpleConsumer = consumerManager.getConsumer(selectRandom(nodes));
+        if (kafkaTableHandle.getConstraint().isNone()) {
+            return new FixedSplitSource(ImmutableList.of());
+        }
+        Map<KafkaInternalFieldDescription, Domain> domains = getInternalColumnDomains(kafkaTableHandle.getConstraint());
 
-            TopicMetadataRequest topicMetadataRequest = new TopicMetadataRequest(ImmutableList.of(kafkaTableHandle.getTopicName()));
-            TopicMetadataResponse topicMetadataResponse = simpleConsumer.send(topicMetadataRequest);
+        try (KafkaConsumer<byte[], byte[]> consumer = consumerFactory.create()) {
+            List<PartitionInfo> partitionInfos = consumer.partitionsFor(kafkaTableHandle.getTopicName());
+            if (partitionInfos == null) {
+                throw new PrestoException(KAFKA_SPLIT_ERROR, format("Kafka topic '%s' does not exist", kafkaTableHandle.getTopicName()));
+            }
 
-            ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+            Map<TopicPartition, PartitionInfo> partitions = partitionInfos.stream()
+                    .filter(partitionInfo -> includes(domains.get(PARTITION_ID_FIELD), (long) partitionInfo.partition()))
+                    .collect(toImmutableMap(partitionInfo -> new TopicPartition(partitionInfo.topic(), partitionInfo.partition()), identity()));
 
-            for (TopicMetadata metadata : topicMetadataResponse.topicsMetadata()) {
-                for (PartitionMetadata part : metadata.partitionsMetadata()) {
-                    log.debug("Adding Partition %s/%s", metadata.topic(), part.partitionId());
+            Map<TopicPartition, Long> startOffsets = new HashMap<>(consumer.beginningOffsets(partitions.keySet()));
+            Map<TopicPartition, Long> endOffsets = new HashMap<>(consumer.endOffsets(partitions.keySet()));
 
-                    BrokerEndPoint leader = part.leader();
-                    if (leader == null) {
-                        throw new PrestoException(GENERIC_INTERNAL_ERROR, format("Leader election in progress for Kafka topic '%s' partition %s", metadata.topic(), part.partitionId()));
-                    }
+            Domain offsetDomain = domains.get(PARTITION_OFFSET_FIELD);
+            if (offsetDomain != null) {
+                getLowerBound(offsetDomain).ifPresent(offset -> startOffsets.replaceAll((partition, start) -> max(start, offset)));
+                getUpperBound(offsetDomain).ifPresent(offset -> endOffsets.replaceAll((partition, end) -> min(end, offset)));
+            }
 
-                    HostAddress partitionLeader = HostAddress.fromParts(leader.host(), leader.port());
-
-                    SimpleConsumer leaderConsumer = consumerManager.getConsumer(partitionLeader);
-                    // Kafka contains a reverse list of "end - start" pairs for the splits
-
-                    long[] offsets = findAllOffsets(leaderConsumer, metadata.topic(), part.partitionId());
-
-                    for (int i = offsets.length - 1; i > 0; i--) {
-                        KafkaSplit split = new KafkaSplit(
-                                metadata.topic(),
-                                kafkaTableHandle.getKeyDataFormat(),
-                                kafkaTableHandle.getMessageDataFormat(),
-                                kafkaTableHandle.getKeyDataSchemaLocation().map(KafkaSplitManager::readSchema),
-                                kafkaTableHandle.getMessageDataSchemaLocation().map(KafkaSplitManager::readSchema),
-                                part.partitionId(),
-                                offsets[i],
-                                offsets[i - 1],
-                                partitionLeader);
-                        splits.add(split);
+            // The timestamps of the messages are not ordered when they are set by the producers, so only the
+            // lower bound can be used: the first offset with a later timestamp is a safe start for the split.
+            Domain timestampDomain = domains.get(TIMESTAMP_FIELD);
+            if (timestampDomain != null) {
+                OptionalLong timestamp = getLowerBound(timestampDomain);
+                if (timestamp.isPresent()) {
+                    Map<TopicPartition, OffsetAndTimestamp> offsets = consumer.offsetsForTimes(partitions.keySet().stream()
+                            .collect(toImmutableMap(identity(), partition -> timestamp.getAsLong())));
+                    for (Map.Entry<TopicPartition, OffsetAndTimestamp> offset : offsets.entrySet()) {
+                        // a missing offset means that no message of the partition is at or after the timestamp
+                        long start = offset.getValue() == null ? endOffsets.get(offset.getKey()) : offset.getValue().offset();
+                        startOffsets.merge(offset.getKey(), start, Math::max);
                     }
                 }
             }
 
+            ImmutableList.Builder<ConnectorSplit> splits = ImmutableList.builder();
+            for (Map.Entry<TopicPartition, PartitionInfo> entry : partitions.entrySet()) {
+                TopicPartition partition = entry.getKey();
+                Node leader = entry.getValue().leader();
+                if (leader == null || leader.isEmpty()) {
+                    throw new PrestoException(GENERIC_INTERNAL_ERROR, format("Leader election in progress for Kafka topic '%s' partition %s", partition.topic(), partition.partition()));
+                }
+                HostAddress partitionLeader = HostAddress.fromParts(leader.host(), leader.port());
+
+                long end = endOffsets.get(partition);
+                log.debug("Adding Partition %s/%s, offsets %s to %s", partition.topic(), partition.partition(), startOffsets.get(partition), end);
+                for (long start = startOffsets.get(partition); start < end; start += messagesPerSplit) {
+                    splits.add(new KafkaSplit(
+                            partition.topic(),
+                            kafkaTableHandle.getKeyDataFormat(),
+                            kafkaTableHandle.getMessageDataFormat(),
+                            kafkaTableHandle.getKeyDataSchemaLocation().map(KafkaSplitManager::readSchema),
+                            kafkaTableHandle.getMessageDataSchemaLocation().map(KafkaSplitManager::readSchema),
+                            partition.partition(),
+                            start,
+                            min(end, start + messagesPerSplit),
+                            partitionLeader));
+                }
+            }
+
             return new FixedSplitSource(splits.build());
         }
-        catch (Exception e) { // Catch all exceptions because Kafka library is written in scala and checked exceptions are not declared in method signature.
-            if (e instanceof PrestoException) {
-                throw e;
-            }
+        catch (KafkaException e) {
             throw new PrestoException(KAFKA_SPLIT_ERROR, format("Cannot list splits for table '%s' reading topic '%s'", kafkaTableHandle.getTableName(), kafkaTableHandle.getTopicName()), e);
         }
     }
 
+    static boolean isPushdownColumn(KafkaColumnHandle column)
+    {
+        if (!column.isInternal()) {
+            return false;
+        }
+        KafkaInternalFieldDescription field = KafkaInternalFieldDescription.forColumnName(column.getName());
+        return field == PARTITION_ID_FIELD || field == PARTITION_OFFSET_FIELD || field == TIMESTAMP_FIELD;
+    }
+
+    private static Map<KafkaInternalFieldDescription, Domain> getInternalColumnDomains(TupleDomain<ColumnHandle> constraint)
+    {
+        return constraint.getDomains().get().entrySet().stream()
+                .collect(toImmutableMap(entry -> KafkaInternalFieldDescription.forColumnName(((KafkaColumnHandle) entry.getKey()).getName()), Map.Entry::getValue));
+    }
+
+    private static boolean includes(Domain domain, long value)
+    {
+        return domain == null || domain.includesNullableValue(value);
+    }
+
+    /**
+     * @return the inclusive lower bound of the domain
+     */
+    private static OptionalLong getLowerBound(Domain domain)
+    {
+        if (domain.isNullAllowed()) {
+            return OptionalLong.empty();
+        }
+        if (domain.isNone()) {
+            return OptionalLong.of(Long.MAX_VALUE);
+        }
+        Marker low = domain.getValues().getRanges().getSpan().getLow();
+        if (low.isLowerUnbounded()) {
+            return OptionalLong.empty();
+        }
+        long value = (long) low.getValue();
+        return OptionalLong.of(low.getBound() == Marker.Bound.ABOVE ? value + 1 : value);
+    }
+
+    /**
+     * @return the exclusive upper bound of the domain
+     */
+    private static OptionalLong getUpperBound(Domain domain)
+    {
+        if (domain.isNullAllowed()) {
+            return OptionalLong.empty();
+        }
+        if (domain.isNone()) {
+            return OptionalLong.of(Long.MIN_VALUE);
+        }
+        Marker high = domain.getValues().getRanges().getSpan().getHigh();
+        if (high.isUpperUnbounded()) {
+            return OptionalLong.empty();
+        }
+        long value = (long) high.getValue();
+        return OptionalLong.of(high.getBound() == Marker.Bound.EXACTLY ? value + 1 : value);
+    }
+
     private static String readSchema(String dataSchemaLocation)
     {
         InputStream inputStream = null;
@@ -181,31 +264,4 @@ public class KafkaSplitManager
         }
         return true;
     }
-
-    private static long[] findAllOffsets(SimpleConsumer consumer, String topicName, int partitionId)
-    {
-        TopicAndPartition topicAndPartition = new TopicAndPartition(topicName, partitionId);
-
-        // The API implies that this will always return all of the offsets. So it seems a partition can not have
-        // more than Integer.MAX_VALUE-1 segments.
-        //
-        // This also assumes that the lowest value returned will be the first segment available. So if segments have been dropped off, this value
-        // should not be 0.
-        PartitionOffsetRequestInfo partitionOffsetRequestInfo = new PartitionOffsetRequestInfo(kafka.api.OffsetRequest.LatestTime(), Integer.MAX_VALUE);
-        OffsetRequest offsetRequest = new OffsetRequest(ImmutableMap.of(topicAndPartition, partitionOffsetRequestInfo), kafka.api.OffsetRequest.CurrentVersion(), consumer.clientId());
-        OffsetResponse offsetResponse = consumer.getOffsetsBefore(offsetRequest);
-
-        if (offsetResponse.hasError()) {
-            short errorCode = offsetResponse.errorCode(topicName, partitionId);
-            throw new RuntimeException("could not fetch data from Kafka, error code is '" + errorCode + "'");
-        }
-
-        return offsetResponse.offsets(topicName, partitionId);
-    }
-
-    private static <T> T selectRandom(Iterable<T> iterable)
-    {
-        List<T> list = ImmutableList.copyOf(iterable);
-        return list.get(ThreadLocalRandom.current().nextInt(list.size()));
-    }
 }
@@ -32,6 +32,7 @@ public class TestKafkaConnectorConfig
                 .setNodes("")
                 .setKafkaConnectTimeout("10s")
                 .setKafkaBufferSize("64kB")
+                .setMessagesPerSplit(100_000)
                 .setDefaultSchema("default")
                 .setTableNames("")
                 .setTableDescriptionDir(new File("etc/kafka/"))
@@ -48,6 +49,7 @@ public class TestKafkaConnectorConfig
                 .put("kafka.nodes", "localhost:12345,localhost:23456")
                 .put("kafka.connect-timeout", "1h")
                 .put("kafka.buffer-size", "1MB")
+                .put("kafka.messages-per-split", "1000")
                 .put("kafka.hide-internal-columns", "false")
                 .build();
 
@@ -58,6 +60,7 @@ public class TestKafkaConnectorConfig
                 .setNodes("localhost:12345, localhost:23456")
                 .setKafkaConnectTimeout("1h")
                 .setKafkaBufferSize("1MB")
+                .setMessagesPerSplit(1000)
                 .setHideInternalColumns(false);
 
         assertFullMapping(properties, expected);
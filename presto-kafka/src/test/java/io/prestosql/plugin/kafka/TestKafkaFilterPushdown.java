@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.plugin.kafka;
+
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.plugin.kafka.util.EmbeddedKafka;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.testing.MaterializedResult;
+import io.prestosql.tests.StandaloneQueryRunner;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Properties;
+import java.util.UUID;
+
+import static io.prestosql.plugin.kafka.util.TestUtils.createEmptyTopicDescription;
+import static io.prestosql.plugin.kafka.util.TestUtils.installKafkaPlugin;
+import static io.prestosql.testing.TestingSession.testSessionBuilder;
+import static io.prestosql.testing.assertions.Assert.assertEquals;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static org.apache.kafka.clients.producer.ProducerConfig.BOOTSTRAP_SERVERS_CONFIG;
+
+@Test(singleThreaded = true)
+public class TestKafkaFilterPushdown
+{
+    private static final Session SESSION = testSessionBuilder()
+            .setCatalog("kafka")
+            .setSchema("default")
+            .build();
+
+    private static final int MESSAGES_PER_PARTITION = 100;
+    private static final long FIRST_TIMESTAMP = LocalDate.of(2019, 1, 1).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+
+    private EmbeddedKafka embeddedKafka;
+    private String topicName;
+    private StandaloneQueryRunner queryRunner;
+
+    @BeforeClass
+    public void setUp()
+            throws Exception
+    {
+        embeddedKafka = EmbeddedKafka.createEmbeddedKafka();
+        embeddedKafka.start();
+
+        topicName = "test_" + UUID.randomUUID().toString().replaceAll("-", "_");
+        embeddedKafka.createTopics(2, 1, new Properties(), topicName);
+
+        Properties producerProperties = new Properties();
+        producerProperties.setProperty(BOOTSTRAP_SERVERS_CONFIG, embeddedKafka.getConnectString());
+        try (KafkaProducer<byte[], byte[]> producer = new KafkaProducer<>(producerProperties, new ByteArraySerializer(), new ByteArraySerializer())) {
+            for (int partition = 0; partition < 2; partition++) {
+                for (int offset = 0; offset < MESSAGES_PER_PARTITION; offset++) {
+                    // the messages are two days apart, so that the midnight between them is not ambiguous in any session time zone
+                    long timestamp = FIRST_TIMESTAMP + DAYS.toMillis(2 * offset);
+                    producer.send(new ProducerRecord<>(topicName, partition, timestamp, null, Integer.toString(offset).getBytes(UTF_8)));
+                }
+            }
+        }
+
+        queryRunner = new StandaloneQueryRunner(SESSION);
+        installKafkaPlugin(
+                embeddedKafka,
+                queryRunner,
+                ImmutableMap.<SchemaTableName, KafkaTopicDescription>builder()
+                        .put(createEmptyTopicDescription(topicName, new SchemaTableName("default", topicName)))
+                        .build(),
+                ImmutableMap.of("kafka.messages-per-split", "10"));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+            throws Exception
+    {
+        queryRunner.close();
+        queryRunner = null;
+        embeddedKafka.close();
+        embeddedKafka = null;
+    }
+
+    @Test
+    public void testSplits()
+    {
+        assertQuery(
+                "SELECT count(*), count(DISTINCT (_partition_id, _segment_start)), max(_segment_end - _segment_start) FROM " + topicName,
+                2 * MESSAGES_PER_PARTITION, 20L, 10L);
+    }
+
+    @Test
+    public void testOffsetPushdown()
+    {
+        // the splits start and end at the bounds of the offsets
+        assertQuery(
+                "SELECT count(*), min(_segment_start), max(_segment_end) FROM " + topicName + " WHERE _partition_offset BETWEEN 25 AND 44",
+                40L, 25L, 45L);
+        assertQuery(
+                "SELECT count(*), min(_segment_start), max(_segment_end) FROM " + topicName + " WHERE _partition_offset > 94",
+                10L, 95L, 100L);
+    }
+
+    @Test
+    public void testTimestampPushdown()
+    {
+        // the message at offset 11 is the first one after the timestamp
+        assertQuery(
+                "SELECT count(*), min(_segment_start), min(_partition_offset) FROM " + topicName + " WHERE _timestamp >= TIMESTAMP '2019-01-22 00:00:00'",
+                2L * (MESSAGES_PER_PARTITION - 11), 11L, 11L);
+        assertQuery(
+                "SELECT count(*), max(_partition_offset) FROM " + topicName + " WHERE _timestamp < TIMESTAMP '2019-01-22 00:00:00'",
+                22L, 10L);
+        assertQuery(
+                "SELECT count(*) FROM " + topicName + " WHERE _timestamp > TIMESTAMP '2100-01-01 00:00:00'",
+                0L);
+    }
+
+    @Test
+    public void testPartitionPushdown()
+    {
+        assertQuery(
+                "SELECT count(*), min(_partition_id), max(_partition_id) FROM " + topicName + " WHERE _partition_id = 1 AND _partition_offset < 30",
+                30L, 1L, 1L);
+    }
+
+    private void assertQuery(String sql, long... expected)
+    {
+        MaterializedResult result = queryRunner.execute(sql);
+        MaterializedResult.Builder expectedResult = MaterializedResult.resultBuilder(SESSION, result.getTypes());
+        Object[] row = new Object[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            row[i] = expected[i];
+        }
+        expectedResult.row(row);
+        assertEquals(result, expectedResult.build());
+    }
+}
@@ -47,16 +47,23 @@ public final class TestUtils
     }
 
     public static void installKafkaPlugin(EmbeddedKafka embeddedKafka, QueryRunner queryRunner, Map<SchemaTableName, KafkaTopicDescription> topicDescriptions)
+    {
+        installKafkaPlugin(embeddedKafka, queryRunner, topicDescriptions, ImmutableMap.of());
+    }
+
+    public static void installKafkaPlugin(EmbeddedKafka embeddedKafka, QueryRunner queryRunner, Map<SchemaTableName, KafkaTopicDescription> topicDescriptions, Map<String, String> extraProperties)
     {
         KafkaPlugin kafkaPlugin = new KafkaPlugin();
         kafkaPlugin.setTableDescriptionSupplier(() -> topicDescriptions);
         queryRunner.installPlugin(kafkaPlugin);
 
-        Map<String, String> kafkaConfig = ImmutableMap.of(
-                "kafka.nodes", embeddedKafka.getConnectString(),
-                "kafka.table-names", Joiner.on(",").join(topicDescriptions.keySet()),
-                "kafka.connect-timeout", "120s",
-                "kafka.default-schema", "default");
+        Map<String, String> kafkaConfig = ImmutableMap.<String, String>builder()
+                .put("kafka.nodes", embeddedKafka.getConnectString())
+                .put("kafka.table-names", Joiner.on(",").join(topicDescriptions.keySet()))
+                .put("kafka.connect-timeout", "120s")
+                .put("kafka.default-schema", "default")
+                .putAll(extraProperties)
+                .build();
         queryRunner.createCatalog("kafka", "kafka", kafkaConfig);
     }
 
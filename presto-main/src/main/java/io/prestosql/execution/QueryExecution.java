@@ -21,6 +21,8 @@ import io.airlift.units.Duration;
 import io.prestosql.execution.QueryPreparer.PreparedQuery;
 import io.prestosql.execution.QueryTracker.TrackedQuery;
 import io.prestosql.execution.StateMachine.StateChangeListener;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.execution.resultcache.QueryResultCacheKey;
 import io.prestosql.execution.warnings.WarningCollector;
 import io.prestosql.memory.VersionedMemoryPoolId;
 import io.prestosql.server.BasicQueryInfo;
@@ -30,6 +32,7 @@ import io.prestosql.sql.planner.Plan;
 
 import java.net.URI;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Consumer;
 
@@ -96,13 +99,23 @@ public interface QueryExecution
         private final List<Type> columnTypes;
         private final Set<URI> bufferLocations;
         private final boolean noMoreBufferLocations;
-
-        public QueryOutputInfo(List<String> columnNames, List<Type> columnTypes, Set<URI> bufferLocations, boolean noMoreBufferLocations)
+        private final Optional<QueryResultCacheKey> resultCacheKey;
+        private final Optional<List<SerializedPage>> cachedResult;
+
+        public QueryOutputInfo(
+                List<String> columnNames,
+                List<Type> columnTypes,
+                Set<URI> bufferLocations,
+                boolean noMoreBufferLocations,
+                Optional<QueryResultCacheKey> resultCacheKey,
+                Optional<List<SerializedPage>> cachedResult)
         {
             this.columnNames = ImmutableList.copyOf(requireNonNull(columnNames, "columnNames is null"));
             this.columnTypes = ImmutableList.copyOf(requireNonNull(columnTypes, "columnTypes is null"));
             this.bufferLocations = ImmutableSet.copyOf(requireNonNull(bufferLocations, "bufferLocations is null"));
             this.noMoreBufferLocations = noMoreBufferLocations;
+            this.resultCacheKey = requireNonNull(resultCacheKey, "resultCacheKey is null");
+            this.cachedResult = requireNonNull(cachedResult, "cachedResult is null").map(ImmutableList::copyOf);
         }
 
         public List<String> getColumnNames()
@@ -124,5 +137,21 @@ public interface QueryExecution
         {
             return noMoreBufferLocations;
         }
+
+        /**
+         * Key under which the result of this query may be stored in the result cache.
+         */
+        public Optional<QueryResultCacheKey> getResultCacheKey()
+        {
+            return resultCacheKey;
+        }
+
+        /**
+         * Result of an earlier run of the same query; when present there are no buffer locations to read from.
+         */
+        public Optional<List<SerializedPage>> getCachedResult()
+        {
+            return cachedResult;
+        }
     }
 }
@@ -27,6 +27,8 @@ import io.airlift.units.Duration;
 import io.prestosql.Session;
 import io.prestosql.execution.QueryExecution.QueryOutputInfo;
 import io.prestosql.execution.StateMachine.StateChangeListener;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.execution.resultcache.QueryResultCacheKey;
 import io.prestosql.execution.warnings.WarningCollector;
 import io.prestosql.memory.VersionedMemoryPoolId;
 import io.prestosql.metadata.Metadata;
@@ -468,6 +470,7 @@ public class QueryStateMachine
 
         ImmutableList.Builder<OperatorStats> operatorStatsSummary = ImmutableList.builder();
         boolean completeInfo = true;
+        // the operator stats of the tasks are merged by the stages, so this only adds the totals of each stage
         for (StageInfo stageInfo : getAllStages(rootStage)) {
             StageStats stageStats = stageInfo.getStageStats();
             totalTasks += stageStats.getTotalTasks();
@@ -600,6 +603,11 @@ public class QueryStateMachine
         outputManager.addOutputInfoListener(listener);
     }
 
+    public void setResultCacheInfo(Optional<QueryResultCacheKey> resultCacheKey, Optional<List<SerializedPage>> cachedResult)
+    {
+        outputManager.setResultCacheInfo(resultCacheKey, cachedResult);
+    }
+
     public void setColumns(List<String> columnNames, List<Type> columnTypes)
     {
         outputManager.setColumns(columnNames, columnTypes);
@@ -1078,6 +1086,10 @@ public class QueryStateMachine
         private final Set<URI> exchangeLocations = new LinkedHashSet<>();
         @GuardedBy("this")
         private boolean noMoreExchangeLocations;
+        @GuardedBy("this")
+        private Optional<QueryResultCacheKey> resultCacheKey = Optional.empty();
+        @GuardedBy("this")
+        private Optional<List<SerializedPage>> cachedResult = Optional.empty();
 
         public QueryOutputManager(Executor executor)
         {
@@ -1096,6 +1108,15 @@ public class QueryStateMachine
             queryOutputInfo.ifPresent(info -> executor.execute(() -> listener.accept(info)));
         }
 
+        public synchronized void setResultCacheInfo(Optional<QueryResultCacheKey> resultCacheKey, Optional<List<SerializedPage>> cachedResult)
+        {
+            requireNonNull(resultCacheKey, "resultCacheKey is null");
+            requireNonNull(cachedResult, "cachedResult is null");
+            checkState(this.columnNames == null, "result cache info must be set before the output fields");
+            this.resultCacheKey = resultCacheKey;
+            this.cachedResult = cachedResult;
+        }
+
         public void setColumns(List<String> columnNames, List<Type> columnTypes)
         {
             requireNonNull(columnNames, "columnNames is null");
@@ -1140,7 +1161,7 @@ public class QueryStateMachine
             if (columnNames == null || columnTypes == null) {
                 return Optional.empty();
             }
-            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations));
+            return Optional.of(new QueryOutputInfo(columnNames, columnTypes, exchangeLocations, noMoreExchangeLocations, resultCacheKey, cachedResult));
         }
 
         private void fireStateChanged(QueryOutputInfo queryOutputInfo, List<Consumer<QueryOutputInfo>> outputInfoListeners)
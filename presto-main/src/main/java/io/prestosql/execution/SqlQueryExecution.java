@@ -13,7 +13,9 @@
  */
 package io.prestosql.execution;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.util.concurrent.ListenableFuture;
 import io.airlift.concurrent.SetThreadName;
@@ -29,6 +31,9 @@ import io.prestosql.execution.QueryPreparer.PreparedQuery;
 import io.prestosql.execution.StateMachine.StateChangeListener;
 import io.prestosql.execution.buffer.OutputBuffers;
 import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.execution.resultcache.QueryResultCache;
+import io.prestosql.execution.resultcache.QueryResultCacheKey;
 import io.prestosql.execution.scheduler.ExecutionPolicy;
 import io.prestosql.execution.scheduler.NodeScheduler;
 import io.prestosql.execution.scheduler.SplitSchedulerStats;
@@ -41,6 +46,7 @@ import io.prestosql.metadata.TableHandle;
 import io.prestosql.operator.ForScheduler;
 import io.prestosql.security.AccessControl;
 import io.prestosql.server.BasicQueryInfo;
+import io.prestosql.server.DynamicFilterService;
 import io.prestosql.server.protocol.Slug;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.QueryId;
@@ -58,6 +64,7 @@ import io.prestosql.sql.planner.NodePartitioningManager;
 import io.prestosql.sql.planner.OutputExtractor;
 import io.prestosql.sql.planner.PartitioningHandle;
 import io.prestosql.sql.planner.Plan;
+import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.planner.PlanFragmenter;
 import io.prestosql.sql.planner.PlanNodeIdAllocator;
 import io.prestosql.sql.planner.PlanOptimizers;
@@ -65,6 +72,7 @@ import io.prestosql.sql.planner.StageExecutionPlan;
 import io.prestosql.sql.planner.SubPlan;
 import io.prestosql.sql.planner.TypeAnalyzer;
 import io.prestosql.sql.planner.optimizations.PlanOptimizer;
+import io.prestosql.sql.planner.plan.OutputNode;
 import io.prestosql.sql.tree.Explain;
 import org.joda.time.DateTime;
 
@@ -83,6 +91,8 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Throwables.throwIfInstanceOf;
 import static io.airlift.units.DataSize.Unit.BYTE;
 import static io.airlift.units.DataSize.succinctBytes;
+import static io.prestosql.SystemSessionProperties.isEnableDynamicFiltering;
+import static io.prestosql.SystemSessionProperties.isQueryResultCacheEnabled;
 import static io.prestosql.execution.buffer.OutputBuffers.BROADCAST_PARTITION_ID;
 import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
 import static io.prestosql.execution.scheduler.SqlQueryScheduler.createSqlQueryScheduler;
@@ -123,6 +133,8 @@ public class SqlQueryExecution
     private final Analysis analysis;
     private final StatsCalculator statsCalculator;
     private final CostCalculator costCalculator;
+    private final DynamicFilterService dynamicFilterService;
+    private final QueryResultCache queryResultCache;
 
     private SqlQueryExecution(
             PreparedQuery preparedQuery,
@@ -148,6 +160,8 @@ public class SqlQueryExecution
             SplitSchedulerStats schedulerStats,
             StatsCalculator statsCalculator,
             CostCalculator costCalculator,
+            DynamicFilterService dynamicFilterService,
+            QueryResultCache queryResultCache,
             WarningCollector warningCollector)
     {
         try (SetThreadName ignored = new SetThreadName("Query-%s", stateMachine.getQueryId())) {
@@ -168,6 +182,8 @@ public class SqlQueryExecution
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
+            this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.queryResultCache = requireNonNull(queryResultCache, "queryResultCache is null");
 
             checkArgument(scheduleSplitBatchSize > 0, "scheduleSplitBatchSize must be greater than 0");
             this.scheduleSplitBatchSize = scheduleSplitBatchSize;
@@ -179,11 +195,18 @@ public class SqlQueryExecution
 
             // when the query finishes cache the final query info, and clear the reference to the output stage
             AtomicReference<SqlQueryScheduler> queryScheduler = this.queryScheduler;
+            if (isEnableDynamicFiltering(stateMachine.getSession())) {
+                dynamicFilterService.registerQuery(stateMachine.getQueryId(), () -> Optional.ofNullable(queryScheduler.get())
+                        .map(SqlQueryScheduler::getStageDynamicFilters)
+                        .orElse(ImmutableList.of()));
+            }
             stateMachine.addStateChangeListener(state -> {
                 if (!state.isDone()) {
                     return;
                 }
 
+                dynamicFilterService.removeQuery(stateMachine.getQueryId());
+
                 // query is now done, so abort any work that is still running
                 SqlQueryScheduler scheduler = queryScheduler.get();
                 if (scheduler != null) {
@@ -337,6 +360,10 @@ public class SqlQueryExecution
 
                 metadata.beginQuery(getSession(), plan.getTableHandles());
 
+                if (isQueryResultCacheEnabled(getSession()) && finishFromResultCache(plan)) {
+                    return;
+                }
+
                 planDistribution(plan);
 
                 if (!stateMachine.transitionToStarting()) {
@@ -427,10 +454,29 @@ public class SqlQueryExecution
         return tableHandles.build();
     }
 
+    private boolean finishFromResultCache(PlanRoot plan)
+    {
+        Optional<QueryResultCacheKey> cacheKey = queryResultCache.createCacheKey(getSession(), queryPlan.get());
+        Optional<List<SerializedPage>> cachedResult = cacheKey.flatMap(queryResultCache::get);
+        stateMachine.setResultCacheInfo(cacheKey, cachedResult);
+        if (!cachedResult.isPresent()) {
+            return false;
+        }
+
+        // the result is served by the coordinator, so there are no stages to schedule and no buffers to read
+        PlanFragment outputFragment = plan.getRoot().getFragment();
+        stateMachine.setColumns(((OutputNode) outputFragment.getRoot()).getColumnNames(), outputFragment.getTypes());
+        stateMachine.updateOutputLocations(ImmutableSet.of(), true);
+        if (stateMachine.transitionToStarting()) {
+            stateMachine.transitionToFinishing();
+        }
+        return true;
+    }
+
     private void planDistribution(PlanRoot plan)
     {
         // plan the execution on the active nodes
-        DistributedExecutionPlanner distributedPlanner = new DistributedExecutionPlanner(splitManager, metadata);
+        DistributedExecutionPlanner distributedPlanner = new DistributedExecutionPlanner(splitManager, metadata, dynamicFilterService);
         StageExecutionPlan outputStageExecutionPlan = distributedPlanner.plan(plan.getRoot(), stateMachine.getSession());
 
         // ensure split sources are closed
@@ -470,7 +516,8 @@ public class SqlQueryExecution
                 rootOutputBuffers,
                 nodeTaskMap,
                 executionPolicy,
-                schedulerStats);
+                schedulerStats,
+                dynamicFilterService);
 
         queryScheduler.set(scheduler);
 
@@ -654,6 +701,8 @@ public class SqlQueryExecution
         private final Map<String, ExecutionPolicy> executionPolicies;
         private final StatsCalculator statsCalculator;
         private final CostCalculator costCalculator;
+        private final DynamicFilterService dynamicFilterService;
+        private final QueryResultCache queryResultCache;
 
         @Inject
         SqlQueryExecutionFactory(
@@ -676,7 +725,9 @@ public class SqlQueryExecution
                 Map<String, ExecutionPolicy> executionPolicies,
                 SplitSchedulerStats schedulerStats,
                 StatsCalculator statsCalculator,
-                CostCalculator costCalculator)
+                CostCalculator costCalculator,
+                DynamicFilterService dynamicFilterService,
+                QueryResultCache queryResultCache)
         {
             requireNonNull(config, "config is null");
             this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
@@ -699,6 +750,8 @@ public class SqlQueryExecution
             this.planOptimizers = requireNonNull(planOptimizers, "planOptimizers is null").get();
             this.statsCalculator = requireNonNull(statsCalculator, "statsCalculator is null");
             this.costCalculator = requireNonNull(costCalculator, "costCalculator is null");
+            this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
+            this.queryResultCache = requireNonNull(queryResultCache, "queryResultCache is null");
         }
 
         @Override
@@ -736,6 +789,8 @@ public class SqlQueryExecution
                     schedulerStats,
                     statsCalculator,
                     costCalculator,
+                    dynamicFilterService,
+                    queryResultCache,
                     warningCollector);
         }
     }
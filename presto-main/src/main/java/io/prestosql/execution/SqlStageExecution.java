@@ -28,6 +28,7 @@ import io.prestosql.failuredetector.FailureDetector;
 import io.prestosql.metadata.InternalNode;
 import io.prestosql.metadata.Split;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.split.RemoteSplit;
 import io.prestosql.sql.planner.PlanFragment;
 import io.prestosql.sql.planner.plan.PlanFragmentId;
@@ -40,6 +41,7 @@ import javax.annotation.concurrent.ThreadSafe;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -101,6 +103,9 @@ public final class SqlStageExecution
 
     private final AtomicReference<OutputBuffers> outputBuffers = new AtomicReference<>();
 
+    @GuardedBy("this")
+    private final Map<String, Domain> dynamicFilterDomains = new HashMap<>();
+
     private final ListenerManager<Set<Lifespan>> completedLifespansChangeListeners = new ListenerManager<>();
 
     public static SqlStageExecution createSqlStageExecution(
@@ -212,6 +217,11 @@ public final class SqlStageExecution
         stateMachine.transitionToScheduling();
     }
 
+    public boolean isSchedulingComplete()
+    {
+        return stateMachine.isSchedulingComplete();
+    }
+
     public synchronized void transitionToSchedulingSplits()
     {
         stateMachine.transitionToSchedulingSplits();
@@ -344,6 +354,16 @@ public final class SqlStageExecution
         }
     }
 
+    public synchronized void addDynamicFilterDomains(Map<String, Domain> newDynamicFilterDomains)
+    {
+        requireNonNull(newDynamicFilterDomains, "newDynamicFilterDomains is null");
+
+        dynamicFilterDomains.putAll(newDynamicFilterDomains);
+        for (RemoteTask task : getAllTasks()) {
+            task.addDynamicFilterDomains(newDynamicFilterDomains);
+        }
+    }
+
     // do not synchronize
     // this is used for query info building which should be independent of scheduling work
     public boolean hasTasks()
@@ -438,6 +458,7 @@ public final class SqlStageExecution
                 summarizeTaskInfo);
 
         completeSources.forEach(task::noMoreSplits);
+        task.addDynamicFilterDomains(ImmutableMap.copyOf(dynamicFilterDomains));
 
         allTasks.add(taskId);
         tasks.computeIfAbsent(node, key -> newConcurrentHashSet()).add(task);
@@ -516,6 +537,7 @@ public final class SqlStageExecution
 
     private synchronized void updateFinalTaskInfo(TaskInfo finalTaskInfo)
     {
+        stateMachine.addFinalTaskInfo(finalTaskInfo);
         tasksWithFinalInfo.add(finalTaskInfo.getTaskStatus().getTaskId());
         checkAllTaskFinal();
     }
@@ -938,7 +938,7 @@ public class SqlTaskExecution
 
         public Driver createDriver(DriverContext driverContext, @Nullable ScheduledSplit partitionedSplit)
         {
-            Driver driver = driverFactory.createDriver(driverContext);
+            Driver driver = driverFactory.createDriver(driverContext, Optional.ofNullable(partitionedSplit).map(ScheduledSplit::getSplit));
 
             // record driver so other threads add unpartitioned sources can see the driver
             // NOTE: this MUST be done before reading unpartitionedSources, so we see a consistent view of the unpartitioned sources
@@ -32,9 +32,11 @@ import io.prestosql.sql.planner.plan.TableScanNode;
 import io.prestosql.util.Failures;
 import org.joda.time.DateTime;
 
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -95,6 +97,12 @@ public class StageStateMachine
     private final AtomicLong currentRevocableMemory = new AtomicLong();
     private final AtomicLong currentTotalMemory = new AtomicLong();
 
+    // operator stats of the tasks with final info, merged once instead of on every stage info
+    @GuardedBy("this")
+    private final Set<TaskId> tasksWithAggregatedOperatorStats = new HashSet<>();
+    @GuardedBy("this")
+    private final Map<String, OperatorStats> finalTasksOperatorStats = new HashMap<>();
+
     public StageStateMachine(
             StageId stageId,
             URI location,
@@ -168,6 +176,11 @@ public class StageStateMachine
         return stageState.setIf(SCHEDULED, currentState -> currentState == PLANNED || currentState == SCHEDULING || currentState == SCHEDULING_SPLITS);
     }
 
+    public boolean isSchedulingComplete()
+    {
+        return schedulingComplete.get() != null;
+    }
+
     public boolean transitionToRunning()
     {
         return stageState.setIf(RUNNING, currentState -> currentState != RUNNING && !currentState.isDone());
@@ -229,6 +242,19 @@ public class StageStateMachine
         finalStageInfo.compareAndSet(Optional.empty(), Optional.of(stageInfo));
     }
 
+    /**
+     * Adds the operator stats of a task that has reached a final state to the stage totals.
+     * The final task info never changes, so its stats do not need to be merged again.
+     */
+    public synchronized void addFinalTaskInfo(TaskInfo finalTaskInfo)
+    {
+        requireNonNull(finalTaskInfo, "finalTaskInfo is null");
+        checkArgument(finalTaskInfo.getTaskStatus().getState().isDone(), "task is not done");
+        if (tasksWithAggregatedOperatorStats.add(finalTaskInfo.getTaskStatus().getTaskId())) {
+            addOperatorStats(finalTasksOperatorStats, finalTaskInfo.getStats());
+        }
+    }
+
     public long getUserMemoryReservation()
     {
         return currentUserMemory.get();
@@ -424,7 +450,20 @@ public class StageStateMachine
         boolean fullyBlocked = true;
         Set<BlockedReason> blockedReasons = new HashSet<>();
 
-        Map<String, OperatorStats> operatorToStats = new HashMap<>();
+        Map<String, OperatorStats> operatorToStats;
+        List<TaskStats> taskStatsToAggregate = new ArrayList<>();
+        synchronized (this) {
+            operatorToStats = new HashMap<>(finalTasksOperatorStats);
+            for (TaskInfo taskInfo : taskInfos) {
+                if (!tasksWithAggregatedOperatorStats.contains(taskInfo.getTaskStatus().getTaskId())) {
+                    taskStatsToAggregate.add(taskInfo.getStats());
+                }
+            }
+        }
+        for (TaskStats taskStats : taskStatsToAggregate) {
+            addOperatorStats(operatorToStats, taskStats);
+        }
+
         for (TaskInfo taskInfo : taskInfos) {
             TaskState taskState = taskInfo.getTaskStatus().getState();
             if (taskState.isDone()) {
@@ -484,13 +523,6 @@ public class StageStateMachine
             totalFullGcSec += gcSec;
             minFullGcSec = min(minFullGcSec, gcSec);
             maxFullGcSec = max(maxFullGcSec, gcSec);
-
-            for (PipelineStats pipeline : taskStats.getPipelines()) {
-                for (OperatorStats operatorStats : pipeline.getOperatorSummaries()) {
-                    String id = pipeline.getPipelineId() + "." + operatorStats.getOperatorId();
-                    operatorToStats.compute(id, (k, v) -> v == null ? operatorStats : v.add(operatorStats));
-                }
-            }
         }
 
         StageStats stageStats = new StageStats(
@@ -562,6 +594,16 @@ public class StageStateMachine
                 failureInfo);
     }
 
+    private static void addOperatorStats(Map<String, OperatorStats> operatorToStats, TaskStats taskStats)
+    {
+        for (PipelineStats pipeline : taskStats.getPipelines()) {
+            for (OperatorStats operatorStats : pipeline.getOperatorSummaries()) {
+                String id = pipeline.getPipelineId() + "." + operatorStats.getOperatorId();
+                operatorToStats.compute(id, (k, v) -> v == null ? operatorStats : v.add(operatorStats));
+            }
+        }
+    }
+
     public void recordGetSplitTime(long startNanos)
     {
         long elapsedNanos = System.nanoTime() - startNanos;
@@ -0,0 +1,71 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.buffer;
+
+import com.google.common.annotations.VisibleForTesting;
+
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+import static java.lang.Math.max;
+
+/**
+ * Tracks how well the pages serialized by a stage compress, shared by the {@link PagesSerde}s of the stage.
+ * Once most pages do not compress enough to be sent compressed, only one page out of {@link #SAMPLING_INTERVAL}
+ * is compressed, and compression resumes as soon as one of these sampled pages compresses well.
+ */
+@ThreadSafe
+public class AdaptivePageCompression
+{
+    @VisibleForTesting
+    static final int SAMPLING_INTERVAL = 16;
+    // weight of the most recent page in the decayed fraction of compressible pages
+    private static final double DECAY_WEIGHT = 0.1;
+    private static final double MINIMUM_COMPRESSIBLE_FRACTION = 0.5;
+
+    @GuardedBy("this")
+    private double compressibleFraction = 1.0;
+    @GuardedBy("this")
+    private int pagesSinceSample;
+    @GuardedBy("this")
+    private long skippedPages;
+
+    public synchronized boolean shouldCompress()
+    {
+        if (compressibleFraction >= MINIMUM_COMPRESSIBLE_FRACTION) {
+            return true;
+        }
+        pagesSinceSample++;
+        if (pagesSinceSample >= SAMPLING_INTERVAL) {
+            pagesSinceSample = 0;
+            return true;
+        }
+        skippedPages++;
+        return false;
+    }
+
+    public synchronized void recordCompression(boolean compressible)
+    {
+        compressibleFraction = compressibleFraction * (1 - DECAY_WEIGHT) + (compressible ? DECAY_WEIGHT : 0);
+        if (compressible) {
+            // a sampled page compressing well resumes compression
+            compressibleFraction = max(compressibleFraction, MINIMUM_COMPRESSIBLE_FRACTION);
+        }
+    }
+
+    public synchronized long getSkippedPages()
+    {
+        return skippedPages;
+    }
+}
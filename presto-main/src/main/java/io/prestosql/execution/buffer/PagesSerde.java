@@ -47,14 +47,26 @@ public class PagesSerde
     private final Optional<Compressor> compressor;
     private final Optional<Decompressor> decompressor;
     private final Optional<SpillCipher> spillCipher;
+    private final Optional<AdaptivePageCompression> adaptiveCompression;
 
     public PagesSerde(BlockEncodingSerde blockEncodingSerde, Optional<Compressor> compressor, Optional<Decompressor> decompressor, Optional<SpillCipher> spillCipher)
+    {
+        this(blockEncodingSerde, compressor, decompressor, spillCipher, Optional.empty());
+    }
+
+    public PagesSerde(
+            BlockEncodingSerde blockEncodingSerde,
+            Optional<Compressor> compressor,
+            Optional<Decompressor> decompressor,
+            Optional<SpillCipher> spillCipher,
+            Optional<AdaptivePageCompression> adaptiveCompression)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
         checkArgument(compressor.isPresent() == decompressor.isPresent(), "compressor and decompressor must both be present or both be absent");
         this.compressor = requireNonNull(compressor, "compressor is null");
         this.decompressor = requireNonNull(decompressor, "decompressor is null");
         this.spillCipher = requireNonNull(spillCipher, "spillCipher is null");
+        this.adaptiveCompression = requireNonNull(adaptiveCompression, "adaptiveCompression is null");
     }
 
     public SerializedPage serialize(Page page)
@@ -65,7 +77,7 @@ public class PagesSerde
         int uncompressedSize = serializationBuffer.size();
         MarkerSet markers = MarkerSet.empty();
 
-        if (compressor.isPresent()) {
+        if (compressor.isPresent() && adaptiveCompression.map(AdaptivePageCompression::shouldCompress).orElse(true)) {
             byte[] compressed = new byte[compressor.get().maxCompressedLength(uncompressedSize)];
             int compressedSize = compressor.get().compress(
                     (byte[]) slice.getBase(),
@@ -75,7 +87,9 @@ public class PagesSerde
                     0,
                     compressed.length);
 
-            if ((((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO) {
+            boolean compressible = (((double) compressedSize) / uncompressedSize) <= MINIMUM_COMPRESSION_RATIO;
+            adaptiveCompression.ifPresent(adaptive -> adaptive.recordCompression(compressible));
+            if (compressible) {
                 slice = Slices.wrappedBuffer(compressed, 0, compressedSize);
                 markers.add(COMPRESSED);
             }
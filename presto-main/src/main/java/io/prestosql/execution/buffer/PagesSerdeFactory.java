@@ -13,24 +13,36 @@
  */
 package io.prestosql.execution.buffer;
 
-import io.airlift.compress.lz4.Lz4Compressor;
-import io.airlift.compress.lz4.Lz4Decompressor;
 import io.prestosql.spi.block.BlockEncodingSerde;
 import io.prestosql.spiller.SpillCipher;
 
 import java.util.Optional;
 
+import static io.prestosql.execution.buffer.CompressionCodec.LZ4;
 import static java.util.Objects.requireNonNull;
 
 public class PagesSerdeFactory
 {
     private final BlockEncodingSerde blockEncodingSerde;
     private final boolean compressionEnabled;
+    private final CompressionCodec compressionCodec;
+    private final Optional<AdaptivePageCompression> adaptiveCompression;
 
     public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, boolean compressionEnabled)
+    {
+        this(blockEncodingSerde, compressionEnabled, LZ4, false);
+    }
+
+    /**
+     * @param adaptiveCompressionEnabled whether to stop compressing most pages once the pages serialized by the serdes
+     * of this factory stop compressing well
+     */
+    public PagesSerdeFactory(BlockEncodingSerde blockEncodingSerde, boolean compressionEnabled, CompressionCodec compressionCodec, boolean adaptiveCompressionEnabled)
     {
         this.blockEncodingSerde = requireNonNull(blockEncodingSerde, "blockEncodingSerde is null");
         this.compressionEnabled = compressionEnabled;
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.adaptiveCompression = compressionEnabled && adaptiveCompressionEnabled ? Optional.of(new AdaptivePageCompression()) : Optional.empty();
     }
 
     public PagesSerde createPagesSerde()
@@ -46,7 +58,12 @@ public class PagesSerdeFactory
     private PagesSerde createPagesSerdeInternal(Optional<SpillCipher> spillCipher)
     {
         if (compressionEnabled) {
-            return new PagesSerde(blockEncodingSerde, Optional.of(new Lz4Compressor()), Optional.of(new Lz4Decompressor()), spillCipher);
+            return new PagesSerde(
+                    blockEncodingSerde,
+                    Optional.of(compressionCodec.createCompressor()),
+                    Optional.of(compressionCodec.createDecompressor()),
+                    spillCipher,
+                    adaptiveCompression);
         }
 
         return new PagesSerde(blockEncodingSerde, Optional.empty(), Optional.empty(), spillCipher);
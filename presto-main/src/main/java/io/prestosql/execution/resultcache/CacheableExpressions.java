@@ -0,0 +1,67 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.ResolvedFunction;
+import io.prestosql.sql.tree.CurrentTime;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.FunctionCall;
+
+import java.util.Set;
+
+import static io.prestosql.sql.DynamicFilters.extractDynamicFilters;
+import static io.prestosql.sql.planner.DeterminismEvaluator.isDeterministic;
+import static io.prestosql.sql.util.AstUtils.preOrder;
+
+public final class CacheableExpressions
+{
+    // these are deterministic within a query, but their value depends on when and by whom the query is run
+    private static final Set<String> SESSION_FUNCTIONS = ImmutableSet.of(
+            "current_date",
+            "current_time",
+            "current_timestamp",
+            "now",
+            "localtime",
+            "localtimestamp",
+            "current_timezone",
+            "$current_user",
+            "$current_path");
+
+    private CacheableExpressions() {}
+
+    /**
+     * Returns true if the expression evaluates to the same value in every query that contains it.
+     */
+    public static boolean isCacheableExpression(Expression expression, Metadata metadata)
+    {
+        if (!isDeterministic(expression, metadata)) {
+            return false;
+        }
+        if (!extractDynamicFilters(metadata, expression).getDynamicConjuncts().isEmpty()) {
+            return false;
+        }
+        return preOrder(expression).noneMatch(node -> node instanceof CurrentTime ||
+                (node instanceof FunctionCall && isSessionFunction((FunctionCall) node)));
+    }
+
+    private static boolean isSessionFunction(FunctionCall call)
+    {
+        String name = ResolvedFunction.fromQualifiedName(call.getName())
+                .map(function -> function.getSignature().getName())
+                .orElse(call.getName().getSuffix());
+        return SESSION_FUNCTIONS.contains(name);
+    }
+}
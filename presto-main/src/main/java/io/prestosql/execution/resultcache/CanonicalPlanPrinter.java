@@ -0,0 +1,174 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import io.airlift.json.JsonCodec;
+import io.prestosql.sql.planner.OrderingScheme;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.plan.AggregationNode;
+import io.prestosql.sql.planner.plan.AggregationNode.Aggregation;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.Expression;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.sql.planner.ExpressionSymbolInliner.inlineSymbols;
+import static java.util.Objects.requireNonNull;
+import static java.util.stream.Collectors.joining;
+
+/**
+ * Prints a leaf fragment without its plan node ids and with its symbols renamed in the order
+ * they are defined, so the same subplan prints the same in every query that contains it.
+ * Table scans are printed as their {@link TableScanIdentity}.
+ */
+public final class CanonicalPlanPrinter
+{
+    private final TypeProvider types;
+    private final JsonCodec<TableScanIdentity> tableScanCodec;
+    private final Map<Symbol, Symbol> canonicalSymbols = new HashMap<>();
+    private final StringBuilder output = new StringBuilder();
+
+    private CanonicalPlanPrinter(TypeProvider types, JsonCodec<TableScanIdentity> tableScanCodec)
+    {
+        this.types = requireNonNull(types, "types is null");
+        this.tableScanCodec = requireNonNull(tableScanCodec, "tableScanCodec is null");
+    }
+
+    /**
+     * Prints a plan made of a table scan with filters, projections and partial aggregations above it.
+     */
+    public static String printCanonicalPlan(PlanNode plan, TypeProvider types, JsonCodec<TableScanIdentity> tableScanCodec)
+    {
+        CanonicalPlanPrinter printer = new CanonicalPlanPrinter(types, tableScanCodec);
+        printer.print(plan);
+        return printer.output.toString();
+    }
+
+    private void print(PlanNode node)
+    {
+        if (node instanceof TableScanNode) {
+            TableScanNode tableScan = (TableScanNode) node;
+            line("TableScan", tableScanCodec.toJson(TableScanIdentity.of(tableScan)), defineAll(tableScan.getOutputSymbols()));
+        }
+        else if (node instanceof FilterNode) {
+            FilterNode filter = (FilterNode) node;
+            print(filter.getSource());
+            line("Filter", rewrite(filter.getPredicate()));
+        }
+        else if (node instanceof ProjectNode) {
+            ProjectNode project = (ProjectNode) node;
+            print(project.getSource());
+            StringJoiner assignments = new StringJoiner(", ");
+            for (Map.Entry<Symbol, Expression> assignment : project.getAssignments().getMap().entrySet()) {
+                String expression = rewrite(assignment.getValue());
+                assignments.add(define(assignment.getKey()) + " := " + expression);
+            }
+            line("Project", assignments.toString());
+        }
+        else if (node instanceof AggregationNode) {
+            AggregationNode aggregation = (AggregationNode) node;
+            print(aggregation.getSource());
+            StringJoiner aggregations = new StringJoiner(", ");
+            for (Map.Entry<Symbol, Aggregation> entry : aggregation.getAggregations().entrySet()) {
+                String function = print(entry.getValue());
+                aggregations.add(define(entry.getKey()) + " := " + function);
+            }
+            line(
+                    "Aggregation",
+                    aggregation.getStep().name(),
+                    referenceAll(aggregation.getGroupingKeys()),
+                    String.valueOf(aggregation.getGroupingSetCount()),
+                    aggregation.getGlobalGroupingSets().stream().sorted().map(Object::toString).collect(joining(", ", "[", "]")),
+                    referenceAll(aggregation.getPreGroupedSymbols()),
+                    reference(aggregation.getGroupIdSymbol()),
+                    aggregations.toString(),
+                    reference(aggregation.getHashSymbol()));
+        }
+        else {
+            throw new IllegalArgumentException("Unsupported node in a leaf fragment: " + node.getClass().getSimpleName());
+        }
+    }
+
+    private String print(Aggregation aggregation)
+    {
+        return aggregation.getResolvedFunction() +
+                (aggregation.isDistinct() ? " DISTINCT" : "") +
+                aggregation.getArguments().stream()
+                        .map(this::rewrite)
+                        .collect(joining(", ", "(", ")")) +
+                " ORDER BY " + aggregation.getOrderingScheme().map(this::print).orElse("[]") +
+                " FILTER " + reference(aggregation.getFilter()) +
+                " MASK " + reference(aggregation.getMask());
+    }
+
+    private String print(OrderingScheme orderingScheme)
+    {
+        return orderingScheme.getOrderBy().stream()
+                .map(symbol -> reference(symbol) + " " + orderingScheme.getOrdering(symbol))
+                .collect(joining(", ", "[", "]"));
+    }
+
+    private void line(String... parts)
+    {
+        output.append(String.join(" | ", parts)).append('\n');
+    }
+
+    private String defineAll(List<Symbol> symbols)
+    {
+        return symbols.stream()
+                .map(this::define)
+                .collect(joining(", ", "[", "]"));
+    }
+
+    // identity projections pass a symbol through, so a symbol keeps the name it was first given
+    private String define(Symbol symbol)
+    {
+        Symbol canonical = canonicalSymbols.computeIfAbsent(symbol, ignored -> new Symbol("s" + canonicalSymbols.size()));
+        return canonical.getName() + ":" + types.get(symbol).getTypeSignature();
+    }
+
+    private String referenceAll(List<Symbol> symbols)
+    {
+        return symbols.stream()
+                .map(this::reference)
+                .collect(joining(", ", "[", "]"));
+    }
+
+    private String reference(Optional<Symbol> symbol)
+    {
+        return symbol.map(this::reference).orElse("-");
+    }
+
+    private String reference(Symbol symbol)
+    {
+        Symbol canonical = canonicalSymbols.get(symbol);
+        checkState(canonical != null, "Symbol %s is not defined", symbol);
+        return canonical.getName();
+    }
+
+    private String rewrite(Expression expression)
+    {
+        // a single lookup per symbol, as canonical names may collide with the names of the plan
+        return inlineSymbols(symbol -> new Symbol(reference(symbol)).toSymbolReference(), expression).toString();
+    }
+}
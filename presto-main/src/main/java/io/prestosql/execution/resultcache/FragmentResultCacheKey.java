@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Identifies the output of a leaf pipeline for a single split: the canonical plan of the
+ * fragment, the catalog the split belongs to and the connector provided split identifier,
+ * which changes whenever the data read by the split changes.
+ */
+public final class FragmentResultCacheKey
+{
+    private final String planHash;
+    private final String catalogName;
+    private final String splitIdentifier;
+
+    public FragmentResultCacheKey(String planHash, String catalogName, String splitIdentifier)
+    {
+        this.planHash = requireNonNull(planHash, "planHash is null");
+        this.catalogName = requireNonNull(catalogName, "catalogName is null");
+        this.splitIdentifier = requireNonNull(splitIdentifier, "splitIdentifier is null");
+    }
+
+    public String getPlanHash()
+    {
+        return planHash;
+    }
+
+    public String getCatalogName()
+    {
+        return catalogName;
+    }
+
+    public String getSplitIdentifier()
+    {
+        return splitIdentifier;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        FragmentResultCacheKey that = (FragmentResultCacheKey) o;
+        return Objects.equals(planHash, that.planHash) &&
+                Objects.equals(catalogName, that.catalogName) &&
+                Objects.equals(splitIdentifier, that.splitIdentifier);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(planHash, catalogName, splitIdentifier);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("planHash", planHash)
+                .add("catalogName", catalogName)
+                .add("splitIdentifier", splitIdentifier)
+                .toString();
+    }
+}
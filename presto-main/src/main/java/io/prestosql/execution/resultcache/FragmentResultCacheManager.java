@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import io.airlift.json.JsonCodec;
+import io.prestosql.Session;
+import io.prestosql.spi.Page;
+import io.prestosql.sql.analyzer.FeaturesConfig;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.plan.PlanNode;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.hash.Hashing.sha256;
+import static io.prestosql.execution.resultcache.CanonicalPlanPrinter.printCanonicalPlan;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Worker local cache of the pages produced by leaf pipelines, one entry per split.
+ * Entries are evicted in least recently used order once the configured size is reached.
+ * The memory of the cache is set aside from the general pool of the worker when the cache is enabled.
+ */
+public class FragmentResultCacheManager
+{
+    private final long maxSizeInBytes;
+    private final long maxEntrySizeInBytes;
+    private final JsonCodec<TableScanIdentity> tableScanCodec;
+    private final Cache<FragmentResultCacheKey, List<Page>> cache;
+
+    @Inject
+    public FragmentResultCacheManager(FragmentResultCacheConfig config, FeaturesConfig featuresConfig, JsonCodec<TableScanIdentity> tableScanCodec)
+    {
+        requireNonNull(config, "config is null");
+        requireNonNull(featuresConfig, "featuresConfig is null");
+        // the session property can only enable the cache on workers that have memory set aside for it
+        this.maxSizeInBytes = featuresConfig.isFragmentResultCacheEnabled() ? config.getMaxSize().toBytes() : 0;
+        this.maxEntrySizeInBytes = config.getMaxEntrySize().toBytes();
+        this.tableScanCodec = requireNonNull(tableScanCodec, "tableScanCodec is null");
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maxSizeInBytes)
+                .weigher((FragmentResultCacheKey key, List<Page> pages) -> (int) Math.min(getRetainedSizeInBytes(pages), Integer.MAX_VALUE))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the hash of a leaf fragment, which is equal for the same subplan in different queries
+     * that are run with the same session properties.
+     */
+    public String createPlanHash(Session session, PlanNode plan, TypeProvider types)
+    {
+        // the output of the fragment also depends on the session, e.g. for casts to timestamps
+        Map<String, Map<String, String>> catalogProperties = new TreeMap<>();
+        session.getConnectorProperties().forEach((catalog, properties) -> catalogProperties.put(catalog.getCatalogName(), new TreeMap<>(properties)));
+        return sha256().newHasher()
+                .putString(printCanonicalPlan(plan, types, tableScanCodec), UTF_8)
+                .putString(new TreeMap<>(session.getSystemProperties()).toString(), UTF_8)
+                .putString(catalogProperties.toString(), UTF_8)
+                .putString(session.getTimeZoneKey().getId(), UTF_8)
+                .putString(session.getLocale().toLanguageTag(), UTF_8)
+                .hash()
+                .toString();
+    }
+
+    public Optional<List<Page>> get(FragmentResultCacheKey key)
+    {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(FragmentResultCacheKey key, List<Page> pages)
+    {
+        checkArgument(getRetainedSizeInBytes(pages) <= maxEntrySizeInBytes, "result exceeds the maximum entry size");
+        cache.put(key, ImmutableList.copyOf(pages));
+    }
+
+    public long getMaxSizeInBytes()
+    {
+        return maxSizeInBytes;
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    @Managed
+    public long getEntryCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getRetainedSizeInBytes()
+    {
+        return cache.asMap().values().stream()
+                .mapToLong(FragmentResultCacheManager::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    private static long getRetainedSizeInBytes(List<Page> pages)
+    {
+        return pages.stream()
+                .mapToLong(Page::getRetainedSizeInBytes)
+                .sum();
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hasher;
+import io.airlift.json.JsonCodec;
+import io.prestosql.Session;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.sql.planner.Plan;
+import io.prestosql.sql.planner.plan.DeleteNode;
+import io.prestosql.sql.planner.plan.ExplainAnalyzeNode;
+import io.prestosql.sql.planner.plan.IndexSourceNode;
+import io.prestosql.sql.planner.plan.OutputNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.SampleNode;
+import io.prestosql.sql.planner.plan.StatisticsWriterNode;
+import io.prestosql.sql.planner.plan.TableDeleteNode;
+import io.prestosql.sql.planner.plan.TableFinishNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.planner.plan.TableWriterNode;
+import io.prestosql.sql.tree.Expression;
+import org.weakref.jmx.Managed;
+
+import javax.inject.Inject;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.hash.Hashing.sha256;
+import static io.prestosql.execution.resultcache.CacheableExpressions.isCacheableExpression;
+import static io.prestosql.sql.planner.ExpressionExtractor.extractExpressions;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
+import static io.prestosql.sql.planner.planprinter.PlanPrinter.jsonFragmentPlan;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Coordinator side cache of complete query results. A result is only cached when every
+ * table the query reads reports a data version, so a new version of any input produces
+ * a different key and stale entries simply age out.
+ * <p>
+ * Entries are only kept in memory. The cache is meant for small results that are requested
+ * repeatedly, such as dashboard queries, so an entry is limited to {@code query-result-cache.max-entry-size}
+ * and lives no longer than {@code query-result-cache.ttl} or the current version of its inputs.
+ * A disk tier would have to live on the coordinator, which would then read every cached result
+ * from its local disk while also planning and dispatching all queries of the cluster, and unlike
+ * the workers with their spill paths the coordinator has no managed local storage to put it on.
+ * Large results that are expensive to compute are better served by the fragment result cache,
+ * which keeps the output of leaf fragments on the workers that produce them.
+ */
+public class QueryResultCache
+{
+    private static final Set<Class<? extends PlanNode>> UNCACHEABLE_NODES = ImmutableSet.of(
+            TableWriterNode.class,
+            TableFinishNode.class,
+            DeleteNode.class,
+            TableDeleteNode.class,
+            StatisticsWriterNode.class,
+            ExplainAnalyzeNode.class,
+            IndexSourceNode.class,
+            SampleNode.class);
+
+    private final Metadata metadata;
+    private final JsonCodec<TableScanIdentity> tableScanCodec;
+    private final long maxEntrySizeInBytes;
+    private final Cache<QueryResultCacheKey, List<SerializedPage>> cache;
+
+    @Inject
+    public QueryResultCache(QueryResultCacheConfig config, Metadata metadata, JsonCodec<TableScanIdentity> tableScanCodec)
+    {
+        requireNonNull(config, "config is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.tableScanCodec = requireNonNull(tableScanCodec, "tableScanCodec is null");
+        this.maxEntrySizeInBytes = config.getMaxEntrySize().toBytes();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(config.getMaxSize().toBytes())
+                .weigher((QueryResultCacheKey key, List<SerializedPage> pages) -> (int) Math.min(getRetainedSizeInBytes(pages), Integer.MAX_VALUE))
+                .expireAfterWrite(config.getTtl().toMillis(), MILLISECONDS)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Returns the cache key for the given plan, or empty if the result of the plan
+     * can not be reused by another query.
+     */
+    public Optional<QueryResultCacheKey> createCacheKey(Session session, Plan plan)
+    {
+        PlanNode root = plan.getRoot();
+        if (!(root instanceof OutputNode)) {
+            return Optional.empty();
+        }
+        if (searchFrom(root).where(node -> UNCACHEABLE_NODES.contains(node.getClass())).matches()) {
+            return Optional.empty();
+        }
+        for (Expression expression : extractExpressions(root)) {
+            if (!isCacheableExpression(expression, metadata)) {
+                return Optional.empty();
+            }
+        }
+
+        // the printed plan abbreviates the table handles and constraints, so they are hashed in their JSON form
+        Hasher planHash = sha256().newHasher()
+                .putString(jsonFragmentPlan(root, plan.getTypes().allTypes(), metadata, session), UTF_8);
+        ImmutableList.Builder<Long> tableDataVersions = ImmutableList.builder();
+        for (TableScanNode tableScan : searchFrom(root).where(TableScanNode.class::isInstance).<TableScanNode>findAll()) {
+            OptionalLong dataVersion = metadata.getTableDataVersion(session, tableScan.getTable());
+            if (!dataVersion.isPresent()) {
+                return Optional.empty();
+            }
+            tableDataVersions.add(dataVersion.getAsLong());
+            planHash.putString(tableScanCodec.toJson(TableScanIdentity.of(tableScan)), UTF_8);
+        }
+
+        return Optional.of(new QueryResultCacheKey(
+                planHash.hash().toString(),
+                session.getIdentity().getUser(),
+                session.getIdentity().getRoles(),
+                session.getSystemProperties(),
+                session.getConnectorProperties().entrySet().stream()
+                        .collect(toImmutableMap(entry -> entry.getKey().getCatalogName(), entry -> ImmutableMap.copyOf(entry.getValue()))),
+                session.getTimeZoneKey(),
+                session.getLocale(),
+                tableDataVersions.build()));
+    }
+
+    public Optional<List<SerializedPage>> get(QueryResultCacheKey key)
+    {
+        return Optional.ofNullable(cache.getIfPresent(key));
+    }
+
+    public void put(QueryResultCacheKey key, List<SerializedPage> pages)
+    {
+        checkArgument(getRetainedSizeInBytes(pages) <= maxEntrySizeInBytes, "result exceeds the maximum entry size");
+        cache.put(key, ImmutableList.copyOf(pages));
+    }
+
+    public long getMaxEntrySizeInBytes()
+    {
+        return maxEntrySizeInBytes;
+    }
+
+    @Managed
+    public long getEntryCount()
+    {
+        return cache.size();
+    }
+
+    @Managed
+    public long getHitCount()
+    {
+        return cache.stats().hitCount();
+    }
+
+    @Managed
+    public long getMissCount()
+    {
+        return cache.stats().missCount();
+    }
+
+    @Managed
+    public long getEvictionCount()
+    {
+        return cache.stats().evictionCount();
+    }
+
+    @Managed
+    public long getRetainedSizeInBytes()
+    {
+        return cache.asMap().values().stream()
+                .mapToLong(QueryResultCache::getRetainedSizeInBytes)
+                .sum();
+    }
+
+    private static long getRetainedSizeInBytes(List<SerializedPage> pages)
+    {
+        return pages.stream()
+                .mapToLong(SerializedPage::getRetainedSizeInBytes)
+                .sum();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.spi.security.SelectedRole;
+import io.prestosql.spi.type.TimeZoneKey;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Identifies a query result: the canonical form of the optimized plan, the identity of the
+ * user, the session settings that can influence execution, and the data version of every
+ * scanned table.
+ */
+public final class QueryResultCacheKey
+{
+    private final String planHash;
+    private final String user;
+    private final Map<String, SelectedRole> roles;
+    private final Map<String, String> systemProperties;
+    private final Map<String, Map<String, String>> catalogProperties;
+    private final TimeZoneKey timeZoneKey;
+    private final Locale locale;
+    private final List<Long> tableDataVersions;
+
+    public QueryResultCacheKey(
+            String planHash,
+            String user,
+            Map<String, SelectedRole> roles,
+            Map<String, String> systemProperties,
+            Map<String, Map<String, String>> catalogProperties,
+            TimeZoneKey timeZoneKey,
+            Locale locale,
+            List<Long> tableDataVersions)
+    {
+        this.planHash = requireNonNull(planHash, "planHash is null");
+        this.user = requireNonNull(user, "user is null");
+        this.roles = ImmutableMap.copyOf(requireNonNull(roles, "roles is null"));
+        this.systemProperties = ImmutableMap.copyOf(requireNonNull(systemProperties, "systemProperties is null"));
+        this.catalogProperties = ImmutableMap.copyOf(requireNonNull(catalogProperties, "catalogProperties is null"));
+        this.timeZoneKey = requireNonNull(timeZoneKey, "timeZoneKey is null");
+        this.locale = requireNonNull(locale, "locale is null");
+        this.tableDataVersions = ImmutableList.copyOf(requireNonNull(tableDataVersions, "tableDataVersions is null"));
+    }
+
+    public String getPlanHash()
+    {
+        return planHash;
+    }
+
+    public String getUser()
+    {
+        return user;
+    }
+
+    public Map<String, SelectedRole> getRoles()
+    {
+        return roles;
+    }
+
+    public Map<String, String> getSystemProperties()
+    {
+        return systemProperties;
+    }
+
+    public Map<String, Map<String, String>> getCatalogProperties()
+    {
+        return catalogProperties;
+    }
+
+    public TimeZoneKey getTimeZoneKey()
+    {
+        return timeZoneKey;
+    }
+
+    public Locale getLocale()
+    {
+        return locale;
+    }
+
+    public List<Long> getTableDataVersions()
+    {
+        return tableDataVersions;
+    }
+
+    @Override
+    public boolean equals(Object o)
+    {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        QueryResultCacheKey that = (QueryResultCacheKey) o;
+        return Objects.equals(planHash, that.planHash) &&
+                Objects.equals(user, that.user) &&
+                Objects.equals(roles, that.roles) &&
+                Objects.equals(systemProperties, that.systemProperties) &&
+                Objects.equals(catalogProperties, that.catalogProperties) &&
+                Objects.equals(timeZoneKey, that.timeZoneKey) &&
+                Objects.equals(locale, that.locale) &&
+                Objects.equals(tableDataVersions, that.tableDataVersions);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(planHash, user, roles, systemProperties, catalogProperties, timeZoneKey, locale, tableDataVersions);
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("planHash", planHash)
+                .add("user", user)
+                .add("roles", roles)
+                .add("systemProperties", systemProperties)
+                .add("catalogProperties", catalogProperties)
+                .add("timeZoneKey", timeZoneKey)
+                .add("locale", locale)
+                .add("tableDataVersions", tableDataVersions)
+                .toString();
+    }
+}
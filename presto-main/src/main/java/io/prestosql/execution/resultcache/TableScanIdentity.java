@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorTableHandle;
+import io.prestosql.spi.connector.ConnectorTableLayoutHandle;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.sql.planner.plan.TableScanNode;
+
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The JSON form of the data read by a table scan, which is hashed into the result cache key.
+ * The printed plan abbreviates table handles and constraints, so two scans that read different
+ * data may print the same. The transaction of the table handle is left out, as it differs for
+ * every query.
+ */
+public final class TableScanIdentity
+{
+    private final CatalogName catalogName;
+    private final ConnectorTableHandle connectorHandle;
+    private final Optional<ConnectorTableLayoutHandle> layout;
+    private final List<ColumnHandle> columns;
+    private final TupleDomain<ColumnHandle> enforcedConstraint;
+
+    public TableScanIdentity(
+            CatalogName catalogName,
+            ConnectorTableHandle connectorHandle,
+            Optional<ConnectorTableLayoutHandle> layout,
+            List<ColumnHandle> columns,
+            TupleDomain<ColumnHandle> enforcedConstraint)
+    {
+        this.catalogName = requireNonNull(catalogName, "catalogName is null");
+        this.connectorHandle = requireNonNull(connectorHandle, "connectorHandle is null");
+        this.layout = requireNonNull(layout, "layout is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.enforcedConstraint = requireNonNull(enforcedConstraint, "enforcedConstraint is null");
+    }
+
+    public static TableScanIdentity of(TableScanNode tableScan)
+    {
+        return new TableScanIdentity(
+                tableScan.getTable().getCatalogName(),
+                tableScan.getTable().getConnectorHandle(),
+                tableScan.getTable().getLayout(),
+                tableScan.getOutputSymbols().stream()
+                        .map(tableScan.getAssignments()::get)
+                        .collect(toImmutableList()),
+                tableScan.getEnforcedConstraint());
+    }
+
+    @JsonProperty
+    public CatalogName getCatalogName()
+    {
+        return catalogName;
+    }
+
+    @JsonProperty
+    public ConnectorTableHandle getConnectorHandle()
+    {
+        return connectorHandle;
+    }
+
+    @JsonProperty
+    public Optional<ConnectorTableLayoutHandle> getLayout()
+    {
+        return layout;
+    }
+
+    @JsonProperty
+    public List<ColumnHandle> getColumns()
+    {
+        return columns;
+    }
+
+    @JsonProperty
+    public TupleDomain<ColumnHandle> getEnforcedConstraint()
+    {
+        return enforcedConstraint;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.scheduler;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSortedMap;
+import io.airlift.slice.XxHash64;
+import io.prestosql.metadata.InternalNode;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.Iterables.concat;
+import static io.airlift.slice.Slices.utf8Slice;
+
+/**
+ * Maps keys to nodes such that adding or removing a node only moves the keys
+ * owned by that node. Each node is placed on the ring at several points
+ * derived from its node identifier, so that the mapping is the same on every
+ * coordinator and does not depend on the order in which nodes are discovered.
+ */
+final class ConsistentHashRing
+{
+    private final ImmutableSortedMap<Long, InternalNode> ring;
+    private final int nodeCount;
+
+    public ConsistentHashRing(Collection<InternalNode> nodes, int virtualNodesPerNode)
+    {
+        checkArgument(virtualNodesPerNode > 0, "virtualNodesPerNode must be positive");
+        ImmutableSortedMap.Builder<Long, InternalNode> ring = ImmutableSortedMap.naturalOrder();
+        Set<Long> positions = new HashSet<>();
+        for (InternalNode node : nodes) {
+            for (int i = 0; i < virtualNodesPerNode; i++) {
+                long position = XxHash64.hash(utf8Slice(node.getNodeIdentifier() + ":" + i));
+                // on the unlikely collision, the first node keeps the position
+                if (positions.add(position)) {
+                    ring.put(position, node);
+                }
+            }
+        }
+        this.ring = ring.build();
+        this.nodeCount = nodes.size();
+    }
+
+    /**
+     * Returns up to {@code limit} distinct nodes for the key, in order of preference.
+     */
+    public List<InternalNode> getNodes(String key, int limit)
+    {
+        if (ring.isEmpty()) {
+            return ImmutableList.of();
+        }
+
+        long position = XxHash64.hash(utf8Slice(key));
+        Iterator<InternalNode> iterator = concat(ring.tailMap(position).values(), ring.headMap(position).values()).iterator();
+        Set<InternalNode> nodes = new LinkedHashSet<>();
+        int maxNodes = Math.min(limit, nodeCount);
+        while (nodes.size() < maxNodes && iterator.hasNext()) {
+            nodes.add(iterator.next());
+        }
+        return ImmutableList.copyOf(nodes);
+    }
+}
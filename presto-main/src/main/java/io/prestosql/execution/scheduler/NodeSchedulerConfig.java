@@ -27,7 +27,7 @@ public class NodeSchedulerConfig
 {
     public enum NodeSchedulerPolicy
     {
-        UNIFORM, TOPOLOGY
+        UNIFORM, TOPOLOGY, SOFT_AFFINITY
     }
 
     private int minCandidates = 10;
@@ -61,6 +61,8 @@ public class NodeSchedulerConfig
             case "flat":
             case "topology":
                 return NodeSchedulerPolicy.TOPOLOGY;
+            case "soft_affinity":
+                return NodeSchedulerPolicy.SOFT_AFFINITY;
             default:
                 throw new IllegalArgumentException("Unknown node scheduler policy: " + nodeSchedulerPolicy);
         }
@@ -0,0 +1,94 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.scheduler;
+
+import io.prestosql.execution.NodeTaskMap;
+import io.prestosql.metadata.InternalNode;
+import io.prestosql.metadata.InternalNodeManager;
+import io.prestosql.metadata.Split;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+
+/**
+ * Places splits that have an affinity key on the nodes the key maps to on a consistent
+ * hash ring, so that repeated reads of the same data land on the same node and can be
+ * served from its local caches. The preferred nodes are tried in order and skipped when
+ * they have more than {@code maxLoadImbalance} splits over the least loaded of the random
+ * candidates, which the split is placed on otherwise, so that a hot key cannot overload
+ * a single node.
+ */
+public class SoftAffinityNodeSelector
+        extends UniformNodeSelector
+{
+    private final int affinityCandidates;
+    private final int virtualNodesPerNode;
+    private final int maxLoadImbalance;
+
+    @GuardedBy("this")
+    private NodeMap ringNodeMap;
+    @GuardedBy("this")
+    private ConsistentHashRing ring;
+
+    public SoftAffinityNodeSelector(
+            InternalNodeManager nodeManager,
+            NodeTaskMap nodeTaskMap,
+            boolean includeCoordinator,
+            Supplier<NodeMap> nodeMap,
+            int minCandidates,
+            int maxSplitsPerNode,
+            int maxPendingSplitsPerTask,
+            int affinityCandidates,
+            int virtualNodesPerNode,
+            int maxLoadImbalance)
+    {
+        // the splits placed by affinity are not local to any node, so the rebalancing of locality-based scheduling would move them
+        super(nodeManager, nodeTaskMap, includeCoordinator, nodeMap, minCandidates, maxSplitsPerNode, maxPendingSplitsPerTask, false);
+        this.affinityCandidates = affinityCandidates;
+        this.virtualNodesPerNode = virtualNodesPerNode;
+        this.maxLoadImbalance = maxLoadImbalance;
+    }
+
+    @Override
+    protected Optional<InternalNode> selectPreferredNode(Split split, NodeMap nodeMap, NodeAssignmentStats assignmentStats, int leastSplitCount)
+    {
+        if (!split.getAffinityKey().isPresent()) {
+            return Optional.empty();
+        }
+        return getRing(nodeMap).getNodes(split.getAffinityKey().get(), affinityCandidates).stream()
+                .filter(node -> {
+                    int totalSplitCount = assignmentStats.getTotalSplitCount(node);
+                    return totalSplitCount < getMaxSplitsPerNode() && totalSplitCount - leastSplitCount <= maxLoadImbalance;
+                })
+                .findFirst();
+    }
+
+    private synchronized ConsistentHashRing getRing(NodeMap nodeMap)
+    {
+        // the node map is refreshed periodically, the ring is only rebuilt when it changes
+        if (ring == null || ringNodeMap != nodeMap) {
+            List<InternalNode> nodes = nodeMap.getNodesByHostAndPort().values().stream()
+                    .filter(node -> isIncludeCoordinator() || !nodeMap.getCoordinatorNodeIds().contains(node.getNodeIdentifier()))
+                    .collect(toImmutableList());
+            ring = new ConsistentHashRing(nodes, virtualNodesPerNode);
+            ringNodeMap = nodeMap;
+        }
+        return ring;
+    }
+}
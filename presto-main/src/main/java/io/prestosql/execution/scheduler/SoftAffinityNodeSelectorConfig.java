@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.scheduler;
+
+import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
+
+import javax.validation.constraints.Min;
+
+public class SoftAffinityNodeSelectorConfig
+{
+    private int candidates = 2;
+    private int virtualNodesPerNode = 64;
+    private int maxLoadImbalance = 5;
+
+    @Min(1)
+    public int getCandidates()
+    {
+        return candidates;
+    }
+
+    @Config("node-scheduler.soft-affinity.candidates")
+    @ConfigDescription("Number of preferred nodes tried, in order, for a split with an affinity key before it is placed on the least loaded node")
+    public SoftAffinityNodeSelectorConfig setCandidates(int candidates)
+    {
+        this.candidates = candidates;
+        return this;
+    }
+
+    @Min(1)
+    public int getVirtualNodesPerNode()
+    {
+        return virtualNodesPerNode;
+    }
+
+    @Config("node-scheduler.soft-affinity.virtual-nodes-per-node")
+    @ConfigDescription("Number of points each node occupies on the consistent hash ring used to map affinity keys to nodes")
+    public SoftAffinityNodeSelectorConfig setVirtualNodesPerNode(int virtualNodesPerNode)
+    {
+        this.virtualNodesPerNode = virtualNodesPerNode;
+        return this;
+    }
+
+    @Min(0)
+    public int getMaxLoadImbalance()
+    {
+        return maxLoadImbalance;
+    }
+
+    @Config("node-scheduler.soft-affinity.max-load-imbalance")
+    @ConfigDescription("Maximum number of splits by which a preferred node may exceed the least loaded candidate node before the split is placed on the latter")
+    public SoftAffinityNodeSelectorConfig setMaxLoadImbalance(int maxLoadImbalance)
+    {
+        this.maxLoadImbalance = maxLoadImbalance;
+        return this;
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.scheduler;
+
+import io.prestosql.execution.NodeTaskMap;
+import io.prestosql.metadata.InternalNodeManager;
+
+import javax.inject.Inject;
+
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+public class SoftAffinityNodeSelectorFactory
+        extends UniformNodeSelectorFactory
+{
+    private final int affinityCandidates;
+    private final int virtualNodesPerNode;
+    private final int maxLoadImbalance;
+
+    @Inject
+    public SoftAffinityNodeSelectorFactory(
+            InternalNodeManager nodeManager,
+            NodeSchedulerConfig schedulerConfig,
+            NodeTaskMap nodeTaskMap,
+            SoftAffinityNodeSelectorConfig softAffinityConfig)
+    {
+        super(nodeManager, schedulerConfig, nodeTaskMap);
+        requireNonNull(softAffinityConfig, "softAffinityConfig is null");
+        this.affinityCandidates = softAffinityConfig.getCandidates();
+        this.virtualNodesPerNode = softAffinityConfig.getVirtualNodesPerNode();
+        this.maxLoadImbalance = softAffinityConfig.getMaxLoadImbalance();
+    }
+
+    @Override
+    protected UniformNodeSelector createNodeSelector(
+            InternalNodeManager nodeManager,
+            NodeTaskMap nodeTaskMap,
+            boolean includeCoordinator,
+            Supplier<NodeMap> nodeMap,
+            int minCandidates,
+            int maxSplitsPerNode,
+            int maxPendingSplitsPerTask,
+            boolean optimizedLocalScheduling)
+    {
+        return new SoftAffinityNodeSelector(
+                nodeManager,
+                nodeTaskMap,
+                includeCoordinator,
+                nodeMap,
+                minCandidates,
+                maxSplitsPerNode,
+                maxPendingSplitsPerTask,
+                affinityCandidates,
+                virtualNodesPerNode,
+                maxLoadImbalance);
+    }
+}
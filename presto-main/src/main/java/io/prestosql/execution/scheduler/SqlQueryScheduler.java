@@ -41,6 +41,8 @@ import io.prestosql.execution.buffer.OutputBuffers;
 import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
 import io.prestosql.failuredetector.FailureDetector;
 import io.prestosql.metadata.InternalNode;
+import io.prestosql.server.DynamicFilterService;
+import io.prestosql.server.DynamicFilterService.StageDynamicFilters;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.connector.ConnectorPartitionHandle;
 import io.prestosql.split.SplitSource;
@@ -119,6 +121,7 @@ public class SqlQueryScheduler
     private final Map<StageId, StageScheduler> stageSchedulers;
     private final Map<StageId, StageLinkage> stageLinkages;
     private final SplitSchedulerStats schedulerStats;
+    private final DynamicFilterService dynamicFilterService;
     private final boolean summarizeTaskInfo;
     private final AtomicBoolean started = new AtomicBoolean();
 
@@ -138,7 +141,8 @@ public class SqlQueryScheduler
             OutputBuffers rootOutputBuffers,
             NodeTaskMap nodeTaskMap,
             ExecutionPolicy executionPolicy,
-            SplitSchedulerStats schedulerStats)
+            SplitSchedulerStats schedulerStats,
+            DynamicFilterService dynamicFilterService)
     {
         SqlQueryScheduler sqlQueryScheduler = new SqlQueryScheduler(
                 queryStateMachine,
@@ -156,7 +160,8 @@ public class SqlQueryScheduler
                 rootOutputBuffers,
                 nodeTaskMap,
                 executionPolicy,
-                schedulerStats);
+                schedulerStats,
+                dynamicFilterService);
         sqlQueryScheduler.initialize();
         return sqlQueryScheduler;
     }
@@ -177,11 +182,13 @@ public class SqlQueryScheduler
             OutputBuffers rootOutputBuffers,
             NodeTaskMap nodeTaskMap,
             ExecutionPolicy executionPolicy,
-            SplitSchedulerStats schedulerStats)
+            SplitSchedulerStats schedulerStats,
+            DynamicFilterService dynamicFilterService)
     {
         this.queryStateMachine = requireNonNull(queryStateMachine, "queryStateMachine is null");
         this.executionPolicy = requireNonNull(executionPolicy, "schedulerPolicyFactory is null");
         this.schedulerStats = requireNonNull(schedulerStats, "schedulerStats is null");
+        this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
         this.summarizeTaskInfo = summarizeTaskInfo;
 
         // todo come up with a better way to build this, or eliminate this map
@@ -311,6 +318,7 @@ public class SqlQueryScheduler
                 queryExecutor,
                 failureDetector,
                 schedulerStats);
+        dynamicFilterService.addDynamicFilterConsumer(queryStateMachine.getQueryId(), plan.getFragment(), stage::addDynamicFilterDomains);
 
         stages.add(stage);
 
@@ -469,6 +477,17 @@ public class SqlQueryScheduler
         return aggregateBasicStageStats(stageStats);
     }
 
+    public List<StageDynamicFilters> getStageDynamicFilters()
+    {
+        return stages.values().stream()
+                .map(stage -> new StageDynamicFilters(
+                        stage.isSchedulingComplete(),
+                        stage.getAllTasks().stream()
+                                .map(task -> task.getTaskInfo().getDynamicFilterDomains())
+                                .collect(toImmutableList())))
+                .collect(toImmutableList());
+    }
+
     public StageInfo getStageInfo()
     {
         Map<StageId, StageInfo> stageInfos = stages.values().stream()
@@ -174,6 +174,12 @@ public class UniformNodeSelector
                     min = totalSplitCount;
                 }
             }
+            if (split.isRemotelyAccessible()) {
+                Optional<InternalNode> preferredNode = selectPreferredNode(split, nodeMap, assignmentStats, min);
+                if (preferredNode.isPresent()) {
+                    chosenNode = preferredNode.get();
+                }
+            }
             if (chosenNode == null) {
                 // min is guaranteed to be MAX_VALUE at this line
                 for (InternalNode node : candidateNodes) {
@@ -219,6 +225,26 @@ public class UniformNodeSelector
         return selectDistributionNodes(nodeMap.get().get(), nodeTaskMap, maxSplitsPerNode, maxPendingSplitsPerTask, splits, existingTasks, bucketNodeMap);
     }
 
+    /**
+     * Returns the node that a remotely accessible split is placed on instead of the least loaded candidate node.
+     * @param leastSplitCount the number of splits of the least loaded candidate node, or {@link Integer#MAX_VALUE}
+     * if every candidate node has {@code maxSplitsPerNode} splits
+     */
+    protected Optional<InternalNode> selectPreferredNode(Split split, NodeMap nodeMap, NodeAssignmentStats assignmentStats, int leastSplitCount)
+    {
+        return Optional.empty();
+    }
+
+    protected int getMaxSplitsPerNode()
+    {
+        return maxSplitsPerNode;
+    }
+
+    protected boolean isIncludeCoordinator()
+    {
+        return includeCoordinator;
+    }
+
     /**
      * The method tries to make the distribution of splits more uniform. All nodes are arranged into a maxHeap and a minHeap
      * based on the number of splits that are assigned to them. Splits are redistributed, one at a time, from a maxNode to a
@@ -86,6 +86,27 @@ public class UniformNodeSelectorFactory
                 () -> createNodeMap(catalogName),
                 5, TimeUnit.SECONDS);
 
+        return createNodeSelector(
+                nodeManager,
+                nodeTaskMap,
+                includeCoordinator,
+                nodeMap,
+                minCandidates,
+                maxSplitsPerNode,
+                maxPendingSplitsPerTask,
+                optimizedLocalScheduling);
+    }
+
+    protected UniformNodeSelector createNodeSelector(
+            InternalNodeManager nodeManager,
+            NodeTaskMap nodeTaskMap,
+            boolean includeCoordinator,
+            Supplier<NodeMap> nodeMap,
+            int minCandidates,
+            int maxSplitsPerNode,
+            int maxPendingSplitsPerTask,
+            boolean optimizedLocalScheduling)
+    {
         return new UniformNodeSelector(
                 nodeManager,
                 nodeTaskMap,
@@ -17,6 +17,7 @@ import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.units.DataSize;
+import io.prestosql.execution.resultcache.FragmentResultCacheManager;
 import io.prestosql.spi.memory.MemoryPoolId;
 import io.prestosql.spi.memory.MemoryPoolInfo;
 
@@ -46,19 +47,25 @@ public final class LocalMemoryManager
     private Map<MemoryPoolId, MemoryPool> pools;
 
     @Inject
-    public LocalMemoryManager(NodeMemoryConfig config)
+    public LocalMemoryManager(NodeMemoryConfig config, FragmentResultCacheManager fragmentResultCacheManager)
     {
-        this(config, Runtime.getRuntime().maxMemory());
+        this(config, Runtime.getRuntime().maxMemory(), requireNonNull(fragmentResultCacheManager, "fragmentResultCacheManager is null").getMaxSizeInBytes());
     }
 
     @VisibleForTesting
     LocalMemoryManager(NodeMemoryConfig config, long availableMemory)
+    {
+        this(config, availableMemory, 0);
+    }
+
+    @VisibleForTesting
+    LocalMemoryManager(NodeMemoryConfig config, long availableMemory, long fragmentResultCacheSize)
     {
         requireNonNull(config, "config is null");
-        configureMemoryPools(config, availableMemory);
+        configureMemoryPools(config, availableMemory, fragmentResultCacheSize);
     }
 
-    private void configureMemoryPools(NodeMemoryConfig config, long availableMemory)
+    private void configureMemoryPools(NodeMemoryConfig config, long availableMemory, long fragmentResultCacheSize)
     {
         validateHeapHeadroom(config, availableMemory);
         maxMemory = new DataSize(availableMemory - config.getHeapHeadroom().toBytes(), BYTE);
@@ -73,6 +80,8 @@ public final class LocalMemoryManager
             builder.put(RESERVED_POOL, new MemoryPool(RESERVED_POOL, config.getMaxQueryTotalMemoryPerNode()));
             generalPoolSize -= config.getMaxQueryTotalMemoryPerNode().toBytes();
         }
+        // pages held by the fragment result cache are not charged to any query
+        generalPoolSize -= fragmentResultCacheSize;
         verify(generalPoolSize > 0, "general memory pool size is 0");
         builder.put(GENERAL_POOL, new MemoryPool(GENERAL_POOL, new DataSize(generalPoolSize, BYTE)));
         this.pools = builder.build();
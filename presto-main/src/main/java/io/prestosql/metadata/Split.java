@@ -21,6 +21,7 @@ import io.prestosql.spi.HostAddress;
 import io.prestosql.spi.connector.ConnectorSplit;
 
 import java.util.List;
+import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static java.util.Objects.requireNonNull;
@@ -75,6 +76,16 @@ public final class Split
         return connectorSplit.isRemotelyAccessible();
     }
 
+    public Optional<String> getAffinityKey()
+    {
+        return connectorSplit.getAffinityKey();
+    }
+
+    public Optional<String> getCacheIdentifier()
+    {
+        return connectorSplit.getCacheIdentifier();
+    }
+
     @Override
     public String toString()
     {
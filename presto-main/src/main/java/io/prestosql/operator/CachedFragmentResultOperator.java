@@ -0,0 +1,107 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import io.prestosql.metadata.Split;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.UpdatablePageSource;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Replaces the leaf operators of a driver whose split output was found in the
+ * {@link io.prestosql.execution.resultcache.FragmentResultCacheManager}.
+ * The split is accepted but never read.
+ */
+public class CachedFragmentResultOperator
+        implements SourceOperator
+{
+    private final OperatorContext operatorContext;
+    private final PlanNodeId sourceId;
+    private final Iterator<Page> pages;
+
+    public CachedFragmentResultOperator(OperatorContext operatorContext, PlanNodeId sourceId, List<Page> pages)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.sourceId = requireNonNull(sourceId, "sourceId is null");
+        this.pages = ImmutableList.copyOf(requireNonNull(pages, "pages is null")).iterator();
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public PlanNodeId getSourceId()
+    {
+        return sourceId;
+    }
+
+    @Override
+    public Supplier<Optional<UpdatablePageSource>> addSplit(Split split)
+    {
+        requireNonNull(split, "split is null");
+        return Optional::empty;
+    }
+
+    @Override
+    public void noMoreSplits()
+    {
+    }
+
+    @Override
+    public void finish()
+    {
+        Iterators.size(pages);
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return !pages.hasNext();
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return false;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        throw new UnsupportedOperationException(getClass().getName() + " can not take input");
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        if (!pages.hasNext()) {
+            return null;
+        }
+        Page page = pages.next();
+        operatorContext.recordProcessedInput(page.getSizeInBytes(), page.getPositionCount());
+        return page;
+    }
+}
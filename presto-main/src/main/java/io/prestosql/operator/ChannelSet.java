@@ -14,12 +14,15 @@
 package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableList;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.type.Type;
 import io.prestosql.sql.gen.JoinCompiler;
 
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -86,6 +89,11 @@ public class ChannelSet
         private final LocalMemoryContext localMemoryContext;
 
         public ChannelSetBuilder(Type type, Optional<Integer> hashChannel, int expectedPositions, OperatorContext operatorContext, JoinCompiler joinCompiler)
+        {
+            this(type, hashChannel, expectedPositions, operatorContext, operatorContext.localUserMemoryContext(), joinCompiler);
+        }
+
+        public ChannelSetBuilder(Type type, Optional<Integer> hashChannel, int expectedPositions, OperatorContext operatorContext, LocalMemoryContext localMemoryContext, JoinCompiler joinCompiler)
         {
             List<Type> types = ImmutableList.of(type);
             this.hash = createGroupByHash(
@@ -98,7 +106,7 @@ public class ChannelSet
                     this::updateMemoryReservation);
             this.nullBlockPage = new Page(type.createBlockBuilder(null, 1, UNKNOWN.getFixedSize()).appendNull().build());
             this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
-            this.localMemoryContext = operatorContext.localUserMemoryContext();
+            this.localMemoryContext = requireNonNull(localMemoryContext, "localMemoryContext is null");
         }
 
         public ChannelSet build()
@@ -116,6 +124,35 @@ public class ChannelSet
             return hash.getGroupCount();
         }
 
+        /**
+         * Returns the distinct values added so far, in single channel pages.
+         */
+        public Iterator<Page> getValuePages()
+        {
+            return new AbstractIterator<Page>()
+            {
+                private final PageBuilder pageBuilder = new PageBuilder(hash.getTypes());
+                private int groupId;
+
+                @Override
+                protected Page computeNext()
+                {
+                    if (groupId == hash.getGroupCount()) {
+                        return endOfData();
+                    }
+
+                    pageBuilder.reset();
+                    while (!pageBuilder.isFull() && groupId < hash.getGroupCount()) {
+                        hash.appendValuesTo(groupId, pageBuilder, 0);
+                        pageBuilder.declarePosition();
+                        groupId++;
+                    }
+                    // drop the raw hash, if any, as it is not computed consistently across GroupByHash implementations
+                    return new Page(pageBuilder.build().getBlock(0));
+                }
+            };
+        }
+
         public Work<?> addPage(Page page)
         {
             // Just add the page to the pending work, which will be processed later.
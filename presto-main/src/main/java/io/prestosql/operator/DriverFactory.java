@@ -16,6 +16,10 @@ package io.prestosql.operator;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Sets;
 import io.prestosql.execution.Lifespan;
+import io.prestosql.execution.resultcache.FragmentResultCacheKey;
+import io.prestosql.metadata.Split;
+import io.prestosql.operator.FragmentResultCacheOperator.FragmentResultCacheOperatorFactory;
+import io.prestosql.spi.Page;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
 import java.util.HashSet;
@@ -28,6 +32,7 @@ import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterables.getLast;
 import static java.util.Objects.requireNonNull;
 
 public class DriverFactory
@@ -37,6 +42,7 @@ public class DriverFactory
     private final boolean outputDriver;
     private final List<OperatorFactory> operatorFactories;
     private final Optional<PlanNodeId> sourceId;
+    private final Optional<FragmentResultCacheOperatorFactory> fragmentResultCacheOperatorFactory;
     private final OptionalInt driverInstances;
     private final PipelineExecutionStrategy pipelineExecutionStrategy;
 
@@ -61,6 +67,16 @@ public class DriverFactory
                 .collect(toImmutableList());
         checkArgument(sourceIds.size() <= 1, "Expected at most one source operator in driver factory, but found %s", sourceIds);
         this.sourceId = sourceIds.isEmpty() ? Optional.empty() : Optional.of(sourceIds.get(0));
+
+        List<FragmentResultCacheOperatorFactory> cacheOperatorFactories = operatorFactories.stream()
+                .filter(FragmentResultCacheOperatorFactory.class::isInstance)
+                .map(FragmentResultCacheOperatorFactory.class::cast)
+                .collect(toImmutableList());
+        checkArgument(cacheOperatorFactories.size() <= 1, "Expected at most one fragment result cache operator in driver factory");
+        this.fragmentResultCacheOperatorFactory = cacheOperatorFactories.stream().findFirst();
+        fragmentResultCacheOperatorFactory.ifPresent(factory -> checkArgument(
+                sourceId.isPresent() && operatorFactories.indexOf(factory) == operatorFactories.size() - 2,
+                "Fragment result cache operator must directly precede the output operator of a source pipeline"));
     }
 
     public int getPipelineId()
@@ -103,15 +119,45 @@ public class DriverFactory
         return operatorFactories;
     }
 
-    public synchronized Driver createDriver(DriverContext driverContext)
+    public Driver createDriver(DriverContext driverContext)
+    {
+        return createDriver(driverContext, Optional.empty());
+    }
+
+    /**
+     * Creates a driver for the given partitioned split. When the pipeline caches its results
+     * and the output for the split is already cached, the driver only replays the cached
+     * pages into the output operator.
+     */
+    public synchronized Driver createDriver(DriverContext driverContext, Optional<Split> partitionedSplit)
     {
         checkState(!closed, "DriverFactory is already closed");
         requireNonNull(driverContext, "driverContext is null");
+        requireNonNull(partitionedSplit, "partitionedSplit is null");
         checkState(!closedLifespans.contains(driverContext.getLifespan()), "DriverFactory is already closed for driver group %s", driverContext.getLifespan());
         encounteredLifespans.add(driverContext.getLifespan());
+
+        Optional<FragmentResultCacheKey> cacheKey = fragmentResultCacheOperatorFactory.flatMap(factory -> partitionedSplit.flatMap(factory::createCacheKey));
+        if (cacheKey.isPresent()) {
+            FragmentResultCacheOperatorFactory cacheOperatorFactory = fragmentResultCacheOperatorFactory.get();
+            Optional<List<Page>> cachedResult = cacheOperatorFactory.getCachedResult(cacheKey.get());
+            if (cachedResult.isPresent()) {
+                return Driver.createDriver(
+                        driverContext,
+                        cacheOperatorFactory.createCachedResultOperator(driverContext, sourceId.get(), cachedResult.get()),
+                        getLast(operatorFactories).createOperator(driverContext));
+            }
+        }
+
         ImmutableList.Builder<Operator> operators = ImmutableList.builder();
         for (OperatorFactory operatorFactory : operatorFactories) {
-            Operator operator = operatorFactory.createOperator(driverContext);
+            Operator operator;
+            if (operatorFactory instanceof FragmentResultCacheOperatorFactory) {
+                operator = ((FragmentResultCacheOperatorFactory) operatorFactory).createOperator(driverContext, cacheKey);
+            }
+            else {
+                operator = operatorFactory.createOperator(driverContext);
+            }
             operators.add(operator);
         }
         return Driver.createDriver(driverContext, operators.build());
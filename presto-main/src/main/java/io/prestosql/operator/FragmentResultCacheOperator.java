@@ -0,0 +1,200 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import io.prestosql.execution.resultcache.FragmentResultCacheKey;
+import io.prestosql.execution.resultcache.FragmentResultCacheManager;
+import io.prestosql.memory.context.LocalMemoryContext;
+import io.prestosql.metadata.Split;
+import io.prestosql.spi.Page;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Passes pages through unchanged while recording them, and stores the recorded pages in the
+ * {@link FragmentResultCacheManager} once the split has been fully processed.
+ */
+public class FragmentResultCacheOperator
+        implements Operator
+{
+    public static class FragmentResultCacheOperatorFactory
+            implements OperatorFactory
+    {
+        private final int operatorId;
+        private final int cachedResultOperatorId;
+        private final PlanNodeId planNodeId;
+        private final FragmentResultCacheManager cacheManager;
+        private final String planHash;
+        private boolean closed;
+
+        public FragmentResultCacheOperatorFactory(
+                int operatorId,
+                int cachedResultOperatorId,
+                PlanNodeId planNodeId,
+                FragmentResultCacheManager cacheManager,
+                String planHash)
+        {
+            this.operatorId = operatorId;
+            this.cachedResultOperatorId = cachedResultOperatorId;
+            this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
+            this.cacheManager = requireNonNull(cacheManager, "cacheManager is null");
+            this.planHash = requireNonNull(planHash, "planHash is null");
+        }
+
+        public Optional<FragmentResultCacheKey> createCacheKey(Split split)
+        {
+            return split.getCacheIdentifier()
+                    .map(identifier -> new FragmentResultCacheKey(planHash, split.getCatalogName().getCatalogName(), identifier));
+        }
+
+        public Optional<List<Page>> getCachedResult(FragmentResultCacheKey cacheKey)
+        {
+            return cacheManager.get(cacheKey);
+        }
+
+        /**
+         * Creates the operator that produces the cached result in place of the operators
+         * preceding this one in the pipeline.
+         */
+        public SourceOperator createCachedResultOperator(DriverContext driverContext, PlanNodeId sourceId, List<Page> pages)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(cachedResultOperatorId, sourceId, CachedFragmentResultOperator.class.getSimpleName());
+            return new CachedFragmentResultOperator(operatorContext, sourceId, pages);
+        }
+
+        @Override
+        public Operator createOperator(DriverContext driverContext)
+        {
+            return createOperator(driverContext, Optional.empty());
+        }
+
+        public Operator createOperator(DriverContext driverContext, Optional<FragmentResultCacheKey> cacheKey)
+        {
+            checkState(!closed, "Factory is already closed");
+            OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, FragmentResultCacheOperator.class.getSimpleName());
+            return new FragmentResultCacheOperator(operatorContext, cacheManager, cacheKey);
+        }
+
+        @Override
+        public void noMoreOperators()
+        {
+            closed = true;
+        }
+
+        @Override
+        public OperatorFactory duplicate()
+        {
+            return new FragmentResultCacheOperatorFactory(operatorId, cachedResultOperatorId, planNodeId, cacheManager, planHash);
+        }
+    }
+
+    private final OperatorContext operatorContext;
+    private final FragmentResultCacheManager cacheManager;
+    private final LocalMemoryContext systemMemoryContext;
+
+    private Optional<FragmentResultCacheKey> cacheKey;
+    private final List<Page> recordedPages = new ArrayList<>();
+    private long recordedSizeInBytes;
+
+    private Page outputPage;
+    private boolean finishing;
+
+    public FragmentResultCacheOperator(OperatorContext operatorContext, FragmentResultCacheManager cacheManager, Optional<FragmentResultCacheKey> cacheKey)
+    {
+        this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.cacheManager = requireNonNull(cacheManager, "cacheManager is null");
+        this.cacheKey = requireNonNull(cacheKey, "cacheKey is null");
+        this.systemMemoryContext = operatorContext.localSystemMemoryContext();
+    }
+
+    @Override
+    public OperatorContext getOperatorContext()
+    {
+        return operatorContext;
+    }
+
+    @Override
+    public void finish()
+    {
+        if (finishing) {
+            return;
+        }
+        finishing = true;
+        if (cacheKey.isPresent()) {
+            cacheManager.put(cacheKey.get(), recordedPages);
+            stopRecording();
+        }
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return finishing && outputPage == null;
+    }
+
+    @Override
+    public boolean needsInput()
+    {
+        return !finishing && outputPage == null;
+    }
+
+    @Override
+    public void addInput(Page page)
+    {
+        checkState(needsInput(), "Operator does not need input");
+        requireNonNull(page, "page is null");
+
+        if (cacheKey.isPresent()) {
+            page = page.getLoadedPage();
+            recordedSizeInBytes += page.getRetainedSizeInBytes();
+            if (recordedSizeInBytes > cacheManager.getMaxEntrySizeInBytes()) {
+                stopRecording();
+            }
+            else {
+                recordedPages.add(page);
+                systemMemoryContext.setBytes(recordedSizeInBytes);
+            }
+        }
+        outputPage = page;
+    }
+
+    @Override
+    public Page getOutput()
+    {
+        Page page = outputPage;
+        outputPage = null;
+        return page;
+    }
+
+    @Override
+    public void close()
+    {
+        stopRecording();
+    }
+
+    private void stopRecording()
+    {
+        cacheKey = Optional.empty();
+        recordedPages.clear();
+        recordedSizeInBytes = 0;
+        systemMemoryContext.setBytes(0);
+    }
+}
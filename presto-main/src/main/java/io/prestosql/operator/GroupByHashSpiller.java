@@ -0,0 +1,250 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.io.Closer;
+import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.slice.XxHash64;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.PageBuilder;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.RunLengthEncodedBlock;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.singletonIterator;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Spills the groups of a {@link GroupByHash} together with their state, and then any input
+ * received by the operator, partitioned on the group by channels. The spilled partitions can
+ * be processed one at a time by rebuilding the groups of a partition before replaying its input.
+ */
+class GroupByHashSpiller
+        implements Closeable
+{
+    static final int SPILL_PARTITION_COUNT = 16;
+
+    private final List<Type> inputTypes;
+    private final int[] groupByChannels;
+    private final Optional<Integer> inputHashChannel;
+    private final List<Type> groupTypes;
+    private final int groupStateChannel;
+    private final PartitioningSpiller groupsSpiller;
+    private final PartitioningSpiller inputSpiller;
+
+    private ListenableFuture<?> spillInProgress = immediateFuture(null);
+
+    /**
+     * @param groupStateTypes types of the state of every group, written by the {@link GroupStateWriter} passed to {@link #spillGroups}
+     */
+    GroupByHashSpiller(
+            List<Type> inputTypes,
+            List<Integer> groupByChannels,
+            Optional<Integer> inputHashChannel,
+            List<Type> groupStateTypes,
+            PartitioningSpillerFactory partitioningSpillerFactory,
+            OperatorContext operatorContext)
+    {
+        this.inputTypes = ImmutableList.copyOf(requireNonNull(inputTypes, "inputTypes is null"));
+        this.groupByChannels = Ints.toArray(requireNonNull(groupByChannels, "groupByChannels is null"));
+        checkArgument(this.groupByChannels.length > 0, "groupByChannels is empty");
+        this.inputHashChannel = requireNonNull(inputHashChannel, "inputHashChannel is null");
+        requireNonNull(groupStateTypes, "groupStateTypes is null");
+        requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+        requireNonNull(operatorContext, "operatorContext is null");
+
+        // groups are laid out as GroupByHash#appendValuesTo writes them, followed by the group state
+        List<Type> groupByTypes = groupByChannels.stream()
+                .map(inputTypes::get)
+                .collect(toImmutableList());
+        ImmutableList.Builder<Type> groupTypes = ImmutableList.<Type>builder().addAll(groupByTypes);
+        inputHashChannel.ifPresent(channel -> groupTypes.add(BIGINT));
+        this.groupStateChannel = groupByTypes.size() + (inputHashChannel.isPresent() ? 1 : 0);
+        this.groupTypes = groupTypes.addAll(groupStateTypes).build();
+
+        this.groupsSpiller = partitioningSpillerFactory.create(
+                this.groupTypes,
+                partitionGenerator(groupByTypes, IntStream.range(0, groupByTypes.size()).toArray()),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext());
+        this.inputSpiller = partitioningSpillerFactory.create(
+                this.inputTypes,
+                partitionGenerator(groupByTypes, this.groupByChannels),
+                operatorContext.getSpillContext().newLocalSpillContext(),
+                operatorContext.newAggregateSystemMemoryContext());
+    }
+
+    private static PartitionFunction partitionGenerator(List<Type> groupByTypes, int[] channels)
+    {
+        HashGenerator hashGenerator = new InterpretedHashGenerator(groupByTypes, channels);
+        // rehash so that the partitions are not correlated with the local exchange partitioning of the input
+        return new LocalPartitionGenerator((position, page) -> XxHash64.hash(hashGenerator.hashPosition(position, page)), SPILL_PARTITION_COUNT);
+    }
+
+    /**
+     * Spills the groups with ids lower than {@code groupCount}.
+     */
+    ListenableFuture<?> spillGroups(GroupByHash groupByHash, int groupCount, GroupStateWriter groupStateWriter)
+    {
+        checkSpillSucceeded();
+        requireNonNull(groupByHash, "groupByHash is null");
+        requireNonNull(groupStateWriter, "groupStateWriter is null");
+
+        Iterator<Page> pages = new AbstractIterator<Page>()
+        {
+            private final PageBuilder pageBuilder = new PageBuilder(groupTypes);
+            private int groupId;
+
+            @Override
+            protected Page computeNext()
+            {
+                if (groupId == groupCount) {
+                    return endOfData();
+                }
+                pageBuilder.reset();
+                while (!pageBuilder.isFull() && groupId < groupCount) {
+                    pageBuilder.declarePosition();
+                    groupByHash.appendValuesTo(groupId, pageBuilder, 0);
+                    groupStateWriter.appendTo(groupId, pageBuilder, groupStateChannel);
+                    groupId++;
+                }
+                return pageBuilder.build();
+            }
+        };
+        spillInProgress = spillPages(groupsSpiller, pages);
+        return spillInProgress;
+    }
+
+    ListenableFuture<?> spillInput(Page page)
+    {
+        return spillInput(singletonIterator(requireNonNull(page, "page is null")));
+    }
+
+    ListenableFuture<?> spillInput(Iterator<Page> pages)
+    {
+        checkSpillSucceeded();
+        spillInProgress = spillPages(inputSpiller, requireNonNull(pages, "pages is null"));
+        return spillInProgress;
+    }
+
+    private static ListenableFuture<?> spillPages(PartitioningSpiller spiller, Iterator<Page> pages)
+    {
+        while (pages.hasNext()) {
+            ListenableFuture<?> spillingFuture = spiller.partitionAndSpill(pages.next(), partition -> true).getSpillingFuture();
+            if (!spillingFuture.isDone()) {
+                return Futures.transformAsync(spillingFuture, ignored -> spillPages(spiller, pages), directExecutor());
+            }
+            checkSuccess(spillingFuture, "spilling failed");
+        }
+        return immediateFuture(null);
+    }
+
+    ListenableFuture<?> getSpillInProgress()
+    {
+        return spillInProgress;
+    }
+
+    private void checkSpillSucceeded()
+    {
+        checkState(spillInProgress.isDone(), "Previous spill still in progress");
+        checkSuccess(spillInProgress, "spilling failed");
+    }
+
+    /**
+     * Returns the spilled groups of the partition in the layout of the input pages, so they can be added
+     * to a {@link GroupByHash} over the input channels. Channels not used for grouping are {@code null},
+     * and the group state follows the input channels.
+     */
+    Iterator<Page> getSpilledGroups(int partition)
+    {
+        checkSpillSucceeded();
+        return Iterators.transform(groupsSpiller.getSpilledPages(partition), this::toInputLayout);
+    }
+
+    Iterator<Page> getSpilledInput(int partition)
+    {
+        checkSpillSucceeded();
+        return inputSpiller.getSpilledPages(partition);
+    }
+
+    /**
+     * Returns the channel of the group state in the pages returned by {@link #getSpilledGroups}.
+     */
+    int getGroupStateChannel()
+    {
+        return inputTypes.size();
+    }
+
+    private Page toInputLayout(Page groups)
+    {
+        int positionCount = groups.getPositionCount();
+        Block[] blocks = new Block[inputTypes.size() + groupTypes.size() - groupStateChannel];
+        for (int channel = 0; channel < inputTypes.size(); channel++) {
+            blocks[channel] = RunLengthEncodedBlock.create(inputTypes.get(channel), null, positionCount);
+        }
+        for (int i = 0; i < groupByChannels.length; i++) {
+            blocks[groupByChannels[i]] = groups.getBlock(i);
+        }
+        inputHashChannel.ifPresent(channel -> blocks[channel] = groups.getBlock(groupByChannels.length));
+        for (int channel = groupStateChannel; channel < groupTypes.size(); channel++) {
+            blocks[inputTypes.size() + channel - groupStateChannel] = groups.getBlock(channel);
+        }
+        return new Page(positionCount, blocks);
+    }
+
+    void verifyAllPartitionsRead()
+    {
+        groupsSpiller.verifyAllPartitionsRead();
+        inputSpiller.verifyAllPartitionsRead();
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        try (Closer closer = Closer.create()) {
+            closer.register(groupsSpiller);
+            closer.register(inputSpiller);
+        }
+    }
+
+    interface GroupStateWriter
+    {
+        GroupStateWriter NO_STATE = (groupId, pageBuilder, channelOffset) -> {};
+
+        void appendTo(int groupId, PageBuilder pageBuilder, int channelOffset);
+    }
+}
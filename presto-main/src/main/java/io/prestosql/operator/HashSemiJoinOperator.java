@@ -15,34 +15,45 @@ package io.prestosql.operator;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ListenableFuture;
-import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.memory.context.MemoryTrackingContext;
+import io.prestosql.operator.PartitionedConsumption.Partition;
 import io.prestosql.operator.SetBuilderOperator.SetSupplier;
 import io.prestosql.operator.WorkProcessor.TransformationState;
 import io.prestosql.operator.WorkProcessorOperatorAdapter.AdapterWorkProcessorOperator;
 import io.prestosql.operator.WorkProcessorOperatorAdapter.AdapterWorkProcessorOperatorFactory;
 import io.prestosql.operator.WorkProcessorOperatorAdapter.ProcessorContext;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
 import javax.annotation.Nullable;
 
+import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
 import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.airlift.concurrent.MoreFutures.getDone;
 import static io.airlift.concurrent.MoreFutures.getFutureValue;
+import static io.prestosql.operator.Operator.NOT_BLOCKED;
+import static io.prestosql.operator.SetBuilderOperator.SPILL_PARTITION_COUNT;
 import static io.prestosql.operator.WorkProcessor.TransformationState.blocked;
 import static io.prestosql.operator.WorkProcessor.TransformationState.finished;
+import static io.prestosql.operator.WorkProcessor.TransformationState.needsMoreData;
 import static io.prestosql.operator.WorkProcessor.TransformationState.ofResult;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class HashSemiJoinOperator
@@ -57,9 +68,22 @@ public class HashSemiJoinOperator
         private final List<Type> probeTypes;
         private final int probeJoinChannel;
         private final Optional<Integer> probeJoinHashChannel;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private boolean closed;
 
         public HashSemiJoinOperatorFactory(int operatorId, PlanNodeId planNodeId, SetSupplier setSupplier, List<? extends Type> probeTypes, int probeJoinChannel, Optional<Integer> probeJoinHashChannel)
+        {
+            this(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel, probeJoinHashChannel, unsupportedPartitioningSpillerFactory());
+        }
+
+        public HashSemiJoinOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                SetSupplier setSupplier,
+                List<? extends Type> probeTypes,
+                int probeJoinChannel,
+                Optional<Integer> probeJoinHashChannel,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -68,6 +92,7 @@ public class HashSemiJoinOperator
             checkArgument(probeJoinChannel >= 0, "probeJoinChannel is negative");
             this.probeJoinChannel = probeJoinChannel;
             this.probeJoinHashChannel = probeJoinHashChannel;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -87,13 +112,13 @@ public class HashSemiJoinOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new HashSemiJoinOperatorFactory(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel, probeJoinHashChannel);
+            return new HashSemiJoinOperatorFactory(operatorId, planNodeId, setSupplier, probeTypes, probeJoinChannel, probeJoinHashChannel, partitioningSpillerFactory);
         }
 
         @Override
         public AdapterWorkProcessorOperator create(ProcessorContext processorContext)
         {
-            return new HashSemiJoinOperator(Optional.empty(), setSupplier, probeJoinChannel, probeJoinHashChannel, processorContext.getMemoryTrackingContext());
+            return new HashSemiJoinOperator(Optional.empty(), setSupplier, probeTypes, probeJoinChannel, probeJoinHashChannel, processorContext, partitioningSpillerFactory);
         }
 
         @Override
@@ -117,26 +142,32 @@ public class HashSemiJoinOperator
         @Override
         public WorkProcessorOperator create(ProcessorContext processorContext, WorkProcessor<Page> sourcePages)
         {
-            return new HashSemiJoinOperator(Optional.of(sourcePages), setSupplier, probeJoinChannel, probeJoinHashChannel, processorContext.getMemoryTrackingContext());
+            return new HashSemiJoinOperator(Optional.of(sourcePages), setSupplier, probeTypes, probeJoinChannel, probeJoinHashChannel, processorContext, partitioningSpillerFactory);
         }
     }
 
     private final WorkProcessor<Page> pages;
     private final PageBuffer pageBuffer = new PageBuffer();
+    private final SemiJoinPages semiJoinPages;
 
     public HashSemiJoinOperator(
             Optional<WorkProcessor<Page>> sourcePages,
             SetSupplier channelSetFuture,
+            List<Type> probeTypes,
             int probeJoinChannel,
             Optional<Integer> probeHashChannel,
-            MemoryTrackingContext memoryTrackingContext)
+            ProcessorContext processorContext,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
+        semiJoinPages = new SemiJoinPages(
+                channelSetFuture,
+                probeTypes,
+                probeJoinChannel,
+                probeHashChannel,
+                processorContext,
+                partitioningSpillerFactory);
         pages = sourcePages.orElse(pageBuffer.pages())
-                .transform(new SemiJoinPages(
-                        channelSetFuture,
-                        probeJoinChannel,
-                        probeHashChannel,
-                        requireNonNull(memoryTrackingContext, "memoryTrackingContext is null").aggregateUserMemoryContext()));
+                .transform(semiJoinPages);
     }
 
     @Override
@@ -167,58 +198,161 @@ public class HashSemiJoinOperator
     public void close()
             throws Exception
     {
+        semiJoinPages.close();
     }
 
-    private class SemiJoinPages
+    private static class SemiJoinPages
             implements WorkProcessor.Transformation<Page, Page>
     {
+        private final SetSupplier setSupplier;
+        private final List<Type> probeTypes;
         private final int probeJoinChannel;
-        private final ListenableFuture<ChannelSet> channelSetFuture;
+        private final ListenableFuture<?> setBuilt;
         private final Optional<Integer> probeHashChannel;
+        private final MemoryTrackingContext memoryTrackingContext;
         private final LocalMemoryContext localMemoryContext;
+        private final SpillContext spillContext;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         @Nullable
         private ChannelSet channelSet;
 
-        public SemiJoinPages(SetSupplier channelSetFuture, int probeJoinChannel, Optional<Integer> probeHashChannel, AggregatedMemoryContext aggregatedMemoryContext)
+        // spilled set processing
+        private Optional<PartitioningSpiller> spiller = Optional.empty();
+        private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+        private ListenableFuture<PartitionedConsumption<ChannelSet>> partitionedConsumption;
+        private Iterator<Partition<ChannelSet>> setPartitions;
+        private Optional<Partition<ChannelSet>> currentPartition = Optional.empty();
+        private ListenableFuture<ChannelSet> currentPartitionSet;
+        private Iterator<Page> unspilledProbePages = emptyIterator();
+
+        public SemiJoinPages(
+                SetSupplier setSupplier,
+                List<Type> probeTypes,
+                int probeJoinChannel,
+                Optional<Integer> probeHashChannel,
+                ProcessorContext processorContext,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             checkArgument(probeJoinChannel >= 0, "probeJoinChannel is negative");
 
-            this.channelSetFuture = requireNonNull(channelSetFuture, "hashProvider is null").getChannelSet();
+            this.setSupplier = requireNonNull(setSupplier, "hashProvider is null");
+            this.setBuilt = setSupplier.getSetBuilt();
+            this.probeTypes = ImmutableList.copyOf(requireNonNull(probeTypes, "probeTypes is null"));
             this.probeJoinChannel = probeJoinChannel;
             this.probeHashChannel = requireNonNull(probeHashChannel, "hashChannel is null");
-            this.localMemoryContext = requireNonNull(aggregatedMemoryContext, "aggregatedMemoryContext is null").newLocalMemoryContext(SemiJoinPages.class.getSimpleName());
+            this.memoryTrackingContext = requireNonNull(processorContext, "processorContext is null").getMemoryTrackingContext();
+            this.localMemoryContext = memoryTrackingContext.aggregateUserMemoryContext().newLocalMemoryContext(SemiJoinPages.class.getSimpleName());
+            this.spillContext = processorContext.getSpillContext();
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
         public TransformationState<Page> process(Page inputPage)
         {
             if (inputPage == null) {
-                return finished();
+                if (!setSupplier.isSpillEnabled()) {
+                    return finished();
+                }
+                return processSpilledPartitions();
             }
 
-            if (channelSet == null) {
-                if (!channelSetFuture.isDone()) {
+            if (channelSet == null && !setSupplier.isSpilled()) {
+                if (!setBuilt.isDone()) {
                     // This will materialize page but it shouldn't matter for the first page
                     localMemoryContext.setBytes(inputPage.getSizeInBytes());
-                    return blocked(channelSetFuture);
+                    return blocked(setBuilt);
                 }
-                checkSuccess(channelSetFuture, "ChannelSet building failed");
-                channelSet = getFutureValue(channelSetFuture);
+                checkSuccess(setBuilt, "ChannelSet building failed");
                 localMemoryContext.setBytes(0);
+                if (!setSupplier.isSpilled()) {
+                    channelSet = getFutureValue(setSupplier.getChannelSet());
+                }
+            }
+
+            if (channelSet == null) {
+                return spillInput(inputPage);
             }
 
+            Optional<Block> hashBlock = probeHashChannel.map(inputPage::getBlock);
+            return ofResult(semiJoin(inputPage, channelSet, channelSet.isEmpty(), channelSet.containsNull(), hashBlock));
+        }
+
+        private TransformationState<Page> spillInput(Page inputPage)
+        {
+            if (!spillInProgress.isDone()) {
+                return blocked(spillInProgress);
+            }
+            checkSuccess(spillInProgress, "spilling failed");
+
+            if (!spiller.isPresent()) {
+                spiller = Optional.of(partitioningSpillerFactory.create(
+                        probeTypes,
+                        new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(setSupplier.getType()), new int[] {probeJoinChannel}), SPILL_PARTITION_COUNT),
+                        spillContext.newLocalSpillContext(),
+                        memoryTrackingContext.newAggregateSystemMemoryContext()));
+            }
+            spillInProgress = spiller.get().partitionAndSpill(inputPage, partition -> true).getSpillingFuture();
+            return needsMoreData();
+        }
+
+        private TransformationState<Page> processSpilledPartitions()
+        {
+            if (partitionedConsumption == null) {
+                if (!spillInProgress.isDone()) {
+                    return blocked(spillInProgress);
+                }
+                checkSuccess(spillInProgress, "spilling failed");
+                partitionedConsumption = setSupplier.finishProbeOperator();
+            }
+
+            if (!partitionedConsumption.isDone()) {
+                return blocked(partitionedConsumption);
+            }
+            if (setPartitions == null) {
+                setPartitions = getDone(partitionedConsumption).beginConsumption();
+            }
+
+            while (true) {
+                if (currentPartition.isPresent()) {
+                    if (!currentPartitionSet.isDone()) {
+                        return blocked(currentPartitionSet);
+                    }
+                    if (unspilledProbePages.hasNext()) {
+                        ChannelSet partitionSet = getDone(currentPartitionSet);
+                        // spilled partitions do not have the precomputed hash
+                        return ofResult(semiJoin(unspilledProbePages.next(), partitionSet, setSupplier.isSpilledSetEmpty(), setSupplier.spilledSetContainsNull(), Optional.empty()), false);
+                    }
+                    currentPartition.get().release();
+                    currentPartition = Optional.empty();
+                    currentPartitionSet = null;
+                }
+
+                if (!setPartitions.hasNext()) {
+                    spiller.ifPresent(PartitioningSpiller::verifyAllPartitionsRead);
+                    return finished();
+                }
+
+                Partition<ChannelSet> partition = setPartitions.next();
+                currentPartition = Optional.of(partition);
+                currentPartitionSet = partition.load();
+                unspilledProbePages = spiller.map(spiller -> spiller.getSpilledPages(partition.number()))
+                        .orElse(emptyIterator());
+            }
+        }
+
+        private Page semiJoin(Page inputPage, ChannelSet channelSet, boolean setEmpty, boolean setContainsNull, Optional<Block> hashBlock)
+        {
             // create the block builder for the new boolean column
             // we know the exact size required for the block
             BlockBuilder blockBuilder = BOOLEAN.createFixedSizeBlockBuilder(inputPage.getPositionCount());
 
             Page probeJoinPage = new Page(inputPage.getBlock(probeJoinChannel));
-            Optional<Block> hashBlock = probeHashChannel.map(inputPage::getBlock);
 
             // update hashing strategy to use probe cursor
             for (int position = 0; position < inputPage.getPositionCount(); position++) {
                 if (probeJoinPage.getBlock(0).isNull(position)) {
-                    if (channelSet.isEmpty()) {
+                    if (setEmpty) {
                         BOOLEAN.writeBoolean(blockBuilder, false);
                     }
                     else {
@@ -234,7 +368,7 @@ public class HashSemiJoinOperator
                     else {
                         contains = channelSet.contains(position, probeJoinPage);
                     }
-                    if (!contains && channelSet.containsNull()) {
+                    if (!contains && setContainsNull) {
                         blockBuilder.appendNull();
                     }
                     else {
@@ -243,7 +377,16 @@ public class HashSemiJoinOperator
                 }
             }
             // add the new boolean column to the page
-            return ofResult(inputPage.appendColumn(blockBuilder.build()));
+            return inputPage.appendColumn(blockBuilder.build());
+        }
+
+        public void close()
+                throws IOException
+        {
+            if (spiller.isPresent()) {
+                spiller.get().close();
+                spiller = Optional.empty();
+            }
         }
     }
 }
@@ -14,6 +14,7 @@
 package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.Session;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
@@ -26,7 +27,9 @@ import java.util.Optional;
 
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
+import static io.prestosql.operator.GroupByHashSpiller.GroupStateWriter.NO_STATE;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static java.lang.Math.toIntExact;
 
 public class MarkDistinctHash
 {
@@ -67,6 +70,14 @@ public class MarkDistinctHash
                 });
     }
 
+    /**
+     * Spills the values marked as distinct so far. Rows marked after this call are not spilled.
+     */
+    ListenableFuture<?> spillDistinctValues(GroupByHashSpiller spiller)
+    {
+        return spiller.spillGroups(groupByHash, toIntExact(nextDistinctId), NO_STATE);
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
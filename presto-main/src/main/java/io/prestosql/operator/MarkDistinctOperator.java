@@ -16,20 +16,29 @@ package io.prestosql.operator;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import javax.annotation.Nullable;
+
+import java.io.IOException;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static io.prestosql.operator.GroupByHashSpiller.SPILL_PARTITION_COUNT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class MarkDistinctOperator
@@ -44,6 +53,8 @@ public class MarkDistinctOperator
         private final List<Integer> markDistinctChannels;
         private final List<Type> types;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
         private boolean closed;
 
         public MarkDistinctOperatorFactory(
@@ -53,6 +64,19 @@ public class MarkDistinctOperator
                 Collection<Integer> markDistinctChannels,
                 Optional<Integer> hashChannel,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, markDistinctChannels, hashChannel, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+        }
+
+        public MarkDistinctOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                Collection<Integer> markDistinctChannels,
+                Optional<Integer> hashChannel,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -64,6 +88,8 @@ public class MarkDistinctOperator
                     .addAll(sourceTypes)
                     .add(BOOLEAN)
                     .build();
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -71,7 +97,7 @@ public class MarkDistinctOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, MarkDistinctOperator.class.getSimpleName());
-            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperator(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
 
         @Override
@@ -83,13 +109,23 @@ public class MarkDistinctOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler);
+            return new MarkDistinctOperatorFactory(operatorId, planNodeId, types.subList(0, types.size() - 1), markDistinctChannels, hashChannel, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
     private final OperatorContext operatorContext;
-    private final MarkDistinctHash markDistinctHash;
+    private final List<Type> sourceTypes;
+    private final List<Integer> markDistinctChannels;
+    private final List<Type> distinctTypes;
+    private final Optional<Integer> hashChannel;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
+
+    @Nullable
+    private MarkDistinctHash markDistinctHash;
 
     private Page inputPage;
     private boolean finishing;
@@ -97,7 +133,27 @@ public class MarkDistinctOperator
     // for yield when memory is not available
     private Work<Block> unfinishedWork;
 
+    // spilled distinct values and the input received after they were spilled
+    private Optional<GroupByHashSpiller> spiller = Optional.empty();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private int nextUnspilledPartition;
+    private Iterator<Page> unspilledDistinctValues = emptyIterator();
+    private Iterator<Page> unspilledInput = emptyIterator();
+    private boolean unspillingFinished;
+
     public MarkDistinctOperator(OperatorContext operatorContext, List<Type> types, List<Integer> markDistinctChannels, Optional<Integer> hashChannel, JoinCompiler joinCompiler)
+    {
+        this(operatorContext, types, markDistinctChannels, hashChannel, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+    }
+
+    public MarkDistinctOperator(
+            OperatorContext operatorContext,
+            List<Type> types,
+            List<Integer> markDistinctChannels,
+            Optional<Integer> hashChannel,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
 
@@ -108,8 +164,22 @@ public class MarkDistinctOperator
         for (int channel : markDistinctChannels) {
             distinctTypes.add(types.get(channel));
         }
-        this.markDistinctHash = new MarkDistinctHash(operatorContext.getSession(), distinctTypes.build(), Ints.toArray(markDistinctChannels), hashChannel, joinCompiler, this::updateMemoryReservation);
+        // the last type is the marker added by this operator
+        this.sourceTypes = ImmutableList.copyOf(types.subList(0, types.size() - 1));
+        this.markDistinctChannels = ImmutableList.copyOf(markDistinctChannels);
+        this.distinctTypes = distinctTypes.build();
+        this.hashChannel = hashChannel;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.spillEnabled = spillEnabled;
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
+        this.markDistinctHash = createMarkDistinctHash();
+    }
+
+    private MarkDistinctHash createMarkDistinctHash()
+    {
+        return new MarkDistinctHash(operatorContext.getSession(), distinctTypes, Ints.toArray(markDistinctChannels), hashChannel, joinCompiler, this::updateMemoryReservation);
     }
 
     @Override
@@ -127,12 +197,27 @@ public class MarkDistinctOperator
     @Override
     public boolean isFinished()
     {
+        if (spiller.isPresent()) {
+            return unspillingFinished;
+        }
         return finishing && !hasUnfinishedInput();
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (spiller.isPresent()) {
+            return spiller.get().getSpillInProgress();
+        }
+        return NOT_BLOCKED;
+    }
+
     @Override
     public boolean needsInput()
     {
+        if (spiller.isPresent()) {
+            return !finishing && spiller.get().getSpillInProgress().isDone();
+        }
         return !finishing && !hasUnfinishedInput();
     }
 
@@ -142,6 +227,11 @@ public class MarkDistinctOperator
         requireNonNull(page, "page is null");
         checkState(needsInput());
 
+        if (spiller.isPresent()) {
+            spiller.get().spillInput(page);
+            return;
+        }
+
         inputPage = page;
 
         unfinishedWork = markDistinctHash.markDistinctRows(page);
@@ -151,6 +241,10 @@ public class MarkDistinctOperator
     @Override
     public Page getOutput()
     {
+        if (spiller.isPresent()) {
+            return finishing ? getUnspilledOutput() : null;
+        }
+
         if (unfinishedWork == null) {
             return null;
         }
@@ -169,6 +263,96 @@ public class MarkDistinctOperator
         return outputPage;
     }
 
+    private Page getUnspilledOutput()
+    {
+        GroupByHashSpiller spiller = this.spiller.get();
+        if (!spiller.getSpillInProgress().isDone()) {
+            return null;
+        }
+
+        while (!unspillingFinished) {
+            if (unfinishedWork != null) {
+                if (!unfinishedWork.process()) {
+                    // waiting for memory
+                    return null;
+                }
+                Block distinctMask = unfinishedWork.getResult();
+                Page page = inputPage;
+                unfinishedWork = null;
+                inputPage = null;
+                updateMemoryReservation();
+                if (page != null) {
+                    return page.appendColumn(distinctMask);
+                }
+                continue;
+            }
+
+            if (unspilledDistinctValues.hasNext()) {
+                // values spilled before this partition's input are already marked
+                unfinishedWork = markDistinctHash.markDistinctRows(unspilledDistinctValues.next());
+            }
+            else if (unspilledInput.hasNext()) {
+                inputPage = unspilledInput.next();
+                unfinishedWork = markDistinctHash.markDistinctRows(inputPage);
+            }
+            else if (nextUnspilledPartition < SPILL_PARTITION_COUNT) {
+                markDistinctHash = createMarkDistinctHash();
+                unspilledDistinctValues = spiller.getSpilledGroups(nextUnspilledPartition);
+                unspilledInput = spiller.getSpilledInput(nextUnspilledPartition);
+                nextUnspilledPartition++;
+                updateMemoryReservation();
+            }
+            else {
+                spiller.verifyAllPartitionsRead();
+                markDistinctHash = null;
+                unspillingFinished = true;
+                updateMemoryReservation();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (spiller.isPresent() || localRevocableMemoryContext.getBytes() == 0) {
+            // the distinct values have already been spilled
+            finishMemoryRevoke = Optional.of(() -> {});
+            return NOT_BLOCKED;
+        }
+
+        spiller = Optional.of(new GroupByHashSpiller(
+                sourceTypes,
+                markDistinctChannels,
+                hashChannel,
+                ImmutableList.of(),
+                partitioningSpillerFactory,
+                operatorContext));
+        // Processing a page never yields on revocable memory, so a pending page has not been added
+        // to the hash yet. It is spilled with the input once the distinct values are spilled.
+        ListenableFuture<?> spillingFuture = markDistinctHash.spillDistinctValues(spiller.get());
+        finishMemoryRevoke = Optional.of(() -> {
+            markDistinctHash = null;
+            unfinishedWork = null;
+            updateMemoryReservation();
+            if (inputPage != null) {
+                spiller.get().spillInput(inputPage);
+                inputPage = null;
+            }
+        });
+        return spillingFuture;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
     private boolean hasUnfinishedInput()
     {
         return inputPage != null || unfinishedWork != null;
@@ -184,9 +368,16 @@ public class MarkDistinctOperator
     // The following implementation is a hybrid model, where the push model is going to call the pull model causing reentrancy
     private boolean updateMemoryReservation()
     {
+        long estimatedSize = markDistinctHash == null ? 0 : markDistinctHash.getEstimatedSize();
+        if (spillEnabled && !spiller.isPresent()) {
+            // the distinct values can be spilled, so there is no need to wait for memory
+            localRevocableMemoryContext.setBytes(estimatedSize);
+            return true;
+        }
+        localRevocableMemoryContext.setBytes(0);
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
-        localUserMemoryContext.setBytes(markDistinctHash.getEstimatedSize());
+        localUserMemoryContext.setBytes(estimatedSize);
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
     }
@@ -194,6 +385,17 @@ public class MarkDistinctOperator
     @VisibleForTesting
     public int getCapacity()
     {
+        checkState(markDistinctHash != null, "Distinct values are spilled");
         return markDistinctHash.getCapacity();
     }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        markDistinctHash = null;
+        if (spiller.isPresent()) {
+            spiller.get().close();
+        }
+    }
 }
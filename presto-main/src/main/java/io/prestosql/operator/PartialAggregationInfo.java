@@ -0,0 +1,114 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import io.prestosql.util.Mergeable;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Info of an adaptive partial aggregation: how many rows were aggregated, how many groups
+ * that produced, and how many rows were passed through after partial aggregation was disabled.
+ */
+public class PartialAggregationInfo
+        implements Mergeable<PartialAggregationInfo>, OperatorInfo
+{
+    private final HashCollisionsInfo hashCollisionsInfo;
+    private final long aggregatedInputPositions;
+    private final long aggregatedOutputPositions;
+    private final long passThroughPositions;
+    private final long passThroughOperators;
+
+    @JsonCreator
+    public PartialAggregationInfo(
+            @JsonProperty("hashCollisionsInfo") HashCollisionsInfo hashCollisionsInfo,
+            @JsonProperty("aggregatedInputPositions") long aggregatedInputPositions,
+            @JsonProperty("aggregatedOutputPositions") long aggregatedOutputPositions,
+            @JsonProperty("passThroughPositions") long passThroughPositions,
+            @JsonProperty("passThroughOperators") long passThroughOperators)
+    {
+        this.hashCollisionsInfo = requireNonNull(hashCollisionsInfo, "hashCollisionsInfo is null");
+        this.aggregatedInputPositions = aggregatedInputPositions;
+        this.aggregatedOutputPositions = aggregatedOutputPositions;
+        this.passThroughPositions = passThroughPositions;
+        this.passThroughOperators = passThroughOperators;
+    }
+
+    @JsonProperty
+    public HashCollisionsInfo getHashCollisionsInfo()
+    {
+        return hashCollisionsInfo;
+    }
+
+    @JsonProperty
+    public long getAggregatedInputPositions()
+    {
+        return aggregatedInputPositions;
+    }
+
+    @JsonProperty
+    public long getAggregatedOutputPositions()
+    {
+        return aggregatedOutputPositions;
+    }
+
+    /**
+     * Number of input rows emitted as intermediate state without being aggregated.
+     */
+    @JsonProperty
+    public long getPassThroughPositions()
+    {
+        return passThroughPositions;
+    }
+
+    /**
+     * Number of operators that stopped aggregating and passed rows through.
+     */
+    @JsonProperty
+    public long getPassThroughOperators()
+    {
+        return passThroughOperators;
+    }
+
+    @Override
+    public PartialAggregationInfo mergeWith(PartialAggregationInfo other)
+    {
+        return new PartialAggregationInfo(
+                hashCollisionsInfo.mergeWith(other.getHashCollisionsInfo()),
+                aggregatedInputPositions + other.getAggregatedInputPositions(),
+                aggregatedOutputPositions + other.getAggregatedOutputPositions(),
+                passThroughPositions + other.getPassThroughPositions(),
+                passThroughOperators + other.getPassThroughOperators());
+    }
+
+    @Override
+    public boolean isFinal()
+    {
+        return true;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("aggregatedInputPositions", aggregatedInputPositions)
+                .add("aggregatedOutputPositions", aggregatedOutputPositions)
+                .add("passThroughPositions", passThroughPositions)
+                .add("passThroughOperators", passThroughOperators)
+                .toString();
+    }
+}
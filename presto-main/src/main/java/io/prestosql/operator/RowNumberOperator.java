@@ -16,6 +16,7 @@ package io.prestosql.operator;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.array.LongBigArray;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.spi.Page;
@@ -23,10 +24,13 @@ import io.prestosql.spi.PageBuilder;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,7 +40,10 @@ import static com.google.common.base.Verify.verify;
 import static com.google.common.base.Verify.verifyNotNull;
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
+import static io.prestosql.operator.GroupByHashSpiller.SPILL_PARTITION_COUNT;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class RowNumberOperator
@@ -56,6 +63,8 @@ public class RowNumberOperator
         private final int expectedPositions;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public RowNumberOperatorFactory(
                 int operatorId,
@@ -68,6 +77,23 @@ public class RowNumberOperator
                 Optional<Integer> hashChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+        }
+
+        public RowNumberOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<Integer> partitionChannels,
+                List<? extends Type> partitionTypes,
+                Optional<Integer> maxRowsPerPartition,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -81,6 +107,8 @@ public class RowNumberOperator
             checkArgument(expectedPositions > 0, "expectedPositions < 0");
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -98,7 +126,9 @@ public class RowNumberOperator
                     maxRowsPerPartition,
                     hashChannel,
                     expectedPositions,
-                    joinCompiler);
+                    joinCompiler,
+                    spillEnabled,
+                    partitioningSpillerFactory);
         }
 
         @Override
@@ -110,22 +140,32 @@ public class RowNumberOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new RowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler);
+            return new RowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
     private boolean finishing;
 
     private final int[] outputChannels;
     private final List<Type> types;
 
+    private final List<Type> sourceTypes;
+    private final List<Integer> partitionChannels;
+    private final List<Type> partitionTypes;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+
     private GroupByIdBlock partitionIds;
-    private final Optional<GroupByHash> groupByHash;
+    private Optional<GroupByHash> groupByHash;
 
     private Page inputPage;
-    private final LongBigArray partitionRowCount;
+    private LongBigArray partitionRowCount;
 
     private final Optional<Integer> maxRowsPerPartition;
     // Only present if maxRowsPerPartition is present
@@ -134,6 +174,15 @@ public class RowNumberOperator
     // for yield when memory is not available
     private Work<GroupByIdBlock> unfinishedWork;
 
+    // spilled partitions with their row counts and the input received after they were spilled
+    private Optional<GroupByHashSpiller> spiller = Optional.empty();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private int nextUnspilledPartition;
+    private Iterator<Page> unspilledPartitions = emptyIterator();
+    private Iterator<Page> unspilledInput = emptyIterator();
+    private Page unspilledPartitionsPage;
+    private boolean unspillingFinished;
+
     public RowNumberOperator(
             OperatorContext operatorContext,
             List<Type> sourceTypes,
@@ -144,9 +193,26 @@ public class RowNumberOperator
             Optional<Integer> hashChannel,
             int expectedPositions,
             JoinCompiler joinCompiler)
+    {
+        this(operatorContext, sourceTypes, outputChannels, partitionChannels, partitionTypes, maxRowsPerPartition, hashChannel, expectedPositions, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+    }
+
+    public RowNumberOperator(
+            OperatorContext operatorContext,
+            List<Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<Integer> partitionChannels,
+            List<Type> partitionTypes,
+            Optional<Integer> maxRowsPerPartition,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
         this.outputChannels = Ints.toArray(outputChannels);
         this.types = toTypes(sourceTypes, outputChannels);
 
@@ -158,16 +224,31 @@ public class RowNumberOperator
             selectedRowPageBuilder = Optional.empty();
         }
 
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
+        this.partitionChannels = ImmutableList.copyOf(partitionChannels);
+        this.partitionTypes = ImmutableList.copyOf(partitionTypes);
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        // there is nothing to spill without partitions
+        this.spillEnabled = spillEnabled && !partitionChannels.isEmpty();
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+
         this.partitionRowCount = new LongBigArray(0);
         if (partitionChannels.isEmpty()) {
             this.groupByHash = Optional.empty();
         }
         else {
-            int[] channels = Ints.toArray(partitionChannels);
-            this.groupByHash = Optional.of(createGroupByHash(partitionTypes, channels, hashChannel, expectedPositions, isDictionaryAggregationEnabled(operatorContext.getSession()), joinCompiler, this::updateMemoryReservation));
+            this.groupByHash = Optional.of(createPartitionsHash());
         }
     }
 
+    private GroupByHash createPartitionsHash()
+    {
+        int[] channels = Ints.toArray(partitionChannels);
+        return createGroupByHash(partitionTypes, channels, hashChannel, expectedPositions, isDictionaryAggregationEnabled(operatorContext.getSession()), joinCompiler, this::updateMemoryReservation);
+    }
+
     @Override
     public OperatorContext getOperatorContext()
     {
@@ -183,6 +264,10 @@ public class RowNumberOperator
     @Override
     public boolean isFinished()
     {
+        if (spiller.isPresent()) {
+            return unspillingFinished;
+        }
+
         if (isSinglePartition() && maxRowsPerPartition.isPresent()) {
             if (finishing && !hasUnfinishedInput()) {
                 return true;
@@ -193,9 +278,22 @@ public class RowNumberOperator
         return finishing && !hasUnfinishedInput();
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (spiller.isPresent()) {
+            return spiller.get().getSpillInProgress();
+        }
+        return NOT_BLOCKED;
+    }
+
     @Override
     public boolean needsInput()
     {
+        if (spiller.isPresent()) {
+            return !finishing && spiller.get().getSpillInProgress().isDone();
+        }
+
         if (isSinglePartition() && maxRowsPerPartition.isPresent()) {
             // Check if single partition is done
             return partitionRowCount.get(0) < maxRowsPerPartition.get() && !finishing && !hasUnfinishedInput();
@@ -208,6 +306,11 @@ public class RowNumberOperator
     {
         checkState(!finishing, "Operator is already finishing");
         requireNonNull(page, "page is null");
+        if (spiller.isPresent()) {
+            spiller.get().spillInput(page);
+            return;
+        }
+
         checkState(!hasUnfinishedInput());
         inputPage = page;
         if (groupByHash.isPresent()) {
@@ -220,6 +323,10 @@ public class RowNumberOperator
     @Override
     public Page getOutput()
     {
+        if (spiller.isPresent()) {
+            return finishing ? getUnspilledOutput() : null;
+        }
+
         if (unfinishedWork != null && !processUnfinishedWork()) {
             return null;
         }
@@ -228,6 +335,11 @@ public class RowNumberOperator
             return null;
         }
 
+        return processInputPage();
+    }
+
+    private Page processInputPage()
+    {
         Page outputPage;
         if (maxRowsPerPartition.isPresent()) {
             outputPage = getSelectedRows();
@@ -241,6 +353,114 @@ public class RowNumberOperator
         return outputPage;
     }
 
+    private Page getUnspilledOutput()
+    {
+        GroupByHashSpiller spiller = this.spiller.get();
+        if (!spiller.getSpillInProgress().isDone()) {
+            return null;
+        }
+
+        while (!unspillingFinished) {
+            if (unfinishedWork != null) {
+                if (!processUnfinishedWork()) {
+                    // waiting for memory
+                    return null;
+                }
+                if (unspilledPartitionsPage != null) {
+                    restorePartitionRowCounts(unspilledPartitionsPage, spiller.getGroupStateChannel());
+                    unspilledPartitionsPage = null;
+                    continue;
+                }
+                Page outputPage = processInputPage();
+                if (outputPage != null) {
+                    return outputPage;
+                }
+                continue;
+            }
+
+            if (unspilledPartitions.hasNext()) {
+                unspilledPartitionsPage = unspilledPartitions.next();
+                unfinishedWork = groupByHash.get().getGroupIds(unspilledPartitionsPage);
+            }
+            else if (unspilledInput.hasNext()) {
+                inputPage = unspilledInput.next();
+                unfinishedWork = groupByHash.get().getGroupIds(inputPage);
+            }
+            else if (nextUnspilledPartition < SPILL_PARTITION_COUNT) {
+                groupByHash = Optional.of(createPartitionsHash());
+                partitionRowCount = new LongBigArray(0);
+                unspilledPartitions = spiller.getSpilledGroups(nextUnspilledPartition);
+                unspilledInput = spiller.getSpilledInput(nextUnspilledPartition);
+                nextUnspilledPartition++;
+                updateMemoryReservation();
+            }
+            else {
+                spiller.verifyAllPartitionsRead();
+                groupByHash = Optional.empty();
+                partitionRowCount = new LongBigArray(0);
+                unspillingFinished = true;
+                updateMemoryReservation();
+            }
+        }
+        return null;
+    }
+
+    private void restorePartitionRowCounts(Page page, int rowCountChannel)
+    {
+        Block rowCounts = page.getBlock(rowCountChannel);
+        for (int position = 0; position < page.getPositionCount(); position++) {
+            partitionRowCount.set(partitionIds.getGroupId(position), BIGINT.getLong(rowCounts, position));
+        }
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (spiller.isPresent() || localRevocableMemoryContext.getBytes() == 0) {
+            // the partitions have already been spilled
+            finishMemoryRevoke = Optional.of(() -> {});
+            return NOT_BLOCKED;
+        }
+
+        spiller = Optional.of(new GroupByHashSpiller(
+                sourceTypes,
+                partitionChannels,
+                hashChannel,
+                ImmutableList.of(BIGINT),
+                partitioningSpillerFactory,
+                operatorContext));
+        // Processing a page never yields on revocable memory. The row counts of a pending page have not
+        // been updated yet, so it is spilled with the input once the partitions are spilled.
+        GroupByHash partitionsHash = groupByHash.get();
+        partitionRowCount.ensureCapacity(partitionsHash.getGroupCount());
+        ListenableFuture<?> spillingFuture = spiller.get().spillGroups(
+                partitionsHash,
+                partitionsHash.getGroupCount(),
+                (groupId, pageBuilder, channelOffset) -> BIGINT.writeLong(pageBuilder.getBlockBuilder(channelOffset), partitionRowCount.get(groupId)));
+        finishMemoryRevoke = Optional.of(() -> {
+            groupByHash = Optional.empty();
+            partitionRowCount = new LongBigArray(0);
+            partitionIds = null;
+            unfinishedWork = null;
+            updateMemoryReservation();
+            if (inputPage != null) {
+                spiller.get().spillInput(inputPage);
+                inputPage = null;
+            }
+        });
+        return spillingFuture;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
     private boolean hasUnfinishedInput()
     {
         return inputPage != null || unfinishedWork != null;
@@ -259,6 +479,12 @@ public class RowNumberOperator
         // Operator/driver will be blocked on memory after we call localUserMemoryContext.setBytes().
         // If memory is not available, once we return, this operator will be blocked until memory is available.
         long memorySizeInBytes = groupByHash.map(GroupByHash::getEstimatedSize).orElse(0L) + partitionRowCount.sizeOf();
+        if (spillEnabled && !spiller.isPresent()) {
+            // the partitions can be spilled, so there is no need to wait for memory
+            localRevocableMemoryContext.setBytes(memorySizeInBytes);
+            return true;
+        }
+        localRevocableMemoryContext.setBytes(0);
         localUserMemoryContext.setBytes(memorySizeInBytes);
         // If memory is not available, inform the caller that we cannot proceed for allocation.
         return operatorContext.isWaitingForMemory().isDone();
@@ -358,4 +584,14 @@ public class RowNumberOperator
     {
         return groupByHash.map(GroupByHash::getCapacity).orElse(0);
     }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        groupByHash = Optional.empty();
+        if (spiller.isPresent()) {
+            spiller.get().close();
+        }
+    }
 }
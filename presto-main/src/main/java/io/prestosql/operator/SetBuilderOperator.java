@@ -15,35 +15,100 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.Closer;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
+import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.operator.ChannelSet.ChannelSetBuilder;
+import io.prestosql.operator.exchange.LocalPartitionGenerator;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpiller;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
 import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
 import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.stream.IntStream;
 
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.Iterators.concat;
+import static com.google.common.collect.Iterators.singletonIterator;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.concurrent.MoreFutures.checkSuccess;
+import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
+import static java.lang.String.format;
+import static java.util.Collections.emptyList;
 import static java.util.Objects.requireNonNull;
 
 @ThreadSafe
 public class SetBuilderOperator
         implements Operator
 {
+    /**
+     * Number of partitions of a spilled set. Spilled sets are built and probed one partition at a time.
+     */
+    @VisibleForTesting
+    static final int SPILL_PARTITION_COUNT = 16;
+
     public static class SetSupplier
     {
         private final Type type;
+        private final OptionalInt probeOperatorsCount;
         private final SettableFuture<ChannelSet> channelSetFuture = SettableFuture.create();
+        private final SettableFuture<?> setBuilt = SettableFuture.create();
+        private final SettableFuture<PartitionedConsumption<ChannelSet>> partitionedConsumption = SettableFuture.create();
+
+        @GuardedBy("this")
+        private boolean spilled;
+        @GuardedBy("this")
+        private boolean spilledSetEmpty;
+        @GuardedBy("this")
+        private boolean spilledSetContainsNull;
+        @GuardedBy("this")
+        private int finishedProbeOperators;
+        @GuardedBy("this")
+        private OptionalInt partitionedConsumptionParticipants = OptionalInt.empty();
+
+        @GuardedBy("this")
+        private SettableFuture<?> unspillingOrDisposeRequested = SettableFuture.create();
+        @GuardedBy("this")
+        private OptionalInt unspillingRequested = OptionalInt.empty();
+        @GuardedBy("this")
+        private SettableFuture<ChannelSet> unspilledPartition = SettableFuture.create();
+        @GuardedBy("this")
+        private SettableFuture<?> unspilledPartitionReleased = SettableFuture.create();
+        @GuardedBy("this")
+        private int releasedPartitions;
+        @GuardedBy("this")
+        private boolean disposeRequested;
 
         public SetSupplier(Type type)
+        {
+            this(type, OptionalInt.empty());
+        }
+
+        /**
+         * @param probeOperatorsCount number of semi join operators probing the set, required for the set to be spilled
+         */
+        public SetSupplier(Type type, OptionalInt probeOperatorsCount)
         {
             this.type = requireNonNull(type, "type is null");
+            this.probeOperatorsCount = requireNonNull(probeOperatorsCount, "probeOperatorsCount is null");
         }
 
         public Type getType()
@@ -51,15 +116,179 @@ public class SetBuilderOperator
             return type;
         }
 
+        public OptionalInt getProbeOperatorsCount()
+        {
+            return probeOperatorsCount;
+        }
+
+        public boolean isSpillEnabled()
+        {
+            return probeOperatorsCount.isPresent();
+        }
+
+        /**
+         * Completes when the set is built in memory. Never completes when the set is spilled.
+         */
         public ListenableFuture<ChannelSet> getChannelSet()
         {
             return channelSetFuture;
         }
 
+        /**
+         * Completes when the set is built, either in memory or spilled.
+         */
+        public ListenableFuture<?> getSetBuilt()
+        {
+            return setBuilt;
+        }
+
+        public synchronized boolean isSpilled()
+        {
+            return spilled;
+        }
+
+        public synchronized boolean isSpilledSetEmpty()
+        {
+            checkState(spilled, "Set is not spilled");
+            return spilledSetEmpty;
+        }
+
+        public synchronized boolean spilledSetContainsNull()
+        {
+            checkState(spilled, "Set is not spilled");
+            return spilledSetContainsNull;
+        }
+
         void setChannelSet(ChannelSet channelSet)
         {
             boolean wasSet = channelSetFuture.set(requireNonNull(channelSet, "channelSet is null"));
             checkState(wasSet, "ChannelSet already set");
+            setBuilt.set(null);
+        }
+
+        void setSpilled(boolean empty, boolean containsNull)
+        {
+            synchronized (this) {
+                checkState(!setBuilt.isDone(), "Set already built");
+                spilled = true;
+                spilledSetEmpty = empty;
+                spilledSetContainsNull = containsNull;
+                // all probe operators finished without input
+                disposeRequested = finishedProbeOperators == probeOperatorsCount.getAsInt();
+            }
+            setBuilt.set(null);
+        }
+
+        /**
+         * Called by every probe operator when its input is finished. Probe operators that
+         * finish after the set is spilled consume the spilled set partition by partition.
+         */
+        public ListenableFuture<PartitionedConsumption<ChannelSet>> finishProbeOperator()
+        {
+            int participants;
+            synchronized (this) {
+                int operatorsCount = probeOperatorsCount.orElseThrow(() -> new IllegalStateException("Spill is not enabled"));
+                checkState(finishedProbeOperators < operatorsCount, "%s probe operators finished out of %s declared", finishedProbeOperators + 1, operatorsCount);
+
+                if (!spilled) {
+                    finishedProbeOperators++;
+                    return immediateFuture(new PartitionedConsumption<>(
+                            1,
+                            emptyList(),
+                            i -> {
+                                throw new UnsupportedOperationException();
+                            },
+                            i -> {}));
+                }
+
+                if (!partitionedConsumptionParticipants.isPresent()) {
+                    // This is the first probe to finish after the set has been spilled.
+                    partitionedConsumptionParticipants = OptionalInt.of(operatorsCount - finishedProbeOperators);
+                }
+
+                finishedProbeOperators++;
+                if (finishedProbeOperators < operatorsCount) {
+                    return partitionedConsumption;
+                }
+                participants = partitionedConsumptionParticipants.getAsInt();
+            }
+
+            verify(!partitionedConsumption.isDone());
+            partitionedConsumption.set(new PartitionedConsumption<>(
+                    participants,
+                    IntStream.range(0, SPILL_PARTITION_COUNT).boxed().collect(toImmutableList()),
+                    this::loadPartition,
+                    this::releasePartition));
+            return partitionedConsumption;
+        }
+
+        private ListenableFuture<ChannelSet> loadPartition(int partition)
+        {
+            SettableFuture<?> request;
+            SettableFuture<ChannelSet> result = SettableFuture.create();
+            synchronized (this) {
+                checkState(!unspillingRequested.isPresent(), "Partition %s is already requested", unspillingRequested);
+                unspillingRequested = OptionalInt.of(partition);
+                unspilledPartition = result;
+                request = unspillingOrDisposeRequested;
+            }
+            request.set(null);
+            return result;
+        }
+
+        private void releasePartition(int partition)
+        {
+            SettableFuture<?> released;
+            Optional<SettableFuture<?>> request = Optional.empty();
+            synchronized (this) {
+                released = unspilledPartitionReleased;
+                releasedPartitions++;
+                if (releasedPartitions == SPILL_PARTITION_COUNT) {
+                    disposeRequested = true;
+                    request = Optional.of(unspillingOrDisposeRequested);
+                }
+            }
+            released.set(null);
+            request.ifPresent(future -> future.set(null));
+        }
+
+        synchronized ListenableFuture<?> getUnspillingOrDisposeRequested()
+        {
+            if (unspillingRequested.isPresent() || disposeRequested) {
+                return immediateFuture(null);
+            }
+            if (unspillingOrDisposeRequested.isDone()) {
+                unspillingOrDisposeRequested = SettableFuture.create();
+            }
+            return unspillingOrDisposeRequested;
+        }
+
+        synchronized OptionalInt getUnspillingRequested()
+        {
+            return unspillingRequested;
+        }
+
+        synchronized boolean isDisposeRequested()
+        {
+            return disposeRequested;
+        }
+
+        void setUnspilledPartition(ChannelSet channelSet)
+        {
+            SettableFuture<ChannelSet> result;
+            synchronized (this) {
+                checkState(unspillingRequested.isPresent(), "Unspilling not requested");
+                unspillingRequested = OptionalInt.empty();
+                // the next partition may be requested before the build operator observes this release
+                unspilledPartitionReleased = SettableFuture.create();
+                result = unspilledPartition;
+            }
+            result.set(requireNonNull(channelSet, "channelSet is null"));
+        }
+
+        synchronized ListenableFuture<?> getUnspilledPartitionReleased()
+        {
+            return unspilledPartitionReleased;
         }
     }
 
@@ -74,6 +303,7 @@ public class SetBuilderOperator
         private final int expectedPositions;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public SetBuilderOperatorFactory(
                 int operatorId,
@@ -83,15 +313,46 @@ public class SetBuilderOperator
                 Optional<Integer> hashChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, type, setChannel, hashChannel, expectedPositions, joinCompiler, OptionalInt.empty(), unsupportedPartitioningSpillerFactory());
+        }
+
+        /**
+         * @param probeOperatorsCount number of semi join operators probing the set, present when spill is enabled
+         */
+        public SetBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                Type type,
+                int setChannel,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                JoinCompiler joinCompiler,
+                OptionalInt probeOperatorsCount,
+                PartitioningSpillerFactory partitioningSpillerFactory)
+        {
+            this(operatorId, planNodeId, new SetSupplier(requireNonNull(type, "type is null"), probeOperatorsCount), setChannel, hashChannel, expectedPositions, joinCompiler, partitioningSpillerFactory);
+        }
+
+        private SetBuilderOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                SetSupplier setProvider,
+                int setChannel,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                JoinCompiler joinCompiler,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
             Preconditions.checkArgument(setChannel >= 0, "setChannel is negative");
-            this.setProvider = new SetSupplier(requireNonNull(type, "type is null"));
+            this.setProvider = requireNonNull(setProvider, "setProvider is null");
             this.setChannel = setChannel;
             this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         public SetSupplier getSetProvider()
@@ -104,7 +365,7 @@ public class SetBuilderOperator
         {
             checkState(!closed, "Factory is already closed");
             OperatorContext operatorContext = driverContext.addOperatorContext(operatorId, planNodeId, SetBuilderOperator.class.getSimpleName());
-            return new SetBuilderOperator(operatorContext, setProvider, setChannel, hashChannel, expectedPositions, joinCompiler);
+            return new SetBuilderOperator(operatorContext, setProvider, setChannel, hashChannel, expectedPositions, joinCompiler, partitioningSpillerFactory);
         }
 
         @Override
@@ -116,21 +377,70 @@ public class SetBuilderOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new SetBuilderOperatorFactory(operatorId, planNodeId, setProvider.getType(), setChannel, hashChannel, expectedPositions, joinCompiler);
+            return new SetBuilderOperatorFactory(operatorId, planNodeId, new SetSupplier(setProvider.getType(), setProvider.getProbeOperatorsCount()), setChannel, hashChannel, expectedPositions, joinCompiler, partitioningSpillerFactory);
         }
     }
 
+    @VisibleForTesting
+    public enum State
+    {
+        /**
+         * Operator accepts input and builds the set in memory
+         */
+        CONSUMING_INPUT,
+
+        /**
+         * Memory revoking occurred, operator accepts input and spills it
+         */
+        SPILLING_INPUT,
+
+        /**
+         * Set is spilled, operator waits for a partition to be requested by the probe operators
+         */
+        INPUT_SPILLED,
+
+        /**
+         * Operator is building the set of a requested partition from the spilled input
+         */
+        INPUT_UNSPILLING,
+
+        /**
+         * Set of the requested partition is built, operator waits for it to be released by the probe operators
+         */
+        INPUT_UNSPILLED_AND_BUILT,
+
+        /**
+         * No longer needed
+         */
+        FINISHED
+    }
+
     private final OperatorContext operatorContext;
+    private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
     private final SetSupplier setSupplier;
     private final int setChannel;
     private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
 
-    private final ChannelSetBuilder channelSetBuilder;
+    private State state = State.CONSUMING_INPUT;
 
-    private boolean finished;
+    @Nullable
+    private ChannelSetBuilder channelSetBuilder;
 
     @Nullable
     private Work<?> unfinishedWork;  // The pending work for current page.
+    @Nullable
+    private Page unfinishedPage;
+
+    private Optional<PartitioningSpiller> spiller = Optional.empty();
+    private ListenableFuture<?> spillInProgress = NOT_BLOCKED;
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private boolean spilledSetEmpty;
+    private boolean spilledSetContainsNull;
+    private Iterator<Page> unspilledPages;
 
     public SetBuilderOperator(
             OperatorContext operatorContext,
@@ -139,20 +449,38 @@ public class SetBuilderOperator
             Optional<Integer> hashChannel,
             int expectedPositions,
             JoinCompiler joinCompiler)
+    {
+        this(operatorContext, setSupplier, setChannel, hashChannel, expectedPositions, joinCompiler, unsupportedPartitioningSpillerFactory());
+    }
+
+    public SetBuilderOperator(
+            OperatorContext operatorContext,
+            SetSupplier setSupplier,
+            int setChannel,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            JoinCompiler joinCompiler,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
+        this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
         this.setSupplier = requireNonNull(setSupplier, "setProvider is null");
         this.setChannel = setChannel;
 
         this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         // Set builder is has a single channel which goes in channel 0, if hash is present, add a hachBlock to channel 1
         Optional<Integer> channelSetHashChannel = hashChannel.isPresent() ? Optional.of(1) : Optional.empty();
         this.channelSetBuilder = new ChannelSetBuilder(
                 setSupplier.getType(),
                 channelSetHashChannel,
                 expectedPositions,
-                requireNonNull(operatorContext, "operatorContext is null"),
-                requireNonNull(joinCompiler, "joinCompiler is null"));
+                operatorContext,
+                setSupplier.isSpillEnabled() ? localRevocableMemoryContext : localUserMemoryContext,
+                joinCompiler);
     }
 
     @Override
@@ -161,32 +489,153 @@ public class SetBuilderOperator
         return operatorContext;
     }
 
+    @VisibleForTesting
+    public State getState()
+    {
+        return state;
+    }
+
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        switch (state) {
+            case SPILLING_INPUT:
+                return spillInProgress;
+            case INPUT_SPILLED:
+                return setSupplier.getUnspillingOrDisposeRequested();
+            case INPUT_UNSPILLED_AND_BUILT:
+                return setSupplier.getUnspilledPartitionReleased();
+            default:
+                return NOT_BLOCKED;
+        }
+    }
+
     @Override
     public void finish()
     {
-        if (finished) {
+        if (finishMemoryRevoke.isPresent()) {
             return;
         }
 
+        switch (state) {
+            case CONSUMING_INPUT:
+                finishInput();
+                return;
+            case SPILLING_INPUT:
+                finishSpilledInput();
+                return;
+            case INPUT_SPILLED:
+                unspillPartitionIfRequested();
+                return;
+            case INPUT_UNSPILLING:
+                finishPartitionUnspilling();
+                return;
+            case INPUT_UNSPILLED_AND_BUILT:
+                disposeUnspilledPartitionIfReleased();
+                return;
+            case FINISHED:
+                // no-op
+                return;
+        }
+        throw new IllegalStateException("Unhandled state: " + state);
+    }
+
+    private void finishInput()
+    {
         ChannelSet channelSet = channelSetBuilder.build();
+        if (setSupplier.isSpillEnabled()) {
+            // the set can no longer be spilled once it is handed over to the probe operators
+            localRevocableMemoryContext.setBytes(0);
+            localUserMemoryContext.setBytes(channelSet.getEstimatedSizeInBytes());
+        }
         setSupplier.setChannelSet(channelSet);
         operatorContext.recordOutput(channelSet.getEstimatedSizeInBytes(), channelSet.size());
-        finished = true;
+        state = State.FINISHED;
+    }
+
+    private void finishSpilledInput()
+    {
+        if (!spillInProgress.isDone()) {
+            // Not ready to handle finish() yet
+            return;
+        }
+        checkSuccess(spillInProgress, "spilling failed");
+        setSupplier.setSpilled(spilledSetEmpty, spilledSetContainsNull);
+        state = State.INPUT_SPILLED;
+        unspillPartitionIfRequested();
+    }
+
+    private void unspillPartitionIfRequested()
+    {
+        if (setSupplier.isDisposeRequested()) {
+            close();
+            return;
+        }
+
+        OptionalInt partition = setSupplier.getUnspillingRequested();
+        if (!partition.isPresent()) {
+            return;
+        }
+
+        verify(channelSetBuilder == null);
+        // spilled pages contain the set values only
+        channelSetBuilder = new ChannelSetBuilder(setSupplier.getType(), Optional.empty(), expectedPositions, operatorContext, localUserMemoryContext, joinCompiler);
+        unspilledPages = getSpiller().getSpilledPages(partition.getAsInt());
+        state = State.INPUT_UNSPILLING;
+        finishPartitionUnspilling();
+    }
+
+    private void finishPartitionUnspilling()
+    {
+        while (unfinishedWork != null || unspilledPages.hasNext()) {
+            if (unfinishedWork == null) {
+                unfinishedWork = channelSetBuilder.addPage(unspilledPages.next());
+            }
+            if (!processUnfinishedWork()) {
+                // waiting for memory
+                return;
+            }
+        }
+
+        ChannelSet channelSet = channelSetBuilder.build();
+        channelSetBuilder = null;
+        unspilledPages = null;
+        operatorContext.recordOutput(channelSet.getEstimatedSizeInBytes(), channelSet.size());
+        state = State.INPUT_UNSPILLED_AND_BUILT;
+        setSupplier.setUnspilledPartition(channelSet);
+    }
+
+    private void disposeUnspilledPartitionIfReleased()
+    {
+        if (!setSupplier.getUnspilledPartitionReleased().isDone()) {
+            return;
+        }
+
+        localUserMemoryContext.setBytes(0);
+        state = State.INPUT_SPILLED;
+        unspillPartitionIfRequested();
     }
 
     @Override
     public boolean isFinished()
     {
-        return finished;
+        return state == State.FINISHED;
     }
 
     @Override
     public boolean needsInput()
     {
-        // Since SetBuilderOperator doesn't produce any output, the getOutput()
-        // method may never be called. We need to handle any unfinished work
-        // before addInput() can be called again.
-        return !finished && (unfinishedWork == null || processUnfinishedWork());
+        switch (state) {
+            case CONSUMING_INPUT:
+                // Since SetBuilderOperator doesn't produce any output, the getOutput()
+                // method may never be called. We need to handle any unfinished work
+                // before addInput() can be called again.
+                return unfinishedWork == null || processUnfinishedWork();
+            case SPILLING_INPUT:
+                return spillInProgress.isDone();
+            default:
+                return false;
+        }
     }
 
     @Override
@@ -196,18 +645,110 @@ public class SetBuilderOperator
         checkState(!isFinished(), "Operator is already finished");
 
         Block sourceBlock = page.getBlock(setChannel);
+        if (state == State.SPILLING_INPUT) {
+            spillInput(sourceBlock);
+            return;
+        }
+
+        checkState(state == State.CONSUMING_INPUT, "Operator is not consuming input");
         Page sourcePage = hashChannel.isPresent() ? new Page(sourceBlock, page.getBlock(hashChannel.get())) : new Page(sourceBlock);
 
         unfinishedWork = channelSetBuilder.addPage(sourcePage);
+        unfinishedPage = sourcePage;
         processUnfinishedWork();
     }
 
+    private void spillInput(Block sourceBlock)
+    {
+        checkState(spillInProgress.isDone(), "Previous spill still in progress");
+        checkSuccess(spillInProgress, "spilling failed");
+        recordSpilledValues(sourceBlock);
+        spillInProgress = getSpiller().partitionAndSpill(new Page(sourceBlock), partition -> true).getSpillingFuture();
+    }
+
     @Override
     public Page getOutput()
     {
         return null;
     }
 
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(setSupplier.isSpillEnabled(), "Spill not enabled, no revokable memory should be reserved");
+
+        if (state == State.CONSUMING_INPUT) {
+            ChannelSet channelSet = channelSetBuilder.build();
+            spilledSetEmpty = channelSet.isEmpty();
+            spilledSetContainsNull = channelSet.containsNull();
+
+            Iterator<Page> pages = channelSetBuilder.getValuePages();
+            if (unfinishedWork != null) {
+                // the page may have been partially added to the set
+                Block unfinishedBlock = unfinishedPage.getBlock(0);
+                recordSpilledValues(unfinishedBlock);
+                pages = concat(pages, singletonIterator(new Page(unfinishedBlock)));
+            }
+
+            spiller = Optional.of(partitioningSpillerFactory.create(
+                    ImmutableList.of(setSupplier.getType()),
+                    new LocalPartitionGenerator(new InterpretedHashGenerator(ImmutableList.of(setSupplier.getType()), new int[] {0}), SPILL_PARTITION_COUNT),
+                    operatorContext.getSpillContext().newLocalSpillContext(),
+                    operatorContext.newAggregateSystemMemoryContext()));
+
+            finishMemoryRevoke = Optional.of(() -> {
+                channelSetBuilder = null;
+                unfinishedWork = null;
+                unfinishedPage = null;
+                localRevocableMemoryContext.setBytes(0);
+                state = State.SPILLING_INPUT;
+            });
+            return spillPages(pages);
+        }
+        if (operatorContext.getReservedRevocableBytes() == 0) {
+            // Probably stale revoking request
+            finishMemoryRevoke = Optional.of(() -> {});
+            return immediateFuture(null);
+        }
+
+        throw new IllegalStateException(format("State %s can not have revocable memory, but has %s revocable bytes", state, operatorContext.getReservedRevocableBytes()));
+    }
+
+    private ListenableFuture<?> spillPages(Iterator<Page> pages)
+    {
+        while (pages.hasNext()) {
+            ListenableFuture<?> spillingFuture = getSpiller().partitionAndSpill(pages.next(), partition -> true).getSpillingFuture();
+            if (!spillingFuture.isDone()) {
+                return Futures.transformAsync(spillingFuture, ignored -> spillPages(pages), directExecutor());
+            }
+            checkSuccess(spillingFuture, "spilling failed");
+        }
+        return immediateFuture(null);
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    private void recordSpilledValues(Block block)
+    {
+        if (block.getPositionCount() > 0) {
+            spilledSetEmpty = false;
+        }
+        if (!spilledSetContainsNull && block.mayHaveNull()) {
+            for (int position = 0; position < block.getPositionCount(); position++) {
+                if (block.isNull(position)) {
+                    spilledSetContainsNull = true;
+                    break;
+                }
+            }
+        }
+    }
+
     private boolean processUnfinishedWork()
     {
         // Processes the unfinishedWork for this page by adding the data to the hash table. If this page
@@ -216,15 +757,48 @@ public class SetBuilderOperator
         boolean done = unfinishedWork.process();
         if (done) {
             unfinishedWork = null;
+            unfinishedPage = null;
         }
         // We need to update the memory reservation again since the page builder memory may also be increasing.
         channelSetBuilder.updateMemoryReservation();
         return done;
     }
 
+    private PartitioningSpiller getSpiller()
+    {
+        return spiller.orElseThrow(() -> new IllegalStateException("Spiller not created"));
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
+        checkState(channelSetBuilder != null, "Set is not being built");
         return channelSetBuilder.getCapacity();
     }
+
+    @Override
+    public void close()
+    {
+        if (state == State.FINISHED && !spiller.isPresent()) {
+            return;
+        }
+        // close() can be called in any state, due for example to query failure, and must clean resource up unconditionally
+
+        state = State.FINISHED;
+        finishMemoryRevoke = finishMemoryRevoke.map(ifPresent -> () -> {});
+        channelSetBuilder = null;
+        unfinishedWork = null;
+        unfinishedPage = null;
+        unspilledPages = null;
+
+        try (Closer closer = Closer.create()) {
+            spiller.ifPresent(closer::register);
+            spiller = Optional.empty();
+            closer.register(() -> localUserMemoryContext.setBytes(0));
+            closer.register(() -> localRevocableMemoryContext.setBytes(0));
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -15,6 +15,7 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.util.concurrent.AtomicDouble;
 import com.google.common.util.concurrent.ListenableFuture;
@@ -32,14 +33,17 @@ import io.prestosql.memory.QueryContext;
 import io.prestosql.memory.QueryContextVisitor;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.memory.context.MemoryTrackingContext;
+import io.prestosql.spi.predicate.Domain;
 import org.joda.time.DateTime;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 
 import java.util.List;
+import java.util.Map;
 import java.util.OptionalInt;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
@@ -84,6 +88,11 @@ public class TaskContext
 
     private final Set<Lifespan> completedDriverGroups = newConcurrentHashSet();
 
+    // Dynamic filters collected by the build side of this task's partitioned joins (reported to the coordinator).
+    private final Map<String, Domain> collectedDynamicFilterDomains = new ConcurrentHashMap<>();
+    // Dynamic filters collected by other stages' tasks (received from the coordinator).
+    private final Map<String, Domain> remoteDynamicFilterDomains = new ConcurrentHashMap<>();
+
     private final List<PipelineContext> pipelineContexts = new CopyOnWriteArrayList<>();
 
     private final boolean perOperatorCpuTimerEnabled;
@@ -266,6 +275,26 @@ public class TaskContext
         completedDriverGroups.add(driverGroup);
     }
 
+    public void collectDynamicFilterDomains(Map<String, Domain> dynamicFilterDomains)
+    {
+        collectedDynamicFilterDomains.putAll(requireNonNull(dynamicFilterDomains, "dynamicFilterDomains is null"));
+    }
+
+    public Map<String, Domain> getCollectedDynamicFilterDomains()
+    {
+        return ImmutableMap.copyOf(collectedDynamicFilterDomains);
+    }
+
+    public void addRemoteDynamicFilterDomains(Map<String, Domain> dynamicFilterDomains)
+    {
+        remoteDynamicFilterDomains.putAll(requireNonNull(dynamicFilterDomains, "dynamicFilterDomains is null"));
+    }
+
+    public Map<String, Domain> getRemoteDynamicFilterDomains()
+    {
+        return ImmutableMap.copyOf(remoteDynamicFilterDomains);
+    }
+
     public List<PipelineContext> getPipelineContexts()
     {
         return pipelineContexts;
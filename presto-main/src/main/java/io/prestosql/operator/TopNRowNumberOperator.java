@@ -15,24 +15,32 @@ package io.prestosql.operator;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
 import com.google.common.primitives.Ints;
+import com.google.common.util.concurrent.ListenableFuture;
 import io.prestosql.memory.context.LocalMemoryContext;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 
+import java.io.IOException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.base.Verify.verify;
 import static io.prestosql.SystemSessionProperties.isDictionaryAggregationEnabled;
 import static io.prestosql.operator.GroupByHash.createGroupByHash;
+import static io.prestosql.operator.GroupByHashSpiller.SPILL_PARTITION_COUNT;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartitioningSpillerFactory;
+import static java.util.Collections.emptyIterator;
 import static java.util.Objects.requireNonNull;
 
 public class TopNRowNumberOperator
@@ -59,6 +67,8 @@ public class TopNRowNumberOperator
         private final boolean generateRowNumber;
         private boolean closed;
         private final JoinCompiler joinCompiler;
+        private final boolean spillEnabled;
+        private final PartitioningSpillerFactory partitioningSpillerFactory;
 
         public TopNRowNumberOperatorFactory(
                 int operatorId,
@@ -74,6 +84,26 @@ public class TopNRowNumberOperator
                 Optional<Integer> hashChannel,
                 int expectedPositions,
                 JoinCompiler joinCompiler)
+        {
+            this(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+        }
+
+        public TopNRowNumberOperatorFactory(
+                int operatorId,
+                PlanNodeId planNodeId,
+                List<? extends Type> sourceTypes,
+                List<Integer> outputChannels,
+                List<Integer> partitionChannels,
+                List<? extends Type> partitionTypes,
+                List<Integer> sortChannels,
+                List<SortOrder> sortOrder,
+                int maxRowCountPerPartition,
+                boolean partial,
+                Optional<Integer> hashChannel,
+                int expectedPositions,
+                JoinCompiler joinCompiler,
+                boolean spillEnabled,
+                PartitioningSpillerFactory partitioningSpillerFactory)
         {
             this.operatorId = operatorId;
             this.planNodeId = requireNonNull(planNodeId, "planNodeId is null");
@@ -91,6 +121,8 @@ public class TopNRowNumberOperator
             this.generateRowNumber = !partial;
             this.expectedPositions = expectedPositions;
             this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+            this.spillEnabled = spillEnabled;
+            this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
         }
 
         @Override
@@ -110,7 +142,9 @@ public class TopNRowNumberOperator
                     generateRowNumber,
                     hashChannel,
                     expectedPositions,
-                    joinCompiler);
+                    joinCompiler,
+                    spillEnabled,
+                    partitioningSpillerFactory);
         }
 
         @Override
@@ -122,22 +156,43 @@ public class TopNRowNumberOperator
         @Override
         public OperatorFactory duplicate()
         {
-            return new TopNRowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler);
+            return new TopNRowNumberOperatorFactory(operatorId, planNodeId, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrder, maxRowCountPerPartition, partial, hashChannel, expectedPositions, joinCompiler, spillEnabled, partitioningSpillerFactory);
         }
     }
 
     private final OperatorContext operatorContext;
     private final LocalMemoryContext localUserMemoryContext;
+    private final LocalMemoryContext localRevocableMemoryContext;
 
     private final List<Integer> outputChannels;
 
-    private final GroupByHash groupByHash;
-    private final GroupedTopNBuilder groupedTopNBuilder;
+    private final List<Type> sourceTypes;
+    private final List<Integer> partitionChannels;
+    private final List<Type> partitionTypes;
+    private final PageWithPositionComparator comparator;
+    private final int maxRowCountPerPartition;
+    private final boolean generateRowNumber;
+    private final Optional<Integer> hashChannel;
+    private final int expectedPositions;
+    private final JoinCompiler joinCompiler;
+    private final boolean spillEnabled;
+    private final PartitioningSpillerFactory partitioningSpillerFactory;
+
+    private GroupByHash groupByHash;
+    private GroupedTopNBuilder groupedTopNBuilder;
 
     private boolean finishing;
     private Work<?> unfinishedWork;
     private Iterator<Page> outputIterator;
 
+    // the rows retained so far are spilled, as the top rows of a partition are the top rows of the spilled rows
+    private Optional<GroupByHashSpiller> spiller = Optional.empty();
+    private Optional<Runnable> finishMemoryRevoke = Optional.empty();
+    private boolean unspilling;
+    private int nextUnspilledPartition;
+    private Iterator<Page> unspilledRows = emptyIterator();
+    private boolean unspillingFinished;
+
     public TopNRowNumberOperator(
             OperatorContext operatorContext,
             List<? extends Type> sourceTypes,
@@ -151,9 +206,29 @@ public class TopNRowNumberOperator
             Optional<Integer> hashChannel,
             int expectedPositions,
             JoinCompiler joinCompiler)
+    {
+        this(operatorContext, sourceTypes, outputChannels, partitionChannels, partitionTypes, sortChannels, sortOrders, maxRowCountPerPartition, generateRowNumber, hashChannel, expectedPositions, joinCompiler, false, unsupportedPartitioningSpillerFactory());
+    }
+
+    public TopNRowNumberOperator(
+            OperatorContext operatorContext,
+            List<? extends Type> sourceTypes,
+            List<Integer> outputChannels,
+            List<Integer> partitionChannels,
+            List<Type> partitionTypes,
+            List<Integer> sortChannels,
+            List<SortOrder> sortOrders,
+            int maxRowCountPerPartition,
+            boolean generateRowNumber,
+            Optional<Integer> hashChannel,
+            int expectedPositions,
+            JoinCompiler joinCompiler,
+            boolean spillEnabled,
+            PartitioningSpillerFactory partitioningSpillerFactory)
     {
         this.operatorContext = requireNonNull(operatorContext, "operatorContext is null");
         this.localUserMemoryContext = operatorContext.localUserMemoryContext();
+        this.localRevocableMemoryContext = operatorContext.localRevocableMemoryContext();
 
         ImmutableList.Builder<Integer> outputChannelsBuilder = ImmutableList.builder();
         for (int channel : requireNonNull(outputChannels, "outputChannels is null")) {
@@ -165,9 +240,29 @@ public class TopNRowNumberOperator
         this.outputChannels = outputChannelsBuilder.build();
 
         checkArgument(maxRowCountPerPartition > 0, "maxRowCountPerPartition must be > 0");
-
         if (!partitionChannels.isEmpty()) {
             checkArgument(expectedPositions > 0, "expectedPositions must be > 0");
+        }
+
+        this.sourceTypes = ImmutableList.copyOf(sourceTypes);
+        this.partitionChannels = ImmutableList.copyOf(partitionChannels);
+        this.partitionTypes = ImmutableList.copyOf(partitionTypes);
+        this.comparator = new SimplePageWithPositionComparator(toTypes(sourceTypes, outputChannels, generateRowNumber), sortChannels, sortOrders);
+        this.maxRowCountPerPartition = maxRowCountPerPartition;
+        this.generateRowNumber = generateRowNumber;
+        this.hashChannel = requireNonNull(hashChannel, "hashChannel is null");
+        this.expectedPositions = expectedPositions;
+        this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
+        // without partitions at most maxRowCountPerPartition rows are retained
+        this.spillEnabled = spillEnabled && !partitionChannels.isEmpty();
+        this.partitioningSpillerFactory = requireNonNull(partitioningSpillerFactory, "partitioningSpillerFactory is null");
+
+        createGroupedTopNBuilder();
+    }
+
+    private void createGroupedTopNBuilder()
+    {
+        if (!partitionChannels.isEmpty()) {
             groupByHash = createGroupByHash(
                     partitionTypes,
                     Ints.toArray(partitionChannels),
@@ -181,10 +276,9 @@ public class TopNRowNumberOperator
             groupByHash = new NoChannelGroupByHash();
         }
 
-        List<Type> types = toTypes(sourceTypes, outputChannels, generateRowNumber);
         this.groupedTopNBuilder = new GroupedTopNBuilder(
-                ImmutableList.copyOf(sourceTypes),
-                new SimplePageWithPositionComparator(types, sortChannels, sortOrders),
+                sourceTypes,
+                comparator,
                 maxRowCountPerPartition,
                 generateRowNumber,
                 groupByHash);
@@ -205,10 +299,22 @@ public class TopNRowNumberOperator
     @Override
     public boolean isFinished()
     {
+        if (unspilling) {
+            return unspillingFinished;
+        }
         // has no more input, has finished flushing, and has no unfinished work
         return finishing && outputIterator != null && !outputIterator.hasNext() && unfinishedWork == null;
     }
 
+    @Override
+    public ListenableFuture<?> isBlocked()
+    {
+        if (spiller.isPresent()) {
+            return spiller.get().getSpillInProgress();
+        }
+        return NOT_BLOCKED;
+    }
+
     @Override
     public boolean needsInput()
     {
@@ -246,25 +352,168 @@ public class TopNRowNumberOperator
             return null;
         }
 
+        if (spiller.isPresent()) {
+            return getUnspilledOutput();
+        }
+
         if (outputIterator == null) {
+            if (spillEnabled && !convertRevocableMemoryToUserMemory()) {
+                // spill since revocable memory could not be converted to user memory
+                spillRetainedRows();
+                updateMemoryReservation();
+                return null;
+            }
             // start flushing
             outputIterator = groupedTopNBuilder.buildResult();
         }
 
         Page output = null;
         if (outputIterator.hasNext()) {
-            Page page = outputIterator.next();
-            // rewrite to expected column ordering
-            Block[] blocks = new Block[page.getChannelCount()];
-            for (int i = 0; i < outputChannels.size(); i++) {
-                blocks[i] = page.getBlock(outputChannels.get(i));
-            }
-            output = new Page(blocks);
+            output = toOutputPage(outputIterator.next());
         }
         updateMemoryReservation();
         return output;
     }
 
+    private boolean convertRevocableMemoryToUserMemory()
+    {
+        long revocableBytes = localRevocableMemoryContext.getBytes();
+        localRevocableMemoryContext.setBytes(0);
+        if (!localUserMemoryContext.trySetBytes(localUserMemoryContext.getBytes() + revocableBytes)) {
+            localRevocableMemoryContext.setBytes(revocableBytes);
+            return false;
+        }
+        return true;
+    }
+
+    private Page getUnspilledOutput()
+    {
+        GroupByHashSpiller spiller = this.spiller.get();
+        if (!spiller.getSpillInProgress().isDone()) {
+            return null;
+        }
+
+        if (!unspilling) {
+            // spill the remaining rows, so that every partition is built from the spilled rows only
+            unspilling = true;
+            if (groupedTopNBuilder != null) {
+                spillRetainedRows();
+                updateMemoryReservation();
+                return null;
+            }
+        }
+
+        while (!unspillingFinished) {
+            if (unfinishedWork != null) {
+                boolean finished = unfinishedWork.process();
+                updateMemoryReservation();
+                if (!finished) {
+                    // waiting for memory
+                    return null;
+                }
+                unfinishedWork = null;
+            }
+
+            if (outputIterator != null) {
+                if (outputIterator.hasNext()) {
+                    Page output = toOutputPage(outputIterator.next());
+                    updateMemoryReservation();
+                    return output;
+                }
+                outputIterator = null;
+                groupedTopNBuilder = null;
+            }
+
+            if (unspilledRows.hasNext()) {
+                unfinishedWork = groupedTopNBuilder.processPage(unspilledRows.next());
+            }
+            else if (groupedTopNBuilder != null) {
+                outputIterator = groupedTopNBuilder.buildResult();
+            }
+            else if (nextUnspilledPartition < SPILL_PARTITION_COUNT) {
+                createGroupedTopNBuilder();
+                unspilledRows = spiller.getSpilledInput(nextUnspilledPartition);
+                nextUnspilledPartition++;
+                updateMemoryReservation();
+            }
+            else {
+                spiller.verifyAllPartitionsRead();
+                unspillingFinished = true;
+                updateMemoryReservation();
+            }
+        }
+        return null;
+    }
+
+    private Page dropRowNumber(Page page)
+    {
+        if (!generateRowNumber) {
+            return page;
+        }
+        Block[] blocks = new Block[sourceTypes.size()];
+        for (int channel = 0; channel < blocks.length; channel++) {
+            blocks[channel] = page.getBlock(channel);
+        }
+        return new Page(page.getPositionCount(), blocks);
+    }
+
+    private Page toOutputPage(Page page)
+    {
+        // rewrite to expected column ordering
+        Block[] blocks = new Block[page.getChannelCount()];
+        for (int i = 0; i < outputChannels.size(); i++) {
+            blocks[i] = page.getBlock(outputChannels.get(i));
+        }
+        return new Page(blocks);
+    }
+
+    @Override
+    public ListenableFuture<?> startMemoryRevoke()
+    {
+        checkState(spillEnabled, "Spill not enabled, no revokable memory should be reserved");
+
+        if (localRevocableMemoryContext.getBytes() == 0) {
+            // Probably stale revoking request
+            finishMemoryRevoke = Optional.of(() -> {});
+            return NOT_BLOCKED;
+        }
+
+        // processing a page never yields on revocable memory
+        verify(unfinishedWork == null, "unfinishedWork is not empty");
+        ListenableFuture<?> spillingFuture = spillRetainedRows();
+        finishMemoryRevoke = Optional.of(() -> {
+            createGroupedTopNBuilder();
+            updateMemoryReservation();
+        });
+        return spillingFuture;
+    }
+
+    @Override
+    public void finishMemoryRevoke()
+    {
+        checkState(finishMemoryRevoke.isPresent(), "Cannot finish unknown revoking");
+        finishMemoryRevoke.get().run();
+        finishMemoryRevoke = Optional.empty();
+    }
+
+    private ListenableFuture<?> spillRetainedRows()
+    {
+        if (!spiller.isPresent()) {
+            spiller = Optional.of(new GroupByHashSpiller(
+                    sourceTypes,
+                    partitionChannels,
+                    hashChannel,
+                    ImmutableList.of(),
+                    partitioningSpillerFactory,
+                    operatorContext));
+        }
+        // the row numbers are produced again when the partitions are unspilled
+        Iterator<Page> retainedRows = Iterators.transform(groupedTopNBuilder.buildResult(), this::dropRowNumber);
+        groupedTopNBuilder = null;
+        groupByHash = null;
+        return spiller.get().spillInput(retainedRows);
+    }
+
     @VisibleForTesting
     public int getCapacity()
     {
@@ -274,8 +523,15 @@ public class TopNRowNumberOperator
 
     private boolean updateMemoryReservation()
     {
+        long estimatedSize = groupedTopNBuilder == null ? 0 : groupedTopNBuilder.getEstimatedSizeInBytes();
+        if (spillEnabled && !finishing) {
+            // the retained rows can be spilled, so there is no need to wait for memory
+            localRevocableMemoryContext.setBytes(estimatedSize);
+            return true;
+        }
         // TODO: may need to use trySetMemoryReservation with a compaction to free memory (but that may cause GC pressure)
-        localUserMemoryContext.setBytes(groupedTopNBuilder.getEstimatedSizeInBytes());
+        localRevocableMemoryContext.setBytes(0);
+        localUserMemoryContext.setBytes(estimatedSize);
         return operatorContext.isWaitingForMemory().isDone();
     }
 
@@ -290,4 +546,14 @@ public class TopNRowNumberOperator
         }
         return types.build();
     }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        groupedTopNBuilder = null;
+        if (spiller.isPresent()) {
+            spiller.get().close();
+        }
+    }
 }
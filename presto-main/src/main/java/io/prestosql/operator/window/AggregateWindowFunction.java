@@ -21,6 +21,9 @@ import io.prestosql.operator.aggregation.InternalAggregationFunction;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.function.WindowFunction;
 import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.spi.type.FixedWidthType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
 
 import java.util.List;
 import java.util.Optional;
@@ -32,12 +35,18 @@ import static java.util.Objects.requireNonNull;
 public class AggregateWindowFunction
         implements WindowFunction
 {
+    // frames spanning fewer rows than this are cheaper to accumulate than to combine from the segment tree
+    private static final int SEGMENT_TREE_MIN_FRAME_SIZE = 64;
+    private static final int SEGMENT_TREE_LEAF_SIZE = 16;
+
     private final List<Integer> argumentChannels;
     private final AccumulatorFactory accumulatorFactory;
     private final boolean accumulatorHasRemoveInput;
+    private final boolean segmentTreeEnabled;
 
     private WindowIndex windowIndex;
     private Accumulator accumulator;
+    private WindowSegmentTree segmentTree;
     private int currentStart;
     private int currentEnd;
 
@@ -46,12 +55,17 @@ public class AggregateWindowFunction
         this.argumentChannels = ImmutableList.copyOf(argumentChannels);
         this.accumulatorFactory = function.bind(createArgs(function), Optional.empty());
         this.accumulatorHasRemoveInput = accumulatorFactory.hasRemoveInput();
+        // The tree keeps O(n / leaf size) states per partition outside of memory accounting, which is only
+        // negligible for fixed width states. Variable width states such as the ones of array_agg would repeat
+        // all values of the partition on every level of the tree.
+        this.segmentTreeEnabled = function.isDecomposable() && isFixedWidth(function.getIntermediateType());
     }
 
     @Override
     public void reset(WindowIndex windowIndex)
     {
         this.windowIndex = windowIndex;
+        this.segmentTree = null;
         resetAccumulator();
     }
 
@@ -107,6 +121,18 @@ public class AggregateWindowFunction
             }
         }
 
+        if (segmentTreeEnabled && (frameEnd - frameStart + 1) >= SEGMENT_TREE_MIN_FRAME_SIZE) {
+            // Combine the intermediate states of the frame rows instead of accumulating each of them
+            if (segmentTree == null) {
+                segmentTree = new WindowSegmentTree(accumulatorFactory, argumentChannels, windowIndex, SEGMENT_TREE_LEAF_SIZE);
+            }
+            accumulator = accumulatorFactory.createAccumulator();
+            segmentTree.addFrame(accumulator, frameStart, frameEnd);
+            currentStart = frameStart;
+            currentEnd = frameEnd;
+            return;
+        }
+
         // We couldn't or didn't want to modify the accumulation: instead, discard the current accumulation and start fresh.
         resetAccumulator();
         accumulate(frameStart, frameEnd);
@@ -146,6 +172,14 @@ public class AggregateWindowFunction
         };
     }
 
+    private static boolean isFixedWidth(Type type)
+    {
+        if (type instanceof RowType) {
+            return type.getTypeParameters().stream().allMatch(AggregateWindowFunction::isFixedWidth);
+        }
+        return type instanceof FixedWidthType;
+    }
+
     private static List<Integer> createArgs(InternalAggregationFunction function)
     {
         ImmutableList.Builder<Integer> list = ImmutableList.builder();
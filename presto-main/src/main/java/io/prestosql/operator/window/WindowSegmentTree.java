@@ -0,0 +1,137 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.operator.aggregation.Accumulator;
+import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.spi.type.Type;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkPositionIndexes;
+import static java.lang.Math.min;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Segment tree of the intermediate states of an aggregation over the rows of a window partition.
+ * The leaves hold the state of {@code leafSize} consecutive rows, and every other node the combined
+ * state of its two children, so the aggregation of any frame can be computed from O(log n) states
+ * rather than from all the rows of the frame.
+ */
+class WindowSegmentTree
+{
+    private final AccumulatorFactory accumulatorFactory;
+    private final List<Integer> argumentChannels;
+    private final WindowIndex windowIndex;
+    private final int leafSize;
+    // node i of a level covers nodes 2i and 2i + 1 of the level below it
+    private final List<Block> levels;
+
+    WindowSegmentTree(AccumulatorFactory accumulatorFactory, List<Integer> argumentChannels, WindowIndex windowIndex, int leafSize)
+    {
+        this.accumulatorFactory = requireNonNull(accumulatorFactory, "accumulatorFactory is null");
+        this.argumentChannels = ImmutableList.copyOf(requireNonNull(argumentChannels, "argumentChannels is null"));
+        this.windowIndex = requireNonNull(windowIndex, "windowIndex is null");
+        checkArgument(leafSize > 0, "leafSize must be positive");
+        this.leafSize = leafSize;
+        this.levels = buildLevels();
+    }
+
+    private List<Block> buildLevels()
+    {
+        Type intermediateType = accumulatorFactory.createAccumulator().getIntermediateType();
+        ImmutableList.Builder<Block> levels = ImmutableList.builder();
+
+        int leafCount = (windowIndex.size() + leafSize - 1) / leafSize;
+        BlockBuilder leaves = intermediateType.createBlockBuilder(null, leafCount);
+        for (int leaf = 0; leaf < leafCount; leaf++) {
+            Accumulator accumulator = accumulatorFactory.createAccumulator();
+            int start = leaf * leafSize;
+            accumulator.addInput(windowIndex, argumentChannels, start, min(start + leafSize, windowIndex.size()) - 1);
+            accumulator.evaluateIntermediate(leaves);
+        }
+        Block level = leaves.build();
+        levels.add(level);
+
+        while (level.getPositionCount() > 1) {
+            int nodeCount = (level.getPositionCount() + 1) / 2;
+            BlockBuilder nodes = intermediateType.createBlockBuilder(null, nodeCount);
+            for (int node = 0; node < nodeCount; node++) {
+                Accumulator accumulator = accumulatorFactory.createAccumulator();
+                accumulator.addIntermediate(level.getRegion(2 * node, min(2, level.getPositionCount() - 2 * node)));
+                accumulator.evaluateIntermediate(nodes);
+            }
+            level = nodes.build();
+            levels.add(level);
+        }
+        return levels.build();
+    }
+
+    /**
+     * Adds the rows between {@code start} and {@code end} (inclusive) to the accumulator, in the order of the window index.
+     */
+    void addFrame(Accumulator accumulator, int start, int end)
+    {
+        checkPositionIndexes(start, end + 1, windowIndex.size());
+        int firstLeaf = (start + leafSize - 1) / leafSize;
+        int lastLeaf = (end + 1) / leafSize - 1;
+        if (firstLeaf > lastLeaf) {
+            // frame does not cover a whole leaf
+            accumulator.addInput(windowIndex, argumentChannels, start, end);
+            return;
+        }
+
+        if (start < firstLeaf * leafSize) {
+            accumulator.addInput(windowIndex, argumentChannels, start, firstLeaf * leafSize - 1);
+        }
+        addNodes(accumulator, 0, firstLeaf, lastLeaf);
+        if ((lastLeaf + 1) * leafSize <= end) {
+            accumulator.addInput(windowIndex, argumentChannels, (lastLeaf + 1) * leafSize, end);
+        }
+    }
+
+    private void addNodes(Accumulator accumulator, int level, int first, int last)
+    {
+        if (first > last) {
+            return;
+        }
+        Block nodes = levels.get(level);
+        if (first == last) {
+            accumulator.addIntermediate(nodes.getRegion(first, 1));
+            return;
+        }
+
+        // the nodes at the edges whose sibling is outside of the range are added from this level,
+        // the rest from the level above, preserving the order of the rows
+        if (first % 2 == 1) {
+            accumulator.addIntermediate(nodes.getRegion(first, 1));
+            first++;
+        }
+        boolean lastIsLeftChild = last % 2 == 0;
+        if (lastIsLeftChild) {
+            last--;
+        }
+        if (first <= last) {
+            addNodes(accumulator, level + 1, first / 2, last / 2);
+        }
+        if (lastIsLeftChild) {
+            accumulator.addIntermediate(nodes.getRegion(last + 1, 1));
+        }
+    }
+}
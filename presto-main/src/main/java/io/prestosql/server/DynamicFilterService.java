@@ -0,0 +1,368 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import io.airlift.log.Logger;
+import io.airlift.units.Duration;
+import io.prestosql.execution.TaskManagerConfig;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.spi.QueryId;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.sql.DynamicFilters;
+import io.prestosql.sql.planner.PlanFragment;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.optimizations.PlanNodeSearcher;
+import io.prestosql.sql.planner.plan.FilterNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.SymbolReference;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.prestosql.sql.DynamicFilters.extractDynamicFilters;
+import static java.util.Objects.requireNonNull;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Collects dynamic filters produced by the build side of partitioned joins and distributes
+ * them to the stages scanning the probe side. A dynamic filter is complete once every task
+ * of the producing stage has reported its build-side domain, in which case the domains are
+ * merged and delivered both to the coordinator split enumeration and to the running tasks.
+ */
+@ThreadSafe
+public class DynamicFilterService
+{
+    private static final Logger log = Logger.get(DynamicFilterService.class);
+
+    private final Metadata metadata;
+    private final Duration refreshInterval;
+    private final ScheduledExecutorService collectDynamicFiltersExecutor = newSingleThreadScheduledExecutor(daemonThreadsNamed("dynamic-filter-collector"));
+
+    private final Map<QueryId, QueryDynamicFilters> queries = new ConcurrentHashMap<>();
+
+    @Inject
+    public DynamicFilterService(Metadata metadata, TaskManagerConfig taskConfig)
+    {
+        this(metadata, requireNonNull(taskConfig, "taskConfig is null").getStatusRefreshMaxWait());
+    }
+
+    @VisibleForTesting
+    DynamicFilterService(Metadata metadata, Duration refreshInterval)
+    {
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.refreshInterval = requireNonNull(refreshInterval, "refreshInterval is null");
+    }
+
+    @PostConstruct
+    public void start()
+    {
+        collectDynamicFiltersExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                collectDynamicFilters();
+            }
+            catch (Throwable e) {
+                log.error(e, "Error collecting dynamic filters");
+            }
+        }, refreshInterval.toMillis(), refreshInterval.toMillis(), MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop()
+    {
+        collectDynamicFiltersExecutor.shutdownNow();
+    }
+
+    public void registerQuery(QueryId queryId, Supplier<List<StageDynamicFilters>> stageDynamicFiltersSupplier)
+    {
+        queries.putIfAbsent(queryId, new QueryDynamicFilters(stageDynamicFiltersSupplier));
+    }
+
+    public void removeQuery(QueryId queryId)
+    {
+        queries.remove(queryId);
+    }
+
+    /**
+     * Registers a consumer for the dynamic filters used by the table scans of the given fragment.
+     * The consumer is called (possibly multiple times) with the newly completed dynamic filters.
+     */
+    public void addDynamicFilterConsumer(QueryId queryId, PlanFragment fragment, Consumer<Map<String, Domain>> consumer)
+    {
+        requireNonNull(consumer, "consumer is null");
+        QueryDynamicFilters query = queries.get(queryId);
+        if (query == null) {
+            return;
+        }
+        Set<String> dynamicFilterIds = getConsumedDynamicFilters(fragment.getRoot());
+        if (dynamicFilterIds.isEmpty()) {
+            return;
+        }
+        Map<String, Domain> completedDomains = query.addConsumer(dynamicFilterIds, consumer);
+        if (!completedDomains.isEmpty()) {
+            consumer.accept(completedDomains);
+        }
+    }
+
+    public Supplier<TupleDomain<ColumnHandle>> createDynamicFilterSupplier(QueryId queryId, List<DynamicFilters.Descriptor> dynamicFilters, Map<Symbol, ColumnHandle> columnHandles)
+    {
+        Map<String, ColumnHandle> sourceColumnHandles = dynamicFilters.stream()
+                .filter(descriptor -> descriptor.getInput() instanceof SymbolReference)
+                .filter(descriptor -> columnHandles.containsKey(Symbol.from(descriptor.getInput())))
+                .collect(toImmutableMap(DynamicFilters.Descriptor::getId, descriptor -> columnHandles.get(Symbol.from(descriptor.getInput()))));
+
+        return () -> {
+            QueryDynamicFilters query = queries.get(queryId);
+            if (query == null) {
+                return TupleDomain.all();
+            }
+            Map<String, Domain> completedDomains = query.getCompletedDomains();
+            ImmutableMap.Builder<ColumnHandle, Domain> domains = ImmutableMap.builder();
+            for (Map.Entry<String, ColumnHandle> entry : sourceColumnHandles.entrySet()) {
+                Domain domain = completedDomains.get(entry.getKey());
+                if (domain != null) {
+                    domains.put(entry.getValue(), domain);
+                }
+            }
+            return TupleDomain.withColumnDomains(domains.build());
+        };
+    }
+
+    /**
+     * Returns a future that completes once all the given dynamic filters are complete,
+     * or once the timeout elapses.
+     */
+    public ListenableFuture<?> getDynamicFiltersCompletedFuture(QueryId queryId, Set<String> dynamicFilterIds, Duration timeout)
+    {
+        QueryDynamicFilters query = queries.get(queryId);
+        if (query == null || dynamicFilterIds.isEmpty() || timeout.toMillis() == 0) {
+            return immediateFuture(null);
+        }
+        return addTimeout(query.getCompletedFuture(dynamicFilterIds), () -> null, timeout, collectDynamicFiltersExecutor);
+    }
+
+    @VisibleForTesting
+    void collectDynamicFilters()
+    {
+        for (QueryDynamicFilters query : queries.values()) {
+            query.collect();
+        }
+    }
+
+    @VisibleForTesting
+    Map<String, Domain> getCompletedDynamicFilters(QueryId queryId)
+    {
+        QueryDynamicFilters query = queries.get(queryId);
+        if (query == null) {
+            return ImmutableMap.of();
+        }
+        return query.getCompletedDomains();
+    }
+
+    private Set<String> getConsumedDynamicFilters(PlanNode root)
+    {
+        return PlanNodeSearcher.searchFrom(root)
+                .where(node -> node instanceof FilterNode && ((FilterNode) node).getSource() instanceof TableScanNode)
+                .<FilterNode>findAll()
+                .stream()
+                .flatMap(node -> extractDynamicFilters(metadata, node.getPredicate()).getDynamicConjuncts().stream())
+                .map(DynamicFilters.Descriptor::getId)
+                .collect(toImmutableSet());
+    }
+
+    public static class StageDynamicFilters
+    {
+        private final boolean schedulingComplete;
+        private final List<Map<String, Domain>> taskDynamicFilterDomains;
+
+        public StageDynamicFilters(boolean schedulingComplete, List<Map<String, Domain>> taskDynamicFilterDomains)
+        {
+            this.schedulingComplete = schedulingComplete;
+            this.taskDynamicFilterDomains = ImmutableList.copyOf(requireNonNull(taskDynamicFilterDomains, "taskDynamicFilterDomains is null"));
+        }
+
+        /**
+         * Returns true if no more tasks will be created for the stage.
+         */
+        public boolean isSchedulingComplete()
+        {
+            return schedulingComplete;
+        }
+
+        public List<Map<String, Domain>> getTaskDynamicFilterDomains()
+        {
+            return taskDynamicFilterDomains;
+        }
+    }
+
+    @ThreadSafe
+    private static class QueryDynamicFilters
+    {
+        private final Supplier<List<StageDynamicFilters>> stageDynamicFiltersSupplier;
+
+        @GuardedBy("this")
+        private final Map<String, Domain> completedDomains = new HashMap<>();
+        @GuardedBy("this")
+        private final List<DynamicFilterConsumer> consumers = new ArrayList<>();
+        @GuardedBy("this")
+        private final Map<SettableFuture<Void>, Set<String>> pendingFutures = new HashMap<>();
+
+        private QueryDynamicFilters(Supplier<List<StageDynamicFilters>> stageDynamicFiltersSupplier)
+        {
+            this.stageDynamicFiltersSupplier = requireNonNull(stageDynamicFiltersSupplier, "stageDynamicFiltersSupplier is null");
+        }
+
+        private synchronized Map<String, Domain> getCompletedDomains()
+        {
+            return ImmutableMap.copyOf(completedDomains);
+        }
+
+        private synchronized ListenableFuture<Void> getCompletedFuture(Set<String> dynamicFilterIds)
+        {
+            if (completedDomains.keySet().containsAll(dynamicFilterIds)) {
+                return immediateFuture(null);
+            }
+            SettableFuture<Void> future = SettableFuture.create();
+            pendingFutures.put(future, ImmutableSet.copyOf(dynamicFilterIds));
+            return future;
+        }
+
+        private synchronized Map<String, Domain> addConsumer(Set<String> dynamicFilterIds, Consumer<Map<String, Domain>> consumer)
+        {
+            consumers.add(new DynamicFilterConsumer(dynamicFilterIds, consumer));
+            return filterDomains(completedDomains, dynamicFilterIds);
+        }
+
+        private void collect()
+        {
+            Map<String, Domain> newDomains = new HashMap<>();
+            for (StageDynamicFilters stage : stageDynamicFiltersSupplier.get()) {
+                newDomains.putAll(getCompletedStageDomains(stage));
+            }
+
+            List<Runnable> notifications = new ArrayList<>();
+            List<SettableFuture<Void>> completedFutures = new ArrayList<>();
+            synchronized (this) {
+                newDomains.keySet().removeAll(completedDomains.keySet());
+                if (newDomains.isEmpty()) {
+                    return;
+                }
+                completedDomains.putAll(newDomains);
+                for (DynamicFilterConsumer consumer : consumers) {
+                    Map<String, Domain> consumedDomains = filterDomains(newDomains, consumer.getDynamicFilterIds());
+                    if (!consumedDomains.isEmpty()) {
+                        notifications.add(() -> consumer.getConsumer().accept(consumedDomains));
+                    }
+                }
+                for (Iterator<Map.Entry<SettableFuture<Void>, Set<String>>> iterator = pendingFutures.entrySet().iterator(); iterator.hasNext(); ) {
+                    Map.Entry<SettableFuture<Void>, Set<String>> entry = iterator.next();
+                    if (completedDomains.keySet().containsAll(entry.getValue())) {
+                        completedFutures.add(entry.getKey());
+                        iterator.remove();
+                    }
+                }
+            }
+            // notify outside of the lock, as consumers send updates to the remote tasks
+            notifications.forEach(Runnable::run);
+            // complete the futures only after the consumers have been notified, so that tasks receive
+            // the dynamic filters before the splits whose enumeration waited for them
+            completedFutures.forEach(future -> future.set(null));
+        }
+
+        private static Map<String, Domain> getCompletedStageDomains(StageDynamicFilters stage)
+        {
+            List<Map<String, Domain>> taskDomains = stage.getTaskDynamicFilterDomains();
+            if (!stage.isSchedulingComplete() || taskDomains.isEmpty()) {
+                return ImmutableMap.of();
+            }
+
+            // a dynamic filter is complete when all tasks of the producing stage have reported it
+            Set<String> dynamicFilterIds = taskDomains.stream()
+                    .flatMap(domains -> domains.keySet().stream())
+                    .collect(toImmutableSet());
+            ImmutableMap.Builder<String, Domain> result = ImmutableMap.builder();
+            for (String dynamicFilterId : dynamicFilterIds) {
+                List<Domain> domains = new ArrayList<>();
+                for (Map<String, Domain> taskDomain : taskDomains) {
+                    Domain domain = taskDomain.get(dynamicFilterId);
+                    if (domain == null) {
+                        break;
+                    }
+                    domains.add(domain);
+                }
+                if (domains.size() == taskDomains.size()) {
+                    result.put(dynamicFilterId, Domain.union(domains));
+                }
+            }
+            return result.build();
+        }
+
+        private static Map<String, Domain> filterDomains(Map<String, Domain> domains, Set<String> dynamicFilterIds)
+        {
+            return domains.entrySet().stream()
+                    .filter(entry -> dynamicFilterIds.contains(entry.getKey()))
+                    .collect(toImmutableMap(Map.Entry::getKey, Map.Entry::getValue));
+        }
+    }
+
+    private static class DynamicFilterConsumer
+    {
+        private final Set<String> dynamicFilterIds;
+        private final Consumer<Map<String, Domain>> consumer;
+
+        private DynamicFilterConsumer(Set<String> dynamicFilterIds, Consumer<Map<String, Domain>> consumer)
+        {
+            this.dynamicFilterIds = ImmutableSet.copyOf(requireNonNull(dynamicFilterIds, "dynamicFilterIds is null"));
+            this.consumer = requireNonNull(consumer, "consumer is null");
+        }
+
+        public Set<String> getDynamicFilterIds()
+        {
+            return dynamicFilterIds;
+        }
+
+        public Consumer<Map<String, Domain>> getConsumer()
+        {
+            return consumer;
+        }
+    }
+}
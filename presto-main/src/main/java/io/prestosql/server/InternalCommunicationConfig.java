@@ -14,6 +14,7 @@
 package io.prestosql.server;
 
 import io.airlift.configuration.Config;
+import io.airlift.configuration.ConfigDescription;
 import io.airlift.configuration.ConfigSecuritySensitive;
 
 public class InternalCommunicationConfig
@@ -27,6 +28,7 @@ public class InternalCommunicationConfig
     private String trustStorePassword;
     private boolean kerberosEnabled;
     private boolean kerberosUseCanonicalHostname = true;
+    private boolean binaryTransportEnabled;
 
     public boolean isHttpsRequired()
     {
@@ -113,4 +115,17 @@ public class InternalCommunicationConfig
         this.kerberosUseCanonicalHostname = kerberosUseCanonicalHostname;
         return this;
     }
+
+    public boolean isBinaryTransportEnabled()
+    {
+        return binaryTransportEnabled;
+    }
+
+    @Config("internal-communication.binary-transport.enabled")
+    @ConfigDescription("Exchange task updates, task status and task info with the workers in Smile instead of JSON")
+    public InternalCommunicationConfig setBinaryTransportEnabled(boolean binaryTransportEnabled)
+    {
+        this.binaryTransportEnabled = binaryTransportEnabled;
+        return this;
+    }
 }
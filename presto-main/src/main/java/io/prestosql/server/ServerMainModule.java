@@ -53,8 +53,12 @@ import io.prestosql.execution.TaskManagerConfig;
 import io.prestosql.execution.TaskStatus;
 import io.prestosql.execution.executor.MultilevelSplitQueue;
 import io.prestosql.execution.executor.TaskExecutor;
+import io.prestosql.execution.resultcache.FragmentResultCacheConfig;
+import io.prestosql.execution.resultcache.FragmentResultCacheManager;
+import io.prestosql.execution.resultcache.TableScanIdentity;
 import io.prestosql.execution.scheduler.NodeScheduler;
 import io.prestosql.execution.scheduler.NodeSchedulerConfig;
+import io.prestosql.execution.scheduler.SoftAffinityNodeSelectorModule;
 import io.prestosql.execution.scheduler.TopologyAwareNodeSelectorModule;
 import io.prestosql.execution.scheduler.UniformNodeSelectorModule;
 import io.prestosql.index.IndexManager;
@@ -152,6 +156,7 @@ import static io.airlift.jaxrs.JaxrsBinder.jaxrsBinder;
 import static io.airlift.json.JsonBinder.jsonBinder;
 import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
 import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.execution.scheduler.NodeSchedulerConfig.NodeSchedulerPolicy.SOFT_AFFINITY;
 import static io.prestosql.execution.scheduler.NodeSchedulerConfig.NodeSchedulerPolicy.TOPOLOGY;
 import static io.prestosql.execution.scheduler.NodeSchedulerConfig.NodeSchedulerPolicy.UNIFORM;
 import static java.util.Objects.requireNonNull;
@@ -252,6 +257,10 @@ public class ServerMainModule
                 NodeSchedulerConfig.class,
                 config -> TOPOLOGY == config.getNodeSchedulerPolicy(),
                 new TopologyAwareNodeSelectorModule()));
+        install(installModuleIf(
+                NodeSchedulerConfig.class,
+                config -> SOFT_AFFINITY == config.getNodeSchedulerPolicy(),
+                new SoftAffinityNodeSelectorModule()));
 
         // task execution
         jaxrsBinder(binder).bind(TaskResource.class);
@@ -280,6 +289,11 @@ public class ServerMainModule
         binder.bind(MultilevelSplitQueue.class).in(Scopes.SINGLETON);
         newExporter(binder).export(MultilevelSplitQueue.class).withGeneratedName();
         binder.bind(LocalExecutionPlanner.class).in(Scopes.SINGLETON);
+        configBinder(binder).bindConfig(FragmentResultCacheConfig.class);
+        // also used by the query result cache on the coordinator
+        jsonCodecBinder(binder).bindJsonCodec(TableScanIdentity.class);
+        binder.bind(FragmentResultCacheManager.class).in(Scopes.SINGLETON);
+        newExporter(binder).export(FragmentResultCacheManager.class).withGeneratedName();
         configBinder(binder).bindConfig(CompilerConfig.class);
         binder.bind(ExpressionCompiler.class).in(Scopes.SINGLETON);
         newExporter(binder).export(ExpressionCompiler.class).withGeneratedName();
@@ -47,6 +47,9 @@ import io.prestosql.execution.TaskInfo;
 import io.prestosql.execution.buffer.PagesSerde;
 import io.prestosql.execution.buffer.PagesSerdeFactory;
 import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.execution.resultcache.QueryResultCache;
+import io.prestosql.execution.resultcache.QueryResultCacheKey;
+import io.prestosql.memory.MemoryPool;
 import io.prestosql.operator.ExchangeClient;
 import io.prestosql.spi.ErrorCode;
 import io.prestosql.spi.Page;
@@ -69,6 +72,9 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.UriInfo;
 
 import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -87,6 +93,7 @@ import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.util.concurrent.Futures.immediateFuture;
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.airlift.concurrent.MoreFutures.addTimeout;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
 import static io.prestosql.execution.QueryState.FAILED;
 import static io.prestosql.server.protocol.Slug.Context.EXECUTING_QUERY;
@@ -100,6 +107,7 @@ import static java.util.Objects.requireNonNull;
 class Query
 {
     private static final Logger log = Logger.get(Query.class);
+    private static final String RESULT_CACHE_ALLOCATION_TAG = "QueryResultCache";
 
     private final QueryManager queryManager;
     private final QueryId queryId;
@@ -114,6 +122,24 @@ class Query
 
     private final PagesSerde serde;
 
+    private final QueryResultCache queryResultCache;
+
+    // pool to which the pages retained for the result cache are charged
+    private final MemoryPool memoryPool;
+
+    @GuardedBy("this")
+    private final Deque<SerializedPage> cachedResultPages = new ArrayDeque<>();
+
+    @GuardedBy("this")
+    private Optional<QueryResultCacheKey> resultCacheKey = Optional.empty();
+
+    // pages returned to the client so far, retained while the result may still be added to the result cache
+    @GuardedBy("this")
+    private final List<SerializedPage> resultPages = new ArrayList<>();
+
+    @GuardedBy("this")
+    private long resultPagesRetainedSizeInBytes;
+
     @GuardedBy("this")
     private OptionalLong nextToken = OptionalLong.of(0);
 
@@ -169,9 +195,11 @@ class Query
             ExchangeClient exchangeClient,
             Executor dataProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache queryResultCache,
+            MemoryPool memoryPool)
     {
-        Query result = new Query(session, slug, queryManager, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde);
+        Query result = new Query(session, slug, queryManager, exchangeClient, dataProcessorExecutor, timeoutExecutor, blockEncodingSerde, queryResultCache, memoryPool);
 
         result.queryManager.addOutputInfoListener(result.getQueryId(), result::setQueryOutputInfo);
 
@@ -192,7 +220,9 @@ class Query
             ExchangeClient exchangeClient,
             Executor resultsProcessorExecutor,
             ScheduledExecutorService timeoutExecutor,
-            BlockEncodingSerde blockEncodingSerde)
+            BlockEncodingSerde blockEncodingSerde,
+            QueryResultCache queryResultCache,
+            MemoryPool memoryPool)
     {
         requireNonNull(session, "session is null");
         requireNonNull(slug, "slug is null");
@@ -201,6 +231,8 @@ class Query
         requireNonNull(resultsProcessorExecutor, "resultsProcessorExecutor is null");
         requireNonNull(timeoutExecutor, "timeoutExecutor is null");
         requireNonNull(blockEncodingSerde, "serde is null");
+        requireNonNull(queryResultCache, "queryResultCache is null");
+        requireNonNull(memoryPool, "memoryPool is null");
 
         this.queryManager = queryManager;
 
@@ -210,8 +242,10 @@ class Query
         this.exchangeClient = exchangeClient;
         this.resultsProcessorExecutor = resultsProcessorExecutor;
         this.timeoutExecutor = timeoutExecutor;
+        this.queryResultCache = queryResultCache;
+        this.memoryPool = memoryPool;
 
-        serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session)).createPagesSerde();
+        serde = new PagesSerdeFactory(blockEncodingSerde, isExchangeCompressionEnabled(session), getExchangeCompressionCodec(session), false).createPagesSerde();
     }
 
     public void cancel()
@@ -234,6 +268,8 @@ class Query
     public synchronized void dispose()
     {
         exchangeClient.close();
+        cachedResultPages.clear();
+        discardResultPages();
     }
 
     public QueryId getQueryId()
@@ -322,6 +358,11 @@ class Query
 
     private synchronized ListenableFuture<?> getFutureStateChange()
     {
+        // pages from the result cache are available immediately
+        if (!cachedResultPages.isEmpty()) {
+            return immediateFuture(null);
+        }
+
         // if the exchange client is open, wait for data
         if (!exchangeClient.isClosed()) {
             return exchangeClient.isBlocked();
@@ -398,7 +439,7 @@ class Query
             long rows = 0;
             long targetResultBytes = targetResultSize.toBytes();
             while (bytes < targetResultBytes) {
-                SerializedPage serializedPage = exchangeClient.pollPage();
+                SerializedPage serializedPage = pollPage();
                 if (serializedPage == null) {
                     break;
                 }
@@ -437,8 +478,13 @@ class Query
 
         closeExchangeClientIfNecessary(queryInfo);
 
+        if (queryInfo.getState() == QueryState.FINISHED && exchangeClient.isClosed() && resultCacheKey.isPresent()) {
+            queryResultCache.put(resultCacheKey.get(), resultPages);
+            discardResultPages();
+        }
+
         // for queries with no output, return a fake result for clients that require it
-        if ((queryInfo.getState() == QueryState.FINISHED) && !queryInfo.getOutputStage().isPresent()) {
+        if ((queryInfo.getState() == QueryState.FINISHED) && !hasOutput(queryInfo)) {
             columns = ImmutableList.of(createColumn("result", BooleanType.BOOLEAN));
             data = ImmutableSet.of(ImmutableList.of(true));
         }
@@ -447,8 +493,8 @@ class Query
         // only return a next if
         // (1) the query is not done AND the query state is not FAILED
         //   OR
-        // (2)there is more data to send (due to buffering)
-        if ((!queryInfo.isFinalQueryInfo() && queryInfo.getState() != FAILED) || !exchangeClient.isClosed()) {
+        // (2)there is more data to send (due to buffering or a cached result)
+        if ((!queryInfo.isFinalQueryInfo() && queryInfo.getState() != FAILED) || !exchangeClient.isClosed() || !cachedResultPages.isEmpty()) {
             nextToken = OptionalLong.of(token + 1);
         }
         else {
@@ -511,11 +557,48 @@ class Query
         // is done and it does not have an output stage. The latter happens
         // for data definition executions, as those do not have output.
         if ((queryInfo.getState() == FAILED) ||
-                (queryInfo.getState().isDone() && !queryInfo.getOutputStage().isPresent())) {
+                (queryInfo.getState().isDone() && !hasOutput(queryInfo))) {
             exchangeClient.close();
         }
     }
 
+    private static boolean hasOutput(QueryInfo queryInfo)
+    {
+        // queries answered from the result cache have output fields but no output stage
+        return queryInfo.getOutputStage().isPresent() || !queryInfo.getFieldNames().isEmpty();
+    }
+
+    private synchronized SerializedPage pollPage()
+    {
+        SerializedPage page = cachedResultPages.poll();
+        if (page != null) {
+            return page;
+        }
+
+        page = exchangeClient.pollPage();
+        if (page != null && resultCacheKey.isPresent()) {
+            // the retained pages are charged to the query, and the result is not cached when the pool is full
+            long pageSize = page.getRetainedSizeInBytes();
+            if (resultPagesRetainedSizeInBytes + pageSize > queryResultCache.getMaxEntrySizeInBytes() ||
+                    !memoryPool.tryReserve(queryId, RESULT_CACHE_ALLOCATION_TAG, pageSize)) {
+                discardResultPages();
+            }
+            else {
+                resultPagesRetainedSizeInBytes += pageSize;
+                resultPages.add(page);
+            }
+        }
+        return page;
+    }
+
+    private synchronized void discardResultPages()
+    {
+        resultCacheKey = Optional.empty();
+        resultPages.clear();
+        memoryPool.free(queryId, RESULT_CACHE_ALLOCATION_TAG, resultPagesRetainedSizeInBytes);
+        resultPagesRetainedSizeInBytes = 0;
+    }
+
     private synchronized void setQueryOutputInfo(QueryExecution.QueryOutputInfo outputInfo)
     {
         // if first callback, set column names
@@ -530,6 +613,13 @@ class Query
             }
             columns = list.build();
             types = outputInfo.getColumnTypes();
+
+            if (outputInfo.getCachedResult().isPresent()) {
+                cachedResultPages.addAll(outputInfo.getCachedResult().get());
+            }
+            else {
+                resultCacheKey = outputInfo.getResultCacheKey();
+            }
         }
 
         for (URI outputLocation : outputInfo.getBufferLocations()) {
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import com.google.common.net.MediaType;
+import io.airlift.json.JsonCodec;
+import io.prestosql.server.smile.SmileCodec;
+
+import java.util.Optional;
+
+import static com.google.common.net.MediaType.JSON_UTF_8;
+import static io.prestosql.PrestoMediaTypes.JACKSON_SMILE_TYPE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Codec for the bodies exchanged with the task resource of the workers.
+ * Requests are encoded in the preferred media type, while responses are
+ * decoded according to their own content type, so a worker that answers
+ * in JSON is understood by a coordinator that prefers Smile.
+ */
+public final class RemoteTaskCodec<T>
+{
+    private final JsonCodec<T> jsonCodec;
+    private final Optional<SmileCodec<T>> smileCodec;
+
+    public static <T> RemoteTaskCodec<T> jsonCodec(JsonCodec<T> jsonCodec)
+    {
+        return new RemoteTaskCodec<>(jsonCodec, Optional.empty());
+    }
+
+    public static <T> RemoteTaskCodec<T> smileCodec(JsonCodec<T> jsonCodec, SmileCodec<T> smileCodec)
+    {
+        return new RemoteTaskCodec<>(jsonCodec, Optional.of(smileCodec));
+    }
+
+    private RemoteTaskCodec(JsonCodec<T> jsonCodec, Optional<SmileCodec<T>> smileCodec)
+    {
+        this.jsonCodec = requireNonNull(jsonCodec, "jsonCodec is null");
+        this.smileCodec = requireNonNull(smileCodec, "smileCodec is null");
+    }
+
+    public MediaType getMediaType()
+    {
+        return smileCodec.isPresent() ? JACKSON_SMILE_TYPE : JSON_UTF_8;
+    }
+
+    public byte[] toBytes(T value)
+    {
+        if (smileCodec.isPresent()) {
+            return smileCodec.get().toSmile(value);
+        }
+        return jsonCodec.toJsonBytes(value);
+    }
+
+    public boolean canDecode(MediaType contentType)
+    {
+        return isJson(contentType) || (smileCodec.isPresent() && isSmile(contentType));
+    }
+
+    public T fromBytes(MediaType contentType, byte[] bytes)
+            throws IllegalArgumentException
+    {
+        if (smileCodec.isPresent() && isSmile(contentType)) {
+            return smileCodec.get().fromSmile(bytes);
+        }
+        return jsonCodec.fromJson(bytes);
+    }
+
+    private static boolean isJson(MediaType contentType)
+    {
+        return contentType.is(JSON_UTF_8.withoutParameters());
+    }
+
+    private static boolean isSmile(MediaType contentType)
+    {
+        return contentType.is(JACKSON_SMILE_TYPE);
+    }
+}
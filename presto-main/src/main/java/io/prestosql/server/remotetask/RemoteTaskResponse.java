@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.requireNonNull;
+
+public class RemoteTaskResponse<T>
+{
+    private final int statusCode;
+    private final String statusMessage;
+    private final byte[] responseBytes;
+    private final boolean hasValue;
+    private final T value;
+    private final IllegalArgumentException exception;
+
+    public RemoteTaskResponse(int statusCode, String statusMessage, byte[] responseBytes)
+    {
+        this(statusCode, statusMessage, responseBytes, false, null, null);
+    }
+
+    public RemoteTaskResponse(int statusCode, String statusMessage, byte[] responseBytes, T value)
+    {
+        this(statusCode, statusMessage, responseBytes, true, value, null);
+    }
+
+    public RemoteTaskResponse(int statusCode, String statusMessage, byte[] responseBytes, IllegalArgumentException exception)
+    {
+        this(statusCode, statusMessage, responseBytes, false, null, requireNonNull(exception, "exception is null"));
+    }
+
+    private RemoteTaskResponse(int statusCode, String statusMessage, byte[] responseBytes, boolean hasValue, T value, IllegalArgumentException exception)
+    {
+        this.statusCode = statusCode;
+        this.statusMessage = statusMessage;
+        this.responseBytes = requireNonNull(responseBytes, "responseBytes is null");
+        this.hasValue = hasValue;
+        this.value = value;
+        this.exception = exception;
+    }
+
+    public int getStatusCode()
+    {
+        return statusCode;
+    }
+
+    public String getStatusMessage()
+    {
+        return statusMessage;
+    }
+
+    public boolean hasValue()
+    {
+        return hasValue;
+    }
+
+    public T getValue()
+    {
+        if (!hasValue) {
+            throw new IllegalStateException("Response does not contain a decoded value", exception);
+        }
+        return value;
+    }
+
+    public int getResponseSize()
+    {
+        return responseBytes.length;
+    }
+
+    public String getResponseBody()
+    {
+        return new String(responseBytes, UTF_8);
+    }
+
+    public IllegalArgumentException getException()
+    {
+        return exception;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("statusCode", statusCode)
+                .add("statusMessage", statusMessage)
+                .add("responseSize", responseBytes.length)
+                .add("hasValue", hasValue)
+                .toString();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import com.google.common.io.ByteStreams;
+import com.google.common.net.MediaType;
+import io.airlift.http.client.Request;
+import io.airlift.http.client.Response;
+import io.airlift.http.client.ResponseHandler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import static com.google.common.net.HttpHeaders.CONTENT_TYPE;
+import static io.airlift.http.client.ResponseHandlerUtils.propagate;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Reads the full response of a task resource request and decodes it with
+ * the codec matching its content type. This is the counterpart of
+ * {@link io.airlift.http.client.FullJsonResponseHandler} for {@link RemoteTaskCodec}.
+ */
+public class RemoteTaskResponseHandler<T>
+        implements ResponseHandler<RemoteTaskResponse<T>, RuntimeException>
+{
+    private final RemoteTaskCodec<T> codec;
+
+    public static <T> RemoteTaskResponseHandler<T> createRemoteTaskResponseHandler(RemoteTaskCodec<T> codec)
+    {
+        return new RemoteTaskResponseHandler<>(codec);
+    }
+
+    private RemoteTaskResponseHandler(RemoteTaskCodec<T> codec)
+    {
+        this.codec = requireNonNull(codec, "codec is null");
+    }
+
+    @Override
+    public RemoteTaskResponse<T> handleException(Request request, Exception exception)
+    {
+        throw propagate(request, exception);
+    }
+
+    @Override
+    public RemoteTaskResponse<T> handle(Request request, Response response)
+    {
+        byte[] bytes = readResponseBytes(response);
+        String contentType = response.getHeader(CONTENT_TYPE);
+        if (contentType == null) {
+            return new RemoteTaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes);
+        }
+        MediaType mediaType = MediaType.parse(contentType);
+        if (!codec.canDecode(mediaType)) {
+            return new RemoteTaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes);
+        }
+        try {
+            return new RemoteTaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes, codec.fromBytes(mediaType, bytes));
+        }
+        catch (IllegalArgumentException e) {
+            return new RemoteTaskResponse<>(response.getStatusCode(), response.getStatusMessage(), bytes, e);
+        }
+    }
+
+    private static byte[] readResponseBytes(Response response)
+    {
+        try (InputStream input = response.getInputStream()) {
+            return ByteStreams.toByteArray(input);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException("Error reading response from server", e);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.smile;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Encodes values in the Smile binary form of JSON. The values are mapped with
+ * the same {@link ObjectMapper} as the JSON codecs, so every type that can be
+ * sent as JSON can be sent as Smile.
+ */
+public class SmileCodec<T>
+{
+    private final JavaType type;
+    private final SmileFactory smileFactory;
+    private final ObjectReader reader;
+    private final ObjectWriter writer;
+
+    SmileCodec(ObjectMapper mapper, JavaType type)
+    {
+        requireNonNull(mapper, "mapper is null");
+        this.type = requireNonNull(type, "type is null");
+        this.smileFactory = new SmileFactory(mapper);
+        this.reader = mapper.readerFor(type);
+        this.writer = mapper.writerFor(type);
+    }
+
+    public T fromSmile(byte[] bytes)
+            throws IllegalArgumentException
+    {
+        try {
+            return reader.readValue(smileFactory.createParser(bytes));
+        }
+        catch (IOException e) {
+            throw new IllegalArgumentException("Invalid Smile bytes for " + type, e);
+        }
+    }
+
+    public byte[] toSmile(T instance)
+    {
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonGenerator generator = smileFactory.createGenerator(out)) {
+                writer.writeValue(generator, instance);
+            }
+            return out.toByteArray();
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
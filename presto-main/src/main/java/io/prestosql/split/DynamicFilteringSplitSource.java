@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.split;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.execution.Lifespan;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorPartitionHandle;
+import io.prestosql.spi.predicate.TupleDomain;
+
+import javax.annotation.Nullable;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Suppliers.memoize;
+import static com.google.common.util.concurrent.Futures.immediateFuture;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Stops enumerating splits once the dynamic filter of the scanned table is known to be empty.
+ * Dynamic filters are only created for inner joins, so no split could produce a matching row.
+ * Enumeration of the first batch can be delayed until the dynamic filters collected by the
+ * coordinator are complete, so that the scan of every split benefits from them.
+ */
+public class DynamicFilteringSplitSource
+        implements SplitSource
+{
+    private final SplitSource splitSource;
+    private final Supplier<TupleDomain<ColumnHandle>> dynamicFilter;
+    private final Supplier<ListenableFuture<?>> dynamicFilterCompleted;
+
+    public DynamicFilteringSplitSource(SplitSource splitSource, Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+    {
+        this(splitSource, dynamicFilter, () -> immediateFuture(null));
+    }
+
+    /**
+     * @param dynamicFilterCompleted creates the future for which the enumeration waits; it is created when the first batch is requested
+     */
+    public DynamicFilteringSplitSource(SplitSource splitSource, Supplier<TupleDomain<ColumnHandle>> dynamicFilter, Supplier<ListenableFuture<?>> dynamicFilterCompleted)
+    {
+        this.splitSource = requireNonNull(splitSource, "splitSource is null");
+        this.dynamicFilter = requireNonNull(dynamicFilter, "dynamicFilter is null");
+        this.dynamicFilterCompleted = memoize(requireNonNull(dynamicFilterCompleted, "dynamicFilterCompleted is null"));
+    }
+
+    @Nullable
+    @Override
+    public CatalogName getCatalogName()
+    {
+        return splitSource.getCatalogName();
+    }
+
+    @Override
+    public ListenableFuture<SplitBatch> getNextBatch(ConnectorPartitionHandle partitionHandle, Lifespan lifespan, int maxSize)
+    {
+        ListenableFuture<?> completed = dynamicFilterCompleted.get();
+        if (!completed.isDone()) {
+            return Futures.transformAsync(completed, ignored -> getNextBatch(partitionHandle, lifespan, maxSize), directExecutor());
+        }
+        if (dynamicFilter.get().isNone()) {
+            return Futures.immediateFuture(new SplitBatch(ImmutableList.of(), true));
+        }
+        ListenableFuture<SplitBatch> batch = splitSource.getNextBatch(partitionHandle, lifespan, maxSize);
+        return Futures.transform(batch, splitBatch -> {
+            if (dynamicFilter.get().isNone()) {
+                return new SplitBatch(ImmutableList.of(), true);
+            }
+            return splitBatch;
+        }, directExecutor());
+    }
+
+    @Override
+    public void close()
+    {
+        splitSource.close();
+    }
+
+    @Override
+    public boolean isFinished()
+    {
+        return dynamicFilter.get().isNone() || splitSource.isFinished();
+    }
+
+    @Override
+    public Optional<Integer> getMinScheduleSplitBatchSize()
+    {
+        return splitSource.getMinScheduleSplitBatchSize();
+    }
+}
@@ -59,7 +59,7 @@ public final class Serialization
         public Expression deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
                 throws IOException
         {
-            return rewriteIdentifiersToSymbolReferences(sqlParser.createExpression(jsonParser.readValueAs(String.class)));
+            return rewriteIdentifiersToSymbolReferences(sqlParser.createExpression(deserializationContext.readValue(jsonParser, String.class)));
         }
     }
 
@@ -78,7 +78,7 @@ public final class Serialization
         public FunctionCall deserialize(JsonParser jsonParser, DeserializationContext deserializationContext)
                 throws IOException
         {
-            return (FunctionCall) rewriteIdentifiersToSymbolReferences(sqlParser.createExpression(jsonParser.readValueAs(String.class)));
+            return (FunctionCall) rewriteIdentifiersToSymbolReferences(sqlParser.createExpression(deserializationContext.readValue(jsonParser, String.class)));
         }
     }
 }
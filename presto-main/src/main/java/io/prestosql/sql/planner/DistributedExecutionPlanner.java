@@ -16,12 +16,18 @@ package io.prestosql.sql.planner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.airlift.log.Logger;
+import io.airlift.units.Duration;
 import io.prestosql.Session;
 import io.prestosql.execution.TableInfo;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.metadata.TableMetadata;
 import io.prestosql.metadata.TableProperties;
 import io.prestosql.operator.StageExecutionDescriptor;
+import io.prestosql.server.DynamicFilterService;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorSplitManager.SplitSchedulingStrategy;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.split.DynamicFilteringSplitSource;
 import io.prestosql.split.SampledSplitSource;
 import io.prestosql.split.SplitManager;
 import io.prestosql.split.SplitSource;
@@ -67,9 +73,13 @@ import javax.inject.Inject;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.getOnlyElement;
+import static io.prestosql.SystemSessionProperties.getDynamicFilteringWaitTimeout;
 import static io.prestosql.spi.connector.ConnectorSplitManager.SplitSchedulingStrategy.GROUPED_SCHEDULING;
 import static io.prestosql.spi.connector.ConnectorSplitManager.SplitSchedulingStrategy.UNGROUPED_SCHEDULING;
 import static io.prestosql.sql.DynamicFilters.extractDynamicFilters;
@@ -82,12 +92,14 @@ public class DistributedExecutionPlanner
 
     private final SplitManager splitManager;
     private final Metadata metadata;
+    private final DynamicFilterService dynamicFilterService;
 
     @Inject
-    public DistributedExecutionPlanner(SplitManager splitManager, Metadata metadata)
+    public DistributedExecutionPlanner(SplitManager splitManager, Metadata metadata, DynamicFilterService dynamicFilterService)
     {
         this.splitManager = requireNonNull(splitManager, "splitManager is null");
         this.metadata = requireNonNull(metadata, "metadata is null");
+        this.dynamicFilterService = requireNonNull(dynamicFilterService, "dynamicFilterService is null");
     }
 
     public StageExecutionPlan plan(SubPlan root, Session session)
@@ -117,7 +129,7 @@ public class DistributedExecutionPlanner
         PlanFragment currentFragment = root.getFragment();
 
         // get splits for this fragment, this is lazy so split assignments aren't actually calculated here
-        Map<PlanNodeId, SplitSource> splitSources = currentFragment.getRoot().accept(new Visitor(session, currentFragment.getStageExecutionDescriptor(), allSplitSources), null);
+        Map<PlanNodeId, SplitSource> splitSources = currentFragment.getRoot().accept(new Visitor(session, currentFragment.getStageExecutionDescriptor(), getLocalDynamicFilters(currentFragment), allSplitSources), null);
 
         // create child stages
         ImmutableList.Builder<StageExecutionPlan> dependencies = ImmutableList.builder();
@@ -140,6 +152,16 @@ public class DistributedExecutionPlanner
                 tables);
     }
 
+    private static Set<String> getLocalDynamicFilters(PlanFragment fragment)
+    {
+        return searchFrom(fragment.getRoot())
+                .where(JoinNode.class::isInstance)
+                .<JoinNode>findAll()
+                .stream()
+                .flatMap(node -> node.getDynamicFilters().keySet().stream())
+                .collect(toImmutableSet());
+    }
+
     private TableInfo getTableInfo(TableScanNode node, Session session)
     {
         TableMetadata tableMetadata = metadata.getTableMetadata(session, node.getTable());
@@ -152,12 +174,14 @@ public class DistributedExecutionPlanner
     {
         private final Session session;
         private final StageExecutionDescriptor stageExecutionDescriptor;
+        private final Set<String> localDynamicFilters;
         private final ImmutableList.Builder<SplitSource> splitSources;
 
-        private Visitor(Session session, StageExecutionDescriptor stageExecutionDescriptor, ImmutableList.Builder<SplitSource> allSplitSources)
+        private Visitor(Session session, StageExecutionDescriptor stageExecutionDescriptor, Set<String> localDynamicFilters, ImmutableList.Builder<SplitSource> allSplitSources)
         {
             this.session = session;
             this.stageExecutionDescriptor = stageExecutionDescriptor;
+            this.localDynamicFilters = localDynamicFilters;
             this.splitSources = allSplitSources;
         }
 
@@ -181,16 +205,32 @@ public class DistributedExecutionPlanner
                     .map(DynamicFilters.ExtractResult::getDynamicConjuncts)
                     .orElse(ImmutableList.of());
 
-            // TODO: Execution must be plugged in here
+            SplitSchedulingStrategy splitSchedulingStrategy = stageExecutionDescriptor.isScanGroupedExecution(node.getId()) ? GROUPED_SCHEDULING : UNGROUPED_SCHEDULING;
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter = TupleDomain::all;
             if (!dynamicFilters.isEmpty()) {
                 log.debug("Dynamic filters: %s", dynamicFilters);
+                dynamicFilter = dynamicFilterService.createDynamicFilterSupplier(session.getQueryId(), dynamicFilters, node.getAssignments());
             }
 
             // get dataSource for table
             SplitSource splitSource = splitManager.getSplits(
                     session,
                     node.getTable(),
-                    stageExecutionDescriptor.isScanGroupedExecution(node.getId()) ? GROUPED_SCHEDULING : UNGROUPED_SCHEDULING);
+                    splitSchedulingStrategy,
+                    dynamicFilter);
+
+            if (!dynamicFilters.isEmpty() && splitSchedulingStrategy == UNGROUPED_SCHEDULING) {
+                // only the dynamic filters of joins in other fragments are collected by the coordinator
+                Set<String> remoteDynamicFilters = dynamicFilters.stream()
+                        .map(DynamicFilters.Descriptor::getId)
+                        .filter(id -> !localDynamicFilters.contains(id))
+                        .collect(toImmutableSet());
+                Duration waitTimeout = getDynamicFilteringWaitTimeout(session);
+                splitSource = new DynamicFilteringSplitSource(
+                        splitSource,
+                        dynamicFilter,
+                        () -> dynamicFilterService.getDynamicFiltersCompletedFuture(session.getQueryId(), remoteDynamicFilters, waitTimeout));
+            }
 
             splitSources.add(splitSource);
 
@@ -16,6 +16,7 @@ package io.prestosql.sql.planner;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import io.airlift.log.Logger;
@@ -38,8 +39,10 @@ import java.util.function.Consumer;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Verify.verify;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
 import static io.prestosql.sql.DynamicFilters.Descriptor;
 import static io.prestosql.sql.DynamicFilters.extractDynamicFilters;
+import static io.prestosql.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toMap;
 
@@ -53,7 +56,8 @@ public class LocalDynamicFilter
     // Mapping from dynamic filter ID to its build channel indices.
     private final Map<String, Integer> buildChannels;
 
-    private final SettableFuture<TupleDomain<Symbol>> resultFuture;
+    // Resulting predicate keyed by dynamic filter ID (used for reporting the filter to the coordinator).
+    private final SettableFuture<TupleDomain<String>> resultFuture;
 
     // The resulting predicate for local dynamic filtering.
     private TupleDomain<String> result;
@@ -65,7 +69,7 @@ public class LocalDynamicFilter
     {
         this.probeSymbols = requireNonNull(probeSymbols, "probeSymbols is null");
         this.buildChannels = requireNonNull(buildChannels, "buildChannels is null");
-        verify(probeSymbols.keySet().equals(buildChannels.keySet()), "probeSymbols and buildChannels must have same keys");
+        verify(buildChannels.keySet().containsAll(probeSymbols.keySet()), "buildChannels must contain all probeSymbols keys");
 
         this.resultFuture = SettableFuture.create();
 
@@ -83,7 +87,7 @@ public class LocalDynamicFilter
         result = TupleDomain.columnWiseUnion(result, tupleDomain);
         if (partitionsLeft == 0) {
             // No more partitions are left to be processed.
-            verify(resultFuture.set(convertTupleDomain(result)), "dynamic filter result is provided more than once");
+            verify(resultFuture.set(result), "dynamic filter result is provided more than once");
         }
     }
 
@@ -98,6 +102,7 @@ public class LocalDynamicFilter
         for (Map.Entry<String, Domain> entry : result.getDomains().get().entrySet()) {
             Domain domain = entry.getValue();
             // Store all matching symbols for each build channel index.
+            // Dynamic filters without local probe symbols are only reported to the coordinator.
             for (Symbol probeSymbol : probeSymbols.get(entry.getKey())) {
                 builder.put(probeSymbol, domain);
             }
@@ -131,9 +136,11 @@ public class LocalDynamicFilter
 
         Multimap<String, Symbol> probeSymbols = probeSymbolsBuilder.build();
         PlanNode buildNode = planNode.getRight();
+        // Partitioned joins collect all dynamic filters, since their probe side is usually scanned by another stage.
+        boolean collectRemoteDynamicFilters = planNode.getDistributionType().equals(Optional.of(PARTITIONED));
         Map<String, Integer> buildChannels = planNode.getDynamicFilters().entrySet().stream()
                 // Skip build channels that don't match local probe dynamic filters.
-                .filter(entry -> probeSymbols.containsKey(entry.getKey()))
+                .filter(entry -> collectRemoteDynamicFilters || probeSymbols.containsKey(entry.getKey()))
                 .collect(toMap(
                         // Dynamic filter ID
                         entry -> entry.getKey(),
@@ -167,6 +174,11 @@ public class LocalDynamicFilter
     }
 
     public ListenableFuture<TupleDomain<Symbol>> getResultFuture()
+    {
+        return Futures.transform(resultFuture, this::convertTupleDomain, directExecutor());
+    }
+
+    public ListenableFuture<TupleDomain<String>> getDynamicFilterFuture()
     {
         return resultFuture;
     }
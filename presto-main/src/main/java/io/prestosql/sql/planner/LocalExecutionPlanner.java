@@ -35,6 +35,7 @@ import io.prestosql.execution.StageId;
 import io.prestosql.execution.TaskManagerConfig;
 import io.prestosql.execution.buffer.OutputBuffer;
 import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.resultcache.FragmentResultCacheManager;
 import io.prestosql.index.IndexManager;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.metadata.ResolvedFunction;
@@ -52,6 +53,7 @@ import io.prestosql.operator.ExchangeClientSupplier;
 import io.prestosql.operator.ExchangeOperator.ExchangeOperatorFactory;
 import io.prestosql.operator.ExplainAnalyzeOperator.ExplainAnalyzeOperatorFactory;
 import io.prestosql.operator.FilterAndProjectOperator;
+import io.prestosql.operator.FragmentResultCacheOperator.FragmentResultCacheOperatorFactory;
 import io.prestosql.operator.GroupIdOperator;
 import io.prestosql.operator.HashAggregationOperator.HashAggregationOperatorFactory;
 import io.prestosql.operator.HashBuilderOperator.HashBuilderOperatorFactory;
@@ -73,6 +75,7 @@ import io.prestosql.operator.OrderByOperator.OrderByOperatorFactory;
 import io.prestosql.operator.OutputFactory;
 import io.prestosql.operator.PagesIndex;
 import io.prestosql.operator.PagesSpatialIndexFactory;
+import io.prestosql.operator.PartialAggregationController;
 import io.prestosql.operator.PartitionFunction;
 import io.prestosql.operator.PartitionedLookupSourceFactory;
 import io.prestosql.operator.PartitionedOutputOperator.PartitionedOutputFactory;
@@ -124,6 +127,7 @@ import io.prestosql.spi.connector.ColumnHandle;
 import io.prestosql.spi.connector.ConnectorIndex;
 import io.prestosql.spi.connector.ConnectorSession;
 import io.prestosql.spi.connector.RecordSet;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.predicate.NullableValue;
 import io.prestosql.spi.predicate.TupleDomain;
 import io.prestosql.spi.type.Type;
@@ -220,24 +224,32 @@ import static com.google.common.base.Preconditions.checkState;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.DiscreteDomain.integers;
 import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
 import static com.google.common.collect.Iterables.concat;
 import static com.google.common.collect.Iterables.getOnlyElement;
 import static com.google.common.collect.Range.closedOpen;
 import static io.airlift.concurrent.MoreFutures.addSuccessCallback;
 import static io.airlift.units.DataSize.Unit.BYTE;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationMinRows;
+import static io.prestosql.SystemSessionProperties.getAdaptivePartialAggregationUniqueRowsRatioThreshold;
 import static io.prestosql.SystemSessionProperties.getAggregationOperatorUnspillMemoryLimit;
 import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverRowCount;
 import static io.prestosql.SystemSessionProperties.getDynamicFilteringMaxPerDriverSize;
+import static io.prestosql.SystemSessionProperties.getExchangeCompressionCodec;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageRowCount;
 import static io.prestosql.SystemSessionProperties.getFilterAndProjectMinOutputPageSize;
 import static io.prestosql.SystemSessionProperties.getTaskConcurrency;
 import static io.prestosql.SystemSessionProperties.getTaskWriterCount;
+import static io.prestosql.SystemSessionProperties.isAdaptivePartialAggregationEnabled;
 import static io.prestosql.SystemSessionProperties.isEnableDynamicFiltering;
+import static io.prestosql.SystemSessionProperties.isExchangeAdaptiveCompressionEnabled;
 import static io.prestosql.SystemSessionProperties.isExchangeCompressionEnabled;
+import static io.prestosql.SystemSessionProperties.isFragmentResultCacheEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillEnabled;
 import static io.prestosql.SystemSessionProperties.isSpillOrderBy;
 import static io.prestosql.SystemSessionProperties.isSpillWindowOperator;
+import static io.prestosql.execution.resultcache.CacheableExpressions.isCacheableExpression;
 import static io.prestosql.operator.DistinctLimitOperator.DistinctLimitOperatorFactory;
 import static io.prestosql.operator.NestedLoopBuildOperator.NestedLoopBuildOperatorFactory;
 import static io.prestosql.operator.NestedLoopJoinOperator.NestedLoopJoinOperatorFactory;
@@ -258,6 +270,7 @@ import static io.prestosql.spiller.PartitioningSpillerFactory.unsupportedPartiti
 import static io.prestosql.sql.DynamicFilters.extractDynamicFilters;
 import static io.prestosql.sql.ExpressionUtils.combineConjuncts;
 import static io.prestosql.sql.gen.LambdaBytecodeGenerator.compileLambdaProvider;
+import static io.prestosql.sql.planner.ExpressionExtractor.extractExpressions;
 import static io.prestosql.sql.planner.ExpressionNodeInliner.replaceExpression;
 import static io.prestosql.sql.planner.SortExpressionExtractor.extractSortExpression;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.COORDINATOR_DISTRIBUTION;
@@ -265,9 +278,11 @@ import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_ARBITRARY_
 import static io.prestosql.sql.planner.SystemPartitioningHandle.FIXED_BROADCAST_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SCALED_WRITER_DISTRIBUTION;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
+import static io.prestosql.sql.planner.optimizations.PlanNodeSearcher.searchFrom;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.FINAL;
 import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
 import static io.prestosql.sql.planner.plan.ExchangeNode.Scope.LOCAL;
+import static io.prestosql.sql.planner.plan.JoinNode.DistributionType.PARTITIONED;
 import static io.prestosql.sql.planner.plan.JoinNode.Type.FULL;
 import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
 import static io.prestosql.sql.planner.plan.JoinNode.Type.LEFT;
@@ -315,6 +330,7 @@ public class LocalExecutionPlanner
     private final JoinCompiler joinCompiler;
     private final LookupJoinOperators lookupJoinOperators;
     private final OrderingCompiler orderingCompiler;
+    private final FragmentResultCacheManager fragmentResultCacheManager;
 
     @Inject
     public LocalExecutionPlanner(
@@ -337,7 +353,8 @@ public class LocalExecutionPlanner
             PagesIndex.Factory pagesIndexFactory,
             JoinCompiler joinCompiler,
             LookupJoinOperators lookupJoinOperators,
-            OrderingCompiler orderingCompiler)
+            OrderingCompiler orderingCompiler,
+            FragmentResultCacheManager fragmentResultCacheManager)
     {
         this.explainAnalyzeContext = requireNonNull(explainAnalyzeContext, "explainAnalyzeContext is null");
         this.pageSourceProvider = requireNonNull(pageSourceProvider, "pageSourceProvider is null");
@@ -362,6 +379,7 @@ public class LocalExecutionPlanner
         this.joinCompiler = requireNonNull(joinCompiler, "joinCompiler is null");
         this.lookupJoinOperators = requireNonNull(lookupJoinOperators, "lookupJoinOperators is null");
         this.orderingCompiler = requireNonNull(orderingCompiler, "orderingCompiler is null");
+        this.fragmentResultCacheManager = requireNonNull(fragmentResultCacheManager, "fragmentResultCacheManager is null");
     }
 
     public LocalExecutionPlan plan(
@@ -466,17 +484,31 @@ public class LocalExecutionPlanner
                 .map(types::get)
                 .collect(toImmutableList());
 
+        List<OperatorFactory> operatorFactories = physicalOperation.getOperatorFactories();
+        // only a fragment that is a single pipeline reading one table can be cached per split
+        if (isFragmentResultCacheEnabled(session) && context.getDriverFactories().isEmpty() && isCacheableLeafFragment(plan)) {
+            operatorFactories = ImmutableList.<OperatorFactory>builder()
+                    .addAll(operatorFactories)
+                    .add(new FragmentResultCacheOperatorFactory(
+                            context.getNextOperatorId(),
+                            context.getNextOperatorId(),
+                            plan.getId(),
+                            fragmentResultCacheManager,
+                            fragmentResultCacheManager.createPlanHash(session, plan, types)))
+                    .build();
+        }
+
         context.addDriverFactory(
                 context.isInputDriver(),
                 true,
                 ImmutableList.<OperatorFactory>builder()
-                        .addAll(physicalOperation.getOperatorFactories())
+                        .addAll(operatorFactories)
                         .add(outputOperatorFactory.createOutputOperator(
                                 context.getNextOperatorId(),
                                 plan.getId(),
                                 outputTypes,
                                 pagePreprocessor,
-                                new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session))))
+                                createExchangePagesSerdeFactory(session)))
                         .build(),
                 context.getDriverInstanceCount(),
                 physicalOperation.getPipelineExecutionStrategy());
@@ -494,6 +526,30 @@ public class LocalExecutionPlanner
         return new LocalExecutionPlan(context.getDriverFactories(), partitionedSourceOrder, stageExecutionDescriptor);
     }
 
+    private PagesSerdeFactory createExchangePagesSerdeFactory(Session session)
+    {
+        return new PagesSerdeFactory(
+                metadata.getBlockEncodingSerde(),
+                isExchangeCompressionEnabled(session),
+                getExchangeCompressionCodec(session),
+                isExchangeAdaptiveCompressionEnabled(session));
+    }
+
+    private boolean isCacheableLeafFragment(PlanNode plan)
+    {
+        boolean hasUnsupportedNode = searchFrom(plan)
+                .where(node -> !(node instanceof TableScanNode ||
+                        node instanceof FilterNode ||
+                        node instanceof ProjectNode ||
+                        (node instanceof AggregationNode && ((AggregationNode) node).getStep() == PARTIAL)))
+                .matches();
+        if (hasUnsupportedNode) {
+            return false;
+        }
+        return extractExpressions(plan).stream()
+                .allMatch(expression -> isCacheableExpression(expression, metadata));
+    }
+
     private static void addLookupOuterDrivers(LocalExecutionPlanContext context)
     {
         // For an outer join on the lookup side (RIGHT or FULL) add an additional
@@ -592,6 +648,11 @@ public class LocalExecutionPlanner
             return taskContext.getSession();
         }
 
+        public TaskContext getTaskContext()
+        {
+            return taskContext;
+        }
+
         public StageId getStageId()
         {
             return taskContext.getTaskId().getStageId();
@@ -745,7 +806,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)),
+                    createExchangePagesSerdeFactory(session),
                     orderingCompiler,
                     types,
                     outputChannels,
@@ -765,7 +826,7 @@ public class LocalExecutionPlanner
                     context.getNextOperatorId(),
                     node.getId(),
                     exchangeClientSupplier,
-                    new PagesSerdeFactory(metadata.getBlockEncodingSerde(), isExchangeCompressionEnabled(session)));
+                    createExchangePagesSerdeFactory(session));
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, UNGROUPED_EXECUTION);
         }
@@ -827,7 +888,9 @@ public class LocalExecutionPlanner
                     node.getMaxRowCountPerPartition(),
                     hashChannel,
                     10_000,
-                    joinCompiler);
+                    joinCompiler,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operatorFactory, outputMappings.build(), context, source);
         }
 
@@ -877,7 +940,10 @@ public class LocalExecutionPlanner
                     node.isPartial(),
                     hashChannel,
                     1000,
-                    joinCompiler);
+                    joinCompiler,
+                    // like partial aggregations, partial top N rows are not spilled
+                    isSpillEnabled(session) && !node.isPartial(),
+                    partitioningSpillerFactory);
 
             return new PhysicalOperation(operatorFactory, makeLayout(node), context, source);
         }
@@ -1132,7 +1198,15 @@ public class LocalExecutionPlanner
 
             List<Integer> channels = getChannelsForSymbols(node.getDistinctSymbols(), source.getLayout());
             Optional<Integer> hashChannel = node.getHashSymbol().map(channelGetter(source));
-            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(context.getNextOperatorId(), node.getId(), source.getTypes(), channels, hashChannel, joinCompiler);
+            MarkDistinctOperatorFactory operator = new MarkDistinctOperatorFactory(
+                    context.getNextOperatorId(),
+                    node.getId(),
+                    source.getTypes(),
+                    channels,
+                    hashChannel,
+                    joinCompiler,
+                    isSpillEnabled(session),
+                    partitioningSpillerFactory);
             return new PhysicalOperation(operator, makeLayout(node), context, source);
         }
 
@@ -1240,7 +1314,6 @@ public class LocalExecutionPlanner
                     .map(DynamicFilters.ExtractResult::getStaticConjuncts)
                     .map(filter -> combineConjuncts(metadata, filter));
 
-            // TODO: Execution must be plugged in here
             Optional<List<DynamicFilters.Descriptor>> dynamicFilters = extractDynamicFilterResult.map(DynamicFilters.ExtractResult::getDynamicConjuncts);
             Supplier<TupleDomain<ColumnHandle>> dynamicFilterSupplier = null;
             if (dynamicFilters.isPresent() && !dynamicFilters.get().isEmpty()) {
@@ -1248,8 +1321,12 @@ public class LocalExecutionPlanner
                 if (sourceNode instanceof TableScanNode) {
                     TableScanNode tableScanNode = (TableScanNode) sourceNode;
                     LocalDynamicFiltersCollector collector = context.getDynamicFiltersCollector();
+                    TaskContext taskContext = context.getTaskContext();
+                    List<DynamicFilters.Descriptor> descriptors = dynamicFilters.get();
                     dynamicFilterSupplier = () -> {
-                        TupleDomain<Symbol> predicate = collector.getPredicate();
+                        // local (same fragment) and remote (collected by the coordinator) dynamic filters
+                        TupleDomain<Symbol> predicate = collector.getPredicate()
+                                .intersect(getRemoteDynamicFilter(descriptors, taskContext.getRemoteDynamicFilterDomains()));
                         return predicate.transform(tableScanNode.getAssignments()::get);
                     };
                 }
@@ -2047,7 +2124,7 @@ public class LocalExecutionPlanner
             ImmutableList.Builder<OperatorFactory> factoriesBuilder = new ImmutableList.Builder<>();
             factoriesBuilder.addAll(buildSource.getOperatorFactories());
 
-            createDynamicFilter(node, context, partitionCount).ifPresent(
+            createDynamicFilter(node, context, buildSource, partitionCount).ifPresent(
                     filter -> factoriesBuilder.add(createDynamicFilterSourceOperatorFactory(filter, node, buildSource, buildContext)));
 
             HashBuilderOperatorFactory hashBuilderOperatorFactory = new HashBuilderOperatorFactory(
@@ -2100,7 +2177,19 @@ public class LocalExecutionPlanner
                     getDynamicFilteringMaxPerDriverSize(context.getSession()));
         }
 
-        private Optional<LocalDynamicFilter> createDynamicFilter(JoinNode node, LocalExecutionPlanContext context, int partitionCount)
+        private TupleDomain<Symbol> getRemoteDynamicFilter(List<DynamicFilters.Descriptor> descriptors, Map<String, Domain> remoteDynamicFilterDomains)
+        {
+            TupleDomain<Symbol> predicate = TupleDomain.all();
+            for (DynamicFilters.Descriptor descriptor : descriptors) {
+                Domain domain = remoteDynamicFilterDomains.get(descriptor.getId());
+                if (domain != null && descriptor.getInput() instanceof SymbolReference) {
+                    predicate = predicate.intersect(TupleDomain.withColumnDomains(ImmutableMap.of(Symbol.from(descriptor.getInput()), domain)));
+                }
+            }
+            return predicate;
+        }
+
+        private Optional<LocalDynamicFilter> createDynamicFilter(JoinNode node, LocalExecutionPlanContext context, PhysicalOperation buildSource, int partitionCount)
         {
             if (!isEnableDynamicFiltering(context.getSession())) {
                 return Optional.empty();
@@ -2115,10 +2204,35 @@ public class LocalExecutionPlanner
                         // Intersect dynamic filters' predicates when they become ready,
                         // in order to support multiple join nodes in the same plan fragment.
                         addSuccessCallback(filter.getResultFuture(), collector::intersect);
+                        if (node.getDistributionType().equals(Optional.of(PARTITIONED))) {
+                            // Each task only sees its own partition of the build side, so the domains
+                            // are merged by the coordinator and sent to the stages scanning the probe side.
+                            Map<String, Type> filterTypes = filter.getBuildChannels().entrySet().stream()
+                                    .collect(toImmutableMap(Map.Entry::getKey, entry -> buildSource.getTypes().get(entry.getValue())));
+                            TaskContext taskContext = context.getTaskContext();
+                            addSuccessCallback(
+                                    filter.getDynamicFilterFuture(),
+                                    tupleDomain -> taskContext.collectDynamicFilterDomains(toDynamicFilterDomains(tupleDomain, filterTypes)));
+                        }
                         return filter;
                     });
         }
 
+        private Map<String, Domain> toDynamicFilterDomains(TupleDomain<String> tupleDomain, Map<String, Type> filterTypes)
+        {
+            ImmutableMap.Builder<String, Domain> domains = ImmutableMap.builder();
+            for (Map.Entry<String, Type> entry : filterTypes.entrySet()) {
+                Type type = entry.getValue();
+                if (tupleDomain.isNone()) {
+                    domains.put(entry.getKey(), Domain.none(type));
+                }
+                else {
+                    domains.put(entry.getKey(), tupleDomain.getDomains().get().getOrDefault(entry.getKey(), Domain.all(type)));
+                }
+            }
+            return domains.build();
+        }
+
         private JoinFilterFunctionFactory compileJoinFilterFunction(
                 Expression filterExpression,
                 Map<Symbol, Integer> probeLayout,
@@ -2194,6 +2308,11 @@ public class LocalExecutionPlanner
             Optional<Integer> buildHashChannel = node.getFilteringSourceHashSymbol().map(channelGetter(buildSource));
             Optional<Integer> probeHashChannel = node.getSourceHashSymbol().map(channelGetter(probeSource));
 
+            // Spilled sets are probed partition by partition, once all probe operators are finished,
+            // so spilling requires the number of probe operators to be known up front
+            boolean spillEnabled = isSpillEnabled(session)
+                    && context.getDriverInstanceCount().isPresent()
+                    && probeSource.getPipelineExecutionStrategy() == UNGROUPED_EXECUTION;
             SetBuilderOperatorFactory setBuilderOperatorFactory = new SetBuilderOperatorFactory(
                     buildContext.getNextOperatorId(),
                     node.getId(),
@@ -2201,7 +2320,9 @@ public class LocalExecutionPlanner
                     buildChannel,
                     buildHashChannel,
                     10_000,
-                    joinCompiler);
+                    joinCompiler,
+                    spillEnabled ? context.getDriverInstanceCount() : OptionalInt.empty(),
+                    partitioningSpillerFactory);
             SetSupplier setProvider = setBuilderOperatorFactory.getSetProvider();
             context.addDriverFactory(
                     buildContext.isInputDriver(),
@@ -2219,7 +2340,7 @@ public class LocalExecutionPlanner
                     .put(node.getSemiJoinOutput(), probeSource.getLayout().size())
                     .build();
 
-            HashSemiJoinOperatorFactory operator = new HashSemiJoinOperatorFactory(context.getNextOperatorId(), node.getId(), setProvider, probeSource.getTypes(), probeChannel, probeHashChannel);
+            HashSemiJoinOperatorFactory operator = new HashSemiJoinOperatorFactory(context.getNextOperatorId(), node.getId(), setProvider, probeSource.getTypes(), probeChannel, probeHashChannel, partitioningSpillerFactory);
             return new PhysicalOperation(operator, outputMappings, context, probeSource);
         }
 
@@ -2277,6 +2398,7 @@ public class LocalExecutionPlanner
                         // Disabling partial pre-aggregation memory limit effectively
                         // turns PARTIAL aggregation into INTERMEDIATE.
                         Optional.empty(),
+                        Optional.empty(),
                         true);
             }).orElse(new DevNullOperatorFactory(context.getNextOperatorId(), node.getId()));
 
@@ -2352,6 +2474,7 @@ public class LocalExecutionPlanner
                         200,
                         // final aggregation ignores partial pre-aggregation memory limit
                         Optional.empty(),
+                        Optional.empty(),
                         true);
             }).orElse(new DevNullOperatorFactory(context.getNextOperatorId(), node.getId()));
 
@@ -2721,6 +2844,13 @@ public class LocalExecutionPlanner
                 DataSize unspillMemoryLimit,
                 LocalExecutionPlanContext context)
         {
+            Optional<PartialAggregationController> partialAggregationController = Optional.empty();
+            if (node.getStep() == PARTIAL && isAdaptivePartialAggregationEnabled(context.getSession())) {
+                partialAggregationController = Optional.of(new PartialAggregationController(
+                        getAdaptivePartialAggregationMinRows(context.getSession()),
+                        getAdaptivePartialAggregationUniqueRowsRatioThreshold(context.getSession())));
+            }
+
             ImmutableMap.Builder<Symbol, Integer> mappings = ImmutableMap.builder();
             OperatorFactory operatorFactory = createHashAggregationOperatorFactory(
                     node.getId(),
@@ -2740,6 +2870,7 @@ public class LocalExecutionPlanner
                     mappings,
                     10_000,
                     Optional.of(maxPartialAggregationMemorySize),
+                    partialAggregationController,
                     node.getStep().isOutputPartial());
             return new PhysicalOperation(operatorFactory, mappings.build(), context, source);
         }
@@ -2762,6 +2893,7 @@ public class LocalExecutionPlanner
                 ImmutableMap.Builder<Symbol, Integer> outputMappings,
                 int expectedGroups,
                 Optional<DataSize> maxPartialAggregationMemorySize,
+                Optional<PartialAggregationController> partialAggregationController,
                 boolean useSystemMemory)
         {
             List<Symbol> aggregationOutputSymbols = new ArrayList<>();
@@ -2831,7 +2963,8 @@ public class LocalExecutionPlanner
                         unspillMemoryLimit,
                         spillerFactory,
                         joinCompiler,
-                        useSystemMemory);
+                        useSystemMemory,
+                        partialAggregationController);
             }
         }
     }
@@ -0,0 +1,175 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ProjectionApplicationResult;
+import io.prestosql.spi.expression.ConnectorExpression;
+import io.prestosql.spi.expression.ConnectorExpressionTranslator;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.LiteralEncoder;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.AggregationNode;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.ProjectNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.SymbolReference;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.SINGLE;
+import static io.prestosql.sql.planner.plan.Patterns.aggregation;
+
+public class PushAggregationIntoTableScan
+        implements Rule<AggregationNode>
+{
+    private static final Pattern<AggregationNode> PATTERN = aggregation()
+            .matching(PushAggregationIntoTableScan::isSupported);
+
+    private final Metadata metadata;
+
+    public PushAggregationIntoTableScan(Metadata metadata)
+    {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public Pattern<AggregationNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    private static boolean isSupported(AggregationNode aggregation)
+    {
+        return aggregation.getStep() == SINGLE &&
+                aggregation.getGroupingSetCount() == 1 &&
+                !aggregation.getHashSymbol().isPresent() &&
+                !aggregation.getGroupIdSymbol().isPresent() &&
+                aggregation.getAggregations().values().stream()
+                        .allMatch(aggregate -> !aggregate.getFilter().isPresent() &&
+                                !aggregate.getMask().isPresent() &&
+                                !aggregate.getOrderingScheme().isPresent() &&
+                                aggregate.getArguments().stream().allMatch(SymbolReference.class::isInstance));
+    }
+
+    @Override
+    public Result apply(AggregationNode aggregation, Captures captures, Context context)
+    {
+        PlanNode source = context.getLookup().resolve(aggregation.getSource());
+        if (source instanceof ProjectNode && ((ProjectNode) source).isIdentity()) {
+            // the columns only referenced by the predicates pushed into the table scan are pruned by an identity projection
+            source = context.getLookup().resolve(((ProjectNode) source).getSource());
+        }
+        if (!(source instanceof TableScanNode)) {
+            return Result.empty();
+        }
+        TableScanNode tableScan = (TableScanNode) source;
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+
+        List<Symbol> aggregationOutputs = ImmutableList.copyOf(aggregation.getAggregations().keySet());
+        List<AggregateFunction> aggregates = aggregationOutputs.stream()
+                .map(symbol -> toAggregateFunction(aggregation.getAggregations().get(symbol), types.get(symbol), types))
+                .collect(toImmutableList());
+
+        Map<String, ColumnHandle> assignments = tableScan.getAssignments()
+                .entrySet().stream()
+                .collect(toImmutableMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+
+        List<ColumnHandle> groupingColumns = aggregation.getGroupingKeys().stream()
+                .map(tableScan.getAssignments()::get)
+                .collect(toImmutableList());
+
+        Optional<AggregationApplicationResult<TableHandle>> result = metadata.applyAggregation(
+                context.getSession(),
+                tableScan.getTable(),
+                aggregates,
+                assignments,
+                ImmutableList.of(groupingColumns));
+        if (!result.isPresent()) {
+            return Result.empty();
+        }
+
+        verify(result.get().getProjections().size() == aggregates.size(), "Connector returned %s projections for %s aggregates", result.get().getProjections().size(), aggregates.size());
+
+        List<Symbol> newScanOutputs = new ArrayList<>();
+        Map<Symbol, ColumnHandle> newScanAssignments = new HashMap<>();
+        for (Symbol groupingKey : aggregation.getGroupingKeys()) {
+            ColumnHandle column = result.get().getGroupingColumnMapping().get(tableScan.getAssignments().get(groupingKey));
+            verify(column != null, "Connector did not return a column for grouping key %s", groupingKey);
+            newScanOutputs.add(groupingKey);
+            newScanAssignments.put(groupingKey, column);
+        }
+
+        Map<String, Symbol> variableMappings = new HashMap<>();
+        for (ProjectionApplicationResult.Assignment assignment : result.get().getAssignments()) {
+            Symbol symbol = context.getSymbolAllocator().newSymbol(assignment.getVariable(), assignment.getType());
+
+            newScanOutputs.add(symbol);
+            newScanAssignments.put(symbol, assignment.getColumn());
+            variableMappings.put(assignment.getVariable(), symbol);
+        }
+
+        Assignments.Builder newProjections = Assignments.builder();
+        newProjections.putIdentities(aggregation.getGroupingKeys());
+        for (int i = 0; i < aggregationOutputs.size(); i++) {
+            Expression expression = ConnectorExpressionTranslator.translate(result.get().getProjections().get(i), variableMappings, new LiteralEncoder(metadata));
+            newProjections.put(aggregationOutputs.get(i), expression);
+        }
+
+        return Result.ofPlanNode(
+                new ProjectNode(
+                        context.getIdAllocator().getNextId(),
+                        TableScanNode.newInstance(
+                                tableScan.getId(),
+                                result.get().getHandle(),
+                                newScanOutputs,
+                                newScanAssignments),
+                        newProjections.build()));
+    }
+
+    private static AggregateFunction toAggregateFunction(AggregationNode.Aggregation aggregation, Type outputType, TypeProvider types)
+    {
+        List<ConnectorExpression> inputs = aggregation.getArguments().stream()
+                .map(argument -> {
+                    Symbol symbol = Symbol.from(argument);
+                    return new Variable(symbol.getName(), types.get(symbol));
+                })
+                .collect(toImmutableList());
+
+        return new AggregateFunction(
+                aggregation.getResolvedFunction().getSignature().getName(),
+                outputType,
+                inputs,
+                aggregation.isDistinct());
+    }
+}
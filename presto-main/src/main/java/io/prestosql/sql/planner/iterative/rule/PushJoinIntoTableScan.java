@@ -0,0 +1,167 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.cost.PlanNodeStatsEstimate;
+import io.prestosql.matching.Capture;
+import io.prestosql.matching.Captures;
+import io.prestosql.matching.Pattern;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinStatistics;
+import io.prestosql.spi.connector.JoinStatistics.RelationStatistics;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.TypeProvider;
+import io.prestosql.sql.planner.iterative.Rule;
+import io.prestosql.sql.planner.plan.JoinNode;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.TableScanNode;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Verify.verify;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static io.prestosql.matching.Capture.newCapture;
+import static io.prestosql.sql.planner.plan.Patterns.Join.left;
+import static io.prestosql.sql.planner.plan.Patterns.Join.right;
+import static io.prestosql.sql.planner.plan.Patterns.join;
+import static io.prestosql.sql.planner.plan.Patterns.tableScan;
+import static java.lang.Double.isNaN;
+
+public class PushJoinIntoTableScan
+        implements Rule<JoinNode>
+{
+    private static final Capture<TableScanNode> LEFT_TABLE_SCAN = newCapture();
+    private static final Capture<TableScanNode> RIGHT_TABLE_SCAN = newCapture();
+    private static final Pattern<JoinNode> PATTERN = join()
+            .matching(PushJoinIntoTableScan::isSupported)
+            .with(left().matching(tableScan().capturedAs(LEFT_TABLE_SCAN)))
+            .with(right().matching(tableScan().capturedAs(RIGHT_TABLE_SCAN)));
+
+    private final Metadata metadata;
+
+    public PushJoinIntoTableScan(Metadata metadata)
+    {
+        this.metadata = metadata;
+    }
+
+    @Override
+    public Pattern<JoinNode> getPattern()
+    {
+        return PATTERN;
+    }
+
+    private static boolean isSupported(JoinNode join)
+    {
+        return !join.getCriteria().isEmpty() &&
+                !join.getFilter().isPresent() &&
+                !join.getLeftHashSymbol().isPresent() &&
+                !join.getRightHashSymbol().isPresent() &&
+                join.getDynamicFilters().isEmpty();
+    }
+
+    @Override
+    public Result apply(JoinNode join, Captures captures, Context context)
+    {
+        TableScanNode left = captures.get(LEFT_TABLE_SCAN);
+        TableScanNode right = captures.get(RIGHT_TABLE_SCAN);
+        TypeProvider types = context.getSymbolAllocator().getTypes();
+
+        List<JoinCondition> joinConditions = join.getCriteria().stream()
+                .map(clause -> new JoinCondition(
+                        JoinCondition.Operator.EQUAL,
+                        new Variable(clause.getLeft().getName(), types.get(clause.getLeft())),
+                        new Variable(clause.getRight().getName(), types.get(clause.getRight()))))
+                .collect(toImmutableList());
+
+        JoinStatistics statistics = new JoinStatistics(
+                getStatistics(left, context),
+                getStatistics(right, context),
+                getStatistics(join, context));
+
+        Optional<JoinApplicationResult<TableHandle>> result = metadata.applyJoin(
+                context.getSession(),
+                getJoinType(join),
+                left.getTable(),
+                right.getTable(),
+                joinConditions,
+                getAssignments(left),
+                getAssignments(right),
+                statistics);
+        if (!result.isPresent()) {
+            return Result.empty();
+        }
+
+        ImmutableMap.Builder<Symbol, ColumnHandle> assignments = ImmutableMap.builder();
+        for (Symbol symbol : join.getOutputSymbols()) {
+            ColumnHandle column;
+            if (left.getAssignments().containsKey(symbol)) {
+                column = result.get().getLeftColumnHandles().get(left.getAssignments().get(symbol));
+            }
+            else {
+                column = result.get().getRightColumnHandles().get(right.getAssignments().get(symbol));
+            }
+            verify(column != null, "Connector did not return a column for join output %s", symbol);
+            assignments.put(symbol, column);
+        }
+
+        return Result.ofPlanNode(
+                TableScanNode.newInstance(
+                        join.getId(),
+                        result.get().getHandle(),
+                        join.getOutputSymbols(),
+                        assignments.build()));
+    }
+
+    private static Map<String, ColumnHandle> getAssignments(TableScanNode tableScan)
+    {
+        return tableScan.getAssignments().entrySet().stream()
+                .collect(toImmutableMap(entry -> entry.getKey().getName(), Map.Entry::getValue));
+    }
+
+    private static Optional<RelationStatistics> getStatistics(PlanNode node, Context context)
+    {
+        PlanNodeStatsEstimate stats = context.getStatsProvider().getStats(node);
+        double rowCount = stats.getOutputRowCount();
+        double dataSize = stats.getOutputSizeInBytes(node.getOutputSymbols(), context.getSymbolAllocator().getTypes());
+        if (isNaN(rowCount) || isNaN(dataSize)) {
+            return Optional.empty();
+        }
+        return Optional.of(new RelationStatistics(rowCount, dataSize));
+    }
+
+    private static JoinType getJoinType(JoinNode join)
+    {
+        switch (join.getType()) {
+            case INNER:
+                return JoinType.INNER;
+            case LEFT:
+                return JoinType.LEFT_OUTER;
+            case RIGHT:
+                return JoinType.RIGHT_OUTER;
+            case FULL:
+                return JoinType.FULL_OUTER;
+        }
+        throw new IllegalArgumentException("Unknown join type: " + join.getType());
+    }
+}
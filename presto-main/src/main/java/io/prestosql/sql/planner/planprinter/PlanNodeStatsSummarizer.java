@@ -19,6 +19,7 @@ import io.prestosql.execution.StageInfo;
 import io.prestosql.execution.TaskInfo;
 import io.prestosql.operator.HashCollisionsInfo;
 import io.prestosql.operator.OperatorStats;
+import io.prestosql.operator.PartialAggregationInfo;
 import io.prestosql.operator.PipelineStats;
 import io.prestosql.operator.TaskStats;
 import io.prestosql.operator.WindowInfo;
@@ -29,6 +30,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.collect.Iterables.getLast;
@@ -121,8 +123,9 @@ public final class PlanNodeStatsSummarizer
                                         operatorStats.getSumSquaredInputPositions())),
                         (map1, map2) -> mergeMaps(map1, map2, OperatorInputStats::merge));
 
-                if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
-                    HashCollisionsInfo hashCollisionsInfo = (HashCollisionsInfo) operatorStats.getInfo();
+                Optional<HashCollisionsInfo> hashCollisions = getHashCollisionsInfo(operatorStats);
+                if (hashCollisions.isPresent()) {
+                    HashCollisionsInfo hashCollisionsInfo = hashCollisions.get();
                     operatorHashCollisionsStats.merge(planNodeId,
                             ImmutableMap.of(
                                     operatorStats.getOperatorType(),
@@ -217,4 +220,15 @@ public final class PlanNodeStatsSummarizer
         }
         return stats;
     }
+
+    private static Optional<HashCollisionsInfo> getHashCollisionsInfo(OperatorStats operatorStats)
+    {
+        if (operatorStats.getInfo() instanceof HashCollisionsInfo) {
+            return Optional.of((HashCollisionsInfo) operatorStats.getInfo());
+        }
+        if (operatorStats.getInfo() instanceof PartialAggregationInfo) {
+            return Optional.of(((PartialAggregationInfo) operatorStats.getInfo()).getHashCollisionsInfo());
+        }
+        return Optional.empty();
+    }
 }
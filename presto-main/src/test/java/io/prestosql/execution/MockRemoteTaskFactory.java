@@ -38,6 +38,7 @@ import io.prestosql.metadata.Split;
 import io.prestosql.operator.TaskContext;
 import io.prestosql.operator.TaskStats;
 import io.prestosql.spi.memory.MemoryPoolId;
+import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spiller.SpillSpaceTracker;
 import io.prestosql.sql.planner.Partitioning;
 import io.prestosql.sql.planner.PartitioningScheme;
@@ -254,6 +255,7 @@ public class MockRemoteTaskFactory
                     outputBuffer.getInfo(),
                     ImmutableSet.of(),
                     taskContext.getTaskStats(),
+                    ImmutableMap.of(),
                     true);
         }
 
@@ -369,6 +371,12 @@ public class MockRemoteTaskFactory
             outputBuffer.setOutputBuffers(outputBuffers);
         }
 
+        @Override
+        public void addDynamicFilterDomains(Map<String, Domain> dynamicFilterDomains)
+        {
+            taskContext.addRemoteDynamicFilterDomains(dynamicFilterDomains);
+        }
+
         @Override
         public void addStateChangeListener(StateChangeListener<TaskStatus> stateChangeListener)
         {
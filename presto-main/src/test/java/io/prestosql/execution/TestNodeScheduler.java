@@ -30,6 +30,8 @@ import io.prestosql.execution.scheduler.NodeScheduler;
 import io.prestosql.execution.scheduler.NodeSchedulerConfig;
 import io.prestosql.execution.scheduler.NodeSelector;
 import io.prestosql.execution.scheduler.NodeSelectorFactory;
+import io.prestosql.execution.scheduler.SoftAffinityNodeSelectorConfig;
+import io.prestosql.execution.scheduler.SoftAffinityNodeSelectorFactory;
 import io.prestosql.execution.scheduler.TopologyAwareNodeSelectorConfig;
 import io.prestosql.execution.scheduler.TopologyAwareNodeSelectorFactory;
 import io.prestosql.execution.scheduler.UniformNodeSelector;
@@ -708,6 +710,76 @@ public class TestNodeScheduler
         assertTrue(assignments3.isEmpty());
     }
 
+    @Test
+    public void testSoftAffinityScheduling()
+    {
+        setUpNodes();
+        NodeSchedulerConfig nodeSchedulerConfig = new NodeSchedulerConfig()
+                .setMaxSplitsPerNode(20)
+                .setIncludeCoordinator(false)
+                .setMaxPendingSplitsPerTask(10);
+        NodeSelector nodeSelector = new NodeScheduler(new SoftAffinityNodeSelectorFactory(nodeManager, nodeSchedulerConfig, nodeTaskMap, new SoftAffinityNodeSelectorConfig()))
+                .createNodeSelector(Optional.of(CONNECTOR_ID));
+
+        // splits of the same file are placed on the same node
+        Multimap<InternalNode, Split> assignments = nodeSelector.computeAssignments(
+                ImmutableSet.of(new Split(CONNECTOR_ID, new TestSplitAffinity("file1"), Lifespan.taskWide())),
+                ImmutableList.copyOf(taskMap.values())).getAssignments();
+        InternalNode preferredNode = Iterables.getOnlyElement(assignments.keySet());
+        for (int i = 0; i < 5; i++) {
+            assignments = nodeSelector.computeAssignments(
+                    ImmutableSet.of(new Split(CONNECTOR_ID, new TestSplitAffinity("file1"), Lifespan.taskWide())),
+                    ImmutableList.copyOf(taskMap.values())).getAssignments();
+            assertEquals(Iterables.getOnlyElement(assignments.keySet()), preferredNode);
+        }
+
+        // a preferred node much busier than the other candidates is skipped before it is saturated
+        MockRemoteTaskFactory remoteTaskFactory = new MockRemoteTaskFactory(remoteTaskExecutor, remoteTaskScheduledExecutor);
+        RemoteTask busyTask = createTask(remoteTaskFactory, preferredNode, 3, 10);
+        assignments = nodeSelector.computeAssignments(
+                ImmutableSet.of(new Split(CONNECTOR_ID, new TestSplitAffinity("file1"), Lifespan.taskWide())),
+                ImmutableList.copyOf(taskMap.values())).getAssignments();
+        assertFalse(Iterables.getOnlyElement(assignments.keySet()).equals(preferredNode));
+
+        // a saturated preferred node is skipped for the next preferred node
+        RemoteTask preferredTask = createSaturatedTask(remoteTaskFactory, preferredNode, 1);
+        assignments = nodeSelector.computeAssignments(
+                ImmutableSet.of(new Split(CONNECTOR_ID, new TestSplitAffinity("file1"), Lifespan.taskWide())),
+                ImmutableList.copyOf(taskMap.values())).getAssignments();
+        InternalNode secondNode = Iterables.getOnlyElement(assignments.keySet());
+        assertFalse(secondNode.equals(preferredNode));
+
+        // and the split falls back to the least loaded node when all preferred nodes are saturated
+        RemoteTask secondTask = createSaturatedTask(remoteTaskFactory, secondNode, 2);
+        assignments = nodeSelector.computeAssignments(
+                ImmutableSet.of(new Split(CONNECTOR_ID, new TestSplitAffinity("file1"), Lifespan.taskWide())),
+                ImmutableList.copyOf(taskMap.values())).getAssignments();
+        InternalNode fallbackNode = Iterables.getOnlyElement(assignments.keySet());
+        assertFalse(fallbackNode.equals(preferredNode));
+        assertFalse(fallbackNode.equals(secondNode));
+
+        busyTask.abort();
+        preferredTask.abort();
+        secondTask.abort();
+    }
+
+    private RemoteTask createSaturatedTask(MockRemoteTaskFactory remoteTaskFactory, InternalNode node, int taskNumber)
+    {
+        return createTask(remoteTaskFactory, node, taskNumber, 20);
+    }
+
+    private RemoteTask createTask(MockRemoteTaskFactory remoteTaskFactory, InternalNode node, int taskNumber, int splitCount)
+    {
+        ImmutableList.Builder<Split> initialSplits = ImmutableList.builder();
+        for (int i = 0; i < splitCount; i++) {
+            initialSplits.add(new Split(CONNECTOR_ID, new TestSplitRemote(), Lifespan.taskWide()));
+        }
+        TaskId taskId = new TaskId("other", 1, taskNumber);
+        RemoteTask remoteTask = remoteTaskFactory.createTableScanTask(taskId, node, initialSplits.build(), nodeTaskMap.createPartitionedSplitCountTracker(node, taskId));
+        nodeTaskMap.addTask(node, remoteTask);
+        return remoteTask;
+    }
+
     private static class TestSplitLocal
             implements ConnectorSplit
     {
@@ -790,6 +862,41 @@ public class TestNodeScheduler
         }
     }
 
+    private static class TestSplitAffinity
+            implements ConnectorSplit
+    {
+        private final String path;
+
+        TestSplitAffinity(String path)
+        {
+            this.path = requireNonNull(path, "path is null");
+        }
+
+        @Override
+        public boolean isRemotelyAccessible()
+        {
+            return true;
+        }
+
+        @Override
+        public List<HostAddress> getAddresses()
+        {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public Object getInfo()
+        {
+            return this;
+        }
+
+        @Override
+        public Optional<String> getAffinityKey()
+        {
+            return Optional.of(path);
+        }
+    }
+
     private static class TestNetworkTopology
             implements NetworkTopology
     {
@@ -15,6 +15,7 @@ package io.prestosql.execution;
 
 import com.google.common.base.Ticker;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.airlift.node.NodeInfo;
 import io.airlift.stats.TestingGcMonitor;
@@ -26,6 +27,9 @@ import io.prestosql.execution.buffer.BufferState;
 import io.prestosql.execution.buffer.OutputBuffers;
 import io.prestosql.execution.buffer.OutputBuffers.OutputBufferId;
 import io.prestosql.execution.executor.TaskExecutor;
+import io.prestosql.execution.resultcache.FragmentResultCacheConfig;
+import io.prestosql.execution.resultcache.FragmentResultCacheManager;
+import io.prestosql.execution.resultcache.TableScanIdentity;
 import io.prestosql.memory.LocalMemoryManager;
 import io.prestosql.memory.NodeMemoryConfig;
 import io.prestosql.memory.context.LocalMemoryContext;
@@ -35,6 +39,7 @@ import io.prestosql.operator.ExchangeClientSupplier;
 import io.prestosql.spi.QueryId;
 import io.prestosql.spiller.LocalSpillManager;
 import io.prestosql.spiller.NodeSpillConfig;
+import io.prestosql.sql.analyzer.FeaturesConfig;
 import org.testng.annotations.AfterClass;
 import org.testng.annotations.Test;
 
@@ -44,6 +49,7 @@ import java.util.OptionalInt;
 import java.util.concurrent.TimeUnit;
 
 import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static io.airlift.json.JsonCodec.jsonCodec;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.execution.TaskTestUtils.PLAN_FRAGMENT;
 import static io.prestosql.execution.TaskTestUtils.SPLIT;
@@ -71,7 +77,9 @@ public class TestSqlTaskManager
 
     public TestSqlTaskManager()
     {
-        localMemoryManager = new LocalMemoryManager(new NodeMemoryConfig());
+        localMemoryManager = new LocalMemoryManager(
+                new NodeMemoryConfig(),
+                new FragmentResultCacheManager(new FragmentResultCacheConfig(), new FeaturesConfig(), jsonCodec(TableScanIdentity.class)));
         localSpillManager = new LocalSpillManager(new NodeSpillConfig());
         taskExecutor = new TaskExecutor(8, 16, 3, 4, Ticker.systemTicker());
         taskExecutor.start();
@@ -255,7 +263,8 @@ public class TestSqlTaskManager
                 Optional.of(PLAN_FRAGMENT),
                 ImmutableList.of(new TaskSource(TABLE_SCAN_NODE_ID, splits, true)),
                 outputBuffers,
-                OptionalInt.empty());
+                OptionalInt.empty(),
+                ImmutableMap.of());
     }
 
     private TaskInfo createTask(SqlTaskManager sqlTaskManager, TaskId taskId, OutputBuffers outputBuffers)
@@ -267,7 +276,8 @@ public class TestSqlTaskManager
                 Optional.of(PLAN_FRAGMENT),
                 ImmutableList.of(),
                 outputBuffers,
-                OptionalInt.empty());
+                OptionalInt.empty(),
+                ImmutableMap.of());
     }
 
     public static class MockExchangeClientSupplier
@@ -17,6 +17,8 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import io.prestosql.cost.StatsAndCosts;
 import io.prestosql.execution.scheduler.SplitSchedulerStats;
+import io.prestosql.operator.OperatorStats;
+import io.prestosql.operator.TestTaskStats;
 import io.prestosql.sql.planner.Partitioning;
 import io.prestosql.sql.planner.PartitioningScheme;
 import io.prestosql.sql.planner.PlanFragment;
@@ -31,10 +33,14 @@ import org.testng.annotations.Test;
 import java.io.IOException;
 import java.net.URI;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 
+import static com.google.common.collect.Iterables.getOnlyElement;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.execution.TaskInfo.createInitialTask;
+import static io.prestosql.execution.TaskStatus.failWith;
 import static io.prestosql.operator.StageExecutionDescriptor.ungroupedExecution;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.sql.planner.SystemPartitioningHandle.SINGLE_DISTRIBUTION;
@@ -258,6 +264,38 @@ public class TestStageStateMachine
         assertFinalState(stateMachine, StageState.CANCELED);
     }
 
+    @Test
+    public void testFinalTaskOperatorStats()
+    {
+        StageStateMachine stateMachine = createStageStateMachine();
+
+        TaskInfo finishedTask = createTaskInfo(0, TaskState.FINISHED);
+        TaskInfo runningTask = createTaskInfo(1, TaskState.RUNNING);
+        List<TaskInfo> taskInfos = ImmutableList.of(finishedTask, runningTask);
+
+        assertOperatorInputPositions(stateMachine.getStageInfo(() -> taskInfos), 2 * 7);
+
+        // the final task stats are merged once, and not again when the task info is seen
+        stateMachine.addFinalTaskInfo(finishedTask);
+        stateMachine.addFinalTaskInfo(finishedTask);
+        assertOperatorInputPositions(stateMachine.getStageInfo(() -> taskInfos), 2 * 7);
+        assertEquals(stateMachine.getStageInfo(() -> taskInfos).getStageStats().getTotalTasks(), 2);
+    }
+
+    private static void assertOperatorInputPositions(StageInfo stageInfo, long expectedInputPositions)
+    {
+        List<OperatorStats> operatorSummaries = stageInfo.getStageStats().getOperatorSummaries();
+        assertEquals(operatorSummaries.size(), 1);
+        assertEquals(getOnlyElement(operatorSummaries).getInputPositions(), expectedInputPositions);
+    }
+
+    private static TaskInfo createTaskInfo(int id, TaskState state)
+    {
+        TaskId taskId = new TaskId(STAGE_ID, id);
+        TaskInfo taskInfo = createInitialTask(taskId, LOCATION, "node", ImmutableList.of(), TestTaskStats.EXPECTED);
+        return taskInfo.withTaskStatus(failWith(taskInfo.getTaskStatus(), state, ImmutableList.of()));
+    }
+
     private static void assertFinalState(StageStateMachine stateMachine, StageState expectedState)
     {
         assertTrue(expectedState.isDone());
@@ -24,14 +24,20 @@ import org.testng.annotations.Test;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 
+import static io.airlift.testing.Assertions.assertGreaterThan;
+import static io.airlift.testing.Assertions.assertLessThan;
+import static io.prestosql.block.BlockAssertions.createLongRepeatBlock;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.readPages;
 import static io.prestosql.execution.buffer.PagesSerdeUtil.writePages;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.PageAssertions.assertPageEquals;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 public class TestPagesSerde
 {
@@ -59,6 +65,43 @@ public class TestPagesSerde
         assertFalse(pageIterator.hasNext());
     }
 
+    @Test
+    public void testCompressionCodecs()
+    {
+        Page page = new Page(createLongRepeatBlock(42, 10_000));
+        for (CompressionCodec codec : CompressionCodec.values()) {
+            PagesSerde serde = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), true, codec, false).createPagesSerde();
+            SerializedPage serializedPage = serde.serialize(page);
+            assertTrue(serializedPage.isCompressed(), codec.name());
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), page);
+        }
+    }
+
+    @Test
+    public void testAdaptiveCompression()
+    {
+        PagesSerdeFactory serdeFactory = new PagesSerdeFactory(createTestMetadataManager().getBlockEncodingSerde(), true, CompressionCodec.LZ4, true);
+        PagesSerde serde = serdeFactory.createPagesSerde();
+
+        Page incompressiblePage = new Page(createRandomLongsBlock(10_000));
+        for (int i = 0; i < 100; i++) {
+            SerializedPage serializedPage = serde.serialize(incompressiblePage);
+            assertFalse(serializedPage.isCompressed());
+            assertPageEquals(ImmutableList.of(BIGINT), serde.deserialize(serializedPage), incompressiblePage);
+        }
+
+        // compression resumes once a sampled page compresses well, also for the other serdes of the factory
+        PagesSerde otherSerde = serdeFactory.createPagesSerde();
+        Page compressiblePage = new Page(createLongRepeatBlock(42, 10_000));
+        int uncompressedPages = 0;
+        while (!otherSerde.serialize(compressiblePage).isCompressed()) {
+            uncompressedPages++;
+        }
+        assertGreaterThan(uncompressedPages, 0);
+        assertLessThan(uncompressedPages, AdaptivePageCompression.SAMPLING_INTERVAL);
+        assertTrue(otherSerde.serialize(compressiblePage).isCompressed());
+    }
+
     @Test
     public void testBigintSerializedSize()
     {
@@ -106,6 +149,16 @@ public class TestPagesSerde
         assertEquals(secondValueSize, 4 + 3); // length + "bob" (null shared with first entry)
     }
 
+    private static Block createRandomLongsBlock(int positionCount)
+    {
+        Random random = new Random(0);
+        BlockBuilder builder = BIGINT.createBlockBuilder(null, positionCount);
+        for (int i = 0; i < positionCount; i++) {
+            BIGINT.writeLong(builder, random.nextLong());
+        }
+        return builder.build();
+    }
+
     private static int serializedSize(List<? extends Type> types, Page expectedPage)
     {
         PagesSerde serde = new TestingPagesSerdeFactory().createPagesSerde();
@@ -0,0 +1,292 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.resultcache;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.JsonCodecFactory;
+import io.airlift.json.ObjectMapperProvider;
+import io.airlift.units.DataSize;
+import io.prestosql.Session;
+import io.prestosql.block.BlockJsonSerde;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.cost.StatsAndCosts;
+import io.prestosql.execution.buffer.PageCodecMarker.MarkerSet;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.metadata.TableMetadata;
+import io.prestosql.metadata.TableProperties;
+import io.prestosql.plugin.tpch.TpchColumnHandle;
+import io.prestosql.plugin.tpch.TpchTableHandle;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ColumnMetadata;
+import io.prestosql.spi.connector.ConnectorTableMetadata;
+import io.prestosql.spi.connector.ConnectorTableProperties;
+import io.prestosql.spi.connector.SchemaTableName;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.security.Identity;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.FunctionCallBuilder;
+import io.prestosql.sql.planner.Plan;
+import io.prestosql.sql.planner.PlanNodeIdAllocator;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.tree.Expression;
+import io.prestosql.sql.tree.QualifiedName;
+import io.prestosql.testing.TestingTransactionHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.stream.LongStream;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static io.prestosql.spi.type.VarcharType.createVarcharType;
+import static io.prestosql.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.prestosql.testing.TestingSession.testSessionBuilder;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestQueryResultCache
+{
+    private static final ColumnHandle ORDER_KEY = new TpchColumnHandle("orderkey", BIGINT);
+    private static final ColumnHandle ORDER_STATUS = new TpchColumnHandle("orderstatus", createVarcharType(1));
+
+    private final Metadata metadata = createTestMetadataManager();
+    private final Session session = testSessionBuilder().build();
+    private final JsonCodec<TableScanIdentity> tableScanCodec;
+
+    public TestQueryResultCache()
+    {
+        // the constraints of table scans hold their values in blocks
+        ObjectMapperProvider provider = new ObjectMapperProvider();
+        provider.setJsonSerializers(ImmutableMap.of(Block.class, new BlockJsonSerde.Serializer(metadata.getBlockEncodingSerde())));
+        tableScanCodec = new JsonCodecFactory(provider).jsonCodec(TableScanIdentity.class);
+    }
+
+    @Test
+    public void testPutAndGet()
+    {
+        QueryResultCache cache = createCache(new DataSize(64, KILOBYTE), new DataSize(16, KILOBYTE));
+        QueryResultCacheKey key = cache.createCacheKey(session, createPlan(expression("x + 1"))).get();
+
+        assertFalse(cache.get(key).isPresent());
+
+        List<SerializedPage> pages = ImmutableList.of(createPage(1024), createPage(2048));
+        cache.put(key, pages);
+        assertEquals(cache.get(key), Optional.of(pages));
+        assertEquals(cache.getEntryCount(), 1);
+        assertEquals(cache.getHitCount(), 1);
+        assertEquals(cache.getMissCount(), 1);
+        assertTrue(cache.getRetainedSizeInBytes() >= 3072);
+    }
+
+    @Test
+    public void testKeyDependsOnPlanAndSession()
+    {
+        QueryResultCache cache = createCache(new DataSize(64, KILOBYTE), new DataSize(16, KILOBYTE));
+
+        QueryResultCacheKey key = cache.createCacheKey(session, createPlan(expression("x + 1"))).get();
+        assertEquals(cache.createCacheKey(session, createPlan(expression("x + 1"))).get(), key);
+        assertNotEquals(cache.createCacheKey(session, createPlan(expression("x + 2"))).get(), key);
+
+        Session otherSession = Session.builder(session)
+                .setSystemProperty("hash_partition_count", "7")
+                .build();
+        assertNotEquals(cache.createCacheKey(otherSession, createPlan(expression("x + 1"))).get(), key);
+
+        // the result may depend on the access rights of the user
+        Session otherUser = Session.builder(session)
+                .setIdentity(Identity.ofUser("other"))
+                .build();
+        assertNotEquals(cache.createCacheKey(otherUser, createPlan(expression("x + 1"))).get(), key);
+    }
+
+    @Test
+    public void testNonDeterministicPlan()
+    {
+        QueryResultCache cache = createCache(new DataSize(64, KILOBYTE), new DataSize(16, KILOBYTE));
+
+        Expression random = new FunctionCallBuilder(metadata)
+                .setName(QualifiedName.of("random"))
+                .build();
+        assertFalse(cache.createCacheKey(session, createPlan(random, DOUBLE)).isPresent());
+
+        Expression now = new FunctionCallBuilder(metadata)
+                .setName(QualifiedName.of("now"))
+                .build();
+        assertFalse(cache.createCacheKey(session, createPlan(now, TIMESTAMP_WITH_TIME_ZONE)).isPresent());
+    }
+
+    @Test
+    public void testKeyDependsOnTableScan()
+    {
+        TestingTableMetadata tableMetadata = new TestingTableMetadata();
+        QueryResultCache cache = createCache(tableMetadata, new DataSize(64, KILOBYTE), new DataSize(16, KILOBYTE));
+        TpchTableHandle orders = new TpchTableHandle("orders", 1.0);
+
+        QueryResultCacheKey key = cache.createCacheKey(session, createTableScanPlan(orders, TupleDomain.all())).get();
+        assertEquals(cache.createCacheKey(session, createTableScanPlan(orders, TupleDomain.all())).get(), key);
+
+        // the printed plan shows the handle as "orders:sf1.0", without the partitions it selects
+        TpchTableHandle finishedOrders = new TpchTableHandle("orders", 1.0, TupleDomain.withColumnDomains(ImmutableMap.of(
+                ORDER_STATUS, Domain.singleValue(createVarcharType(1), utf8Slice("F")))));
+        TpchTableHandle openOrders = new TpchTableHandle("orders", 1.0, TupleDomain.withColumnDomains(ImmutableMap.of(
+                ORDER_STATUS, Domain.singleValue(createVarcharType(1), utf8Slice("O")))));
+        QueryResultCacheKey finishedOrdersKey = cache.createCacheKey(session, createTableScanPlan(finishedOrders, TupleDomain.all())).get();
+        assertNotEquals(finishedOrdersKey, key);
+        assertNotEquals(cache.createCacheKey(session, createTableScanPlan(openOrders, TupleDomain.all())).get(), finishedOrdersKey);
+
+        // long IN lists are abbreviated when printed, so lists that differ in a single value must still produce different keys
+        List<Long> values = LongStream.range(0, 100).boxed().collect(toImmutableList());
+        List<Long> otherValues = LongStream.range(1, 101).boxed().collect(toImmutableList());
+        QueryResultCacheKey inListKey = cache.createCacheKey(session, createTableScanPlan(orders, inList(values))).get();
+        assertNotEquals(inListKey, key);
+        assertEquals(cache.createCacheKey(session, createTableScanPlan(orders, inList(values))).get(), inListKey);
+        assertNotEquals(cache.createCacheKey(session, createTableScanPlan(orders, inList(otherValues))).get(), inListKey);
+    }
+
+    @Test
+    public void testKeyDependsOnDataVersion()
+    {
+        TestingTableMetadata tableMetadata = new TestingTableMetadata();
+        QueryResultCache cache = createCache(tableMetadata, new DataSize(64, KILOBYTE), new DataSize(16, KILOBYTE));
+        TpchTableHandle orders = new TpchTableHandle("orders", 1.0);
+
+        QueryResultCacheKey key = cache.createCacheKey(session, createTableScanPlan(orders, TupleDomain.all())).get();
+        cache.put(key, ImmutableList.of(createPage(1024)));
+
+        tableMetadata.setDataVersion(OptionalLong.of(2));
+        QueryResultCacheKey newVersionKey = cache.createCacheKey(session, createTableScanPlan(orders, TupleDomain.all())).get();
+        assertNotEquals(newVersionKey, key);
+        assertFalse(cache.get(newVersionKey).isPresent());
+
+        // a table without a data version may change at any time
+        tableMetadata.setDataVersion(OptionalLong.empty());
+        assertFalse(cache.createCacheKey(session, createTableScanPlan(orders, TupleDomain.all())).isPresent());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = "result exceeds the maximum entry size")
+    public void testEntryTooLarge()
+    {
+        QueryResultCache cache = createCache(new DataSize(64, KILOBYTE), new DataSize(1, KILOBYTE));
+        QueryResultCacheKey key = cache.createCacheKey(session, createPlan(expression("x + 1"))).get();
+        cache.put(key, ImmutableList.of(createPage(2048)));
+    }
+
+    private QueryResultCache createCache(DataSize maxSize, DataSize maxEntrySize)
+    {
+        return createCache(metadata, maxSize, maxEntrySize);
+    }
+
+    private QueryResultCache createCache(Metadata metadata, DataSize maxSize, DataSize maxEntrySize)
+    {
+        return new QueryResultCache(
+                new QueryResultCacheConfig()
+                        .setMaxSize(maxSize)
+                        .setMaxEntrySize(maxEntrySize),
+                metadata,
+                tableScanCodec);
+    }
+
+    private Plan createTableScanPlan(TpchTableHandle tableHandle, TupleDomain<ColumnHandle> enforcedConstraint)
+    {
+        PlanBuilder planBuilder = new PlanBuilder(new PlanNodeIdAllocator(), metadata);
+        Symbol orderKey = planBuilder.symbol("orderkey", BIGINT);
+        TableHandle table = new TableHandle(new CatalogName("tpch"), tableHandle, TestingTransactionHandle.create(), Optional.empty());
+        PlanNode root = planBuilder.output(
+                ImmutableList.of("orderkey"),
+                ImmutableList.of(orderKey),
+                planBuilder.tableScan(table, ImmutableList.of(orderKey), ImmutableMap.of(orderKey, ORDER_KEY), enforcedConstraint));
+        return new Plan(root, planBuilder.getTypes(), StatsAndCosts.empty());
+    }
+
+    private static TupleDomain<ColumnHandle> inList(List<Long> values)
+    {
+        return TupleDomain.withColumnDomains(ImmutableMap.of(ORDER_KEY, Domain.multipleValues(BIGINT, values)));
+    }
+
+    private Plan createPlan(Expression projection)
+    {
+        return createPlan(projection, BIGINT);
+    }
+
+    private Plan createPlan(Expression projection, Type type)
+    {
+        PlanBuilder planBuilder = new PlanBuilder(new PlanNodeIdAllocator(), metadata);
+        Symbol x = planBuilder.symbol("x", BIGINT);
+        Symbol y = planBuilder.symbol("y", type);
+        PlanNode root = planBuilder.output(
+                ImmutableList.of("y"),
+                ImmutableList.of(y),
+                planBuilder.project(
+                        Assignments.of(y, projection),
+                        planBuilder.values(ImmutableList.of(x), ImmutableList.of(ImmutableList.of(expression("1"))))));
+        return new Plan(root, planBuilder.getTypes(), StatsAndCosts.empty());
+    }
+
+    private static SerializedPage createPage(int sizeInBytes)
+    {
+        return new SerializedPage(wrappedBuffer(new byte[sizeInBytes]), MarkerSet.empty(), 1, sizeInBytes);
+    }
+
+    private static class TestingTableMetadata
+            extends AbstractMockMetadata
+    {
+        private OptionalLong dataVersion = OptionalLong.of(1);
+
+        public void setDataVersion(OptionalLong dataVersion)
+        {
+            this.dataVersion = dataVersion;
+        }
+
+        @Override
+        public TableMetadata getTableMetadata(Session session, TableHandle tableHandle)
+        {
+            TpchTableHandle handle = (TpchTableHandle) tableHandle.getConnectorHandle();
+            return new TableMetadata(
+                    tableHandle.getCatalogName(),
+                    new ConnectorTableMetadata(new SchemaTableName("tiny", handle.getTableName()), ImmutableList.of(new ColumnMetadata("orderkey", BIGINT))));
+        }
+
+        @Override
+        public TableProperties getTableProperties(Session session, TableHandle handle)
+        {
+            return new TableProperties(handle.getCatalogName(), handle.getTransaction(), new ConnectorTableProperties());
+        }
+
+        @Override
+        public OptionalLong getTableDataVersion(Session session, TableHandle tableHandle)
+        {
+            return dataVersion;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.scheduler;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.client.NodeVersion;
+import io.prestosql.metadata.InternalNode;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestConsistentHashRing
+{
+    private static final InternalNode NODE_1 = new InternalNode("node1", URI.create("http://10.0.0.1:8080"), NodeVersion.UNKNOWN, false);
+    private static final InternalNode NODE_2 = new InternalNode("node2", URI.create("http://10.0.0.2:8080"), NodeVersion.UNKNOWN, false);
+    private static final InternalNode NODE_3 = new InternalNode("node3", URI.create("http://10.0.0.3:8080"), NodeVersion.UNKNOWN, false);
+
+    @Test
+    public void testPreferredNodes()
+    {
+        ConsistentHashRing ring = new ConsistentHashRing(ImmutableList.of(NODE_1, NODE_2, NODE_3), 16);
+
+        List<InternalNode> nodes = ring.getNodes("key", 2);
+        assertEquals(nodes.size(), 2);
+        assertNotEquals(nodes.get(0), nodes.get(1));
+        assertEquals(ring.getNodes("key", 10).size(), 3);
+
+        // the mapping does not depend on the order of the nodes
+        assertEquals(new ConsistentHashRing(ImmutableList.of(NODE_3, NODE_1, NODE_2), 16).getNodes("key", 2), nodes);
+
+        assertEquals(new ConsistentHashRing(ImmutableList.of(), 16).getNodes("key", 2), ImmutableList.of());
+    }
+
+    @Test
+    public void testRemoveNode()
+    {
+        ConsistentHashRing ring = new ConsistentHashRing(ImmutableList.of(NODE_1, NODE_2, NODE_3), 64);
+        ConsistentHashRing smallerRing = new ConsistentHashRing(ImmutableList.of(NODE_1, NODE_2), 64);
+
+        int moved = 0;
+        for (int i = 0; i < 1000; i++) {
+            String key = "file" + i;
+            InternalNode before = ring.getNodes(key, 1).get(0);
+            InternalNode after = smallerRing.getNodes(key, 1).get(0);
+            if (!before.equals(NODE_3)) {
+                // only the keys of the removed node are moved
+                assertEquals(after, before);
+            }
+            else {
+                // and they move to the next preferred node
+                assertEquals(after, ring.getNodes(key, 2).get(1));
+                moved++;
+            }
+        }
+        // keys are spread over the nodes
+        assertTrue(moved > 200 && moved < 500, "moved: " + moved);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.execution.scheduler;
+
+import com.google.common.collect.ImmutableMap;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static io.airlift.configuration.testing.ConfigAssertions.assertFullMapping;
+import static io.airlift.configuration.testing.ConfigAssertions.assertRecordedDefaults;
+import static io.airlift.configuration.testing.ConfigAssertions.recordDefaults;
+
+public class TestSoftAffinityNodeSelectorConfig
+{
+    @Test
+    public void testDefaults()
+    {
+        assertRecordedDefaults(recordDefaults(SoftAffinityNodeSelectorConfig.class)
+                .setCandidates(2)
+                .setVirtualNodesPerNode(64)
+                .setMaxLoadImbalance(5));
+    }
+
+    @Test
+    public void testExplicitPropertyMappings()
+    {
+        Map<String, String> properties = new ImmutableMap.Builder<String, String>()
+                .put("node-scheduler.soft-affinity.candidates", "3")
+                .put("node-scheduler.soft-affinity.virtual-nodes-per-node", "16")
+                .put("node-scheduler.soft-affinity.max-load-imbalance", "10")
+                .build();
+
+        SoftAffinityNodeSelectorConfig expected = new SoftAffinityNodeSelectorConfig()
+                .setCandidates(3)
+                .setVirtualNodesPerNode(16)
+                .setMaxLoadImbalance(10);
+
+        assertFullMapping(properties, expected);
+    }
+}
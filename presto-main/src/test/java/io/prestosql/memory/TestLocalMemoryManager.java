@@ -51,6 +51,19 @@ public class TestLocalMemoryManager
         assertEquals(localMemoryManager.getPools().size(), 2);
     }
 
+    @Test
+    public void testFragmentResultCacheMemory()
+    {
+        NodeMemoryConfig config = new NodeMemoryConfig()
+                .setHeapHeadroom(new DataSize(10, GIGABYTE))
+                .setMaxQueryMemoryPerNode(new DataSize(20, GIGABYTE))
+                .setMaxQueryTotalMemoryPerNode(new DataSize(20, GIGABYTE));
+
+        LocalMemoryManager localMemoryManager = new LocalMemoryManager(config, new DataSize(60, GIGABYTE).toBytes(), new DataSize(5, GIGABYTE).toBytes());
+        assertEquals(localMemoryManager.getGeneralPool().getMaxBytes(), new DataSize(25, GIGABYTE).toBytes());
+        assertEquals(localMemoryManager.getReservedPool().get().getMaxBytes(), new DataSize(20, GIGABYTE).toBytes());
+    }
+
     @Test
     public void testMaxQueryMemoryPerNodeBiggerThanQueryTotalMemoryPerNode()
     {
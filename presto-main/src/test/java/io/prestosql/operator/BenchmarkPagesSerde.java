@@ -0,0 +1,187 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.execution.buffer.CompressionCodec;
+import io.prestosql.execution.buffer.PagesSerde;
+import io.prestosql.execution.buffer.PagesSerdeFactory;
+import io.prestosql.execution.buffer.SerializedPage;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.BlockEncodingSerde;
+import io.prestosql.spi.block.DictionaryBlock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+@State(Scope.Thread)
+@OutputTimeUnit(MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkPagesSerde
+{
+    @Benchmark
+    public List<SerializedPage> serialize(BenchmarkData data)
+    {
+        PagesSerde serde = data.createPagesSerde();
+        ImmutableList.Builder<SerializedPage> serializedPages = ImmutableList.builder();
+        for (Page page : data.getPages()) {
+            serializedPages.add(serde.serialize(page));
+        }
+        return serializedPages.build();
+    }
+
+    @Benchmark
+    public List<Page> deserialize(BenchmarkData data)
+    {
+        PagesSerde serde = data.createPagesSerde();
+        ImmutableList.Builder<Page> pages = ImmutableList.builder();
+        for (SerializedPage serializedPage : data.getSerializedPages()) {
+            pages.add(serde.deserialize(serializedPage));
+        }
+        return pages.build();
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        private static final int PAGE_COUNT = 100;
+        private static final int POSITIONS_PER_PAGE = 10_000;
+        private static final int DICTIONARY_SIZE = 1_000;
+        private static final BlockEncodingSerde BLOCK_ENCODING_SERDE = createTestMetadataManager().getBlockEncodingSerde();
+
+        @Param({"NONE", "LZ4", "ZSTD", "SNAPPY"})
+        private String compressionCodec = "LZ4";
+
+        @Param({"false", "true"})
+        private boolean adaptiveCompression;
+
+        @Param({"BIGINT_SEQUENCE", "BIGINT_RANDOM", "VARCHAR_DICTIONARY"})
+        private String data = "BIGINT_SEQUENCE";
+
+        private List<Page> pages;
+        private List<SerializedPage> serializedPages;
+
+        @Setup
+        public void setup()
+        {
+            ImmutableList.Builder<Page> pages = ImmutableList.builder();
+            for (int i = 0; i < PAGE_COUNT; i++) {
+                pages.add(new Page(createBlock(i * POSITIONS_PER_PAGE)));
+            }
+            this.pages = pages.build();
+
+            PagesSerde serde = createPagesSerde();
+            ImmutableList.Builder<SerializedPage> serializedPages = ImmutableList.builder();
+            for (Page page : this.pages) {
+                serializedPages.add(serde.serialize(page));
+            }
+            this.serializedPages = serializedPages.build();
+        }
+
+        private Block createBlock(int start)
+        {
+            switch (data) {
+                case "BIGINT_SEQUENCE": {
+                    BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, POSITIONS_PER_PAGE);
+                    for (int i = 0; i < POSITIONS_PER_PAGE; i++) {
+                        BIGINT.writeLong(blockBuilder, start + i);
+                    }
+                    return blockBuilder.build();
+                }
+                case "BIGINT_RANDOM": {
+                    BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, POSITIONS_PER_PAGE);
+                    for (int i = 0; i < POSITIONS_PER_PAGE; i++) {
+                        BIGINT.writeLong(blockBuilder, ThreadLocalRandom.current().nextLong());
+                    }
+                    return blockBuilder.build();
+                }
+                case "VARCHAR_DICTIONARY": {
+                    BlockBuilder dictionary = VARCHAR.createBlockBuilder(null, DICTIONARY_SIZE);
+                    for (int i = 0; i < DICTIONARY_SIZE; i++) {
+                        VARCHAR.writeSlice(dictionary, utf8Slice("value_" + ThreadLocalRandom.current().nextLong()));
+                    }
+                    int[] ids = new int[POSITIONS_PER_PAGE];
+                    for (int i = 0; i < POSITIONS_PER_PAGE; i++) {
+                        ids[i] = ThreadLocalRandom.current().nextInt(DICTIONARY_SIZE);
+                    }
+                    return new DictionaryBlock(dictionary.build(), ids);
+                }
+                default:
+                    throw new IllegalArgumentException("Unsupported data: " + data);
+            }
+        }
+
+        public PagesSerde createPagesSerde()
+        {
+            if (compressionCodec.equals("NONE")) {
+                return new PagesSerdeFactory(BLOCK_ENCODING_SERDE, false).createPagesSerde();
+            }
+            return new PagesSerdeFactory(BLOCK_ENCODING_SERDE, true, CompressionCodec.valueOf(compressionCodec), adaptiveCompression)
+                    .createPagesSerde();
+        }
+
+        public List<Page> getPages()
+        {
+            return pages;
+        }
+
+        public List<SerializedPage> getSerializedPages()
+        {
+            return serializedPages;
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        // assure the benchmarks are valid before running
+        BenchmarkData data = new BenchmarkData();
+        data.setup();
+        new BenchmarkPagesSerde().serialize(data);
+        new BenchmarkPagesSerde().deserialize(data);
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkPagesSerde.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -17,10 +17,14 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.primitives.Ints;
 import io.airlift.units.DataSize;
 import io.prestosql.RowPagesBuilder;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.window.FrameInfo;
+import io.prestosql.operator.window.WindowFunctionSupplier;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.SortOrder;
 import io.prestosql.spi.type.Type;
+import io.prestosql.sql.tree.QualifiedName;
 import io.prestosql.testing.TestingTaskContext;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.BenchmarkMode;
@@ -42,18 +46,26 @@ import org.testng.annotations.Test;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
 import static io.airlift.units.DataSize.Unit.GIGABYTE;
 import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.block.BlockAssertions.createLongRepeatBlock;
 import static io.prestosql.block.BlockAssertions.createLongSequenceBlock;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.BenchmarkWindowOperator.Context.ROWS_PER_PAGE;
 import static io.prestosql.operator.BenchmarkWindowOperator.Context.TOTAL_PAGES;
 import static io.prestosql.operator.TestWindowOperator.ROW_NUMBER;
 import static io.prestosql.operator.TestWindowOperator.createFactoryUnbounded;
+import static io.prestosql.operator.WindowFunctionDefinition.window;
 import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static io.prestosql.sql.tree.FrameBound.Type.CURRENT_ROW;
+import static io.prestosql.sql.tree.FrameBound.Type.PRECEDING;
+import static io.prestosql.sql.tree.WindowFrame.Type.ROWS;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
@@ -77,8 +89,10 @@ public class BenchmarkWindowOperator
         public static final int TOTAL_PAGES = 140;
         public static final int ROWS_PER_PAGE = 10000;
         private static final List<Integer> PARTITION_CHANNELS = Ints.asList(0, 1);
+        private static final Metadata METADATA = createTestMetadataManager();
+        private static final int FRAME_OFFSET = 1000;
 
-        @Param({"10", "20", "100"})
+        @Param({"10", "20", "100", "10000"})
         public int rowsPerPartition;
 
         @Param({"0", "1", "2", "3"})
@@ -87,6 +101,9 @@ public class BenchmarkWindowOperator
         @Param({"10", "50", "100"})
         public int partitionsPerGroup;
 
+        @Param({"row_number", "sum", "max"})
+        public String windowFunction = "row_number";
+
         private ExecutorService executor;
         private ScheduledExecutorService scheduledExecutor;
         private OperatorFactory operatorFactory;
@@ -112,13 +129,14 @@ public class BenchmarkWindowOperator
         private void createOperatorFactoryAndGenerateTestData(int numberOfPreGroupedColumns)
         {
             pages = generateTestData();
+            List<WindowFunctionDefinition> windowFunctions = createWindowFunctions();
 
             if (numberOfPreGroupedColumns == 0) {
                 // Ungrouped
                 operatorFactory = createFactoryUnbounded(
-                        ImmutableList.of(BIGINT, BIGINT, BIGINT, BIGINT),
+                        ImmutableList.of(BIGINT, BIGINT, BIGINT, BIGINT, BIGINT),
                         Ints.asList(0, 1, 2, 3),
-                        ROW_NUMBER,
+                        windowFunctions,
                         PARTITION_CHANNELS,
                         Ints.asList(),
                         Ints.asList(3),
@@ -130,9 +148,9 @@ public class BenchmarkWindowOperator
             else if (numberOfPreGroupedColumns < NUMBER_OF_GROUP_COLUMNS) {
                 // Partially grouped
                 operatorFactory = createFactoryUnbounded(
-                        ImmutableList.of(BIGINT, BIGINT, BIGINT, BIGINT),
+                        ImmutableList.of(BIGINT, BIGINT, BIGINT, BIGINT, BIGINT),
                         Ints.asList(0, 1, 2, 3),
-                        ROW_NUMBER,
+                        windowFunctions,
                         PARTITION_CHANNELS,
                         Ints.asList(1),
                         Ints.asList(3),
@@ -144,9 +162,9 @@ public class BenchmarkWindowOperator
             else {
                 // Fully grouped and (potentially) sorted
                 operatorFactory = createFactoryUnbounded(
-                        ImmutableList.of(BIGINT, BIGINT, BIGINT, BIGINT),
+                        ImmutableList.of(BIGINT, BIGINT, BIGINT, BIGINT, BIGINT),
                         Ints.asList(0, 1, 2, 3),
-                        ROW_NUMBER,
+                        windowFunctions,
                         PARTITION_CHANNELS,
                         Ints.asList(0, 1),
                         Ints.asList(3),
@@ -157,6 +175,18 @@ public class BenchmarkWindowOperator
             }
         }
 
+        private List<WindowFunctionDefinition> createWindowFunctions()
+        {
+            if (windowFunction.equals("row_number")) {
+                return ROW_NUMBER;
+            }
+            // moving aggregate over ROWS BETWEEN 1000 PRECEDING AND CURRENT ROW, with the frame offset in the last channel
+            WindowFunctionSupplier supplier = METADATA.getWindowFunctionImplementation(
+                    METADATA.resolveFunction(QualifiedName.of(windowFunction), fromTypes(BIGINT)));
+            FrameInfo frame = new FrameInfo(ROWS, PRECEDING, Optional.of(4), CURRENT_ROW, Optional.empty());
+            return ImmutableList.of(window(supplier, BIGINT, frame, false, 3));
+        }
+
         private List<Page> generateTestData()
         {
             List<Type> typesArray = new ArrayList<>();
@@ -166,6 +196,7 @@ public class BenchmarkWindowOperator
             typesArray.add(BIGINT);
             typesArray.add(BIGINT);
             typesArray.add(BIGINT);
+            typesArray.add(BIGINT);
 
             RowPagesBuilder pagesBuilder = buildPages(currentPartitionIdentifier, typesArray);
 
@@ -205,7 +236,8 @@ public class BenchmarkWindowOperator
                         firstColumnBlockBuilder.build(),
                         secondColumnBlockBuilder.build(),
                         createLongSequenceBlock(0, ROWS_PER_PAGE),
-                        createLongSequenceBlock(0, ROWS_PER_PAGE));
+                        createLongSequenceBlock(0, ROWS_PER_PAGE),
+                        createLongRepeatBlock(FRAME_OFFSET, ROWS_PER_PAGE));
             }
 
             return rowPagesBuilder;
@@ -258,6 +290,15 @@ public class BenchmarkWindowOperator
         return outputPages.build();
     }
 
+    @Test
+    public void verifyMovingAggregations()
+    {
+        for (String windowFunction : ImmutableList.of("sum", "max")) {
+            verify(10, 0, false, windowFunction);
+            verify(10, 2, true, windowFunction);
+        }
+    }
+
     @Test
     public void verifyUnGroupedWithMultiplePartitions()
     {
@@ -310,8 +351,18 @@ public class BenchmarkWindowOperator
             int numberOfRowsPerPartition,
             int numberOfPreGroupedColumns,
             boolean useSinglePartition)
+    {
+        verify(numberOfRowsPerPartition, numberOfPreGroupedColumns, useSinglePartition, "row_number");
+    }
+
+    private void verify(
+            int numberOfRowsPerPartition,
+            int numberOfPreGroupedColumns,
+            boolean useSinglePartition,
+            String windowFunction)
     {
         Context context = new Context();
+        context.windowFunction = windowFunction;
 
         context.rowsPerPartition = numberOfRowsPerPartition;
         context.numberOfPregroupedColumns = numberOfPreGroupedColumns;
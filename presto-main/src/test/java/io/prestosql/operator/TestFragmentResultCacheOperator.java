@@ -0,0 +1,279 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.Session;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.execution.Lifespan;
+import io.prestosql.execution.resultcache.FragmentResultCacheConfig;
+import io.prestosql.execution.resultcache.FragmentResultCacheKey;
+import io.prestosql.execution.resultcache.FragmentResultCacheManager;
+import io.prestosql.execution.resultcache.TableScanIdentity;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.Split;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.operator.FragmentResultCacheOperator.FragmentResultCacheOperatorFactory;
+import io.prestosql.plugin.tpch.TpchColumnHandle;
+import io.prestosql.plugin.tpch.TpchTableHandle;
+import io.prestosql.spi.HostAddress;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ConnectorSplit;
+import io.prestosql.sql.analyzer.FeaturesConfig;
+import io.prestosql.sql.planner.PlanNodeIdAllocator;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.PlanBuilder;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.PlanNode;
+import io.prestosql.sql.planner.plan.PlanNodeId;
+import io.prestosql.testing.TestingSplit;
+import io.prestosql.testing.TestingTransactionHandle;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.json.JsonCodec.jsonCodec;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.operator.OperatorAssertion.assertOperatorEquals;
+import static io.prestosql.operator.OperatorAssertion.toPages;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static io.prestosql.testing.TestingTaskContext.createTaskContext;
+import static java.lang.String.format;
+import static java.util.concurrent.Executors.newCachedThreadPool;
+import static java.util.concurrent.Executors.newScheduledThreadPool;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+
+@Test(singleThreaded = true)
+public class TestFragmentResultCacheOperator
+{
+    private static final PlanNodeId SOURCE_ID = new PlanNodeId("source");
+    private static final ColumnHandle ORDER_KEY = new TpchColumnHandle("orderkey", BIGINT);
+    private static final ColumnHandle TOTAL_PRICE = new TpchColumnHandle("totalprice", DOUBLE);
+
+    private final Metadata metadata = createTestMetadataManager();
+
+    private ExecutorService executor;
+    private ScheduledExecutorService scheduledExecutor;
+
+    @BeforeMethod
+    public void setUp()
+    {
+        executor = newCachedThreadPool(daemonThreadsNamed("test-executor-%s"));
+        scheduledExecutor = newScheduledThreadPool(2, daemonThreadsNamed("test-scheduledExecutor-%s"));
+    }
+
+    @AfterMethod(alwaysRun = true)
+    public void tearDown()
+    {
+        executor.shutdownNow();
+        scheduledExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testCacheAndReplay()
+    {
+        FragmentResultCacheManager cacheManager = createCacheManager(new DataSize(1, MEGABYTE));
+        FragmentResultCacheOperatorFactory operatorFactory = new FragmentResultCacheOperatorFactory(0, 1, new PlanNodeId("test"), cacheManager, "plan");
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .addSequencePage(10, 1)
+                .addSequencePage(10, 11)
+                .build();
+
+        FragmentResultCacheKey cacheKey = operatorFactory.createCacheKey(createSplit("file-1")).get();
+        assertFalse(operatorFactory.getCachedResult(cacheKey).isPresent());
+
+        DriverContext driverContext = createDriverContext();
+        List<Page> output = toPages(operatorFactory.createOperator(driverContext, Optional.of(cacheKey)), input.iterator());
+        assertEquals(output, input);
+        assertEquals(cacheManager.getEntryCount(), 1);
+
+        List<Page> cachedResult = operatorFactory.getCachedResult(cacheKey).get();
+        assertEquals(cachedResult, input);
+        assertFalse(operatorFactory.getCachedResult(operatorFactory.createCacheKey(createSplit("file-2")).get()).isPresent());
+
+        SourceOperator cachedResultOperator = operatorFactory.createCachedResultOperator(createDriverContext(), SOURCE_ID, cachedResult);
+        assertEquals(cachedResultOperator.getSourceId(), SOURCE_ID);
+        assertFalse(cachedResultOperator.addSplit(createSplit("file-1")).get().isPresent());
+        assertEquals(toPages(cachedResultOperator, ImmutableList.<Page>of().iterator()), input);
+        assertTrue(cachedResultOperator.isFinished());
+    }
+
+    @Test
+    public void testSplitWithoutCacheIdentifier()
+    {
+        FragmentResultCacheOperatorFactory operatorFactory = new FragmentResultCacheOperatorFactory(0, 1, new PlanNodeId("test"), createCacheManager(new DataSize(1, MEGABYTE)), "plan");
+        Split split = new Split(new CatalogName("test"), TestingSplit.createLocalSplit(), Lifespan.taskWide());
+        assertFalse(operatorFactory.createCacheKey(split).isPresent());
+
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .addSequencePage(10, 1)
+                .build();
+        assertOperatorEquals(operatorFactory, ImmutableList.of(BIGINT), createDriverContext(), input, input);
+    }
+
+    @Test
+    public void testResultTooLarge()
+    {
+        FragmentResultCacheManager cacheManager = createCacheManager(new DataSize(1, KILOBYTE));
+        FragmentResultCacheOperatorFactory operatorFactory = new FragmentResultCacheOperatorFactory(0, 1, new PlanNodeId("test"), cacheManager, "plan");
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .addSequencePage(1000, 1)
+                .addSequencePage(1000, 1001)
+                .build();
+
+        FragmentResultCacheKey cacheKey = operatorFactory.createCacheKey(createSplit("file-1")).get();
+        List<Page> output = toPages(operatorFactory.createOperator(createDriverContext(), Optional.of(cacheKey)), input.iterator());
+        assertEquals(output, input);
+        assertFalse(operatorFactory.getCachedResult(cacheKey).isPresent());
+        assertEquals(cacheManager.getEntryCount(), 0);
+    }
+
+    @Test
+    public void testEntrySharedBetweenQueries()
+    {
+        FragmentResultCacheManager cacheManager = createCacheManager(new DataSize(1, MEGABYTE));
+
+        // the same subplan is planned with different node ids, symbol names and transactions in every query
+        PlanNodeIdAllocator idAllocator = new PlanNodeIdAllocator();
+        String firstPlanHash = createPlanHash(cacheManager, TEST_SESSION, new PlanBuilder(idAllocator, metadata), "_1", "%s > 5");
+        String secondPlanHash = createPlanHash(cacheManager, TEST_SESSION, new PlanBuilder(idAllocator, metadata), "_27", "%s > 5");
+        assertEquals(secondPlanHash, firstPlanHash);
+
+        FragmentResultCacheOperatorFactory firstQuery = new FragmentResultCacheOperatorFactory(0, 1, new PlanNodeId("test"), cacheManager, firstPlanHash);
+        List<Page> input = rowPagesBuilder(BIGINT)
+                .addSequencePage(10, 1)
+                .build();
+        toPages(firstQuery.createOperator(createDriverContext(), firstQuery.createCacheKey(createSplit("file-1"))), input.iterator());
+
+        FragmentResultCacheOperatorFactory secondQuery = new FragmentResultCacheOperatorFactory(0, 1, new PlanNodeId("other"), cacheManager, secondPlanHash);
+        assertEquals(secondQuery.getCachedResult(secondQuery.createCacheKey(createSplit("file-1")).get()), Optional.of(input));
+        assertEquals(cacheManager.getEntryCount(), 1);
+    }
+
+    @Test
+    public void testPlanHashDependsOnPlanAndSession()
+    {
+        FragmentResultCacheManager cacheManager = createCacheManager(new DataSize(1, MEGABYTE));
+        String planHash = createPlanHash(cacheManager, TEST_SESSION, new PlanBuilder(new PlanNodeIdAllocator(), metadata), "", "%s > 5");
+
+        assertNotEquals(createPlanHash(cacheManager, TEST_SESSION, new PlanBuilder(new PlanNodeIdAllocator(), metadata), "", "%s > 6"), planHash);
+        assertNotEquals(createPlanHash(cacheManager, TEST_SESSION, new PlanBuilder(new PlanNodeIdAllocator(), metadata), "", "%s < 5"), planHash);
+
+        Session otherSession = Session.builder(TEST_SESSION)
+                .setSystemProperty("hash_partition_count", "7")
+                .build();
+        assertNotEquals(createPlanHash(cacheManager, otherSession, new PlanBuilder(new PlanNodeIdAllocator(), metadata), "", "%s > 5"), planHash);
+    }
+
+    private String createPlanHash(FragmentResultCacheManager cacheManager, Session session, PlanBuilder planBuilder, String symbolSuffix, String predicate)
+    {
+        Symbol orderKey = planBuilder.symbol("orderkey" + symbolSuffix, BIGINT);
+        Symbol totalPrice = planBuilder.symbol("totalprice" + symbolSuffix, DOUBLE);
+        Symbol doubledPrice = planBuilder.symbol("expr" + symbolSuffix, DOUBLE);
+        Symbol sum = planBuilder.symbol("sum" + symbolSuffix, DOUBLE);
+        TableHandle table = new TableHandle(new CatalogName("tpch"), new TpchTableHandle("orders", 1.0), TestingTransactionHandle.create(), Optional.empty());
+        PlanNode plan = planBuilder.aggregation(aggregation -> aggregation
+                .step(PARTIAL)
+                .singleGroupingSet(orderKey)
+                .addAggregation(sum, expression(format("sum(%s)", doubledPrice.getName())), ImmutableList.of(DOUBLE))
+                .source(planBuilder.project(
+                        Assignments.builder()
+                                .putIdentity(orderKey)
+                                .put(doubledPrice, expression(format("%s * 2", totalPrice.getName())))
+                                .build(),
+                        planBuilder.filter(
+                                expression(format(predicate, orderKey.getName())),
+                                planBuilder.tableScan(
+                                        table,
+                                        ImmutableList.of(orderKey, totalPrice),
+                                        ImmutableMap.of(orderKey, ORDER_KEY, totalPrice, TOTAL_PRICE))))));
+        return cacheManager.createPlanHash(session, plan, planBuilder.getTypes());
+    }
+
+    private DriverContext createDriverContext()
+    {
+        return createTaskContext(executor, scheduledExecutor, TEST_SESSION)
+                .addPipelineContext(0, true, true, false)
+                .addDriverContext();
+    }
+
+    private static FragmentResultCacheManager createCacheManager(DataSize maxEntrySize)
+    {
+        return new FragmentResultCacheManager(
+                new FragmentResultCacheConfig()
+                        .setMaxSize(new DataSize(16, MEGABYTE))
+                        .setMaxEntrySize(maxEntrySize),
+                new FeaturesConfig().setFragmentResultCacheEnabled(true),
+                jsonCodec(TableScanIdentity.class));
+    }
+
+    private static Split createSplit(String cacheIdentifier)
+    {
+        return new Split(new CatalogName("test"), new CacheableSplit(cacheIdentifier), Lifespan.taskWide());
+    }
+
+    private static class CacheableSplit
+            implements ConnectorSplit
+    {
+        private final String cacheIdentifier;
+
+        public CacheableSplit(String cacheIdentifier)
+        {
+            this.cacheIdentifier = cacheIdentifier;
+        }
+
+        @Override
+        public boolean isRemotelyAccessible()
+        {
+            return true;
+        }
+
+        @Override
+        public List<HostAddress> getAddresses()
+        {
+            return ImmutableList.of();
+        }
+
+        @Override
+        public Object getInfo()
+        {
+            return this;
+        }
+
+        @Override
+        public Optional<String> getCacheIdentifier()
+        {
+            return Optional.of(cacheIdentifier);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import io.prestosql.operator.HashAggregationOperator.HashAggregationOperatorFact
 import io.prestosql.operator.aggregation.InternalAggregationFunction;
 import io.prestosql.operator.aggregation.builder.HashAggregationBuilder;
 import io.prestosql.operator.aggregation.builder.InMemoryHashAggregationBuilder;
+import io.prestosql.operator.aggregation.builder.SkipAggregationBuilder;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.block.PageBuilderStatus;
@@ -87,6 +88,8 @@ import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
 import static org.testng.Assert.assertTrue;
 import static org.testng.Assert.fail;
 
@@ -579,6 +582,104 @@ public class TestHashAggregationOperator
         assertEquals(driverContext.getMemoryUsage(), 0);
     }
 
+    @Test(dataProvider = "hashEnabled")
+    public void testAdaptivePartialAggregation(boolean hashEnabled)
+    {
+        List<Integer> hashChannels = Ints.asList(0);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, hashChannels, BIGINT);
+        List<Page> input = rowPagesBuilder
+                .addSequencePage(500, 0)
+                .addSequencePage(500, 500)
+                .addSequencePage(500, 1000)
+                .addSequencePage(500, 1500)
+                .build();
+
+        PartialAggregationController partialAggregationController = new PartialAggregationController(0, 0.5);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                hashChannels,
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(LONG_MIN.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                Optional.of(new DataSize(1, KILOBYTE)),
+                false,
+                new DataSize(0, MEGABYTE),
+                spillerFactory,
+                joinCompiler,
+                true,
+                Optional.of(partialAggregationController));
+
+        DriverContext driverContext = createDriverContext(1024);
+        MaterializedResult expected = resultBuilder(driverContext.getSession(), BIGINT, BIGINT)
+                .pages(rowPagesBuilder(BIGINT, BIGINT).addSequencePage(2000, 0, 0).build())
+                .build();
+
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            List<Page> outputPages = toPages(operator, input.iterator());
+            if (hashEnabled) {
+                // Drop the hashChannel for all pages
+                outputPages = dropChannel(outputPages, ImmutableList.of(1));
+            }
+            MaterializedResult actual = toMaterializedResult(operator.getOperatorContext().getSession(), expected.getTypes(), outputPages);
+            assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+
+            // the first flush aggregates unique keys, which disables partial aggregation for the remaining input
+            assertTrue(partialAggregationController.isPartialAggregationDisabled());
+            PartialAggregationInfo info = (PartialAggregationInfo) operator.getOperatorContext().getOperatorStats().getInfo();
+            assertEquals(info.getAggregatedOutputPositions(), info.getAggregatedInputPositions());
+            assertEquals(info.getAggregatedInputPositions() + info.getPassThroughPositions(), 2000);
+            assertGreaterThan(info.getPassThroughPositions(), 0L);
+            assertEquals(info.getPassThroughOperators(), 1);
+        }
+    }
+
+    @Test
+    public void testSkipAggregationMemoryReservation()
+    {
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(false, Ints.asList(0), BIGINT);
+        Page input = getOnlyElement(rowPagesBuilder.addSequencePage(500, 0).build());
+
+        PartialAggregationController partialAggregationController = new PartialAggregationController(0, 0.5);
+        partialAggregationController.onFlush(1, 1);
+        HashAggregationOperatorFactory operatorFactory = new HashAggregationOperatorFactory(
+                0,
+                new PlanNodeId("test"),
+                ImmutableList.of(BIGINT),
+                Ints.asList(0),
+                ImmutableList.of(),
+                Step.PARTIAL,
+                false,
+                ImmutableList.of(LONG_MIN.bind(ImmutableList.of(0), Optional.empty())),
+                rowPagesBuilder.getHashChannel(),
+                Optional.empty(),
+                100_000,
+                Optional.of(new DataSize(1, KILOBYTE)),
+                false,
+                new DataSize(0, MEGABYTE),
+                spillerFactory,
+                joinCompiler,
+                true,
+                Optional.of(partialAggregationController));
+
+        DriverContext driverContext = createDriverContext(1024);
+        try (Operator operator = operatorFactory.createOperator(driverContext)) {
+            operator.addInput(input);
+            assertTrue(((HashAggregationOperator) operator).getAggregationBuilder() instanceof SkipAggregationBuilder);
+            // the page is held by the operator until it is emitted
+            assertEquals(driverContext.getSystemMemoryUsage(), input.getRetainedSizeInBytes());
+
+            assertNotNull(operator.getOutput());
+            assertNull(operator.getOutput());
+            assertEquals(driverContext.getSystemMemoryUsage(), 0);
+        }
+    }
+
     @Test
     public void testMergeWithMemorySpill()
     {
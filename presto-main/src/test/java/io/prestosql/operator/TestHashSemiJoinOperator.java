@@ -22,6 +22,8 @@ import io.prestosql.operator.HashSemiJoinOperator.HashSemiJoinOperatorFactory;
 import io.prestosql.operator.SetBuilderOperator.SetBuilderOperatorFactory;
 import io.prestosql.spi.Page;
 import io.prestosql.spi.type.Type;
+import io.prestosql.spiller.GenericPartitioningSpillerFactory;
+import io.prestosql.spiller.PartitioningSpillerFactory;
 import io.prestosql.sql.gen.JoinCompiler;
 import io.prestosql.sql.planner.plan.PlanNodeId;
 import io.prestosql.testing.MaterializedResult;
@@ -30,13 +32,17 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
 
 import static com.google.common.collect.Iterables.concat;
+import static io.airlift.concurrent.MoreFutures.getFutureValue;
 import static io.airlift.concurrent.Threads.daemonThreadsNamed;
+import static io.airlift.testing.Assertions.assertEqualsIgnoreOrder;
 import static io.airlift.testing.Assertions.assertGreaterThan;
 import static io.airlift.testing.Assertions.assertGreaterThanOrEqual;
 import static io.airlift.units.DataSize.Unit.BYTE;
@@ -45,6 +51,8 @@ import static io.prestosql.SessionTestUtils.TEST_SESSION;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
 import static io.prestosql.operator.GroupByHashYieldAssertion.createPagesWithDistinctHashKeys;
 import static io.prestosql.operator.GroupByHashYieldAssertion.finishOperatorWithYieldingGroupByHash;
+import static io.prestosql.operator.OperatorAssertion.dropChannel;
+import static io.prestosql.operator.OperatorAssertion.toMaterializedResult;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.BooleanType.BOOLEAN;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
@@ -53,6 +61,7 @@ import static io.prestosql.testing.TestingTaskContext.createTaskContext;
 import static java.util.concurrent.Executors.newCachedThreadPool;
 import static java.util.concurrent.Executors.newScheduledThreadPool;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 @Test(singleThreaded = true)
 public class TestHashSemiJoinOperator
@@ -420,6 +429,122 @@ public class TestHashSemiJoinOperator
         OperatorAssertion.assertOperatorEquals(joinOperatorFactory, driverContext, probeInput, expected, hashEnabled, ImmutableList.of(probeTypes.size()));
     }
 
+    @Test(dataProvider = "hashEnabledValues")
+    public void testSemiJoinWithSpill(boolean hashEnabled)
+    {
+        DriverContext buildDriverContext = taskContext.addPipelineContext(0, true, true, false).addDriverContext();
+
+        // build, spilling after the first page
+        List<Type> buildTypes = ImmutableList.of(BIGINT);
+        RowPagesBuilder rowPagesBuilder = rowPagesBuilder(hashEnabled, Ints.asList(0), buildTypes);
+        List<Page> buildInput = rowPagesBuilder
+                .row(10L)
+                .row(30L)
+                .row(30L)
+                .pageBreak()
+                .row(35L)
+                .row(36L)
+                .row((Object) null)
+                .pageBreak()
+                .row(37L)
+                .row(50L)
+                .build();
+        PartitioningSpillerFactory partitioningSpillerFactory = new GenericPartitioningSpillerFactory(new DummySpillerFactory());
+        SetBuilderOperatorFactory setBuilderOperatorFactory = new SetBuilderOperatorFactory(
+                1,
+                new PlanNodeId("test"),
+                buildTypes.get(0),
+                0,
+                rowPagesBuilder.getHashChannel(),
+                10,
+                new JoinCompiler(createTestMetadataManager()),
+                OptionalInt.of(2),
+                partitioningSpillerFactory);
+        SetBuilderOperator setBuilderOperator = (SetBuilderOperator) setBuilderOperatorFactory.createOperator(buildDriverContext);
+
+        setBuilderOperator.addInput(buildInput.get(0));
+        getFutureValue(setBuilderOperator.startMemoryRevoke());
+        setBuilderOperator.finishMemoryRevoke();
+        assertEquals(setBuilderOperator.getState(), SetBuilderOperator.State.SPILLING_INPUT);
+        setBuilderOperator.addInput(buildInput.get(1));
+        setBuilderOperator.addInput(buildInput.get(2));
+        setBuilderOperator.finish();
+        assertEquals(setBuilderOperator.getState(), SetBuilderOperator.State.INPUT_SPILLED);
+        assertTrue(setBuilderOperatorFactory.getSetProvider().isSpilled());
+
+        // probe with two operators
+        List<Type> probeTypes = ImmutableList.of(BIGINT, BIGINT);
+        RowPagesBuilder rowPagesBuilderProbe = rowPagesBuilder(hashEnabled, Ints.asList(0), probeTypes);
+        List<Page> probeInput = rowPagesBuilderProbe
+                .addSequencePage(5, 30, 0)
+                .addSequencePage(5, 35, 5)
+                .row(null, 10L)
+                .build();
+        Optional<Integer> probeHashChannel = hashEnabled ? Optional.of(probeTypes.size()) : Optional.empty();
+        HashSemiJoinOperatorFactory joinOperatorFactory = new HashSemiJoinOperatorFactory(
+                2,
+                new PlanNodeId("test"),
+                setBuilderOperatorFactory.getSetProvider(),
+                rowPagesBuilderProbe.getTypes(),
+                0,
+                probeHashChannel,
+                partitioningSpillerFactory);
+        List<Operator> probeOperators = ImmutableList.of(
+                joinOperatorFactory.createOperator(taskContext.addPipelineContext(1, true, true, false).addDriverContext()),
+                joinOperatorFactory.createOperator(taskContext.addPipelineContext(1, true, true, false).addDriverContext()));
+        List<List<Page>> probeOperatorsInput = ImmutableList.of(
+                ImmutableList.of(probeInput.get(0)),
+                ImmutableList.of(probeInput.get(1), probeInput.get(2)));
+
+        List<Page> outputPages = new ArrayList<>();
+        for (int i = 0; i < probeOperators.size(); i++) {
+            Operator probeOperator = probeOperators.get(i);
+            for (Page page : probeOperatorsInput.get(i)) {
+                assertTrue(probeOperator.needsInput());
+                probeOperator.addInput(page);
+                addIfNotNull(outputPages, probeOperator.getOutput());
+            }
+            probeOperator.finish();
+        }
+
+        // the build operator unspills partitions on request, as the driver would drive it
+        for (int iteration = 0; !probeOperators.stream().allMatch(Operator::isFinished); iteration++) {
+            assertTrue(iteration < 1000, "semi join did not finish");
+            setBuilderOperator.finish();
+            for (Operator probeOperator : probeOperators) {
+                if (probeOperator.isFinished()) {
+                    continue;
+                }
+                addIfNotNull(outputPages, probeOperator.getOutput());
+            }
+        }
+        setBuilderOperator.finish();
+        assertTrue(setBuilderOperator.isFinished());
+        assertEquals(setBuilderOperator.getState(), SetBuilderOperator.State.FINISHED);
+
+        if (hashEnabled) {
+            outputPages = dropChannel(outputPages, ImmutableList.of(probeTypes.size()));
+        }
+        MaterializedResult expected = resultBuilder(TEST_SESSION, concat(probeTypes, ImmutableList.of(BOOLEAN)))
+                .row(30L, 0L, true)
+                .row(31L, 1L, null)
+                .row(32L, 2L, null)
+                .row(33L, 3L, null)
+                .row(34L, 4L, null)
+                .row(35L, 5L, true)
+                .row(36L, 6L, true)
+                .row(37L, 7L, true)
+                .row(38L, 8L, null)
+                .row(39L, 9L, null)
+                .row(null, 10L, null)
+                .build();
+        MaterializedResult actual = toMaterializedResult(TEST_SESSION, expected.getTypes(), outputPages);
+        assertEqualsIgnoreOrder(actual.getMaterializedRows(), expected.getMaterializedRows());
+
+        probeOperators.forEach(TestHashSemiJoinOperator::closeUnchecked);
+        setBuilderOperator.close();
+    }
+
     @Test(dataProvider = "hashEnabledValues", expectedExceptions = ExceededMemoryLimitException.class, expectedExceptionsMessageRegExp = "Query exceeded per-node user memory limit of.*")
     public void testMemoryLimit(boolean hashEnabled)
     {
@@ -448,4 +573,21 @@ public class TestHashSemiJoinOperator
             driver.process();
         }
     }
+
+    private static void addIfNotNull(List<Page> pages, Page page)
+    {
+        if (page != null) {
+            pages.add(page);
+        }
+    }
+
+    private static void closeUnchecked(Operator operator)
+    {
+        try {
+            operator.close();
+        }
+        catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
 }
@@ -0,0 +1,97 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.operator.window;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.operator.PagesIndex;
+import io.prestosql.operator.aggregation.Accumulator;
+import io.prestosql.operator.aggregation.AccumulatorFactory;
+import io.prestosql.operator.aggregation.InternalAggregationFunction;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.function.WindowIndex;
+import io.prestosql.sql.tree.QualifiedName;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+
+import static io.prestosql.RowPagesBuilder.rowPagesBuilder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.analyzer.TypeSignatureProvider.fromTypes;
+import static org.testng.Assert.assertEquals;
+
+public class TestWindowSegmentTree
+{
+    private static final Metadata METADATA = createTestMetadataManager();
+    private static final int POSITION_COUNT = 50;
+
+    @Test
+    public void testMax()
+    {
+        assertAllFrames("max", 1);
+        assertAllFrames("max", 4);
+    }
+
+    @Test
+    public void testOrderSensitiveAggregation()
+    {
+        assertAllFrames("array_agg", 1);
+        assertAllFrames("array_agg", 3);
+        assertAllFrames("array_agg", POSITION_COUNT + 1);
+    }
+
+    private static void assertAllFrames(String functionName, int leafSize)
+    {
+        InternalAggregationFunction function = METADATA.getAggregateFunctionImplementation(
+                METADATA.resolveFunction(QualifiedName.of(functionName), fromTypes(BIGINT)));
+        AccumulatorFactory accumulatorFactory = function.bind(ImmutableList.of(0), Optional.empty());
+        WindowIndex windowIndex = createWindowIndex();
+        WindowSegmentTree segmentTree = new WindowSegmentTree(accumulatorFactory, ImmutableList.of(0), windowIndex, leafSize);
+
+        for (int start = 0; start < POSITION_COUNT; start++) {
+            for (int end = start; end < POSITION_COUNT; end++) {
+                Accumulator expected = accumulatorFactory.createAccumulator();
+                expected.addInput(windowIndex, ImmutableList.of(0), start, end);
+
+                Accumulator actual = accumulatorFactory.createAccumulator();
+                segmentTree.addFrame(actual, start, end);
+
+                assertEquals(evaluateFinal(actual), evaluateFinal(expected), "frame " + start + " to " + end);
+            }
+        }
+    }
+
+    private static Object evaluateFinal(Accumulator accumulator)
+    {
+        BlockBuilder blockBuilder = accumulator.getFinalType().createBlockBuilder(null, 1);
+        accumulator.evaluateFinal(blockBuilder);
+        Block block = blockBuilder.build();
+        return accumulator.getFinalType().getObjectValue(TEST_SESSION.toConnectorSession(), block, 0);
+    }
+
+    private static WindowIndex createWindowIndex()
+    {
+        PagesIndex pagesIndex = new PagesIndex.TestingFactory(false).newPagesIndex(ImmutableList.of(BIGINT), POSITION_COUNT);
+        rowPagesBuilder(BIGINT)
+                .addSequencePage(20, 100)
+                .row((Object) null)
+                .addSequencePage(29, -50)
+                .build()
+                .forEach(pagesIndex::addPage);
+        return new PagesWindowIndex(pagesIndex, 0, POSITION_COUNT);
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.ListenableFuture;
+import io.airlift.units.Duration;
+import io.prestosql.server.DynamicFilterService.StageDynamicFilters;
+import io.prestosql.spi.QueryId;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.sql.DynamicFilters;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestDynamicFilterService
+{
+    private static final QueryId QUERY_ID = new QueryId("query");
+
+    @Test
+    public void testCollectDynamicFilters()
+    {
+        DynamicFilterService service = new DynamicFilterService(createTestMetadataManager(), new Duration(1, SECONDS));
+        AtomicReference<List<StageDynamicFilters>> stages = new AtomicReference<>(ImmutableList.of());
+        service.registerQuery(QUERY_ID, stages::get);
+
+        Symbol symbol = new Symbol("a");
+        ColumnHandle column = new TestingColumnHandle("a");
+        Supplier<TupleDomain<ColumnHandle>> dynamicFilter = service.createDynamicFilterSupplier(
+                QUERY_ID,
+                ImmutableList.of(new DynamicFilters.Descriptor("df", symbol.toSymbolReference())),
+                ImmutableMap.of(symbol, column));
+
+        service.collectDynamicFilters();
+        assertEquals(dynamicFilter.get(), TupleDomain.all());
+
+        // only one task reported the filter
+        stages.set(ImmutableList.of(new StageDynamicFilters(true, ImmutableList.of(
+                ImmutableMap.of("df", Domain.singleValue(BIGINT, 1L)),
+                ImmutableMap.of()))));
+        service.collectDynamicFilters();
+        assertEquals(dynamicFilter.get(), TupleDomain.all());
+
+        // more tasks may still be scheduled
+        stages.set(ImmutableList.of(new StageDynamicFilters(false, ImmutableList.of(
+                ImmutableMap.of("df", Domain.singleValue(BIGINT, 1L)),
+                ImmutableMap.of("df", Domain.singleValue(BIGINT, 2L))))));
+        service.collectDynamicFilters();
+        assertEquals(dynamicFilter.get(), TupleDomain.all());
+
+        stages.set(ImmutableList.of(new StageDynamicFilters(true, ImmutableList.of(
+                ImmutableMap.of("df", Domain.singleValue(BIGINT, 1L)),
+                ImmutableMap.of("df", Domain.singleValue(BIGINT, 2L))))));
+        service.collectDynamicFilters();
+        Domain expected = Domain.multipleValues(BIGINT, ImmutableList.of(1L, 2L));
+        assertEquals(service.getCompletedDynamicFilters(QUERY_ID), ImmutableMap.of("df", expected));
+        assertEquals(dynamicFilter.get(), TupleDomain.withColumnDomains(ImmutableMap.of(column, expected)));
+
+        service.removeQuery(QUERY_ID);
+        assertEquals(dynamicFilter.get(), TupleDomain.all());
+        assertTrue(service.getCompletedDynamicFilters(QUERY_ID).isEmpty());
+    }
+
+    @Test
+    public void testEmptyDynamicFilter()
+    {
+        DynamicFilterService service = new DynamicFilterService(createTestMetadataManager(), new Duration(1, SECONDS));
+        service.registerQuery(QUERY_ID, () -> ImmutableList.of(new StageDynamicFilters(true, ImmutableList.of(
+                ImmutableMap.of("df", Domain.none(BIGINT)),
+                ImmutableMap.of("df", Domain.none(BIGINT))))));
+
+        Symbol symbol = new Symbol("a");
+        Supplier<TupleDomain<ColumnHandle>> dynamicFilter = service.createDynamicFilterSupplier(
+                QUERY_ID,
+                ImmutableList.of(new DynamicFilters.Descriptor("df", symbol.toSymbolReference())),
+                ImmutableMap.of(symbol, new TestingColumnHandle("a")));
+
+        service.collectDynamicFilters();
+        assertTrue(dynamicFilter.get().isNone());
+    }
+
+    @Test
+    public void testDynamicFiltersCompletedFuture()
+    {
+        DynamicFilterService service = new DynamicFilterService(createTestMetadataManager(), new Duration(1, SECONDS));
+        AtomicReference<List<StageDynamicFilters>> stages = new AtomicReference<>(ImmutableList.of());
+        service.registerQuery(QUERY_ID, stages::get);
+
+        assertTrue(service.getDynamicFiltersCompletedFuture(QUERY_ID, ImmutableSet.of("df"), new Duration(0, SECONDS)).isDone());
+
+        ListenableFuture<?> completed = service.getDynamicFiltersCompletedFuture(QUERY_ID, ImmutableSet.of("df"), new Duration(1, MINUTES));
+        service.collectDynamicFilters();
+        assertFalse(completed.isDone());
+
+        stages.set(ImmutableList.of(new StageDynamicFilters(true, ImmutableList.of(
+                ImmutableMap.of("df", Domain.singleValue(BIGINT, 1L))))));
+        service.collectDynamicFilters();
+        assertTrue(completed.isDone());
+        assertTrue(service.getDynamicFiltersCompletedFuture(QUERY_ID, ImmutableSet.of("df"), new Duration(1, MINUTES)).isDone());
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.server.remotetask;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
+import io.airlift.bootstrap.Bootstrap;
+import io.airlift.json.JsonCodec;
+import io.airlift.json.JsonModule;
+import io.prestosql.connector.CatalogName;
+import io.prestosql.execution.Lifespan;
+import io.prestosql.execution.ScheduledSplit;
+import io.prestosql.execution.TaskId;
+import io.prestosql.execution.TaskInfo;
+import io.prestosql.execution.TaskSource;
+import io.prestosql.metadata.HandleJsonModule;
+import io.prestosql.metadata.HandleResolver;
+import io.prestosql.metadata.Metadata;
+import io.prestosql.metadata.Split;
+import io.prestosql.operator.TaskStats;
+import io.prestosql.server.TaskUpdateRequest;
+import io.prestosql.server.smile.SmileCodecFactory;
+import io.prestosql.spi.type.Type;
+import io.prestosql.sql.planner.PlanFragment;
+import io.prestosql.testing.TestingHandleResolver;
+import io.prestosql.testing.TestingSplit;
+import io.prestosql.type.TypeDeserializer;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.concurrent.TimeUnit;
+
+import static io.airlift.json.JsonBinder.jsonBinder;
+import static io.airlift.json.JsonCodecBinder.jsonCodecBinder;
+import static io.prestosql.SessionTestUtils.TEST_SESSION;
+import static io.prestosql.execution.TaskTestUtils.PLAN_FRAGMENT;
+import static io.prestosql.execution.TaskTestUtils.TABLE_SCAN_NODE_ID;
+import static io.prestosql.execution.buffer.OutputBuffers.BufferType.BROADCAST;
+import static io.prestosql.execution.buffer.OutputBuffers.createInitialEmptyOutputBuffers;
+import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
+import static io.prestosql.server.remotetask.RemoteTaskCodec.jsonCodec;
+import static io.prestosql.server.remotetask.RemoteTaskCodec.smileCodec;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Measures the coordinator CPU spent in encoding the task updates and decoding
+ * the task info responses, per scheduled split. The splits of a task are sent
+ * in batches of {@code splitsPerUpdate}, and only the first update carries the
+ * plan fragment.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(3)
+@Warmup(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+public class BenchmarkRemoteTaskCodec
+{
+    private static final int SPLITS_PER_TASK = 1000;
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"1", "10", "100"})
+        private int splitsPerUpdate = 10;
+
+        @Param({"false", "true"})
+        private boolean binaryTransport;
+
+        private RemoteTaskCodec<TaskUpdateRequest> taskUpdateRequestCodec;
+        private RemoteTaskCodec<TaskInfo> taskInfoCodec;
+        private List<TaskUpdateRequest> updates;
+        private byte[] taskInfo;
+
+        @Setup
+        public void setup()
+        {
+            Injector injector = new Bootstrap(
+                    new JsonModule(),
+                    new HandleJsonModule(),
+                    binder -> {
+                        binder.bind(Metadata.class).toInstance(createTestMetadataManager());
+                        jsonBinder(binder).addDeserializerBinding(Type.class).to(TypeDeserializer.class);
+                        jsonCodecBinder(binder).bindJsonCodec(TaskInfo.class);
+                        jsonCodecBinder(binder).bindJsonCodec(TaskUpdateRequest.class);
+                    })
+                    .strictConfig()
+                    .doNotInitializeLogging()
+                    .quiet()
+                    .initialize();
+            injector.getInstance(HandleResolver.class).addCatalogHandleResolver("test", new TestingHandleResolver());
+
+            JsonCodec<TaskUpdateRequest> taskUpdateRequestJsonCodec = injector.getInstance(Key.get(new TypeLiteral<JsonCodec<TaskUpdateRequest>>() {}));
+            JsonCodec<TaskInfo> taskInfoJsonCodec = injector.getInstance(Key.get(new TypeLiteral<JsonCodec<TaskInfo>>() {}));
+            if (binaryTransport) {
+                SmileCodecFactory smileCodecFactory = new SmileCodecFactory(injector.getInstance(ObjectMapper.class));
+                taskUpdateRequestCodec = smileCodec(taskUpdateRequestJsonCodec, smileCodecFactory.smileCodec(TaskUpdateRequest.class));
+                taskInfoCodec = smileCodec(taskInfoJsonCodec, smileCodecFactory.smileCodec(TaskInfo.class));
+            }
+            else {
+                taskUpdateRequestCodec = jsonCodec(taskUpdateRequestJsonCodec);
+                taskInfoCodec = jsonCodec(taskInfoJsonCodec);
+            }
+
+            ImmutableList.Builder<TaskUpdateRequest> updates = ImmutableList.builder();
+            int sequenceId = 0;
+            while (sequenceId < SPLITS_PER_TASK) {
+                ImmutableSet.Builder<ScheduledSplit> splits = ImmutableSet.builder();
+                for (int i = 0; i < splitsPerUpdate && sequenceId < SPLITS_PER_TASK; i++) {
+                    splits.add(new ScheduledSplit(sequenceId++, TABLE_SCAN_NODE_ID, new Split(new CatalogName("test"), TestingSplit.createRemoteSplit(), Lifespan.taskWide())));
+                }
+                Optional<PlanFragment> fragment = sequenceId <= splitsPerUpdate ? Optional.of(PLAN_FRAGMENT) : Optional.empty();
+                updates.add(new TaskUpdateRequest(
+                        TEST_SESSION.toSessionRepresentation(),
+                        ImmutableMap.of(),
+                        fragment,
+                        ImmutableList.of(new TaskSource(TABLE_SCAN_NODE_ID, splits.build(), sequenceId == SPLITS_PER_TASK)),
+                        createInitialEmptyOutputBuffers(BROADCAST),
+                        OptionalInt.empty(),
+                        ImmutableMap.of()));
+            }
+            this.updates = updates.build();
+
+            TaskInfo initialTask = TaskInfo.createInitialTask(
+                    new TaskId("query", 1, 2),
+                    URI.create("http://localhost:8080/v1/task/query.1.2"),
+                    "node",
+                    ImmutableList.of(),
+                    new TaskStats(DateTime.now(), null));
+            taskInfo = taskInfoCodec.toBytes(initialTask);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SPLITS_PER_TASK)
+    public long scheduleSplits(BenchmarkData data)
+    {
+        long size = 0;
+        for (TaskUpdateRequest update : data.updates) {
+            size += data.taskUpdateRequestCodec.toBytes(update).length;
+            size += data.taskInfoCodec.fromBytes(data.taskInfoCodec.getMediaType(), data.taskInfo).getTaskStatus().getVersion();
+        }
+        return size;
+    }
+
+    @Test
+    public void testBenchmark()
+    {
+        for (boolean binaryTransport : new boolean[] {false, true}) {
+            BenchmarkData data = new BenchmarkData();
+            data.binaryTransport = binaryTransport;
+            data.setup();
+            scheduleSplits(data);
+
+            TaskUpdateRequest update = data.updates.get(0);
+            RemoteTaskCodec<TaskUpdateRequest> codec = data.taskUpdateRequestCodec;
+            TaskUpdateRequest decoded = codec.fromBytes(codec.getMediaType(), codec.toBytes(update));
+            assertEquals(decoded.getFragment().map(PlanFragment::getId), update.getFragment().map(PlanFragment::getId));
+            assertEquals(decoded.getSources().get(0).getSplits(), update.getSources().get(0).getSplits());
+            assertEquals(data.updates.stream().filter(request -> request.getFragment().isPresent()).count(), 1);
+        }
+    }
+
+    public static void main(String[] args)
+            throws RunnerException
+    {
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkRemoteTaskCodec.class.getSimpleName() + ".*")
+                .build();
+
+        new Runner(options).run();
+    }
+}
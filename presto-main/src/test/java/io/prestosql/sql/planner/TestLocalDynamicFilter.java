@@ -30,7 +30,6 @@ import org.testng.annotations.Test;
 
 import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 import java.util.function.Consumer;
 
@@ -211,6 +210,7 @@ public class TestLocalDynamicFilter
 
     @Test
     public void testCreateDistributedJoin()
+            throws ExecutionException, InterruptedException
     {
         Session session = Session.builder(getQueryRunner().getDefaultSession())
                 .setSystemProperty(JOIN_DISTRIBUTION_TYPE, "PARTITIONED")
@@ -223,7 +223,17 @@ public class TestLocalDynamicFilter
                 session);
         JoinNode joinNode = searchJoins(subplan.getChildren().get(0).getFragment()).findOnlyElement();
         assertEquals(joinNode.getDynamicFilters().isEmpty(), false);
-        assertEquals(LocalDynamicFilter.create(METADATA, joinNode, 1), Optional.empty());
+
+        // probe side is scanned by another stage, so the filter is only collected for the coordinator
+        LocalDynamicFilter filter = LocalDynamicFilter.create(METADATA, joinNode, 1).get();
+        String filterId = Iterables.getOnlyElement(filter.getBuildChannels().keySet());
+        assertEquals(filterId, Iterables.getOnlyElement(joinNode.getDynamicFilters().keySet()));
+
+        filter.getTupleDomainConsumer().accept(TupleDomain.withColumnDomains(ImmutableMap.of(
+                filterId, Domain.singleValue(BIGINT, 3L))));
+        assertEquals(filter.getDynamicFilterFuture().get(), TupleDomain.withColumnDomains(ImmutableMap.of(
+                filterId, Domain.singleValue(BIGINT, 3L))));
+        assertEquals(filter.getResultFuture().get(), TupleDomain.all());
     }
 
     @Test
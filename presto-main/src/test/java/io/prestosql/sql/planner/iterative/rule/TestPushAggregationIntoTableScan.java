@@ -0,0 +1,181 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.AggregateFunction;
+import io.prestosql.spi.connector.AggregationApplicationResult;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.ProjectionApplicationResult.Assignment;
+import io.prestosql.spi.expression.Variable;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.plan.Assignments;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.tree.ArithmeticUnaryExpression;
+import io.prestosql.sql.tree.FunctionCall;
+import io.prestosql.sql.tree.QualifiedName;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.project;
+import static io.prestosql.sql.planner.plan.AggregationNode.Step.PARTIAL;
+import static io.prestosql.sql.tree.ArithmeticUnaryExpression.Sign.MINUS;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushAggregationIntoTableScan
+        extends BaseRuleTest
+{
+    private static final ColumnHandle GROUPING_COLUMN = new TestingColumnHandle("key");
+    private static final ColumnHandle VALUE_COLUMN = new TestingColumnHandle("value");
+    private static final ColumnHandle FILTERED_COLUMN = new TestingColumnHandle("filtered");
+
+    @Test
+    public void testDoesNotFireWhenConnectorDeclines()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(false)))
+                .on(p -> {
+                    Symbol key = p.symbol("key", BIGINT);
+                    Symbol value = p.symbol("value", BIGINT);
+                    return p.aggregation(a -> a
+                            .singleGroupingSet(key)
+                            .addAggregation(p.symbol("sum", BIGINT), functionCall("sum", value), ImmutableList.of(BIGINT))
+                            .source(p.tableScan(ImmutableList.of(key, value), ImmutableMap.of(key, GROUPING_COLUMN, value, VALUE_COLUMN))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireOnPartialAggregation()
+    {
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol key = p.symbol("key", BIGINT);
+                    Symbol value = p.symbol("value", BIGINT);
+                    return p.aggregation(a -> a
+                            .singleGroupingSet(key)
+                            .step(PARTIAL)
+                            .addAggregation(p.symbol("sum", BIGINT), functionCall("sum", value), ImmutableList.of(BIGINT))
+                            .source(p.tableScan(ImmutableList.of(key, value), ImmutableMap.of(key, GROUPING_COLUMN, value, VALUE_COLUMN))));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void test()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushAggregationIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol key = p.symbol("key", BIGINT);
+                    Symbol value = p.symbol("value", BIGINT);
+                    return p.aggregation(a -> a
+                            .singleGroupingSet(key)
+                            .addAggregation(p.symbol("sum", BIGINT), functionCall("sum", value), ImmutableList.of(BIGINT))
+                            .source(p.tableScan(ImmutableList.of(key, value), ImmutableMap.of(key, GROUPING_COLUMN, value, VALUE_COLUMN))));
+                })
+                .matches(project(node(TableScanNode.class)));
+
+        assertEquals(metadata.aggregates.toString(), "[sum(value::bigint)]");
+        assertEquals(metadata.groupingSets, ImmutableList.of(ImmutableList.of(GROUPING_COLUMN)));
+    }
+
+    @Test
+    public void testPrunedTableScan()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushAggregationIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol key = p.symbol("key", BIGINT);
+                    Symbol value = p.symbol("value", BIGINT);
+                    Symbol filtered = p.symbol("filtered", BIGINT);
+                    return p.aggregation(a -> a
+                            .singleGroupingSet(key)
+                            .addAggregation(p.symbol("sum", BIGINT), functionCall("sum", value), ImmutableList.of(BIGINT))
+                            .source(p.project(
+                                    Assignments.identity(key, value),
+                                    p.tableScan(ImmutableList.of(key, value, filtered), ImmutableMap.of(key, GROUPING_COLUMN, value, VALUE_COLUMN, filtered, FILTERED_COLUMN)))));
+                })
+                .matches(project(node(TableScanNode.class)));
+
+        assertEquals(metadata.aggregates.toString(), "[sum(value::bigint)]");
+        assertEquals(metadata.groupingSets, ImmutableList.of(ImmutableList.of(GROUPING_COLUMN)));
+
+        // the aggregation is not pushed through projections computing expressions
+        tester().assertThat(new PushAggregationIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol key = p.symbol("key", BIGINT);
+                    Symbol value = p.symbol("value", BIGINT);
+                    Symbol negated = p.symbol("negated", BIGINT);
+                    return p.aggregation(a -> a
+                            .singleGroupingSet(key)
+                            .addAggregation(p.symbol("sum", BIGINT), functionCall("sum", negated), ImmutableList.of(BIGINT))
+                            .source(p.project(
+                                    Assignments.builder()
+                                            .putIdentity(key)
+                                            .put(negated, new ArithmeticUnaryExpression(MINUS, value.toSymbolReference()))
+                                            .build(),
+                                    p.tableScan(ImmutableList.of(key, value), ImmutableMap.of(key, GROUPING_COLUMN, value, VALUE_COLUMN)))));
+                })
+                .doesNotFire();
+    }
+
+    private static FunctionCall functionCall(String name, Symbol argument)
+    {
+        return new FunctionCall(QualifiedName.of(name), ImmutableList.of(argument.toSymbolReference()));
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean aggregationPushdown;
+        private List<AggregateFunction> aggregates;
+        private List<List<ColumnHandle>> groupingSets;
+
+        public TestMetadata(boolean aggregationPushdown)
+        {
+            this.aggregationPushdown = aggregationPushdown;
+        }
+
+        @Override
+        public Optional<AggregationApplicationResult<TableHandle>> applyAggregation(
+                Session session,
+                TableHandle table,
+                List<AggregateFunction> aggregates,
+                Map<String, ColumnHandle> assignments,
+                List<List<ColumnHandle>> groupingSets)
+        {
+            if (!aggregationPushdown) {
+                return Optional.empty();
+            }
+            this.aggregates = aggregates;
+            this.groupingSets = groupingSets;
+            return Optional.of(new AggregationApplicationResult<>(
+                    table,
+                    ImmutableList.of(new Variable("_pushdown_0", BIGINT)),
+                    ImmutableList.of(new Assignment("_pushdown_0", new TestingColumnHandle("sum"), BIGINT)),
+                    ImmutableMap.of(GROUPING_COLUMN, GROUPING_COLUMN)));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.JoinApplicationResult;
+import io.prestosql.spi.connector.JoinCondition;
+import io.prestosql.spi.connector.JoinStatistics;
+import io.prestosql.spi.connector.JoinType;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.plan.JoinNode.EquiJoinClause;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static io.prestosql.sql.planner.iterative.rule.test.PlanBuilder.expression;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.INNER;
+import static io.prestosql.sql.planner.plan.JoinNode.Type.LEFT;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushJoinIntoTableScan
+        extends BaseRuleTest
+{
+    private static final ColumnHandle LEFT_COLUMN = new TestingColumnHandle("left_key");
+    private static final ColumnHandle RIGHT_COLUMN = new TestingColumnHandle("right_key");
+    private static final ColumnHandle JOINED_LEFT_COLUMN = new TestingColumnHandle("joined_left_key");
+    private static final ColumnHandle JOINED_RIGHT_COLUMN = new TestingColumnHandle("joined_right_key");
+
+    @Test
+    public void testDoesNotFireWhenConnectorDeclines()
+    {
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(false)))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key", BIGINT);
+                    Symbol rightKey = p.symbol("right_key", BIGINT);
+                    return p.join(
+                            INNER,
+                            p.tableScan(ImmutableList.of(leftKey), ImmutableMap.of(leftKey, LEFT_COLUMN)),
+                            p.tableScan(ImmutableList.of(rightKey), ImmutableMap.of(rightKey, RIGHT_COLUMN)),
+                            new EquiJoinClause(leftKey, rightKey));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testDoesNotFireWithFilter()
+    {
+        tester().assertThat(new PushJoinIntoTableScan(new TestMetadata(true)))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key", BIGINT);
+                    Symbol rightKey = p.symbol("right_key", BIGINT);
+                    return p.join(
+                            INNER,
+                            p.tableScan(ImmutableList.of(leftKey), ImmutableMap.of(leftKey, LEFT_COLUMN)),
+                            p.tableScan(ImmutableList.of(rightKey), ImmutableMap.of(rightKey, RIGHT_COLUMN)),
+                            expression("left_key > right_key"),
+                            new EquiJoinClause(leftKey, rightKey));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void test()
+    {
+        TestMetadata metadata = new TestMetadata(true);
+        tester().assertThat(new PushJoinIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol leftKey = p.symbol("left_key", BIGINT);
+                    Symbol rightKey = p.symbol("right_key", BIGINT);
+                    return p.join(
+                            LEFT,
+                            p.tableScan(ImmutableList.of(leftKey), ImmutableMap.of(leftKey, LEFT_COLUMN)),
+                            p.tableScan(ImmutableList.of(rightKey), ImmutableMap.of(rightKey, RIGHT_COLUMN)),
+                            new EquiJoinClause(leftKey, rightKey));
+                })
+                .matches(node(TableScanNode.class));
+
+        assertEquals(metadata.joinType, JoinType.LEFT_OUTER);
+        assertEquals(metadata.joinConditions.toString(), "[left_key::bigint = right_key::bigint]");
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final boolean joinPushdown;
+        private JoinType joinType;
+        private List<JoinCondition> joinConditions;
+
+        public TestMetadata(boolean joinPushdown)
+        {
+            this.joinPushdown = joinPushdown;
+        }
+
+        @Override
+        public Optional<JoinApplicationResult<TableHandle>> applyJoin(
+                Session session,
+                JoinType joinType,
+                TableHandle left,
+                TableHandle right,
+                List<JoinCondition> joinConditions,
+                Map<String, ColumnHandle> leftAssignments,
+                Map<String, ColumnHandle> rightAssignments,
+                JoinStatistics statistics)
+        {
+            if (!joinPushdown) {
+                return Optional.empty();
+            }
+            this.joinType = joinType;
+            this.joinConditions = joinConditions;
+            return Optional.of(new JoinApplicationResult<>(
+                    left,
+                    ImmutableMap.of(LEFT_COLUMN, JOINED_LEFT_COLUMN),
+                    ImmutableMap.of(RIGHT_COLUMN, JOINED_RIGHT_COLUMN)));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.sql.planner.iterative.rule;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.Session;
+import io.prestosql.metadata.AbstractMockMetadata;
+import io.prestosql.metadata.TableHandle;
+import io.prestosql.spi.connector.ColumnHandle;
+import io.prestosql.spi.connector.SortItem;
+import io.prestosql.spi.connector.TopNApplicationResult;
+import io.prestosql.sql.planner.Symbol;
+import io.prestosql.sql.planner.iterative.rule.test.BaseRuleTest;
+import io.prestosql.sql.planner.plan.TableScanNode;
+import io.prestosql.sql.planner.plan.TopNNode;
+import io.prestosql.testing.TestingMetadata.TestingColumnHandle;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.sql.planner.assertions.PlanMatchPattern.node;
+import static org.testng.Assert.assertEquals;
+
+public class TestPushTopNIntoTableScan
+        extends BaseRuleTest
+{
+    private static final ColumnHandle COLUMN = new TestingColumnHandle("value");
+
+    @Test
+    public void testDoesNotFireWhenConnectorDeclines()
+    {
+        tester().assertThat(new PushTopNIntoTableScan(new TestMetadata(Optional.empty())))
+                .on(p -> {
+                    Symbol value = p.symbol("value", BIGINT);
+                    return p.topN(10, ImmutableList.of(value), p.tableScan(ImmutableList.of(value), ImmutableMap.of(value, COLUMN)));
+                })
+                .doesNotFire();
+    }
+
+    @Test
+    public void testGuaranteedTopN()
+    {
+        TestMetadata metadata = new TestMetadata(Optional.of(true));
+        tester().assertThat(new PushTopNIntoTableScan(metadata))
+                .on(p -> {
+                    Symbol value = p.symbol("value", BIGINT);
+                    return p.topN(10, ImmutableList.of(value), p.tableScan(ImmutableList.of(value), ImmutableMap.of(value, COLUMN)));
+                })
+                .matches(node(TableScanNode.class));
+
+        assertEquals(metadata.topNCount, 10);
+        assertEquals(metadata.sortItems.toString(), "[value ASC_NULLS_FIRST]");
+    }
+
+    @Test
+    public void testNotGuaranteedTopN()
+    {
+        tester().assertThat(new PushTopNIntoTableScan(new TestMetadata(Optional.of(false))))
+                .on(p -> {
+                    Symbol value = p.symbol("value", BIGINT);
+                    return p.topN(10, ImmutableList.of(value), p.tableScan(ImmutableList.of(value), ImmutableMap.of(value, COLUMN)));
+                })
+                .matches(node(TopNNode.class, node(TableScanNode.class)));
+    }
+
+    private static class TestMetadata
+            extends AbstractMockMetadata
+    {
+        private final Optional<Boolean> topNGuaranteed;
+        private long topNCount;
+        private List<SortItem> sortItems;
+
+        public TestMetadata(Optional<Boolean> topNGuaranteed)
+        {
+            this.topNGuaranteed = topNGuaranteed;
+        }
+
+        @Override
+        public Optional<TopNApplicationResult<TableHandle>> applyTopN(
+                Session session,
+                TableHandle table,
+                long topNCount,
+                List<SortItem> sortItems,
+                Map<String, ColumnHandle> assignments)
+        {
+            this.topNCount = topNCount;
+            this.sortItems = sortItems;
+            return topNGuaranteed.map(guaranteed -> new TopNApplicationResult<>(table, guaranteed));
+        }
+    }
+}
@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Set;
 
 import static com.google.common.collect.ImmutableSet.toImmutableSet;
+import static io.prestosql.SystemSessionProperties.DYNAMIC_FILTERING_WAIT_TIMEOUT;
 import static io.prestosql.SystemSessionProperties.ENABLE_DYNAMIC_FILTERING;
 import static io.prestosql.SystemSessionProperties.JOIN_DISTRIBUTION_TYPE;
 import static io.prestosql.testing.assertions.Assert.assertEquals;
@@ -133,6 +134,46 @@ public class TestMemorySmoke
         assertEquals(rowsRead, ImmutableSet.of(6L, buildSideRowsCount));
     }
 
+    @Test
+    public void testJoinDynamicFilteringPartitioned()
+    {
+        final long buildSideRowsCount = 15_000L;
+
+        Session session = Session.builder(getSession())
+                .setSystemProperty(ENABLE_DYNAMIC_FILTERING, "true")
+                .setSystemProperty(JOIN_DISTRIBUTION_TYPE, FeaturesConfig.JoinDistributionType.PARTITIONED.name())
+                .setSystemProperty(DYNAMIC_FILTERING_WAIT_TIMEOUT, "1m")
+                .build();
+        DistributedQueryRunner runner = (DistributedQueryRunner) getQueryRunner();
+
+        // Dynamic filters are collected by the coordinator and sent to the probe-side stage
+        ResultWithQueryId<MaterializedResult> result = runner.executeWithQueryId(session, "SELECT * FROM lineitem JOIN orders " +
+                "ON lineitem.orderkey = orders.orderkey AND orders.comment = 'nstructions sleep furiously among '");
+        assertEquals(result.getResult().getRowCount(), 6);
+
+        // Probe-side is dynamically filtered:
+        QueryStats stats = runner.getCoordinator().getQueryManager().getFullQueryInfo(result.getQueryId()).getQueryStats();
+        Set rowsRead = stats.getOperatorSummaries()
+                .stream()
+                .filter(summary -> summary.getOperatorType().equals("ScanFilterAndProjectOperator"))
+                .map(summary -> summary.getInputPositions())
+                .collect(toImmutableSet());
+        assertEquals(rowsRead, ImmutableSet.of(6L, buildSideRowsCount));
+
+        result = runner.executeWithQueryId(session, "SELECT * FROM lineitem JOIN orders " +
+                "ON lineitem.orderkey = orders.orderkey AND orders.totalprice < 0");
+        assertEquals(result.getResult().getRowCount(), 0);
+
+        // Probe-side is not scanned at all, as no splits are enumerated for an empty dynamic filter:
+        stats = runner.getCoordinator().getQueryManager().getFullQueryInfo(result.getQueryId()).getQueryStats();
+        long totalRowsRead = stats.getOperatorSummaries()
+                .stream()
+                .filter(summary -> summary.getOperatorType().equals("ScanFilterAndProjectOperator"))
+                .mapToLong(summary -> summary.getInputPositions())
+                .sum();
+        assertEquals(totalRowsRead, buildSideRowsCount);
+    }
+
     @Test
     public void testCreateTableWithNoData()
     {
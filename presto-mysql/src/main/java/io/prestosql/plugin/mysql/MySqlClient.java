@@ -28,6 +28,7 @@ import io.prestosql.plugin.jdbc.ColumnMapping;
 import io.prestosql.plugin.jdbc.ConnectionFactory;
 import io.prestosql.plugin.jdbc.JdbcColumnHandle;
 import io.prestosql.plugin.jdbc.JdbcIdentity;
+import io.prestosql.plugin.jdbc.JdbcSortItem;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
 import io.prestosql.plugin.jdbc.JdbcTypeHandle;
 import io.prestosql.plugin.jdbc.StatsCollecting;
@@ -53,6 +54,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.BiFunction;
 
@@ -114,6 +116,13 @@ public class MySqlClient
         }
     }
 
+    @Override
+    protected String bigintCast(String expression)
+    {
+        // MySQL does not accept BIGINT as the target of a CAST
+        return format("CAST(%s AS SIGNED)", expression);
+    }
+
     @Override
     public void abortReadConnection(Connection connection)
             throws SQLException
@@ -271,6 +280,13 @@ public class MySqlClient
         return true;
     }
 
+    @Override
+    public boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder)
+    {
+        // MySQL does not support NULLS FIRST and NULLS LAST in ORDER BY
+        return false;
+    }
+
     private ColumnMapping jsonColumnMapping()
     {
         return ColumnMapping.sliceMapping(
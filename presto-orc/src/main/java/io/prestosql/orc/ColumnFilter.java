@@ -0,0 +1,31 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import io.prestosql.spi.block.Block;
+
+/**
+ * Filter evaluated by the {@link OrcRecordReader} on a column while the rows of a batch are
+ * read, so the other columns are only decoded for the rows that pass all the filters.
+ */
+public interface ColumnFilter
+{
+    /**
+     * Removes the positions whose value does not pass the filter. The value of
+     * {@code positions[i]} is at position {@code i} of the block.
+     *
+     * @return the number of positions retained at the start of the array
+     */
+    int filter(Block block, int[] positions, int positionCount);
+}
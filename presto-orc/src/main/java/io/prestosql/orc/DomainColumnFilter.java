@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Marker;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.SortedRangeSet;
+import io.prestosql.spi.predicate.ValueSet;
+import io.prestosql.spi.type.BigintType;
+import io.prestosql.spi.type.DateType;
+import io.prestosql.spi.type.IntegerType;
+import io.prestosql.spi.type.SmallintType;
+import io.prestosql.spi.type.TinyintType;
+import io.prestosql.spi.type.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.spi.type.TypeUtils.readNativeValue;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Retains the rows whose value is included in a {@link Domain}.
+ */
+public class DomainColumnFilter
+        implements ColumnFilter
+{
+    private final Type type;
+    private final Domain domain;
+    private final boolean nullAllowed;
+    private final ValueSet values;
+
+    // inclusive bounds of the ranges of integral types, which are compared without boxing the values
+    private final long[] lows;
+    private final long[] highs;
+
+    public DomainColumnFilter(Type type, Domain domain)
+    {
+        this.type = requireNonNull(type, "type is null");
+        this.domain = requireNonNull(domain, "domain is null");
+        checkArgument(domain.getType().equals(type), "domain type %s does not match column type %s", domain.getType(), type);
+        this.nullAllowed = domain.isNullAllowed();
+        this.values = domain.getValues();
+
+        if (isIntegralType(type) && values instanceof SortedRangeSet && !values.isAll()) {
+            List<Long> lows = new ArrayList<>();
+            List<Long> highs = new ArrayList<>();
+            for (Range range : ((SortedRangeSet) values).getOrderedRanges()) {
+                Marker low = range.getLow();
+                Marker high = range.getHigh();
+                long lowValue = low.isLowerUnbounded() ? Long.MIN_VALUE : (long) low.getValue();
+                long highValue = high.isUpperUnbounded() ? Long.MAX_VALUE : (long) high.getValue();
+                if (low.getBound() == Marker.Bound.ABOVE) {
+                    if (lowValue == Long.MAX_VALUE) {
+                        continue;
+                    }
+                    lowValue++;
+                }
+                if (high.getBound() == Marker.Bound.BELOW) {
+                    if (highValue == Long.MIN_VALUE) {
+                        continue;
+                    }
+                    highValue--;
+                }
+                if (lowValue <= highValue) {
+                    lows.add(lowValue);
+                    highs.add(highValue);
+                }
+            }
+            this.lows = lows.stream().mapToLong(Long::longValue).toArray();
+            this.highs = highs.stream().mapToLong(Long::longValue).toArray();
+        }
+        else {
+            this.lows = null;
+            this.highs = null;
+        }
+    }
+
+    @Override
+    public int filter(Block block, int[] positions, int positionCount)
+    {
+        if (values.isAll()) {
+            if (nullAllowed || !block.mayHaveNull()) {
+                return positionCount;
+            }
+            int retained = 0;
+            for (int i = 0; i < positionCount; i++) {
+                if (!block.isNull(i)) {
+                    positions[retained++] = positions[i];
+                }
+            }
+            return retained;
+        }
+
+        int retained = 0;
+        for (int i = 0; i < positionCount; i++) {
+            if (block.isNull(i) ? nullAllowed : containsValue(block, i)) {
+                positions[retained++] = positions[i];
+            }
+        }
+        return retained;
+    }
+
+    private boolean containsValue(Block block, int position)
+    {
+        if (lows != null) {
+            long value = type.getLong(block, position);
+            // index of the last range starting at or before the value
+            int index = Arrays.binarySearch(lows, value);
+            if (index < 0) {
+                index = -index - 2;
+                if (index < 0) {
+                    return false;
+                }
+            }
+            return value <= highs[index];
+        }
+        return values.containsValue(readNativeValue(type, block, position));
+    }
+
+    private static boolean isIntegralType(Type type)
+    {
+        return type instanceof BigintType ||
+                type instanceof IntegerType ||
+                type instanceof SmallintType ||
+                type instanceof TinyintType ||
+                type instanceof DateType;
+    }
+
+    @Override
+    public String toString()
+    {
+        return toStringHelper(this)
+                .add("type", type)
+                .add("domain", domain)
+                .toString();
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.orc.metadata.CompressionKind;
+import io.prestosql.orc.metadata.Footer;
+import io.prestosql.orc.metadata.Metadata;
+import io.prestosql.orc.metadata.PostScript.HiveWriterVersion;
+import org.openjdk.jol.info.ClassLayout;
+
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The parsed tail of an ORC file: the contents of the post script, the footer and the metadata.
+ */
+public class OrcFileTail
+{
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(OrcFileTail.class).instanceSize();
+
+    private final List<Integer> version;
+    private final CompressionKind compressionKind;
+    private final int bufferSize;
+    private final HiveWriterVersion hiveWriterVersion;
+    private final Footer footer;
+    private final Metadata metadata;
+    private final int tailSize;
+
+    public OrcFileTail(
+            List<Integer> version,
+            CompressionKind compressionKind,
+            int bufferSize,
+            HiveWriterVersion hiveWriterVersion,
+            Footer footer,
+            Metadata metadata,
+            int tailSize)
+    {
+        this.version = ImmutableList.copyOf(requireNonNull(version, "version is null"));
+        this.compressionKind = requireNonNull(compressionKind, "compressionKind is null");
+        this.bufferSize = bufferSize;
+        this.hiveWriterVersion = requireNonNull(hiveWriterVersion, "hiveWriterVersion is null");
+        this.footer = requireNonNull(footer, "footer is null");
+        this.metadata = requireNonNull(metadata, "metadata is null");
+        this.tailSize = tailSize;
+    }
+
+    public List<Integer> getVersion()
+    {
+        return version;
+    }
+
+    public CompressionKind getCompressionKind()
+    {
+        return compressionKind;
+    }
+
+    public int getBufferSize()
+    {
+        return bufferSize;
+    }
+
+    public HiveWriterVersion getHiveWriterVersion()
+    {
+        return hiveWriterVersion;
+    }
+
+    public Footer getFooter()
+    {
+        return footer;
+    }
+
+    public Metadata getMetadata()
+    {
+        return metadata;
+    }
+
+    /**
+     * Returns the size of the tail in the file, before decompression.
+     */
+    public int getTailSize()
+    {
+        return tailSize;
+    }
+
+    /**
+     * Returns the estimated heap size of the decoded tail.
+     */
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE + footer.getRetainedSizeInBytes() + metadata.getRetainedSizeInBytes();
+    }
+}
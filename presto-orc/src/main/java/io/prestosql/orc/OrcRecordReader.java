@@ -42,6 +42,8 @@ import io.prestosql.spi.type.Type;
 import org.joda.time.DateTimeZone;
 import org.openjdk.jol.info.ClassLayout;
 
+import javax.annotation.Nullable;
+
 import java.io.Closeable;
 import java.io.IOException;
 import java.time.ZoneId;
@@ -77,6 +79,9 @@ public class OrcRecordReader
     private final OrcDataSource orcDataSource;
 
     private final ColumnReader[] columnReaders;
+    // filters evaluated in order before the other columns are read, keyed by the index of the read column
+    private final Map<Integer, ColumnFilter> columnFilters;
+    private int[] selectedPositions = new int[0];
     private final long[] currentBytesPerCell;
     private final long[] maxBytesPerCell;
     private long maxCombinedBytesPerRow;
@@ -119,6 +124,7 @@ public class OrcRecordReader
     public OrcRecordReader(
             List<OrcColumn> readColumns,
             List<Type> readTypes,
+            Map<Integer, ColumnFilter> columnFilters,
             OrcPredicate predicate,
             long numberOfRows,
             List<StripeInformation> fileStripes,
@@ -134,6 +140,7 @@ public class OrcRecordReader
             HiveWriterVersion hiveWriterVersion,
             MetadataReader metadataReader,
             OrcReaderOptions options,
+            OrcMetadataCache metadataCache,
             Map<String, Slice> userMetadata,
             AggregatedMemoryContext systemMemoryUsage,
             Optional<OrcWriteValidation> writeValidation,
@@ -145,6 +152,9 @@ public class OrcRecordReader
         checkArgument(readColumns.stream().distinct().count() == readColumns.size(), "readColumns contains duplicate entries");
         requireNonNull(readTypes, "readTypes is null");
         checkArgument(readColumns.size() == readTypes.size(), "readColumns and readTypes must have the same size");
+        requireNonNull(columnFilters, "columnFilters is null");
+        checkArgument(columnFilters.keySet().stream().allMatch(index -> index >= 0 && index < readColumns.size()), "columnFilters contains an invalid column index");
+        checkArgument(columnFilters.isEmpty() || !writeValidation.isPresent(), "columnFilters can not be used with write validation");
         requireNonNull(predicate, "predicate is null");
         requireNonNull(fileStripes, "fileStripes is null");
         requireNonNull(stripeStats, "stripeStats is null");
@@ -231,9 +241,11 @@ public class OrcRecordReader
                 predicate,
                 hiveWriterVersion,
                 metadataReader,
+                metadataCache,
                 writeValidation);
 
         columnReaders = createColumnReaders(readColumns, readTypes, streamReadersSystemMemoryContext, blockFactory);
+        this.columnFilters = ImmutableMap.copyOf(columnFilters);
         currentBytesPerCell = new long[columnReaders.length];
         maxBytesPerCell = new long[columnReaders.length];
         nextBatchSize = initialBatchSize;
@@ -353,8 +365,36 @@ public class OrcRecordReader
         }
     }
 
+    /**
+     * Returns the next page, or null when all rows have been read. When column filters are set,
+     * the page only contains the rows of the batch that pass all of them, and batches where no
+     * row passes are skipped.
+     */
     public Page nextPage()
             throws IOException
+    {
+        while (advanceToNextBatch()) {
+            blockFactory.nextPage();
+            Arrays.fill(currentBytesPerCell, 0);
+            if (columnFilters.isEmpty()) {
+                // create a lazy page
+                Block[] blocks = new Block[columnReaders.length];
+                for (int columnIndex = 0; columnIndex < columnReaders.length; columnIndex++) {
+                    blocks[columnIndex] = createLazyBlock(columnIndex, null, currentBatchSize);
+                }
+                return new Page(currentBatchSize, blocks);
+            }
+
+            Page page = readFilteredPage();
+            if (page != null) {
+                return page;
+            }
+        }
+        return null;
+    }
+
+    private boolean advanceToNextBatch()
+            throws IOException
     {
         // update position for current row group (advancing resets them)
         filePosition += currentBatchSize;
@@ -367,7 +407,7 @@ public class OrcRecordReader
             if (!advanceToNextRowGroup()) {
                 filePosition = fileRowCount;
                 currentPosition = totalRowCount;
-                return null;
+                return false;
             }
         }
 
@@ -392,20 +432,90 @@ public class OrcRecordReader
         nextRowInGroup += currentBatchSize;
 
         validateWritePageChecksum();
+        return true;
+    }
 
-        // create a lazy page
-        blockFactory.nextPage();
-        Arrays.fill(currentBytesPerCell, 0);
+    private Page readFilteredPage()
+            throws IOException
+    {
+        if (selectedPositions.length < currentBatchSize) {
+            selectedPositions = new int[currentBatchSize];
+        }
+        for (int position = 0; position < currentBatchSize; position++) {
+            selectedPositions[position] = position;
+        }
+        int positionCount = currentBatchSize;
+
+        // read the filter columns first, each one only for the rows that passed the previous filters
+        Block[] filterBlocks = new Block[columnReaders.length];
+        int[][] filterBlockPositions = new int[columnReaders.length][];
+        for (Map.Entry<Integer, ColumnFilter> entry : columnFilters.entrySet()) {
+            int columnIndex = entry.getKey();
+            Block block;
+            if (positionCount == currentBatchSize) {
+                block = columnReaders[columnIndex].readBlock();
+            }
+            else {
+                int[] positions = Arrays.copyOf(selectedPositions, positionCount);
+                block = columnReaders[columnIndex].readBlock(positions, positionCount);
+                filterBlockPositions[columnIndex] = positions;
+            }
+            filterBlocks[columnIndex] = block;
+            blockLoaded(columnIndex, block);
+
+            positionCount = entry.getValue().filter(block, selectedPositions, positionCount);
+            if (positionCount == 0) {
+                // the unread columns are skipped with the next batch
+                return null;
+            }
+        }
+
+        // the other columns are only read for the rows that passed all filters
+        int[] positions = positionCount == currentBatchSize ? null : Arrays.copyOf(selectedPositions, positionCount);
         Block[] blocks = new Block[columnReaders.length];
-        for (int i = 0; i < columnReaders.length; i++) {
-            int columnIndex = i;
-            blocks[columnIndex] = blockFactory.createBlock(
-                    currentBatchSize,
-                    columnReaders[columnIndex]::readBlock,
-                    false);
-            listenForLoads(blocks[columnIndex], block -> blockLoaded(columnIndex, block));
+        for (int columnIndex = 0; columnIndex < columnReaders.length; columnIndex++) {
+            Block block = filterBlocks[columnIndex];
+            if (block == null) {
+                blocks[columnIndex] = createLazyBlock(columnIndex, positions, positionCount);
+            }
+            else if (block.getPositionCount() == positionCount) {
+                blocks[columnIndex] = block;
+            }
+            else {
+                // drop the rows removed by the filters evaluated after this column was read
+                blocks[columnIndex] = block.getPositions(getRetainedIndexes(filterBlockPositions[columnIndex], positionCount), 0, positionCount);
+            }
         }
-        return new Page(currentBatchSize, blocks);
+        return new Page(positionCount, blocks);
+    }
+
+    private int[] getRetainedIndexes(int[] blockPositions, int positionCount)
+    {
+        int[] indexes = new int[positionCount];
+        int index = 0;
+        for (int i = 0; i < positionCount; i++) {
+            if (blockPositions != null) {
+                while (blockPositions[index] != selectedPositions[i]) {
+                    index++;
+                }
+                indexes[i] = index;
+            }
+            else {
+                indexes[i] = selectedPositions[i];
+            }
+        }
+        return indexes;
+    }
+
+    private Block createLazyBlock(int columnIndex, @Nullable int[] positions, int positionCount)
+    {
+        ColumnReader columnReader = columnReaders[columnIndex];
+        Block lazyBlock = blockFactory.createBlock(
+                positionCount,
+                positions == null ? columnReader::readBlock : () -> columnReader.readBlock(positions, positionCount),
+                false);
+        listenForLoads(lazyBlock, block -> blockLoaded(columnIndex, block));
+        return lazyBlock;
     }
 
     private void blockLoaded(int columnIndex, Block block)
@@ -414,7 +524,7 @@ public class OrcRecordReader
             return;
         }
 
-        currentBytesPerCell[columnIndex] += block.getSizeInBytes() / currentBatchSize;
+        currentBytesPerCell[columnIndex] += block.getSizeInBytes() / block.getPositionCount();
         if (maxBytesPerCell[columnIndex] < currentBytesPerCell[columnIndex]) {
             long delta = currentBytesPerCell[columnIndex] - maxBytesPerCell[columnIndex];
             maxCombinedBytesPerRow += delta;
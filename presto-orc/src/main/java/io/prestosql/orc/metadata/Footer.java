@@ -18,6 +18,7 @@ import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.airlift.slice.Slices;
 import io.prestosql.orc.metadata.statistics.ColumnStatistics;
+import org.openjdk.jol.info.ClassLayout;
 
 import java.util.List;
 import java.util.Map;
@@ -25,10 +26,18 @@ import java.util.Optional;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.collect.Maps.transformValues;
+import static io.airlift.slice.SizeOf.sizeOfByteArray;
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
 import static java.util.Objects.requireNonNull;
 
 public class Footer
 {
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(Footer.class).instanceSize();
+    private static final int STRIPE_INFORMATION_INSTANCE_SIZE = ClassLayout.parseClass(StripeInformation.class).instanceSize();
+    private static final int ORC_TYPE_INSTANCE_SIZE = ClassLayout.parseClass(OrcType.class).instanceSize();
+    private static final int ORC_COLUMN_ID_INSTANCE_SIZE = ClassLayout.parseClass(OrcColumnId.class).instanceSize();
+    private static final int STRING_INSTANCE_SIZE = ClassLayout.parseClass(String.class).instanceSize();
+
     private final long numberOfRows;
     private final int rowsInRowGroup;
     private final List<StripeInformation> stripes;
@@ -83,6 +92,37 @@ public class Footer
         return ImmutableMap.copyOf(transformValues(userMetadata, Slices::copyOf));
     }
 
+    public long getRetainedSizeInBytes()
+    {
+        long size = INSTANCE_SIZE + sizeOfObjectArray(stripes.size()) + (long) stripes.size() * STRIPE_INFORMATION_INSTANCE_SIZE;
+        size += sizeOfObjectArray(types.size()) + types.stream()
+                .mapToLong(Footer::getOrcTypeRetainedSize)
+                .sum();
+        if (fileStats.isPresent()) {
+            size += sizeOfObjectArray(fileStats.get().size()) + fileStats.get().stream()
+                    .mapToLong(ColumnStatistics::getRetainedSizeInBytes)
+                    .sum();
+        }
+        for (Map.Entry<String, Slice> entry : userMetadata.entrySet()) {
+            size += estimatedSizeOf(entry.getKey()) + entry.getValue().getRetainedSize();
+        }
+        return size;
+    }
+
+    private static long getOrcTypeRetainedSize(OrcType type)
+    {
+        long size = ORC_TYPE_INSTANCE_SIZE + 2 * sizeOfObjectArray(type.getFieldCount()) + (long) type.getFieldCount() * ORC_COLUMN_ID_INSTANCE_SIZE;
+        for (String fieldName : type.getFieldNames()) {
+            size += estimatedSizeOf(fieldName);
+        }
+        return size;
+    }
+
+    private static long estimatedSizeOf(String value)
+    {
+        return STRING_INSTANCE_SIZE + sizeOfByteArray(value.length());
+    }
+
     @Override
     public String toString()
     {
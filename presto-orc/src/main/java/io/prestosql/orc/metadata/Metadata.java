@@ -14,12 +14,17 @@
 package io.prestosql.orc.metadata;
 
 import io.prestosql.orc.metadata.statistics.StripeStatistics;
+import org.openjdk.jol.info.ClassLayout;
 
 import java.util.List;
 import java.util.Optional;
 
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
+
 public class Metadata
 {
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(Metadata.class).instanceSize();
+
     private final List<Optional<StripeStatistics>> stripeStatistics;
 
     public Metadata(List<Optional<StripeStatistics>> stripeStatistics)
@@ -31,4 +36,14 @@ public class Metadata
     {
         return stripeStatistics;
     }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE +
+                sizeOfObjectArray(stripeStatistics.size()) +
+                stripeStatistics.stream()
+                        .filter(Optional::isPresent)
+                        .mapToLong(statistics -> statistics.get().getRetainedSizeInBytes())
+                        .sum();
+    }
 }
@@ -14,15 +14,21 @@
 package io.prestosql.orc.metadata;
 
 import com.google.common.collect.ImmutableList;
+import org.openjdk.jol.info.ClassLayout;
 
 import java.time.ZoneId;
 import java.util.List;
 import java.util.Optional;
 
+import static io.airlift.slice.SizeOf.sizeOfObjectArray;
 import static java.util.Objects.requireNonNull;
 
 public class StripeFooter
 {
+    private static final int INSTANCE_SIZE = ClassLayout.parseClass(StripeFooter.class).instanceSize();
+    private static final int STREAM_INSTANCE_SIZE = ClassLayout.parseClass(Stream.class).instanceSize() + ClassLayout.parseClass(OrcColumnId.class).instanceSize();
+    private static final int COLUMN_ENCODING_INSTANCE_SIZE = ClassLayout.parseClass(ColumnEncoding.class).instanceSize();
+
     private final List<Stream> streams;
     private final ColumnMetadata<ColumnEncoding> columnEncodings;
     private final Optional<ZoneId> timeZone;
@@ -48,4 +54,13 @@ public class StripeFooter
     {
         return timeZone;
     }
+
+    public long getRetainedSizeInBytes()
+    {
+        return INSTANCE_SIZE +
+                sizeOfObjectArray(streams.size()) +
+                (long) streams.size() * STREAM_INSTANCE_SIZE +
+                sizeOfObjectArray(columnEncodings.size()) +
+                (long) columnEncodings.size() * COLUMN_ENCODING_INSTANCE_SIZE;
+    }
 }
@@ -28,10 +28,23 @@ public class BinaryStatisticsBuilder
     private long nonNullValueCount;
     private long sum;
 
+    private final BloomFilterBuilder bloomFilterBuilder;
+
+    public BinaryStatisticsBuilder()
+    {
+        this(new NoOpBloomFilterBuilder());
+    }
+
+    public BinaryStatisticsBuilder(BloomFilterBuilder bloomFilterBuilder)
+    {
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
+    }
+
     @Override
     public void addValue(Slice value)
     {
         requireNonNull(value, "value is null");
+        bloomFilterBuilder.addString(value);
 
         sum += value.length();
         nonNullValueCount++;
@@ -68,7 +81,7 @@ public class BinaryStatisticsBuilder
                 null,
                 null,
                 binaryStatistics.orElse(null),
-                null);
+                bloomFilterBuilder.buildBloomFilter());
     }
 
     public static Optional<BinaryStatistics> mergeBinaryStatistics(List<ColumnStatistics> stats)
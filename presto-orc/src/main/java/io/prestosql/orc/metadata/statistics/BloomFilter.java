@@ -19,6 +19,8 @@ import io.airlift.slice.Slice;
 import io.airlift.slice.UnsafeSlice;
 import org.openjdk.jol.info.ClassLayout;
 
+import java.util.Arrays;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
@@ -111,13 +113,13 @@ public class BloomFilter
                 (other.getClass() == getClass()) &&
                 (numBits == ((BloomFilter) other).numBits) &&
                 (numHashFunctions == ((BloomFilter) other).numHashFunctions) &&
-                bitSet.equals(((BloomFilter) other).bitSet);
+                Arrays.equals(bitSet.getData(), ((BloomFilter) other).bitSet.getData());
     }
 
     @Override
     public int hashCode()
     {
-        return bitSet.hashCode() + numHashFunctions * 5;
+        return Arrays.hashCode(bitSet.getData()) + numHashFunctions * 5;
     }
 
     public void add(byte[] val)
@@ -132,6 +134,12 @@ public class BloomFilter
         addHash(hash64);
     }
 
+    public void addSlice(Slice val)
+    {
+        long hash64 = (val == null) ? NULL_HASHCODE : OrcMurmur3.hash64(val);
+        addHash(hash64);
+    }
+
     private void addHash(long hash64)
     {
         int hash1 = (int) hash64;
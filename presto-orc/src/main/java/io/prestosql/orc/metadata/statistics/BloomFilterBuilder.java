@@ -0,0 +1,33 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc.metadata.statistics;
+
+import io.airlift.slice.Slice;
+
+public interface BloomFilterBuilder
+{
+    void addString(Slice value);
+
+    void addLong(long value);
+
+    void addDouble(double value);
+
+    void addFloat(float value);
+
+    /**
+     * Returns the bloom filter for the values added to this builder, or null if
+     * bloom filters are not written for the column.
+     */
+    BloomFilter buildBloomFilter();
+}
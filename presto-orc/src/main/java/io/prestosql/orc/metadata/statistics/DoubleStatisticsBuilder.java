@@ -31,6 +31,18 @@ public class DoubleStatisticsBuilder
     private double minimum = Double.POSITIVE_INFINITY;
     private double maximum = Double.NEGATIVE_INFINITY;
 
+    private final BloomFilterBuilder bloomFilterBuilder;
+
+    public DoubleStatisticsBuilder()
+    {
+        this(new NoOpBloomFilterBuilder());
+    }
+
+    public DoubleStatisticsBuilder(BloomFilterBuilder bloomFilterBuilder)
+    {
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
+    }
+
     @Override
     public void addBlock(Type type, Block block)
     {
@@ -51,6 +63,7 @@ public class DoubleStatisticsBuilder
     public void addValue(double value)
     {
         nonNullValueCount++;
+        bloomFilterBuilder.addDouble(value);
         if (Double.isNaN(value)) {
             hasNan = true;
         }
@@ -94,7 +107,7 @@ public class DoubleStatisticsBuilder
                 null,
                 null,
                 null,
-                null);
+                bloomFilterBuilder.buildBloomFilter());
     }
 
     public static Optional<DoubleStatistics> mergeDoubleStatistics(List<ColumnStatistics> stats)
@@ -29,10 +29,23 @@ public class IntegerStatisticsBuilder
     private long sum;
     private boolean overflow;
 
+    private final BloomFilterBuilder bloomFilterBuilder;
+
+    public IntegerStatisticsBuilder()
+    {
+        this(new NoOpBloomFilterBuilder());
+    }
+
+    public IntegerStatisticsBuilder(BloomFilterBuilder bloomFilterBuilder)
+    {
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
+    }
+
     @Override
     public void addValue(long value)
     {
         nonNullValueCount++;
+        bloomFilterBuilder.addLong(value);
 
         minimum = Math.min(value, minimum);
         maximum = Math.max(value, maximum);
@@ -95,7 +108,7 @@ public class IntegerStatisticsBuilder
                 null,
                 null,
                 null,
-                null);
+                bloomFilterBuilder.buildBloomFilter());
     }
 
     public static Optional<IntegerStatistics> mergeIntegerStatistics(List<ColumnStatistics> stats)
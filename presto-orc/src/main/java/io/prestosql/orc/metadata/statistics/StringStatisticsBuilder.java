@@ -36,18 +36,26 @@ public class StringStatisticsBuilder
     private Slice maximum;
     private long sum;
 
+    private final BloomFilterBuilder bloomFilterBuilder;
+
     public StringStatisticsBuilder(int stringStatisticsLimitInBytes)
     {
-        this(stringStatisticsLimitInBytes, 0, null, null, 0);
+        this(stringStatisticsLimitInBytes, new NoOpBloomFilterBuilder());
+    }
+
+    public StringStatisticsBuilder(int stringStatisticsLimitInBytes, BloomFilterBuilder bloomFilterBuilder)
+    {
+        this(stringStatisticsLimitInBytes, 0, null, null, 0, bloomFilterBuilder);
     }
 
-    private StringStatisticsBuilder(int stringStatisticsLimitInBytes, long nonNullValueCount, Slice minimum, Slice maximum, long sum)
+    private StringStatisticsBuilder(int stringStatisticsLimitInBytes, long nonNullValueCount, Slice minimum, Slice maximum, long sum, BloomFilterBuilder bloomFilterBuilder)
     {
         this.stringStatisticsLimitInBytes = stringStatisticsLimitInBytes;
         this.nonNullValueCount = nonNullValueCount;
         this.minimum = minimum;
         this.maximum = maximum;
         this.sum = sum;
+        this.bloomFilterBuilder = requireNonNull(bloomFilterBuilder, "bloomFilterBuilder is null");
     }
 
     public long getNonNullValueCount()
@@ -73,6 +81,7 @@ public class StringStatisticsBuilder
         }
 
         nonNullValueCount++;
+        bloomFilterBuilder.addString(value);
         sum = addExact(sum, value.length());
     }
 
@@ -134,7 +143,7 @@ public class StringStatisticsBuilder
                 null,
                 null,
                 null,
-                null);
+                bloomFilterBuilder.buildBloomFilter());
     }
 
     public static Optional<StringStatistics> mergeStringStatistics(List<ColumnStatistics> stats)
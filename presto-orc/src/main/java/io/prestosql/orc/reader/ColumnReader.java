@@ -26,6 +26,16 @@ public interface ColumnReader
     Block readBlock()
             throws IOException;
 
+    /**
+     * Reads the values at the given positions of the next batch. The positions are relative
+     * to the start of the batch, sorted, and the array is retained by the returned block.
+     */
+    default Block readBlock(int[] positions, int positionCount)
+            throws IOException
+    {
+        return readBlock().getPositions(positions, 0, positionCount);
+    }
+
     void prepareNextRead(int batchSize);
 
     void startStripe(ZoneId timeZone, InputStreamSources dictionaryStreamSources, ColumnMetadata<ColumnEncoding> encoding)
@@ -107,19 +107,7 @@ public class LongColumnReader
             openRowGroup();
         }
 
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the data reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (dataStream == null) {
-                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
-                }
-                dataStream.skip(readOffset);
-            }
-        }
+        skip(readOffset);
 
         Block block;
         if (dataStream == null) {
@@ -152,6 +140,90 @@ public class LongColumnReader
         return block;
     }
 
+    @Override
+    public Block readBlock(int[] positions, int positionCount)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        skip(readOffset);
+
+        if (dataStream == null) {
+            if (presentStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is null but present stream is missing");
+            }
+            presentStream.skip(nextBatchSize);
+            readOffset = 0;
+            nextBatchSize = 0;
+            return RunLengthEncodedBlock.create(type, null, positionCount);
+        }
+
+        // decode only the selected values, the rows in between are skipped
+        long[] values = new long[positionCount];
+        boolean[] isNull = null;
+        int nextPosition = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            skip(position - nextPosition);
+            if (presentStream != null && !presentStream.nextBit()) {
+                if (isNull == null) {
+                    isNull = new boolean[positionCount];
+                }
+                isNull[i] = true;
+            }
+            else {
+                values[i] = dataStream.next();
+            }
+            nextPosition = position + 1;
+        }
+
+        // the rest of the batch is skipped with the next read
+        readOffset = nextBatchSize - nextPosition;
+        nextBatchSize = 0;
+
+        return createBlock(positionCount, Optional.ofNullable(isNull), values);
+    }
+
+    private Block createBlock(int positionCount, Optional<boolean[]> isNull, long[] values)
+    {
+        if (type instanceof BigintType) {
+            return new LongArrayBlock(positionCount, isNull, values);
+        }
+        if (type instanceof IntegerType || type instanceof DateType) {
+            int[] intValues = new int[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                intValues[i] = (int) values[i];
+            }
+            return new IntArrayBlock(positionCount, isNull, intValues);
+        }
+        if (type instanceof SmallintType) {
+            short[] shortValues = new short[positionCount];
+            for (int i = 0; i < positionCount; i++) {
+                shortValues[i] = (short) values[i];
+            }
+            return new ShortArrayBlock(positionCount, isNull, shortValues);
+        }
+        throw new VerifyError("Unsupported type " + type);
+    }
+
+    private void skip(int items)
+            throws IOException
+    {
+        if (items > 0 && presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the data reader
+            items = presentStream.countBitsSet(items);
+        }
+        if (items > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+            }
+            dataStream.skip(items);
+        }
+    }
+
     private Block readNonNullBlock()
             throws IOException
     {
@@ -77,6 +77,13 @@ public class SliceColumnReader
         return currentReader.readBlock();
     }
 
+    @Override
+    public Block readBlock(int[] positions, int positionCount)
+            throws IOException
+    {
+        return currentReader.readBlock(positions, positionCount);
+    }
+
     @Override
     public void prepareNextRead(int batchSize)
     {
@@ -104,32 +104,14 @@ public class SliceDirectColumnReader
             openRowGroup();
         }
 
-        if (readOffset > 0) {
-            if (presentStream != null) {
-                // skip ahead the present bit reader, but count the set bits
-                // and use this as the skip size for the length reader
-                readOffset = presentStream.countBitsSet(readOffset);
-            }
-            if (readOffset > 0) {
-                if (lengthStream == null) {
-                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but length stream is missing");
-                }
-                long dataSkipSize = lengthStream.sum(readOffset);
-                if (dataSkipSize > 0) {
-                    if (dataStream == null) {
-                        throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
-                    }
-                    dataStream.skip(dataSkipSize);
-                }
-            }
-        }
+        skip(readOffset);
 
         if (lengthStream == null) {
             if (presentStream == null) {
                 throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is null but present stream is missing");
             }
             presentStream.skip(nextBatchSize);
-            Block nullValueBlock = readAllNullsBlock();
+            Block nullValueBlock = readAllNullsBlock(nextBatchSize);
             readOffset = 0;
             nextBatchSize = 0;
             return nullValueBlock;
@@ -150,7 +132,7 @@ public class SliceDirectColumnReader
             int nullCount = presentStream.getUnsetBits(nextBatchSize, isNullVector);
             if (nullCount == nextBatchSize) {
                 // all nulls
-                Block nullValueBlock = readAllNullsBlock();
+                Block nullValueBlock = readAllNullsBlock(nextBatchSize);
                 readOffset = 0;
                 nextBatchSize = 0;
                 return nullValueBlock;
@@ -230,9 +212,134 @@ public class SliceDirectColumnReader
         return new VariableWidthBlock(currentBatchSize, slice, offsetVector, Optional.ofNullable(isNullVector));
     }
 
-    private RunLengthEncodedBlock readAllNullsBlock()
+    @Override
+    public Block readBlock(int[] positions, int positionCount)
+            throws IOException
+    {
+        if (!rowGroupOpen) {
+            openRowGroup();
+        }
+
+        skip(readOffset);
+
+        int batchSize = nextBatchSize;
+        readOffset = 0;
+        nextBatchSize = 0;
+
+        if (lengthStream == null) {
+            if (presentStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is null but present stream is missing");
+            }
+            presentStream.skip(batchSize);
+            return readAllNullsBlock(positionCount);
+        }
+
+        // the lengths are read for the whole batch, as they are needed to skip the unselected values
+        boolean[] isNullVector = null;
+        int[] lengthVector = new int[batchSize];
+        if (presentStream == null) {
+            lengthStream.next(lengthVector, batchSize);
+        }
+        else {
+            isNullVector = new boolean[batchSize];
+            int nullCount = presentStream.getUnsetBits(batchSize, isNullVector);
+            if (nullCount == batchSize) {
+                return readAllNullsBlock(positionCount);
+            }
+            if (nullCount == 0) {
+                isNullVector = null;
+                lengthStream.next(lengthVector, batchSize);
+            }
+            else {
+                lengthStream.next(lengthVector, batchSize - nullCount);
+                unpackLengthNulls(lengthVector, isNullVector, batchSize - nullCount);
+            }
+        }
+
+        long totalLength = 0;
+        for (int i = 0; i < positionCount; i++) {
+            totalLength += lengthVector[positions[i]];
+        }
+        if (totalLength > ONE_GIGABYTE) {
+            throw new PrestoException(GENERIC_INTERNAL_ERROR,
+                    format("Values in column \"%s\" are too large to process for Presto. %s column values are larger than 1GB [%s]", column.getPath(), positionCount, column.getOrcDataSourceId()));
+        }
+        if (totalLength > 0 && dataStream == null) {
+            throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+        }
+
+        byte[] data = new byte[toIntExact(totalLength)];
+        Slice slice = Slices.wrappedBuffer(data);
+        int[] offsetVector = new int[positionCount + 1];
+        boolean[] selectedIsNullVector = isNullVector == null ? null : new boolean[positionCount];
+
+        // copy only the selected values, the data of the rows in between is skipped
+        int nextPosition = 0;
+        int offset = 0;
+        for (int i = 0; i < positionCount; i++) {
+            int position = positions[i];
+            skipData(lengthVector, nextPosition, position);
+            if (selectedIsNullVector != null) {
+                selectedIsNullVector[i] = isNullVector[position];
+            }
+            int length = lengthVector[position];
+            if (length > 0) {
+                // the last argument is the end offset in the array
+                dataStream.next(data, offset, offset + length);
+                if (maxCodePointCount >= 0) {
+                    length = computeTruncatedLength(slice, offset, length, maxCodePointCount, isCharType);
+                    verify(length >= 0);
+                }
+            }
+            offset += length;
+            offsetVector[i + 1] = offset;
+            nextPosition = position + 1;
+        }
+        skipData(lengthVector, nextPosition, batchSize);
+
+        return new VariableWidthBlock(positionCount, slice, offsetVector, Optional.ofNullable(selectedIsNullVector));
+    }
+
+    private void skip(int items)
+            throws IOException
+    {
+        if (items > 0 && presentStream != null) {
+            // skip ahead the present bit reader, but count the set bits
+            // and use this as the skip size for the length reader
+            items = presentStream.countBitsSet(items);
+        }
+        if (items > 0) {
+            if (lengthStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but length stream is missing");
+            }
+            long dataSkipSize = lengthStream.sum(items);
+            if (dataSkipSize > 0) {
+                if (dataStream == null) {
+                    throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+                }
+                dataStream.skip(dataSkipSize);
+            }
+        }
+    }
+
+    private void skipData(int[] lengthVector, int start, int end)
+            throws IOException
+    {
+        long skipSize = 0;
+        for (int position = start; position < end; position++) {
+            skipSize += lengthVector[position];
+        }
+        if (skipSize > 0) {
+            if (dataStream == null) {
+                throw new OrcCorruptionException(column.getOrcDataSourceId(), "Value is not null but data stream is missing");
+            }
+            dataStream.skip(skipSize);
+        }
+    }
+
+    private static RunLengthEncodedBlock readAllNullsBlock(int positionCount)
     {
-        return new RunLengthEncodedBlock(new VariableWidthBlock(1, EMPTY_SLICE, new int[2], Optional.of(new boolean[] {true})), nextBatchSize);
+        return new RunLengthEncodedBlock(new VariableWidthBlock(1, EMPTY_SLICE, new int[2], Optional.of(new boolean[] {true})), positionCount);
     }
 
     private void openRowGroup()
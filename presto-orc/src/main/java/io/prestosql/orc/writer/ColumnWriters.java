@@ -14,17 +14,33 @@
 package io.prestosql.orc.writer;
 
 import com.google.common.collect.ImmutableList;
+import io.airlift.slice.Slice;
 import io.airlift.units.DataSize;
 import io.prestosql.orc.metadata.ColumnMetadata;
+import io.prestosql.orc.metadata.CompressedMetadataWriter;
 import io.prestosql.orc.metadata.CompressionKind;
 import io.prestosql.orc.metadata.OrcColumnId;
 import io.prestosql.orc.metadata.OrcType;
+import io.prestosql.orc.metadata.Stream;
 import io.prestosql.orc.metadata.statistics.BinaryStatisticsBuilder;
+import io.prestosql.orc.metadata.statistics.BloomFilter;
+import io.prestosql.orc.metadata.statistics.BloomFilterBuilder;
+import io.prestosql.orc.metadata.statistics.ColumnStatistics;
 import io.prestosql.orc.metadata.statistics.DateStatisticsBuilder;
+import io.prestosql.orc.metadata.statistics.DoubleStatisticsBuilder;
 import io.prestosql.orc.metadata.statistics.IntegerStatisticsBuilder;
+import io.prestosql.orc.metadata.statistics.NoOpBloomFilterBuilder;
+import io.prestosql.orc.stream.StreamDataOutput;
 import io.prestosql.spi.type.Type;
 import org.joda.time.DateTimeZone;
 
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.orc.metadata.Stream.StreamKind.BLOOM_FILTER_UTF8;
 import static java.util.Objects.requireNonNull;
 
 public final class ColumnWriters
@@ -38,7 +54,8 @@ public final class ColumnWriters
             CompressionKind compression,
             int bufferSize,
             DateTimeZone hiveStorageTimeZone,
-            DataSize stringStatisticsLimit)
+            DataSize stringStatisticsLimit,
+            Supplier<BloomFilterBuilder> bloomFilterBuilder)
     {
         requireNonNull(type, "type is null");
         OrcType orcType = orcTypes.get(columnId);
@@ -47,21 +64,21 @@ public final class ColumnWriters
                 return new BooleanColumnWriter(columnId, type, compression, bufferSize);
 
             case FLOAT:
-                return new FloatColumnWriter(columnId, type, compression, bufferSize);
+                return new FloatColumnWriter(columnId, type, compression, bufferSize, () -> new DoubleStatisticsBuilder(bloomFilterBuilder.get()));
 
             case DOUBLE:
-                return new DoubleColumnWriter(columnId, type, compression, bufferSize);
+                return new DoubleColumnWriter(columnId, type, compression, bufferSize, () -> new DoubleStatisticsBuilder(bloomFilterBuilder.get()));
 
             case BYTE:
                 return new ByteColumnWriter(columnId, type, compression, bufferSize);
 
             case DATE:
-                return new LongColumnWriter(columnId, type, compression, bufferSize, DateStatisticsBuilder::new);
+                return new LongColumnWriter(columnId, type, compression, bufferSize, () -> new DateStatisticsBuilder(bloomFilterBuilder.get()));
 
             case SHORT:
             case INT:
             case LONG:
-                return new LongColumnWriter(columnId, type, compression, bufferSize, IntegerStatisticsBuilder::new);
+                return new LongColumnWriter(columnId, type, compression, bufferSize, () -> new IntegerStatisticsBuilder(bloomFilterBuilder.get()));
 
             case DECIMAL:
                 return new DecimalColumnWriter(columnId, type, compression, bufferSize);
@@ -70,17 +87,20 @@ public final class ColumnWriters
                 return new TimestampColumnWriter(columnId, type, compression, bufferSize, hiveStorageTimeZone);
 
             case BINARY:
-                return new SliceDirectColumnWriter(columnId, type, compression, bufferSize, BinaryStatisticsBuilder::new);
+                return new SliceDirectColumnWriter(columnId, type, compression, bufferSize, () -> new BinaryStatisticsBuilder(bloomFilterBuilder.get()));
 
             case CHAR:
+                // char bloom filters require padding, which is not supported by the reader
+                return new SliceDictionaryColumnWriter(columnId, type, compression, bufferSize, stringStatisticsLimit, NoOpBloomFilterBuilder::new);
+
             case VARCHAR:
             case STRING:
-                return new SliceDictionaryColumnWriter(columnId, type, compression, bufferSize, stringStatisticsLimit);
+                return new SliceDictionaryColumnWriter(columnId, type, compression, bufferSize, stringStatisticsLimit, bloomFilterBuilder);
 
             case LIST: {
                 OrcColumnId fieldColumnIndex = orcType.getFieldTypeIndex(0);
                 Type fieldType = type.getTypeParameters().get(0);
-                ColumnWriter elementWriter = createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, hiveStorageTimeZone, stringStatisticsLimit);
+                ColumnWriter elementWriter = createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, hiveStorageTimeZone, stringStatisticsLimit, NoOpBloomFilterBuilder::new);
                 return new ListColumnWriter(columnId, compression, bufferSize, elementWriter);
             }
 
@@ -92,7 +112,8 @@ public final class ColumnWriters
                         compression,
                         bufferSize,
                         hiveStorageTimeZone,
-                        stringStatisticsLimit);
+                        stringStatisticsLimit,
+                        NoOpBloomFilterBuilder::new);
                 ColumnWriter valueWriter = createColumnWriter(
                         orcType.getFieldTypeIndex(1),
                         orcTypes,
@@ -100,7 +121,8 @@ public final class ColumnWriters
                         compression,
                         bufferSize,
                         hiveStorageTimeZone,
-                        stringStatisticsLimit);
+                        stringStatisticsLimit,
+                        NoOpBloomFilterBuilder::new);
                 return new MapColumnWriter(columnId, compression, bufferSize, keyWriter, valueWriter);
             }
 
@@ -109,7 +131,7 @@ public final class ColumnWriters
                 for (int fieldId = 0; fieldId < orcType.getFieldCount(); fieldId++) {
                     OrcColumnId fieldColumnIndex = orcType.getFieldTypeIndex(fieldId);
                     Type fieldType = type.getTypeParameters().get(fieldId);
-                    fieldWriters.add(createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, hiveStorageTimeZone, stringStatisticsLimit));
+                    fieldWriters.add(createColumnWriter(fieldColumnIndex, orcTypes, fieldType, compression, bufferSize, hiveStorageTimeZone, stringStatisticsLimit, NoOpBloomFilterBuilder::new));
                 }
                 return new StructColumnWriter(columnId, compression, bufferSize, fieldWriters.build());
             }
@@ -117,4 +139,19 @@ public final class ColumnWriters
 
         throw new IllegalArgumentException("Unsupported type: " + type);
     }
+
+    static Optional<StreamDataOutput> createBloomFilterStream(OrcColumnId columnId, List<ColumnStatistics> rowGroupColumnStatistics, CompressedMetadataWriter metadataWriter)
+            throws IOException
+    {
+        if (rowGroupColumnStatistics.isEmpty() || rowGroupColumnStatistics.stream().anyMatch(statistics -> statistics.getBloomFilter() == null)) {
+            return Optional.empty();
+        }
+
+        List<BloomFilter> bloomFilters = rowGroupColumnStatistics.stream()
+                .map(ColumnStatistics::getBloomFilter)
+                .collect(toImmutableList());
+        Slice slice = metadataWriter.writeBloomFilters(bloomFilters);
+        Stream stream = new Stream(columnId, BLOOM_FILTER_UTF8, slice.length(), false);
+        return Optional.of(new StreamDataOutput(slice, stream));
+    }
 }
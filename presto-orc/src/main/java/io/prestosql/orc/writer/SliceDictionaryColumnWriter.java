@@ -28,6 +28,7 @@ import io.prestosql.orc.metadata.OrcColumnId;
 import io.prestosql.orc.metadata.RowGroupIndex;
 import io.prestosql.orc.metadata.Stream;
 import io.prestosql.orc.metadata.Stream.StreamKind;
+import io.prestosql.orc.metadata.statistics.BloomFilterBuilder;
 import io.prestosql.orc.metadata.statistics.ColumnStatistics;
 import io.prestosql.orc.metadata.statistics.StringStatisticsBuilder;
 import io.prestosql.orc.stream.ByteArrayOutputStream;
@@ -48,6 +49,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkState;
@@ -57,6 +59,7 @@ import static io.prestosql.orc.metadata.ColumnEncoding.ColumnEncodingKind.DICTIO
 import static io.prestosql.orc.metadata.CompressionKind.NONE;
 import static io.prestosql.orc.metadata.Stream.StreamKind.DATA;
 import static io.prestosql.orc.stream.LongOutputStream.createLengthOutputStream;
+import static io.prestosql.orc.writer.ColumnWriters.createBloomFilterStream;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 import static java.util.stream.Collectors.toList;
@@ -72,6 +75,7 @@ public class SliceDictionaryColumnWriter
     private final CompressionKind compression;
     private final int bufferSize;
     private final int stringStatisticsLimitInBytes;
+    private final Supplier<BloomFilterBuilder> bloomFilterBuilderSupplier;
 
     private final LongOutputStream dataStream;
     private final PresentOutputStream presentStream;
@@ -97,13 +101,20 @@ public class SliceDictionaryColumnWriter
     private boolean directEncoded;
     private SliceDirectColumnWriter directColumnWriter;
 
-    public SliceDictionaryColumnWriter(OrcColumnId columnId, Type type, CompressionKind compression, int bufferSize, DataSize stringStatisticsLimit)
+    public SliceDictionaryColumnWriter(
+            OrcColumnId columnId,
+            Type type,
+            CompressionKind compression,
+            int bufferSize,
+            DataSize stringStatisticsLimit,
+            Supplier<BloomFilterBuilder> bloomFilterBuilderSupplier)
     {
         this.columnId = requireNonNull(columnId, "columnId is null");
         this.type = requireNonNull(type, "type is null");
         this.compression = requireNonNull(compression, "compression is null");
         this.bufferSize = bufferSize;
         this.stringStatisticsLimitInBytes = toIntExact(requireNonNull(stringStatisticsLimit, "stringStatisticsLimit is null").toBytes());
+        this.bloomFilterBuilderSupplier = requireNonNull(bloomFilterBuilderSupplier, "bloomFilterBuilderSupplier is null");
         this.dataStream = new LongOutputStreamV2(compression, bufferSize, false, DATA);
         this.presentStream = new PresentOutputStream(compression, bufferSize);
         this.dictionaryDataStream = new ByteArrayOutputStream(compression, bufferSize, StreamKind.DICTIONARY_DATA);
@@ -464,7 +475,14 @@ public class SliceDictionaryColumnWriter
 
         Slice slice = metadataWriter.writeRowIndexes(rowGroupIndexes.build());
         Stream stream = new Stream(columnId, StreamKind.ROW_INDEX, slice.length(), false);
-        return ImmutableList.of(new StreamDataOutput(slice, stream));
+
+        ImmutableList.Builder<StreamDataOutput> indexStreams = ImmutableList.builder();
+        indexStreams.add(new StreamDataOutput(slice, stream));
+        List<ColumnStatistics> rowGroupColumnStatistics = rowGroups.stream()
+                .map(DictionaryRowGroup::getColumnStatistics)
+                .collect(toList());
+        createBloomFilterStream(columnId, rowGroupColumnStatistics, metadataWriter).ifPresent(indexStreams::add);
+        return indexStreams.build();
     }
 
     private static List<Integer> createSliceColumnPositionList(
@@ -552,7 +570,7 @@ public class SliceDictionaryColumnWriter
 
     private StringStatisticsBuilder newStringStatisticsBuilder()
     {
-        return new StringStatisticsBuilder(stringStatisticsLimitInBytes);
+        return new StringStatisticsBuilder(stringStatisticsLimitInBytes, bloomFilterBuilderSupplier.get());
     }
 
     private static class DictionaryRowGroup
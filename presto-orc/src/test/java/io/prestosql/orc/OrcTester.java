@@ -586,6 +586,12 @@ public class OrcTester
 
     public static void writeOrcColumnPresto(File outputFile, CompressionKind compression, Type type, Iterator<?> values, OrcWriterStats stats)
             throws Exception
+    {
+        writeOrcColumnPresto(outputFile, compression, type, values, new OrcWriterOptions(), stats);
+    }
+
+    public static void writeOrcColumnPresto(File outputFile, CompressionKind compression, Type type, Iterator<?> values, OrcWriterOptions options, OrcWriterStats stats)
+            throws Exception
     {
         ImmutableMap.Builder<String, String> metadata = ImmutableMap.builder();
         metadata.put("columns", "test");
@@ -596,7 +602,7 @@ public class OrcTester
                 ImmutableList.of("test"),
                 ImmutableList.of(type),
                 compression,
-                new OrcWriterOptions(),
+                options,
                 false,
                 ImmutableMap.of(),
                 HIVE_STORAGE_TIME_ZONE,
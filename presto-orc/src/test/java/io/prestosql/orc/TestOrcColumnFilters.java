@@ -0,0 +1,267 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.orc;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.ValueSet;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.orc.OrcReader.INITIAL_BATCH_SIZE;
+import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
+import static io.prestosql.orc.OrcTester.READER_OPTIONS;
+import static io.prestosql.orc.OrcWriteValidation.OrcWriteValidationMode.BOTH;
+import static io.prestosql.orc.metadata.CompressionKind.NONE;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestOrcColumnFilters
+{
+    private static final int ROWS = 30_000;
+
+    @Test
+    public void testDomainColumnFilter()
+    {
+        BlockBuilder blockBuilder = BIGINT.createBlockBuilder(null, 6);
+        for (long value = 0; value < 5; value++) {
+            BIGINT.writeLong(blockBuilder, value);
+        }
+        blockBuilder.appendNull();
+        Block block = blockBuilder.build();
+
+        assertFilter(block, Domain.notNull(BIGINT), 0, 1, 2, 3, 4);
+        assertFilter(block, Domain.onlyNull(BIGINT), 5);
+        assertFilter(block, Domain.singleValue(BIGINT, 3L), 3);
+        assertFilter(block, Domain.create(ValueSet.ofRanges(Range.greaterThan(BIGINT, 3L)), true), 4, 5);
+        assertFilter(block, Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 1L), Range.range(BIGINT, 2L, false, 4L, true)), false), 0, 3, 4);
+        assertFilter(block, Domain.create(ValueSet.ofRanges(Range.greaterThan(BIGINT, Long.MAX_VALUE)), false));
+
+        BlockBuilder varcharBuilder = VARCHAR.createBlockBuilder(null, 3);
+        VARCHAR.writeSlice(varcharBuilder, utf8Slice("apple"));
+        varcharBuilder.appendNull();
+        VARCHAR.writeSlice(varcharBuilder, utf8Slice("banana"));
+        assertFilter(varcharBuilder.build(), Domain.create(ValueSet.ofRanges(Range.lessThan(VARCHAR, utf8Slice("b"))), false), 0);
+    }
+
+    @DataProvider
+    public static Object[][] dictionaryMaxMemory()
+    {
+        return new Object[][] {{new DataSize(0, MEGABYTE)}, {new DataSize(16, MEGABYTE)}};
+    }
+
+    @Test(dataProvider = "dictionaryMaxMemory")
+    public void testFilters(DataSize dictionaryMaxMemory)
+            throws IOException
+    {
+        try (TempFile tempFile = new TempFile()) {
+            writeFile(tempFile, dictionaryMaxMemory);
+
+            // range on the first column
+            assertRows(
+                    tempFile,
+                    ImmutableMap.of(0, new DomainColumnFilter(BIGINT, Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 1000L, true, 1100L, false)), false))),
+                    row -> row.id != null && row.id >= 1000 && row.id < 1100);
+
+            // filters on two columns, the second one is only read for the rows passing the first one
+            assertRows(
+                    tempFile,
+                    ImmutableMap.of(
+                            2, new DomainColumnFilter(VARCHAR, Domain.create(ValueSet.ofRanges(Range.greaterThanOrEqual(VARCHAR, utf8Slice("name 29"))), false)),
+                            0, new DomainColumnFilter(BIGINT, Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 29_500L)), true))),
+                    row -> row.name != null && row.name.compareTo("name 29") >= 0 && (row.id == null || row.id < 29_500));
+
+            // sparse matches spread over the file
+            assertRows(
+                    tempFile,
+                    ImmutableMap.of(1, new DomainColumnFilter(INTEGER, Domain.create(ValueSet.of(INTEGER, 10L, 20_002L, 40_000L, 59_998L), false))),
+                    row -> row.value == 10 || row.value == 20_002 || row.value == 40_000 || row.value == 59_998);
+
+            // nulls
+            assertRows(
+                    tempFile,
+                    ImmutableMap.of(0, new DomainColumnFilter(BIGINT, Domain.onlyNull(BIGINT))),
+                    row -> row.id == null);
+
+            // no match
+            try (OrcRecordReader reader = createRecordReader(tempFile, ImmutableMap.of(0, new DomainColumnFilter(BIGINT, Domain.singleValue(BIGINT, (long) ROWS))))) {
+                assertNull(reader.nextPage());
+                assertEquals(reader.getReaderPosition(), ROWS);
+            }
+        }
+    }
+
+    private static void assertFilter(Block block, Domain domain, int... expectedPositions)
+    {
+        int[] positions = new int[block.getPositionCount()];
+        Arrays.setAll(positions, position -> position);
+        int positionCount = new DomainColumnFilter(domain.getType(), domain).filter(block, positions, positions.length);
+        assertEquals(Arrays.copyOf(positions, positionCount), expectedPositions);
+    }
+
+    private static void assertRows(TempFile tempFile, Map<Integer, ColumnFilter> filters, Predicate<Row> expected)
+            throws IOException
+    {
+        List<Row> rows = new ArrayList<>();
+        try (OrcRecordReader reader = createRecordReader(tempFile, filters)) {
+            for (Page page = reader.nextPage(); page != null; page = reader.nextPage()) {
+                assertTrue(page.getPositionCount() > 0);
+                for (int position = 0; position < page.getPositionCount(); position++) {
+                    rows.add(new Row(page, position));
+                }
+            }
+        }
+
+        List<Row> expectedRows = new ArrayList<>();
+        for (int id = 0; id < ROWS; id++) {
+            Row row = new Row(id);
+            if (expected.test(row)) {
+                expectedRows.add(row);
+            }
+        }
+        assertTrue(!expectedRows.isEmpty());
+        assertEquals(rows, expectedRows);
+    }
+
+    private static OrcRecordReader createRecordReader(TempFile tempFile, Map<Integer, ColumnFilter> filters)
+            throws IOException
+    {
+        OrcDataSource orcDataSource = new FileOrcDataSource(tempFile.getFile(), READER_OPTIONS);
+        OrcReader orcReader = new OrcReader(orcDataSource, READER_OPTIONS);
+        return orcReader.createRecordReader(
+                orcReader.getRootColumn().getNestedColumns(),
+                ImmutableList.of(BIGINT, INTEGER, VARCHAR),
+                filters,
+                OrcPredicate.TRUE,
+                0,
+                orcDataSource.getSize(),
+                HIVE_STORAGE_TIME_ZONE,
+                newSimpleAggregatedMemoryContext(),
+                INITIAL_BATCH_SIZE,
+                RuntimeException::new);
+    }
+
+    private static void writeFile(TempFile tempFile, DataSize dictionaryMaxMemory)
+            throws IOException
+    {
+        OrcWriter writer = new OrcWriter(
+                new OutputStreamOrcDataSink(new FileOutputStream(tempFile.getFile())),
+                ImmutableList.of("id", "value", "name"),
+                ImmutableList.of(BIGINT, INTEGER, VARCHAR),
+                NONE,
+                new OrcWriterOptions()
+                        .withRowGroupMaxRowCount(1000)
+                        .withDictionaryMaxMemory(dictionaryMaxMemory),
+                false,
+                ImmutableMap.of(),
+                HIVE_STORAGE_TIME_ZONE,
+                true,
+                BOTH,
+                new OrcWriterStats());
+
+        BlockBuilder ids = BIGINT.createBlockBuilder(null, ROWS);
+        BlockBuilder values = INTEGER.createBlockBuilder(null, ROWS);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, ROWS);
+        for (int id = 0; id < ROWS; id++) {
+            Row row = new Row(id);
+            if (row.id == null) {
+                ids.appendNull();
+            }
+            else {
+                BIGINT.writeLong(ids, row.id);
+            }
+            INTEGER.writeLong(values, row.value);
+            if (row.name == null) {
+                names.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(names, utf8Slice(row.name));
+            }
+        }
+        writer.write(new Page(ids.build(), values.build(), names.build()));
+        writer.close();
+    }
+
+    private static class Row
+    {
+        private final Long id;
+        private final int value;
+        private final String name;
+
+        public Row(int id)
+        {
+            this.id = id % 7 == 3 ? null : (long) id;
+            this.value = id * 2;
+            this.name = id % 11 == 5 ? null : "name " + id;
+        }
+
+        public Row(Page page, int position)
+        {
+            Block ids = page.getBlock(0);
+            Block names = page.getBlock(2);
+            this.id = ids.isNull(position) ? null : BIGINT.getLong(ids, position);
+            this.value = (int) INTEGER.getLong(page.getBlock(1), position);
+            this.name = names.isNull(position) ? null : VARCHAR.getSlice(names, position).toStringUtf8();
+        }
+
+        @Override
+        public boolean equals(Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (obj == null || getClass() != obj.getClass()) {
+                return false;
+            }
+            Row other = (Row) obj;
+            return value == other.value &&
+                    Objects.equals(id, other.id) &&
+                    Objects.equals(name, other.name);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(id, value, name);
+        }
+
+        @Override
+        public String toString()
+        {
+            return id + "/" + value + "/" + name;
+        }
+    }
+}
@@ -14,6 +14,7 @@
 package io.prestosql.orc;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.prestosql.orc.metadata.OrcColumnId;
 import io.prestosql.spi.predicate.Domain;
 import io.prestosql.spi.type.SqlDate;
@@ -23,7 +24,9 @@ import io.prestosql.spi.type.TimeZoneKey;
 import io.prestosql.spi.type.Type;
 import org.testng.annotations.Test;
 
+import java.io.File;
 import java.io.IOException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -37,6 +40,7 @@ import static io.prestosql.orc.OrcTester.Format.ORC_12;
 import static io.prestosql.orc.OrcTester.HIVE_STORAGE_TIME_ZONE;
 import static io.prestosql.orc.OrcTester.READER_OPTIONS;
 import static io.prestosql.orc.OrcTester.writeOrcColumnHive;
+import static io.prestosql.orc.OrcTester.writeOrcColumnPresto;
 import static io.prestosql.orc.metadata.CompressionKind.LZ4;
 import static io.prestosql.spi.type.BigintType.BIGINT;
 import static io.prestosql.spi.type.DateType.DATE;
@@ -82,13 +86,47 @@ public class TestReadBloomFilter
                 utf8Slice("w"));
     }
 
+    @Test
+    public void testPrestoWriter()
+            throws Exception
+    {
+        testPrestoWriterType(SMALLINT, ImmutableList.of(1L, 5000L, 10_000L), 5000L, 7777L);
+        testPrestoWriterType(INTEGER, ImmutableList.of(1L, 500_000L, 1_000_000L), 500_000L, 777_777L);
+        testPrestoWriterType(BIGINT, ImmutableList.of(1L, 500_000L, 1_000_000L), 500_000L, 777_777L);
+
+        testPrestoWriterType(DATE, ImmutableList.of(new SqlDate(1), new SqlDate(5_000), new SqlDate(10_000)), 5_000L, 7_777L);
+
+        testPrestoWriterType(REAL, ImmutableList.of(1.11f, 500_000.56f, 1_000_000.99f), (long) floatToIntBits(500_000.56f), (long) floatToIntBits(777_777.77f));
+        testPrestoWriterType(DOUBLE, ImmutableList.of(1.11, 500_000.55, 1_000_000.99), 500_000.55, 777_777.77);
+
+        testPrestoWriterType(VARCHAR, ImmutableList.of("a", "o", "z"), utf8Slice("o"), utf8Slice("w"));
+        testPrestoWriterType(VARBINARY,
+                ImmutableList.of(new SqlVarbinary("a".getBytes(UTF_8)), new SqlVarbinary("o".getBytes(UTF_8)), new SqlVarbinary("z".getBytes(UTF_8))),
+                utf8Slice("o"),
+                utf8Slice("w"));
+    }
+
     private static <T> void testType(Type type, List<T> uniqueValues, T inBloomFilter, T notInBloomFilter)
             throws Exception
+    {
+        testType(type, uniqueValues, inBloomFilter, notInBloomFilter, (file, values) -> writeOrcColumnHive(file, ORC_12, LZ4, type, values));
+    }
+
+    private static <T> void testPrestoWriterType(Type type, List<T> uniqueValues, T inBloomFilter, T notInBloomFilter)
+            throws Exception
+    {
+        OrcWriterOptions options = new OrcWriterOptions()
+                .withBloomFilterColumns(ImmutableSet.of("test"));
+        testType(type, uniqueValues, inBloomFilter, notInBloomFilter, (file, values) -> writeOrcColumnPresto(file, LZ4, type, values, options, new OrcWriterStats()));
+    }
+
+    private static <T> void testType(Type type, List<T> uniqueValues, T inBloomFilter, T notInBloomFilter, OrcColumnFileWriter writer)
+            throws Exception
     {
         Stream<T> writeValues = newArrayList(limit(cycle(uniqueValues), 30_000)).stream();
 
         try (TempFile tempFile = new TempFile()) {
-            writeOrcColumnHive(tempFile.getFile(), ORC_12, LZ4, type, writeValues.iterator());
+            writer.write(tempFile.getFile(), writeValues.iterator());
 
             // without predicate a normal block will be created
             try (OrcRecordReader recordReader = createCustomOrcRecordReader(tempFile, OrcPredicate.TRUE, type, MAX_BATCH_SIZE)) {
@@ -144,4 +182,10 @@ public class TestReadBloomFilter
                 initialBatchSize,
                 RuntimeException::new);
     }
+
+    private interface OrcColumnFileWriter
+    {
+        void write(File file, Iterator<?> values)
+                throws Exception;
+    }
 }
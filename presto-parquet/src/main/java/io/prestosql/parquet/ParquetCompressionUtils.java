@@ -13,24 +13,32 @@
  */
 package io.prestosql.parquet;
 
+import io.airlift.compress.Compressor;
 import io.airlift.compress.Decompressor;
+import io.airlift.compress.lz4.Lz4Compressor;
 import io.airlift.compress.lz4.Lz4Decompressor;
 import io.airlift.compress.lzo.LzoDecompressor;
+import io.airlift.compress.snappy.SnappyCompressor;
 import io.airlift.compress.snappy.SnappyDecompressor;
+import io.airlift.compress.zstd.ZstdCompressor;
 import io.airlift.compress.zstd.ZstdDecompressor;
 import io.airlift.slice.DynamicSliceOutput;
 import io.airlift.slice.Slice;
+import io.prestosql.spi.PrestoException;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.airlift.slice.SizeOf.SIZE_OF_INT;
 import static io.airlift.slice.SizeOf.SIZE_OF_LONG;
 import static io.airlift.slice.Slices.EMPTY_SLICE;
 import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
 import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 import static sun.misc.Unsafe.ARRAY_BYTE_BASE_OFFSET;
@@ -38,6 +46,8 @@ import static sun.misc.Unsafe.ARRAY_BYTE_BASE_OFFSET;
 public final class ParquetCompressionUtils
 {
     private static final int GZIP_BUFFER_SIZE = 8 * 1024;
+    // same block size as the Hadoop codecs use for the framed formats
+    private static final int FRAMED_BLOCK_SIZE = 256 * 1024;
 
     private ParquetCompressionUtils() {}
 
@@ -68,6 +78,67 @@ public final class ParquetCompressionUtils
         }
     }
 
+    public static Slice compress(CompressionCodecName codec, Slice input)
+            throws IOException
+    {
+        requireNonNull(input, "input is null");
+
+        switch (codec) {
+            case GZIP:
+                return compressGzip(input);
+            case SNAPPY:
+                return compress(new SnappyCompressor(), input);
+            case UNCOMPRESSED:
+                return input;
+            case LZ4:
+                return compressFramed(new Lz4Compressor(), input);
+            case ZSTD:
+                return compress(new ZstdCompressor(), input);
+            default:
+                throw new PrestoException(NOT_SUPPORTED, "Compression codec not supported for writing Parquet: " + codec);
+        }
+    }
+
+    private static Slice compress(Compressor compressor, Slice input)
+    {
+        byte[] output = new byte[compressor.maxCompressedLength(input.length())];
+        int compressedSize = compress(compressor, input, 0, input.length(), output, 0);
+        return wrappedBuffer(output, 0, compressedSize);
+    }
+
+    private static Slice compressGzip(Slice input)
+            throws IOException
+    {
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(input.length());
+        try (OutputStream gzipOutputStream = new GZIPOutputStream(sliceOutput, GZIP_BUFFER_SIZE)) {
+            input.getBytes(0, gzipOutputStream, input.length());
+        }
+        return sliceOutput.slice();
+    }
+
+    private static Slice compressFramed(Compressor compressor, Slice input)
+    {
+        // each block is prefixed with its uncompressed and compressed lengths in big endian
+        int blockCount = Math.max((input.length() + FRAMED_BLOCK_SIZE - 1) / FRAMED_BLOCK_SIZE, 1);
+        DynamicSliceOutput sliceOutput = new DynamicSliceOutput(input.length() + blockCount * 2 * SIZE_OF_INT);
+        byte[] buffer = new byte[compressor.maxCompressedLength(Math.min(input.length(), FRAMED_BLOCK_SIZE))];
+        for (int offset = 0; offset < input.length(); offset += FRAMED_BLOCK_SIZE) {
+            int length = Math.min(input.length() - offset, FRAMED_BLOCK_SIZE);
+            int compressedSize = compress(compressor, input, offset, length, buffer, 0);
+            sliceOutput.writeInt(Integer.reverseBytes(length));
+            sliceOutput.writeInt(Integer.reverseBytes(compressedSize));
+            sliceOutput.writeBytes(buffer, 0, compressedSize);
+        }
+        return sliceOutput.slice();
+    }
+
+    private static int compress(Compressor compressor, Slice input, int inputOffset, int inputLength, byte[] output, int outputOffset)
+    {
+        byte[] byteArray = (byte[]) input.getBase();
+        int byteArrayOffset = inputOffset + toIntExact(input.getAddress() - ARRAY_BYTE_BASE_OFFSET);
+        return compressor.compress(byteArray, byteArrayOffset, inputLength, output, outputOffset, output.length - outputOffset);
+    }
+
     private static Slice decompressSnappy(Slice input, int uncompressedSize)
     {
         byte[] buffer = new byte[uncompressedSize];
@@ -28,6 +28,7 @@ public class ParquetReaderOptions
     private final DataSize maxReadBlockSize;
     private final DataSize maxMergeDistance;
     private final DataSize maxBufferSize;
+    private final boolean useColumnIndex;
 
     public ParquetReaderOptions()
     {
@@ -35,18 +36,21 @@ public class ParquetReaderOptions
         maxReadBlockSize = DEFAULT_MAX_READ_BLOCK_SIZE;
         maxMergeDistance = DEFAULT_MAX_MERGE_DISTANCE;
         maxBufferSize = DEFAULT_MAX_BUFFER_SIZE;
+        useColumnIndex = true;
     }
 
     private ParquetReaderOptions(
             boolean failOnCorruptedStatistics,
             DataSize maxReadBlockSize,
             DataSize maxMergeDistance,
-            DataSize maxBufferSize)
+            DataSize maxBufferSize,
+            boolean useColumnIndex)
     {
         this.failOnCorruptedStatistics = failOnCorruptedStatistics;
         this.maxReadBlockSize = requireNonNull(maxReadBlockSize, "maxMergeDistance is null");
         this.maxMergeDistance = requireNonNull(maxMergeDistance, "maxMergeDistance is null");
         this.maxBufferSize = requireNonNull(maxBufferSize, "maxBufferSize is null");
+        this.useColumnIndex = useColumnIndex;
     }
 
     public boolean isFailOnCorruptedStatistics()
@@ -69,13 +73,19 @@ public class ParquetReaderOptions
         return maxBufferSize;
     }
 
+    public boolean isUseColumnIndex()
+    {
+        return useColumnIndex;
+    }
+
     public ParquetReaderOptions withFailOnCorruptedStatistics(boolean failOnCorruptedStatistics)
     {
         return new ParquetReaderOptions(
                 failOnCorruptedStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                useColumnIndex);
     }
 
     public ParquetReaderOptions withMaxReadBlockSize(DataSize maxReadBlockSize)
@@ -84,7 +94,8 @@ public class ParquetReaderOptions
                 failOnCorruptedStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                useColumnIndex);
     }
 
     public ParquetReaderOptions withMaxMergeDistance(DataSize maxMergeDistance)
@@ -93,7 +104,8 @@ public class ParquetReaderOptions
                 failOnCorruptedStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                useColumnIndex);
     }
 
     public ParquetReaderOptions withMaxBufferSize(DataSize maxBufferSize)
@@ -102,6 +114,17 @@ public class ParquetReaderOptions
                 failOnCorruptedStatistics,
                 maxReadBlockSize,
                 maxMergeDistance,
-                maxBufferSize);
+                maxBufferSize,
+                useColumnIndex);
+    }
+
+    public ParquetReaderOptions withUseColumnIndex(boolean useColumnIndex)
+    {
+        return new ParquetReaderOptions(
+                failOnCorruptedStatistics,
+                maxReadBlockSize,
+                maxMergeDistance,
+                maxBufferSize,
+                useColumnIndex);
     }
 }
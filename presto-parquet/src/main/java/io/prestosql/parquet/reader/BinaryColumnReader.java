@@ -15,10 +15,14 @@ package io.prestosql.parquet.reader;
 
 import io.airlift.slice.Slice;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.dictionary.Dictionary;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.Type;
 import org.apache.parquet.io.api.Binary;
 
+import java.util.Optional;
+
 import static io.airlift.slice.Slices.EMPTY_SLICE;
 import static io.airlift.slice.Slices.wrappedBuffer;
 import static io.prestosql.spi.type.Chars.isCharType;
@@ -38,27 +42,42 @@ public class BinaryColumnReader
     protected void readValue(BlockBuilder blockBuilder, Type type)
     {
         if (definitionLevel == columnDescriptor.getMaxDefinitionLevel()) {
-            Binary binary = valuesReader.readBytes();
-            Slice value;
-            if (binary.length() == 0) {
-                value = EMPTY_SLICE;
-            }
-            else {
-                value = wrappedBuffer(binary.getBytes());
-            }
-            if (isVarcharType(type)) {
-                value = truncateToLength(value, type);
-            }
-            if (isCharType(type)) {
-                value = truncateToLengthAndTrimSpaces(value, type);
-            }
-            type.writeSlice(blockBuilder, value);
+            type.writeSlice(blockBuilder, toSlice(valuesReader.readBytes(), type));
         }
         else if (isValueNull()) {
             blockBuilder.appendNull();
         }
     }
 
+    @Override
+    protected Optional<Block> createDictionaryBlock(Dictionary dictionary, int dictionarySize, Type type)
+    {
+        BlockBuilder blockBuilder = type.createBlockBuilder(null, dictionarySize + 1);
+        for (int id = 0; id < dictionarySize; id++) {
+            type.writeSlice(blockBuilder, toSlice(dictionary.decodeToBinary(id), type));
+        }
+        blockBuilder.appendNull();
+        return Optional.of(blockBuilder.build());
+    }
+
+    private static Slice toSlice(Binary binary, Type type)
+    {
+        Slice value;
+        if (binary.length() == 0) {
+            value = EMPTY_SLICE;
+        }
+        else {
+            value = wrappedBuffer(binary.getBytes());
+        }
+        if (isVarcharType(type)) {
+            value = truncateToLength(value, type);
+        }
+        if (isCharType(type)) {
+            value = truncateToLengthAndTrimSpaces(value, type);
+        }
+        return value;
+    }
+
     @Override
     protected void skipValue()
     {
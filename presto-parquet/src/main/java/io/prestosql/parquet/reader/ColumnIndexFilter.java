@@ -0,0 +1,138 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.prestosql.parquet.DiskRange;
+import io.prestosql.parquet.ParquetCorruptionException;
+import io.prestosql.parquet.ParquetDataSourceId;
+import io.prestosql.parquet.predicate.Predicate;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.Math.toIntExact;
+
+/**
+ * Uses the column indexes of a row group to find the rows that can match a predicate,
+ * and the offset indexes to find the pages that contain these rows.
+ */
+final class ColumnIndexFilter
+{
+    private ColumnIndexFilter() {}
+
+    public static RowRanges getMatchingRows(
+            Predicate predicate,
+            long rowCount,
+            Map<ColumnDescriptor, ColumnIndex> columnIndexes,
+            Map<ColumnDescriptor, OffsetIndex> offsetIndexes,
+            ParquetDataSourceId id,
+            boolean failOnCorruptedStatistics)
+            throws ParquetCorruptionException
+    {
+        RowRanges matchingRows = RowRanges.all(rowCount);
+        for (Map.Entry<ColumnDescriptor, ColumnIndex> entry : columnIndexes.entrySet()) {
+            ColumnDescriptor column = entry.getKey();
+            ColumnIndex columnIndex = entry.getValue();
+            OffsetIndex offsetIndex = offsetIndexes.get(column);
+            if (offsetIndex == null || offsetIndex.getPage_locationsSize() != columnIndex.getNull_pagesSize()) {
+                continue;
+            }
+
+            List<PageLocation> locations = offsetIndex.getPage_locations();
+            RowRanges.Builder columnRows = RowRanges.builder();
+            for (int page = 0; page < locations.size(); page++) {
+                long start = locations.get(page).getFirst_row_index();
+                long end = getPageEnd(locations, page, rowCount);
+                Statistics<?> statistics = getPageStatistics(column, columnIndex, page, end - start);
+                if (predicate.matches(end - start, ImmutableMap.of(column, statistics), id, failOnCorruptedStatistics)) {
+                    columnRows.add(start, end);
+                }
+            }
+            matchingRows = matchingRows.intersect(columnRows.build());
+            if (matchingRows.isEmpty()) {
+                break;
+            }
+        }
+        return matchingRows;
+    }
+
+    public static List<PageLocation> getSelectedPages(OffsetIndex offsetIndex, RowRanges rows, long rowCount)
+    {
+        List<PageLocation> locations = offsetIndex.getPage_locations();
+        ImmutableList.Builder<PageLocation> selectedPages = ImmutableList.builder();
+        for (int page = 0; page < locations.size(); page++) {
+            if (rows.overlaps(locations.get(page).getFirst_row_index(), getPageEnd(locations, page, rowCount))) {
+                selectedPages.add(locations.get(page));
+            }
+        }
+        return selectedPages.build();
+    }
+
+    /**
+     * Returns the range of the column chunk holding the dictionary page, if any, and the selected pages.
+     * The pages that are not selected and precede the first selected page are only read when the
+     * column chunk has a dictionary page.
+     */
+    public static DiskRange getSelectedPagesRange(ColumnChunkMetaData metadata, OffsetIndex offsetIndex, List<PageLocation> selectedPages)
+    {
+        long start = metadata.getStartingPos();
+        if (offsetIndex.getPage_locations().get(0).getOffset() == start) {
+            // no dictionary page
+            start = selectedPages.get(0).getOffset();
+        }
+        PageLocation lastPage = selectedPages.get(selectedPages.size() - 1);
+        return new DiskRange(start, toIntExact(lastPage.getOffset() + lastPage.getCompressed_page_size() - start));
+    }
+
+    private static long getPageEnd(List<PageLocation> locations, int page, long rowCount)
+    {
+        if (page + 1 < locations.size()) {
+            return locations.get(page + 1).getFirst_row_index();
+        }
+        return rowCount;
+    }
+
+    private static Statistics<?> getPageStatistics(ColumnDescriptor column, ColumnIndex columnIndex, int page, long pageRowCount)
+    {
+        Statistics.Builder statistics = Statistics.getBuilderForReading(column.getPrimitiveType());
+        boolean nullPage = columnIndex.getNull_pages().get(page);
+        if (columnIndex.isSetNull_counts()) {
+            statistics.withNumNulls(columnIndex.getNull_counts().get(page));
+        }
+        else if (nullPage) {
+            statistics.withNumNulls(pageRowCount);
+        }
+        if (!nullPage) {
+            statistics.withMin(getBytes(columnIndex.getMin_values().get(page)));
+            statistics.withMax(getBytes(columnIndex.getMax_values().get(page)));
+        }
+        return statistics.build();
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer)
+    {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+}
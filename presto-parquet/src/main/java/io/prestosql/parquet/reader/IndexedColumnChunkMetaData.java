@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import io.prestosql.parquet.DiskRange;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkProperties;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Column chunk metadata with the location of the column index and of the offset index of the
+ * pages of the column chunk, which the metadata classes of the bundled Parquet library do not expose.
+ */
+public class IndexedColumnChunkMetaData
+        extends ColumnChunkMetaData
+{
+    private final ColumnChunkMetaData delegate;
+    private final Optional<DiskRange> columnIndexReference;
+    private final DiskRange offsetIndexReference;
+
+    public IndexedColumnChunkMetaData(ColumnChunkMetaData delegate, Optional<DiskRange> columnIndexReference, DiskRange offsetIndexReference)
+    {
+        super(delegate.getEncodingStats(), ColumnChunkProperties.get(delegate.getPath(), delegate.getPrimitiveType(), delegate.getCodec(), delegate.getEncodings()));
+        this.delegate = delegate;
+        this.columnIndexReference = requireNonNull(columnIndexReference, "columnIndexReference is null");
+        this.offsetIndexReference = requireNonNull(offsetIndexReference, "offsetIndexReference is null");
+    }
+
+    public Optional<DiskRange> getColumnIndexReference()
+    {
+        return columnIndexReference;
+    }
+
+    public DiskRange getOffsetIndexReference()
+    {
+        return offsetIndexReference;
+    }
+
+    @Override
+    public long getFirstDataPageOffset()
+    {
+        return delegate.getFirstDataPageOffset();
+    }
+
+    @Override
+    public long getDictionaryPageOffset()
+    {
+        return delegate.getDictionaryPageOffset();
+    }
+
+    @Override
+    public long getValueCount()
+    {
+        return delegate.getValueCount();
+    }
+
+    @Override
+    public long getTotalUncompressedSize()
+    {
+        return delegate.getTotalUncompressedSize();
+    }
+
+    @Override
+    public long getTotalSize()
+    {
+        return delegate.getTotalSize();
+    }
+
+    @Override
+    public Statistics getStatistics()
+    {
+        return delegate.getStatistics();
+    }
+}
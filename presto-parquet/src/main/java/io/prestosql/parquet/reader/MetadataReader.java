@@ -13,6 +13,7 @@
  */
 package io.prestosql.parquet.reader;
 
+import io.prestosql.parquet.DiskRange;
 import org.apache.hadoop.fs.FSDataInputStream;
 import org.apache.hadoop.fs.FileSystem;
 import org.apache.hadoop.fs.Path;
@@ -144,6 +145,16 @@ public final class MetadataReader
                             metaData.num_values,
                             metaData.total_compressed_size,
                             metaData.total_uncompressed_size);
+                    if (columnChunk.isSetOffset_index_offset() && columnChunk.getOffset_index_length() > 0) {
+                        Optional<DiskRange> columnIndexReference = Optional.empty();
+                        if (columnChunk.isSetColumn_index_offset() && columnChunk.getColumn_index_length() > 0) {
+                            columnIndexReference = Optional.of(new DiskRange(columnChunk.getColumn_index_offset(), columnChunk.getColumn_index_length()));
+                        }
+                        column = new IndexedColumnChunkMetaData(
+                                column,
+                                columnIndexReference,
+                                new DiskRange(columnChunk.getOffset_index_offset(), columnChunk.getOffset_index_length()));
+                    }
                     blockMetaData.addColumn(column);
                 }
                 blockMetaData.setPath(filePath);
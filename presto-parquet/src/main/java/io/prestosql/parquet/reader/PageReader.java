@@ -17,6 +17,7 @@ import io.prestosql.parquet.DataPage;
 import io.prestosql.parquet.DataPageV1;
 import io.prestosql.parquet.DataPageV2;
 import io.prestosql.parquet.DictionaryPage;
+import io.prestosql.parquet.ParquetEncoding;
 import org.apache.parquet.hadoop.metadata.CompressionCodecName;
 
 import java.io.IOException;
@@ -50,6 +51,20 @@ class PageReader
         return valueCount;
     }
 
+    /**
+     * Whether all the remaining data pages are encoded with the dictionary of the column chunk.
+     */
+    public boolean hasOnlyDictionaryEncodedPages()
+    {
+        for (DataPage page : compressedPages) {
+            ParquetEncoding encoding = page instanceof DataPageV1 ? ((DataPageV1) page).getValueEncoding() : ((DataPageV2) page).getDataEncoding();
+            if (!encoding.usesDictionary()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     public DataPage readPage()
     {
         if (compressedPages.isEmpty()) {
@@ -65,7 +80,8 @@ class PageReader
                         dataPageV1.getUncompressedSize(),
                         dataPageV1.getRepetitionLevelEncoding(),
                         dataPageV1.getDefinitionLevelEncoding(),
-                        dataPageV1.getValueEncoding());
+                        dataPageV1.getValueEncoding(),
+                        dataPageV1.getFirstRowIndex());
             }
             else {
                 DataPageV2 dataPageV2 = (DataPageV2) compressedPage;
@@ -85,7 +101,8 @@ class PageReader
                         decompress(codec, dataPageV2.getSlice(), uncompressedSize),
                         dataPageV2.getUncompressedSize(),
                         dataPageV2.getStatistics(),
-                        false);
+                        false,
+                        dataPageV2.getFirstRowIndex());
             }
         }
         catch (IOException e) {
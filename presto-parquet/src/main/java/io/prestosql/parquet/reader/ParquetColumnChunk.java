@@ -25,14 +25,18 @@ import org.apache.parquet.format.DataPageHeader;
 import org.apache.parquet.format.DataPageHeaderV2;
 import org.apache.parquet.format.DictionaryPageHeader;
 import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.format.PageType;
 import org.apache.parquet.format.Util;
 
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 
 import static io.prestosql.parquet.ParquetTypeUtils.getParquetEncoding;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
 public class ParquetColumnChunk
@@ -75,10 +79,10 @@ public class ParquetColumnChunk
                     dictionaryPage = readDictionaryPage(pageHeader, uncompressedPageSize, compressedPageSize);
                     break;
                 case DATA_PAGE:
-                    valueCount += readDataPageV1(pageHeader, uncompressedPageSize, compressedPageSize, pages);
+                    valueCount += readDataPageV1(pageHeader, uncompressedPageSize, compressedPageSize, OptionalLong.empty(), pages);
                     break;
                 case DATA_PAGE_V2:
-                    valueCount += readDataPageV2(pageHeader, uncompressedPageSize, compressedPageSize, pages);
+                    valueCount += readDataPageV2(pageHeader, uncompressedPageSize, compressedPageSize, OptionalLong.empty(), pages);
                     break;
                 default:
                     input.skip(compressedPageSize);
@@ -88,6 +92,43 @@ public class ParquetColumnChunk
         return new PageReader(descriptor.getColumnChunkMetaData().getCodec(), pages, dictionaryPage);
     }
 
+    /**
+     * Reads the data pages at the specified locations, which come from the offset index of the column chunk.
+     * The data of this chunk starts at {@code dataOffset} in the file, and starts with the dictionary page
+     * when there is data before the first of the pages.
+     */
+    public PageReader readPages(List<PageLocation> locations, long dataOffset)
+            throws IOException
+    {
+        List<DataPage> pages = new ArrayList<>();
+        DictionaryPage dictionaryPage = null;
+        if (!locations.isEmpty() && locations.get(0).getOffset() > dataOffset) {
+            PageHeader pageHeader = readPageHeader();
+            if (pageHeader.type != PageType.DICTIONARY_PAGE) {
+                throw new ParquetCorruptionException("%s expected a dictionary page before the data pages, found %s", descriptor.getColumnDescriptor(), pageHeader.type);
+            }
+            dictionaryPage = readDictionaryPage(pageHeader, pageHeader.getUncompressed_page_size(), pageHeader.getCompressed_page_size());
+        }
+        for (PageLocation location : locations) {
+            input.setPosition(toIntExact(location.getOffset() - dataOffset));
+            PageHeader pageHeader = readPageHeader();
+            int uncompressedPageSize = pageHeader.getUncompressed_page_size();
+            int compressedPageSize = pageHeader.getCompressed_page_size();
+            OptionalLong firstRowIndex = OptionalLong.of(location.getFirst_row_index());
+            switch (pageHeader.type) {
+                case DATA_PAGE:
+                    readDataPageV1(pageHeader, uncompressedPageSize, compressedPageSize, firstRowIndex, pages);
+                    break;
+                case DATA_PAGE_V2:
+                    readDataPageV2(pageHeader, uncompressedPageSize, compressedPageSize, firstRowIndex, pages);
+                    break;
+                default:
+                    throw new ParquetCorruptionException("%s offset index points to a page of type %s", descriptor.getColumnDescriptor(), pageHeader.type);
+            }
+        }
+        return new PageReader(descriptor.getColumnChunkMetaData().getCodec(), pages, dictionaryPage);
+    }
+
     private Slice getSlice(int size)
     {
         return input.readSlice(size);
@@ -107,6 +148,7 @@ public class ParquetColumnChunk
             PageHeader pageHeader,
             int uncompressedPageSize,
             int compressedPageSize,
+            OptionalLong firstRowIndex,
             List<DataPage> pages)
     {
         DataPageHeader dataHeaderV1 = pageHeader.getData_page_header();
@@ -116,7 +158,8 @@ public class ParquetColumnChunk
                 uncompressedPageSize,
                 getParquetEncoding(Encoding.valueOf(dataHeaderV1.getRepetition_level_encoding().name())),
                 getParquetEncoding(Encoding.valueOf(dataHeaderV1.getDefinition_level_encoding().name())),
-                getParquetEncoding(Encoding.valueOf(dataHeaderV1.getEncoding().name()))));
+                getParquetEncoding(Encoding.valueOf(dataHeaderV1.getEncoding().name())),
+                firstRowIndex));
         return dataHeaderV1.getNum_values();
     }
 
@@ -124,6 +167,7 @@ public class ParquetColumnChunk
             PageHeader pageHeader,
             int uncompressedPageSize,
             int compressedPageSize,
+            OptionalLong firstRowIndex,
             List<DataPage> pages)
     {
         DataPageHeaderV2 dataHeaderV2 = pageHeader.getData_page_header_v2();
@@ -141,7 +185,8 @@ public class ParquetColumnChunk
                         fileCreatedBy,
                         Optional.ofNullable(dataHeaderV2.getStatistics()),
                         descriptor.getColumnDescriptor().getPrimitiveType()),
-                dataHeaderV2.isIs_compressed()));
+                dataHeaderV2.isIs_compressed(),
+                firstRowIndex));
         return dataHeaderV2.getNum_values();
     }
 }
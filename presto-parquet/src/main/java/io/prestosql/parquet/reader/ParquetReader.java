@@ -13,6 +13,8 @@
  */
 package io.prestosql.parquet.reader;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.airlift.slice.Slice;
 import io.prestosql.memory.context.AggregatedMemoryContext;
 import io.prestosql.parquet.ChunkKey;
@@ -25,6 +27,7 @@ import io.prestosql.parquet.ParquetDataSource;
 import io.prestosql.parquet.ParquetReaderOptions;
 import io.prestosql.parquet.PrimitiveField;
 import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
 import io.prestosql.spi.block.ArrayBlock;
 import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.RowBlock;
@@ -39,6 +42,9 @@ import it.unimi.dsi.fastutil.booleans.BooleanList;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.ints.IntList;
 import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
 import org.apache.parquet.hadoop.metadata.BlockMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
 import org.apache.parquet.hadoop.metadata.ColumnPath;
@@ -51,15 +57,22 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 
 import static com.google.common.base.Preconditions.checkArgument;
 import static io.prestosql.parquet.ParquetValidationUtils.validateParquet;
+import static io.prestosql.parquet.reader.ColumnIndexFilter.getMatchingRows;
+import static io.prestosql.parquet.reader.ColumnIndexFilter.getSelectedPages;
+import static io.prestosql.parquet.reader.ColumnIndexFilter.getSelectedPagesRange;
 import static io.prestosql.parquet.reader.ListColumnReader.calculateCollectionOffsets;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 import static java.lang.Math.toIntExact;
+import static java.util.Collections.nCopies;
 import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.format.Util.readColumnIndex;
+import static org.apache.parquet.format.Util.readOffsetIndex;
 
 public class ParquetReader
         implements Closeable
@@ -70,6 +83,9 @@ public class ParquetReader
 
     private final Optional<String> fileCreatedBy;
     private final List<BlockMetaData> blocks;
+    // rows of each row group that can match the predicate, according to the column indexes
+    private final List<Optional<RowRanges>> blockRowRanges;
+    private final Map<ChunkKey, OffsetIndex> offsetIndexes;
     private final List<PrimitiveColumnIO> columns;
     private final ParquetDataSource dataSource;
     private final AggregatedMemoryContext systemMemoryContext;
@@ -77,6 +93,7 @@ public class ParquetReader
     private int currentRowGroup = -1;
     private BlockMetaData currentBlockMetadata;
     private long currentGroupRowCount;
+    private Optional<RowRanges> currentGroupRowRanges = Optional.empty();
     private long nextRowInGroup;
     private int batchSize;
     private int nextBatchSize = INITIAL_BATCH_SIZE;
@@ -97,6 +114,22 @@ public class ParquetReader
             AggregatedMemoryContext systemMemoryContext,
             ParquetReaderOptions options)
             throws IOException
+    {
+        this(fileCreatedBy, messageColumnIO, blocks, Optional.empty(), dataSource, systemMemoryContext, options);
+    }
+
+    /**
+     * @param parquetPredicate when present, the column indexes of the row groups are used to skip the pages without rows matching the predicate
+     */
+    public ParquetReader(
+            Optional<String> fileCreatedBy,
+            MessageColumnIO messageColumnIO,
+            List<BlockMetaData> blocks,
+            Optional<Predicate> parquetPredicate,
+            ParquetDataSource dataSource,
+            AggregatedMemoryContext systemMemoryContext,
+            ParquetReaderOptions options)
+            throws IOException
     {
         this.fileCreatedBy = requireNonNull(fileCreatedBy, "fileCreatedBy is null");
         this.blocks = blocks;
@@ -108,14 +141,38 @@ public class ParquetReader
         columnReaders = new PrimitiveColumnReader[columns.size()];
         maxBytesPerCell = new long[columns.size()];
 
+        requireNonNull(parquetPredicate, "parquetPredicate is null");
+        // the pages of the columns are skipped in sync by skipping the values of the rows that are not selected,
+        // which requires a value per row
+        boolean filterPages = parquetPredicate.isPresent() &&
+                options.isUseColumnIndex() &&
+                columns.stream().allMatch(column -> column.getColumnDescriptor().getMaxRepetitionLevel() == 0);
+        if (filterPages) {
+            offsetIndexes = readOffsetIndexes();
+            blockRowRanges = getRowRanges(parquetPredicate.get());
+        }
+        else {
+            offsetIndexes = ImmutableMap.of();
+            blockRowRanges = nCopies(blocks.size(), Optional.empty());
+        }
+
         Map<ChunkKey, DiskRange> ranges = new HashMap<>();
         for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
             BlockMetaData metadata = blocks.get(rowGroup);
+            Optional<RowRanges> rowRanges = blockRowRanges.get(rowGroup);
+            if (rowRanges.isPresent() && rowRanges.get().isEmpty()) {
+                continue;
+            }
             for (PrimitiveColumnIO column : columns) {
                 int columnId = column.getId();
+                ChunkKey key = new ChunkKey(columnId, rowGroup);
                 ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(metadata, column.getColumnDescriptor());
                 DiskRange range = new DiskRange(chunkMetadata.getStartingPos(), toIntExact(chunkMetadata.getTotalSize()));
-                ranges.put(new ChunkKey(columnId, rowGroup), range);
+                OffsetIndex offsetIndex = offsetIndexes.get(key);
+                if (rowRanges.isPresent() && offsetIndex != null) {
+                    range = getSelectedPagesRange(chunkMetadata, offsetIndex, getSelectedPages(offsetIndex, rowRanges.get(), metadata.getRowCount()));
+                }
+                ranges.put(key, range);
             }
         }
 
@@ -133,8 +190,10 @@ public class ParquetReader
 
     public int nextBatch()
     {
-        if (nextRowInGroup >= currentGroupRowCount && !advanceToNextRowGroup()) {
-            return -1;
+        while (nextRowInGroup >= currentGroupRowCount) {
+            if (!advanceToNextRowGroup()) {
+                return -1;
+            }
         }
 
         batchSize = toIntExact(min(nextBatchSize, maxBatchSize));
@@ -160,7 +219,8 @@ public class ParquetReader
         currentBlockMetadata = blocks.get(currentRowGroup);
 
         nextRowInGroup = 0L;
-        currentGroupRowCount = currentBlockMetadata.getRowCount();
+        currentGroupRowRanges = blockRowRanges.get(currentRowGroup);
+        currentGroupRowCount = currentGroupRowRanges.map(RowRanges::getRowCount).orElse(currentBlockMetadata.getRowCount());
         initializeColumnReaders();
         return true;
     }
@@ -253,7 +313,15 @@ public class ParquetReader
 
             ColumnChunkDescriptor descriptor = new ColumnChunkDescriptor(columnDescriptor, metadata);
             ParquetColumnChunk columnChunk = new ParquetColumnChunk(fileCreatedBy, descriptor, data);
-            columnReader.setPageReader(columnChunk.readAllPages());
+            OffsetIndex offsetIndex = offsetIndexes.get(new ChunkKey(fieldId, currentRowGroup));
+            if (currentGroupRowRanges.isPresent() && offsetIndex != null) {
+                List<PageLocation> pages = getSelectedPages(offsetIndex, currentGroupRowRanges.get(), currentBlockMetadata.getRowCount());
+                long dataOffset = getSelectedPagesRange(metadata, offsetIndex, pages).getOffset();
+                columnReader.setPageReader(columnChunk.readPages(pages, dataOffset), currentGroupRowRanges);
+            }
+            else {
+                columnReader.setPageReader(columnChunk.readAllPages(), currentGroupRowRanges);
+            }
         }
         ColumnChunk columnChunk = columnReader.readPrimitive(field);
 
@@ -268,6 +336,73 @@ public class ParquetReader
         return columnChunk;
     }
 
+    private Map<ChunkKey, OffsetIndex> readOffsetIndexes()
+            throws IOException
+    {
+        Map<ChunkKey, DiskRange> references = new HashMap<>();
+        for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
+            for (PrimitiveColumnIO column : columns) {
+                ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(blocks.get(rowGroup), column.getColumnDescriptor());
+                if (chunkMetadata instanceof IndexedColumnChunkMetaData) {
+                    references.put(new ChunkKey(column.getId(), rowGroup), ((IndexedColumnChunkMetaData) chunkMetadata).getOffsetIndexReference());
+                }
+            }
+        }
+
+        ImmutableMap.Builder<ChunkKey, OffsetIndex> offsetIndexes = ImmutableMap.builder();
+        for (Entry<ChunkKey, ChunkReader> entry : dataSource.planRead(references).entrySet()) {
+            offsetIndexes.put(entry.getKey(), readOffsetIndex(entry.getValue().read().getInput()));
+            entry.getValue().free();
+        }
+        return offsetIndexes.build();
+    }
+
+    private List<Optional<RowRanges>> getRowRanges(Predicate parquetPredicate)
+            throws IOException
+    {
+        Map<ChunkKey, DiskRange> references = new HashMap<>();
+        for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
+            for (PrimitiveColumnIO column : columns) {
+                ColumnChunkMetaData chunkMetadata = getColumnChunkMetaData(blocks.get(rowGroup), column.getColumnDescriptor());
+                if (chunkMetadata instanceof IndexedColumnChunkMetaData) {
+                    Optional<DiskRange> reference = ((IndexedColumnChunkMetaData) chunkMetadata).getColumnIndexReference();
+                    if (reference.isPresent()) {
+                        references.put(new ChunkKey(column.getId(), rowGroup), reference.get());
+                    }
+                }
+            }
+        }
+        Map<ChunkKey, ChunkReader> columnIndexReaders = dataSource.planRead(references);
+
+        ImmutableList.Builder<Optional<RowRanges>> rowRanges = ImmutableList.builder();
+        for (int rowGroup = 0; rowGroup < blocks.size(); rowGroup++) {
+            Map<ColumnDescriptor, ColumnIndex> columnIndexes = new HashMap<>();
+            Map<ColumnDescriptor, OffsetIndex> columnOffsetIndexes = new HashMap<>();
+            for (PrimitiveColumnIO column : columns) {
+                ChunkKey key = new ChunkKey(column.getId(), rowGroup);
+                ChunkReader columnIndexReader = columnIndexReaders.get(key);
+                if (columnIndexReader == null) {
+                    continue;
+                }
+                if (offsetIndexes.containsKey(key)) {
+                    columnIndexes.put(column.getColumnDescriptor(), readColumnIndex(columnIndexReader.read().getInput()));
+                    columnOffsetIndexes.put(column.getColumnDescriptor(), offsetIndexes.get(key));
+                }
+                columnIndexReader.free();
+            }
+
+            long rowCount = blocks.get(rowGroup).getRowCount();
+            RowRanges matchingRows = getMatchingRows(parquetPredicate, rowCount, columnIndexes, columnOffsetIndexes, dataSource.getId(), options.isFailOnCorruptedStatistics());
+            if (matchingRows.getRowCount() == rowCount) {
+                rowRanges.add(Optional.empty());
+            }
+            else {
+                rowRanges.add(Optional.of(matchingRows));
+            }
+        }
+        return rowRanges.build();
+    }
+
     private ColumnChunkMetaData getColumnChunkMetaData(BlockMetaData blockMetaData, ColumnDescriptor columnDescriptor)
             throws IOException
     {
@@ -24,7 +24,9 @@ import io.prestosql.parquet.ParquetTypeUtils;
 import io.prestosql.parquet.RichColumnDescriptor;
 import io.prestosql.parquet.dictionary.Dictionary;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
 import io.prestosql.spi.type.DecimalType;
 import io.prestosql.spi.type.Type;
 import it.unimi.dsi.fastutil.ints.IntArrayList;
@@ -49,6 +51,7 @@ import static io.prestosql.parquet.ValuesType.DEFINITION_LEVEL;
 import static io.prestosql.parquet.ValuesType.REPETITION_LEVEL;
 import static io.prestosql.parquet.ValuesType.VALUES;
 import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
+import static java.lang.Math.toIntExact;
 import static java.util.Objects.requireNonNull;
 
 public abstract class PrimitiveColumnReader
@@ -66,15 +69,32 @@ public abstract class PrimitiveColumnReader
     private long totalValueCount;
     private PageReader pageReader;
     private Dictionary dictionary;
+    private int dictionarySize;
+    private boolean dictionaryEncoded;
+    // values of the dictionary of the column chunk followed by a null, shared by all the blocks read from the chunk
+    private Optional<Block> dictionaryBlock;
     private int currentValueCount;
     private DataPage page;
     private int remainingValueCountInPage;
     private int readOffset;
+    // rows of the row group to read, or null when all the rows are read
+    private RowRanges rowRanges;
+    // index in the row group of the row of the next value, only tracked for columns without repetition
+    private long currentRow;
 
     protected abstract void readValue(BlockBuilder blockBuilder, Type type);
 
     protected abstract void skipValue();
 
+    /**
+     * Creates a block with the values of the dictionary, followed by a null, for the readers
+     * that produce dictionary blocks when all the pages of a column chunk are dictionary encoded.
+     */
+    protected Optional<Block> createDictionaryBlock(Dictionary dictionary, int dictionarySize, Type type)
+    {
+        return Optional.empty();
+    }
+
     protected boolean isValueNull()
     {
         return ParquetTypeUtils.isValueNull(columnDescriptor.isRequired(), definitionLevel, columnDescriptor.getMaxDefinitionLevel());
@@ -130,13 +150,25 @@ public abstract class PrimitiveColumnReader
     }
 
     public void setPageReader(PageReader pageReader)
+    {
+        setPageReader(pageReader, Optional.empty());
+    }
+
+    /**
+     * @param rowRanges rows of the row group to read, the pages without any of these rows can be omitted from the page reader
+     */
+    public void setPageReader(PageReader pageReader, Optional<RowRanges> rowRanges)
     {
         this.pageReader = requireNonNull(pageReader, "pageReader");
+        requireNonNull(rowRanges, "rowRanges is null");
+        checkArgument(!rowRanges.isPresent() || columnDescriptor.getMaxRepetitionLevel() == 0, "row ranges are not supported for repeated columns");
+        this.rowRanges = rowRanges.orElse(null);
         DictionaryPage dictionaryPage = pageReader.readDictionaryPage();
 
         if (dictionaryPage != null) {
             try {
                 dictionary = dictionaryPage.getEncoding().initDictionary(columnDescriptor, dictionaryPage);
+                dictionarySize = dictionaryPage.getDictionarySize();
             }
             catch (IOException e) {
                 throw new ParquetDecodingException("could not decode the dictionary for " + columnDescriptor, e);
@@ -144,7 +176,10 @@ public abstract class PrimitiveColumnReader
         }
         else {
             dictionary = null;
+            dictionarySize = 0;
         }
+        dictionaryEncoded = dictionary != null && pageReader.hasOnlyDictionaryEncodedPages();
+        dictionaryBlock = null;
         checkArgument(pageReader.getTotalValueCount() > 0, "page is empty");
         totalValueCount = pageReader.getTotalValueCount();
     }
@@ -160,27 +195,71 @@ public abstract class PrimitiveColumnReader
         IntList definitionLevels = new IntArrayList();
         IntList repetitionLevels = new IntArrayList();
         seek();
-        BlockBuilder blockBuilder = field.getType().createBlockBuilder(null, nextBatchSize);
+        Type type = field.getType();
+        Optional<Block> dictionaryBlock = getDictionaryBlock(type);
+        BlockBuilder blockBuilder = null;
+        IntList dictionaryIds = null;
+        Runnable valueReader;
+        if (dictionaryBlock.isPresent()) {
+            // keep the values encoded, the null entry is at the end of the dictionary block
+            IntList ids = new IntArrayList(nextBatchSize);
+            valueReader = () -> readDictionaryId(ids, dictionarySize);
+            dictionaryIds = ids;
+        }
+        else {
+            BlockBuilder builder = type.createBlockBuilder(null, nextBatchSize);
+            valueReader = () -> readValue(builder, type);
+            blockBuilder = builder;
+        }
         int valueCount = 0;
         while (valueCount < nextBatchSize) {
             if (page == null) {
                 readNextPage();
             }
-            int valuesToRead = Math.min(remainingValueCountInPage, nextBatchSize - valueCount);
-            readValues(blockBuilder, valuesToRead, field.getType(), definitionLevels, repetitionLevels);
+            skipUnselectedValues();
+            int valuesToRead = Math.min(getSelectedValueCountInPage(), nextBatchSize - valueCount);
+            readValues(valueReader, valuesToRead, definitionLevels, repetitionLevels);
             valueCount += valuesToRead;
         }
         checkArgument(valueCount == nextBatchSize, "valueCount %s not equals to batchSize %s", valueCount, nextBatchSize);
 
         readOffset = 0;
         nextBatchSize = 0;
-        return new ColumnChunk(blockBuilder.build(), definitionLevels.toIntArray(), repetitionLevels.toIntArray());
+        Block block;
+        if (dictionaryBlock.isPresent()) {
+            block = new DictionaryBlock(dictionaryIds.size(), dictionaryBlock.get(), dictionaryIds.toIntArray());
+        }
+        else {
+            block = blockBuilder.build();
+        }
+        return new ColumnChunk(block, definitionLevels.toIntArray(), repetitionLevels.toIntArray());
     }
 
-    private void readValues(BlockBuilder blockBuilder, int valuesToRead, Type type, IntList definitionLevels, IntList repetitionLevels)
+    private Optional<Block> getDictionaryBlock(Type type)
+    {
+        if (!dictionaryEncoded) {
+            return Optional.empty();
+        }
+        if (dictionaryBlock == null) {
+            dictionaryBlock = createDictionaryBlock(dictionary, dictionarySize, type);
+        }
+        return dictionaryBlock;
+    }
+
+    private void readDictionaryId(IntList dictionaryIds, int nullId)
+    {
+        if (definitionLevel == columnDescriptor.getMaxDefinitionLevel()) {
+            dictionaryIds.add(valuesReader.readValueDictionaryId());
+        }
+        else if (isValueNull()) {
+            dictionaryIds.add(nullId);
+        }
+    }
+
+    private void readValues(Runnable valueReader, int valuesToRead, IntList definitionLevels, IntList repetitionLevels)
     {
         processValues(valuesToRead, ignored -> {
-            readValue(blockBuilder, type);
+            valueReader.run();
             definitionLevels.add(definitionLevel);
             repetitionLevels.add(repetitionLevel);
         });
@@ -228,13 +307,39 @@ public abstract class PrimitiveColumnReader
             if (page == null) {
                 readNextPage();
             }
-            int offset = Math.min(remainingValueCountInPage, readOffset - valuePosition);
+            skipUnselectedValues();
+            int offset = Math.min(getSelectedValueCountInPage(), readOffset - valuePosition);
             skipValues(offset);
             valuePosition = valuePosition + offset;
         }
         checkArgument(valuePosition == readOffset, "valuePosition %s must be equal to readOffset %s", valuePosition, readOffset);
     }
 
+    private void skipUnselectedValues()
+    {
+        if (rowRanges == null) {
+            return;
+        }
+        while (true) {
+            if (page == null) {
+                verify(readNextPage(), "no page left with selected rows");
+            }
+            long unselectedValues = rowRanges.getUnselectedRowCount(currentRow);
+            if (unselectedValues == 0) {
+                return;
+            }
+            skipValues(toIntExact(Math.min(unselectedValues, remainingValueCountInPage)));
+        }
+    }
+
+    private int getSelectedValueCountInPage()
+    {
+        if (rowRanges == null) {
+            return remainingValueCountInPage;
+        }
+        return toIntExact(Math.min(remainingValueCountInPage, rowRanges.getSelectedRowCount(currentRow)));
+    }
+
     private boolean readNextPage()
     {
         verify(page == null, "readNextPage has to be called when page is null");
@@ -244,6 +349,10 @@ public abstract class PrimitiveColumnReader
             return false;
         }
         remainingValueCountInPage = page.getValueCount();
+        if (page.getFirstRowIndex().isPresent()) {
+            // the preceding pages may have been skipped
+            currentRow = page.getFirstRowIndex().getAsLong();
+        }
         if (page instanceof DataPageV1) {
             valuesReader = readPageV1((DataPageV1) page);
         }
@@ -261,6 +370,7 @@ public abstract class PrimitiveColumnReader
         }
         remainingValueCountInPage -= valuesRead;
         currentValueCount += valuesRead;
+        currentRow += valuesRead;
     }
 
     private ValuesReader readPageV1(DataPageV1 page)
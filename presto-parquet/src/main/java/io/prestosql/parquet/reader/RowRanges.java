@@ -0,0 +1,204 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Sorted and disjoint ranges of the rows of a row group. The start of a range is inclusive,
+ * and its end is exclusive.
+ */
+public final class RowRanges
+{
+    private static final RowRanges EMPTY = new RowRanges(new long[0], new long[0]);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long rowCount;
+
+    private RowRanges(long[] starts, long[] ends)
+    {
+        this.starts = starts;
+        this.ends = ends;
+        long rowCount = 0;
+        for (int i = 0; i < starts.length; i++) {
+            rowCount += ends[i] - starts[i];
+        }
+        this.rowCount = rowCount;
+    }
+
+    public static RowRanges all(long rowCount)
+    {
+        return builder().add(0, rowCount).build();
+    }
+
+    public static Builder builder()
+    {
+        return new Builder();
+    }
+
+    public long getRowCount()
+    {
+        return rowCount;
+    }
+
+    public boolean isEmpty()
+    {
+        return rowCount == 0;
+    }
+
+    public boolean overlaps(long start, long end)
+    {
+        int range = findRange(start);
+        return range < starts.length && starts[range] < end;
+    }
+
+    /**
+     * Returns the number of rows from the specified row that are not selected, until the next selected row.
+     */
+    public long getUnselectedRowCount(long row)
+    {
+        int range = findRange(row);
+        if (range == starts.length) {
+            return Long.MAX_VALUE;
+        }
+        return max(0, starts[range] - row);
+    }
+
+    /**
+     * Returns the number of consecutive selected rows starting at the specified row.
+     */
+    public long getSelectedRowCount(long row)
+    {
+        int range = findRange(row);
+        if (range == starts.length || starts[range] > row) {
+            return 0;
+        }
+        return ends[range] - row;
+    }
+
+    public RowRanges intersect(RowRanges other)
+    {
+        Builder builder = builder();
+        int left = 0;
+        int right = 0;
+        while (left < starts.length && right < other.starts.length) {
+            builder.add(max(starts[left], other.starts[right]), min(ends[left], other.ends[right]));
+            if (ends[left] < other.ends[right]) {
+                left++;
+            }
+            else {
+                right++;
+            }
+        }
+        return builder.build();
+    }
+
+    // index of the first range that ends after the row
+    private int findRange(long row)
+    {
+        int low = 0;
+        int high = ends.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ends[middle] <= row) {
+                low = middle + 1;
+            }
+            else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    @Override
+    public boolean equals(Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        RowRanges other = (RowRanges) obj;
+        return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(Arrays.hashCode(starts), Arrays.hashCode(ends));
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder ranges = new StringBuilder();
+        for (int i = 0; i < starts.length; i++) {
+            if (i > 0) {
+                ranges.append(", ");
+            }
+            ranges.append('[').append(starts[i]).append(", ").append(ends[i]).append(')');
+        }
+        return toStringHelper(this)
+                .add("ranges", ranges)
+                .add("rowCount", rowCount)
+                .toString();
+    }
+
+    public static class Builder
+    {
+        private final LongArrayList starts = new LongArrayList();
+        private final LongArrayList ends = new LongArrayList();
+
+        private Builder() {}
+
+        /**
+         * Adds a range, which must start at or after the end of the previous range. Empty ranges are ignored,
+         * and adjacent ranges are merged.
+         */
+        public Builder add(long start, long end)
+        {
+            if (start >= end) {
+                return this;
+            }
+            int last = ends.size() - 1;
+            checkArgument(last < 0 || start >= ends.getLong(last), "ranges must be added in order");
+            if (last >= 0 && start == ends.getLong(last)) {
+                ends.set(last, end);
+            }
+            else {
+                starts.add(start);
+                ends.add(end);
+            }
+            return this;
+        }
+
+        public RowRanges build()
+        {
+            if (starts.isEmpty()) {
+                return EMPTY;
+            }
+            return new RowRanges(starts.toLongArray(), ends.toLongArray());
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.prestosql.spi.block.ColumnarArray;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.spi.block.ColumnarArray.toColumnarArray;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes an array as a group annotated with LIST, holding a repeated group with the elements.
+ */
+class ArrayColumnWriter
+        implements ColumnWriter
+{
+    private final ColumnWriter elementWriter;
+    private final boolean optional;
+    private final int repetitionLevel;
+
+    public ArrayColumnWriter(ColumnWriter elementWriter, boolean optional, int repetitionLevel)
+    {
+        this.elementWriter = requireNonNull(elementWriter, "elementWriter is null");
+        this.optional = optional;
+        this.repetitionLevel = repetitionLevel;
+    }
+
+    @Override
+    public void writeBlock(ColumnEntries columnEntries)
+            throws IOException
+    {
+        ColumnarArray columnarArray = toColumnarArray(columnEntries.getBlock());
+
+        ColumnEntries.Builder builder = ColumnEntries.builder(columnarArray.getElementsBlock().getPositionCount() + columnEntries.size());
+        for (int i = 0; i < columnEntries.size(); i++) {
+            int position = columnEntries.getPosition(i);
+            int definitionLevel = columnEntries.getDefinitionLevel(i);
+            int parentRepetitionLevel = columnEntries.getRepetitionLevel(i);
+            if (position == NO_POSITION || columnarArray.isNull(position)) {
+                builder.add(NO_POSITION, definitionLevel, parentRepetitionLevel);
+                continue;
+            }
+
+            definitionLevel += optional ? 1 : 0;
+            int length = columnarArray.getLength(position);
+            if (length == 0) {
+                builder.add(NO_POSITION, definitionLevel, parentRepetitionLevel);
+                continue;
+            }
+
+            int offset = columnarArray.getOffset(position);
+            for (int element = 0; element < length; element++) {
+                builder.add(offset + element, definitionLevel + 1, element == 0 ? parentRepetitionLevel : repetitionLevel);
+            }
+        }
+
+        elementWriter.writeBlock(builder.build(columnarArray.getElementsBlock()));
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        elementWriter.close();
+    }
+
+    @Override
+    public List<BufferData> getBuffer()
+    {
+        return elementWriter.getBuffer();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return elementWriter.getBufferedBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return elementWriter.getRetainedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        elementWriter.reset();
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.prestosql.spi.block.Block;
+
+import java.util.Arrays;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The entries a column writer encodes for a block. An entry is either a position in
+ * the block, or {@link #NO_POSITION} when the value is missing because a parent is null
+ * or an empty collection. Every entry carries the definition level accumulated by the
+ * parents and its repetition level.
+ */
+class ColumnEntries
+{
+    static final int NO_POSITION = -1;
+
+    private final Block block;
+    private final int size;
+    private final int[] positions;
+    private final int[] definitionLevels;
+    private final int[] repetitionLevels;
+
+    ColumnEntries(Block block)
+    {
+        this.block = requireNonNull(block, "block is null");
+        this.size = block.getPositionCount();
+        this.positions = new int[size];
+        for (int position = 0; position < size; position++) {
+            positions[position] = position;
+        }
+        this.definitionLevels = new int[size];
+        this.repetitionLevels = new int[size];
+    }
+
+    private ColumnEntries(Block block, int size, int[] positions, int[] definitionLevels, int[] repetitionLevels)
+    {
+        this.block = requireNonNull(block, "block is null");
+        this.size = size;
+        this.positions = positions;
+        this.definitionLevels = definitionLevels;
+        this.repetitionLevels = repetitionLevels;
+    }
+
+    public Block getBlock()
+    {
+        return block;
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public int getPosition(int index)
+    {
+        return positions[index];
+    }
+
+    public int getDefinitionLevel(int index)
+    {
+        return definitionLevels[index];
+    }
+
+    public int getRepetitionLevel(int index)
+    {
+        return repetitionLevels[index];
+    }
+
+    public static Builder builder(int expectedSize)
+    {
+        return new Builder(expectedSize);
+    }
+
+    public static class Builder
+    {
+        private int size;
+        private int[] positions;
+        private int[] definitionLevels;
+        private int[] repetitionLevels;
+
+        private Builder(int expectedSize)
+        {
+            int capacity = Math.max(expectedSize, 1);
+            this.positions = new int[capacity];
+            this.definitionLevels = new int[capacity];
+            this.repetitionLevels = new int[capacity];
+        }
+
+        public void add(int position, int definitionLevel, int repetitionLevel)
+        {
+            if (size == positions.length) {
+                int capacity = size * 2;
+                positions = Arrays.copyOf(positions, capacity);
+                definitionLevels = Arrays.copyOf(definitionLevels, capacity);
+                repetitionLevels = Arrays.copyOf(repetitionLevels, capacity);
+            }
+            positions[size] = position;
+            definitionLevels[size] = definitionLevel;
+            repetitionLevels[size] = repetitionLevel;
+            size++;
+        }
+
+        /**
+         * Builds the entries for a child block. The same builder can be used for
+         * several children that share the levels, like the fields of a row.
+         */
+        public ColumnEntries build(Block block)
+        {
+            return new ColumnEntries(block, size, positions, definitionLevels, repetitionLevels);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.format.BoundaryOrder;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT96;
+
+/**
+ * Collects the statistics of the pages of a column chunk into a column index.
+ * The index is not written when the order of the values is undefined, like for INT96
+ * or for floating point pages with NaN bounds.
+ */
+class ColumnIndexBuilder
+{
+    // long binary bounds are truncated, like the Parquet writer does, to keep the index small
+    private static final int MAX_BINARY_BOUND_LENGTH = 64;
+    private static final ByteBuffer EMPTY_BOUND = ByteBuffer.allocate(0);
+
+    private final PrimitiveTypeName typeName;
+    private final List<Boolean> nullPages = new ArrayList<>();
+    private final List<ByteBuffer> minValues = new ArrayList<>();
+    private final List<ByteBuffer> maxValues = new ArrayList<>();
+    private final List<Long> nullCounts = new ArrayList<>();
+    private boolean supported;
+
+    public ColumnIndexBuilder(PrimitiveTypeName typeName)
+    {
+        this.typeName = requireNonNull(typeName, "typeName is null");
+        this.supported = typeName != INT96;
+    }
+
+    public void addPage(Statistics<?> statistics)
+    {
+        if (!supported) {
+            return;
+        }
+        if (!statistics.hasNonNullValue()) {
+            nullPages.add(true);
+            minValues.add(EMPTY_BOUND);
+            maxValues.add(EMPTY_BOUND);
+            nullCounts.add(statistics.getNumNulls());
+            return;
+        }
+        if (isNaN(statistics.genericGetMin()) || isNaN(statistics.genericGetMax())) {
+            supported = false;
+            return;
+        }
+        nullPages.add(false);
+        minValues.add(ByteBuffer.wrap(truncateMin(statistics.getMinBytes())));
+        maxValues.add(ByteBuffer.wrap(truncateMax(statistics.getMaxBytes())));
+        nullCounts.add(statistics.getNumNulls());
+    }
+
+    public Optional<ColumnIndex> build()
+    {
+        if (!supported || nullPages.isEmpty()) {
+            return Optional.empty();
+        }
+        ColumnIndex columnIndex = new ColumnIndex(
+                new ArrayList<>(nullPages),
+                new ArrayList<>(minValues),
+                new ArrayList<>(maxValues),
+                BoundaryOrder.UNORDERED);
+        columnIndex.setNull_counts(new ArrayList<>(nullCounts));
+        return Optional.of(columnIndex);
+    }
+
+    public void reset()
+    {
+        nullPages.clear();
+        minValues.clear();
+        maxValues.clear();
+        nullCounts.clear();
+        supported = typeName != INT96;
+    }
+
+    private static boolean isNaN(Object value)
+    {
+        return (value instanceof Double && ((Double) value).isNaN()) || (value instanceof Float && ((Float) value).isNaN());
+    }
+
+    private byte[] truncateMin(byte[] value)
+    {
+        if (typeName != BINARY || value.length <= MAX_BINARY_BOUND_LENGTH) {
+            return value;
+        }
+        // a prefix sorts before the value
+        return Arrays.copyOf(value, MAX_BINARY_BOUND_LENGTH);
+    }
+
+    private byte[] truncateMax(byte[] value)
+    {
+        if (typeName != BINARY || value.length <= MAX_BINARY_BOUND_LENGTH) {
+            return value;
+        }
+        // incrementing the last byte of the prefix that can be incremented gives a value sorting after the original one
+        byte[] bound = Arrays.copyOf(value, MAX_BINARY_BOUND_LENGTH);
+        for (int i = bound.length - 1; i >= 0; i--) {
+            if (bound[i] != (byte) 0xFF) {
+                bound[i]++;
+                return Arrays.copyOf(bound, i + 1);
+            }
+        }
+        return value;
+    }
+}
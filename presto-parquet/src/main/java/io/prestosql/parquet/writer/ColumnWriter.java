@@ -0,0 +1,81 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.airlift.slice.Slice;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.OffsetIndex;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+interface ColumnWriter
+{
+    void writeBlock(ColumnEntries columnEntries)
+            throws IOException;
+
+    /**
+     * Finishes the column chunks of the current row group, which are then available from {@link #getBuffer()}.
+     */
+    void close()
+            throws IOException;
+
+    List<BufferData> getBuffer();
+
+    long getBufferedBytes();
+
+    long getRetainedBytes();
+
+    void reset();
+
+    class BufferData
+    {
+        private final List<Slice> data;
+        private final ColumnMetaData metaData;
+        private final Optional<ColumnIndex> columnIndex;
+        private final OffsetIndex offsetIndex;
+
+        public BufferData(List<Slice> data, ColumnMetaData metaData, Optional<ColumnIndex> columnIndex, OffsetIndex offsetIndex)
+        {
+            this.data = requireNonNull(data, "data is null");
+            this.metaData = requireNonNull(metaData, "metaData is null");
+            this.columnIndex = requireNonNull(columnIndex, "columnIndex is null");
+            this.offsetIndex = requireNonNull(offsetIndex, "offsetIndex is null");
+        }
+
+        public List<Slice> getData()
+        {
+            return data;
+        }
+
+        public ColumnMetaData getMetaData()
+        {
+            return metaData;
+        }
+
+        public Optional<ColumnIndex> getColumnIndex()
+        {
+            return columnIndex;
+        }
+
+        public OffsetIndex getOffsetIndex()
+        {
+            return offsetIndex;
+        }
+    }
+}
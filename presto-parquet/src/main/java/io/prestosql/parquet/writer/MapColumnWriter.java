@@ -0,0 +1,113 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.block.ColumnarMap;
+
+import java.io.IOException;
+import java.util.List;
+
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.spi.block.ColumnarMap.toColumnarMap;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a map as a group annotated with MAP, holding a repeated group with the keys and the values.
+ */
+class MapColumnWriter
+        implements ColumnWriter
+{
+    private final ColumnWriter keyWriter;
+    private final ColumnWriter valueWriter;
+    private final boolean optional;
+    private final int repetitionLevel;
+
+    public MapColumnWriter(ColumnWriter keyWriter, ColumnWriter valueWriter, boolean optional, int repetitionLevel)
+    {
+        this.keyWriter = requireNonNull(keyWriter, "keyWriter is null");
+        this.valueWriter = requireNonNull(valueWriter, "valueWriter is null");
+        this.optional = optional;
+        this.repetitionLevel = repetitionLevel;
+    }
+
+    @Override
+    public void writeBlock(ColumnEntries columnEntries)
+            throws IOException
+    {
+        ColumnarMap columnarMap = toColumnarMap(columnEntries.getBlock());
+
+        ColumnEntries.Builder builder = ColumnEntries.builder(columnarMap.getKeysBlock().getPositionCount() + columnEntries.size());
+        for (int i = 0; i < columnEntries.size(); i++) {
+            int position = columnEntries.getPosition(i);
+            int definitionLevel = columnEntries.getDefinitionLevel(i);
+            int parentRepetitionLevel = columnEntries.getRepetitionLevel(i);
+            if (position == NO_POSITION || columnarMap.isNull(position)) {
+                builder.add(NO_POSITION, definitionLevel, parentRepetitionLevel);
+                continue;
+            }
+
+            definitionLevel += optional ? 1 : 0;
+            int entryCount = columnarMap.getEntryCount(position);
+            if (entryCount == 0) {
+                builder.add(NO_POSITION, definitionLevel, parentRepetitionLevel);
+                continue;
+            }
+
+            int offset = columnarMap.getOffset(position);
+            for (int entry = 0; entry < entryCount; entry++) {
+                builder.add(offset + entry, definitionLevel + 1, entry == 0 ? parentRepetitionLevel : repetitionLevel);
+            }
+        }
+
+        keyWriter.writeBlock(builder.build(columnarMap.getKeysBlock()));
+        valueWriter.writeBlock(builder.build(columnarMap.getValuesBlock()));
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        keyWriter.close();
+        valueWriter.close();
+    }
+
+    @Override
+    public List<BufferData> getBuffer()
+    {
+        return ImmutableList.<BufferData>builder()
+                .addAll(keyWriter.getBuffer())
+                .addAll(valueWriter.getBuffer())
+                .build();
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return keyWriter.getBufferedBytes() + valueWriter.getBufferedBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return keyWriter.getRetainedBytes() + valueWriter.getRetainedBytes();
+    }
+
+    @Override
+    public void reset()
+    {
+        keyWriter.reset();
+        valueWriter.reset();
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.parquet.format.ConvertedType;
+import org.apache.parquet.format.FieldRepetitionType;
+import org.apache.parquet.format.SchemaElement;
+import org.apache.parquet.schema.DecimalMetadata;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName;
+import org.apache.parquet.schema.Type;
+
+import java.util.List;
+
+/**
+ * Converts a Parquet schema to the flattened list of schema elements stored in the file footer.
+ */
+final class MessageTypeConverter
+{
+    private MessageTypeConverter() {}
+
+    public static List<SchemaElement> toParquetSchema(MessageType messageType)
+    {
+        ImmutableList.Builder<SchemaElement> elements = ImmutableList.builder();
+        SchemaElement root = new SchemaElement(messageType.getName());
+        root.setNum_children(messageType.getFieldCount());
+        elements.add(root);
+        for (Type field : messageType.getFields()) {
+            addSchemaElements(field, elements);
+        }
+        return elements.build();
+    }
+
+    public static org.apache.parquet.format.Type toFormatType(PrimitiveTypeName primitiveTypeName)
+    {
+        if (primitiveTypeName == PrimitiveTypeName.BINARY) {
+            return org.apache.parquet.format.Type.BYTE_ARRAY;
+        }
+        return org.apache.parquet.format.Type.valueOf(primitiveTypeName.name());
+    }
+
+    private static void addSchemaElements(Type type, ImmutableList.Builder<SchemaElement> elements)
+    {
+        SchemaElement element = new SchemaElement(type.getName());
+        element.setRepetition_type(FieldRepetitionType.valueOf(type.getRepetition().name()));
+        if (type.getOriginalType() != null) {
+            element.setConverted_type(ConvertedType.valueOf(type.getOriginalType().name()));
+        }
+        if (type.getId() != null) {
+            element.setField_id(type.getId().intValue());
+        }
+
+        if (type.isPrimitive()) {
+            PrimitiveType primitiveType = type.asPrimitiveType();
+            element.setType(toFormatType(primitiveType.getPrimitiveTypeName()));
+            if (primitiveType.getPrimitiveTypeName() == PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+                element.setType_length(primitiveType.getTypeLength());
+            }
+            DecimalMetadata decimalMetadata = primitiveType.getDecimalMetadata();
+            if (decimalMetadata != null) {
+                element.setPrecision(decimalMetadata.getPrecision());
+                element.setScale(decimalMetadata.getScale());
+            }
+            elements.add(element);
+            return;
+        }
+
+        GroupType groupType = type.asGroupType();
+        element.setNum_children(groupType.getFieldCount());
+        elements.add(element);
+        for (Type field : groupType.getFields()) {
+            addSchemaElements(field, elements);
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.OutputStreamSliceOutput;
+import io.airlift.slice.Slice;
+import io.airlift.slice.Slices;
+import io.prestosql.parquet.writer.ColumnWriter.BufferData;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.type.Type;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.format.ColumnChunk;
+import org.apache.parquet.format.ColumnIndex;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.ColumnOrder;
+import org.apache.parquet.format.FileMetaData;
+import org.apache.parquet.format.KeyValue;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.format.RowGroup;
+import org.apache.parquet.format.TypeDefinedOrder;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.MessageType;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.parquet.writer.MessageTypeConverter.toParquetSchema;
+import static java.lang.Math.max;
+import static java.lang.Math.toIntExact;
+import static java.util.Collections.nCopies;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.column.ParquetProperties.WriterVersion.PARQUET_1_0;
+import static org.apache.parquet.format.Util.writeColumnIndex;
+import static org.apache.parquet.format.Util.writeFileMetaData;
+import static org.apache.parquet.format.Util.writeOffsetIndex;
+
+/**
+ * Writes pages to a Parquet file. The column chunks of a row group are buffered in memory,
+ * and written out once the row group reaches its maximum size. The column and offset indexes
+ * of the pages are written after the last row group.
+ */
+public class ParquetWriter
+        implements Closeable
+{
+    public static final Slice MAGIC = Slices.utf8Slice("PAR1");
+    private static final int FILE_FORMAT_VERSION = 1;
+
+    private final OutputStreamSliceOutput outputStream;
+    private final MessageType messageType;
+    private final List<ColumnWriter> columnWriters;
+    private final long maxRowGroupSize;
+    private final long chunkMaxLogicalBytes;
+    private final String createdBy;
+    private final Map<String, String> metadata;
+
+    private final ImmutableList.Builder<RowGroup> rowGroups = ImmutableList.builder();
+    private final List<ColumnChunk> columnChunks = new ArrayList<>();
+    private final List<Optional<ColumnIndex>> columnIndexes = new ArrayList<>();
+    private final List<OffsetIndex> offsetIndexes = new ArrayList<>();
+    private long rows;
+    private int rowGroupRowCount;
+    private boolean closed;
+
+    public ParquetWriter(
+            OutputStream outputStream,
+            MessageType messageType,
+            List<Type> types,
+            ParquetWriterOptions writerOptions,
+            CompressionCodecName compressionCodec,
+            String createdBy,
+            Map<String, String> metadata)
+            throws IOException
+    {
+        this.outputStream = new OutputStreamSliceOutput(requireNonNull(outputStream, "outputStream is null"));
+        this.messageType = requireNonNull(messageType, "messageType is null");
+        requireNonNull(types, "types is null");
+        requireNonNull(writerOptions, "writerOptions is null");
+        requireNonNull(compressionCodec, "compressionCodec is null");
+        this.createdBy = requireNonNull(createdBy, "createdBy is null");
+        this.metadata = ImmutableMap.copyOf(requireNonNull(metadata, "metadata is null"));
+
+        ParquetProperties parquetProperties = ParquetProperties.builder()
+                .withWriterVersion(PARQUET_1_0)
+                .withPageSize(toIntExact(writerOptions.getMaxPageSize().toBytes()))
+                .withDictionaryPageSize(toIntExact(writerOptions.getMaxDictionaryPageSize().toBytes()))
+                .withDictionaryEncoding(true)
+                .build();
+        this.columnWriters = ParquetWriters.getColumnWriters(messageType, types, parquetProperties, compressionCodec);
+        this.maxRowGroupSize = writerOptions.getMaxRowGroupSize().toBytes();
+        this.chunkMaxLogicalBytes = max(1, maxRowGroupSize / 2);
+
+        this.outputStream.writeBytes(MAGIC);
+    }
+
+    public long getWrittenBytes()
+    {
+        return outputStream.longSize();
+    }
+
+    public long getBufferedBytes()
+    {
+        return columnWriters.stream().mapToLong(ColumnWriter::getBufferedBytes).sum();
+    }
+
+    public long getRetainedBytes()
+    {
+        return outputStream.getRetainedSize() +
+                columnWriters.stream().mapToLong(ColumnWriter::getRetainedBytes).sum();
+    }
+
+    public void write(Page page)
+            throws IOException
+    {
+        requireNonNull(page, "page is null");
+        checkState(!closed, "writer is closed");
+        if (page.getPositionCount() == 0) {
+            return;
+        }
+
+        checkArgument(page.getChannelCount() == columnWriters.size());
+
+        while (page != null) {
+            int chunkRows = page.getPositionCount();
+            Page chunk = page;
+
+            // avoid chunk with huge logical size
+            while (chunkRows > 1 && chunk.getLogicalSizeInBytes() > chunkMaxLogicalBytes) {
+                chunkRows /= 2;
+                chunk = chunk.getRegion(0, chunkRows);
+            }
+
+            if (chunkRows < page.getPositionCount()) {
+                page = page.getRegion(chunkRows, page.getPositionCount() - chunkRows);
+            }
+            else {
+                page = null;
+            }
+
+            writeChunk(chunk);
+        }
+    }
+
+    private void writeChunk(Page chunk)
+            throws IOException
+    {
+        for (int channel = 0; channel < chunk.getChannelCount(); channel++) {
+            columnWriters.get(channel).writeBlock(new ColumnEntries(chunk.getBlock(channel)));
+        }
+        rows += chunk.getPositionCount();
+        rowGroupRowCount += chunk.getPositionCount();
+
+        if (getBufferedBytes() >= maxRowGroupSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        if (closed) {
+            return;
+        }
+        closed = true;
+
+        try (OutputStreamSliceOutput outputStream = this.outputStream) {
+            flush();
+            writePageIndexes();
+            writeFooter();
+        }
+    }
+
+    private void flush()
+            throws IOException
+    {
+        if (rowGroupRowCount == 0) {
+            return;
+        }
+
+        ImmutableList.Builder<BufferData> bufferDataBuilder = ImmutableList.builder();
+        for (ColumnWriter columnWriter : columnWriters) {
+            columnWriter.close();
+            bufferDataBuilder.addAll(columnWriter.getBuffer());
+        }
+        List<BufferData> bufferData = bufferDataBuilder.build();
+
+        ImmutableList.Builder<ColumnChunk> rowGroupColumnChunks = ImmutableList.builder();
+        long totalByteSize = 0;
+        for (BufferData data : bufferData) {
+            long chunkOffset = outputStream.longSize();
+            ColumnMetaData metaData = data.getMetaData();
+            // the writers record the page offsets relative to the start of their column chunk
+            metaData.setData_page_offset(chunkOffset + metaData.getData_page_offset());
+            if (metaData.isSetDictionary_page_offset()) {
+                metaData.setDictionary_page_offset(chunkOffset + metaData.getDictionary_page_offset());
+            }
+            for (Slice slice : data.getData()) {
+                outputStream.writeBytes(slice);
+            }
+            for (PageLocation location : data.getOffsetIndex().getPage_locations()) {
+                location.setOffset(chunkOffset + location.getOffset());
+            }
+
+            ColumnChunk columnChunk = new ColumnChunk(chunkOffset);
+            columnChunk.setMeta_data(metaData);
+            rowGroupColumnChunks.add(columnChunk);
+            totalByteSize += metaData.getTotal_uncompressed_size();
+            columnChunks.add(columnChunk);
+            columnIndexes.add(data.getColumnIndex());
+            offsetIndexes.add(data.getOffsetIndex());
+        }
+        rowGroups.add(new RowGroup(rowGroupColumnChunks.build(), totalByteSize, rowGroupRowCount));
+
+        columnWriters.forEach(ColumnWriter::reset);
+        rowGroupRowCount = 0;
+    }
+
+    private void writePageIndexes()
+            throws IOException
+    {
+        // the column indexes and the offset indexes are each stored contiguously, so that readers can fetch them with few reads
+        for (int i = 0; i < columnChunks.size(); i++) {
+            Optional<ColumnIndex> columnIndex = columnIndexes.get(i);
+            if (columnIndex.isPresent()) {
+                long offset = outputStream.longSize();
+                writeColumnIndex(columnIndex.get(), outputStream);
+                columnChunks.get(i)
+                        .setColumn_index_offset(offset)
+                        .setColumn_index_length(toIntExact(outputStream.longSize() - offset));
+            }
+        }
+        for (int i = 0; i < columnChunks.size(); i++) {
+            long offset = outputStream.longSize();
+            writeOffsetIndex(offsetIndexes.get(i), outputStream);
+            columnChunks.get(i)
+                    .setOffset_index_offset(offset)
+                    .setOffset_index_length(toIntExact(outputStream.longSize() - offset));
+        }
+    }
+
+    private void writeFooter()
+            throws IOException
+    {
+        FileMetaData fileMetaData = new FileMetaData(FILE_FORMAT_VERSION, toParquetSchema(messageType), rows, rowGroups.build());
+        fileMetaData.setCreated_by(createdBy);
+        fileMetaData.setKey_value_metadata(metadata.entrySet().stream()
+                .map(entry -> new KeyValue(entry.getKey()).setValue(entry.getValue()))
+                .collect(toImmutableList()));
+        ColumnOrder columnOrder = new ColumnOrder();
+        columnOrder.setTYPE_ORDER(new TypeDefinedOrder());
+        fileMetaData.setColumn_orders(nCopies(messageType.getColumns().size(), columnOrder));
+
+        DynamicSliceOutput footer = new DynamicSliceOutput(1024);
+        writeFileMetaData(fileMetaData, footer);
+
+        outputStream.writeBytes(footer.slice());
+        outputStream.writeInt(footer.size());
+        outputStream.writeBytes(MAGIC);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import io.airlift.units.DataSize;
+
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static java.util.Objects.requireNonNull;
+
+public class ParquetWriterOptions
+{
+    private static final DataSize DEFAULT_MAX_ROW_GROUP_SIZE = new DataSize(128, MEGABYTE);
+    private static final DataSize DEFAULT_MAX_PAGE_SIZE = new DataSize(1, MEGABYTE);
+    private static final DataSize DEFAULT_MAX_DICTIONARY_PAGE_SIZE = new DataSize(1, MEGABYTE);
+
+    private final DataSize maxRowGroupSize;
+    private final DataSize maxPageSize;
+    private final DataSize maxDictionaryPageSize;
+
+    public ParquetWriterOptions()
+    {
+        maxRowGroupSize = DEFAULT_MAX_ROW_GROUP_SIZE;
+        maxPageSize = DEFAULT_MAX_PAGE_SIZE;
+        maxDictionaryPageSize = DEFAULT_MAX_DICTIONARY_PAGE_SIZE;
+    }
+
+    private ParquetWriterOptions(
+            DataSize maxRowGroupSize,
+            DataSize maxPageSize,
+            DataSize maxDictionaryPageSize)
+    {
+        this.maxRowGroupSize = requireNonNull(maxRowGroupSize, "maxRowGroupSize is null");
+        this.maxPageSize = requireNonNull(maxPageSize, "maxPageSize is null");
+        this.maxDictionaryPageSize = requireNonNull(maxDictionaryPageSize, "maxDictionaryPageSize is null");
+    }
+
+    public DataSize getMaxRowGroupSize()
+    {
+        return maxRowGroupSize;
+    }
+
+    public DataSize getMaxPageSize()
+    {
+        return maxPageSize;
+    }
+
+    /**
+     * Columns whose dictionary grows beyond this size fall back to plain encoding.
+     */
+    public DataSize getMaxDictionaryPageSize()
+    {
+        return maxDictionaryPageSize;
+    }
+
+    public ParquetWriterOptions withMaxRowGroupSize(DataSize maxRowGroupSize)
+    {
+        return new ParquetWriterOptions(
+                maxRowGroupSize,
+                maxPageSize,
+                maxDictionaryPageSize);
+    }
+
+    public ParquetWriterOptions withMaxPageSize(DataSize maxPageSize)
+    {
+        return new ParquetWriterOptions(
+                maxRowGroupSize,
+                maxPageSize,
+                maxDictionaryPageSize);
+    }
+
+    public ParquetWriterOptions withMaxDictionaryPageSize(DataSize maxDictionaryPageSize)
+    {
+        return new ParquetWriterOptions(
+                maxRowGroupSize,
+                maxPageSize,
+                maxDictionaryPageSize);
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.parquet.writer.valuewriter.BigintValueWriter;
+import io.prestosql.parquet.writer.valuewriter.BinaryValueWriter;
+import io.prestosql.parquet.writer.valuewriter.BooleanValueWriter;
+import io.prestosql.parquet.writer.valuewriter.DecimalValueWriter;
+import io.prestosql.parquet.writer.valuewriter.DoubleValueWriter;
+import io.prestosql.parquet.writer.valuewriter.Int64TimestampValueWriter;
+import io.prestosql.parquet.writer.valuewriter.IntegerValueWriter;
+import io.prestosql.parquet.writer.valuewriter.PrimitiveValueWriter;
+import io.prestosql.parquet.writer.valuewriter.RealValueWriter;
+import io.prestosql.parquet.writer.valuewriter.TimestampValueWriter;
+import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.type.ArrayType;
+import io.prestosql.spi.type.CharType;
+import io.prestosql.spi.type.DecimalType;
+import io.prestosql.spi.type.MapType;
+import io.prestosql.spi.type.RowType;
+import io.prestosql.spi.type.Type;
+import io.prestosql.spi.type.VarcharType;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.ParquetProperties;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static io.prestosql.spi.StandardErrorCode.NOT_SUPPORTED;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.BooleanType.BOOLEAN;
+import static io.prestosql.spi.type.DateType.DATE;
+import static io.prestosql.spi.type.DoubleType.DOUBLE;
+import static io.prestosql.spi.type.IntegerType.INTEGER;
+import static io.prestosql.spi.type.RealType.REAL;
+import static io.prestosql.spi.type.SmallintType.SMALLINT;
+import static io.prestosql.spi.type.TimeType.TIME;
+import static io.prestosql.spi.type.TimestampType.TIMESTAMP;
+import static io.prestosql.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static io.prestosql.spi.type.TinyintType.TINYINT;
+import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
+import static org.apache.parquet.schema.Type.Repetition.OPTIONAL;
+
+final class ParquetWriters
+{
+    private ParquetWriters() {}
+
+    public static List<ColumnWriter> getColumnWriters(MessageType messageType, List<Type> types, ParquetProperties parquetProperties, CompressionCodecName compressionCodec)
+    {
+        checkArgument(messageType.getFieldCount() == types.size(), "schema has %s fields, but %s types were provided", messageType.getFieldCount(), types.size());
+
+        ImmutableList.Builder<ColumnWriter> columnWriters = ImmutableList.builder();
+        for (int field = 0; field < types.size(); field++) {
+            org.apache.parquet.schema.Type parquetType = messageType.getType(field);
+            columnWriters.add(createColumnWriter(types.get(field), parquetType, ImmutableList.of(parquetType.getName()), messageType, parquetProperties, compressionCodec));
+        }
+        return columnWriters.build();
+    }
+
+    private static ColumnWriter createColumnWriter(
+            Type type,
+            org.apache.parquet.schema.Type parquetType,
+            List<String> path,
+            MessageType messageType,
+            ParquetProperties parquetProperties,
+            CompressionCodecName compressionCodec)
+    {
+        boolean optional = parquetType.isRepetition(OPTIONAL);
+
+        if (type instanceof RowType) {
+            GroupType groupType = parquetType.asGroupType();
+            List<Type> fieldTypes = type.getTypeParameters();
+            checkArgument(groupType.getFieldCount() == fieldTypes.size(), "Parquet group %s does not match type %s", path, type);
+            ImmutableList.Builder<ColumnWriter> fieldWriters = ImmutableList.builder();
+            for (int field = 0; field < fieldTypes.size(); field++) {
+                org.apache.parquet.schema.Type fieldType = groupType.getType(field);
+                fieldWriters.add(createColumnWriter(fieldTypes.get(field), fieldType, append(path, fieldType.getName()), messageType, parquetProperties, compressionCodec));
+            }
+            return new StructColumnWriter(fieldWriters.build(), optional);
+        }
+
+        if (type instanceof ArrayType) {
+            GroupType repeatedType = parquetType.asGroupType().getType(0).asGroupType();
+            List<String> repeatedPath = append(path, repeatedType.getName());
+            org.apache.parquet.schema.Type elementType = repeatedType.getType(0);
+            ColumnWriter elementWriter = createColumnWriter(((ArrayType) type).getElementType(), elementType, append(repeatedPath, elementType.getName()), messageType, parquetProperties, compressionCodec);
+            return new ArrayColumnWriter(elementWriter, optional, messageType.getMaxRepetitionLevel(repeatedPath.toArray(new String[0])));
+        }
+
+        if (type instanceof MapType) {
+            GroupType repeatedType = parquetType.asGroupType().getType(0).asGroupType();
+            List<String> repeatedPath = append(path, repeatedType.getName());
+            org.apache.parquet.schema.Type keyType = repeatedType.getType(0);
+            org.apache.parquet.schema.Type valueType = repeatedType.getType(1);
+            ColumnWriter keyWriter = createColumnWriter(((MapType) type).getKeyType(), keyType, append(repeatedPath, keyType.getName()), messageType, parquetProperties, compressionCodec);
+            ColumnWriter valueWriter = createColumnWriter(((MapType) type).getValueType(), valueType, append(repeatedPath, valueType.getName()), messageType, parquetProperties, compressionCodec);
+            return new MapColumnWriter(keyWriter, valueWriter, optional, messageType.getMaxRepetitionLevel(repeatedPath.toArray(new String[0])));
+        }
+
+        ColumnDescriptor columnDescriptor = messageType.getColumnDescription(path.toArray(new String[0]));
+        PrimitiveType primitiveType = parquetType.asPrimitiveType();
+        // fail on unsupported types before any data is written
+        getValueWriter(parquetProperties.newValuesWriter(columnDescriptor), type, primitiveType);
+        return new PrimitiveColumnWriter(
+                columnDescriptor,
+                compressionCodec,
+                () -> getValueWriter(parquetProperties.newValuesWriter(columnDescriptor), type, primitiveType),
+                () -> parquetProperties.newDefinitionLevelWriter(columnDescriptor),
+                () -> parquetProperties.newRepetitionLevelWriter(columnDescriptor),
+                parquetProperties.getPageSizeThreshold());
+    }
+
+    private static PrimitiveValueWriter getValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType)
+    {
+        if (BOOLEAN.equals(type)) {
+            return new BooleanValueWriter(valuesWriter, parquetType);
+        }
+        if (INTEGER.equals(type) || SMALLINT.equals(type) || TINYINT.equals(type) || DATE.equals(type)) {
+            return new IntegerValueWriter(valuesWriter, type, parquetType);
+        }
+        if (BIGINT.equals(type)) {
+            return new BigintValueWriter(valuesWriter, type, parquetType);
+        }
+        if (REAL.equals(type)) {
+            return new RealValueWriter(valuesWriter, parquetType);
+        }
+        if (DOUBLE.equals(type)) {
+            return new DoubleValueWriter(valuesWriter, parquetType);
+        }
+        if (type instanceof DecimalType) {
+            return new DecimalValueWriter(valuesWriter, (DecimalType) type, parquetType);
+        }
+        if (TIMESTAMP.equals(type) && parquetType.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT96) {
+            return new TimestampValueWriter(valuesWriter, type, parquetType);
+        }
+        if ((TIMESTAMP.equals(type) || TIMESTAMP_WITH_TIME_ZONE.equals(type) || TIME.equals(type)) && parquetType.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.INT64) {
+            return new Int64TimestampValueWriter(valuesWriter, type, parquetType);
+        }
+        if (type instanceof VarcharType || type instanceof CharType || VARBINARY.equals(type)) {
+            return new BinaryValueWriter(valuesWriter, type, parquetType);
+        }
+        throw new PrestoException(NOT_SUPPORTED, "Unsupported type for Parquet writer: " + type);
+    }
+
+    private static List<String> append(List<String> path, String name)
+    {
+        return ImmutableList.<String>builder()
+                .addAll(path)
+                .add(name)
+                .build();
+    }
+}
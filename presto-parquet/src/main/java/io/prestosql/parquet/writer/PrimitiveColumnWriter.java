@@ -0,0 +1,296 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.airlift.slice.DynamicSliceOutput;
+import io.airlift.slice.Slice;
+import io.prestosql.parquet.writer.valuewriter.PrimitiveValueWriter;
+import io.prestosql.spi.block.Block;
+import org.apache.parquet.bytes.BytesInput;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.column.page.DictionaryPage;
+import org.apache.parquet.column.statistics.Statistics;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.format.ColumnMetaData;
+import org.apache.parquet.format.DataPageHeader;
+import org.apache.parquet.format.DictionaryPageHeader;
+import org.apache.parquet.format.Encoding;
+import org.apache.parquet.format.OffsetIndex;
+import org.apache.parquet.format.PageHeader;
+import org.apache.parquet.format.PageLocation;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.hadoop.metadata.CompressionCodecName;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static com.google.common.base.Preconditions.checkState;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.prestosql.parquet.ParquetCompressionUtils.compress;
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.parquet.writer.MessageTypeConverter.toFormatType;
+import static java.util.Objects.requireNonNull;
+import static org.apache.parquet.format.PageType.DATA_PAGE;
+import static org.apache.parquet.format.PageType.DICTIONARY_PAGE;
+import static org.apache.parquet.format.Util.writePageHeader;
+import static org.apache.parquet.format.converter.ParquetMetadataConverter.toParquetStatistics;
+
+class PrimitiveColumnWriter
+        implements ColumnWriter
+{
+    private static final ParquetMetadataConverter METADATA_CONVERTER = new ParquetMetadataConverter();
+
+    private final ColumnDescriptor columnDescriptor;
+    private final CompressionCodecName compressionCodec;
+    private final Supplier<PrimitiveValueWriter> valueWriterFactory;
+    private final Supplier<ValuesWriter> definitionLevelWriterFactory;
+    private final Supplier<ValuesWriter> repetitionLevelWriterFactory;
+    private final int maxDefinitionLevel;
+    private final int pageSizeThreshold;
+
+    private PrimitiveValueWriter primitiveValueWriter;
+    private ValuesWriter definitionLevelWriter;
+    private ValuesWriter repetitionLevelWriter;
+
+    // data pages of the current row group, with their headers
+    private final List<Slice> pages = new ArrayList<>();
+    private final Set<Encoding> encodings = new LinkedHashSet<>();
+    // page locations are relative to the first data page until the column chunk is complete
+    private final List<PageLocation> pageLocations = new ArrayList<>();
+    private final ColumnIndexBuilder columnIndexBuilder;
+    private Statistics<?> columnStatistics;
+    private long pagesSize;
+    private long totalCompressedSize;
+    private long totalUncompressedSize;
+    private long totalValues;
+    private long totalRows;
+    private int pageValueCount;
+    private int pageRowCount;
+
+    private boolean closed;
+    private List<BufferData> buffer = ImmutableList.of();
+
+    public PrimitiveColumnWriter(
+            ColumnDescriptor columnDescriptor,
+            CompressionCodecName compressionCodec,
+            Supplier<PrimitiveValueWriter> valueWriterFactory,
+            Supplier<ValuesWriter> definitionLevelWriterFactory,
+            Supplier<ValuesWriter> repetitionLevelWriterFactory,
+            int pageSizeThreshold)
+    {
+        this.columnDescriptor = requireNonNull(columnDescriptor, "columnDescriptor is null");
+        this.compressionCodec = requireNonNull(compressionCodec, "compressionCodec is null");
+        this.valueWriterFactory = requireNonNull(valueWriterFactory, "valueWriterFactory is null");
+        this.definitionLevelWriterFactory = requireNonNull(definitionLevelWriterFactory, "definitionLevelWriterFactory is null");
+        this.repetitionLevelWriterFactory = requireNonNull(repetitionLevelWriterFactory, "repetitionLevelWriterFactory is null");
+        this.maxDefinitionLevel = columnDescriptor.getMaxDefinitionLevel();
+        this.pageSizeThreshold = pageSizeThreshold;
+        this.columnIndexBuilder = new ColumnIndexBuilder(columnDescriptor.getPrimitiveType().getPrimitiveTypeName());
+        createWriters();
+    }
+
+    @Override
+    public void writeBlock(ColumnEntries columnEntries)
+            throws IOException
+    {
+        checkState(!closed, "writer is closed");
+
+        Block block = columnEntries.getBlock();
+        for (int i = 0; i < columnEntries.size(); i++) {
+            int position = columnEntries.getPosition(i);
+            int repetitionLevel = columnEntries.getRepetitionLevel(i);
+            if (repetitionLevel == 0) {
+                // pages start at a row boundary, so that the offset index can address the rows of a page
+                if (getCurrentPageBufferedBytes() >= pageSizeThreshold) {
+                    flushCurrentPage();
+                }
+                pageRowCount++;
+            }
+            repetitionLevelWriter.writeInteger(repetitionLevel);
+            if (position != NO_POSITION && !block.isNull(position)) {
+                definitionLevelWriter.writeInteger(maxDefinitionLevel);
+                primitiveValueWriter.write(block, position);
+            }
+            else {
+                definitionLevelWriter.writeInteger(columnEntries.getDefinitionLevel(i));
+                primitiveValueWriter.getStatistics().incrementNumNulls();
+            }
+            pageValueCount++;
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        checkState(!closed, "writer is closed");
+        flushCurrentPage();
+
+        ImmutableList.Builder<Slice> data = ImmutableList.builder();
+        long dictionaryPageSize = 0;
+        DictionaryPage dictionaryPage = primitiveValueWriter.getValuesWriter().toDictPageAndClose();
+        if (dictionaryPage != null) {
+            // the dictionary is only complete once all values are written, but it must precede the data pages
+            byte[] uncompressed = dictionaryPage.getBytes().toByteArray();
+            Slice compressed = compress(compressionCodec, wrappedBuffer(uncompressed));
+            Encoding encoding = METADATA_CONVERTER.getEncoding(dictionaryPage.getEncoding());
+
+            PageHeader header = new PageHeader(DICTIONARY_PAGE, uncompressed.length, compressed.length());
+            header.setDictionary_page_header(new DictionaryPageHeader(dictionaryPage.getDictionarySize(), encoding));
+            Slice headerSlice = serializePageHeader(header);
+
+            data.add(headerSlice).add(compressed);
+            dictionaryPageSize = headerSlice.length() + compressed.length();
+            totalCompressedSize += dictionaryPageSize;
+            totalUncompressedSize += headerSlice.length() + uncompressed.length;
+            encodings.add(encoding);
+            primitiveValueWriter.getValuesWriter().resetDictionary();
+        }
+        data.addAll(pages);
+
+        ColumnMetaData metaData = new ColumnMetaData(
+                toFormatType(columnDescriptor.getPrimitiveType().getPrimitiveTypeName()),
+                ImmutableList.copyOf(encodings),
+                ImmutableList.copyOf(columnDescriptor.getPath()),
+                compressionCodec.getParquetCompressionCodec(),
+                totalValues,
+                totalUncompressedSize,
+                totalCompressedSize,
+                // offsets are relative to the start of the column chunk until the chunk is placed in the file
+                dictionaryPageSize);
+        if (dictionaryPage != null) {
+            metaData.setDictionary_page_offset(0);
+        }
+        metaData.setStatistics(toParquetStatistics(columnStatistics));
+
+        ImmutableList.Builder<PageLocation> locations = ImmutableList.builder();
+        for (PageLocation location : pageLocations) {
+            locations.add(new PageLocation(dictionaryPageSize + location.getOffset(), location.getCompressed_page_size(), location.getFirst_row_index()));
+        }
+        buffer = ImmutableList.of(new BufferData(data.build(), metaData, columnIndexBuilder.build(), new OffsetIndex(locations.build())));
+        closed = true;
+    }
+
+    @Override
+    public List<BufferData> getBuffer()
+    {
+        checkState(closed, "writer is not closed");
+        return buffer;
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return pagesSize + getCurrentPageBufferedBytes();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return pagesSize +
+                primitiveValueWriter.getValuesWriter().getAllocatedSize() +
+                definitionLevelWriter.getAllocatedSize() +
+                repetitionLevelWriter.getAllocatedSize();
+    }
+
+    @Override
+    public void reset()
+    {
+        pages.clear();
+        encodings.clear();
+        pageLocations.clear();
+        columnIndexBuilder.reset();
+        pagesSize = 0;
+        totalCompressedSize = 0;
+        totalUncompressedSize = 0;
+        totalValues = 0;
+        totalRows = 0;
+        pageValueCount = 0;
+        pageRowCount = 0;
+        buffer = ImmutableList.of();
+        closed = false;
+        // the value writers keep state across pages, like the dictionary or the fallback to plain encoding
+        createWriters();
+    }
+
+    private void createWriters()
+    {
+        primitiveValueWriter = valueWriterFactory.get();
+        definitionLevelWriter = definitionLevelWriterFactory.get();
+        repetitionLevelWriter = repetitionLevelWriterFactory.get();
+        columnStatistics = Statistics.createStats(columnDescriptor.getPrimitiveType());
+    }
+
+    private long getCurrentPageBufferedBytes()
+    {
+        return primitiveValueWriter.getValuesWriter().getBufferedSize() +
+                definitionLevelWriter.getBufferedSize() +
+                repetitionLevelWriter.getBufferedSize();
+    }
+
+    private void flushCurrentPage()
+            throws IOException
+    {
+        if (pageValueCount == 0) {
+            return;
+        }
+
+        ValuesWriter valuesWriter = primitiveValueWriter.getValuesWriter();
+        byte[] uncompressed = BytesInput.concat(repetitionLevelWriter.getBytes(), definitionLevelWriter.getBytes(), valuesWriter.getBytes()).toByteArray();
+        Slice compressed = compress(compressionCodec, wrappedBuffer(uncompressed));
+
+        Encoding valuesEncoding = METADATA_CONVERTER.getEncoding(valuesWriter.getEncoding());
+        Encoding definitionLevelEncoding = METADATA_CONVERTER.getEncoding(definitionLevelWriter.getEncoding());
+        Encoding repetitionLevelEncoding = METADATA_CONVERTER.getEncoding(repetitionLevelWriter.getEncoding());
+        PageHeader header = new PageHeader(DATA_PAGE, uncompressed.length, compressed.length());
+        header.setData_page_header(new DataPageHeader(pageValueCount, valuesEncoding, definitionLevelEncoding, repetitionLevelEncoding));
+        Slice headerSlice = serializePageHeader(header);
+
+        Statistics<?> pageStatistics = primitiveValueWriter.getStatistics();
+        columnStatistics.mergeStatistics(pageStatistics);
+        columnIndexBuilder.addPage(pageStatistics);
+        primitiveValueWriter.resetStatistics();
+        pageLocations.add(new PageLocation(pagesSize, headerSlice.length() + compressed.length(), totalRows));
+
+        pages.add(headerSlice);
+        pages.add(compressed);
+        pagesSize += headerSlice.length() + compressed.length();
+        totalCompressedSize += headerSlice.length() + compressed.length();
+        totalUncompressedSize += headerSlice.length() + uncompressed.length;
+        totalValues += pageValueCount;
+        totalRows += pageRowCount;
+        encodings.add(valuesEncoding);
+        encodings.add(definitionLevelEncoding);
+        encodings.add(repetitionLevelEncoding);
+
+        pageValueCount = 0;
+        pageRowCount = 0;
+        valuesWriter.reset();
+        definitionLevelWriter.reset();
+        repetitionLevelWriter.reset();
+    }
+
+    private static Slice serializePageHeader(PageHeader header)
+            throws IOException
+    {
+        DynamicSliceOutput output = new DynamicSliceOutput(64);
+        writePageHeader(header, output);
+        return output.slice();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.block.ColumnarRow;
+
+import java.io.IOException;
+import java.util.List;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.parquet.writer.ColumnEntries.NO_POSITION;
+import static io.prestosql.spi.block.ColumnarRow.toColumnarRow;
+import static java.util.Objects.requireNonNull;
+
+class StructColumnWriter
+        implements ColumnWriter
+{
+    private final List<ColumnWriter> fieldWriters;
+    private final boolean optional;
+
+    public StructColumnWriter(List<ColumnWriter> fieldWriters, boolean optional)
+    {
+        this.fieldWriters = ImmutableList.copyOf(requireNonNull(fieldWriters, "fieldWriters is null"));
+        this.optional = optional;
+    }
+
+    @Override
+    public void writeBlock(ColumnEntries columnEntries)
+            throws IOException
+    {
+        ColumnarRow columnarRow = toColumnarRow(columnEntries.getBlock());
+
+        // the field blocks only contain the rows that are not null
+        int[] fieldPositions = new int[columnarRow.getPositionCount()];
+        int nonNullCount = 0;
+        for (int position = 0; position < columnarRow.getPositionCount(); position++) {
+            fieldPositions[position] = columnarRow.isNull(position) ? NO_POSITION : nonNullCount++;
+        }
+
+        ColumnEntries.Builder builder = ColumnEntries.builder(columnEntries.size());
+        for (int i = 0; i < columnEntries.size(); i++) {
+            int position = columnEntries.getPosition(i);
+            int definitionLevel = columnEntries.getDefinitionLevel(i);
+            int repetitionLevel = columnEntries.getRepetitionLevel(i);
+            if (position == NO_POSITION || fieldPositions[position] == NO_POSITION) {
+                builder.add(NO_POSITION, definitionLevel, repetitionLevel);
+            }
+            else {
+                builder.add(fieldPositions[position], definitionLevel + (optional ? 1 : 0), repetitionLevel);
+            }
+        }
+
+        for (int field = 0; field < fieldWriters.size(); field++) {
+            fieldWriters.get(field).writeBlock(builder.build(columnarRow.getField(field)));
+        }
+    }
+
+    @Override
+    public void close()
+            throws IOException
+    {
+        for (ColumnWriter fieldWriter : fieldWriters) {
+            fieldWriter.close();
+        }
+    }
+
+    @Override
+    public List<BufferData> getBuffer()
+    {
+        return fieldWriters.stream()
+                .flatMap(fieldWriter -> fieldWriter.getBuffer().stream())
+                .collect(toImmutableList());
+    }
+
+    @Override
+    public long getBufferedBytes()
+    {
+        return fieldWriters.stream().mapToLong(ColumnWriter::getBufferedBytes).sum();
+    }
+
+    @Override
+    public long getRetainedBytes()
+    {
+        return fieldWriters.stream().mapToLong(ColumnWriter::getRetainedBytes).sum();
+    }
+
+    @Override
+    public void reset()
+    {
+        fieldWriters.forEach(ColumnWriter::reset);
+    }
+}
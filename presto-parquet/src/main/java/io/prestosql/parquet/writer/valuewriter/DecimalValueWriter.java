@@ -0,0 +1,103 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer.valuewriter;
+
+import io.airlift.slice.Slice;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.DecimalType;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.PrimitiveType;
+
+import java.math.BigInteger;
+
+import static io.prestosql.spi.type.Decimals.decodeUnscaledValue;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes decimals stored as INT32, INT64, or as big endian two's complement
+ * in a FIXED_LEN_BYTE_ARRAY or BINARY.
+ */
+public class DecimalValueWriter
+        extends PrimitiveValueWriter
+{
+    private final DecimalType decimalType;
+
+    public DecimalValueWriter(ValuesWriter valuesWriter, DecimalType decimalType, PrimitiveType parquetType)
+    {
+        super(parquetType, valuesWriter);
+        this.decimalType = requireNonNull(decimalType, "decimalType is null");
+    }
+
+    @Override
+    public void write(Block block, int position)
+    {
+        switch (getParquetType().getPrimitiveTypeName()) {
+            case INT32: {
+                int value = toIntExact(getUnscaledLong(block, position));
+                getValuesWriter().writeInteger(value);
+                getStatistics().updateStats(value);
+                return;
+            }
+            case INT64: {
+                long value = getUnscaledLong(block, position);
+                getValuesWriter().writeLong(value);
+                getStatistics().updateStats(value);
+                return;
+            }
+            default: {
+                Binary value = Binary.fromConstantByteArray(toBytes(getUnscaledValue(block, position)));
+                getValuesWriter().writeBytes(value);
+                getStatistics().updateStats(value);
+            }
+        }
+    }
+
+    private long getUnscaledLong(Block block, int position)
+    {
+        if (decimalType.isShort()) {
+            return decimalType.getLong(block, position);
+        }
+        return getUnscaledValue(block, position).longValueExact();
+    }
+
+    private BigInteger getUnscaledValue(Block block, int position)
+    {
+        if (decimalType.isShort()) {
+            return BigInteger.valueOf(decimalType.getLong(block, position));
+        }
+        Slice value = decimalType.getSlice(block, position);
+        return decodeUnscaledValue(value);
+    }
+
+    private byte[] toBytes(BigInteger unscaledValue)
+    {
+        byte[] bytes = unscaledValue.toByteArray();
+        if (getParquetType().getPrimitiveTypeName() != PrimitiveType.PrimitiveTypeName.FIXED_LEN_BYTE_ARRAY) {
+            return bytes;
+        }
+
+        // sign extend to the fixed length of the column
+        int length = getParquetType().getTypeLength();
+        byte[] result = new byte[length];
+        byte padding = (byte) (unscaledValue.signum() < 0 ? 0xFF : 0x00);
+        int paddingLength = length - bytes.length;
+        for (int i = 0; i < paddingLength; i++) {
+            result[i] = padding;
+        }
+        System.arraycopy(bytes, 0, result, paddingLength, bytes.length);
+        return result;
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer.valuewriter;
+
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.type.Type;
+import org.apache.parquet.column.values.ValuesWriter;
+import org.apache.parquet.schema.OriginalType;
+import org.apache.parquet.schema.PrimitiveType;
+
+import static io.prestosql.spi.type.DateTimeEncoding.unpackMillisUtc;
+import static io.prestosql.spi.type.TimestampWithTimeZoneType.TIMESTAMP_WITH_TIME_ZONE;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes time, timestamp and timestamp with time zone values stored as INT64,
+ * in milliseconds or in microseconds depending on the annotation of the column.
+ */
+public class Int64TimestampValueWriter
+        extends PrimitiveValueWriter
+{
+    private final Type type;
+    private final long multiplier;
+
+    public Int64TimestampValueWriter(ValuesWriter valuesWriter, Type type, PrimitiveType parquetType)
+    {
+        super(parquetType, valuesWriter);
+        this.type = requireNonNull(type, "type is null");
+        OriginalType originalType = parquetType.getOriginalType();
+        this.multiplier = (originalType == OriginalType.TIMESTAMP_MICROS || originalType == OriginalType.TIME_MICROS) ? 1000 : 1;
+    }
+
+    @Override
+    public void write(Block block, int position)
+    {
+        long millis = type.getLong(block, position);
+        if (type.equals(TIMESTAMP_WITH_TIME_ZONE)) {
+            millis = unpackMillisUtc(millis);
+        }
+        long value = millis * multiplier;
+        getValuesWriter().writeLong(value);
+        getStatistics().updateStats(value);
+    }
+}
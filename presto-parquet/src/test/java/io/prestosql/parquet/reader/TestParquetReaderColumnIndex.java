@@ -0,0 +1,234 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.slice.Slice;
+import io.airlift.units.DataSize;
+import io.prestosql.parquet.ParquetDataSource;
+import io.prestosql.parquet.ParquetReaderOptions;
+import io.prestosql.parquet.PrimitiveField;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.predicate.Predicate;
+import io.prestosql.parquet.predicate.TupleDomainParquetPredicate;
+import io.prestosql.parquet.writer.ParquetWriter;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.predicate.Domain;
+import io.prestosql.spi.predicate.Range;
+import io.prestosql.spi.predicate.TupleDomain;
+import io.prestosql.spi.predicate.ValueSet;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.ColumnDescriptor;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.airlift.units.DataSize.Unit.MEGABYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.parquet.ParquetTypeUtils.getColumnIO;
+import static io.prestosql.parquet.ParquetTypeUtils.getDescriptors;
+import static io.prestosql.parquet.reader.MetadataReader.readFooter;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.apache.parquet.schema.OriginalType.UTF8;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetReaderColumnIndex
+{
+    private static final int ROWS = 100_000;
+    private static final MessageType SCHEMA = Types.buildMessage()
+            .optional(INT64).named("id")
+            .optional(BINARY).as(UTF8).named("name")
+            .named("test");
+
+    private File file;
+    private ParquetMetadata metadata;
+    private Slice data;
+
+    @BeforeClass
+    public void setUp()
+            throws IOException
+    {
+        file = File.createTempFile("presto-parquet-column-index", ".parquet");
+        ParquetWriterOptions writerOptions = new ParquetWriterOptions()
+                .withMaxRowGroupSize(new DataSize(1, MEGABYTE))
+                .withMaxPageSize(new DataSize(4, KILOBYTE));
+        try (ParquetWriter writer = new ParquetWriter(new FileOutputStream(file), SCHEMA, ImmutableList.of(BIGINT, VARCHAR), writerOptions, SNAPPY, "test", ImmutableMap.of())) {
+            for (int start = 0; start < ROWS; start += 10_000) {
+                writer.write(createPage(start, 10_000));
+            }
+        }
+        metadata = readFooter(FileSystem.getLocal(new Configuration()), new Path(file.toURI()), file.length());
+        data = wrappedBuffer(Files.readAllBytes(file.toPath()));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown()
+    {
+        file.delete();
+    }
+
+    @Test
+    public void testIndexesWritten()
+    {
+        for (BlockMetaData block : metadata.getBlocks()) {
+            assertEquals(block.getColumns().size(), 2);
+            for (Object column : block.getColumns()) {
+                assertTrue(column instanceof IndexedColumnChunkMetaData, "expected column index");
+                assertTrue(((IndexedColumnChunkMetaData) column).getColumnIndexReference().isPresent(), "expected column index");
+            }
+        }
+    }
+
+    @Test
+    public void testPageSkipping()
+            throws IOException
+    {
+        TestingParquetDataSource dataSource = new TestingParquetDataSource(data);
+        List<Long> ids = readIds(dataSource, Optional.of(createPredicate(Domain.create(ValueSet.ofRanges(Range.range(BIGINT, 50_000L, true, 50_099L, true)), false))));
+
+        // the rows of the pages of the id column that can match are returned, and the other ones are skipped
+        assertTrue(ids.containsAll(rangeOf(50_000, 50_100)));
+        assertTrue(ids.size() < ROWS / 20, "expected most of the rows to be skipped, but read " + ids.size());
+        assertTrue(dataSource.getReadBytes() < data.length() / 4, "expected most of the data to be skipped, but read " + dataSource.getReadBytes());
+    }
+
+    @Test
+    public void testDisjointRanges()
+            throws IOException
+    {
+        Domain domain = Domain.create(ValueSet.ofRanges(Range.lessThan(BIGINT, 100L), Range.greaterThanOrEqual(BIGINT, (long) ROWS - 100)), false);
+        List<Long> ids = readIds(new TestingParquetDataSource(data), Optional.of(createPredicate(domain)));
+        assertTrue(ids.containsAll(rangeOf(1, 100)));
+        assertTrue(ids.containsAll(rangeOf(ROWS - 100, ROWS)));
+        assertTrue(ids.size() < ROWS / 20, "expected most of the rows to be skipped, but read " + ids.size());
+    }
+
+    @Test
+    public void testNoMatch()
+            throws IOException
+    {
+        TestingParquetDataSource dataSource = new TestingParquetDataSource(data);
+        List<Long> ids = readIds(dataSource, Optional.of(createPredicate(Domain.singleValue(BIGINT, (long) ROWS + 1))));
+        assertTrue(ids.isEmpty());
+    }
+
+    @Test
+    public void testWithoutPredicate()
+            throws IOException
+    {
+        List<Long> ids = readIds(new TestingParquetDataSource(data), Optional.empty());
+        assertEquals(ids.size(), ROWS);
+    }
+
+    @Test
+    public void testColumnIndexDisabled()
+            throws IOException
+    {
+        TestingParquetDataSource dataSource = new TestingParquetDataSource(data);
+        Predicate predicate = createPredicate(Domain.singleValue(BIGINT, 50_000L));
+        List<Long> ids = readIds(dataSource, Optional.of(predicate), new ParquetReaderOptions().withUseColumnIndex(false));
+        assertEquals(ids.size(), ROWS);
+    }
+
+    private List<Long> readIds(ParquetDataSource dataSource, Optional<Predicate> predicate)
+            throws IOException
+    {
+        return readIds(dataSource, predicate, new ParquetReaderOptions());
+    }
+
+    private List<Long> readIds(ParquetDataSource dataSource, Optional<Predicate> predicate, ParquetReaderOptions options)
+            throws IOException
+    {
+        Map<List<String>, RichColumnDescriptor> descriptors = getDescriptors(SCHEMA, SCHEMA);
+        PrimitiveField idField = new PrimitiveField(BIGINT, 0, 1, false, descriptors.get(ImmutableList.of("id")), 0);
+        PrimitiveField nameField = new PrimitiveField(VARCHAR, 0, 1, false, descriptors.get(ImmutableList.of("name")), 1);
+
+        ImmutableList.Builder<Long> ids = ImmutableList.builder();
+        try (ParquetReader reader = new ParquetReader(Optional.of("test"), getColumnIO(SCHEMA, SCHEMA), metadata.getBlocks(), predicate, dataSource, newSimpleAggregatedMemoryContext(), options)) {
+            for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                Block idBlock = reader.readBlock(idField);
+                Block nameBlock = reader.readBlock(nameField);
+                assertEquals(idBlock.getPositionCount(), batchSize);
+                assertEquals(nameBlock.getPositionCount(), batchSize);
+                for (int position = 0; position < batchSize; position++) {
+                    long id = BIGINT.getLong(idBlock, position);
+                    // the columns are skipped in sync, even though their pages hold different rows
+                    assertEquals(VARCHAR.getSlice(nameBlock, position), createName(id));
+                    ids.add(id);
+                }
+            }
+        }
+        return ids.build();
+    }
+
+    private static Predicate createPredicate(Domain domain)
+    {
+        Map<List<String>, RichColumnDescriptor> descriptors = getDescriptors(SCHEMA, SCHEMA);
+        RichColumnDescriptor id = descriptors.get(ImmutableList.of("id"));
+        TupleDomain<ColumnDescriptor> tupleDomain = TupleDomain.withColumnDomains(ImmutableMap.of(id, domain));
+        return new TupleDomainParquetPredicate(tupleDomain, ImmutableList.copyOf(descriptors.values()));
+    }
+
+    private static List<Long> rangeOf(long start, long end)
+    {
+        ImmutableList.Builder<Long> values = ImmutableList.builder();
+        for (long value = start; value < end; value++) {
+            values.add(value);
+        }
+        return values.build();
+    }
+
+    private static Page createPage(int start, int positionCount)
+    {
+        BlockBuilder ids = BIGINT.createBlockBuilder(null, positionCount);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, positionCount);
+        for (int position = start; position < start + positionCount; position++) {
+            BIGINT.writeLong(ids, position);
+            VARCHAR.writeSlice(names, createName(position));
+        }
+        return new Page(ids.build(), names.build());
+    }
+
+    private static Slice createName(long id)
+    {
+        // longer than the ids, so that the pages of the two columns do not line up
+        return utf8Slice("name " + id + " " + "x".repeat((int) (id % 17)));
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.parquet.ParquetReaderOptions;
+import io.prestosql.parquet.PrimitiveField;
+import io.prestosql.parquet.RichColumnDescriptor;
+import io.prestosql.parquet.writer.ParquetWriter;
+import io.prestosql.parquet.writer.ParquetWriterOptions;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.block.DictionaryBlock;
+import io.prestosql.spi.type.Type;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.slice.Slices.wrappedBuffer;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.memory.context.AggregatedMemoryContext.newSimpleAggregatedMemoryContext;
+import static io.prestosql.parquet.ParquetTypeUtils.getColumnIO;
+import static io.prestosql.parquet.ParquetTypeUtils.getDescriptors;
+import static io.prestosql.parquet.reader.MetadataReader.readFooter;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static io.prestosql.spi.type.VarcharType.createVarcharType;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.apache.parquet.schema.OriginalType.UTF8;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetReaderDictionary
+{
+    private static final int ROWS = 50_000;
+    private static final MessageType SCHEMA = Types.buildMessage()
+            .optional(BINARY).as(UTF8).named("category")
+            .optional(BINARY).as(UTF8).named("name")
+            .named("test");
+
+    @Test
+    public void testDictionaryBlocks()
+            throws IOException
+    {
+        File file = File.createTempFile("presto-parquet-dictionary", ".parquet");
+        try {
+            ParquetWriterOptions writerOptions = new ParquetWriterOptions()
+                    .withMaxRowGroupSize(new DataSize(256, KILOBYTE))
+                    .withMaxDictionaryPageSize(new DataSize(1, KILOBYTE));
+            try (ParquetWriter writer = new ParquetWriter(new FileOutputStream(file), SCHEMA, ImmutableList.of(VARCHAR, VARCHAR), writerOptions, SNAPPY, "test", ImmutableMap.of())) {
+                for (int start = 0; start < ROWS; start += 10_000) {
+                    writer.write(createPage(start, 10_000));
+                }
+            }
+            ParquetMetadata metadata = readFooter(FileSystem.getLocal(new Configuration()), new Path(file.toURI()), file.length());
+            assertTrue(metadata.getBlocks().size() > 1, "expected multiple row groups");
+
+            Map<List<String>, RichColumnDescriptor> descriptors = getDescriptors(SCHEMA, SCHEMA);
+            Type boundedVarchar = createVarcharType(10);
+            PrimitiveField categoryField = new PrimitiveField(boundedVarchar, 0, 1, false, descriptors.get(ImmutableList.of("category")), 0);
+            PrimitiveField nameField = new PrimitiveField(VARCHAR, 0, 1, false, descriptors.get(ImmutableList.of("name")), 1);
+
+            Set<Block> dictionaries = Collections.newSetFromMap(new IdentityHashMap<>());
+            int row = 0;
+            try (ParquetReader reader = new ParquetReader(
+                    Optional.of("test"),
+                    getColumnIO(SCHEMA, SCHEMA),
+                    metadata.getBlocks(),
+                    Optional.empty(),
+                    new TestingParquetDataSource(wrappedBuffer(Files.readAllBytes(file.toPath()))),
+                    newSimpleAggregatedMemoryContext(),
+                    new ParquetReaderOptions())) {
+                for (int batchSize = reader.nextBatch(); batchSize >= 0; batchSize = reader.nextBatch()) {
+                    // the low cardinality column is returned encoded, with one dictionary per row group
+                    Block categories = reader.readBlock(categoryField);
+                    assertTrue(categories instanceof DictionaryBlock, "expected dictionary block: " + categories);
+                    dictionaries.add(((DictionaryBlock) categories).getDictionary());
+
+                    // the dictionary of the unique values overflows, so they are decoded
+                    Block names = reader.readBlock(nameField);
+                    assertFalse(names instanceof DictionaryBlock);
+
+                    for (int position = 0; position < batchSize; position++) {
+                        if (row % 13 == 0) {
+                            assertTrue(categories.isNull(position));
+                        }
+                        else {
+                            // the values of the dictionary are truncated to the length of the type
+                            assertEquals(boundedVarchar.getSlice(categories, position), utf8Slice(("category " + row % 10).substring(0, 10)));
+                        }
+                        assertEquals(VARCHAR.getSlice(names, position), utf8Slice(createName(row)));
+                        row++;
+                    }
+                }
+            }
+            assertEquals(row, ROWS);
+            assertEquals(dictionaries.size(), metadata.getBlocks().size());
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    private static Page createPage(int start, int positionCount)
+    {
+        BlockBuilder categories = VARCHAR.createBlockBuilder(null, positionCount);
+        BlockBuilder names = VARCHAR.createBlockBuilder(null, positionCount);
+        for (int row = start; row < start + positionCount; row++) {
+            if (row % 13 == 0) {
+                categories.appendNull();
+            }
+            else {
+                VARCHAR.writeSlice(categories, utf8Slice("category " + row % 10));
+            }
+            VARCHAR.writeSlice(names, utf8Slice(createName(row)));
+        }
+        return new Page(categories.build(), names.build());
+    }
+
+    private static String createName(int row)
+    {
+        return "name " + row;
+    }
+}
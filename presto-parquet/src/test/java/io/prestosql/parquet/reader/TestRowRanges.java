@@ -0,0 +1,66 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+public class TestRowRanges
+{
+    @Test
+    public void testBuilder()
+    {
+        RowRanges ranges = RowRanges.builder()
+                .add(0, 10)
+                .add(10, 20)
+                .add(30, 30)
+                .add(40, 50)
+                .build();
+        assertEquals(ranges, RowRanges.builder().add(0, 20).add(40, 50).build());
+        assertEquals(ranges.getRowCount(), 30);
+        assertTrue(RowRanges.builder().build().isEmpty());
+        assertEquals(RowRanges.all(100).getRowCount(), 100);
+    }
+
+    @Test
+    public void testIntersect()
+    {
+        RowRanges left = RowRanges.builder().add(0, 20).add(40, 50).add(60, 100).build();
+        RowRanges right = RowRanges.builder().add(10, 45).add(70, 80).build();
+        assertEquals(left.intersect(right), RowRanges.builder().add(10, 20).add(40, 45).add(70, 80).build());
+        assertEquals(right.intersect(left), left.intersect(right));
+        assertTrue(left.intersect(RowRanges.builder().add(20, 40).build()).isEmpty());
+    }
+
+    @Test
+    public void testRowCounts()
+    {
+        RowRanges ranges = RowRanges.builder().add(10, 20).add(40, 50).build();
+        assertEquals(ranges.getUnselectedRowCount(0), 10);
+        assertEquals(ranges.getUnselectedRowCount(15), 0);
+        assertEquals(ranges.getUnselectedRowCount(20), 20);
+        assertEquals(ranges.getUnselectedRowCount(50), Long.MAX_VALUE);
+        assertEquals(ranges.getSelectedRowCount(0), 0);
+        assertEquals(ranges.getSelectedRowCount(15), 5);
+        assertEquals(ranges.getSelectedRowCount(40), 10);
+
+        assertTrue(ranges.overlaps(0, 11));
+        assertFalse(ranges.overlaps(0, 10));
+        assertFalse(ranges.overlaps(20, 40));
+        assertTrue(ranges.overlaps(45, 100));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.reader;
+
+import io.airlift.slice.Slice;
+import io.prestosql.parquet.ChunkReader;
+import io.prestosql.parquet.DiskRange;
+import io.prestosql.parquet.ParquetDataSource;
+import io.prestosql.parquet.ParquetDataSourceId;
+
+import java.util.Map;
+
+import static com.google.common.collect.ImmutableMap.toImmutableMap;
+import static java.lang.Math.toIntExact;
+import static java.util.Objects.requireNonNull;
+
+public class TestingParquetDataSource
+        implements ParquetDataSource
+{
+    private final Slice data;
+    private long readBytes;
+
+    public TestingParquetDataSource(Slice data)
+    {
+        this.data = requireNonNull(data, "data is null");
+    }
+
+    @Override
+    public ParquetDataSourceId getId()
+    {
+        return new ParquetDataSourceId("test");
+    }
+
+    @Override
+    public long getReadBytes()
+    {
+        return readBytes;
+    }
+
+    @Override
+    public long getReadTimeNanos()
+    {
+        return 0;
+    }
+
+    @Override
+    public long getSize()
+    {
+        return data.length();
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer)
+    {
+        readFully(position, buffer, 0, buffer.length);
+    }
+
+    @Override
+    public void readFully(long position, byte[] buffer, int bufferOffset, int bufferLength)
+    {
+        readBytes += bufferLength;
+        data.getBytes(toIntExact(position), buffer, bufferOffset, bufferLength);
+    }
+
+    @Override
+    public <K> Map<K, ChunkReader> planRead(Map<K, DiskRange> diskRanges)
+    {
+        return diskRanges.entrySet().stream()
+                .collect(toImmutableMap(Map.Entry::getKey, entry -> {
+                    DiskRange range = entry.getValue();
+                    return new ChunkReader()
+                    {
+                        @Override
+                        public Slice read()
+                        {
+                            readBytes += range.getLength();
+                            return data.slice(toIntExact(range.getOffset()), range.getLength());
+                        }
+
+                        @Override
+                        public void free() {}
+                    };
+                }));
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.parquet.writer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.airlift.units.DataSize;
+import io.prestosql.spi.Page;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.Type;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.FileSystem;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.column.statistics.LongStatistics;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.metadata.ColumnChunkMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.Types;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static io.airlift.slice.Slices.utf8Slice;
+import static io.airlift.units.DataSize.Unit.KILOBYTE;
+import static io.prestosql.parquet.reader.MetadataReader.readFooter;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static org.apache.parquet.hadoop.metadata.CompressionCodecName.SNAPPY;
+import static org.apache.parquet.schema.OriginalType.UTF8;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.BINARY;
+import static org.apache.parquet.schema.PrimitiveType.PrimitiveTypeName.INT64;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestParquetWriter
+{
+    private static final int ROWS = 100_000;
+
+    @Test
+    public void testRowGroupsAndStatistics()
+            throws IOException
+    {
+        MessageType messageType = Types.buildMessage()
+                .optional(INT64).named("id")
+                .optional(BINARY).as(UTF8).named("category")
+                .named("test");
+        List<Type> types = ImmutableList.of(BIGINT, VARCHAR);
+        ParquetWriterOptions writerOptions = new ParquetWriterOptions()
+                .withMaxRowGroupSize(new DataSize(256, KILOBYTE))
+                .withMaxPageSize(new DataSize(16, KILOBYTE));
+
+        File file = File.createTempFile("presto-parquet-writer", ".parquet");
+        try {
+            try (ParquetWriter writer = new ParquetWriter(new FileOutputStream(file), messageType, types, writerOptions, SNAPPY, "test", ImmutableMap.of("key", "value"))) {
+                for (int start = 0; start < ROWS; start += 10_000) {
+                    writer.write(createPage(start, 10_000));
+                }
+            }
+
+            ParquetMetadata metadata = readFooter(FileSystem.getLocal(new Configuration()), new Path(file.toURI()), file.length());
+            assertEquals(metadata.getFileMetaData().getSchema(), messageType);
+            assertEquals(metadata.getFileMetaData().getKeyValueMetaData(), ImmutableMap.of("key", "value"));
+
+            List<BlockMetaData> rowGroups = metadata.getBlocks();
+            assertTrue(rowGroups.size() > 1, "expected several row groups");
+            assertEquals(rowGroups.stream().mapToLong(BlockMetaData::getRowCount).sum(), ROWS);
+
+            long minId = Long.MAX_VALUE;
+            long maxId = Long.MIN_VALUE;
+            long nullCount = 0;
+            for (BlockMetaData rowGroup : rowGroups) {
+                ColumnChunkMetaData id = rowGroup.getColumns().get(0);
+                LongStatistics statistics = (LongStatistics) id.getStatistics();
+                minId = Math.min(minId, statistics.getMin());
+                maxId = Math.max(maxId, statistics.getMax());
+                nullCount += statistics.getNumNulls();
+
+                // the low cardinality column is dictionary encoded
+                ColumnChunkMetaData category = rowGroup.getColumns().get(1);
+                assertTrue(category.getDictionaryPageOffset() > 0);
+                assertTrue(category.getDictionaryPageOffset() < category.getFirstDataPageOffset());
+                assertEquals(category.getValueCount(), rowGroup.getRowCount());
+            }
+            assertEquals(minId, 1);
+            assertEquals(maxId, ROWS - 1);
+            assertEquals(nullCount, 1);
+        }
+        finally {
+            file.delete();
+        }
+    }
+
+    private static Page createPage(int start, int positionCount)
+    {
+        BlockBuilder ids = BIGINT.createBlockBuilder(null, positionCount);
+        BlockBuilder categories = VARCHAR.createBlockBuilder(null, positionCount);
+        for (int position = start; position < start + positionCount; position++) {
+            if (position == 0) {
+                ids.appendNull();
+            }
+            else {
+                BIGINT.writeLong(ids, position);
+            }
+            VARCHAR.writeSlice(categories, utf8Slice("category " + position % 10));
+        }
+        return new Page(ids.build(), categories.build());
+    }
+}
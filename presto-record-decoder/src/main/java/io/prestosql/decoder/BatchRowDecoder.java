@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.decoder;
+
+import io.prestosql.spi.block.BlockBuilder;
+
+import java.util.List;
+
+/**
+ * Decodes batches of rows directly into the blocks of the columns, without materializing
+ * the field values of each row.
+ */
+public interface BatchRowDecoder
+{
+    /**
+     * Decodes the rows, appending one position per row to each of the block builders.
+     *
+     * @param rows The row data to decode.
+     * @param output The block builders of the columns, in the order of the columns the decoder was created for.
+     * @param corrupt Set for each row which could not be decoded. The values of such a row are null.
+     */
+    void decodeRows(List<byte[]> rows, BlockBuilder[] output, boolean[] corrupt);
+}
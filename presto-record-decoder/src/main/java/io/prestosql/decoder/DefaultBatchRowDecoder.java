@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.decoder;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.spi.block.BlockBuilder;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Batch decoder for the formats without a dedicated implementation, which decodes the rows
+ * one by one with a {@link RowDecoder}.
+ */
+public class DefaultBatchRowDecoder
+        implements BatchRowDecoder
+{
+    private final RowDecoder rowDecoder;
+    private final List<DecoderColumnHandle> columns;
+
+    public DefaultBatchRowDecoder(RowDecoder rowDecoder, List<DecoderColumnHandle> columns)
+    {
+        this.rowDecoder = requireNonNull(rowDecoder, "rowDecoder is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+    }
+
+    @Override
+    public void decodeRows(List<byte[]> rows, BlockBuilder[] output, boolean[] corrupt)
+    {
+        checkArgument(output.length == columns.size(), "expected %s block builders, but got %s", columns.size(), output.length);
+
+        for (int row = 0; row < rows.size(); row++) {
+            Optional<Map<DecoderColumnHandle, FieldValueProvider>> decodedRow = rowDecoder.decodeRow(rows.get(row), null);
+            corrupt[row] = !decodedRow.isPresent();
+
+            for (int column = 0; column < columns.size(); column++) {
+                DecoderColumnHandle columnHandle = columns.get(column);
+                FieldValueProvider value = decodedRow.isPresent() ? decodedRow.get().get(columnHandle) : null;
+                if (value == null) {
+                    output[column].appendNull();
+                }
+                else {
+                    value.appendTo(columnHandle.getType(), output[column]);
+                }
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@ import com.google.common.collect.ImmutableMap;
 
 import javax.inject.Inject;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -37,4 +38,10 @@ public class DispatchingRowDecoderFactory
         checkArgument(factories.containsKey(dataFormat), "unknown data format '%s'", dataFormat);
         return factories.get(dataFormat).create(decoderParams, columns);
     }
+
+    public BatchRowDecoder createBatchDecoder(String dataFormat, Map<String, String> decoderParams, List<DecoderColumnHandle> columns)
+    {
+        checkArgument(factories.containsKey(dataFormat), "unknown data format '%s'", dataFormat);
+        return factories.get(dataFormat).createBatchDecoder(decoderParams, columns);
+    }
 }
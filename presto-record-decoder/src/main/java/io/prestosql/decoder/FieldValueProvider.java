@@ -16,6 +16,8 @@ package io.prestosql.decoder;
 import io.airlift.slice.Slice;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.Type;
 
 /**
  * Base class for all providers that return values for a selected column.
@@ -48,4 +50,33 @@ public abstract class FieldValueProvider
     }
 
     public abstract boolean isNull();
+
+    /**
+     * Appends the value to a block builder of the given type, so that page sources can build the
+     * blocks directly instead of going through a record cursor.
+     */
+    public void appendTo(Type type, BlockBuilder output)
+    {
+        if (isNull()) {
+            output.appendNull();
+            return;
+        }
+
+        Class<?> javaType = type.getJavaType();
+        if (javaType == boolean.class) {
+            type.writeBoolean(output, getBoolean());
+        }
+        else if (javaType == long.class) {
+            type.writeLong(output, getLong());
+        }
+        else if (javaType == double.class) {
+            type.writeDouble(output, getDouble());
+        }
+        else if (javaType == Slice.class) {
+            type.writeSlice(output, getSlice());
+        }
+        else {
+            type.writeObject(output, getBlock());
+        }
+    }
 }
@@ -13,10 +13,18 @@
  */
 package io.prestosql.decoder;
 
+import com.google.common.collect.ImmutableSet;
+
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
 public interface RowDecoderFactory
 {
     RowDecoder create(Map<String, String> decoderParams, Set<DecoderColumnHandle> columns);
+
+    default BatchRowDecoder createBatchDecoder(Map<String, String> decoderParams, List<DecoderColumnHandle> columns)
+    {
+        return new DefaultBatchRowDecoder(create(decoderParams, ImmutableSet.copyOf(columns)), columns);
+    }
 }
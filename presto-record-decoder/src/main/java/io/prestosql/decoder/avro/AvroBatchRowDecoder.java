@@ -0,0 +1,63 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.decoder.avro;
+
+import com.google.common.collect.ImmutableList;
+import io.prestosql.decoder.BatchRowDecoder;
+import io.prestosql.decoder.DecoderColumnHandle;
+import io.prestosql.spi.block.BlockBuilder;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+
+import java.util.List;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.decoder.avro.AvroRowDecoder.readRecord;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Avro batch decoder. The reader schema is expected to be projected to the mapped fields,
+ * so that the other fields are skipped when reading the records.
+ */
+public class AvroBatchRowDecoder
+        implements BatchRowDecoder
+{
+    private final DatumReader<GenericRecord> avroRecordReader;
+    private final List<DecoderColumnHandle> columns;
+    private final List<AvroColumnDecoder> columnDecoders;
+
+    public AvroBatchRowDecoder(DatumReader<GenericRecord> avroRecordReader, List<DecoderColumnHandle> columns)
+    {
+        this.avroRecordReader = requireNonNull(avroRecordReader, "avroRecordReader is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.columnDecoders = columns.stream()
+                .map(AvroColumnDecoder::new)
+                .collect(toImmutableList());
+    }
+
+    @Override
+    public void decodeRows(List<byte[]> rows, BlockBuilder[] output, boolean[] corrupt)
+    {
+        checkArgument(output.length == columns.size(), "expected %s block builders, but got %s", columns.size(), output.length);
+
+        for (int row = 0; row < rows.size(); row++) {
+            GenericRecord avroRecord = readRecord(avroRecordReader, rows.get(row));
+            corrupt[row] = false;
+            for (int column = 0; column < columns.size(); column++) {
+                columnDecoders.get(column).decodeField(avroRecord).appendTo(columns.get(column).getType(), output[column]);
+            }
+        }
+    }
+}
@@ -178,6 +178,17 @@ public class AvroColumnDecoder
         {
             return serializeObject(null, value, columnType, columnName);
         }
+
+        @Override
+        public void appendTo(Type type, BlockBuilder output)
+        {
+            // write the structural values directly into the output instead of building an intermediate block
+            if (value != null && (columnType instanceof ArrayType || columnType instanceof MapType)) {
+                serializeObject(output, value, columnType, columnName);
+                return;
+            }
+            super.appendTo(type, output);
+        }
     }
 
     private static Slice getSlice(Object value, Type type, String columnName)
@@ -55,7 +55,16 @@ public class AvroRowDecoder
     @Override
     public Optional<Map<DecoderColumnHandle, FieldValueProvider>> decodeRow(byte[] data, Map<String, String> dataMap)
     {
-        GenericRecord avroRecord;
+        GenericRecord avroRecord = readRecord(avroRecordReader, data);
+
+        return Optional.of(columnDecoders.entrySet().stream()
+                .collect(toImmutableMap(
+                        Map.Entry::getKey,
+                        entry -> entry.getValue().decodeField(avroRecord))));
+    }
+
+    static GenericRecord readRecord(DatumReader<GenericRecord> avroRecordReader, byte[] data)
+    {
         DataFileStream<GenericRecord> dataFileReader = null;
         try {
             // Assumes producer uses DataFileWriter or data comes in this particular format.
@@ -64,10 +73,11 @@ public class AvroRowDecoder
             if (!dataFileReader.hasNext()) {
                 throw new PrestoException(GENERIC_INTERNAL_ERROR, "No avro record found");
             }
-            avroRecord = dataFileReader.next();
+            GenericRecord avroRecord = dataFileReader.next();
             if (dataFileReader.hasNext()) {
                 throw new PrestoException(GENERIC_INTERNAL_ERROR, "Unexpected extra record found");
             }
+            return avroRecord;
         }
         catch (Exception e) {
             throw new PrestoException(GENERIC_INTERNAL_ERROR, "Decoding Avro record failed.", e);
@@ -75,14 +85,9 @@ public class AvroRowDecoder
         finally {
             closeQuietly(dataFileReader);
         }
-
-        return Optional.of(columnDecoders.entrySet().stream()
-                .collect(toImmutableMap(
-                        Map.Entry::getKey,
-                        entry -> entry.getValue().decodeField(avroRecord))));
     }
 
-    private void closeQuietly(DataFileStream<GenericRecord> stream)
+    private static void closeQuietly(DataFileStream<GenericRecord> stream)
     {
         try {
             if (stream != null) {
@@ -13,15 +13,21 @@
  */
 package io.prestosql.decoder.avro;
 
+import com.google.common.base.Splitter;
+import io.prestosql.decoder.BatchRowDecoder;
 import io.prestosql.decoder.DecoderColumnHandle;
 import io.prestosql.decoder.RowDecoder;
 import io.prestosql.decoder.RowDecoderFactory;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericDatumReader;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static java.util.Objects.requireNonNull;
 
 public class AvroRowDecoderFactory
@@ -34,4 +40,62 @@ public class AvroRowDecoderFactory
         Schema parsedSchema = (new Schema.Parser()).parse(dataSchema);
         return new AvroRowDecoder(new GenericDatumReader<>(parsedSchema), columns);
     }
+
+    @Override
+    public BatchRowDecoder createBatchDecoder(Map<String, String> decoderParams, List<DecoderColumnHandle> columns)
+    {
+        String dataSchema = requireNonNull(decoderParams.get("dataSchema"), "dataSchema cannot be null");
+        Schema parsedSchema = (new Schema.Parser()).parse(dataSchema);
+
+        PathNode root = new PathNode();
+        for (DecoderColumnHandle column : columns) {
+            PathNode node = root;
+            if (column.getMapping() != null) {
+                for (String pathElement : Splitter.on('/').omitEmptyStrings().split(column.getMapping())) {
+                    node = node.children.computeIfAbsent(pathElement, name -> new PathNode());
+                }
+            }
+            node.mapped = true;
+        }
+        return new AvroBatchRowDecoder(new GenericDatumReader<>(projectSchema(parsedSchema, root)), columns);
+    }
+
+    /**
+     * Removes the fields of the records which are not on the path of any of the columns, so that the
+     * reader skips them instead of decoding them.
+     */
+    private static Schema projectSchema(Schema schema, PathNode node)
+    {
+        if (node.mapped) {
+            return schema;
+        }
+
+        switch (schema.getType()) {
+            case RECORD:
+                List<Schema.Field> fields = new ArrayList<>();
+                for (Schema.Field field : schema.getFields()) {
+                    PathNode child = node.children.get(field.name());
+                    if (child != null) {
+                        Schema.Field projectedField = new Schema.Field(field.name(), projectSchema(field.schema(), child), field.doc(), field.defaultVal(), field.order());
+                        field.aliases().forEach(projectedField::addAlias);
+                        fields.add(projectedField);
+                    }
+                }
+                Schema projected = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError(), fields);
+                schema.getAliases().forEach(projected::addAlias);
+                return projected;
+            case UNION:
+                return Schema.createUnion(schema.getTypes().stream()
+                        .map(type -> projectSchema(type, node))
+                        .collect(toImmutableList()));
+            default:
+                return schema;
+        }
+    }
+
+    private static class PathNode
+    {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private boolean mapped;
+    }
 }
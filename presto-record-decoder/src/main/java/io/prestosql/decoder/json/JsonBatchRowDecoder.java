@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.decoder.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+import io.prestosql.decoder.BatchRowDecoder;
+import io.prestosql.decoder.DecoderColumnHandle;
+import io.prestosql.spi.block.BlockBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkState;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * JSON batch decoder, which streams through the documents and only builds the trees of the
+ * values of the mapped fields. The other fields are skipped.
+ */
+public class JsonBatchRowDecoder
+        implements BatchRowDecoder
+{
+    private final ObjectMapper objectMapper;
+    private final List<DecoderColumnHandle> columns;
+    private final List<JsonFieldDecoder> fieldDecoders;
+    private final PathNode root = new PathNode();
+
+    private final JsonNode[] values;
+
+    JsonBatchRowDecoder(ObjectMapper objectMapper, List<DecoderColumnHandle> columns, List<JsonFieldDecoder> fieldDecoders)
+    {
+        this.objectMapper = requireNonNull(objectMapper, "objectMapper is null");
+        this.columns = ImmutableList.copyOf(requireNonNull(columns, "columns is null"));
+        this.fieldDecoders = ImmutableList.copyOf(requireNonNull(fieldDecoders, "fieldDecoders is null"));
+        checkArgument(columns.size() == fieldDecoders.size(), "columns and fieldDecoders do not match");
+
+        for (int column = 0; column < columns.size(); column++) {
+            DecoderColumnHandle columnHandle = columns.get(column);
+            checkState(columnHandle.getMapping() != null, "No mapping for %s", columnHandle.getName());
+            PathNode node = root;
+            for (String pathElement : Splitter.on('/').omitEmptyStrings().split(columnHandle.getMapping())) {
+                node = node.children.computeIfAbsent(pathElement, name -> new PathNode());
+            }
+            node.columns.add(column);
+        }
+        this.values = new JsonNode[columns.size()];
+    }
+
+    @Override
+    public void decodeRows(List<byte[]> rows, BlockBuilder[] output, boolean[] corrupt)
+    {
+        checkArgument(output.length == columns.size(), "expected %s block builders, but got %s", columns.size(), output.length);
+
+        for (int row = 0; row < rows.size(); row++) {
+            // the values are only appended once the whole document is known to be valid
+            Arrays.fill(values, MissingNode.getInstance());
+            boolean decoded = decode(rows.get(row));
+            corrupt[row] = !decoded;
+
+            for (int column = 0; column < columns.size(); column++) {
+                if (decoded) {
+                    fieldDecoders.get(column).decode(values[column]).appendTo(columns.get(column).getType(), output[column]);
+                }
+                else {
+                    output[column].appendNull();
+                }
+            }
+        }
+    }
+
+    private boolean decode(byte[] data)
+    {
+        try (JsonParser parser = objectMapper.getFactory().createParser(data)) {
+            if (parser.nextToken() != null) {
+                readValue(parser, root);
+            }
+            return true;
+        }
+        catch (IOException | RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Reads the value starting at the current token of the parser, and leaves the parser at its last token.
+     */
+    private void readValue(JsonParser parser, PathNode node)
+            throws IOException
+    {
+        if (!node.columns.isEmpty()) {
+            assignValues(node, objectMapper.readTree(parser));
+            return;
+        }
+
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            PathNode child = node.children.get(parser.getCurrentName());
+            parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+                continue;
+            }
+            // the last of duplicate fields wins, as it does when reading the whole tree
+            clearValues(child);
+            readValue(parser, child);
+        }
+    }
+
+    private void assignValues(PathNode node, JsonNode value)
+    {
+        for (int column : node.columns) {
+            values[column] = value;
+        }
+        for (Map.Entry<String, PathNode> child : node.children.entrySet()) {
+            if (value.has(child.getKey())) {
+                assignValues(child.getValue(), value.path(child.getKey()));
+            }
+        }
+    }
+
+    private void clearValues(PathNode node)
+    {
+        for (int column : node.columns) {
+            values[column] = MissingNode.getInstance();
+        }
+        for (PathNode child : node.children.values()) {
+            clearValues(child);
+        }
+    }
+
+    private static class PathNode
+    {
+        private final Map<String, PathNode> children = new HashMap<>();
+        private final List<Integer> columns = new ArrayList<>();
+    }
+}
@@ -14,6 +14,7 @@
 package io.prestosql.decoder.json;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.prestosql.decoder.BatchRowDecoder;
 import io.prestosql.decoder.DecoderColumnHandle;
 import io.prestosql.decoder.RowDecoder;
 import io.prestosql.decoder.RowDecoderFactory;
@@ -21,11 +22,13 @@ import io.prestosql.spi.PrestoException;
 
 import javax.inject.Inject;
 
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.collect.ImmutableList.toImmutableList;
 import static com.google.common.collect.ImmutableMap.toImmutableMap;
 import static io.prestosql.spi.StandardErrorCode.GENERIC_USER_ERROR;
 import static java.lang.String.format;
@@ -50,6 +53,15 @@ public class JsonRowDecoderFactory
         return new JsonRowDecoder(objectMapper, chooseFieldDecoders(columns));
     }
 
+    @Override
+    public BatchRowDecoder createBatchDecoder(Map<String, String> decoderParams, List<DecoderColumnHandle> columns)
+    {
+        requireNonNull(columns, "columnHandles is null");
+        return new JsonBatchRowDecoder(objectMapper, columns, columns.stream()
+                .map(this::chooseFieldDecoder)
+                .collect(toImmutableList()));
+    }
+
     private Map<DecoderColumnHandle, JsonFieldDecoder> chooseFieldDecoders(Set<DecoderColumnHandle> columns)
     {
         return columns.stream()
@@ -0,0 +1,233 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.decoder;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.airlift.json.ObjectMapperProvider;
+import io.prestosql.decoder.avro.AvroRowDecoderFactory;
+import io.prestosql.decoder.json.JsonRowDecoderFactory;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import org.apache.avro.Schema;
+import org.apache.avro.SchemaBuilder;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.VerboseMode;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.collect.ImmutableList.toImmutableList;
+import static io.prestosql.spi.type.BigintType.BIGINT;
+import static io.prestosql.spi.type.VarcharType.VARCHAR;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@SuppressWarnings("MethodMayBeStatic")
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(3)
+@Warmup(iterations = 20, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 20, time = 500, timeUnit = TimeUnit.MILLISECONDS)
+@BenchmarkMode(Mode.AverageTime)
+public class BenchmarkBatchRowDecoders
+{
+    private static final int ROWS = 10_000;
+    private static final int FIELDS = 20;
+
+    @Benchmark
+    public Object batchDecoder(BenchmarkData data)
+    {
+        return decodeRows(data.batchDecoder, data);
+    }
+
+    @Benchmark
+    public Object rowDecoder(BenchmarkData data)
+    {
+        return decodeRows(data.rowDecoder, data);
+    }
+
+    private static Block[] decodeRows(BatchRowDecoder decoder, BenchmarkData data)
+    {
+        BlockBuilder[] output = data.columns.stream()
+                .map(column -> column.getType().createBlockBuilder(null, data.rows.size()))
+                .toArray(BlockBuilder[]::new);
+        decoder.decodeRows(data.rows, output, new boolean[data.rows.size()]);
+
+        Block[] blocks = new Block[output.length];
+        for (int column = 0; column < output.length; column++) {
+            blocks[column] = output[column].build();
+        }
+        return blocks;
+    }
+
+    @Test
+    public void testBatchDecoder()
+    {
+        for (String format : ImmutableList.of("json", "avro")) {
+            BenchmarkData data = new BenchmarkData();
+            data.format = format;
+            data.setup();
+            batchDecoder(data);
+            rowDecoder(data);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class BenchmarkData
+    {
+        @Param({"json", "avro"})
+        private String format = "json";
+
+        @Param({"2", "20"})
+        private int projectedColumns = 2;
+
+        private List<DecoderColumnHandle> columns;
+        private List<byte[]> rows;
+        private BatchRowDecoder batchDecoder;
+        private BatchRowDecoder rowDecoder;
+
+        @Setup
+        public void setup()
+        {
+            // every other field is a string, and every field except the first has a nested field
+            Random random = new Random(0);
+            ImmutableList.Builder<DecoderColumnHandle> columns = ImmutableList.builder();
+            for (int field = 0; field < projectedColumns; field++) {
+                String mapping = field == 0 ? "field_0" : "field_" + field + "/value";
+                columns.add(new DecoderTestColumnHandle(field, "column_" + field, field % 2 == 0 ? BIGINT : VARCHAR, mapping, null, null, false, false, false));
+            }
+            this.columns = columns.build();
+
+            RowDecoderFactory decoderFactory;
+            Map<String, String> decoderParams;
+            switch (format) {
+                case "json":
+                    decoderFactory = new JsonRowDecoderFactory(new ObjectMapperProvider().get());
+                    decoderParams = ImmutableMap.of();
+                    rows = random.ints(ROWS)
+                            .mapToObj(value -> createJsonRow(value, random))
+                            .collect(toImmutableList());
+                    break;
+                case "avro":
+                    decoderFactory = new AvroRowDecoderFactory();
+                    Schema schema = createAvroSchema();
+                    decoderParams = ImmutableMap.of("dataSchema", schema.toString());
+                    rows = random.ints(ROWS)
+                            .mapToObj(value -> createAvroRow(schema, value, random))
+                            .collect(toImmutableList());
+                    break;
+                default:
+                    throw new UnsupportedOperationException("Unsupported format: " + format);
+            }
+
+            batchDecoder = decoderFactory.createBatchDecoder(decoderParams, this.columns);
+            rowDecoder = new DefaultBatchRowDecoder(decoderFactory.create(decoderParams, ImmutableSet.copyOf(this.columns)), this.columns);
+        }
+
+        private static byte[] createJsonRow(int value, Random random)
+        {
+            StringBuilder json = new StringBuilder("{\"field_0\": ").append(value);
+            for (int field = 1; field < FIELDS; field++) {
+                json.append(", \"field_").append(field).append("\": {\"value\": ");
+                if (field % 2 == 0) {
+                    json.append(random.nextLong());
+                }
+                else {
+                    json.append('"').append(randomString(random)).append('"');
+                }
+                json.append(", \"other\": [").append(random.nextInt()).append(", ").append(random.nextInt()).append("]}");
+            }
+            return json.append('}').toString().getBytes(UTF_8);
+        }
+
+        private static Schema createAvroSchema()
+        {
+            SchemaBuilder.FieldAssembler<Schema> fields = SchemaBuilder.record("row").fields()
+                    .requiredLong("field_0");
+            for (int field = 1; field < FIELDS; field++) {
+                Schema valueSchema = SchemaBuilder.record("field_" + field).fields()
+                        .name("value").type(field % 2 == 0 ? Schema.create(Schema.Type.LONG) : Schema.create(Schema.Type.STRING)).noDefault()
+                        .name("other").type().array().items().intType().noDefault()
+                        .endRecord();
+                fields = fields.name("field_" + field).type(valueSchema).noDefault();
+            }
+            return fields.endRecord();
+        }
+
+        private static byte[] createAvroRow(Schema schema, int value, Random random)
+        {
+            GenericData.Record record = new GenericData.Record(schema);
+            record.put("field_0", (long) value);
+            for (int field = 1; field < FIELDS; field++) {
+                Schema valueSchema = schema.getField("field_" + field).schema();
+                GenericData.Record nested = new GenericData.Record(valueSchema);
+                nested.put("value", field % 2 == 0 ? random.nextLong() : randomString(random));
+                nested.put("other", ImmutableList.of(random.nextInt(), random.nextInt()));
+                record.put("field_" + field, nested);
+            }
+
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<>(schema))) {
+                writer.create(schema, output);
+                writer.append(record);
+            }
+            catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return output.toByteArray();
+        }
+
+        private static String randomString(Random random)
+        {
+            return Long.toString(random.nextLong(), Character.MAX_RADIX);
+        }
+    }
+
+    public static void main(String[] args)
+            throws Throwable
+    {
+        // assure the benchmarks are valid before running
+        new BenchmarkBatchRowDecoders().testBatchDecoder();
+
+        Options options = new OptionsBuilder()
+                .verbosity(VerboseMode.NORMAL)
+                .include(".*" + BenchmarkBatchRowDecoders.class.getSimpleName() + ".*")
+                .build();
+        new Runner(options).run();
+    }
+}
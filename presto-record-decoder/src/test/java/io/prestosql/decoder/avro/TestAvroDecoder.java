@@ -23,6 +23,7 @@ import io.prestosql.decoder.RowDecoder;
 import io.prestosql.metadata.Metadata;
 import io.prestosql.spi.PrestoException;
 import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
 import io.prestosql.spi.type.ArrayType;
 import io.prestosql.spi.type.BigintType;
 import io.prestosql.spi.type.BooleanType;
@@ -52,6 +53,7 @@ import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
+import static io.prestosql.decoder.util.DecoderTestUtil.checkBatchDecoder;
 import static io.prestosql.decoder.util.DecoderTestUtil.checkIsNull;
 import static io.prestosql.decoder.util.DecoderTestUtil.checkValue;
 import static io.prestosql.metadata.MetadataManager.createTestMetadataManager;
@@ -64,6 +66,7 @@ import static io.prestosql.spi.type.VarbinaryType.VARBINARY;
 import static io.prestosql.spi.type.VarcharType.VARCHAR;
 import static io.prestosql.spi.type.VarcharType.createUnboundedVarcharType;
 import static io.prestosql.spi.type.VarcharType.createVarcharType;
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testng.Assert.assertEquals;
@@ -489,6 +492,87 @@ public class TestAvroDecoder
         checkMapValue(decodedRow, row, expectedValues);
     }
 
+    @Test
+    public void testStructuralValuesAppendedToBlockBuilder()
+            throws Exception
+    {
+        DecoderTestColumnHandle arrayColumn = new DecoderTestColumnHandle(0, "row", new ArrayType(BIGINT), "array_field", null, null, false, false, false);
+        Map<DecoderColumnHandle, FieldValueProvider> decodedRow = buildAndDecodeColumn(arrayColumn, "array_field", "{\"type\": \"array\", \"items\": [\"long\"]}", ImmutableList.of(114L, 136L));
+        assertEquals(appendToBlockBuilder(decodedRow, arrayColumn), ImmutableList.of(114L, 136L));
+
+        DecoderTestColumnHandle mapColumn = new DecoderTestColumnHandle(0, "row", VARCHAR_MAP_TYPE, "map_field", null, null, false, false, false);
+        decodedRow = buildAndDecodeColumn(mapColumn, "map_field", "{\"type\": \"map\", \"values\": \"string\"}", ImmutableMap.of("key1", "abc", "key2", "def"));
+        assertEquals(appendToBlockBuilder(decodedRow, mapColumn), ImmutableMap.of("key1", "abc", "key2", "def"));
+    }
+
+    @Test
+    public void testBatchDecoder()
+    {
+        String nestedSchema = "{\"type\": \"record\", \"name\": \"Nested\", \"fields\": [" +
+                "{\"name\": \"id\", \"type\": \"long\"}, " +
+                "{\"name\": \"skipped\", \"type\": \"double\"}, " +
+                "{\"name\": \"name\", \"type\": [\"null\", \"string\"]}]}";
+        Map<String, String> fields = ImmutableMap.<String, String>builder()
+                .put("id", "\"long\"")
+                .put("skipped", "\"string\"")
+                .put("nested", "[\"null\", " + nestedSchema + "]")
+                .put("array_field", "{\"type\": \"array\", \"items\": \"long\"}")
+                .put("map_field", "{\"type\": \"map\", \"values\": \"string\"}")
+                .build();
+        Schema writerSchema = new Schema.Parser().parse(getAvroSchema(fields));
+        Schema nestedWriterSchema = writerSchema.getField("nested").schema().getTypes().get(1);
+
+        GenericData.Record nested = buildAvroRecord(nestedWriterSchema, new ByteArrayOutputStream(), ImmutableMap.of(
+                "id", 2L,
+                "skipped", 1.5,
+                "name", "nested_name"));
+        Map<String, Object> values = new HashMap<>();
+        values.put("id", 1L);
+        values.put("skipped", "skipped_value");
+        values.put("nested", nested);
+        values.put("array_field", ImmutableList.of(3L, 4L));
+        values.put("map_field", ImmutableMap.of("key", "value"));
+        byte[] row1 = buildAvroData(writerSchema, values);
+        values.put("id", 5L);
+        values.put("nested", null);
+        values.put("array_field", ImmutableList.of());
+        byte[] row2 = buildAvroData(writerSchema, values);
+
+        // the data schema adds a field which the data was not written with
+        String dataSchema = getAvroSchema(ImmutableMap.<String, String>builder()
+                .putAll(fields)
+                .put("added_field", "[\"null\", \"string\"]")
+                .build());
+
+        List<DecoderColumnHandle> columns = ImmutableList.of(
+                new DecoderTestColumnHandle(0, "nested_name", VARCHAR, "nested/name", null, null, false, false, false),
+                new DecoderTestColumnHandle(1, "id", BIGINT, "id", null, null, false, false, false),
+                new DecoderTestColumnHandle(2, "array_field", new ArrayType(BIGINT), "array_field", null, null, false, false, false),
+                new DecoderTestColumnHandle(3, "map_field", VARCHAR_MAP_TYPE, "map_field", null, null, false, false, false),
+                new DecoderTestColumnHandle(4, "nested_id", BIGINT, "nested/id", null, null, false, false, false),
+                new DecoderTestColumnHandle(5, "added_field", VARCHAR, "added_field", null, null, false, false, false),
+                new DecoderTestColumnHandle(6, "missing", BIGINT, "nested/missing", null, null, false, false, false));
+
+        assertTrue(DECODER_FACTORY.createBatchDecoder(ImmutableMap.of(DATA_SCHEMA, dataSchema), columns) instanceof AvroBatchRowDecoder);
+        Block[] blocks = checkBatchDecoder(DECODER_FACTORY, ImmutableMap.of(DATA_SCHEMA, dataSchema), columns, ImmutableList.of(row1, row2));
+
+        assertEquals(VARCHAR.getObjectValue(SESSION, blocks[0], 0), "nested_name");
+        assertTrue(blocks[0].isNull(1));
+        assertEquals(BIGINT.getLong(blocks[1], 1), 5);
+        assertEquals(new ArrayType(BIGINT).getObjectValue(SESSION, blocks[2], 0), ImmutableList.of(3L, 4L));
+        assertEquals(BIGINT.getLong(blocks[4], 0), 2);
+        assertTrue(blocks[5].isNull(0));
+    }
+
+    private static Object appendToBlockBuilder(Map<DecoderColumnHandle, FieldValueProvider> decodedRow, DecoderColumnHandle handle)
+    {
+        FieldValueProvider provider = decodedRow.get(handle);
+        assertNotNull(provider);
+        BlockBuilder output = handle.getType().createBlockBuilder(null, 1);
+        provider.appendTo(handle.getType(), output);
+        return handle.getType().getObjectValue(SESSION, output.build(), 0);
+    }
+
     private static void checkArrayValue(Map<DecoderColumnHandle, FieldValueProvider> decodedRow, DecoderColumnHandle handle, long[] expected)
     {
         Block actualBlock = getBlock(decodedRow, handle);
@@ -13,6 +13,7 @@
  */
 package io.prestosql.decoder.json;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.io.ByteStreams;
 import io.airlift.json.ObjectMapperProvider;
@@ -21,15 +22,18 @@ import io.prestosql.decoder.DecoderTestColumnHandle;
 import io.prestosql.decoder.FieldValueProvider;
 import io.prestosql.decoder.RowDecoder;
 import io.prestosql.spi.PrestoException;
+import io.prestosql.spi.block.Block;
 import io.prestosql.spi.type.Type;
 import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
 import org.testng.annotations.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import static io.prestosql.decoder.util.DecoderTestUtil.checkBatchDecoder;
 import static io.prestosql.decoder.util.DecoderTestUtil.checkIsNull;
 import static io.prestosql.decoder.util.DecoderTestUtil.checkValue;
 import static io.prestosql.spi.type.BigintType.BIGINT;
@@ -133,6 +137,41 @@ public class TestJsonDecoder
         checkValue(decodedRow.get(), column4, 2342);
     }
 
+    @Test
+    public void testBatchDecoder()
+            throws Exception
+    {
+        DecoderTestColumnHandle column1 = new DecoderTestColumnHandle(0, "column1", BIGINT, "id", null, null, false, false, false);
+        DecoderTestColumnHandle column2 = new DecoderTestColumnHandle(1, "column2", createVarcharType(10), "user/screen_name", null, null, false, false, false);
+        DecoderTestColumnHandle column3 = new DecoderTestColumnHandle(2, "column3", BOOLEAN, "user/geo_enabled", null, null, false, false, false);
+        DecoderTestColumnHandle column4 = new DecoderTestColumnHandle(3, "column4", BIGINT, "user/statuses_count", null, null, false, false, false);
+        DecoderTestColumnHandle column5 = new DecoderTestColumnHandle(4, "column5", DOUBLE, "very/deep/double", null, null, false, false, false);
+        DecoderTestColumnHandle column6 = new DecoderTestColumnHandle(5, "column6", BIGINT, "id", null, null, false, false, false);
+        List<DecoderColumnHandle> columns = ImmutableList.of(column1, column2, column3, column4, column5, column6);
+
+        List<byte[]> rows = ImmutableList.of(
+                ByteStreams.toByteArray(TestJsonDecoder.class.getResourceAsStream("/decoder/json/message.json")),
+                "{\"skipped\": {\"id\": [1, {\"user\": 2}]}, \"id\": 3, \"user\": {\"screen_name\": \"abc\", \"geo_enabled\": false}}".getBytes(StandardCharsets.UTF_8),
+                "{\"id\": 4, \"user\": {\"statuses_count\": 5}, \"user\": {\"screen_name\": \"def\"}, \"id\": 6}".getBytes(StandardCharsets.UTF_8),
+                "{\"id\": 7, \"very\": [{\"deep\": 8}], \"user\": \"ghi\"}".getBytes(StandardCharsets.UTF_8),
+                "{\"id\": 9, \"user\": {\"screen_name\": ".getBytes(StandardCharsets.UTF_8),
+                "{\"id\": 10} trailing".getBytes(StandardCharsets.UTF_8),
+                new byte[0],
+                "[1, 2, 3]".getBytes(StandardCharsets.UTF_8),
+                "{\"very\": {\"deep\": {\"double\": 1.5}}}".getBytes(StandardCharsets.UTF_8));
+
+        assertTrue(DECODER_FACTORY.createBatchDecoder(emptyMap(), columns) instanceof JsonBatchRowDecoder);
+        Block[] blocks = checkBatchDecoder(DECODER_FACTORY, emptyMap(), columns, rows);
+
+        // the last of duplicate fields is decoded
+        assertEquals(BIGINT.getLong(blocks[0], 2), 6);
+        assertTrue(blocks[3].isNull(2));
+        assertEquals(blocks[1].getSlice(2, 0, blocks[1].getSliceLength(2)).toStringUtf8(), "def");
+        // malformed documents are decoded as nulls
+        assertTrue(blocks[0].isNull(4));
+        assertEquals(DOUBLE.getDouble(blocks[4], 8), 1.5);
+    }
+
     @Test
     public void testSupportedDataTypeValidation()
     {
@@ -13,11 +13,20 @@
  */
 package io.prestosql.decoder.util;
 
+import com.google.common.collect.ImmutableSet;
+import io.prestosql.decoder.BatchRowDecoder;
 import io.prestosql.decoder.DecoderColumnHandle;
+import io.prestosql.decoder.DefaultBatchRowDecoder;
 import io.prestosql.decoder.FieldValueProvider;
+import io.prestosql.decoder.RowDecoderFactory;
+import io.prestosql.spi.block.Block;
+import io.prestosql.spi.block.BlockBuilder;
+import io.prestosql.spi.type.Type;
 
+import java.util.List;
 import java.util.Map;
 
+import static io.prestosql.testing.TestingConnectorSession.SESSION;
 import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertNotNull;
 import static org.testng.Assert.assertTrue;
@@ -60,4 +69,47 @@ public final class DecoderTestUtil
         assertNotNull(provider);
         assertTrue(provider.isNull());
     }
+
+    /**
+     * Verifies that the batch decoder of the factory decodes the rows to the same values as its row decoder.
+     *
+     * @return the blocks decoded by the batch decoder
+     */
+    public static Block[] checkBatchDecoder(RowDecoderFactory decoderFactory, Map<String, String> decoderParams, List<DecoderColumnHandle> columns, List<byte[]> rows)
+    {
+        BatchRowDecoder expectedDecoder = new DefaultBatchRowDecoder(decoderFactory.create(decoderParams, ImmutableSet.copyOf(columns)), columns);
+        boolean[] expectedCorrupt = new boolean[rows.size()];
+        Block[] expected = decodeRows(expectedDecoder, columns, rows, expectedCorrupt);
+
+        BatchRowDecoder batchDecoder = decoderFactory.createBatchDecoder(decoderParams, columns);
+        boolean[] actualCorrupt = new boolean[rows.size()];
+        Block[] actual = decodeRows(batchDecoder, columns, rows, actualCorrupt);
+
+        assertEquals(actualCorrupt, expectedCorrupt);
+        for (int column = 0; column < columns.size(); column++) {
+            Type type = columns.get(column).getType();
+            assertEquals(actual[column].getPositionCount(), rows.size());
+            for (int position = 0; position < rows.size(); position++) {
+                assertEquals(
+                        type.getObjectValue(SESSION, actual[column], position),
+                        type.getObjectValue(SESSION, expected[column], position),
+                        "column " + columns.get(column).getName() + ", row " + position);
+            }
+        }
+        return actual;
+    }
+
+    private static Block[] decodeRows(BatchRowDecoder decoder, List<DecoderColumnHandle> columns, List<byte[]> rows, boolean[] corrupt)
+    {
+        BlockBuilder[] output = columns.stream()
+                .map(column -> column.getType().createBlockBuilder(null, rows.size()))
+                .toArray(BlockBuilder[]::new);
+        decoder.decodeRows(rows, output, corrupt);
+
+        Block[] blocks = new Block[output.length];
+        for (int column = 0; column < output.length; column++) {
+            blocks[column] = output[column].build();
+        }
+        return blocks;
+    }
 }
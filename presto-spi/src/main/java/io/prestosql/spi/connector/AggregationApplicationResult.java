@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.connector;
+
+import io.prestosql.spi.expression.ConnectorExpression;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
+import static java.util.Objects.requireNonNull;
+
+public class AggregationApplicationResult<T>
+{
+    private final T handle;
+    private final List<ConnectorExpression> projections;
+    private final List<ProjectionApplicationResult.Assignment> assignments;
+    private final Map<ColumnHandle, ColumnHandle> groupingColumnMapping;
+
+    public AggregationApplicationResult(
+            T handle,
+            List<ConnectorExpression> projections,
+            List<ProjectionApplicationResult.Assignment> assignments,
+            Map<ColumnHandle, ColumnHandle> groupingColumnMapping)
+    {
+        requireNonNull(projections, "projections is null");
+        requireNonNull(assignments, "assignments is null");
+        requireNonNull(groupingColumnMapping, "groupingColumnMapping is null");
+
+        this.handle = requireNonNull(handle, "handle is null");
+
+        this.projections = unmodifiableList(new ArrayList<>(projections));
+        this.assignments = unmodifiableList(new ArrayList<>(assignments));
+        this.groupingColumnMapping = unmodifiableMap(new HashMap<>(groupingColumnMapping));
+    }
+
+    public T getHandle()
+    {
+        return handle;
+    }
+
+    /**
+     * Expressions producing the aggregation results, one per requested aggregate, in the same order.
+     * The expressions may only refer to the variables of {@link #getAssignments()}.
+     */
+    public List<ConnectorExpression> getProjections()
+    {
+        return projections;
+    }
+
+    public List<ProjectionApplicationResult.Assignment> getAssignments()
+    {
+        return assignments;
+    }
+
+    /**
+     * Mapping from the grouping columns of the original table to the columns exposing them in the derived table.
+     */
+    public Map<ColumnHandle, ColumnHandle> getGroupingColumnMapping()
+    {
+        return groupingColumnMapping;
+    }
+}
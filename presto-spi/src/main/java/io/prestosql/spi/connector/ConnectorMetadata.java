@@ -229,6 +229,16 @@ public interface ConnectorMetadata
         return TableStatistics.empty();
     }
 
+    /**
+     * Get a version of the data that can be read through the table handle. The version is opaque
+     * to the engine, and must change whenever that data changes. Return empty if the connector
+     * cannot tell when the data changes, in which case results over the table are never reused.
+     */
+    default OptionalLong getTableDataVersion(ConnectorSession session, ConnectorTableHandle tableHandle)
+    {
+        return OptionalLong.empty();
+    }
+
     /**
      * Creates a schema.
      */
@@ -691,6 +701,35 @@ public interface ConnectorMetadata
         return Optional.empty();
     }
 
+    /**
+     * Attempt to push down the provided TopN, i.e. the first {@code topNCount} rows in the provided sort order,
+     * into the table.
+     * <p>
+     * Connectors can indicate whether they don't support TopN pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports TopN pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The sort items refer to the columns of the table through the names of the provided assignments.
+     * <p>
+     * If the connector can only produce the first rows of each split, e.g. because the splits are read
+     * independently, it should return a non-empty result with the "TopN guaranteed" flag set to false,
+     * so that the engine keeps computing the final TopN.
+     */
+    default Optional<TopNApplicationResult<ConnectorTableHandle>> applyTopN(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            long topNCount,
+            List<SortItem> sortItems,
+            Map<String, ColumnHandle> assignments)
+    {
+        return Optional.empty();
+    }
+
     /**
      * Attempt to push down the provided constraint into the table. This method is provided as replacement to
      * {@link ConnectorMetadata#getTableLayouts(ConnectorSession, ConnectorTableHandle, Constraint, Optional)} to ease
@@ -792,4 +831,67 @@ public interface ConnectorMetadata
     {
         return Optional.empty();
     }
+
+    /**
+     * Attempt to push down the aggregation into the table.
+     * <p>
+     * Connectors can indicate whether they don't support aggregation pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports aggregation pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The aggregates refer to the table columns through the variables of the assignments. The grouping sets
+     * are expressed in terms of the table columns. If the method returns a result, the derived table produces
+     * one row per group, exposing the grouping columns (see {@link AggregationApplicationResult#getGroupingColumnMapping()})
+     * and the columns listed in the assignments of the result. The projections of the result compute the
+     * aggregates, in the order they were requested.
+     * <p>
+     * The aggregation must be fully applied by the connector: the derived table has to produce the final
+     * result of the aggregation, since the engine does not apply it again.
+     */
+    default Optional<AggregationApplicationResult<ConnectorTableHandle>> applyAggregation(
+            ConnectorSession session,
+            ConnectorTableHandle handle,
+            List<AggregateFunction> aggregates,
+            Map<String, ColumnHandle> assignments,
+            List<List<ColumnHandle>> groupingSets)
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Attempt to push down the join of two tables of this connector into a single table.
+     * <p>
+     * Connectors can indicate whether they don't support join pushdown or that the action had no effect
+     * by returning {@link Optional#empty()}. Connectors should expect this method to be called multiple times
+     * during the optimization of a given query.
+     * <p>
+     * <b>Note</b>: it's critical for connectors to return Optional.empty() if calling this method has no effect for that
+     * invocation, even if the connector generally supports join pushdown. Doing otherwise can cause the optimizer
+     * to loop indefinitely.
+     * </p>
+     * <p>
+     * The join conditions refer to the columns of the joined tables through the variables of the left and right
+     * assignments. If the method returns a result, the derived table produces the rows of the join, and its
+     * columns are described by the mappings from the columns of the left and right tables.
+     * <p>
+     * The statistics provided by the engine can be used to decide whether computing the join in the connector
+     * is beneficial, e.g. when the join produces more data than its inputs.
+     */
+    default Optional<JoinApplicationResult<ConnectorTableHandle>> applyJoin(
+            ConnectorSession session,
+            JoinType joinType,
+            ConnectorTableHandle left,
+            ConnectorTableHandle right,
+            List<JoinCondition> joinConditions,
+            Map<String, ColumnHandle> leftAssignments,
+            Map<String, ColumnHandle> rightAssignments,
+            JoinStatistics statistics)
+    {
+        return Optional.empty();
+    }
 }
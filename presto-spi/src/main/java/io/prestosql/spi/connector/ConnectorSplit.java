@@ -16,6 +16,7 @@ package io.prestosql.spi.connector;
 import io.prestosql.spi.HostAddress;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ConnectorSplit
 {
@@ -24,4 +25,25 @@ public interface ConnectorSplit
     List<HostAddress> getAddresses();
 
     Object getInfo();
+
+    /**
+     * Returns a key identifying the data read by this split, such as the path of a file.
+     * Node selectors that support soft affinity prefer to schedule splits with the same key
+     * on the same node, so that caches local to the node can be reused.
+     */
+    default Optional<String> getAffinityKey()
+    {
+        return Optional.empty();
+    }
+
+    /**
+     * Returns an identifier of the data read by this split that changes whenever that data
+     * changes, for example a file path combined with its modification time. Results computed
+     * from splits with equal identifiers may be cached and reused by the engine. An empty
+     * result means the output of this split must not be cached.
+     */
+    default Optional<String> getCacheIdentifier()
+    {
+        return Optional.empty();
+    }
 }
@@ -13,6 +13,10 @@
  */
 package io.prestosql.spi.connector;
 
+import io.prestosql.spi.predicate.TupleDomain;
+
+import java.util.function.Supplier;
+
 public interface ConnectorSplitManager
 {
     @Deprecated
@@ -34,6 +38,22 @@ public interface ConnectorSplitManager
         throw new UnsupportedOperationException();
     }
 
+    /**
+     * @param dynamicFilter supplier of the dynamic filter collected so far for this table scan.
+     * The returned predicate is non-blocking and may become narrower over time, as the build
+     * sides of the joins complete. Splits not satisfying it may be skipped.
+     */
+    default ConnectorSplitSource getSplits(
+            ConnectorTransactionHandle transaction,
+            ConnectorSession session,
+            ConnectorTableHandle table,
+            SplitSchedulingStrategy splitSchedulingStrategy,
+            Supplier<TupleDomain<ColumnHandle>> dynamicFilter)
+    {
+        // By default, ignore dynamic filter (as it is an optimization and doesn't affect correctness).
+        return getSplits(transaction, session, table, splitSchedulingStrategy);
+    }
+
     enum SplitSchedulingStrategy
     {
         UNGROUPED_SCHEDULING,
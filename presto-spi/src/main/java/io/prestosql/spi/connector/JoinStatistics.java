@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.prestosql.spi.connector;
+
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Estimates computed by the engine for the sides and the result of a join offered to a connector.
+ * An estimate is missing when it is not known.
+ */
+public class JoinStatistics
+{
+    private static final JoinStatistics UNKNOWN = new JoinStatistics(Optional.empty(), Optional.empty(), Optional.empty());
+
+    private final Optional<RelationStatistics> leftStatistics;
+    private final Optional<RelationStatistics> rightStatistics;
+    private final Optional<RelationStatistics> joinStatistics;
+
+    public JoinStatistics(
+            Optional<RelationStatistics> leftStatistics,
+            Optional<RelationStatistics> rightStatistics,
+            Optional<RelationStatistics> joinStatistics)
+    {
+        this.leftStatistics = requireNonNull(leftStatistics, "leftStatistics is null");
+        this.rightStatistics = requireNonNull(rightStatistics, "rightStatistics is null");
+        this.joinStatistics = requireNonNull(joinStatistics, "joinStatistics is null");
+    }
+
+    public static JoinStatistics unknown()
+    {
+        return UNKNOWN;
+    }
+
+    public Optional<RelationStatistics> getLeftStatistics()
+    {
+        return leftStatistics;
+    }
+
+    public Optional<RelationStatistics> getRightStatistics()
+    {
+        return rightStatistics;
+    }
+
+    public Optional<RelationStatistics> getJoinStatistics()
+    {
+        return joinStatistics;
+    }
+
+    public static class RelationStatistics
+    {
+        private final double rowCount;
+        private final double dataSize;
+
+        public RelationStatistics(double rowCount, double dataSize)
+        {
+            this.rowCount = rowCount;
+            this.dataSize = dataSize;
+        }
+
+        public double getRowCount()
+        {
+            return rowCount;
+        }
+
+        /**
+         * Estimated size in bytes of the rows of the relation.
+         */
+        public double getDataSize()
+        {
+            return dataSize;
+        }
+
+        @Override
+        public String toString()
+        {
+            return "RelationStatistics{rowCount=" + rowCount + ", dataSize=" + dataSize + "}";
+        }
+    }
+}
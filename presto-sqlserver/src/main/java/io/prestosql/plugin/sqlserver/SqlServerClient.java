@@ -20,6 +20,7 @@ import io.prestosql.plugin.jdbc.ColumnMapping;
 import io.prestosql.plugin.jdbc.ConnectionFactory;
 import io.prestosql.plugin.jdbc.JdbcColumnHandle;
 import io.prestosql.plugin.jdbc.JdbcIdentity;
+import io.prestosql.plugin.jdbc.JdbcSortItem;
 import io.prestosql.plugin.jdbc.JdbcTableHandle;
 import io.prestosql.plugin.jdbc.JdbcTypeHandle;
 import io.prestosql.plugin.jdbc.StatsCollecting;
@@ -88,6 +89,13 @@ public class SqlServerClient
         }
     }
 
+    @Override
+    protected String countExpression(String argument)
+    {
+        // count() returns int in SQL Server
+        return format("count_big(%s)", argument);
+    }
+
     @Override
     public void renameColumn(JdbcIdentity identity, JdbcTableHandle handle, JdbcColumnHandle jdbcColumn, String newColumnName)
     {
@@ -185,6 +193,13 @@ public class SqlServerClient
         return true;
     }
 
+    @Override
+    public boolean supportsTopN(ConnectorSession session, List<JdbcSortItem> sortOrder)
+    {
+        // SQL Server does not support NULLS FIRST and NULLS LAST in ORDER BY
+        return false;
+    }
+
     private static String singleQuote(String... objects)
     {
         return singleQuote(DOT_JOINER.join(objects));